@@ -212,7 +212,7 @@ public class DrJava {
         if (RemoteControlClient.isServerRunning()) {
           // existing instance is running and responding
           for (int i = 0; i < fs.size(); ++i) {
-            _log.log("opening with remote control "+fs.get(i));
+            _log.log("opening with remote control ", fs.get(i));
             RemoteControlClient.openFile(new File(fs.get(i)));
             files.remove(fs.get(i));
           }
@@ -220,7 +220,9 @@ public class DrJava {
         }
         else {
           ++failCount;
-          _log.log("Failed to open with remote control, attempt "+failCount+" of "+NUM_REMOTE_CONTROL_RETRIES);
+          if (_log.isEnabled()) {
+            _log.log("Failed to open with remote control, attempt ", failCount, " of ", NUM_REMOTE_CONTROL_RETRIES);
+          }
           if (failCount>=numAttempts) return false; // failure
           try { Thread.sleep(WAIT_BEFORE_REMOTE_CONTROL_RETRY); }
           catch(InterruptedException ie) { /* just try again now */ }
@@ -268,7 +270,7 @@ public class DrJava {
         String masterMemory = getConfig().getSetting(MASTER_JVM_XMX).trim();
         boolean _doRestart = (getConfig().getSetting(MASTER_JVM_ARGS).length() > 0)
           || (!"".equals(masterMemory) && !OptionConstants.heapSizeChoices.get(0).equals(masterMemory));
-        _log.log("_doRestart: "+_doRestart);
+        _log.log("_doRestart: ", _doRestart);
         
         LinkedList<String> classArgs = new LinkedList<String>();
         
@@ -303,14 +305,14 @@ public class DrJava {
             JVMBuilder jvmb = JVMBuilder.DEFAULT.jvmArguments(_jvmArgs);
             
             // extend classpath if JUnit/ConcJUnit location specified
-            _log.log("JVMBuilder: classPath = "+jvmb.classPath());
+            _log.log("JVMBuilder: classPath = ", jvmb.classPath());
             ArrayList<File> extendedClassPath = new ArrayList<File>();
             for(File f: jvmb.classPath()) { extendedClassPath.add(f); }
-            _log.log("JVMBuilder: extendedClassPath = "+extendedClassPath);
+            _log.log("JVMBuilder: extendedClassPath = ", extendedClassPath);
             jvmb = jvmb.classPath(edu.rice.cs.plt.iter.IterUtil.asSizedIterable(extendedClassPath));
-            _log.log("JVMBuilder: jvmArguments = "+jvmb.jvmArguments());
-            _log.log("JVMBuilder: classPath = "+jvmb.classPath());
-            _log.log("JVMBuilder: mainParams = "+classArgs);
+            _log.log("JVMBuilder: jvmArguments = ", jvmb.jvmArguments());
+            _log.log("JVMBuilder: classPath = ", jvmb.classPath());
+            _log.log("JVMBuilder: mainParams = ", classArgs);
             
             // start new DrJava
             Process p = jvmb.start(DrJavaRoot.class.getName(), classArgs);
@@ -323,7 +325,7 @@ public class DrJava {
               failed = (exitValue != 0);
             }
             catch(InterruptedException e) { /* timeout was reached */ }
-            _log.log("failed = "+failed);
+            _log.log("failed = ", failed);
             if (failed) {
               if (failCount > 0) {
                 // 2nd time that spawning has failed, give up
@@ -353,7 +355,7 @@ public class DrJava {
             }
             else {
               // check if there are any files left in _filesToOpen
-              _log.log("not failed, send remaining files via remote control: "+_filesToOpen);
+              _log.log("not failed, send remaining files via remote control: ", _filesToOpen);
               openWithRemoteControl(_filesToOpen, NUM_REMOTE_CONTROL_RETRIES);
             }
           }
@@ -402,7 +404,7 @@ public class DrJava {
     // Loop through arguments looking for known options
     int argIndex = 0;
     int len = args.length;
-    _log.log("handleCommandLineArgs. _filesToOpen: " + _filesToOpen);
+    _log.log("handleCommandLineArgs. _filesToOpen: ", _filesToOpen);
     
     while(argIndex < len) {
       String arg = args[argIndex++];
@@ -473,12 +475,12 @@ public class DrJava {
     
     if (!heapSizeGiven) { _jvmArgs.add(DEFAULT_MAX_HEAP_SIZE_ARG); }
     
-    _log.log("_jvmArgs = " + _jvmArgs);
+    _log.log("_jvmArgs = ", _jvmArgs);
     
     // Open the remaining args as filenames
     
     for (int i = argIndex; i < len; i++) { addFileToOpen(args[i]); }
-    _log.log("\t _filesToOpen now contains: " + _filesToOpen);
+    _log.log("\t _filesToOpen now contains: ", _filesToOpen);
 
     return true;
   }
@@ -589,7 +591,7 @@ public class DrJava {
   
   /* Erase all non-final bindings created in this class.  Only used in testing. */
   public static void cleanUp() {
-    _log.log("cleanUp. _filesToOpen: " + _filesToOpen);
+    _log.log("cleanUp. _filesToOpen: ", _filesToOpen);
     clearFilesToOpen();
     _log.log("\t_filesToOpen cleared");
     _jvmArgs.clear();
@@ -1467,6 +1467,17 @@ public interface OptionConstants {
   public static final BooleanOption SHOW_PATH_WARNINGS = 
     new BooleanOption("show.path.warnings", Boolean.FALSE);
   
+  /** Whether compilations are limited to the modified sources and the sources depending on them. */
+  public static final BooleanOption INCREMENTAL_COMPILE = new BooleanOption("compiler.incremental", Boolean.FALSE);
+  
+  /** Whether sources are compiled from the text of their open documents, so that they need not be saved first. */
+  public static final BooleanOption COMPILE_FROM_DOCUMENTS = new BooleanOption("compiler.from.documents", Boolean.FALSE);
+  
+  /** Whether the class files compiled from open documents are kept in memory, and loaded into the Interactions Pane
+    * from there, instead of being written to disk. */
+  public static final BooleanOption COMPILE_CLASSES_IN_MEMORY = 
+    new BooleanOption("compiler.classes.in.memory", Boolean.FALSE);
+  
   /** Default compiler to use
     * Stores the name of the compiler to use, set by changing the selection in
     * the ForcedChoiceOption created by COMPILER_PREFERENCE_CONTROL.evaluate()
@@ -1583,6 +1594,10 @@ public interface OptionConstants {
   public static final BooleanOption DYNAMICJAVA_REQUIRE_VARIABLE_TYPE =
     new BooleanOption("dynamicjava.require.variable.type", Boolean.TRUE);
   
+  /** Whether to compile loops in the Interactions Pane to bytecode, rather than interpreting them. */
+  public static final BooleanOption DYNAMICJAVA_COMPILE_LOOPS =
+    new BooleanOption("dynamicjava.compile.loops", Boolean.FALSE);
+  
   
   /** Dynamic Java access control. */
   public static final ArrayList<String> DYNAMICJAVA_ACCESS_CONTROL_CHOICES =
@@ -1933,6 +1948,38 @@ public interface OptionConstants {
   public static final ForcedChoiceOption CONCJUNIT_CHECKS_ENABLED =
     new ForcedChoiceOption("concjunit.checks.enabled", ConcJUnitCheckChoices.NONE, concJUnitCheckChoices);
 
+  /** Whether document reduced models are backed by a balanced tree (logarithmic-time cursor jumps on large files) 
+    * instead of a plain linked list.  Only read when a document is created.
+    */
+  public static final BooleanOption INDEXED_REDUCED_MODEL = new BooleanOption("reduced.model.indexed", Boolean.FALSE);
+  
+  /** Whether large blocks are indented by computing the indentation of their lines in parallel in private copies of the
+    * document, applying only the resulting whitespace changes to the document.
+    */
+  public static final BooleanOption PARALLEL_INDENT = new BooleanOption("indent.parallel", Boolean.FALSE);
+  
+  /** The percentage of the maximum heap that unmodified documents kept in memory by the document cache may occupy. */
+  public static final NonNegativeIntegerOption DOCUMENT_CACHE_HEAP_PERCENT = 
+    new NonNegativeIntegerOption("document.cache.heap.percent", Integer.valueOf(25));
+  
+  /** Whether the text of documents kicked out of the document cache is kept compressed in memory. */
+  public static final BooleanOption DOCUMENT_CACHE_COMPRESS = new BooleanOption("document.cache.compress", Boolean.TRUE);
+  
+  /** The number of threads on which the test classes of a JUnit run are run concurrently; 1 runs them one after
+    * another.  Only suitable for test classes that do not share mutable state, such as static fields or System.out. */
+  public static final NonNegativeIntegerOption JUNIT_THREADS = 
+    new NonNegativeIntegerOption("junit.threads", Integer.valueOf(1));
+  
+  /** The number of spare interpreter JVMs kept running in the background, so that resetting the Interactions Pane 
+    * does not wait for a new JVM to start.  0 disables spares. */
+  public static final NonNegativeIntegerOption INTERPRETER_JVM_SPARES = 
+    new NonNegativeIntegerOption("interpreter.jvm.spares", Integer.valueOf(0));
+  
+  /** The maximum number of characters of output retained in the Interactions Pane; the oldest lines are discarded
+    * once a program's output grows beyond it.  0 means unlimited. */
+  public static final NonNegativeIntegerOption INTERACTIONS_MAX_LENGTH = 
+    new NonNegativeIntegerOption("interactions.max.length", Integer.valueOf(1000000));
+  
   /** A version suffix that describes custom additions to DrJava. */
   public static final StringOption CUSTOM_DRJAVA_JAR_VERSION_SUFFIX = new StringOption("custom.drjava.jar.version.suffix", "");
 }
@@ -56,13 +56,9 @@ import edu.rice.cs.util.text.SwingDocument;
 import java.awt.EventQueue;
 import java.util.ArrayList;
 import java.util.Set;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.SortedMap;
 import java.util.StringTokenizer;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.ProgressMonitor;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
@@ -99,8 +95,6 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   protected static final HashSet<String> _primTypes = _makePrimTypes();
   /** The default indent setting. */
   protected volatile int _indent = 2;
-  /** Initial number of elements in _queryCache (see below). */
-  private static final int INIT_CACHE_SIZE = 0x10000;  // 16**4 = 16384 
   /** Constant specifying how large pos must be before incremental analysis is applied in posInBlockComment */
   public static final int POS_THRESHOLD = 10000; 
 //  /** Constant specifying how large pos must be before incremental analysis is applied in posInParenPhrase */
@@ -117,21 +111,29 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     * track of state.  This field together with _currentLocation function as a virtual object for purposes of 
     * synchronization.  All operations that access or modify this virtual object should be synchronized on _reduced.
     */
-  public final ReducedModelControl _reduced = new ReducedModelControl();  // public only for locking purposes
+  public final ReducedModelControl _reduced =   // public only for locking purposes
+    new ReducedModelControl(DrJava.getConfig().getSetting(INDEXED_REDUCED_MODEL).booleanValue());
   
   /** The absolute character offset in the document. Treated as part of the _reduced (model) for locking 
     * purposes. */
   protected volatile int _currentLocation = 0;
   
-  /* The fields _queryCache, _offsetToQueries, and _cacheModified function as an extension of the reduced model. 
-   * When enabled in blockIndent, this data structure caches calls to the reduced model to speed up indent performance.
-   * Must be cleared every time the document is changed.  Use by calling _checkCache, _storeInCache, and _clearCache.
-   * When _queryCache = null, the cache is disabled.
+  /* The field _queryCache functions as an extension of the reduced model.  It caches calls to the reduced model to 
+   * speed up indenting and other structural queries.  It persists across edits: insertUpdate and removeUpdate evict
+   * only the answers that depend on the changed text and relocate position answers that follow it.  Use by calling 
+   * _checkCache and _storeInCache.
    */
-  private volatile HashMap<Query, Object> _queryCache;
+  private final QueryCache _queryCache = new QueryCache();
   
-  /** Records the set of queries (as a list) for each offset. */
-  private volatile SortedMap<Integer, List<Query>> _offsetToQueries;
+  /** The highlight spans of recently painted lines.  Evicted by the commands that update the reduced model, so that
+    * undo and redo (which bypass insertUpdate and removeUpdate) are covered as well. */
+  private final HighlightCache _highlightCache = new HighlightCache();
+  
+  /** Source of edit stamps, shared by all documents so that a stamp identifies both a document and its text. */
+  private static final AtomicLong _nextEditStamp = new AtomicLong(0);
+  
+  /** The stamp of the last edit applied to the reduced model; see getEditStamp. */
+  private volatile long _editStamp = _nextEditStamp.incrementAndGet();
   
   /** The instance of the indent decision tree used by Definitions documents. */
   private volatile Indenter _indenter;
@@ -157,8 +159,6 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   protected AbstractDJDocument(Indenter indenter) { 
     _indenter = indenter;
-    _queryCache = null;
-    _offsetToQueries = null;
     _initNewIndenter();
 //     System.err.println("AbstractDJDocument constructor with indent level " + indenter.getIndentLevel() 
 //    + " invoked on " + this);
@@ -171,6 +171,11 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   private Indenter getIndenter() { return _indenter; }
   
+  /** @return true if the running thread may use the reduced model of this document.  Only the event thread may do so,
+    *         except in unit tests and in private copies of a document that are confined to a single thread.
+    */
+  protected boolean _inOwnerThread() { return Utilities.TEST_MODE || EventQueue.isDispatchThread(); }
+  
   /** Get the indent level.
     * @return the indent level
     */
@@ -273,6 +278,33 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     return v;
   }
   
+  /** Gets the highlight spans of the line [lineStart, lineEnd), which must be an entire line of this document.  The
+    * result is cached until the line (or text preceding it) changes, so callers must not modify it.  Only runs in the
+    * event thread.
+    * @param lineStart the offset of the beginning of the line
+    * @param lineEnd the offset just past the end of the line (including its newline, if any)
+    * @return the spans covering the line, in order
+    */
+  public HighlightStatus[] getLineHighlightStatus(int lineStart, int lineEnd) {
+    HighlightStatus[] spans = _highlightCache.get(lineStart, lineEnd);
+    if (spans == null) {
+      ArrayList<HighlightStatus> v = getHighlightStatus(lineStart, lineEnd);
+      spans = v.toArray(new HighlightStatus[v.size()]);
+      _highlightCache.put(lineStart, lineEnd, spans);
+    }
+    return spans;
+  }
+  
+  /** @return the cache used by getLineHighlightStatus; exposed for testing and measurement */
+  public HighlightCache getHighlightCache() { return _highlightCache; }
+  
+  /** Gets a stamp identifying this document and the current version of its text.  Stamps are unique across all 
+    * document instances, so a reconstructed document never reuses the stamp of the one it replaces.  Used by indexes
+    * over document text to detect stale entries without rereading the text.
+    * @return a positive number that changes whenever the text of this document changes
+    */
+  public long getEditStamp() { return _editStamp; }
+  
   /** Distinguishes keywords from normal text in the given HighlightStatus element. Specifically, it looks to see
     * if the given text contains a keyword. If it does, it splits the HighlightStatus block into separate blocks
     * so that each keyword has its own block. This process identifies all keywords in the given block.
@@ -555,7 +587,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   
   /** Assumes that read lock and reduced lock are already held. */
   public ReducedModelState getStateAtCurrent() { 
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     return _reduced.getStateAtCurrent(); 
   }
   
@@ -573,13 +605,13 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   public int findPrevEnclosingBrace(final int pos, final char opening, final char closing) throws BadLocationException {
     
     // assert EventQueue.isDispatchThread();
+    if (pos >= getLength() || pos <= 0) { return -1; }
+    
     // Check cache
     final Query key = new Query.PrevEnclosingBrace(pos, opening, closing);
     final Integer cached = (Integer) _checkCache(key);
     if (cached != null) return cached.intValue();
     
-    if (pos >= getLength() || pos <= 0) { return -1; }
-    
     final char[] delims = {opening, closing};
     int reducedPos = pos;
     int i;  // index of for loop below
@@ -650,12 +682,12 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   public int findNextEnclosingBrace(final int pos, final char opening, final char closing) throws BadLocationException {
     assert EventQueue.isDispatchThread();
     
+    if (pos >= getLength() - 1) { return -1; }
+    
     // Check cache
     final Query key = new Query.NextEnclosingBrace(pos, opening, closing);
     final Integer cached = (Integer) _checkCache(key);
-    
     if (cached != null) return cached.intValue();
-    if (pos >= getLength() - 1) { return -1; }
     
     final char[] delims = {opening, closing};
     int reducedPos = pos;
@@ -695,8 +727,11 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     
     setCurrentLocation(origPos);    // Restore the state of the reduced model;
     
-    if (i == text.length()) reducedPos = -1; // No matching char was found
-    _storeInCache(key, reducedPos, reducedPos);
+    if (i == text.length()) {  // No matching char was found
+      reducedPos = -1; 
+      _storeInCache(key, reducedPos, Integer.MAX_VALUE);  // Any change to the document invalidates this result!
+    }
+    else _storeInCache(key, reducedPos, reducedPos);
     // Return position of matching char or ERROR_INDEX (-1)     
     return reducedPos;  
   }
@@ -724,7 +759,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   public int findPrevDelimiter(final int pos, final char[] delims, final boolean skipBracePhrases)
     throws BadLocationException {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final Query key = new Query.PrevDelimiter(pos, delims, skipBracePhrases);
@@ -815,7 +850,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   public boolean findCharInStmtBeforePos(char findChar, int position) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     if (position == -1) {
       String msg = 
@@ -863,7 +898,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   public int _findPrevCharPos(final int pos, final char[] whitespace) throws BadLocationException {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final Query key = new Query.PrevCharPos(pos, whitespace);
@@ -928,10 +963,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    * @param key Name of the method and arguments
    * @return the object in the cache associated with key; null if not in the cache.
    */
-  protected Object _checkCache(final Query key) {
-    if (_queryCache == null) return null;
-    return _queryCache.get(key); 
-  }
+  protected Object _checkCache(final Query key) { return _queryCache.get(key); }
   
   /** Stores the given result in the helper method cache. 
    * Query classes define equality structurally.
@@ -943,51 +975,37 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    *                unchanged, the query should return the same answer.
    */
   protected void _storeInCache(final Query query, final Object answer, final int offset) {
-    if (_queryCache == null) return;
-    _queryCache.put(query, answer);
-    _addToOffsetsToQueries(query, offset);
+    _queryCache.put(query, answer, offset);
   }
   
-  /** Clears the memozing cache of queries with offset {@literal >=} than 
-   * specified value.  Should be called every time the document is modified. 
-   * @param offset the offset beyond which to clear
+  /** Stores the given positional result of a relocatable query in the helper method cache.  The answer survives edits
+   * that precede the text on which it depends; it is shifted along with that text.
+   *
+   * @param query  A canonical description of the query
+   * @param answer  The position returned for the query
+   * @param lo  The offset of the left edge of the text on which the query depends, or -1 if the query depends on all
+   *            of the text in (0:hi)
+   * @param hi  The offset bounding the right edge of the text on which the query depends
    */
-  protected void _clearCache(int offset) {
-    if (_queryCache == null) return;
-    
-    if (offset <= 0) {
-      _queryCache.clear();
-      _offsetToQueries.clear();
-      return;
-    }
-    // The Integer[] copy of the key set is required to avoid ConcurrentModifiationExceptions.  Ugh!
-    Integer[] deadOffsets = _offsetToQueries.tailMap(offset).keySet().toArray(new Integer[0]);
-    for (int i: deadOffsets) {
-      for (Query query: _offsetToQueries.get(i)) _queryCache.remove(query);  // remove query entry from cache
-      _offsetToQueries.remove(i);   // remove query bucket for i from offsetToQueries table
-    }
+  protected void _storeInCache(final Query.Relocatable query, final int answer, final int lo, final int hi) {
+    if (lo < 0) _queryCache.put(query, answer, hi);
+    else _queryCache.put(query, answer, lo, hi);
   }
   
-  /** Add {@literal <query,offset>} pair to _offsetToQueries map. 
-   * Assumes lock on _queryCache is already held.
-   * @param query the query
-   * @param offset the offset
+  /** Clears the memozing cache of all queries.  The cache is maintained incrementally by insertUpdate and removeUpdate,
+   * so this method is only needed when the text is changed without notifying the document.
    */
-  private void _addToOffsetsToQueries(final Query query, final int offset) {
-    List<Query> selectedQueries = _offsetToQueries.get(offset);
-    if (selectedQueries == null) {
-      selectedQueries = new LinkedList<Query>();
-      _offsetToQueries.put(offset, selectedQueries);
-    }
-    selectedQueries.add(query);
-  }
+  protected void _clearCache() { _queryCache.clear(); }
+  
+  /** @return the query cache of this document; exposed so that its hit/miss/eviction counts can be inspected. */
+  public QueryCache getQueryCache() { return _queryCache; }
   
   /** Default indentation - uses OTHER flag and no progress indicator.  Assume write lock is already held.
     * @param selStart the offset of the initial character of the region to indent
     * @param selEnd the offset of the last character of the region to indent
     */
   public void indentLines(int selStart, int selEnd) {
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     try { indentLines(selStart, selEnd, Indenter.IndentReason.OTHER, null); }
     catch (OperationCanceledException oce) {
       // Indenting without a ProgressMonitor should never be cancelled!
@@ -1007,7 +1025,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   public void indentLines(int selStart, int selEnd, Indenter.IndentReason reason, ProgressMonitor pm)
     throws OperationCanceledException {
     
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     
     // Begins a compound edit.
     // int key = startCompoundEdit(); // commented out in connection with the FrenchKeyBoard Fix
@@ -1049,9 +1067,9 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   private void _indentBlock(final int start, final int end, Indenter.IndentReason reason, ProgressMonitor pm)
     throws OperationCanceledException, BadLocationException {
     
-    // Set up the query cache;
-    _queryCache = new HashMap<Query, Object>(INIT_CACHE_SIZE);
-    _offsetToQueries = new TreeMap<Integer, List<Query>>();
+    // Large blocks are indented in private copies of the text and written back as one batch of edits
+    if (DrJava.getConfig().getSetting(PARALLEL_INDENT).booleanValue() && ParallelIndenter.isWorthwhile() &&
+        new ParallelIndenter(this, getIndenter()).indentLines(start, end, reason, pm)) return;
     
     // Keep marker at the end. This Position will be the correct endpoint no matter how we change 
     // the doc doing the indentLine calls.
@@ -1080,10 +1098,6 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
       walker += _reduced.getDistToNextNewline() + 1;
 //      _indentInProgress = false;
     }
-    
-    // disable the query cache
-    _queryCache = null;
-    _offsetToQueries = null;
   }
   
   /** Indents a line using the Indenter.  Public ONLY for testing purposes. 
@@ -1098,7 +1112,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     * @param currPos A position on the current line
     */
   public int getIntelligentBeginLinePos(int currPos) throws BadLocationException {
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     String prefix;
     int firstChar;
@@ -1147,7 +1161,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     * @param whitespace  characters to skip when looking for beginning of next statement
     */
   public int _getIndentOfCurrStmt(final int pos, final char[] delims, final char[] whitespace)  {
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     
     try {
       // Check cache
@@ -1214,7 +1228,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   public int findCharOnLine(final int pos, final char findChar) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();  // violated in some unit tests
+    /* */ assert _inOwnerThread();  // violated in some unit tests
     
     // Check cache
     final Query key = new Query.CharOnLine(pos, findChar);
@@ -1247,8 +1261,11 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
       }
       setCurrentLocation(oldPos);  // restore old position
       
-      if (i == -1) matchIndex = -1;
-      _storeInCache(key, matchIndex, Math.max(pos - 1, matchIndex));
+      if (i == -1) {
+        matchIndex = -1;
+        _storeInCache(key, matchIndex, Math.max(pos - 1, lineEnd));  // Answer depends on the entire line
+      }
+      else _storeInCache(key, matchIndex, Math.max(pos - 1, matchIndex));
     }
     catch (BadLocationException e) { throw new UnexpectedException(e); }
     
@@ -1262,7 +1279,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   public int _getLineStartPos(final int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     if (pos < 0 || pos > getLength()) return -1;
     // Check cache
@@ -1277,7 +1294,8 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     
     int newPos = 0;
     if (dist >= 0)  newPos = pos - dist;
-    _storeInCache(key, newPos, pos - 1);
+    // Answer depends only on the text from the preceding newline (if any) through pos - 1
+    _storeInCache((Query.LineStartPos) key, newPos, (newPos > 0) ? newPos - 1 : -1, pos - 1);
     return newPos;  // may equal 0
   }
   
@@ -1287,7 +1305,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   public int _getLineEndPos(final int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     if (pos < 0 || pos > getLength()) return -1;
     
@@ -1305,7 +1323,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     
     newPos = pos + dist;
     assert newPos == getLength() || _getText(newPos, 1).charAt(0) == newline;
-    _storeInCache(key, newPos, newPos);
+    _storeInCache((Query.LineEndPos) key, newPos, pos, newPos);  // Answer depends only on text[pos:newPos]
     return newPos;
   }
   
@@ -1318,7 +1336,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   public int _getLineFirstCharPos(final int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final Query key = new Query.LineFirstCharPos(pos);
@@ -1339,7 +1357,9 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
         break;
       }
     }
-    _storeInCache(key, nonWSPos, Math.max(pos - 1, nonWSPos));
+    // Answer depends only on the text of the line (including the preceding newline, if any)
+    _storeInCache((Query.LineFirstCharPos) key, nonWSPos, (startLinePos > 0) ? startLinePos - 1 : -1, 
+                  Math.max(pos - 1, nonWSPos));
     return nonWSPos;  // may equal lineEndPos
   }
   
@@ -1377,7 +1397,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
   public int getFirstNonWSCharPos(final int pos, final char[] whitespace, final boolean acceptComments) throws 
     BadLocationException {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final Query key = new Query.FirstNonWSCharPos(pos, whitespace, acceptComments);
@@ -1489,7 +1509,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     */
   public boolean _inParenPhrase(final int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final Query key = new Query.PosInParenPhrase(pos);
@@ -1514,7 +1534,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   public BraceInfo _getLineEnclosingBrace() {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     // Check cache
     final int lineStart = _getLineStartPos(_currentLocation);
@@ -1654,7 +1674,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   private boolean onlySpacesBeforeCurrent() throws BadLocationException{
     
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     
     int lineStart = _getLineStartPos(_currentLocation);
     if (lineStart < 0) lineStart = 0;    // _currentLocation on first line
@@ -1678,7 +1698,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   private int _getWhiteSpace() throws BadLocationException {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     int lineEnd = _getLineEndPos(_currentLocation);  // index of next '\n' char or end of document
     int lineLen = lineEnd - _currentLocation;
@@ -1701,7 +1721,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     
 //    System.err.println("lockState = " + _lockState);
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     int lineStart = _getLineStartPos(_currentLocation);
     if (lineStart < 0) lineStart = 0;    // _currentLocation on first line
@@ -1727,7 +1747,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   public void setTab(int tab, int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     try {
       int startPos = _getLineStartPos(pos);
@@ -1758,7 +1778,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   public void setTab(String tab, int pos) {
     
-    /* */ assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    /* */ assert _inOwnerThread();
     
     try {
       int startPos = _getLineStartPos(pos);
@@ -1791,7 +1811,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   protected void insertUpdate(AbstractDocument.DefaultDocumentEvent chng, AttributeSet attr) {
     
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     
     super.insertUpdate(chng, attr);
     
@@ -1800,7 +1820,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
       final int length = chng.getLength();
       final String str = getText(offset, length);
       
-      if (length > 0) _clearCache(offset);    // Selectively clear the query cache
+      if (length > 0) _queryCache.inserted(offset, length);  // Selectively evict or relocate cached queries
       
       Runnable doCommand = 
         (length == 1) ? new CharInsertCommand(offset, str.charAt(0)) : new InsertCommand(offset, str);
@@ -1828,7 +1848,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
    */
   protected void removeUpdate(AbstractDocument.DefaultDocumentEvent chng) {
     
-    assert Utilities.TEST_MODE || EventQueue.isDispatchThread();
+    assert _inOwnerThread();
     
     try {
       final int offset = chng.getOffset();
@@ -1837,7 +1857,7 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
       final String removedText = getText(offset, length);
       super.removeUpdate(chng);
       
-      if (length > 0) _clearCache(offset);  // Selectively clear the query cache
+      if (length > 0) _queryCache.removed(offset, length);  // Selectively evict or relocate cached queries
       
       Runnable doCommand = new RemoveCommand(offset, length, removedText);
       Runnable undoCommand = new UnremoveCommand(offset, removedText);
@@ -1931,6 +1951,8 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     /** Inserts chars in reduced model and moves location to end of insert; cache has already been cleared. */
     public void run() {
       
+      _highlightCache.edited(_offset);
+      _editStamp = _nextEditStamp.incrementAndGet();
       _reduced.move(_offset - _currentLocation);  
       int len = _text.length();
       // Record any change to line numbering
@@ -1971,6 +1993,8 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     /** Inserts chars in reduced model and moves location to end of insert; cache has already been cleared. */
     public void run() {
       
+      _highlightCache.edited(_offset);
+      _editStamp = _nextEditStamp.incrementAndGet();
       _reduced.move(_offset - _currentLocation);  
       if (_ch == newline) _numLinesChanged(_offset);  // record change to line numbering
       _addCharToReducedModel(_ch);
@@ -1992,6 +2016,8 @@ public abstract class AbstractDJDocument extends SwingDocument implements DJDocu
     
     /** Removes chars from reduced model; cache has already been selectively cleared. */
     public void run() {
+      _highlightCache.edited(_offset);
+      _editStamp = _nextEditStamp.incrementAndGet();
       setCurrentLocation(_offset);
       if (_removedText.indexOf(newline) >= 0) _numLinesChanged(_offset);  // record change to line numbering
       _reduced.delete(_length);    
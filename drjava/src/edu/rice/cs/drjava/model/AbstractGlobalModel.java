@@ -90,6 +90,7 @@ import edu.rice.cs.drjava.config.OptionEvent;
 import edu.rice.cs.drjava.config.OptionListener;
 import edu.rice.cs.drjava.model.cache.DCacheAdapter;
 import edu.rice.cs.drjava.model.cache.DDReconstructor;
+import edu.rice.cs.drjava.model.cache.TextSnapshot;
 import edu.rice.cs.drjava.model.cache.DocumentCache ;
 import edu.rice.cs.drjava.model.compiler.CompilerModel;
 import edu.rice.cs.drjava.model.debug.Breakpoint;
@@ -131,6 +132,7 @@ import edu.rice.cs.plt.collect.CollectUtil;
 import edu.rice.cs.plt.lambda.LambdaUtil;
 import edu.rice.cs.plt.lambda.Predicate;
 
+import edu.rice.cs.util.FileMonitor;
 import edu.rice.cs.util.FileOpenSelector;
 import edu.rice.cs.util.FileOps;
 import edu.rice.cs.util.Log;
@@ -285,6 +287,8 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   /** Constructs a new GlobalModel. */
   public AbstractGlobalModel() {
     _cache = new DocumentCache();
+    _cache.setBudget(_getDocumentCacheBudget(DrJava.getConfig().getSetting(DOCUMENT_CACHE_HEAP_PERCENT)));
+    _cache.setCompressEvictedText(DrJava.getConfig().getSetting(DOCUMENT_CACHE_COMPRESS).booleanValue());
     
     _consoleDocAdapter = new InteractionsDJDocument(_notifier);
     _consoleDoc = new ConsoleDocument(_consoleDocAdapter);
@@ -380,6 +384,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   /** @param state the new file grouping state. */
   public void setFileGroupingState(FileGroupingState state) {
     _state = state;
+    _updateFileMonitor();
     _notifier.projectRunnableChanged();
     _notifier.projectBuildDirChanged();
     _notifier.projectWorkDirChanged();
@@ -387,6 +392,47 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
 //    _notifier.projectModified();  // not currently used
   }
   
+  /** Watches the project source tree and build directory while a project is open, so that documents and project 
+    * refreshes need not poll the file system; null when no project is open.
+    */
+  private volatile FileMonitor _fileMonitor = null;
+  
+  /** Watches the project root and build directory of the current project, or stops watching if there is none.  
+    * Called whenever the project or its directories change, and after compilation, which may create the build 
+    * directory.
+    */
+  protected synchronized void _updateFileMonitor() {
+    FileGroupingState state = _state;
+    ArrayList<File> trees = new ArrayList<File>();
+    if (state != null && state.isProjectActive()) {
+      File root = state.getProjectRoot();
+      File buildDir = state.getBuildDirectory();
+      if (root != null && root.isDirectory()) trees.add(root);
+      if (buildDir != null && buildDir.isDirectory()) trees.add(buildDir);
+    }
+    if (trees.isEmpty()) _closeFileMonitor();
+    else {
+      if (_fileMonitor == null) _fileMonitor = new FileMonitor();
+      _fileMonitor.setTrees(trees);
+    }
+  }
+  
+  /** Stops watching the project directories. */
+  protected synchronized void _closeFileMonitor() {
+    if (_fileMonitor != null) {
+      _fileMonitor.close();
+      _fileMonitor = null;
+    }
+  }
+  
+  /** @param f a file
+    * @return the stamp of f in the file monitor, which changes whenever f changes, or FileMonitor.UNWATCHED
+    */
+  protected long _fileStamp(File f) {
+    FileMonitor m = _fileMonitor;
+    return (m == null) ? FileMonitor.UNWATCHED : m.stamp(f);
+  }
+  
   /** Adds a document to the list of auxiliary files within _state.  The LinkedList class is not thread safe, so
     * the add operation is synchronized.
     */
@@ -513,6 +559,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   /** Sets the class with the project's main method.  Degenerate version overridden in DefaultGlobalModel. */
   public void setProjectRoot(File f) {
     _state.setProjectRoot(f);
+    _updateFileMonitor();
 //    _notifier.projectRootChanged();
     setProjectChanged(true);
   }
@@ -531,6 +578,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   /** Sets the class with the project's main method.  Degenerate version overridden in DefaultGlobalModel. */
   public void setBuildDirectory(File f) {
     _state.setBuildDirectory(f);
+    _updateFileMonitor();
     _notifier.projectBuildDirChanged();
     setProjectChanged(true);
   }
@@ -605,6 +653,11 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     
     HashSet<String> _projFilePaths = new HashSet<String>();
     
+    /** The canonical paths of _auxFiles and _exclFiles, so that a file can be looked up without canonicalizing every 
+      * file in the list.  Guarded by the lock on the corresponding list. */
+    private final HashSet<String> _auxFilePaths = new HashSet<String>();
+    private final HashSet<String> _exclFilePaths = new HashSet<String>();
+    
     /** Degenerate constructor for a new project; only the file project name is known. 
      * @param project the file project
      */
@@ -629,8 +682,10 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       _projectFiles = srcFiles;
       _auxFiles = new ArrayList<File>(auxFiles.length);
       for(File f: auxFiles) { _auxFiles.add(f); }
+      _addCanonicalPaths(_auxFiles, _auxFilePaths);
       _exclFiles = new ArrayList<File>(excludedFiles.length);
       for(File f: excludedFiles) { _exclFiles.add(f); }
+      _addCanonicalPaths(_exclFiles, _exclFilePaths);
       _projExtraClassPath = cp;
       
       if (_projectFiles != null) {
@@ -645,6 +700,14 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       setPreferencesStoredInProject(storedPreferences); 
     }
     
+    /** Adds the canonical paths of files to paths, skipping files that cannot be canonicalized. */
+    private void _addCanonicalPaths(Iterable<File> files, HashSet<String> paths) {
+      for (File file : files) {
+        try { paths.add(file.getCanonicalPath()); }
+        catch(IOException ioe) { /* ignore file */ }
+      }
+    }
+    
     public boolean isProjectActive() { return true; }
     
     /** Determines whether the specified doc in within the project file tree.
@@ -730,14 +793,21 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     /** Adds File f to end of _auxFiles vector. */
     public void addAuxFile(File f) {
       synchronized(_auxFiles) {
-        if (_auxFiles.add(f)) setProjectChanged(true);
+        if (_auxFiles.add(f)) {
+          _addCanonicalPaths(Collections.singleton(f), _auxFilePaths);
+          setProjectChanged(true);
+        }
       }
     }
     
     /** Removes File file from _auxFiles list. */
     public void remAuxFile(File file) {
       synchronized(_auxFiles) { 
-        if (_auxFiles.remove(file)) setProjectChanged(true);
+        if (_auxFiles.remove(file)) {
+          _auxFilePaths.clear();
+          _addCanonicalPaths(_auxFiles, _auxFilePaths);
+          setProjectChanged(true);
+        }
       }
     }
     
@@ -745,7 +815,10 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       if(f == null) return;
       if (isAlreadyOpen(f)) return;  // can't add files to the black list that are currently open
       synchronized(_exclFiles) {
-        if (_exclFiles.add(f)) setProjectChanged(true);
+        if (_exclFiles.add(f)) {
+          _addCanonicalPaths(Collections.singleton(f), _exclFilePaths);
+          setProjectChanged(true);
+        }
       }
     }
     
@@ -760,6 +833,8 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
           }
           catch(IOException e) { }
         }
+        _exclFilePaths.clear();
+        _addCanonicalPaths(_exclFiles, _exclFilePaths);
       }
     }
     
@@ -769,6 +844,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       if(fs == null) return;
       synchronized(_exclFiles) {
         _exclFiles.clear();
+        _exclFilePaths.clear();
         for(File f: fs) { addExcludedFile(f); }
         setProjectChanged(true);
       }
@@ -802,13 +878,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       try { path = f.getCanonicalPath();}
       catch(IOException ioe) { return false; }
       
-      synchronized(_auxFiles) {
-        for (File file : _auxFiles) {
-          try { if (file.getCanonicalPath().equals(path)) return true; }
-          catch(IOException ioe) { /* ignore file */ }
-        }
-        return false;
-      }
+      synchronized(_auxFiles) { return _auxFilePaths.contains(path); }
     }
     
     public boolean isExcludedFile(File f) {
@@ -818,13 +888,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       try { path = f.getCanonicalPath();}
       catch(IOException ioe) { return false; }
       
-      synchronized(_exclFiles) {
-        for (File file : _exclFiles) {
-          try { if (file.getCanonicalPath().equals(path)) return true; }
-          catch(IOException ioe) { /* ignore file */ }
-        }
-        return false;
-      }
+      synchronized(_exclFiles) { return _exclFilePaths.contains(path); }
     }
     
     public boolean getAutoRefreshStatus() { return _autoRefreshStatus; }
@@ -1419,9 +1483,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       catch(FileNotFoundException e) { filesNotFound.add(f); }
     }
     
-    for (final OpenDefinitionsDocument d: filesOpened) {
-      _completeOpenFile(d); // contains view-related calls
-    }
+    _completeOpenFiles(filesOpened); // contains view-related calls
     //        SHOW_GETDOC = false;
     if (filesNotFound.size() > 0)
       _notifier.filesNotFound( filesNotFound.toArray( new File[filesNotFound.size()] ) );
@@ -1499,7 +1561,15 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     return files.toArray(new File[ct]);
   }
   
-  /** gets files in the project source directory that are not accounted for in the project file.
+  /** The source files found in the project tree by the last call to getNewFilesInProject, which can be reused as long
+    * as the file monitor stamp of the tree stays the same. */
+  private volatile File[] _projectFiles = null;
+  private volatile File _projectFilesRoot = null;
+  private volatile String _projectFilesExtension = null;
+  private volatile long _projectFilesStamp = FileMonitor.UNWATCHED;
+  
+  /** gets files in the project source directory that are not accounted for in the project file.  Only lists the 
+    * project tree again if files were created or deleted in it since the last call, or if it is not being watched.
     * @return null if not in project mode
     */
   public File[] getNewFilesInProject() {
@@ -1508,12 +1578,23 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     File projRoot = _state.getProjectRoot();
     if(projRoot == null)
       return null;
-    File[] allFiles;
-    try {
-      allFiles = getFilesInFolder(projRoot, true, getOpenAllFilesInFolderExtension());
-    } catch(IOException e) { return null; }
-    catch(OperationCanceledException e) { return null; }
-    catch(AlreadyOpenException e) { return null; }
+    String ext = getOpenAllFilesInFolderExtension();
+    FileMonitor m = _fileMonitor;
+    long stamp = (m == null) ? FileMonitor.UNWATCHED : m.treeStamp(projRoot, ext);
+    File[] allFiles = _projectFiles;
+    if (stamp == FileMonitor.UNWATCHED || stamp != _projectFilesStamp || allFiles == null || 
+        ! projRoot.equals(_projectFilesRoot) || ! ext.equals(_projectFilesExtension)) {
+      try {
+        allFiles = getFilesInFolder(projRoot, true, ext);
+      } catch(IOException e) { return null; }
+      catch(OperationCanceledException e) { return null; }
+      catch(AlreadyOpenException e) { return null; }
+      if (allFiles == null) return null;
+      _projectFiles = allFiles;
+      _projectFilesRoot = projRoot;
+      _projectFilesExtension = ext;
+      _projectFilesStamp = stamp;
+    }
     
     for(File f : allFiles) {
       if(!isAlreadyOpen(f) && !_state.isExcludedFile(f)) {
@@ -1630,6 +1711,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
         if (IOUtil.isMember(f, projectRoot)) {
           DocFile file = new DocFile(f);
           file.setPackage(doc.getPackageName());  // must save _packageName so it is correct when project is loaded
+          if (! doc.isModifiedSinceSave()) file.setMetadata(doc.getMetadata());
           builder.addSourceFile(file);
         }
         else if ( doc.isAuxiliaryFile()) {
@@ -1808,7 +1890,34 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     * @throws MalformedProjectFileException if one of the project files was malformed
     */
   public void openProject(File projectFile) throws IOException, MalformedProjectFileException {
-    _loadProject(ProjectFileParserFacade.ONLY.parse(projectFile));  // resets interactions if successful
+    LinkedHashMap<String, Long> times = new LinkedHashMap<String, Long>();
+    long phaseStart = System.nanoTime();
+    ProjectFileIR ir = ProjectFileParserFacade.ONLY.parse(projectFile);
+    phaseStart = _endPhase(times, PARSE_PHASE, phaseStart);
+    _loadProject(ir, times, phaseStart);  // resets interactions if successful
+  }
+  
+  /** Names of the phases of opening a project, in the order they are performed: parsing the project file; setting up 
+    * the navigator, project state and interactions pane; opening the documents; restoring breakpoints, bookmarks and 
+    * watches; and the auto-refresh, if it is enabled. */
+  public static final String PARSE_PHASE = "parse";
+  public static final String SETUP_PHASE = "setup";
+  public static final String OPEN_PHASE = "open documents";
+  public static final String REGIONS_PHASE = "breakpoints and bookmarks";
+  public static final String REFRESH_PHASE = "auto-refresh";
+  
+  /** Time in milliseconds spent in each phase of the last project load, in order. */
+  private volatile Map<String, Long> _projectOpenTimes = Collections.emptyMap();
+  
+  /** Returns the time in milliseconds spent in each phase of the last project load, in the order performed.  The parse
+    * phase is omitted if the project was not read from a file, and the auto-refresh phase if it is disabled. */
+  public Map<String, Long> getProjectOpenTimes() { return _projectOpenTimes; }
+  
+  /** Records the time of the given phase, which started at phaseStart, and returns the current time. */
+  private static long _endPhase(Map<String, Long> times, String phase, long phaseStart) {
+    long now = System.nanoTime();
+    times.put(phase, (now - phaseStart) / 1000000);
+    return now;
   }
   
   /** Loads the specified project into the document navigator and opens all of 
@@ -1818,6 +1927,17 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     * @throws IOException if an IO operation fails
     */
   private void _loadProject(final ProjectFileIR ir) throws IOException {
+    _loadProject(ir, new LinkedHashMap<String, Long>(), System.nanoTime());
+  }
+  
+  /** Loads the specified project, recording the time spent in each phase.
+    * @param ir The project file to load
+    * @param times the times of the phases already performed
+    * @param phaseStart the start time of the first phase performed here
+    * @throws IOException if an IO operation fails
+    */
+  private void _loadProject(final ProjectFileIR ir, final LinkedHashMap<String, Long> times, long phaseStart) 
+    throws IOException {
     
     assert EventQueue.isDispatchThread();
     
@@ -1896,11 +2016,12 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     DocFile active = null;
     
     // Collection of documents that have been modified outside of DrJava
-    ArrayList<DocFile> modifiedFiles = new ArrayList<DocFile>();
+    HashSet<File> modifiedFiles = new HashSet<File>();
     for (DocFile f: srcFiles) {
       if (f.lastModified() > f.getSavedModDate()) {
         modifiedFiles.add(f);
         f.setSavedModDate (f.lastModified());
+        f.setMetadata(null);  // describes the text as it was when the project was saved
       }
       
       if (f.isActive()) { active = f; }
@@ -1910,6 +2031,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       if (f.lastModified() > f.getSavedModDate()) {
         modifiedFiles.add(f);
         f.setSavedModDate (f.lastModified());
+        f.setMetadata(null);  // describes the text as it was when the project was saved
       }
       if (f.isActive()) { active = f; }
       projFiles.add(f);
@@ -1934,9 +2056,11 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
 //    Utilities.showDebug("Preparing to refresh navigator GUI");
     // call on the GUI to finish up by opening the files and making necessary gui component changes
     final DocFile[] filesToOpen = projFiles.toArray(new DocFile[projFiles.size()]);
+    phaseStart = _endPhase(times, SETUP_PHASE, phaseStart);
     _notifier.openProject(projectFile, new FileOpenSelector() {
       public File[] getFiles() { return filesToOpen; }
     });
+    phaseStart = _endPhase(times, OPEN_PHASE, phaseStart);
     
     /* Files are opened synchronously by the preceding notification.  If this process is made asynchronous, we need to 
      * wait here (using the projectLoaded CompletionMonitor above (commented out). */
@@ -1989,9 +2113,18 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     
     // project has not been changed yet, but...
     setProjectChanged(false);
+    phaseStart = _endPhase(times, REGIONS_PHASE, phaseStart);
     
     // it may change here, in the auto-refresh on open    
-    if (_state.getAutoRefreshStatus()) openNewFilesInProject(); 
+    if (_state.getAutoRefreshStatus()) {
+      openNewFilesInProject();
+      _endPhase(times, REFRESH_PHASE, phaseStart);
+    }
+    
+    _projectOpenTimes = Collections.unmodifiableMap(times);
+    if (_log.isEnabled()) {
+      _log.log("Loaded project with ", filesToOpen.length, " files, time per phase (ms): ", times);
+    }
   }  // end _loadProject
   
   /** Perform an auto-refresh of the project, adding new source files to the project. */
@@ -2074,7 +2207,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   public boolean closeFiles(List<OpenDefinitionsDocument> docs) {
     if (docs.size() == 0) return true;
     
-    _log.log("closeFiles(" + docs + ") called");
+    _log.log("closeFiles(", docs, ") called");
     /* Force the user to save or discard all modified files in docs */
     for (OpenDefinitionsDocument doc : docs) { 
       if (! doc.canAbandonFile()) return false; }
@@ -2113,13 +2246,13 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   public boolean closeFileWithoutPrompt(final OpenDefinitionsDocument doc) {
     //    new Exception("Closed document " + doc).printStackTrace();
     
-    _log.log("closeFileWithoutPrompt(" + doc + ") called; getRawFile() = " + doc.getRawFile());
-    _log.log("_documentsRepos = " + _documentsRepos);
+    _log.log("closeFileWithoutPrompt(", doc, ") called; getRawFile() = ", doc.getRawFile());
+    _log.log("_documentsRepos = ", _documentsRepos);
     boolean found;
     synchronized(_documentsRepos) { found = (_documentsRepos.remove(doc.getRawFile()) != null); }
     
     if (! found) {
-      _log.log("Cannot close " + doc + "; not found!");
+      _log.log("Cannot close ", doc, "; not found!");
       return false;
     }
     
@@ -2228,6 +2361,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   
   /** Prepares this model to be thrown away.  Never called outside of tests. This version ignores the slave JVM. */
   public void dispose() {
+    _closeFileMonitor();
     synchronized(_documentsRepos) { 
       closeAllFiles();
       _documentsRepos.clear();
@@ -2520,6 +2654,27 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
         getInteractionsModel().setRequireVariableType(oce.value);
       }
     });
+    
+    DrJava.getConfig().addOptionListener(DYNAMICJAVA_COMPILE_LOOPS, new OptionListener<Boolean>() {
+      public void optionChanged(OptionEvent<Boolean> oce) {
+        getInteractionsModel().setCompileLoops(oce.value);
+      }
+    });
+    
+    DrJava.getConfig().addOptionListener(DOCUMENT_CACHE_HEAP_PERCENT, new OptionListener<Integer>() {
+      public void optionChanged(OptionEvent<Integer> oce) { _cache.setBudget(_getDocumentCacheBudget(oce.value)); }
+    });
+    
+    DrJava.getConfig().addOptionListener(DOCUMENT_CACHE_COMPRESS, new OptionListener<Boolean>() {
+      public void optionChanged(OptionEvent<Boolean> oce) { _cache.setCompressEvictedText(oce.value.booleanValue()); }
+    });
+  }
+  
+  /** @param percent the percentage of the maximum heap given to the document cache
+    * @return the document cache budget in bytes
+    */
+  private static long _getDocumentCacheBudget(Integer percent) {
+    return Runtime.getRuntime().maxMemory() / 100 * Math.min(100, percent.intValue());
   }
   
   /** Appends a string to the given document using a particular attribute set (identified by a String key). Also waits
@@ -2682,7 +2837,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   /** Add the current location (point region) to browser history.  Only runs in event thread. Assumes doc is not null.
     * @param before true if the location should be inserted before the current region */
   public void addToBrowserHistory(boolean before) {
-     _log.log("AbstractGlobalModel.addToBrowserHistory(" + before + ") called");
+     _log.log("AbstractGlobalModel.addToBrowserHistory(", before, ") called");
     _notifier.updateCurrentLocationInDoc();
     final OpenDefinitionsDocument doc = getActiveDocument();
     assert (doc != null && EventQueue.isDispatchThread()) || Utilities.TEST_MODE;
@@ -2737,6 +2892,10 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     
     /** Cached String image of document as last read from or written to disk; initially null */
     private volatile String _image;
+    
+    /** Compressed image of the document when it was last kicked out of the cache, used instead of _image if the cache
+      * compresses evicted text; initially null */
+    private volatile TextSnapshot _snapshot;
     private volatile File _file;
     private volatile long _timestamp;
     
@@ -2749,12 +2908,28 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     /** Specifies if classFile is in sync with current state of the document */
     private volatile boolean _classFileInSync = false;
     
+    /** The file monitor stamps of the source and class files when _classFileInSync was computed; while neither has 
+      * changed, _classFileInSync is still valid.  UNWATCHED if there is no valid result. */
+    private volatile long _syncSourceStamp = FileMonitor.UNWATCHED;
+    private volatile long _syncClassStamp = FileMonitor.UNWATCHED;
+    
+    /** The result of the last call of modifiedOnDisk, valid while the file monitor stamp of _file is _diskStamp. */
+    private volatile boolean _modifiedOnDisk = false;
+    private volatile long _diskStamp = FileMonitor.UNWATCHED;
+    
     /** The package name embedded in the document the last time is was loaded, reconstructed, or saved.  When loading a
       * project, this information is extracted from the project file eliminating the need to read every document file.  
       * For non-project files, it is extracted from the text of the file.  If there is an error, it is left as "".
       */
     protected volatile String _packageName = "";
     
+    /** The names declared by the text of this document, or null if not yet scanned.  Only describes the saved text: 
+      * while the document is modified, names are taken from the document itself. */
+    private volatile DocumentMetadata _metadata = null;
+    
+    /** Whether _metadata is known to describe the current text; if not, it is checked against the hash of the text. */
+    private volatile boolean _metadataChecked = false;
+    
     /** The fully qualified name of the class with '.' converted to ' ' so that alphabetic ordering works properly. */
     protected volatile String _lexiName = "";
     
@@ -2825,6 +3000,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       _file = file;
       if (! AbstractGlobalModel.isUntitled(file)) _timestamp = file.lastModified();
       else _timestamp = 0L;
+      _metadataChecked = false;
+      _diskStamp = FileMonitor.UNWATCHED;
+      _syncSourceStamp = FileMonitor.UNWATCHED;
       updateSyntaxHighlighting();
     }
 
@@ -2845,11 +3023,17 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     /** @return the timestamp. */
     public long getTimestamp() { return _timestamp; }
     
-    public void setClassFileInSync(boolean inSync) { _classFileInSync = inSync; }
+    public void setClassFileInSync(boolean inSync) { 
+      _classFileInSync = inSync;
+      _syncSourceStamp = FileMonitor.UNWATCHED;
+    }
     
     public boolean getClassFileInSync() { return _classFileInSync; }
     
-    public void setCachedClassFile(File classFile) { _classFile = classFile; }
+    public void setCachedClassFile(File classFile) { 
+      _classFile = classFile;
+      _syncSourceStamp = FileMonitor.UNWATCHED;
+    }
     
     public File getCachedClassFile() { return _classFile; }
     
@@ -2858,6 +3042,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       getDocument().resetModification();
       File f = _file; 
       if (! AbstractGlobalModel.isUntitled(f)) _timestamp = f.lastModified();
+      _metadataChecked = false;
+      _diskStamp = FileMonitor.UNWATCHED;
+      _syncSourceStamp = FileMonitor.UNWATCHED;
     }
     
     /** @return The parent directory; should be in canonical form. */
@@ -2909,14 +3096,16 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
      * @throws ClassNameNotFoundException if no top level class name found.
      */
     public String getFirstTopLevelClassName() throws ClassNameNotFoundException {
-      return getDocument().getFirstTopLevelClassName();
+      if (isModifiedSinceSave()) return getDocument().getFirstTopLevelClassName();
+      return getMetadata().getFirstTopLevelClassName();
     }
     
     /** @return the name of the main (public) class, if any.
      * @throws ClassNameNotFoundException if no top level class name found.
      */
     public String getMainClassName() throws ClassNameNotFoundException {
-      return getDocument().getMainClassName();
+      if (isModifiedSinceSave()) return getDocument().getMainClassName();
+      return getMetadata().getMainClassName();
     }
     
     /** @return the name of this file, or "(Untitled)" if no file. */
@@ -2992,7 +3181,35 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     public void setPackage(String name)   { _packageName = name; }
     
     /**  @return the name of the package currently embedded in document. */
-    public String getPackageNameFromDocument() { return getDocument().getPackageName(); }
+    public String getPackageNameFromDocument() { 
+      if (isModifiedSinceSave()) return getDocument().getPackageName();
+      return getMetadata().getPackageName();
+    }
+    
+    /** Gets the names declared by the saved text of this document.  Scans the text, which does not require the document
+      * to be loaded into the cache, unless the current metadata is known to describe it.
+      * @return the metadata of the saved text
+      */
+    public DocumentMetadata getMetadata() {
+      DocumentMetadata m = _metadata;
+      if (m == null || ! _metadataChecked) {
+        _metadataChecked = true;  // set first, so that a concurrent modification forces another check
+        String text = getText();
+        if (m == null || m.getHash() != DocumentMetadata.hash(text)) {
+          m = DocumentMetadata.scan(text);
+          _metadata = m;
+        }
+      }
+      return m;
+    }
+    
+    /** Sets the metadata, as recorded in a project file, for the unmodified text of this document.
+      * @param m metadata for the current text
+      */
+    void setMetadata(DocumentMetadata m) {
+      _metadata = m;
+      _metadataChecked = true;
+    }
     
     
     /** Originally designed to allow undoManager to set the current document to be modified whenever an undo
@@ -3083,17 +3300,19 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
         
         // Start out with empty lists of listeners on the very first time the document is made
         private volatile DocumentListener[] _list = { };
-        private volatile List<FinalizationListener<DefinitionsDocument>> _finalListeners =
-          new LinkedList<FinalizationListener<DefinitionsDocument>>();
+        private volatile List<FinalizationListener<DefinitionsDocument>> _finalListeners = 
+          Collections.emptyList();
         
-        // Weak hashmap that associates a WrappedPosition with its offset when saveDocInfo was called
-        private volatile WeakHashMap< DefinitionsDocument.WrappedPosition, Integer> _positions =
-          new WeakHashMap<DefinitionsDocument.WrappedPosition, Integer>();
+        // Weak hashmap that associates a WrappedPosition with its offset when saveDocInfo was called; null until then, 
+        // so that documents that are never made (most of a large project) do not allocate one
+        private volatile WeakHashMap< DefinitionsDocument.WrappedPosition, Integer> _positions = null;
         
         // Returns the text for this document as a String; assert never returns null;
         public String getText() {
           String image = _image;
           if (image != null) return image;
+          final TextSnapshot snapshot = _snapshot;
+          if (snapshot != null) return snapshot.getText();
           
           // Document has not yet been read from disk; read it and set _image before returning text.
           // Synchronization on this was eliminated because it does not prevent the returned string from becoming 
@@ -3119,7 +3338,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
           _editorKit.read(new StringReader(image), newDefDoc, 0);
           //  Set document property to write out document using newLine conventions of the host platform.
           newDefDoc.putProperty(DefaultEditorKit.EndOfLineStringProperty, StringOps.EOL);
-          _log.log("Reading from image for " + _file + " containing " + _image.length() + " chars");    
+          if (_log.isEnabled()) {
+            _log.log("Reading from image for ", _file, " containing ", image.length(), " chars");
+          }
           
           _loc = Math.min(_loc, image.length()); // make sure not past end
           _loc = Math.max(_loc, 0); // make sure not less than 0
@@ -3132,7 +3353,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
           }
           
           // re-create and update all positions
-          newDefDoc.setWrappedPositionOffsets(_positions);
+          WeakHashMap<DefinitionsDocument.WrappedPosition, Integer> positions = _positions;
+          if (positions == null) positions = new WeakHashMap<DefinitionsDocument.WrappedPosition, Integer>();
+          newDefDoc.setWrappedPositionOffsets(positions);
           
           newDefDoc.resetModification();  // Why is this necessary? A reconstructed document is already unmodified.
           
@@ -3156,7 +3379,14 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
           // Save document image.  Note: this could be optimized to eliminate redundant updates to _image
           String text = doc.getText();
           if (text.length() > 0) {
-            _image = text;  
+            if (_cache.isCompressEvictedText()) {
+              _snapshot = new TextSnapshot(text);
+              _image = null;
+            }
+            else {
+              _image = text;
+              _snapshot = null;
+            }
 //            _log.log("Saving image containing " + _image.length() + " chars for " + _file);
           }
           _loc = doc.getCurrentLocation();
@@ -3164,7 +3394,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
           _finalListeners = doc.getFinalizationListeners ();
           
           // save offsets of all positions
-          _positions.clear();
+          if (_positions != null) _positions.clear();
           _positions = doc.getWrappedPositionOffsets();
         }
         
@@ -3235,7 +3465,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
         final OpenDefinitionsDocument openDoc = this;
         final File file = com.getFile().getCanonicalFile();
         
-        _log.log("saveFileAs called on " + file);
+        _log.log("saveFileAs called on ", file);
         OpenDefinitionsDocument otherDoc = _getOpenDocument(file);
         
         // Check if file is already open in another document
@@ -3401,18 +3631,27 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     
     public void documentModified() { 
       _cacheAdapter.documentModified();
-      _classFileInSync = false;
+      _metadataChecked = false;
+      setClassFileInSync(false);
     }
     
     public void documentReset() { _cacheAdapter.documentReset(); }
     
-    /** Determines if the file for this document has been modified since it was loaded.
+    /** Notifies the document cache that this document has become the active document. */
+    void documentActivated() { _cacheAdapter.documentActivated(); }
+    
+    /** Determines if the file for this document has been modified since it was loaded.  If the file is watched by the
+      * file monitor, the file is only examined again after it has changed.
       * @return true if the file has been modified
       */
-    public boolean modifiedOnDisk() {
-      boolean ret = false;
+    public synchronized boolean modifiedOnDisk() {
       final File f = _file;  // single read of f
-      if (! AbstractGlobalModel.isUntitled(f)) ret = (f.lastModified() > _timestamp);
+      if (AbstractGlobalModel.isUntitled(f)) return false;
+      long stamp = _fileStamp(f);
+      if (stamp != FileMonitor.UNWATCHED && stamp == _diskStamp) return _modifiedOnDisk;
+      boolean ret = (f.lastModified() > _timestamp);
+      _modifiedOnDisk = ret;
+      _diskStamp = stamp;
       return ret;
     }
     
@@ -3421,7 +3660,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       * the class file to that of the source file.  An empty untitled document is consider to be "in sync".
       */
     public boolean checkIfClassFileInSync() {
-      _log.log("checkIfClassFileInSync() called for " + this);
+      _log.log("checkIfClassFileInSync() called for ", this);
       if (isEmpty()) return true;
       
       // If modified, then definitely out of sync
@@ -3434,7 +3673,16 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       
       // Look for cached class file
       File classFile = getCachedClassFile();
-      _log.log("In checkIfClassFileInSync cacched value of classFile = " + classFile);
+      _log.log("In checkIfClassFileInSync cacched value of classFile = ", classFile);
+      
+      // If neither file has changed since the last check, its result still holds
+      long sourceStamp = _fileStamp(_file);
+      long classStamp = (classFile == FileOps.NULL_FILE) ? FileMonitor.UNWATCHED : _fileStamp(classFile);
+      if (sourceStamp != FileMonitor.UNWATCHED && classStamp != FileMonitor.UNWATCHED && 
+          sourceStamp == _syncSourceStamp && classStamp == _syncClassStamp) {
+        return _classFileInSync;
+      }
+
       if (classFile == FileOps.NULL_FILE) {
         // Not cached, so locate the file
         classFile = _locateClassFile();
@@ -3450,6 +3698,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       
       // compare timestamps
       
+      classStamp = _fileStamp(classFile);
       File sourceFile;
       try { sourceFile = getFile(); }
       catch (FileMovedException fme) {
@@ -3464,14 +3713,28 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       if (sourceFile == null || sourceFile.lastModified() > classFile.lastModified()) {  // assert sourceFile != null 
         setClassFileInSync(false);
         _log.log(this + ": date stamps indicate modification");
+        _recordSyncStamps(sourceStamp, classStamp, classFile);
         return false;
       }
       else {
         setClassFileInSync(true);
+        _recordSyncStamps(sourceStamp, classStamp, classFile);
         return true;
       }
     }
     
+    /** Records the stamps under which the result just stored in _classFileInSync remains valid.
+      * @param sourceStamp the stamp of the source file, taken before it was examined
+      * @param classStamp the stamp of the class file, taken before it was examined
+      * @param classFile the class file that was examined
+      */
+    private void _recordSyncStamps(long sourceStamp, long classStamp, File classFile) {
+      if (classFile == getCachedClassFile()) {
+        _syncClassStamp = classStamp;
+        _syncSourceStamp = sourceStamp;
+      }
+    }
+    
     /** Returns the class file for this source document by searching the source roots of open documents, the system 
       * classpath, and the "extra.classpath ".  Returns NULL_FILE if the class file could not be found.
       * @return the class file for this source document
@@ -3482,9 +3745,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       if (isUntitled()) return FileOps.NULL_FILE;
       
       String className;
-      try { className = getDocument().getQualifiedClassName(); }
+      try { className = getQualifiedClassName(); }
       catch (ClassNameNotFoundException cnnfe) {
-        _log.log("_locateClassFile() failed for " + this + " because getQualifedClassName returned ClassNotFound");
+        _log.log("_locateClassFile() failed for ", this, " because getQualifedClassName returned ClassNotFound");
         return FileOps.NULL_FILE;  /* No source class name */ 
       }
 //      _log.log("In _locateClassFile, className = " + className);
@@ -3520,7 +3783,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
         catch(NullPointerException e) { throw new UnexpectedException(e); }
         catch(FileMovedException fme) {
           // Moved, but we'll add the old file to the set anyway
-          _log.log("File for " + this + "has moved; adding parent directory to list of roots");
+          _log.log("File for ", this, "has moved; adding parent directory to list of roots");
           File root = fme.getFile().getParentFile();
           if (root != FileOps.NULL_FILE) roots.add(root);
         }
@@ -3832,7 +4095,8 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
     public int _getOffset(int lineNum) { return getDocument()._getOffset(lineNum); }
     
     public String getQualifiedClassName() throws ClassNameNotFoundException {
-      return getDocument().getQualifiedClassName();
+      if (isModifiedSinceSave()) return getDocument().getQualifiedClassName();
+      return getMetadata().getQualifiedClassName();
     }
     
     public String getQualifiedClassName(int pos) throws ClassNameNotFoundException {
@@ -4149,6 +4413,9 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
       Pair<Integer,Integer> sel = df.getSelection();
       String pkg = df.getPackage();
       doc.setPackage(pkg);  // Trust information in the project file; if it is wrong, _packageName invariant is broken
+      // The metadata is only trusted if the file is as it was when the project was saved (to the second)
+      DocumentMetadata m = df.getMetadata();
+      if (m != null && Math.abs(doc.getTimestamp() - df.getSavedModDate()) < 1000) doc.setMetadata(m);
       doc.setInitialVScroll(scroll.first());
       doc.setInitialHScroll( scroll.second());
       doc.setInitialSelStart(sel.first());
@@ -4190,6 +4457,14 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
    */
   protected void addDocToClassPath(OpenDefinitionsDocument doc) { }
   
+  /** Adds documents to the classpath for the slave JVM.  Calls addDocToClassPath for each document; overridden in 
+    * DefaultGlobalModel to add each source root only once.
+    * @param docs the docs to be added
+    */
+  protected void addDocsToClassPath(Iterable<OpenDefinitionsDocument> docs) {
+    for (OpenDefinitionsDocument d: docs) addDocToClassPath(d);
+  }
+  
   /** Creates a document from a file.
    * @param file File to read document from
    * @return openened document
@@ -4199,23 +4474,29 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
   public OpenDefinitionsDocument _openFile(File file) throws IOException, AlreadyOpenException {
     
     OpenDefinitionsDocument doc = _rawOpenFile(file);
-    _completeOpenFile(doc);
+    _completeOpenFiles(Collections.singletonList(doc));
     return doc;
   }
   
-  private void _completeOpenFile(OpenDefinitionsDocument d) {
-    addDocToNavigator(d);
-    addDocToClassPath(d);
+  /** Adds newly opened documents to the navigator and the class path, and notifies listeners that they are open.  The
+    * class path is updated for all of the documents at once.
+    * @param docs the opened documents
+    */
+  private void _completeOpenFiles(List<OpenDefinitionsDocument> docs) {
+    for (OpenDefinitionsDocument d: docs) addDocToNavigator(d);
+    addDocsToClassPath(docs);
     
-    try {
-      File f = d.getFile();
-      if (! inProject(f) && inProjectPath(d)) setProjectChanged(true);
-    } 
-    catch(FileMovedException fme) {
-      /** project is not modified in this case */
+    for (OpenDefinitionsDocument d: docs) {
+      try {
+        File f = d.getFile();
+        if (! inProject(f) && inProjectPath(d)) setProjectChanged(true);
+      } 
+      catch(FileMovedException fme) {
+        /** project is not modified in this case */
+      }
+      
+      _notifier.fileOpened(d);
     }
-    
-    _notifier.fileOpened(d);
   }
   
 //  private static class BackUpFileOptionListener implements OptionListener<Boolean> {
@@ -4323,6 +4604,7 @@ public class AbstractGlobalModel implements SingleDisplayModel, OptionConstants,
 //     try { idoc.checkIfClassFileInSync(); } 
 //     catch(DocumentClosedException dce) { /* do nothing */ }
     _activeDocument = (OpenDefinitionsDocument) idoc;
+    if (idoc instanceof ConcreteOpenDefDoc) ((ConcreteOpenDefDoc) idoc).documentActivated();
     installActiveDocument();    // notify single display model listeners   
   }
   
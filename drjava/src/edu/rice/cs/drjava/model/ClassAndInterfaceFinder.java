@@ -37,6 +37,8 @@
 package edu.rice.cs.drjava.model;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /** Class with getClassName method for finding the name of the first class or 
   * interface defined in a file */
@@ -143,6 +145,69 @@ public class ClassAndInterfaceFinder {
     }
   }
   
+  /** Scans the whole input for the package declaration and the names of the top-level classes, interfaces, and
+    * enums, keeping track of braces so that nested declarations are skipped.  A package declaration that is not 
+    * a dotted name followed by a semicolon is ignored, as in DefinitionsDocument.getPackageName().  Like the other 
+    * methods of this class, this method consumes the input, so it can only be called once.
+    * @param hash the hash of the scanned text, recorded in the result
+    * @return the metadata of the input
+    */
+  public DocumentMetadata getMetadata(long hash) {
+    String packageName = "";
+    List<String> types = new ArrayList<String>();
+    String mainClassName = null;
+    tokenizer.ordinaryChar('/');  // division, not a comment; '//' and '/*' comments are still recognized
+    tokenizer.wordChars('$', '$');
+    try {
+      int depth = 0;
+      boolean isPublic = false;
+      int tokenType;
+      while ((tokenType = tokenizer.nextToken()) != StreamTokenizer.TT_EOF) {
+        if (tokenType == '{') depth++;
+        else if (tokenType == '}') { if (depth > 0) depth--; }
+        else if (depth > 0) { /* skip the bodies of declarations */ }
+        else if (tokenType == ';') isPublic = false;
+        else if (tokenType == StreamTokenizer.TT_WORD) {
+          String word = tokenizer.sval;
+          if (word.equals("package") && types.isEmpty()) {
+            if (tokenizer.nextToken() == StreamTokenizer.TT_WORD && isQualifiedName(tokenizer.sval)) {
+              String name = tokenizer.sval;
+              if (tokenizer.nextToken() == ';') packageName = name;
+              else tokenizer.pushBack();
+            }
+            else tokenizer.pushBack();
+          }
+          else if (word.equals("public")) isPublic = true;
+          else if (word.equals("class") || word.equals("interface") || word.equals("enum")) {
+            if (tokenizer.nextToken() == StreamTokenizer.TT_WORD && isQualifiedName(tokenizer.sval) && 
+                tokenizer.sval.indexOf('.') < 0) {
+              types.add(tokenizer.sval);
+              if (isPublic && mainClassName == null) mainClassName = tokenizer.sval;
+            }
+            else tokenizer.pushBack();
+            isPublic = false;
+          }
+        }
+      }
+    }
+    catch(IOException e) { /* use what was found */ }
+    if (mainClassName == null && ! types.isEmpty()) mainClassName = types.get(0);
+    return new DocumentMetadata(packageName, types, mainClassName, hash);
+  }
+  
+  /** @param s the word to check
+    * @return true iff s is a sequence of Java identifiers separated by dots
+    */
+  private static boolean isQualifiedName(String s) {
+    for (String part : s.split("\\.", -1)) {
+      if (part.length() == 0 || ! Character.isJavaIdentifierStart(part.charAt(0))) return false;
+      for (int i = 1; i < part.length(); i++) {
+        if (! Character.isJavaIdentifierPart(part.charAt(i))) return false;
+      }
+    }
+    return true;
+  }
+  
   /** @param tt the token to check
    * @return true iff the token is a word (as defined by StreamTokenizer)
    */
@@ -36,6 +36,8 @@
 package edu.rice.cs.drjava.model;
 import edu.rice.cs.drjava.DrJavaTestCase;
 
+import edu.rice.cs.drjava.model.definitions.ClassNameNotFoundException;
+
 import java.io.Reader;
 import java.io.StringReader;
 
@@ -108,4 +110,47 @@ public class ClassAndInterfaceFinderTest extends DrJavaTestCase {
   }
   
   
+  
+  /** Tests that the package and top-level type names are found, and nested types are skipped. */
+  public void testMetadata() throws Exception {
+    DocumentMetadata m = 
+      DocumentMetadata.scan("/* header { */\npackage a.b;\nimport java.util.*;\n" +
+                            "class First { class Inner {} String s = \"}{\"; char c = '{'; }\n" +
+                            "// class Commented {\n" +
+                            "public final class Main$1 { int x = 4 / 2; enum E { A } }\n" +
+                            "interface I {}\n@interface Ann {}\nenum Color { RED; void f() { class Local {} } }\n");
+    assertEquals("package", "a.b", m.getPackageName());
+    assertEquals("types", java.util.Arrays.asList("First", "Main$1", "I", "Ann", "Color"), m.getTopLevelTypes());
+    assertEquals("main class", "Main$1", m.getMainClassName());
+    assertEquals("first class", "First", m.getFirstTopLevelClassName());
+    assertEquals("qualified class", "a.b.Main$1", m.getQualifiedClassName());
+    
+    DocumentMetadata noPublic = DocumentMetadata.scan("class A {} class B {}");
+    assertEquals("no package", "", noPublic.getPackageName());
+    assertEquals("main class without public type", "A", noPublic.getQualifiedClassName());
+  }
+  
+  /** Tests metadata of files without types and with malformed declarations. */
+  public void testMetadataWithoutTypes() {
+    DocumentMetadata m = DocumentMetadata.scan("package p.q;\n// nothing here\n");
+    assertEquals("package", "p.q", m.getPackageName());
+    assertTrue("no types", m.getTopLevelTypes().isEmpty());
+    try {
+      m.getMainClassName();
+      fail("main class of a file without types");
+    }
+    catch (ClassNameNotFoundException e) { /* expected */ }
+    
+    DocumentMetadata bad = DocumentMetadata.scan("package 3; class a.B {} class C {");
+    assertEquals("malformed package", "", bad.getPackageName());
+    assertEquals("malformed class", java.util.Arrays.asList("C"), bad.getTopLevelTypes());
+  }
+  
+  /** Tests that the hash tells texts apart. */
+  public void testMetadataHash() {
+    String text = "package p; public class A {}";
+    assertEquals("same text", DocumentMetadata.scan(text), DocumentMetadata.scan(text));
+    assertEquals("hash", DocumentMetadata.hash(text), DocumentMetadata.scan(text).getHash());
+    assertFalse("different text", DocumentMetadata.hash(text) == DocumentMetadata.hash(text + " "));
+  }
 }
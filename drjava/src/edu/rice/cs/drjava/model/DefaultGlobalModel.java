@@ -41,8 +41,10 @@ import java.awt.EventQueue;
 
 import java.io.*;
 
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.Vector;
 import java.util.Map;
 import java.util.TreeMap;
@@ -77,6 +79,7 @@ import edu.rice.cs.drjava.model.compiler.CompilerListener;
 import edu.rice.cs.drjava.model.compiler.CompilerModel;
 import edu.rice.cs.drjava.model.compiler.DefaultCompilerModel;
 import edu.rice.cs.drjava.model.compiler.CompilerInterface;
+import edu.rice.cs.drjava.model.compiler.MemoryCompilerInterface;
 import edu.rice.cs.drjava.model.junit.DefaultJUnitModel;
 import edu.rice.cs.drjava.model.junit.JUnitModel;
 
@@ -138,6 +141,8 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
         //        System.out.println("adding for reset: " + _state.getBuildDirectory().getAbsolutePath());
         _jvm.addBuildDirectoryClassPath(IOUtil.attemptAbsoluteFile(buildDir));
       }
+      Map<String, byte[]> classes = _compilerModel.getClassesInMemory();
+      if (! classes.isEmpty()) _jvm.addClasses(classes);
     }
     
     public void interpreterResetFailed(Throwable t) { }
@@ -157,6 +162,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
 //        Utilities.show("compileEnded called in clearInteractionsListener");
         resetInteractions(workDir);  // use same working directory as current interpreter
       }
+      _updateFileMonitor();  // the compiler may have created the build directory
     }
     public void activeCompilerChanged() {
       File workDir = _interactionsModel.getWorkingDirectory();
@@ -399,6 +405,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
   /** Sets the build directory for a project. */
   public void setBuildDirectory(File f) {
     _state.setBuildDirectory(f);
+    _updateFileMonitor();
     if (f != FileOps.NULL_FILE) {
       //      System.out.println("adding: " + f.getAbsolutePath());
       _jvm.addBuildDirectoryClassPath(IOUtil.attemptAbsoluteFile(f));
@@ -422,6 +429,15 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
   /** Gets the CompilerModel, which provides all methods relating to compilers. */
   public CompilerModel getCompilerModel() { return _compilerModel; }
   
+  /** Also makes the compiler close the archives it keeps open, so that it does not hold on to old libraries. */
+  public void setClassPathChanged(boolean changed) {
+    super.setClassPathChanged(changed);
+    if (changed && _compilerModel != null) {
+      CompilerInterface compiler = _compilerModel.getActiveCompiler();
+      if (compiler instanceof MemoryCompilerInterface) ((MemoryCompilerInterface) compiler).closeFiles();
+    }
+  }
+  
   /** Gets the JUnitModel, which provides all methods relating to JUnit testing. */
   public JUnitModel getJUnitModel() { return _junitModel; }
   
@@ -433,6 +449,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
   
   /** Prepares this model to be thrown away.  Never called in practice outside of quit(), except in tests. */
   public void dispose() {
+    _closeFileMonitor();
     ensureJVMStarterFinished();
     _jvm.dispose();
     _notifier.removeAllListeners();  // removes the global model listeners!
@@ -458,7 +475,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
   public void resetInteractions(File wd, boolean forceReset) {
     assert _interactionsModel._pane != null;
     
-    _log.log("DefaultGlobalModel.resetInteractions(" + wd + ", " + forceReset + ") called");
+    _log.log("DefaultGlobalModel.resetInteractions(", wd, ", ", forceReset, ") called");
 //    debug.logStart();
     File workDir = _interactionsModel.getWorkingDirectory();
     if (wd == null) { wd = workDir; }
@@ -470,7 +487,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
     getDebugger().setAutomaticTraceEnabled(false);
 //    log.log("_interactionsModel.resetInteractions(" + wd + ", " + forceReset + ") called");
     _interactionsModel.resetInterpreter(wd, forceReset);
-    _log.log("DefaultGlobalModel.resetInteractions(" + wd + ", " + forceReset + ") complete");
+    _log.log("DefaultGlobalModel.resetInteractions(", wd, ", ", forceReset, ") complete");
 //    debug.logEnd();
   }
   
@@ -618,7 +635,7 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
       String tempClassName = null;
       
       if(qualifiedClassName == null)
-        tempClassName = getDocument().getQualifiedClassName();
+        tempClassName = getQualifiedClassName();
       else
         tempClassName = qualifiedClassName;
       
@@ -777,6 +794,28 @@ public class DefaultGlobalModel extends AbstractGlobalModel {
     }
   }
   
+  /** Adds the source roots of docs to the interactions classpath, passing each distinct root to the interpreter JVM 
+    * only once; the files of a large project share a few source roots.
+    * @param docs the documents to add to the classpath
+    */
+  protected void addDocsToClassPath(Iterable<OpenDefinitionsDocument> docs) {
+    Set<File> projectRoots = new LinkedHashSet<File>();
+    Set<File> externalRoots = new LinkedHashSet<File>();
+    for (OpenDefinitionsDocument doc: docs) {
+      try {
+        File sourceRoot = doc.getSourceRoot();
+        if (doc.isAuxiliaryFile()) { projectRoots.add(sourceRoot); }
+        else { externalRoots.add(sourceRoot); }
+      }
+      catch (InvalidPackageException e) {
+        // Invalid package-- don't add it to classpath
+      }
+    }
+    for (File root: projectRoots) { _interactionsModel.addProjectFilesClassPath(root); }
+    for (File root: externalRoots) { _interactionsModel.addExternalFilesClassPath(root); }
+    if (! projectRoots.isEmpty() || ! externalRoots.isEmpty()) setClassPathChanged(true);
+  }
+  
   private void _setupDebugger() {
     _jvm.setDebugModel(_debugger.callback());
     
@@ -131,7 +131,7 @@ public final class DefaultLightWeightParsingControl implements LightWeightParsin
   
   /** Perform light-weight parsing. */
   public synchronized void update(final OpenDefinitionsDocument doc) {
-    _log.log("Update for " + doc);
+    _log.log("Update for ", doc);
     try {
       _lastUpdates.put(doc, System.currentTimeMillis());
       final String old = _enclosingClassNames.get(doc);
@@ -154,7 +154,7 @@ public final class DefaultLightWeightParsingControl implements LightWeightParsin
     * @param b  {@code true} to start or {@code false} to stop automatic updates
     */
   public void setAutomaticUpdates(boolean b) {
-    _log.log("setAutomaticUpdates(" + b + ")");
+    _log.log("setAutomaticUpdates(", b, ")");
     _running = b;
     if (b) {
       delay();
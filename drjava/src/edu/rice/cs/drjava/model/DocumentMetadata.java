@@ -0,0 +1,141 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.rice.cs.drjava.model.definitions.ClassNameNotFoundException;
+
+/** The names declared by a source file: its package and its top-level classes, interfaces, and enums.  Metadata is
+  * found by scanning the text with a {@link ClassAndInterfaceFinder}, which is much cheaper than building a document
+  * and its reduced model, and is saved in project files, so that class names and source roots can be found without 
+  * loading the documents of a project.  The hash of the scanned text tells whether metadata is still current.
+  * @version $Id$
+  */
+public class DocumentMetadata {
+  
+  private final String _packageName;
+  private final List<String> _types;
+  private final String _mainClassName;
+  private final long _hash;
+  
+  /** @param packageName  the declared package, or "" if there is none
+    * @param types  the names of the top-level types, in the order in which they are declared
+    * @param mainClassName  the name of the first public top-level type, or of the first one if none is public; 
+    *                       null if there are no types
+    * @param hash  the hash of the text the metadata describes, computed by {@link #hash}
+    */
+  public DocumentMetadata(String packageName, List<String> types, String mainClassName, long hash) {
+    _packageName = packageName;
+    _types = Collections.unmodifiableList(new ArrayList<String>(types));
+    _mainClassName = mainClassName;
+    _hash = hash;
+  }
+  
+  /** Scans source text for its metadata. 
+    * @param text the text of a Java source file
+    * @return the metadata of the text
+    */
+  public static DocumentMetadata scan(String text) {
+    return new ClassAndInterfaceFinder(new StringReader(text)).getMetadata(hash(text));
+  }
+  
+  /** Computes a 64-bit FNV-1a hash of text.
+    * @param text the text to hash
+    * @return the hash
+    */
+  public static long hash(String text) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < text.length(); i++) {
+      h ^= text.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+  
+  /** @return the declared package, or "" if there is none */
+  public String getPackageName() { return _packageName; }
+  
+  /** @return the names of the top-level types, in declaration order */
+  public List<String> getTopLevelTypes() { return _types; }
+  
+  /** @return the hash of the described text */
+  public long getHash() { return _hash; }
+  
+  /** @return the name of the main class: the first public top-level type, or the first top-level type if none is 
+    *         public.
+    * @throws ClassNameNotFoundException if the file declares no types
+    */
+  public String getMainClassName() throws ClassNameNotFoundException {
+    if (_mainClassName == null) throw ClassNameNotFoundException.DEFAULT;
+    return _mainClassName;
+  }
+  
+  /** @return the name of the first top-level type
+    * @throws ClassNameNotFoundException if the file declares no types
+    */
+  public String getFirstTopLevelClassName() throws ClassNameNotFoundException {
+    if (_types.isEmpty()) throw ClassNameNotFoundException.DEFAULT;
+    return _types.get(0);
+  }
+  
+  /** @return the main class name, qualified by the package name
+    * @throws ClassNameNotFoundException if the file declares no types
+    */
+  public String getQualifiedClassName() throws ClassNameNotFoundException {
+    String main = getMainClassName();
+    return (_packageName.length() == 0) ? main : _packageName + "." + main;
+  }
+  
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (! (o instanceof DocumentMetadata)) return false;
+    DocumentMetadata m = (DocumentMetadata) o;
+    return _hash == m._hash && _packageName.equals(m._packageName) && _types.equals(m._types) && 
+      (_mainClassName == null ? m._mainClassName == null : _mainClassName.equals(m._mainClassName));
+  }
+  
+  public int hashCode() { return (int) (_hash ^ (_hash >>> 32)); }
+  
+  public String toString() {
+    return "DocumentMetadata(" + _packageName + ", " + _types + ", " + _mainClassName + ", " + 
+      Long.toHexString(_hash) + ")";
+  }
+}
@@ -190,6 +190,7 @@ public class DummyOpenDefDoc implements OpenDefinitionsDocument {
   public String getPackageName() { throw new UnsupportedOperationException("Dummy method"); }
   public void setPackage(String s) { throw new UnsupportedOperationException("Dummy method"); }
   public String getPackageNameFromDocument() { throw new UnsupportedOperationException("Dummy method"); }
+  public DocumentMetadata getMetadata() { throw new UnsupportedOperationException("Dummy method"); }
   
   public String getEnclosingClassName(int pos, boolean qual) throws BadLocationException, ClassNameNotFoundException {
     throw new UnsupportedOperationException("Dummy method");
@@ -37,6 +37,7 @@
 package edu.rice.cs.drjava.model;   
 
 import edu.rice.cs.plt.lambda.Runnable1;
+import edu.rice.cs.plt.lambda.Thunk;
 import edu.rice.cs.util.UnexpectedException;
 import edu.rice.cs.util.swing.DocumentIterator;
 import edu.rice.cs.util.swing.Utilities;
@@ -45,6 +46,11 @@ import edu.rice.cs.util.StringOps;
 import edu.rice.cs.drjava.config.OptionConstants;
 
 import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.swing.text.BadLocationException;
 import java.awt.Component;
@@ -76,6 +82,9 @@ public class FindReplaceMachine {
   private volatile SingleDisplayModel _model;
   private volatile Component _frame;
   
+  /** Trigram index of the open documents, which lets searches of all documents skip documents without a match. */
+  private final TrigramIndex<OpenDefinitionsDocument> _index = new TrigramIndex<OpenDefinitionsDocument>();
+  
   /** Standard Constructor.
     * Creates new machine to perform find/replace operations on a particular document starting from a given position.
     * @param model the model
@@ -277,10 +286,11 @@ public class FindReplaceMachine {
     
     if (searchAll) {
       int count = 0;           // the number of replacements done so far
+      final Set<OpenDefinitionsDocument> skip = _docsWithoutMatch();
       int n = _docIterator.getDocumentCount();
       for (int i = 0; i < n; i++) {
         // replace all in the rest of the documents
-        count += _replaceAllInCurrentDoc(false);
+        if (! skip.contains(_doc)) count += _replaceAllInCurrentDoc(false);
         _doc = _docIterator.getNextDocument(_doc, _frame);
         
         if (_doc == null) break;
@@ -375,11 +385,12 @@ public class FindReplaceMachine {
     if (_searchAllDocuments) {
       int count = 0;                 // the number of replacements done so far
       _searchSelectionOnly = false;  // force _searchSelectionOnly to be false
+      final Set<OpenDefinitionsDocument> skip = _docsWithoutMatch();
       final int n = _docIterator.getDocumentCount();
       for (int i = 0; i < n; i++) {
-        // process all in the rest of the documents
+        // process all in the rest of the documents; documents without a match are not even loaded
 
-        count += _processAllInCurrentDoc(findAction);
+        if (! skip.contains(_doc)) count += _processAllInCurrentDoc(findAction);
         _doc = _docIterator.getNextDocument(_doc, _frame);
         
         if(_doc == null) break;
@@ -399,6 +410,66 @@ public class FindReplaceMachine {
       return _processAllInCurrentDoc(findAction);
   }
   
+  /** Uses the trigram index to find the open documents that do not contain _findWord.  Only executes in event thread.
+    * @return the set of open documents that can be skipped when searching for _findWord
+    */
+  private Set<OpenDefinitionsDocument> _docsWithoutMatch() {
+    
+    assert EventQueue.isDispatchThread();
+    
+    Set<OpenDefinitionsDocument> skip = 
+      new LinkedHashSet<OpenDefinitionsDocument>(_model.getOpenDefinitionsDocuments());
+    skip.removeAll(getDocumentsContainingFindWord().value());
+    return skip;
+  }
+  
+  /** Prepares a search of the trigram index for the open documents that contain _findWord (compared as processAll
+    * compares it, but ignoring the whole word, comment, and test case options).  The state of the documents is
+    * captured here, in the event thread; the returned thunk indexes and searches their text, which can take a while
+    * and may be done in any thread.  Documents that are not in the cache are indexed and searched using their saved
+    * text, so they are not reconstructed.
+    * @return a thunk computing the open documents that contain _findWord, in document navigator order
+    */
+  public Thunk<Set<OpenDefinitionsDocument>> getDocumentsContainingFindWord() {
+    
+    assert EventQueue.isDispatchThread();
+    
+    final LinkedHashMap<OpenDefinitionsDocument, TrigramIndex.Source> sources = 
+      new LinkedHashMap<OpenDefinitionsDocument, TrigramIndex.Source>();
+    for (final OpenDefinitionsDocument odd: _model.getOpenDefinitionsDocuments()) {
+      // An evicted document is unmodified, so its text only changes when it is reloaded or saved
+      long stamp = odd.isReady() ? odd.getDocument().getEditStamp() : -1 - odd.getTimestamp();
+      sources.put(odd, new TrigramIndex.Source(stamp) { public String getText() { return odd.getText(); } });
+    }
+    final String findWord = _findWord;
+    final boolean matchCase = _matchCase;
+    return new Thunk<Set<OpenDefinitionsDocument>>() {
+      public Set<OpenDefinitionsDocument> value() { return _index.find(sources, findWord, matchCase); }
+    };
+  }
+  
+  /** Gets the documents processAll searches, in the order that it searches them: the current document, followed by 
+    * the rest of the open documents if _searchAllDocuments is set.  Only executes in event thread.
+    * @return the documents to search
+    */
+  public List<OpenDefinitionsDocument> getDocumentsToSearch() {
+    
+    assert EventQueue.isDispatchThread();
+    
+    List<OpenDefinitionsDocument> docs = new ArrayList<OpenDefinitionsDocument>();
+    docs.add(_doc);
+    if (_searchAllDocuments) {
+      final int n = _docIterator.getDocumentCount();
+      OpenDefinitionsDocument doc = _doc;
+      for (int i = 1; i < n; i++) {
+        doc = _docIterator.getNextDocument(doc, _frame);
+        if (doc == null) break;
+        docs.add(doc);
+      }
+    }
+    return docs;
+  }
+  
   /** Processes all occurences of _findWord in _doc depending the values of fields _searchSelectionOnly,
     * _selectionRegion and _isForward.  Ignores value of _searchAllDocuments.  Processes selected region (which may be 
     * the whole document) sequentially depending on find direction. This convention ensures that matches created by 
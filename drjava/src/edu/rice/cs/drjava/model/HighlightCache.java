@@ -0,0 +1,149 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.rice.cs.drjava.model.definitions.reducedmodel.HighlightStatus;
+
+/** A cache of the highlight spans of individual lines of an AbstractDJDocument, so that repainting a line (as happens
+  * continually while scrolling) does not re-query the reduced model and re-tokenize the line's text.  Lines are keyed 
+  * by their start offsets.  Since the highlighting of a line depends on the document prefix (comment and quotation 
+  * state) but not on later text, an edit at offset e evicts exactly the lines that end after e.
+  * 
+  * Access is normally confined to the event thread, but the public methods are synchronized because some unit tests
+  * violate this convention.
+  * @version $Id$
+  */
+public class HighlightCache {
+  
+  /** Default bound on the number of cached lines; exceeding it clears the cache. */
+  public static final int DEFAULT_MAX_SIZE = 0x2000;
+  
+  /** The spans of one line. */
+  private static class Line {
+    /** Offset just past the end of the line (including its newline). */
+    final int _end;
+    final HighlightStatus[] _spans;
+    
+    Line(int end, HighlightStatus[] spans) {
+      _end = end;
+      _spans = spans;
+    }
+  }
+  
+  private final TreeMap<Integer, Line> _lines = new TreeMap<Integer, Line>();
+  
+  private final int _maxSize;
+  
+  private long _hits = 0;
+  private long _misses = 0;
+  private long _evictions = 0;
+  
+  /** Creates a cache holding at most DEFAULT_MAX_SIZE lines. */
+  public HighlightCache() { this(DEFAULT_MAX_SIZE); }
+  
+  /** @param maxSize the number of lines beyond which the cache is cleared */
+  public HighlightCache(int maxSize) { _maxSize = maxSize; }
+  
+  /** Looks up the spans of a line.
+    * @param start the offset of the beginning of the line
+    * @param end the offset just past the end of the line
+    * @return the cached spans, or null if there are none
+    */
+  public synchronized HighlightStatus[] get(int start, int end) {
+    Line line = _lines.get(start);
+    if (line == null || line._end != end) {
+      _misses++;
+      return null;
+    }
+    _hits++;
+    return line._spans;
+  }
+  
+  /** Caches the spans of the line [start, end).
+    * @param start the offset of the beginning of the line
+    * @param end the offset just past the end of the line
+    * @param spans the highlight spans covering the line, in order
+    */
+  public synchronized void put(int start, int end, HighlightStatus[] spans) {
+    if (_lines.size() >= _maxSize) clear();
+    _lines.put(start, new Line(end, spans));
+  }
+  
+  /** Evicts every line that ends after offset, i.e., every line whose highlighting may be changed by an edit at offset.
+    * @param offset the first offset changed by the edit
+    */
+  public synchronized void edited(int offset) {
+    Map.Entry<Integer, Line> before = _lines.lowerEntry(offset);
+    if (before != null && before.getValue()._end > offset) {
+      _lines.remove(before.getKey());
+      _evictions++;
+    }
+    Map<Integer, Line> after = _lines.tailMap(offset);
+    _evictions += after.size();
+    after.clear();
+  }
+  
+  /** Evicts all cached lines. */
+  public synchronized void clear() {
+    _evictions += _lines.size();
+    _lines.clear();
+  }
+  
+  /** @return the number of cached lines */
+  public synchronized int size() { return _lines.size(); }
+  
+  /** @return the number of lookups that found the line */
+  public synchronized long getHits() { return _hits; }
+  
+  /** @return the number of lookups that did not find the line */
+  public synchronized long getMisses() { return _misses; }
+  
+  /** @return the number of lines discarded because of edits or because the cache was full */
+  public synchronized long getEvictions() { return _evictions; }
+  
+  /** Resets the hit, miss, and eviction counts. */
+  public synchronized void resetStatistics() { _hits = _misses = _evictions = 0; }
+  
+  public synchronized String toString() {
+    long lookups = _hits + _misses;
+    return "HighlightCache[size=" + _lines.size() + ", hits=" + _hits + ", misses=" + _misses + 
+      ", hitRate=" + ((lookups == 0) ? 0 : (100 * _hits / lookups)) + "%, evictions=" + _evictions + "]";
+  }
+}
@@ -0,0 +1,186 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.drjava.model.definitions.DefinitionsDocument;
+import edu.rice.cs.drjava.model.definitions.reducedmodel.HighlightStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+
+/** Tests the per-line HighlightCache and its use by AbstractDJDocument.  The main method benchmarks scrolling.
+  * @version $Id$
+  */
+public class HighlightCacheTest extends DrJavaTestCase {
+  
+  private static final HighlightStatus[] SPANS = new HighlightStatus[] { new HighlightStatus(0, 1, 0) };
+  
+  /** Tests that an edit evicts the line containing it and all following lines. */
+  public void testEviction() {
+    HighlightCache cache = new HighlightCache();
+    cache.put(0, 10, SPANS);
+    cache.put(10, 20, SPANS);
+    cache.put(20, 30, SPANS);
+    
+    cache.edited(20);
+    assertSame("line ending at the edit kept", SPANS, cache.get(10, 20));
+    assertNull("line starting at the edit evicted", cache.get(20, 30));
+    cache.edited(5);
+    assertNull("line containing the edit evicted", cache.get(0, 10));
+    assertNull(cache.get(10, 20));
+    assertEquals(0, cache.size());
+    assertEquals(3, cache.getEvictions());
+    assertEquals(1, cache.getHits());
+  }
+  
+  /** Tests that a line whose end has moved is not found, and that the cache is cleared once it exceeds its bound. */
+  public void testLookupAndBound() {
+    HighlightCache cache = new HighlightCache(2);
+    cache.put(0, 10, SPANS);
+    assertNull(cache.get(0, 11));
+    cache.put(10, 20, SPANS);
+    cache.put(20, 30, SPANS);
+    assertEquals(1, cache.size());
+    assertSame(SPANS, cache.get(20, 30));
+  }
+  
+  /** Tests that cached line spans agree with freshly computed ones across edits that change comment state. */
+  public void testDocumentEdits() throws BadLocationException {
+    final DefinitionsDocument doc = new DefinitionsDocument(new GlobalEventNotifier());
+    doc.addUndoableEditListener(doc.getUndoManager());
+    doc.insertString(0, _generateSource(20), null);
+    _checkLines(doc);  // populates the cache
+    
+    HighlightCache cache = doc.getHighlightCache();
+    cache.resetStatistics();
+    _checkLines(doc);
+    assertEquals("unchanged lines are all cached", 0, cache.getMisses());
+    
+    doc.insertString(doc.getDefaultRootElement().getElement(10).getStartOffset(), "/*", null);
+    _checkLines(doc);
+    doc.remove(doc.getDefaultRootElement().getElement(10).getStartOffset(), 1);
+    doc.insertString(doc.getLength(), "\n  int last = \"*/\".length();", null);
+    _checkLines(doc);
+    doc.getUndoManager().undo();
+    _checkLines(doc);
+    assertTrue("lines before the edits stayed cached", cache.getHits() > 0);
+  }
+  
+  /** Checks the cached spans of every line of doc against getHighlightStatus. */
+  private void _checkLines(AbstractDJDocument doc) {
+    Element root = doc.getDefaultRootElement();
+    for (int i = 0; i < root.getElementCount(); i++) {
+      Element line = root.getElement(i);
+      int start = line.getStartOffset();
+      int end = Math.min(line.getEndOffset(), doc.getLength());
+      assertEquals("spans of line " + i, _toString(doc.getHighlightStatus(start, end)),
+                   _toString(Arrays.asList(doc.getLineHighlightStatus(start, end))));
+    }
+  }
+  
+  private static String _toString(List<HighlightStatus> spans) {
+    StringBuilder sb = new StringBuilder();
+    for (HighlightStatus s: spans) sb.append(s.getLocation()).append(':').append(s.getLength()).append(':')
+      .append(s.getState()).append(' ');
+    return sb.toString();
+  }
+  
+  /** @return Java source of the given number of small methods, about 8 lines each */
+  private static String _generateSource(int methods) {
+    StringBuilder sb = new StringBuilder("public class Big {\n");
+    for (int i = 0; i < methods; i++) {
+      sb.append("  /** Method ").append(i).append(". */\n");
+      sb.append("  public int m").append(i).append("(int x, String s) {\n");
+      sb.append("    // add some numbers\n");
+      sb.append("    int y = x * ").append(i).append(" + 0x1F;\n");
+      sb.append("    if (s != null && s.equals(\"m").append(i).append("\")) return y;\n");
+      sb.append("    char c = 'q';\n");
+      sb.append("    return y + c;\n");
+      sb.append("  }\n");
+    }
+    return sb.append("}\n").toString();
+  }
+  
+  /** Simulates scrolling through a 50,000 line file, computing the spans of each visible line per frame as 
+    * ColoringView does, and prints frame time percentiles with and without the line cache.
+    */
+  public static void main(String[] args) throws Exception {
+    edu.rice.cs.util.swing.Utilities.TEST_MODE = true;
+    final DefinitionsDocument doc = new DefinitionsDocument(new GlobalEventNotifier());
+    doc.insertString(0, _generateSource(6250), null);
+    final Element root = doc.getDefaultRootElement();
+    final int lines = root.getElementCount();
+    final int visible = 60;
+    final int step = 3;  // lines per scroll increment
+    
+    for (int round = 0; round < 3; round++) {
+      for (boolean cached: new boolean[] { false, true }) {
+        doc.getHighlightCache().clear();
+        ArrayList<Long> frames = new ArrayList<Long>();
+        // scroll down through the file and back up again
+        for (int pass = 0; pass < 2; pass++) {
+          for (int k = 0; k + visible < lines; k += step) {
+            int top = (pass == 0) ? k : lines - visible - k;
+            long start = System.nanoTime();
+            for (int i = top; i < top + visible; i++) {
+              Element line = root.getElement(i);
+              int lineStart = line.getStartOffset();
+              int lineEnd = Math.min(line.getEndOffset(), doc.getLength());
+              if (cached) doc.getLineHighlightStatus(lineStart, lineEnd);
+              else doc.getHighlightStatus(lineStart, lineEnd);
+            }
+            frames.add(System.nanoTime() - start);
+          }
+        }
+        java.util.Collections.sort(frames);
+        System.out.println(lines + " lines, " + (cached ? "line cache: " : "no cache:   ") + frames.size() + 
+                           " frames, p50 " + _micros(frames, 50) + " us, p90 " + _micros(frames, 90) + " us, p99 " + 
+                           _micros(frames, 99) + " us, max " + _micros(frames, 100) + " us");
+      }
+    }
+    System.exit(0);
+  }
+  
+  private static long _micros(List<Long> sorted, int percentile) {
+    int i = Math.min(sorted.size() - 1, sorted.size() * percentile / 100);
+    return sorted.get(i) / 1000;
+  }
+}
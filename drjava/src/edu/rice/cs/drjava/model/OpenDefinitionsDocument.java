@@ -315,6 +315,9 @@ public interface OpenDefinitionsDocument extends DJDocument, Finalizable<Definit
   /**  @return the name of the package at the time of the most recent save or load operation. */
   public String getPackageName();
   
+  /** @return the package and top-level type names declared by the text of this document, found without loading it */
+  public DocumentMetadata getMetadata();
+  
   /** Sets the cached package name returned by getPackageName(); 
    * @param s the name to be set
    */
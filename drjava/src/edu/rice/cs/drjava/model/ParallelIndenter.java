@@ -0,0 +1,459 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.swing.ProgressMonitor;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+
+import edu.rice.cs.drjava.model.definitions.indent.IndentRule;
+import edu.rice.cs.drjava.model.definitions.indent.Indenter;
+import edu.rice.cs.drjava.model.definitions.indent.IndentRuleAction;
+import edu.rice.cs.drjava.model.definitions.reducedmodel.BraceInfo;
+import edu.rice.cs.util.OperationCanceledException;
+import edu.rice.cs.util.StringOps;
+import edu.rice.cs.util.UnexpectedException;
+
+/** Indents a block of lines in an AbstractDJDocument without re-indenting the document line by line.  The new 
+  * whitespace prefix of every line is computed (using {@link Indenter#computeIndent}) in private copies of the document 
+  * text, which are confined to worker threads of a fork-join pool.  The block is split into segments at lines that start
+  * top-level declarations or class members; each segment is indented in its own copy.  Only the changed prefixes are
+  * then written back to the document, last line first, so the document and its undo history see a single batch of 
+  * whitespace edits.
+  * 
+  * The indentation of a line can depend on the new indentation of lines in preceding segments, which a worker does not 
+  * see.  A copy therefore records every line whose indent computation inspected text before the start of its segment. 
+  * After all segments are done, those lines are recomputed in order in a copy that holds the merged result; if an 
+  * answer changes, the rest of that segment is indented again sequentially.  The result is identical to indenting the 
+  * block line by line.
+  * @version $Id$
+  */
+class ParallelIndenter {
+  
+  /** The minimum number of lines in a block for which a parallel indent is attempted. */
+  public static final int MIN_LINES = 2000;
+  
+  /** The minimum number of lines in a segment. */
+  public static final int MIN_SEGMENT_LINES = 500;
+  
+  /** How many lines beyond a nominal segment boundary are searched for a line that makes a good boundary. */
+  private static final int BOUNDARY_SEARCH_LINES = 200;
+  
+  /** The pool shared by all parallel indents; created on first use. */
+  private static volatile ForkJoinPool _pool = null;
+  
+  private static ForkJoinPool _getPool() {
+    if (_pool == null) {
+      synchronized(ParallelIndenter.class) {
+        if (_pool == null) _pool = new ForkJoinPool();
+      }
+    }
+    return _pool;
+  }
+  
+  /** @return true if more than one processor is available; each segment repeats the setup work of a whole document, so
+    * a parallel indent only pays off if the segments actually run concurrently.
+    */
+  static boolean isWorthwhile() { return Runtime.getRuntime().availableProcessors() > 1; }
+  
+  private final AbstractDJDocument _doc;
+  private final Indenter _indenter;
+  private final int _minLines;
+  private final int _minSegmentLines;
+  
+  /* The block being indented, described in terms of the original document text. */
+  private volatile String _text;
+  /** Offsets of the starts of the lines to indent. */
+  private volatile int[] _lineStarts;
+  /** The original whitespace prefixes of the lines. */
+  private volatile String[] _oldPrefixes;
+  /** The new whitespace prefixes of the lines. */
+  private volatile String[] _newPrefixes;
+  /** For each line, whether its indent computation inspected text preceding its segment. */
+  private volatile boolean[] _exposed;
+  /** Indices of the first lines of the segments. */
+  private volatile int[] _segments;
+  /** The offset at which the first line is indented; it need not be the start of the line. */
+  private volatile int _firstPos;
+  
+  /** @param doc the document to indent
+    * @param indenter the indenter of doc
+    */
+  ParallelIndenter(AbstractDJDocument doc, Indenter indenter) { this(doc, indenter, MIN_LINES, MIN_SEGMENT_LINES); }
+  
+  /** @param doc the document to indent
+    * @param indenter the indenter of doc
+    * @param minLines the minimum number of lines in a block for which a parallel indent is attempted
+    * @param minSegmentLines the minimum number of lines in a segment
+    */
+  ParallelIndenter(AbstractDJDocument doc, Indenter indenter, int minLines, int minSegmentLines) {
+    _doc = doc;
+    _indenter = indenter;
+    _minLines = minLines;
+    _minSegmentLines = minSegmentLines;
+  }
+  
+  /** Indents the lines of the document from the line containing start through the last line starting before end, as 
+    * AbstractDJDocument._indentBlock does.  Leaves the document unchanged and returns false if the block is too small
+    * or if some line requires a rule that inserts text other than a whitespace prefix.  Only runs in the event thread.
+    * @param start Position in document to start indenting from
+    * @param end Position in document to end indenting at
+    * @param reason a flag from {@link Indenter} to indicate the reason for the indent
+    * @param pm used to display progress, null if no reporting is desired
+    * @return true if the block was indented
+    * @throws OperationCanceledException if the operation was canceled
+    * @throws BadLocationException if attempts to reference an invalid location
+    */
+  boolean indentLines(int start, int end, Indenter.IndentReason reason, ProgressMonitor pm) 
+    throws OperationCanceledException, BadLocationException {
+    
+    _text = _doc.getText();
+    _firstPos = start;
+    _findLines(start, end);
+    final int n = _lineStarts.length;
+    if (n < _minLines || n < 2) return false;
+    
+    _newPrefixes = new String[n];
+    _exposed = new boolean[n];
+    
+    final Copy base = new Copy(_indenter);
+    try {
+      base.insertString(0, _text, null);
+      _findSegments(base);
+      if (! _indentSegments(reason)) return false;
+      if (pm != null && pm.isCanceled()) throw new OperationCanceledException();
+      if (! _validate(base, reason)) return false;
+    }
+    finally { base.dispose(); }
+    
+    _apply(pm);
+    return true;
+  }
+  
+  /** Records the lines to indent and their current whitespace prefixes. 
+    * @param start the position in the first line
+    * @param end the offset before which the last line must start
+    */
+  private void _findLines(int start, int end) {
+    final String text = _text;
+    ArrayList<Integer> starts = new ArrayList<Integer>();
+    int lineStart = text.lastIndexOf('\n', start - 1) + 1;
+    do {
+      starts.add(lineStart);
+      lineStart = text.indexOf('\n', lineStart) + 1;
+    } while (lineStart > 0 && lineStart < end);
+    
+    final int n = starts.size();
+    _lineStarts = new int[n];
+    _oldPrefixes = new String[n];
+    for (int i = 0; i < n; i++) {
+      int ls = starts.get(i);
+      int firstChar = ls;
+      while (firstChar < text.length() && (text.charAt(firstChar) == ' ' || text.charAt(firstChar) == '\t')) firstChar++;
+      _lineStarts[i] = ls;
+      _oldPrefixes[i] = text.substring(ls, firstChar);
+    }
+  }
+  
+  /** Splits the lines into segments at lines that begin a top-level declaration or class member.
+    * @param base a copy of the original document text
+    */
+  private void _findSegments(Copy base) throws BadLocationException {
+    final int n = _lineStarts.length;
+    final int parallelism = _getPool().getParallelism();
+    final int segmentLines = Math.max(_minSegmentLines, n / (4 * parallelism) + 1);
+    
+    ArrayList<Integer> segments = new ArrayList<Integer>();
+    segments.add(0);
+    int i = segmentLines;
+    while (i < n - _minSegmentLines / 2) {
+      int limit = Math.min(n, i + BOUNDARY_SEARCH_LINES);
+      while (i < limit && ! _isBoundary(base, _lineStarts[i])) i++;
+      if (i < limit) segments.add(i);
+      i += segmentLines;
+    }
+    
+    _segments = new int[segments.size()];
+    for (int k = 0; k < _segments.length; k++) _segments[k] = segments.get(k);
+  }
+  
+  /** Determines whether the line starting at lineStart begins a new statement at nesting depth 0 or 1 outside of any
+    * comment.  The indentation of such a line and of the lines following it rarely depends on preceding lines.
+    * @param base a copy of the original document text
+    * @param lineStart the start of a line
+    * @return true if the line is a good segment boundary
+    */
+  private static boolean _isBoundary(Copy base, int lineStart) throws BadLocationException {
+    base.setCurrentLocation(lineStart);
+    if (base._inBlockComment(lineStart)) return false;
+    BraceInfo info = base._getLineEnclosingBrace();
+    if (info.distance() >= 0) {
+      if (! info.braceType().equals(BraceInfo.OPEN_CURLY)) return false;
+      base.setCurrentLocation(base._getLineStartPos(lineStart - info.distance()));
+      if (base._getLineEnclosingBrace().distance() >= 0) return false;  // nested more than one level
+    }
+    int prev = base._findPrevNonWSCharPos(lineStart);
+    if (prev < 0) return true;
+    char c = base.getText(prev, 1).charAt(0);
+    return c == ';' || c == '}' || c == '{';
+  }
+  
+  /** Indents each segment in its own copy of the document text using the fork-join pool. 
+    * @param reason the reason for the indent
+    * @return false if the thread was interrupted or a rule that inserts lines was selected
+    */
+  private boolean _indentSegments(final Indenter.IndentReason reason) {
+    final int m = _segments.length;
+    final List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(m);
+    final Copy[] copies = new Copy[m];
+    try {
+      for (int k = 0; k < m; k++) {
+        final int first = _segments[k];
+        final int last = (k + 1 < m) ? _segments[k + 1] : _lineStarts.length;
+        final Copy copy = new Copy(_indenter);  // registers option listeners, so it is created in this thread 
+        copies[k] = copy;
+        tasks.add(new Callable<Boolean>() {
+          public Boolean call() throws BadLocationException {
+            copy.insertString(0, _text, null);
+            copy._segmentStart = _lineStarts[first];
+            return _indentRange(copy, first, last, 0, reason);
+          }
+        });
+      }
+      boolean result = true;
+      for (Future<Boolean> f: _getPool().invokeAll(tasks)) result &= f.get();
+      return result;
+    }
+    catch (InterruptedException e) { return false; }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw new UnexpectedException(cause);
+    }
+    finally { for (Copy c: copies) if (c != null) c.dispose(); }
+  }
+  
+  /** Indents lines first through last - 1 in copy, recording their new prefixes and whether they are exposed to text
+    * preceding copy._segmentStart.  The lines must still hold their original prefixes.
+    * @param copy the copy in which to indent
+    * @param first the index of the first line
+    * @param last the index following the last line
+    * @param shift the offset in copy of the start of line first relative to its start in the original text
+    * @param reason the reason for the indent
+    * @return false if a rule that inserts lines was selected
+    */
+  private boolean _indentRange(Copy copy, int first, int last, int shift, Indenter.IndentReason reason) 
+    throws BadLocationException {
+    for (int i = first; i < last; i++) {
+      String prefix = _indentLine(copy, i, shift, _oldPrefixes[i], reason);
+      if (prefix == null) return false;
+      _newPrefixes[i] = prefix;
+      _exposed[i] = copy._exposed;
+      shift += prefix.length() - _oldPrefixes[i].length();
+    }
+    return true;
+  }
+  
+  /** Indents line i in copy.  The indent is computed with whatever prefix the line currently holds in copy, which does
+    * not affect the answer, but the result is derived from the original prefix, as line-by-line indentation sees it.
+    * @param copy the copy in which to indent
+    * @param i the index of the line
+    * @param shift the offset in copy of the start of line i relative to its start in the original text
+    * @param current the whitespace prefix that line i currently holds in copy
+    * @param reason the reason for the indent
+    * @return the new whitespace prefix of the line, or null if the rule selected for it inserts other text
+    */
+  private String _indentLine(Copy copy, int i, int shift, String current, Indenter.IndentReason reason) 
+    throws BadLocationException {
+    final int lineStart = _lineStarts[i] + shift;
+    copy.setCurrentLocation((i == 0) ? _firstPos + shift : lineStart);
+    copy._exposed = false;
+    IndentRule rule = _indenter.selectRule(copy, reason);
+    if (! rule.computesPrefixOnly()) return null;
+    String prefix = _newPrefix(_oldPrefixes[i], rule.computeIndent(copy, reason));
+    _replace(copy, lineStart, current, prefix);
+    return prefix;
+  }
+  
+  /** Determines the prefix that {@link IndentRuleAction#setIndent} leaves on a line.
+    * @param oldPrefix the prefix of the line before the indent
+    * @param indent the computed indent, null if the line is left unchanged
+    * @return the prefix of the line after the indent
+    */
+  static String _newPrefix(String oldPrefix, String indent) {
+    if (indent == null) return oldPrefix;
+    if (! AbstractDJDocument.hasOnlySpaces(indent)) return indent;
+    final int len = oldPrefix.length();
+    final int tab = indent.length();
+    if (tab <= len) return oldPrefix.substring(0, tab);  // setTab(int) only removes the difference
+    return oldPrefix + StringOps.getBlankString(tab - len);
+  }
+  
+  /** Replaces the whitespace prefix oldPrefix at lineStart in doc by newPrefix.  Only the differing suffix is edited.
+    * @param doc the document to edit
+    * @param lineStart the start of the line
+    * @param oldPrefix the current prefix
+    * @param newPrefix the replacement
+    */
+  private static void _replace(AbstractDJDocument doc, int lineStart, String oldPrefix, String newPrefix) 
+    throws BadLocationException {
+    if (newPrefix.equals(oldPrefix)) return;
+    int common = 0;
+    final int len = Math.min(oldPrefix.length(), newPrefix.length());
+    while (common < len && oldPrefix.charAt(common) == newPrefix.charAt(common)) common++;
+    final int pos = lineStart + common;
+    if (oldPrefix.length() > common) doc.remove(pos, oldPrefix.length() - common);
+    if (newPrefix.length() > common) doc.insertString(pos, newPrefix.substring(common), null);
+  }
+  
+  /** Merges the results of the segments in base and recomputes the exposed lines of every segment after the first
+    * one.  If the prefix of an exposed line changes, the remainder of its segment is indented again sequentially.
+    * @param base a copy of the original document text
+    * @param reason the reason for the indent
+    * @return false if a rule that inserts lines was selected
+    */
+  private boolean _validate(Copy base, Indenter.IndentReason reason) throws BadLocationException {
+    final int n = _lineStarts.length;
+    for (int i = n - 1; i >= 0; i--) _replace(base, _lineStarts[i], _oldPrefixes[i], _newPrefixes[i]);
+    base._clearCache();  // the answers cached while finding segments would only be relocated by every edit
+    
+    int shift = 0;
+    int k = 1;
+    boolean redo = false;
+    for (int i = 0; i < n; i++) {
+      if (k < _segments.length && i == _segments[k]) {
+        k++;
+        redo = false;
+      }
+      if (k > 1 && (redo || _exposed[i])) {
+        String prefix = _indentLine(base, i, shift, _newPrefixes[i], reason);
+        if (prefix == null) return false;
+        if (! prefix.equals(_newPrefixes[i])) {
+          _newPrefixes[i] = prefix;
+          redo = true;
+        }
+      }
+      shift += _newPrefixes[i].length() - _oldPrefixes[i].length();
+    }
+    return true;
+  }
+  
+  /** Writes the changed prefixes into the document, starting with the last line so that the recorded offsets stay 
+    * valid.  Leaves the current location at the first indented position of the last line, as line-by-line indentation
+    * does.
+    * @param pm used to display progress, null if no reporting is desired
+    */
+  private void _apply(ProgressMonitor pm) throws OperationCanceledException, BadLocationException {
+    final int n = _lineStarts.length;
+    int totalShift = 0;
+    for (int i = n - 1; i >= 0; i--) {
+      final String oldPrefix = _oldPrefixes[i];
+      final String newPrefix = _newPrefixes[i];
+      if (i < n - 1) totalShift += newPrefix.length() - oldPrefix.length();
+      if (newPrefix.equals(oldPrefix)) continue;
+      _replace(_doc, _lineStarts[i], oldPrefix, newPrefix);
+      
+      if (pm != null) {
+        pm.setProgress(_lineStarts[i]);
+        if (pm.isCanceled()) throw new OperationCanceledException();
+      }
+    }
+    _doc.setCurrentLocation(_lineStarts[n - 1] + totalShift);
+  }
+  
+  /** A private copy of the document text that is confined to a single thread.  It tracks whether an indent computation
+    * inspects lines preceding _segmentStart, either directly or through a cached query answer. */
+  private static class Copy extends AbstractDJDocument {
+    
+    /** The offset of the first line of the segment being indented. */
+    volatile int _segmentStart = 0;
+    
+    /** Whether a line preceding _segmentStart has been inspected since this flag was last cleared. */
+    volatile boolean _exposed = false;
+    
+    /** The cached queries whose answers may depend on lines preceding _segmentStart. */
+    private final HashSet<Query> _exposedQueries = new HashSet<Query>();
+    
+    Copy(Indenter indenter) { super(indenter); }
+    
+    /** Releases the option listeners registered by the constructor. */
+    void dispose() { _removeIndenter(); }
+    
+    protected boolean _inOwnerThread() { return true; }
+    
+    public int _getLineStartPos(int pos) {
+      if (pos < _segmentStart) _exposed = true;
+      return super._getLineStartPos(pos);
+    }
+    
+    public int _getLineFirstCharPos(int pos) {
+      if (pos < _segmentStart) _exposed = true;
+      return super._getLineFirstCharPos(pos);
+    }
+    
+    protected Object _checkCache(Query key) {
+      Object answer = super._checkCache(key);
+      if (answer != null && _exposedQueries.contains(key)) _exposed = true;
+      return answer;
+    }
+    
+    protected void _storeInCache(Query query, Object answer, int offset) {
+      if (_exposed) _exposedQueries.add(query);  // conservative: the flag may have been set by an earlier query
+      super._storeInCache(query, answer, offset);
+    }
+    
+    protected void _storeInCache(Query.Relocatable query, int answer, int lo, int hi) {
+      if (_exposed) _exposedQueries.add(query);
+      super._storeInCache(query, answer, lo, hi);
+    }
+    
+    protected int startCompoundEdit() { return 0; /* Do nothing. */ }
+    protected void endCompoundEdit(int key) { /* Do nothing. */ }
+    protected void endLastCompoundEdit() { /* Do nothing. */ }
+    protected void addUndoRedo(AbstractDocument.DefaultDocumentEvent chng, Runnable undoCommand, Runnable doCommand) {
+      /* Do nothing. */ 
+    }
+    protected void _styleChanged() { /* Do nothing. */ }
+  }
+}
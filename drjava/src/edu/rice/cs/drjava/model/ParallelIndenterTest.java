@@ -0,0 +1,214 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model;
+
+import edu.rice.cs.drjava.DrJava;
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.drjava.config.OptionConstants;
+import edu.rice.cs.drjava.model.definitions.indent.Indenter;
+
+import java.util.Random;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+
+/** Tests that ParallelIndenter produces exactly the result of indenting a block line by line.  Running main() compares
+  * the two on a large generated file.
+  * @version $Id$
+  */
+public final class ParallelIndenterTest extends DrJavaTestCase {
+  
+  /** Lines from which the generated sources are assembled; their indentation is scrambled afterwards. */
+  private static final String[] MEMBER = {
+    "/** Javadoc for a method",
+    "  * spanning lines",
+    "  */",
+    "public int method(int a,",
+    "int b) {",
+    "int[] xs = {",
+    "1, 2,",
+    "3 };",
+    "switch (a) {",
+    "case 1:",
+    "b++;",
+    "break;",
+    "default:",
+    "b = (a > b) ?",
+    "a : b;",
+    "}",
+    "/* block comment",
+    "   second line */",
+    "if (a > 0) {",
+    "foo(a,",
+    "b",
+    ");",
+    "}",
+    "else b = a;  // line comment",
+    "String s = \"{ not a brace\";",
+    "return a +",
+    "b;",
+    "}",
+    ""
+  };
+  
+  /** @param classes the number of classes
+    * @param membersPerClass the number of methods per class
+    * @param seed the seed for scrambling the indentation
+    * @return source text with random indentation
+    */
+  private static String _generateSource(int classes, int membersPerClass, long seed) {
+    Random r = new Random(seed);
+    StringBuilder sb = new StringBuilder("package p;\n\nimport java.util.List;\n\n");
+    for (int c = 0; c < classes; c++) {
+      sb.append(_blanks(r)).append("@SuppressWarnings(\"unchecked\")\n");
+      sb.append(_blanks(r)).append("class C").append(c).append(" extends Object\n");
+      sb.append(_blanks(r)).append("{\n");
+      for (int m = 0; m < membersPerClass; m++) {
+        sb.append(_blanks(r)).append("private int _field").append(m).append(" = ").append(m).append(";\n");
+        for (String line: MEMBER) sb.append(_blanks(r)).append(line).append('\n');
+      }
+      sb.append(_blanks(r)).append("}\n\n");
+    }
+    return sb.toString();
+  }
+  
+  private static String _blanks(Random r) {
+    int n = r.nextInt(8);
+    return (n == 7) ? "\t " : "       ".substring(0, n);
+  }
+  
+  /** @param text the initial text
+    * @return a document with the given text and a fresh indenter
+    */
+  private static AbstractDJDocument _makeDoc(String text) throws BadLocationException {
+    AbstractDJDocument doc = new AbstractDJDocument(new Indenter(2)) {
+      protected int startCompoundEdit() { return 0; /* Do nothing. */ }
+      protected void endCompoundEdit(int key) { /* Do nothing. */ }
+      protected void endLastCompoundEdit() { /* Do nothing. */ }
+      protected void addUndoRedo(AbstractDocument.DefaultDocumentEvent chng, Runnable undoCommand, Runnable doCommand) {
+        /* Do nothing. */ 
+      }
+      protected void _styleChanged() { /* Do nothing. */ }
+    };
+    doc.insertString(0, text, null);
+    return doc;
+  }
+  
+  /** Indents [start, end) of text line by line and in parallel and checks that the results agree. */
+  private void _assertAgree(String text, int start, int end, int minSegmentLines) throws Exception {
+    setConfigSetting(OptionConstants.PARALLEL_INDENT, Boolean.FALSE);
+    AbstractDJDocument sequential = _makeDoc(text);
+    sequential.indentLines(start, end);
+    
+    AbstractDJDocument parallel = _makeDoc(text);
+    assertTrue("parallel indent performed", 
+               new ParallelIndenter(parallel, new Indenter(2), 0, minSegmentLines)
+                 .indentLines(start, end, Indenter.IndentReason.OTHER, null));
+    assertEquals("indented text", sequential.getText(), parallel.getText());
+  }
+  
+  /** Indenting a whole file in many small segments agrees with indenting it line by line. */
+  public void testWholeFile() throws Exception {
+    String text = _generateSource(6, 4, 1);
+    _assertAgree(text, 0, text.length(), 10);
+  }
+  
+  /** Indenting part of a file, starting in the middle of a line, agrees with indenting it line by line. */
+  public void testPartialBlock() throws Exception {
+    String text = _generateSource(4, 3, 2);
+    _assertAgree(text, text.length() / 3 + 5, 2 * text.length() / 3, 10);
+  }
+  
+  /** A badly indented class header changes the indentation of every segment inside the class; the merged result must
+    * still agree with indenting line by line.
+    */
+  public void testExposedLines() throws Exception {
+    String text = "        class Outer {\n" + _generateSource(1, 8, 3) + "  }\n";
+    _assertAgree(text, 0, text.length(), 8);
+  }
+  
+  /** A block in which a rule that inserts lines applies is left to the line-by-line indenter. */
+  public void testRuleInsertingLines() throws Exception {
+    setConfigSetting(OptionConstants.AUTO_CLOSE_COMMENTS, Boolean.TRUE);  // closes the comment opened below
+    String text = "class A {\nint x;\n/**\n\nint y;\n}\n";
+    AbstractDJDocument doc = _makeDoc(text);
+    assertFalse(new ParallelIndenter(doc, new Indenter(2), 0, 2).indentLines(0, doc.getLength(), 
+                                                                              Indenter.IndentReason.ENTER_KEY_PRESS,
+                                                                              null));
+    assertEquals(text, doc.getText());
+  }
+  
+  /** Blocks with too few lines are left to the line-by-line indenter. */
+  public void testSmallBlock() throws Exception {
+    AbstractDJDocument doc = _makeDoc("class A {\nint x;\n}\n");
+    assertFalse(new ParallelIndenter(doc, new Indenter(2)).indentLines(0, doc.getLength(), 
+                                                                        Indenter.IndentReason.OTHER, null));
+    assertEquals("class A {\nint x;\n}\n", doc.getText());
+  }
+  
+  /** Compares the line-by-line and parallel indenters on a large generated file, first with scrambled indentation and
+    * then with the file already indented, each measured twice.
+    * @param args optionally, the number of classes in the generated file
+    */
+  public static void main(String[] args) throws Exception {
+    edu.rice.cs.util.swing.Utilities.TEST_MODE = true;
+    DrJava.getConfig().setSetting(OptionConstants.PARALLEL_INDENT, Boolean.FALSE);
+    int classes = (args.length > 0) ? Integer.parseInt(args[0]) : 40;
+    String text = _generateSource(classes, 8, 4);
+    for (int round = 0; round < 4; round++) {
+      if (round == 2) {
+        AbstractDJDocument indented = _makeDoc(text);
+        indented.indentLines(0, text.length(), Indenter.IndentReason.OTHER, null);
+        text = indented.getText();
+      }
+      AbstractDJDocument sequential = _makeDoc(text);
+      long start = System.nanoTime();
+      sequential.setCurrentLocation(0);
+      sequential.indentLines(0, text.length(), Indenter.IndentReason.OTHER, null);
+      long seqTime = (System.nanoTime() - start) / 1000000;
+      
+      AbstractDJDocument parallel = _makeDoc(text);
+      start = System.nanoTime();
+      new ParallelIndenter(parallel, new Indenter(2)).indentLines(0, text.length(), Indenter.IndentReason.OTHER, null);
+      long parTime = (System.nanoTime() - start) / 1000000;
+      
+      System.out.println(((round < 2) ? "scrambled, " : "indented, ") + 
+                         parallel.getDefaultRootElement().getElementCount() + " lines: line by line " + seqTime + 
+                         " ms, parallel " + parTime + " ms, agree = " + sequential.getText().equals(parallel.getText()));
+    }
+    System.exit(0);
+  }
+}
@@ -42,11 +42,24 @@ import static edu.rice.cs.plt.object.ObjectUtil.hash;
 
 public interface Query {
   
+  /** A query whose answer depends only on a window of document text and is an absolute position within or next to that
+    * window.  An edit entirely before the window moves the window, the query position, and the answer by the same
+    * amount, so QueryCache relocates such queries instead of evicting them.
+    */
+  public interface Relocatable extends Query {
+    /** @param delta the distance to move
+      * @return the same query posed delta characters later in the document 
+      */
+    public Relocatable shift(int delta);
+  }
+  
   abstract static class Pos implements Query {
     private final int _pos;
     
     Pos(final int pos) { _pos = pos; }
     
+    int pos() { return _pos; }
+    
     public boolean equals(Object other) {
       if (other == null || other.getClass() != this.getClass()) return false;
       Pos o = (Pos) other;
@@ -177,16 +190,19 @@ public interface Query {
     public int hashCode() { return hash(getClass().hashCode(), _pos, _findChar); }
   }
   
-  public static class LineStartPos extends Pos {
+  public static class LineStartPos extends Pos implements Relocatable {
     public LineStartPos(int pos) { super(pos); }
+    public Relocatable shift(int delta) { return new LineStartPos(pos() + delta); }
   }
   
-  public static class LineEndPos extends Pos {
+  public static class LineEndPos extends Pos implements Relocatable {
     public LineEndPos(int pos) { super(pos); }
+    public Relocatable shift(int delta) { return new LineEndPos(pos() + delta); }
   }
   
-  public static class LineFirstCharPos extends Pos {
+  public static class LineFirstCharPos extends Pos implements Relocatable {
     public LineFirstCharPos(int pos) { super(pos); }
+    public Relocatable shift(int delta) { return new LineFirstCharPos(pos() + delta); }
   }
   
   public static class FirstNonWSCharPos extends CharArrayAndFlag {
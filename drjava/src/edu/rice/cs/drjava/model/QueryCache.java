@@ -0,0 +1,230 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/** A memo table for the answers of reduced model queries on an AbstractDJDocument, indexed by the span of document
+  * text each answer depends on.  Most answers depend on the entire prefix [0, hi] of the document (because comment and
+  * quotation state depends on the prefix); they are evicted by any edit at or before hi.  Answers to 
+  * {@link Query.Relocatable} queries depend only on the window [lo, hi]; an edit entirely before lo merely moves that 
+  * window, so the query and its (positional) answer are shifted by the length of the edit instead of being evicted.
+  * 
+  * Entries are bucketed by hi in a sorted map, so an edit at offset e touches only the entries with hi {@literal >=} e.
+  * The cache keeps hit, miss, eviction, and shift counts for measuring its effectiveness.  Access is normally confined
+  * to the event thread, but the public methods are synchronized because some unit tests violate this convention.
+  * @version $Id$
+  */
+public class QueryCache {
+  
+  /** Default bound on the number of cached answers; exceeding it clears the cache. */
+  public static final int DEFAULT_MAX_SIZE = 0x8000;
+  
+  /** A cached answer and the span of text it depends on. */
+  private static class Entry {
+    final Query _query;
+    final Object _answer;
+    /** Left edge of the window the answer depends on, or -1 if it depends on the whole prefix. */
+    final int _lo;
+    /** Right edge (inclusive) of the text the answer depends on. */
+    final int _hi;
+    
+    Entry(Query query, Object answer, int lo, int hi) {
+      _query = query;
+      _answer = answer;
+      _lo = lo;
+      _hi = hi;
+    }
+    
+    /** @return this entry moved by delta characters; only legal for relocatable entries. */
+    Entry shift(int delta) {
+      return new Entry(((Query.Relocatable) _query).shift(delta), (Integer) _answer + delta, _lo + delta, _hi + delta);
+    }
+  }
+  
+  private final HashMap<Query, Entry> _entries = new HashMap<Query, Entry>();
+  
+  /** The entries bucketed by the right edge of the text they depend on. */
+  private final TreeMap<Integer, List<Entry>> _byRightEdge = new TreeMap<Integer, List<Entry>>();
+  
+  private final int _maxSize;
+  
+  private long _hits = 0;
+  private long _misses = 0;
+  private long _evictions = 0;
+  private long _shifts = 0;
+  
+  /** Creates a cache holding at most DEFAULT_MAX_SIZE answers. */
+  public QueryCache() { this(DEFAULT_MAX_SIZE); }
+  
+  /** @param maxSize the number of answers beyond which the cache is cleared */
+  public QueryCache(int maxSize) { _maxSize = maxSize; }
+  
+  /** Looks up the answer to a query.
+    * @param query the query
+    * @return the cached answer, or null if there is none
+    */
+  public synchronized Object get(Query query) {
+    Entry e = _entries.get(query);
+    if (e == null) {
+      _misses++;
+      return null;
+    }
+    _hits++;
+    return e._answer;
+  }
+  
+  /** Caches the answer to a query that depends on the document prefix [0, hi].
+    * @param query the query
+    * @param answer the answer
+    * @param hi the offset bounding the right edge of the text on which the answer depends
+    */
+  public synchronized void put(Query query, Object answer, int hi) { _put(new Entry(query, answer, -1, hi)); }
+  
+  /** Caches the positional answer to a query that depends only on the text in [lo, hi].
+    * @param query the query
+    * @param answer the answer, which is an absolute document position
+    * @param lo the left edge of the text on which the answer depends
+    * @param hi the right edge (inclusive) of the text on which the answer depends
+    */
+  public synchronized void put(Query.Relocatable query, int answer, int lo, int hi) {
+    assert lo >= 0 && lo <= hi;
+    _put(new Entry(query, answer, lo, hi));
+  }
+  
+  private void _put(Entry e) {
+    if (_entries.size() >= _maxSize) clear();
+    Entry old = _entries.put(e._query, e);
+    if (old != null) _removeFromBucket(old);
+    _addToBucket(e);
+  }
+  
+  /** Updates the cache for the insertion of length characters at offset.
+    * @param offset the offset of the insertion
+    * @param length the number of inserted characters
+    */
+  public synchronized void inserted(int offset, int length) { _edited(offset, offset, length); }
+  
+  /** Updates the cache for the removal of the length characters starting at offset.
+    * @param offset the offset of the first removed character
+    * @param length the number of removed characters
+    */
+  public synchronized void removed(int offset, int length) { _edited(offset, offset + length, - length); }
+  
+  /** Evicts or shifts every entry that depends on text at or after offset.
+    * @param offset the first offset changed by the edit
+    * @param firstUnchanged entries whose window starts at or after this offset are shifted rather than evicted
+    * @param delta the change in document length
+    */
+  private void _edited(int offset, int firstUnchanged, int delta) {
+    SortedMap<Integer, List<Entry>> affected = _byRightEdge.tailMap(offset);
+    if (affected.isEmpty()) return;
+    
+    ArrayList<Entry> moved = new ArrayList<Entry>();
+    for (List<Entry> bucket: affected.values()) {
+      for (Entry e: bucket) {
+        _entries.remove(e._query);
+        if (e._lo >= firstUnchanged) moved.add(e.shift(delta));
+        else _evictions++;
+      }
+    }
+    affected.clear();
+    
+    for (Entry e: moved) {
+      _entries.put(e._query, e);
+      _addToBucket(e);
+    }
+    _shifts += moved.size();
+  }
+  
+  /** Evicts all cached answers. */
+  public synchronized void clear() {
+    _evictions += _entries.size();
+    _entries.clear();
+    _byRightEdge.clear();
+  }
+  
+  private void _addToBucket(Entry e) {
+    List<Entry> bucket = _byRightEdge.get(e._hi);
+    if (bucket == null) {
+      bucket = new ArrayList<Entry>(2);
+      _byRightEdge.put(e._hi, bucket);
+    }
+    bucket.add(e);
+  }
+  
+  private void _removeFromBucket(Entry e) {
+    List<Entry> bucket = _byRightEdge.get(e._hi);
+    if (bucket == null) return;
+    for (Iterator<Entry> i = bucket.iterator(); i.hasNext(); ) {
+      if (i.next() == e) {
+        i.remove();
+        break;
+      }
+    }
+    if (bucket.isEmpty()) _byRightEdge.remove(e._hi);
+  }
+  
+  /** @return the number of cached answers */
+  public synchronized int size() { return _entries.size(); }
+  
+  /** @return the number of lookups that found an answer */
+  public synchronized long getHits() { return _hits; }
+  
+  /** @return the number of lookups that found no answer */
+  public synchronized long getMisses() { return _misses; }
+  
+  /** @return the number of answers discarded because of edits or because the cache was full */
+  public synchronized long getEvictions() { return _evictions; }
+  
+  /** @return the number of answers kept but relocated because of edits preceding them */
+  public synchronized long getShifts() { return _shifts; }
+  
+  /** Resets the hit, miss, eviction, and shift counts. */
+  public synchronized void resetStatistics() { _hits = _misses = _evictions = _shifts = 0; }
+  
+  public synchronized String toString() {
+    long lookups = _hits + _misses;
+    return "QueryCache[size=" + _entries.size() + ", hits=" + _hits + ", misses=" + _misses + 
+      ", hitRate=" + ((lookups == 0) ? 0 : (100 * _hits / lookups)) + "%, evictions=" + _evictions + 
+      ", shifts=" + _shifts + "]";
+  }
+}
@@ -0,0 +1,140 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.drjava.model.definitions.DefinitionsDocument;
+
+import javax.swing.text.BadLocationException;
+
+/** Tests the incremental invalidation of QueryCache and its use by AbstractDJDocument.
+  * @version $Id$
+  */
+public class QueryCacheTest extends DrJavaTestCase {
+  
+  /** Tests that an edit evicts the answers depending on the edited prefix and keeps the rest. */
+  public void testPrefixEviction() {
+    QueryCache cache = new QueryCache();
+    Query early = new Query.EnclosingBrace(5);
+    Query late = new Query.EnclosingBrace(50);
+    cache.put(early, "early", 4);
+    cache.put(late, "late", 49);
+    
+    assertEquals("early", cache.get(early));
+    cache.inserted(20, 3);
+    assertEquals("early answer kept", "early", cache.get(early));
+    assertNull("late answer evicted", cache.get(late));
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    
+    cache.removed(4, 1);
+    assertNull("edit at right edge evicts", cache.get(early));
+    assertEquals(0, cache.size());
+  }
+  
+  /** Tests that relocatable answers following an edit are shifted rather than evicted. */
+  public void testRelocation() {
+    QueryCache cache = new QueryCache();
+    cache.put(new Query.LineStartPos(30), 25, 24, 29);
+    cache.put(new Query.LineEndPos(8), 15, 8, 15);
+    
+    cache.inserted(10, 4);
+    assertNull(cache.get(new Query.LineStartPos(30)));
+    assertEquals(29, cache.get(new Query.LineStartPos(34)));
+    assertNull("edit inside window evicts", cache.get(new Query.LineEndPos(8)));
+    assertEquals(1, cache.getShifts());
+    assertEquals(1, cache.getEvictions());
+    
+    cache.removed(2, 6);
+    assertEquals(23, cache.get(new Query.LineStartPos(28)));
+    cache.removed(20, 5);
+    assertNull("removal overlapping window evicts", cache.get(new Query.LineStartPos(28)));
+    assertEquals(0, cache.size());
+  }
+  
+  /** Tests that the cache is cleared once it exceeds its bound. */
+  public void testBound() {
+    QueryCache cache = new QueryCache(4);
+    for (int i = 0; i < 5; i++) cache.put(new Query.EnclosingBrace(i), i, i);
+    assertEquals(1, cache.size());
+    assertEquals(4, cache.getEvictions());
+    assertEquals(4, cache.get(new Query.EnclosingBrace(4)));
+  }
+  
+  /** Tests that cached line queries stay correct across edits to a document. */
+  public void testDocumentEdits() throws BadLocationException {
+    final DefinitionsDocument doc = new DefinitionsDocument(new GlobalEventNotifier());
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 50; i++) sb.append("  int x" + i + " = " + i + ";\n");
+    doc.insertString(0, sb.toString(), null);
+    _checkLines(doc);  // populates the cache
+    
+    QueryCache cache = doc.getQueryCache();
+    cache.resetStatistics();
+    doc.insertString(3, "\n  /* c */", null);
+    doc.remove(40, 7);
+    doc.insertString(doc.getLength() - 2, "\n", null);
+    _checkLines(doc);
+    assertTrue("answers after the edits were relocated", cache.getShifts() > 0);
+    assertTrue("relocated answers were used", cache.getHits() > 0);
+  }
+  
+  /** Tests that an enclosing brace query at a position the document no longer reaches is not answered from the cache. */
+  public void testEnclosingBraceBeyondEnd() throws BadLocationException {
+    final DefinitionsDocument doc = new DefinitionsDocument(new GlobalEventNotifier());
+    doc.insertString(0, "{abcdefg", null);
+    assertEquals(0, doc.findPrevEnclosingBrace(5, '{', '}'));
+    doc.remove(5, 3);  // the cached answer depends only on the text before position 5, so it survives the edit
+    assertEquals(-1, doc.findPrevEnclosingBrace(5, '{', '}'));
+  }
+  
+  /** Checks the line queries at every position of doc against the document text. */
+  private void _checkLines(AbstractDJDocument doc) throws BadLocationException {
+    final String text = doc.getText();
+    for (int pos = 0; pos <= text.length(); pos++) {
+      int start = text.lastIndexOf('\n', pos - 1) + 1;
+      int end = text.indexOf('\n', pos);
+      if (end < 0) end = text.length();
+      int first = start;
+      while (first < end && (text.charAt(first) == ' ' || text.charAt(first) == '\t')) first++;
+      assertEquals("line start of " + pos, start, doc._getLineStartPos(pos));
+      assertEquals("line end of " + pos, end, doc._getLineEndPos(pos));
+      assertEquals("first char of " + pos, first, doc._getLineFirstCharPos(pos));
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import edu.rice.cs.util.UnexpectedException;
+
+/** An index of the trigrams (three character substrings) occurring in a set of texts, used to narrow a plain string
+  * search to the texts that can contain the search string before searching any of them.  Trigrams are case-folded 
+  * character by character, so the index serves both case-sensitive and case-insensitive searches.  Each text is identified 
+  * by a key and a stamp; a text is re-indexed only when its stamp changes, so the index is maintained incrementally
+  * as documents are edited and saved.  Indexing and verification of candidates run in parallel.
+  * @param <K> the type of the keys identifying the texts
+  * @version $Id$
+  */
+public class TrigramIndex<K> {
+  
+  /** A text to be indexed. */
+  public abstract static class Source {
+    private final long _stamp;
+    
+    /** @param stamp a number that changes whenever the text changes */
+    public Source(long stamp) { _stamp = stamp; }
+    
+    public long getStamp() { return _stamp; }
+    
+    /** @return the text; may be called from a worker thread */
+    public abstract String getText();
+  }
+  
+  /** The indexed trigrams of one text. */
+  private static class Entry {
+    final long _stamp;
+    /** The distinct trigram codes of the text, sorted. */
+    final int[] _trigrams;
+    
+    Entry(long stamp, int[] trigrams) {
+      _stamp = stamp;
+      _trigrams = trigrams;
+    }
+    
+    boolean containsAll(int[] trigrams) {
+      for (int t: trigrams) if (Arrays.binarySearch(_trigrams, t) < 0) return false;
+      return true;
+    }
+  }
+  
+  /** The pool shared by all trigram indexes; created on first use. */
+  private static volatile ForkJoinPool _pool = null;
+  
+  private static ForkJoinPool _getPool() {
+    if (_pool == null) {
+      synchronized(TrigramIndex.class) {
+        if (_pool == null) _pool = new ForkJoinPool();
+      }
+    }
+    return _pool;
+  }
+  
+  private final HashMap<K, Entry> _entries = new HashMap<K, Entry>();
+  
+  private long _indexed = 0;
+  private long _verified = 0;
+  
+  /** Finds the texts that contain word.  First brings the index up to date with sources, discarding the entries of keys
+    * that no longer have a source.  The result is exact: candidates passing the trigram filter are verified by searching
+    * their text, in the same way as FindReplaceMachine (comparing lower-cased text unless matchCase is set).
+    * @param sources the texts to search, in the order in which the results should be returned
+    * @param word the search string
+    * @param matchCase whether the search is case-sensitive
+    * @return the keys of the texts that contain word
+    */
+  public synchronized Set<K> find(Map<K, ? extends Source> sources, final String word, final boolean matchCase) {
+    refresh(sources);
+    
+    final String key = matchCase ? word : word.toLowerCase();
+    // Case mappings outside of ASCII may depend on context, so only ASCII search strings are filtered by trigram
+    final int[] trigrams = _isAscii(word) ? trigrams(word) : new int[0];
+    List<K> candidates = new ArrayList<K>();
+    for (K k: sources.keySet()) if (_entries.get(k).containsAll(trigrams)) candidates.add(k);
+    
+    ArrayList<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(candidates.size());
+    for (K k: candidates) {
+      final Source s = sources.get(k);
+      tasks.add(new Callable<Boolean>() {
+        public Boolean call() {
+          String text = s.getText();
+          return (matchCase ? text : text.toLowerCase()).indexOf(key) >= 0;
+        }
+      });
+    }
+    List<Boolean> found = _invokeAll(tasks);
+    _verified += candidates.size();
+    
+    Set<K> result = new LinkedHashSet<K>();
+    for (int i = 0; i < candidates.size(); i++) if (found.get(i)) result.add(candidates.get(i));
+    return result;
+  }
+  
+  /** Re-indexes the sources whose stamps have changed and discards the entries of keys that are not in sources.
+    * @param sources the texts to index
+    */
+  public synchronized void refresh(Map<K, ? extends Source> sources) {
+    _entries.keySet().retainAll(sources.keySet());
+    
+    final ArrayList<K> stale = new ArrayList<K>();
+    ArrayList<Callable<Entry>> tasks = new ArrayList<Callable<Entry>>();
+    for (Map.Entry<K, ? extends Source> e: sources.entrySet()) {
+      Entry old = _entries.get(e.getKey());
+      final Source s = e.getValue();
+      if (old == null || old._stamp != s.getStamp()) {
+        stale.add(e.getKey());
+        tasks.add(new Callable<Entry>() {
+          public Entry call() { return new Entry(s.getStamp(), trigrams(s.getText())); }
+        });
+      }
+    }
+    List<Entry> entries = _invokeAll(tasks);
+    for (int i = 0; i < stale.size(); i++) _entries.put(stale.get(i), entries.get(i));
+    _indexed += stale.size();
+  }
+  
+  /** @return the number of indexed texts */
+  public synchronized int size() { return _entries.size(); }
+  
+  /** @return the number of times a text has been (re-)indexed */
+  public synchronized long getIndexCount() { return _indexed; }
+  
+  /** @return the number of texts searched to verify that they contain a search string */
+  public synchronized long getVerifyCount() { return _verified; }
+  
+  /** Computes the sorted, distinct trigram codes of text, folding each character to lower case as it is read (rather
+    * than copying the whole text into a lower-cased string).  Codes of ASCII trigrams are exact; other trigrams are
+    * hashed, which can only make the filter less selective.
+    * @param text the text
+    * @return the trigram codes
+    */
+  static int[] trigrams(String text) {
+    int n = text.length() - 2;
+    if (n <= 0) return new int[0];
+    int[] codes = new int[n];
+    char c0 = Character.toLowerCase(text.charAt(0));
+    char c1 = Character.toLowerCase(text.charAt(1));
+    for (int i = 0; i < n; i++) {
+      char c2 = Character.toLowerCase(text.charAt(i + 2));
+      codes[i] = (c0 << 14) ^ (c1 << 7) ^ c2;
+      c0 = c1;
+      c1 = c2;
+    }
+    Arrays.sort(codes);
+    int distinct = 1;
+    for (int i = 1; i < n; i++) if (codes[i] != codes[distinct - 1]) codes[distinct++] = codes[i];
+    return Arrays.copyOf(codes, distinct);
+  }
+  
+  private static boolean _isAscii(String s) {
+    for (int i = 0; i < s.length(); i++) if (s.charAt(i) >= 0x80) return false;
+    return true;
+  }
+  
+  private static <T> List<T> _invokeAll(List<Callable<T>> tasks) {
+    List<T> results = new ArrayList<T>(tasks.size());
+    if (tasks.isEmpty()) return results;
+    try { for (Future<T> f: _getPool().invokeAll(tasks)) results.add(f.get()); }
+    catch (InterruptedException e) { throw new UnexpectedException(e); }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      throw new UnexpectedException(cause);
+    }
+    return results;
+  }
+}
@@ -0,0 +1,106 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Tests the incremental maintenance and the exactness of TrigramIndex.
+  * @version $Id$
+  */
+public class TrigramIndexTest extends DrJavaTestCase {
+  
+  /** A source with fixed text. */
+  private static class TextSource extends TrigramIndex.Source {
+    private final String _text;
+    TextSource(long stamp, String text) {
+      super(stamp);
+      _text = text;
+    }
+    public String getText() { return _text; }
+  }
+  
+  private static Map<String, TrigramIndex.Source> _sources(Object... stampsAndTexts) {
+    Map<String, TrigramIndex.Source> result = new LinkedHashMap<String, TrigramIndex.Source>();
+    for (int i = 0; i < stampsAndTexts.length; i += 3) {
+      result.put((String) stampsAndTexts[i], 
+                 new TextSource((Integer) stampsAndTexts[i + 1], (String) stampsAndTexts[i + 2]));
+    }
+    return result;
+  }
+  
+  /** Tests that trigram codes are distinct and sorted. */
+  public void testTrigrams() {
+    assertEquals(0, TrigramIndex.trigrams("ab").length);
+    int[] codes = TrigramIndex.trigrams("abcabcab");
+    assertEquals("abc, bca, cab", 3, codes.length);
+    int[] sorted = codes.clone();
+    Arrays.sort(sorted);
+    assertTrue(Arrays.equals(sorted, codes));
+    assertTrue("case is folded", Arrays.equals(codes, TrigramIndex.trigrams("AbCaBcAB")));
+  }
+  
+  /** Tests that find returns exactly the texts containing the word, in source order. */
+  public void testFind() {
+    TrigramIndex<String> index = new TrigramIndex<String>();
+    Map<String, TrigramIndex.Source> sources = 
+      _sources("A", 1, "class Foo { int count; }", "B", 1, "// COUNTER\nclass Bar {}", "C", 1, "cou nt");
+    
+    assertEquals(Arrays.asList("A", "B"), Arrays.asList(index.find(sources, "count", false).toArray()));
+    assertEquals(Arrays.asList("A"), Arrays.asList(index.find(sources, "count", true).toArray()));
+    assertEquals(Arrays.asList("B"), Arrays.asList(index.find(sources, "COUNT", true).toArray()));
+    assertEquals("short words are verified", Arrays.asList("A", "B", "C"), 
+                 Arrays.asList(index.find(sources, "nt", false).toArray()));
+    assertTrue(index.find(sources, "ount;}", false).isEmpty());
+    assertEquals("C was filtered out by trigrams", 2 + 2 + 2 + 3 + 0, index.getVerifyCount());
+  }
+  
+  /** Tests that only texts with changed stamps are re-indexed and that texts without sources are dropped. */
+  public void testIncrementalRefresh() {
+    TrigramIndex<String> index = new TrigramIndex<String>();
+    index.refresh(_sources("A", 1, "alpha", "B", 1, "beta", "C", 1, "gamma"));
+    assertEquals(3, index.getIndexCount());
+    
+    Map<String, TrigramIndex.Source> sources = _sources("A", 1, "alpha", "B", 2, "betamax");
+    assertEquals(Arrays.asList("B"), Arrays.asList(index.find(sources, "max", false).toArray()));
+    assertEquals("only B re-indexed", 4, index.getIndexCount());
+    assertEquals("C dropped", 2, index.size());
+  }
+}
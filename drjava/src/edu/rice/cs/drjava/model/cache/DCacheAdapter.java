@@ -93,6 +93,9 @@ public interface DCacheAdapter {
   /** Method for notifying the DCacheAdapter that this document has been reset via undo commands. */
   public void documentReset();
   
+  /** Method for notifying the DCacheAdapter that this document has become the active document. */
+  public void documentActivated();
+  
   /** Set the specified keywords as keywords for syntax highlighting.
     * @param keywords keywords to highlight */
   public void setKeywords(Set<String> keywords);
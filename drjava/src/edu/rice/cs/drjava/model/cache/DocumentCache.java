@@ -39,6 +39,7 @@ package edu.rice.cs.drjava.model.cache;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.io.IOException;
 
 import edu.rice.cs.drjava.model.definitions.DefinitionsDocument;
@@ -74,6 +75,14 @@ import edu.rice.cs.plt.iter.IterUtil;
   * Since the cache and document managers can both be concurrently accessed from multiple threads, the methods in the
   * DocumentCache and DocManager classes are synchronized.  Some operations require locks on both the cache and a
   * document manager, but the code is written so that none of them require these locks to be held simultaneously.
+  * <p>
+  * Besides the limit on the number of documents, the resident queue is bounded by a budget in bytes.  The footprint of
+  * a document (its text, line structure and reduced model) is estimated from its length when it enters the queue.  The
+  * queue is kept in least recently used order, where a document is used when it is loaded or becomes the active 
+  * document; the far more frequent accesses through getDocument() do not reorder the queue.  A document that has been 
+  * activated FREQUENT_USES times or more is spared once when it reaches the head of the queue; it moves to the end 
+  * and its use count is halved.  Reading through a series of documents therefore does not flush the documents that
+  * the user keeps returning to.
   */
 
 public class DocumentCache {
@@ -81,20 +90,58 @@ public class DocumentCache {
   /** Log file. */
   private static final Log _log = new Log("DocumentCache.txt", false);
   
-  private static final int INIT_CACHE_SIZE = 32;
+  private static final int INIT_CACHE_SIZE = 128;
+  
+  /** The estimated number of bytes per character of a resident document, measured on typical Java sources. */
+  static final int BYTES_PER_CHAR = 20;
+  
+  /** The estimated number of bytes that a resident document occupies regardless of its length. */
+  static final int BYTES_PER_DOCUMENT = 10 * 1024;
+  
+  /** The number of activations for which a document is spared when it reaches the head of the queue. */
+  static final int FREQUENT_USES = 2;
+  
+  /** The maximum recorded number of activations of a document. */
+  private static final int MAX_USES = 16;
   
   /** invariant {@code _residentQueue.size() <= CACHE_SIZE} */
   private volatile int CACHE_SIZE;
   
+  /** The maximum estimated footprint in bytes of the documents in the resident queue, unless the queue holds only the
+    * document being loaded. */
+  private volatile long _budget;
+  
+  /** The sum of the estimated footprints of the documents in the resident queue. */
+  private volatile long _residentBytes = 0L;
+  
+  /** Whether the reconstructors should compress the text of documents that are kicked out. */
+  private volatile boolean _compressEvictedText = false;
+  
+  /** The document manager that was activated most recently. */
+  private volatile DocManager _lastActivated = null;
+  
   /** Data structure representing the queue of resident unmodified documents. */
   private final LinkedHashSet<DocManager> _residentQueue;
   
   private final Object _cacheLock = new Object();
   
+  /* Statistics; the counters other than _hits are only updated while _cacheLock is held. */
+  private final AtomicLong _hits = new AtomicLong();
+  private volatile long _loads = 0L;
+  private volatile long _reconstructions = 0L;
+  private volatile long _reconstructionNanos = 0L;
+  private volatile long _evictions = 0L;
+  
   /* General constructor.  Not currently used except when called by default constructor. */
-  public DocumentCache(int size) {
+  public DocumentCache(int size) { this(size, Long.MAX_VALUE); }
+  
+  /** @param size the maximum number of unmodified documents kept in memory
+    * @param budget the maximum estimated footprint in bytes of the unmodified documents kept in memory
+    */
+  public DocumentCache(int size, long budget) {
 //    Utilities.showDebug("DocumentCache created with size = " + size);
     CACHE_SIZE = size;
+    _budget = budget;
     _residentQueue = new LinkedHashSet<DocManager>();
   }
   
@@ -124,19 +171,109 @@ public class DocumentCache {
     if (size <= 0) throw new IllegalArgumentException("Cannot set the cache size to zero or less.");
     synchronized(_cacheLock) {    // lock the cache so entries can be removed if necessary
       CACHE_SIZE = size;
-      int diff = _residentQueue.size() - CACHE_SIZE;
-      if (diff > 0) {
-        Iterable<DocManager> toRemove = IterUtil.snapshot(IterUtil.truncate(_residentQueue, diff));
-        for (DocManager dm : toRemove) { _residentQueue.remove(dm); dm.kickOut(); }
-      }
+      _shrink(null);
     }
   }
   
   public int getCacheSize() { return CACHE_SIZE; }
   public int getNumInCache() { return _residentQueue.size(); }
   
+  /** Changes the maximum estimated footprint of the <b>unmodified</b> documents in the cache, kicking out documents if
+    * necessary.
+    * @param budget the new budget in bytes
+    */
+  public void setBudget(long budget) {
+    if (budget < 0) throw new IllegalArgumentException("Cannot set the cache budget to less than zero.");
+    synchronized(_cacheLock) {
+      _budget = budget;
+      _shrink(null);
+    }
+  }
+  
+  public long getBudget() { return _budget; }
+  
+  /** @return the estimated footprint in bytes of the documents in the cache */
+  public long getResidentBytes() { return _residentBytes; }
+  
+  /** @param length the number of characters in a document
+    * @return the estimated number of bytes that the document occupies when it is resident
+    */
+  public static long estimateFootprint(int length) { return BYTES_PER_DOCUMENT + (long) BYTES_PER_CHAR * length; }
+  
+  /** Sets whether reconstructors should keep the text of documents that are kicked out as a compressed TextSnapshot.
+    * @param compress true if the text should be compressed
+    */
+  public void setCompressEvictedText(boolean compress) { _compressEvictedText = compress; }
+  
+  public boolean isCompressEvictedText() { return _compressEvictedText; }
+  
+  /** @return the number of requests for a document that was already resident */
+  public long getHits() { return _hits.get(); }
+  
+  /** @return the number of times a document was loaded for the first time */
+  public long getLoads() { return _loads; }
+  
+  /** @return the number of times a document that had been kicked out was reconstructed */
+  public long getReconstructions() { return _reconstructions; }
+  
+  /** @return the total time in nanoseconds spent reconstructing documents that had been kicked out */
+  public long getReconstructionNanos() { return _reconstructionNanos; }
+  
+  /** @return the number of documents kicked out to satisfy the size limit or the budget */
+  public long getEvictions() { return _evictions; }
+  
+  /** Resets the hit, load, reconstruction, and eviction counters. */
+  public void resetStatistics() {
+    synchronized(_cacheLock) {
+      _hits.set(0L);
+      _loads = 0L;
+      _reconstructions = 0L;
+      _reconstructionNanos = 0L;
+      _evictions = 0L;
+    }
+  }
+  
   public String toString() { return _residentQueue.toString(); }
   
+  /** @return true if the resident queue exceeds the size limit or the budget.  Assumes _cacheLock is already held. */
+  private boolean _isOverLimit() {
+    return _residentQueue.size() > CACHE_SIZE || (_residentBytes > _budget && ! _residentQueue.isEmpty());
+  }
+  
+  /** Kicks out documents from the head of the resident queue until it satisfies the size limit and the budget.  
+    * Frequently activated documents are moved to the end of the queue once instead.  Assumes _cacheLock is already 
+    * held.
+    * @param keep a document manager that must stay resident, or null
+    */
+  private void _shrink(DocManager keep) {
+    while (_isOverLimit()) {
+      final DocManager dm = IterUtil.first(_residentQueue);
+      if (dm == keep) {
+        if (_residentQueue.size() == 1) return;  // a single document may exceed the budget
+        _requeue(dm);
+      }
+      else if (dm._uses >= FREQUENT_USES) {
+        dm._uses /= 2;
+        _requeue(dm);
+      }
+      else {
+        dm.remove();
+        _evictions++;
+      }
+    }
+  }
+  
+  /** Moves a document manager in the resident queue to its end.  Assumes _cacheLock is already held. */
+  private void _requeue(DocManager dm) {
+    _residentQueue.remove(dm);
+    _residentQueue.add(dm);
+  }
+  
+  /** Removes a document manager from the resident queue if it is present.  Assumes _cacheLock is already held. */
+  private void _dequeue(DocManager dm) {
+    if (_residentQueue.remove(dm)) _residentBytes -= dm._footprint;
+  }
+  
   
   ///////////////////////////// DocManager //////////////////////////
   
@@ -148,8 +285,8 @@ public class DocumentCache {
   /** Note: before extending this table, check that the extension does not conflict with isUnmangedOrUntitled() */
   
   /** Manages the retrieval of a document for a corresponding open definitions document.  This manager only 
-    * maintains its document data if it contained in _residentQueue, which is maintained using a round-robin
-    * replacement scheme.
+    * maintains its document data if it contained in _residentQueue, which is maintained using the 
+    * replacement scheme described for DocumentCache.
     * 
     * NOTE: DO NOT OVERRIDE hashcode or equals for DocManager or any descendant of DocManager!  DocManagers are mutable
     * yet they are used as hash keys.
@@ -163,6 +300,15 @@ public class DocumentCache {
     private volatile int _stat; // I know, this is not very OO
     private volatile DefinitionsDocument _doc;
     
+    /** The estimated footprint of the document when it entered the resident queue. */
+    private volatile long _footprint = 0L;
+    
+    /** The number of activations of this document, halved whenever it is spared from being kicked out. */
+    private volatile int _uses = 0;
+    
+    /** Whether the document has been made before. */
+    private volatile boolean _made = false;
+    
     /** Instantiates a manager for the documents that are produced by the given document reconstructor.
      * @param rec The reconstructor used to create the document
      * @param isUntitled true if the document is untitled; false otherwise
@@ -184,8 +330,15 @@ public class DocumentCache {
      */
     private DefinitionsDocument makeDocument() {
       try { // _doc is not in memory
+        final long start = System.nanoTime();
         _doc = _rec.make();
         assert _doc != null;
+        if (_made) {
+          _reconstructions++;
+          _reconstructionNanos += System.nanoTime() - start;
+        }
+        else _loads++;
+        _made = true;
         // update documents if necessary
         if (_keywords != null) {  // copy cached keywords to new copy of doc
           _doc.setKeywords(_keywords); _keywords.clear(); _keywords = null;
@@ -210,9 +363,15 @@ public class DocumentCache {
       
 //      The following double-check idiom is safe in Java 1.4 and later JVMs provided that _doc is volatile.
       final DefinitionsDocument doc = _doc;  // create a snapshot of _doc
-      if (doc != null) return doc;  
+      if (doc != null) {
+        _hits.incrementAndGet();
+        return doc;
+      }
       synchronized(_cacheLock) { // lock the cache so that this DocManager's state can be updated
-        if (_doc != null) return _doc;  // _doc may have changed since test outside of _cacheLock
+        if (_doc != null) {  // _doc may have changed since test outside of _cacheLock
+          _hits.incrementAndGet();
+          return _doc;
+        }
         return makeDocument();
       }
     }
@@ -254,18 +413,30 @@ public class DocumentCache {
     public void close() {
 //      Utilities.showDebug("close() called on " + this);
       synchronized(_cacheLock) {
-        _residentQueue.remove(this);
+        _dequeue(this);
+        if (_lastActivated == this) _lastActivated = null;
         closingKickOut();
       }
     }
     
     public void documentModified() {
       synchronized(_cacheLock) { 
-        _residentQueue.remove(this); // remove modified document from queue if present
+        _dequeue(this); // remove modified document from queue if present
         _stat = UNMANAGED;
       }
     }
     
+    /** Records a use of this document and makes it the most recently used document in the queue.  Repeated 
+      * activations without an intervening activation of another document count once. */
+    public void documentActivated() {
+      synchronized(_cacheLock) {
+        if (_lastActivated == this) return;
+        _lastActivated = this;
+        if (_uses < MAX_USES) _uses++;
+        if (_residentQueue.contains(this)) _requeue(this);
+      }
+    }
+    
     public void documentReset() {
       synchronized(_cacheLock) { 
         if (_stat == UNMANAGED) add(); // add document to queue if it was formerly unmanaged
@@ -288,15 +459,18 @@ public class DocumentCache {
 //      Utilities.showDebug("add " + this + " to the QUEUE\n" + "QUEUE = " + _residentQueue);
 //      System.err.println("adding " + this + " to the QUEUE\n" + "QUEUE = " + _residentQueue);
       if (! _residentQueue.contains(this)) {
+        final DefinitionsDocument doc = _doc;
+        _footprint = estimateFootprint((doc != null) ? doc.getLength() : _rec.getText().length());
         _residentQueue.add(this);
+        _residentBytes += _footprint;
         _stat = IN_QUEUE;
       }
-      if (_residentQueue.size() > CACHE_SIZE) IterUtil.first(_residentQueue).remove();
+      _shrink(this);
     }
     
     /** Removes this DocManager from the queue and sets status to NOT_IN_QUEUE.  Assumes _cacheLock is already held. */
     private void remove() { 
-      _residentQueue.remove(this);
+      _dequeue(this);
       kickOut();
     }
     
@@ -49,7 +49,10 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 
-/** This used to extend GlobalModelTestCase, but now it extends just TestCase.  Perhaps it should be changed back. */
+/** This used to extend GlobalModelTestCase, but now it extends just TestCase.  Perhaps it should be changed back.
+  * Like the other tests that build a global model, it needs a display: the configuration and the document navigators
+  * of the model use AWT, which throws HeadlessException in a headless environment.
+  */
 public class DocumentCacheTest extends DrJavaTestCase {
   
   private DefaultGlobalModel _model;
@@ -437,6 +440,85 @@ public class DocumentCacheTest extends DrJavaTestCase {
 //  }
   
   // not being used.  The new definition of the cache allows for a closed document, if it is used again, to bring its document back.
+  /** Tests that the budget limits the estimated footprint of the resident documents. */
+  public void testBudget() throws IOException {
+    final String text = "class A {\n  int x;\n}\n";
+    File file1 = tempFile(1);
+    File file2 = tempFile(2);
+    File file3 = tempFile(3);
+    IOUtil.writeStringToFile(file1, text);
+    IOUtil.writeStringToFile(file2, text);
+    IOUtil.writeStringToFile(file3, text);
+    
+    _cache.setBudget(2 * DocumentCache.estimateFootprint(text.length()));
+    OpenDefinitionsDocument doc1 = openFile(file1);
+    doc1.getCurrentLine();
+    OpenDefinitionsDocument doc2 = openFile(file2);
+    doc2.getCurrentLine();
+    assertEquals("There should be 2 documents in the cache", 2, _cache.getNumInCache());
+    assertEquals("Wrong resident footprint", 2 * DocumentCache.estimateFootprint(text.length()), 
+                 _cache.getResidentBytes());
+    
+    OpenDefinitionsDocument doc3 = openFile(file3);
+    doc3.getCurrentLine();  // cache -> 2 3
+    assertEquals("There should still be 2 documents in the cache", 2, _cache.getNumInCache());
+    assertFalse("Document 1 should have been kicked out", _adapterTable.get(doc1).isReady());
+    assertTrue("Document 3 should be ready", _adapterTable.get(doc3).isReady());
+    
+    // A single document that exceeds the budget stays resident
+    _cache.setBudget(1);  // cache -> empty
+    assertEquals("There should be no documents in the cache", 0, _cache.getNumInCache());
+    doc1.getCurrentLine();
+    assertTrue("Document 1 should be ready", _adapterTable.get(doc1).isReady());
+    assertEquals("There should be 1 document in the cache", 1, _cache.getNumInCache());
+    assertEquals("Document 1 should be reconstructed from its image", text, doc1.getText());
+  }
+  
+  /** Tests that a frequently activated document survives a pass over other documents. */
+  public void testFrequentlyActivatedDocumentStays() throws IOException {
+    _cache.setCacheSize(3);
+    OpenDefinitionsDocument doc1 = openFile(tempFile(1));
+    doc1.getCurrentLine();
+    OpenDefinitionsDocument doc2 = openFile(tempFile(2));
+    doc2.getCurrentLine();
+    OpenDefinitionsDocument doc3 = openFile(tempFile(3));
+    doc3.getCurrentLine();  // cache -> 1 2 3
+    
+    // The user switches back and forth between documents 1 and 2
+    for (int i = 0; i < DocumentCache.FREQUENT_USES; i++) {
+      _adapterTable.get(doc1).documentActivated();
+      _adapterTable.get(doc2).documentActivated();
+    }  // cache -> 3 1 2
+    
+    OpenDefinitionsDocument doc4 = openFile(tempFile(4));
+    doc4.getCurrentLine();  // cache -> 1 2 4
+    assertFalse("Document 3 should have been kicked out", _adapterTable.get(doc3).isReady());
+    OpenDefinitionsDocument doc5 = openFile(tempFile(5));
+    doc5.getCurrentLine();  // documents 1 and 2 are spared: cache -> 5 1 2
+    assertTrue("Document 1 should have been spared", _adapterTable.get(doc1).isReady());
+    assertTrue("Document 2 should have been spared", _adapterTable.get(doc2).isReady());
+    assertFalse("Document 4 should have been kicked out", _adapterTable.get(doc4).isReady());
+    assertTrue("Document 5 should be ready", _adapterTable.get(doc5).isReady());
+  }
+  
+  /** Tests the hit, load, reconstruction, and eviction counters. */
+  public void testStatistics() throws IOException {
+    _cache.setCacheSize(1);
+    OpenDefinitionsDocument doc1 = openFile(tempFile(1));
+    doc1.getCurrentLine();
+    _cache.resetStatistics();
+    
+    doc1.getCurrentLine();
+    assertTrue("Resident document should count as a hit", _cache.getHits() > 0);
+    OpenDefinitionsDocument doc2 = openFile(tempFile(2));
+    doc2.getCurrentLine();  // loads document 2, kicks out document 1
+    doc1.getCurrentLine();  // reconstructs document 1, kicks out document 2
+    assertEquals("Wrong number of loads", 1, _cache.getLoads());
+    assertEquals("Wrong number of reconstructions", 1, _cache.getReconstructions());
+    assertEquals("Wrong number of evictions", 2, _cache.getEvictions());
+    assertTrue("Reconstruction time should be recorded", _cache.getReconstructionNanos() > 0);
+  }
+  
   // This should be dealt with.
   public void testNoDDocInCache() {
     OpenDefinitionsDocument doc1 = _model.newFile();
@@ -0,0 +1,124 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.SoftReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import edu.rice.cs.util.UnexpectedException;
+
+/** A compressed image of the text of a document that has been kicked out of the DocumentCache.  The uncompressed text
+  * is retained through a soft reference, so repeated requests for the text of a virtualized document are cheap until 
+  * the garbage collector needs the memory.  The characters are stored exactly, including unpaired surrogates.
+  * @version $Id$
+  */
+public class TextSnapshot {
+  
+  /** The size of the buffer used when compressing and expanding. */
+  private static final int BUFFER_SIZE = 8192;
+  
+  /** The deflated UTF-16 code units of the text. */
+  private final byte[] _compressed;
+  
+  /** The number of characters in the text. */
+  private final int _length;
+  
+  /** The uncompressed text, unless it has been reclaimed. */
+  private volatile SoftReference<String> _text;
+  
+  /** @param text the text to compress */
+  public TextSnapshot(String text) {
+    _length = text.length();
+    final byte[] bytes = new byte[2 * _length];
+    for (int i = 0; i < _length; i++) {
+      final char c = text.charAt(i);
+      bytes[2 * i] = (byte) (c >>> 8);
+      bytes[2 * i + 1] = (byte) c;
+    }
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      while (! deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+      _compressed = out.toByteArray();
+    }
+    finally { deflater.end(); }
+    _text = new SoftReference<String>(text);
+  }
+  
+  /** @return the text, expanding it again if the uncompressed copy has been reclaimed */
+  public String getText() {
+    String text = _text.get();
+    if (text != null) return text;
+    
+    final byte[] bytes = new byte[2 * _length];
+    final Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(_compressed);
+      int n = 0;
+      while (n < bytes.length) {
+        final int k = inflater.inflate(bytes, n, bytes.length - n);
+        if (k == 0 && (inflater.finished() || inflater.needsInput())) break;
+        n += k;
+      }
+      if (n != bytes.length) throw new UnexpectedException("Truncated text snapshot");
+    }
+    catch(DataFormatException e) { throw new UnexpectedException(e); }
+    finally { inflater.end(); }
+    
+    final char[] chars = new char[_length];
+    for (int i = 0; i < _length; i++) chars[i] = (char) (((bytes[2 * i] & 0xFF) << 8) | (bytes[2 * i + 1] & 0xFF));
+    text = new String(chars);
+    _text = new SoftReference<String>(text);
+    return text;
+  }
+  
+  /** @return the number of characters in the text */
+  public int length() { return _length; }
+  
+  /** @return the number of bytes occupied by the compressed text */
+  public int getCompressedSize() { return _compressed.length; }
+  
+  /** Drops the uncompressed copy of the text, as the garbage collector would under memory pressure.  Only used in 
+    * tests. */
+  void clearUncompressed() { _text = new SoftReference<String>(null); }
+}
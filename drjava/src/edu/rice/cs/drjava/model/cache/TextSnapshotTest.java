@@ -0,0 +1,68 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.cache;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+
+/** Tests the compressed document images kept by the document cache.
+  * @version $Id$
+  */
+public class TextSnapshotTest extends DrJavaTestCase {
+  
+  /** Tests that the text survives compression, including characters outside of ASCII. */
+  public void testRoundTrip() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) sb.append("class C" + i + " {\n  String s = \"\u00E9\u4E2D\uD83D\uDE00\";\n}\n");
+    sb.append('\uD800');  // unpaired surrogate
+    final String text = sb.toString();
+    
+    TextSnapshot snapshot = new TextSnapshot(text);
+    assertEquals("Wrong length", text.length(), snapshot.length());
+    assertSame("Uncompressed text should be retained", text, snapshot.getText());
+    snapshot.clearUncompressed();
+    assertEquals("Expanded text differs from original", text, snapshot.getText());
+    assertTrue("Repetitive text should compress", snapshot.getCompressedSize() < text.length());
+  }
+  
+  /** Tests an empty snapshot. */
+  public void testEmpty() {
+    TextSnapshot snapshot = new TextSnapshot("");
+    snapshot.clearUncompressed();
+    assertEquals("Expanded text should be empty", "", snapshot.getText());
+    assertEquals("Wrong length", 0, snapshot.length());
+  }
+}
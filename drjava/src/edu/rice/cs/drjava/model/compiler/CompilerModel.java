@@ -38,6 +38,7 @@ package edu.rice.cs.drjava.model.compiler;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import edu.rice.cs.drjava.model.OpenDefinitionsDocument;
 
 /** Interface for all compiler functionality in the model.  The compilation process itself can be monitored through
@@ -128,6 +129,10 @@ public interface CompilerModel {
 //  /** Add a compiler to the active list */
 //  public void addCompiler(CompilerInterface compiler);
   
+  /** @return the class files kept in memory by the compilations since class files were last written to disk, by 
+    *         binary class name */
+  public Map<String, byte[]> getClassesInMemory();
+  
   /** @return the LanguageLevelStackTraceMapper from the model */
   public LanguageLevelStackTraceMapper getLLSTM();
 }
@@ -95,6 +95,12 @@ public class DefaultCompilerModel implements CompilerModel {
   /** The lock providing mutual exclustion between compilation and unit testing */
   private Object _compilerLock = new Object();
   
+  /** The classes produced by earlier compilations and their dependencies, used to skip up-to-date files */
+  private final DependencyTracker _dependencies = new DependencyTracker();
+  
+  /** The class files kept in memory by compilations from documents, by binary class name.  Replaced, never mutated. */
+  private volatile Map<String, byte[]> _classesInMemory = Collections.emptyMap();
+  
   /** The LanguageLevelStackTraceMapper that helps translate .java line 
     * numbers to .dj* line numbers when an error is thrown */
   public LanguageLevelStackTraceMapper _LLSTM;
@@ -157,81 +163,77 @@ public class DefaultCompilerModel implements CompilerModel {
   
   
   /** Compile all open documents.
-    * <p>Before compiling, all unsaved and untitled documents are saved, and compilation ends if the user cancels this 
-    * step.  The compilation classpath and sourcepath includes the build directory (if it exists), the source roots, 
-    * the project "extra classpath" (if it exists), the global "extra classpath", and the current JVM's classpath
-    * (which includes drjava.jar, containing JUnit classes).</p>
-    * <p>This method formerly only compiled documents which were out of sync with their class file, as a performance 
-    * optimization.  However, bug #634386 pointed out that unmodified files could depend on modified files, in which 
-    * case this command would not recompile a file in some situations when it should.  Since we value correctness over
-    * performance, we now always compile all open documents.</p>
     * @throws IOException if a filesystem-related problem prevents compilation
+    * @see #_compileFiles
     */
   public void compileAll() throws IOException {
-    if (_prepareForCompile()) { _doCompile(_model.getOpenDefinitionsDocuments()); }
+    List<OpenDefinitionsDocument> docs = _model.getOpenDefinitionsDocuments();
+    if (_prepareForCompile(docs)) { _doCompile(docs); }
     else _notifier.compileAborted(new UnexpectedException("Some modified open files are unsaved"));
   }
   
   /** Compiles all documents in the project source tree.  Assumes DrJava currently contains an active project.
-    * <p>Before compiling, all unsaved and untitled documents are saved, and compilation ends if the user cancels this 
-    * step.  The compilation classpath and sourcepath includes the build directory (if it exists), the source roots, 
-    * the project "extra classpath" (if it exists), the global "extra classpath", and the current JVM's classpath
-    * (which includes drjava.jar, containing JUnit classes).</p>
-    * <p>This method formerly only compiled documents which were out of sync with their class file, as a performance 
-    * optimization.  However, bug #634386 pointed out that unmodified files could depend on modified files, in which 
-    * case this command would not recompile a file in some situations when it should.  Since we value correctness over
-    * performance, we now always compile all open documents.</p>
     * @throws IOException if a filesystem-related problem prevents compilation
+    * @see #_compileFiles
     */
   public void compileProject() throws IOException {
     if (! _model.isProjectActive()) 
       throw new UnexpectedException("compileProject invoked when DrJava is not in project mode");
     
-    if (_prepareForCompile()) { _doCompile(_model.getProjectDocuments()); }
+    List<OpenDefinitionsDocument> docs = _model.getProjectDocuments();
+    if (_prepareForCompile(docs)) { _doCompile(docs); }
     else _notifier.compileAborted(new UnexpectedException("Project contains unsaved modified files"));
   }
   
   /** Compiles all of the given files.
-    * <p>Before compiling, all unsaved and untitled documents are saved, and compilation ends if the user cancels this 
-    * step.  The compilation classpath and sourcepath includes the build directory (if it exists), the source roots, 
-    * the project "extra classpath" (if it exists), the global "extra classpath", and the current JVM's classpath
-    * (which includes drjava.jar, containing JUnit classes).</p>
-    * <p>This method formerly only compiled documents which were out of sync with their class file, as a performance 
-    * optimization.  However, bug #634386 pointed out that unmodified files could depend on modified files, in which 
-    * case this command would not recompile a file in some situations when it should.  Since we value correctness over
-    * performance, we now always compile all open documents.</p>
     * @throws IOException if a filesystem-related problem prevents compilation
+    * @see #_compileFiles
     */
   public void compile(List<OpenDefinitionsDocument> defDocs) throws IOException {
-    if (_prepareForCompile()) { _doCompile(defDocs); }
+    if (_prepareForCompile(defDocs)) { _doCompile(defDocs); }
     else _notifier.compileAborted(new UnexpectedException("The files to be compiled include unsaved modified files"));
   }
   
   /** Compiles the given file.
-    * <p>Before compiling, all unsaved and untitled documents are saved, and compilation ends if the user cancels this 
-    * step.  The compilation classpath and sourcepath includes the build directory (if it exists), the source roots, 
-    * the project "extra classpath" (if it exists), the global "extra classpath", and the current JVM's classpath
-    * (which includes drjava.jar, containing JUnit classes).</p>
-    * <p>This method formerly only compiled documents which were out of sync with their class file, as a performance 
-    * optimization.  However, bug #634386 pointed out that unmodified files could depend on modified files, in which 
-    * case this command would not recompile a file in some situations when it should.  Since we value correctness over
-    * performance, we now always compile all open documents.</p>
     * @throws IOException if a filesystem-related problem prevents compilation
+    * @see #_compileFiles
     */
   public void compile(OpenDefinitionsDocument doc) throws IOException {
-    if (_prepareForCompile()) { _doCompile(Arrays.asList(doc)); }
+    List<OpenDefinitionsDocument> docs = Arrays.asList(doc);
+    if (_prepareForCompile(docs)) { _doCompile(docs); }
     else _notifier.compileAborted(new UnexpectedException(doc + "is modified but unsaved"));
   }
   
-  /** Check that there are no unsaved or untitled files currently open.
+  /** Check that there are no unsaved or untitled files currently open, unless the given documents are compiled from
+    * their text and no other document is modified.
+    * @param docs the documents to be compiled
     * @return  {@code true} iff compilation should continue
     */
-  private boolean _prepareForCompile() {
+  private boolean _prepareForCompile(List<OpenDefinitionsDocument> docs) {
+    if (_compilesFromDocuments(docs)) return true;
     if (_model.hasModifiedDocuments()) _notifier.saveBeforeCompile();
     // If user cancelled save, abort compilation
     return ! _model.hasModifiedDocuments();
   }
   
+  /** @param docs the documents to be compiled
+    * @return true iff the given documents are to be compiled from their text: compiling from documents is enabled, the
+    *         active compiler supports it, none of the documents is untitled or a language level file, and no other 
+    *         document is modified
+    */
+  private boolean _compilesFromDocuments(List<OpenDefinitionsDocument> docs) {
+    if (! DrJava.getConfig().getSetting(OptionConstants.COMPILE_FROM_DOCUMENTS) || 
+        ! (getActiveCompiler() instanceof MemoryCompilerInterface)) return false;
+    for (OpenDefinitionsDocument doc : docs) {
+      if (doc.isUntitled() || DrJavaFileUtils.isLLFile(doc.getRawFile())) return false;
+    }
+    HashSet<OpenDefinitionsDocument> compiled = new HashSet<OpenDefinitionsDocument>(docs);
+    for (OpenDefinitionsDocument doc : _model.getOpenDefinitionsDocuments()) {
+      if (doc.isModifiedSinceSave() && ! compiled.contains(doc)) return false;
+    }
+    return true;
+  }
+  
   /** Compile the given documents. 
     * @param docs the documents to be compiled
     * @throws IOException if an IO operation fails
@@ -241,12 +243,19 @@ public class DefaultCompilerModel implements CompilerModel {
     final ArrayList<File> filesToCompile = new ArrayList<File>();
     final ArrayList<File> excludedFiles = new ArrayList<File>();
     final ArrayList<DJError> packageErrors = new ArrayList<DJError>();
+    final HashMap<File, String> packages = new HashMap<File, String>();
+    // The text of the documents if they are compiled from memory, in the order of filesToCompile
+    final LinkedHashMap<File, String> texts = _compilesFromDocuments(docs) ? new LinkedHashMap<File, String>() : null;
     
     for (OpenDefinitionsDocument doc : docs) {
       if (doc.isSourceFile()) {
         File f = doc.getFile();
         // Check for null in case the file is untitled (not sure this is the correct check)
-        if (f != null && f != FileOps.NULL_FILE) { filesToCompile.add(f); }
+        if (f != null && f != FileOps.NULL_FILE) {
+          filesToCompile.add(f);
+          packages.put(f, doc.getPackageName());
+          if (texts != null) texts.put(f, doc.getText());
+        }
         doc.setCachedClassFile(FileOps.NULL_FILE); // clear cached class file
         
         try { doc.getSourceRoot(); }
@@ -269,7 +278,7 @@ public class DefaultCompilerModel implements CompilerModel {
         if (buildDir != null && buildDir != FileOps.NULL_FILE && ! buildDir.exists() && ! buildDir.mkdirs())
           throw new IOException("Could not create build directory: " + buildDir);
         
-        _compileFiles(filesToCompile, buildDir);
+        _compileFiles(filesToCompile, packages, texts, buildDir);
       }
       catch (Throwable t) {
         DJError err = new DJError(t.toString(), false);
@@ -329,12 +338,25 @@ public class DefaultCompilerModel implements CompilerModel {
    * All public compile methods delegate to this one so this method is the 
    * only one that uses synchronization to prevent compiling and unit testing 
    * at the same time.
+   * <p>Before the public compile methods get here, all unsaved and untitled documents are saved, and compilation ends
+   * if the user cancels this step.  The compilation classpath and sourcepath includes the build directory (if it
+   * exists), the source roots, the project "extra classpath" (if it exists), the global "extra classpath", and the
+   * current JVM's classpath (which includes drjava.jar, containing JUnit classes).</p>
+   * <p>The compile methods formerly only compiled documents which were out of sync with their class file, as a
+   * performance optimization.  However, bug #634386 pointed out that unmodified files could depend on modified files,
+   * in which case a file would not be recompiled in some situations when it should.  Since we value correctness over
+   * performance, we now always compile all requested documents.  Documents whose class files are up to date with
+   * respect to their own source and to all sources they depend on, as recorded from the class files of earlier
+   * compilations, are skipped if {@link OptionConstants#INCREMENTAL_COMPILE} is on.</p>
    * @param files The files to be compiled
+   * @param packages The package of each file to be compiled
+   * @param texts The text of each file to be compiled if it is compiled from memory; otherwise {@code null}
    * @param buildDir The output directory for all the .class files; @code{null} 
    *        means output to the same directory as the source file
    * @throws IOException if an IO operation fails
    */
-  private void _compileFiles(List<File> files, File buildDir) throws IOException {
+  private void _compileFiles(List<File> files, Map<File, String> packages, Map<File, String> texts, File buildDir) 
+    throws IOException {
     if (! files.isEmpty()) {
       /* Canonicalize buildDir */
       if (buildDir == FileOps.NULL_FILE) buildDir = null; // compiler interface wants null pointer if no build directory
@@ -359,10 +381,23 @@ public class DefaultCompilerModel implements CompilerModel {
         
         // Mutual exclusion with JUnit code that finds all test classes (in DefaultJUnitModel)
         synchronized(_compilerLock) {
-          if (preprocessedFiles == null) {
+          if (preprocessedFiles == null && texts != null && compiler instanceof MemoryCompilerInterface) {
+            _dependencies.reset(); // it follows the files on disk
+            errors.addAll(_compileFromDocuments((MemoryCompilerInterface) compiler, texts, classPath, buildDir, 
+                                                bootClassPath));
+          }
+          else if (preprocessedFiles == null && DrJava.getConfig().getSetting(OptionConstants.INCREMENTAL_COMPILE)) {
+            _classesInMemory = Collections.emptyMap();
+            errors.addAll(_compileIncrementally(compiler, files, packages, classPath, buildDir, bootClassPath));
+          }
+          else if (preprocessedFiles == null) {
+            _dependencies.reset();
+            _classesInMemory = Collections.emptyMap();
             errors.addAll(compiler.compile(files, classPath, null, buildDir, bootClassPath, null, true));
           }
           else {
+            _dependencies.reset();
+            _classesInMemory = Collections.emptyMap();
             /** If compiling a language level file, do not show warnings, as these are not caught by the language level 
               * parser */
             errors.addAll(compiler.compile(preprocessedFiles, classPath, null, buildDir, bootClassPath, null, false));
@@ -377,6 +412,78 @@ public class DefaultCompilerModel implements CompilerModel {
     }
   }
   
+  /** Compiles the given texts, keeping the class files in memory if {@link OptionConstants#COMPILE_CLASSES_IN_MEMORY} 
+    * is on.  The classes kept by earlier compilations are visible to this one and are replaced only if it succeeds. 
+    * Assumes the compiler lock is held.
+    * @return the errors and warnings of the compilation
+    */
+  private List<? extends DJError> _compileFromDocuments(MemoryCompilerInterface compiler, Map<File, String> texts,
+                                                        List<File> classPath, File buildDir, List<File> bootClassPath) {
+    if (! DrJava.getConfig().getSetting(OptionConstants.COMPILE_CLASSES_IN_MEMORY)) {
+      _classesInMemory = Collections.emptyMap();
+      return compiler.compile(texts, classPath, null, buildDir, bootClassPath, null, true, null);
+    }
+    HashMap<String, byte[]> classes = new HashMap<String, byte[]>(_classesInMemory);
+    List<? extends DJError> errors = compiler.compile(texts, classPath, null, buildDir, bootClassPath, null, true, classes);
+    if (! _hasErrors(errors)) _classesInMemory = Collections.unmodifiableMap(classes);
+    return errors;
+  }
+  
+  /** Compiles those of the given files that are modified or depend on modified files, as far as the class files of
+    * earlier compilations tell.  Falls back to compiling all files whenever the dependencies recorded are insufficient.
+    * The warnings reported when the skipped files were last compiled are repeated.  Assumes the compiler lock is held.
+    * @return the errors and warnings of the compilation
+    */
+  private List<DJError> _compileIncrementally(CompilerInterface compiler, List<File> files, Map<File, String> packages,
+                                              List<File> classPath, File buildDir, List<File> bootClassPath) {
+    HashMap<File, File> outputDirs = new HashMap<File, File>();
+    for (File f : files) {
+      String pack = packages.get(f);
+      if (buildDir == null) outputDirs.put(f, f.getAbsoluteFile().getParentFile());
+      else if (pack == null || pack.length() == 0) outputDirs.put(f, buildDir);
+      else outputDirs.put(f, new File(buildDir, pack.replace('.', File.separatorChar)));
+    }
+    
+    // Libraries on the class paths are part of the configuration: classes compiled against an old version of a jar
+    // must be compiled again
+    String configuration = compiler.getName() + "\n" + classPath + "\n" + bootClassPath + "\n" + buildDir + "\n" + 
+      new TreeMap<String, String>(CompilerOptions.getOptions(true)) + "\n" +
+      DependencyTracker.describeClassPath(classPath, outputDirs.values()) +
+      DependencyTracker.describeClassPath(bootClassPath, outputDirs.values());
+    List<File> selected = _dependencies.select(files, configuration);
+    if (_log.isEnabled()) { _log.log("Compiling ", selected.size(), " of ", files.size(), " files"); }
+    
+    ArrayList<DJError> errors = new ArrayList<DJError>();
+    if (! selected.isEmpty()) {
+      errors.addAll(compiler.compile(selected, classPath, null, buildDir, bootClassPath, null, true));
+    }
+    if (_hasErrors(errors)) {
+      _dependencies.reset();
+      return errors;
+    }
+    
+    boolean partial = selected.size() < files.size();
+    if (! _dependencies.record(selected, partial, outputDirs, errors)) {
+      _log.log("Classes produced by ", selected, " require compiling all files");
+      errors.clear();
+      errors.addAll(compiler.compile(files, classPath, null, buildDir, bootClassPath, null, true));
+      if (_hasErrors(errors)) _dependencies.reset();
+      else _dependencies.record(files, false, outputDirs, errors);
+    }
+    else if (partial) {
+      ArrayList<File> skipped = new ArrayList<File>(files);
+      skipped.removeAll(new HashSet<File>(selected));
+      errors.addAll(_dependencies.getWarnings(skipped));
+    }
+    return errors;
+  }
+  
+  /** @return true iff errors contains an error that is not a warning */
+  private static boolean _hasErrors(List<? extends DJError> errors) {
+    for (DJError e : errors) { if (! e.isWarning()) return true; }
+    return false;
+  }
+  
   /** Reorders files so that all file names containing "Test" are at the end.  
    * @param files the files to be sorted
    * @return the sorted list of files
@@ -553,9 +660,11 @@ public class DefaultCompilerModel implements CompilerModel {
       
       /* Perform language levels conversion, creating corresponding .java files. */
       LanguageLevelConverter llc = new LanguageLevelConverter();
-      Options llOpts;  /* Options passed as arguments to LLConverter */
-      if (bootClassPath == null) { llOpts = new Options(getActiveCompiler().version(), classPath); }
-      else { llOpts = new Options(getActiveCompiler().version(), classPath, bootClassPath); }
+      /* Options passed as arguments to LLConverter; library signatures are cached in DrJava's private cache */
+      Iterable<? extends File> llBootClassPath =
+        (bootClassPath == null) ? Options.DEFAULT.bootClassPath() : bootClassPath;
+      Options llOpts = new Options(getActiveCompiler().version(), classPath, llBootClassPath,
+                                   FileOps.getCacheDirectory("languagelevels"));
       
       // NOTE: the workaround "_testFileSort(files)" instead of simply "files") may no longer be necessary.
       
@@ -567,6 +676,10 @@ public class DefaultCompilerModel implements CompilerModel {
       Pair<LinkedList<JExprParseException>, LinkedList<Pair<String, JExpressionIF>>> llErrors = 
         llc.convert(_testFileSort(files).toArray(new File[0]), llOpts, sourceToTopLevelClassMap);
       
+      if (_log.isEnabled()) {
+        _log.log("Language level conversion of ", files.size(), " files, time per phase (ms): ", llc.getPhaseTimes());
+      }
+      
       /* Add any errors encountered in conversion to the compilation error log. */
       errors.addAll(_parseExceptions2CompilerErrors(llErrors.getFirst()));
       errors.addAll(_visitorErrors2CompilerErrors(llErrors.getSecond()));
@@ -720,5 +833,7 @@ public class DefaultCompilerModel implements CompilerModel {
   /** returns the LanguageLevelStackTraceMapper
     * @return the LanguageLevelStackTraceMapper
     * */
-  public LanguageLevelStackTraceMapper getLLSTM() { return _LLSTM; } 
+  public LanguageLevelStackTraceMapper getLLSTM() { return _LLSTM; }
+  
+  public Map<String, byte[]> getClassesInMemory() { return _classesInMemory; } 
 }
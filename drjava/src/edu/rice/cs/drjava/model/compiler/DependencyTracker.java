@@ -0,0 +1,432 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import org.objectweb.asm.*;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+import edu.rice.cs.drjava.model.DJError;
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.object.ObjectUtil;
+
+/** Remembers which classes the sources of earlier compilations produced and which classes those refer to, so that a
+  * later compilation of the same sources can be limited to the modified ones and the ones depending on them.  The
+  * dependencies are read from the produced class files, so the tracker does not depend on a particular compiler.
+  * Whenever the recorded information cannot vouch for a partial compilation -- a different compiler configuration, a
+  * source that has not been compiled before, a new top-level class, or a changed compile-time constant that other
+  * classes may have inlined -- all requested sources are compiled.  Not thread safe; DefaultCompilerModel only uses
+  * it while holding its compiler lock.
+  * @version $Id$
+  */
+class DependencyTracker {
+  
+  /** The configuration (compiler, paths, options) the recorded sources were compiled with; null if none. */
+  private String _configuration = null;
+  
+  /** The recorded sources. */
+  private final HashMap<File, Source> _sources = new HashMap<File, Source>();
+  
+  /** Maps the internal name of each class referred to by a recorded source to the sources referring to it. */
+  private final HashMap<String, HashSet<File>> _dependents = new HashMap<String, HashSet<File>>();
+  
+  /** The time stamps of the sources passed to the last call of select, taken before they were compiled. */
+  private final HashMap<File, long[]> _stamps = new HashMap<File, long[]>();
+  
+  /** Forgets everything, so that the next compilation compiles all requested sources. */
+  public void reset() {
+    _configuration = null;
+    _sources.clear();
+    _dependents.clear();
+    _stamps.clear();
+  }
+  
+  /** @return the number of recorded sources */
+  public int size() { return _sources.size(); }
+  
+  /** Determines which of the given sources have to be compiled.
+    * @param files the sources requested for compilation
+    * @param configuration a description of the compiler, paths and options used for the compilation
+    * @return files itself if all of them must be compiled; otherwise the modified requested sources and all requested
+    *         sources that depend, directly or indirectly, on a modified recorded source, in the order of files
+    */
+  public List<File> select(List<File> files, String configuration) {
+    if (! configuration.equals(_configuration)) {
+      reset();
+      _configuration = configuration;
+    }
+    _stamps.clear();
+    for (File f : files) _stamps.put(f, new long[] { f.lastModified(), f.length() });
+    if (_sources.isEmpty()) return files;
+    
+    LinkedList<File> pending = new LinkedList<File>();
+    HashSet<File> affected = new HashSet<File>();
+    for (File f : files) {
+      Source s = _sources.get(f);
+      if (s == null) return files;
+      if (s.isModified(_stamps.get(f)) && affected.add(f)) pending.add(f);
+    }
+    // Recorded sources that are not requested may have been modified as well
+    for (Map.Entry<File, Source> e : _sources.entrySet()) {
+      File f = e.getKey();
+      if (! _stamps.containsKey(f) && e.getValue().isModified(new long[] { f.lastModified(), f.length() }) &&
+          affected.add(f)) pending.add(f);
+    }
+    
+    // Follow the dependencies through all recorded sources, not just the requested ones: a requested source may only
+    // see a change through an unrequested source in between, e.g. a method inherited by way of its superclass.
+    while (! pending.isEmpty()) {
+      for (String c : _sources.get(pending.removeFirst())._classes) {
+        HashSet<File> dependents = _dependents.get(c);
+        if (dependents != null) {
+          for (File d : dependents) { if (affected.add(d)) pending.add(d); }
+        }
+      }
+    }
+    
+    ArrayList<File> selected = new ArrayList<File>();
+    for (File f : files) { if (affected.contains(f)) selected.add(f); }
+    return selected;
+  }
+  
+  /** Describes the libraries on a class path by their modification times and lengths, so that a configuration that
+    * includes the description changes when a library does.  A directory is described by the latest modification time
+    * and the total length of the class files in it.  Directories containing an output directory are skipped: their
+    * class files change with every compilation, and those of the recorded sources are checked by select.
+    * @param path the class path, or null
+    * @param outputDirs the directories the compilation writes class files to
+    * @return a description of the class path entries
+    */
+  public static String describeClassPath(Iterable<File> path, Collection<File> outputDirs) {
+    StringBuilder result = new StringBuilder();
+    if (path == null) return result.toString();
+    HashSet<File> skipped = new HashSet<File>();
+    for (File d : outputDirs) {
+      for (File a = d.getAbsoluteFile(); a != null; a = a.getParentFile()) skipped.add(a);
+    }
+    for (File f : path) {
+      File entry = f.getAbsoluteFile();
+      long[] stamp = new long[] { entry.lastModified(), entry.length() };
+      if (entry.isDirectory()) {
+        if (skipped.contains(entry)) continue;
+        stamp[1] = 0;
+        _stampClassFiles(entry, stamp);
+      }
+      result.append(entry).append(' ').append(stamp[0]).append(' ').append(stamp[1]).append('\n');
+    }
+    return result.toString();
+  }
+  
+  /** Adds the class files in a directory tree to a stamp: the latest modification time and the total length. */
+  private static void _stampClassFiles(File dir, long[] stamp) {
+    File[] children = dir.listFiles();
+    if (children == null) return;
+    for (File c : children) {
+      if (c.isDirectory()) _stampClassFiles(c, stamp);
+      else if (c.getName().endsWith(".class")) {
+        stamp[0] = Math.max(stamp[0], c.lastModified());
+        stamp[1] += c.length();
+      }
+    }
+  }
+  
+  /** Records the result of a compilation without errors.  Must follow a call to select for a superset of compiled.
+    * @param compiled the sources that were compiled
+    * @param partial whether compiled is only part of the sources requested from select
+    * @param outputDirs maps each compiled source to the directory receiving its class files
+    * @param warnings the warnings reported by the compilation
+    * @return false iff the compilation was partial and the classes produced may invalidate the sources that were not
+    *         compiled, so that all of them have to be compiled after all
+    */
+  public boolean record(List<File> compiled, boolean partial, Map<File, File> outputDirs, 
+                        List<? extends DJError> warnings) {
+    HashMap<File, List<ClassFile>> dirs = new HashMap<File, List<ClassFile>>();
+    boolean consistent = true;
+    for (File f : compiled) {
+      Source s = new Source(_stamps.get(f));
+      for (ClassFile c : _classFiles(outputDirs.get(f), dirs)) {
+        if (f.getName().equals(c._sourceName)) s.add(c);
+      }
+      if (s._classes.isEmpty()) {
+        // Nothing to attribute dependencies to, e.g. compiled without debugging information
+        reset();
+        return true;
+      }
+      for (DJError w : warnings) {
+        if (w.file() != null && w.file().getAbsoluteFile().equals(f.getAbsoluteFile())) s._warnings.add(w);
+      }
+      
+      Source old = _remove(f);
+      if (partial && old != null && ! s.isCompatible(old)) consistent = false;
+      _add(f, s);
+    }
+    return consistent;
+  }
+  
+  /** @param files sources that were not compiled
+    * @return the warnings reported when the given sources were last compiled
+    */
+  public List<DJError> getWarnings(Iterable<File> files) {
+    ArrayList<DJError> warnings = new ArrayList<DJError>();
+    for (File f : files) {
+      Source s = _sources.get(f);
+      if (s != null) warnings.addAll(s._warnings);
+    }
+    return warnings;
+  }
+  
+  private void _add(File f, Source s) {
+    _sources.put(f, s);
+    for (String c : s._references) {
+      HashSet<File> dependents = _dependents.get(c);
+      if (dependents == null) {
+        dependents = new HashSet<File>();
+        _dependents.put(c, dependents);
+      }
+      dependents.add(f);
+    }
+  }
+  
+  private Source _remove(File f) {
+    Source s = _sources.remove(f);
+    if (s != null) {
+      for (String c : s._references) {
+        HashSet<File> dependents = _dependents.get(c);
+        if (dependents != null && dependents.remove(f) && dependents.isEmpty()) _dependents.remove(c);
+      }
+    }
+    return s;
+  }
+  
+  /** Reads the class files in the given directory, at most once per call of record. */
+  private static List<ClassFile> _classFiles(File dir, Map<File, List<ClassFile>> dirs) {
+    List<ClassFile> result = dirs.get(dir);
+    if (result == null) {
+      result = new ArrayList<ClassFile>();
+      File[] files = (dir == null) ? null : dir.listFiles();
+      if (files != null) {
+        for (File f : files) {
+          if (f.getName().endsWith(".class") && f.isFile()) {
+            ClassFile c = ClassFile.read(f);
+            if (c != null) result.add(c);
+          }
+        }
+      }
+      dirs.put(dir, result);
+    }
+    return result;
+  }
+  
+  /** What a recorded source looked like when it was compiled, and what its class files tell about it. */
+  private static final class Source {
+    private final long _modified;
+    private final long _length;
+    /** The class files produced, with their modification times */
+    private final HashMap<File, Long> _classFiles = new HashMap<File, Long>();
+    /** The internal names of the classes produced */
+    private final HashSet<String> _classes = new HashSet<String>();
+    private final HashSet<String> _topLevelClasses = new HashSet<String>();
+    /** The internal names of all classes referred to by the classes produced */
+    private final HashSet<String> _references = new HashSet<String>();
+    /** The values of constant fields, by "class.field" */
+    private final HashMap<String, Object> _constants = new HashMap<String, Object>();
+    private final ArrayList<DJError> _warnings = new ArrayList<DJError>();
+    
+    Source(long[] stamp) {
+      _modified = stamp[0];
+      _length = stamp[1];
+    }
+    
+    void add(ClassFile c) {
+      _classFiles.put(c._file, c._modified);
+      ClassCollector collector = new ClassCollector();
+      c._reader.accept(collector, ClassReader.SKIP_FRAMES);
+      _classes.add(collector._name);
+      if (! collector._nested) _topLevelClasses.add(collector._name);
+      _references.addAll(collector._references);
+      _constants.putAll(collector._constants);
+    }
+    
+    /** @param stamp the current modification time and length of the source */
+    boolean isModified(long[] stamp) {
+      if (stamp[0] != _modified || stamp[1] != _length) return true;
+      for (Map.Entry<File, Long> e : _classFiles.entrySet()) {
+        if (e.getKey().lastModified() != e.getValue().longValue()) return true;
+      }
+      return false;
+    }
+    
+    /** @return true iff this compilation of a source cannot affect sources compiled against the old one except
+      *         through the dependencies recorded for the old one */
+    boolean isCompatible(Source old) {
+      if (! old._topLevelClasses.containsAll(_topLevelClasses)) return false;
+      for (Map.Entry<String, Object> e : old._constants.entrySet()) {
+        if (! ObjectUtil.equal(e.getValue(), _constants.get(e.getKey()))) return false;
+      }
+      return true;
+    }
+  }
+  
+  /** A class file with the name of the source it was compiled from. */
+  private static final class ClassFile {
+    private final File _file;
+    private final long _modified;
+    private final ClassReader _reader;
+    private String _sourceName = null;
+    
+    private ClassFile(File file, long modified, ClassReader reader) {
+      _file = file;
+      _modified = modified;
+      _reader = reader;
+    }
+    
+    /** @return the class file, or null if it cannot be read */
+    static ClassFile read(File f) {
+      long modified = f.lastModified();
+      final ClassFile result;
+      try { result = new ClassFile(f, modified, new ClassReader(IOUtil.toByteArray(f))); }
+      catch (IOException e) { return null; }
+      catch (IllegalArgumentException e) { return null; } // from a newer compiler, or not a class file
+      try {
+        result._reader.accept(new ClassVisitor(Opcodes.ASM5) {
+          public void visitSource(String source, String debug) { result._sourceName = source; }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+      }
+      catch (RuntimeException e) { return null; }
+      return result;
+    }
+  }
+  
+  /** Collects the name of a class, the classes it refers to and its constant fields. */
+  private static final class ClassCollector extends ClassVisitor {
+    private String _name;
+    private boolean _nested = false;
+    private final HashSet<String> _references = new HashSet<String>();
+    private final HashMap<String, Object> _constants = new HashMap<String, Object>();
+    
+    /** Adds the class types in descriptors and generic signatures */
+    private final SignatureVisitor _types = new SignatureVisitor(Opcodes.ASM5) {
+      private final LinkedList<String> _outer = new LinkedList<String>();
+      public void visitClassType(String name) {
+        _outer.addFirst(name);
+        _references.add(name);
+      }
+      public void visitInnerClassType(String name) {
+        String inner = _outer.removeFirst() + "$" + name;
+        _outer.addFirst(inner);
+        _references.add(inner);
+      }
+      public void visitEnd() { _outer.removeFirst(); }
+    };
+    
+    private final MethodVisitor _code = new MethodVisitor(Opcodes.ASM5) {
+      public AnnotationVisitor visitAnnotation(String desc, boolean visible) { 
+        _addType(desc);
+        return null;
+      }
+      public void visitTypeInsn(int opcode, String type) { _addClass(type); }
+      public void visitFieldInsn(int opcode, String owner, String name, String desc) { 
+        _addClass(owner);
+        _addType(desc);
+      }
+      public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+        _addClass(owner);
+        _addSignature(desc);
+      }
+      public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... args) {
+        _addSignature(desc);
+        _addClass(bsm.getOwner());
+      }
+      public void visitLdcInsn(Object cst) {
+        if (cst instanceof Type) _addType(((Type) cst).getDescriptor());
+      }
+      public void visitMultiANewArrayInsn(String desc, int dims) { _addType(desc); }
+      public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        if (type != null) _addClass(type);
+      }
+    };
+    
+    ClassCollector() { super(Opcodes.ASM5); }
+    
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+      _name = name;
+      if (superName != null) _references.add(superName);
+      if (interfaces != null) _references.addAll(Arrays.asList(interfaces));
+      if (signature != null) _addSignature(signature);
+    }
+    
+    public void visitOuterClass(String owner, String name, String desc) { _references.add(owner); }
+    
+    public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+      _addType(desc);
+      return null;
+    }
+    
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+      if (name.equals(_name)) _nested = true;
+      _references.add(name);
+    }
+    
+    public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+      _addType(signature == null ? desc : signature);
+      if (value != null) _constants.put(_name + "." + name, value);
+      return null;
+    }
+    
+    public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+      _addSignature(signature == null ? desc : signature);
+      if (exceptions != null) _references.addAll(Arrays.asList(exceptions));
+      return _code;
+    }
+    
+    /** @param name an internal class name or, for array classes, a descriptor */
+    private void _addClass(String name) {
+      if (name.startsWith("[")) _addType(name);
+      else _references.add(name);
+    }
+    
+    /** @param type a field descriptor or field signature */
+    private void _addType(String type) { new SignatureReader(type).acceptType(_types); }
+    
+    /** @param signature a method descriptor, or a class or method signature */
+    private void _addSignature(String signature) { new SignatureReader(signature).accept(_types); }
+  }
+}
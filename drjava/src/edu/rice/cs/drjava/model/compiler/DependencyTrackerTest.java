@@ -0,0 +1,194 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.drjava.model.DJError;
+import edu.rice.cs.plt.io.IOUtil;
+
+/** Tests the DependencyTracker on class files produced by the system Java compiler.
+  * @version $Id$
+  */
+public final class DependencyTrackerTest extends DrJavaTestCase {
+  
+  private static final String A_TEXT = "public class A { public static final int K = 1; public int f() { return 1; } }";
+  private static final String B_TEXT = "public class B extends A { }";
+  private static final String C_TEXT = "public class C { int g(B b) { return b.f(); } }";
+  private static final String D_TEXT = "public class D { }";
+  
+  private File _tempDir;
+  private File _a, _b, _c, _d;
+  private List<File> _all;
+  private HashMap<File, File> _outputDirs;
+  private DependencyTracker _tracker;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    String user = System.getProperty("user.name");
+    _tempDir = IOUtil.createAndMarkTempDirectory("DrJava-test-" + user, "");
+    _a = _write("A.java", A_TEXT);
+    _b = _write("B.java", B_TEXT);
+    _c = _write("C.java", C_TEXT);
+    _d = _write("D.java", D_TEXT);
+    _all = Arrays.asList(_a, _b, _c, _d);
+    _outputDirs = new HashMap<File, File>();
+    for (File f : _all) _outputDirs.put(f, _tempDir);
+    _tracker = new DependencyTracker();
+    
+    assertEquals("first compilation", _all, _tracker.select(_all, "config"));
+    _compile(_all);
+    assertTrue(_tracker.record(_all, false, _outputDirs, Collections.<DJError>emptyList()));
+    assertEquals(4, _tracker.size());
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    _tempDir = null;
+    _tracker = null;
+    super.tearDown();
+  }
+  
+  public void testUnmodifiedFilesAreSkipped() throws IOException {
+    assertEquals(Collections.<File>emptyList(), _tracker.select(_all, "config"));
+    
+    _modify(_d, "public class D { int x; }");
+    assertEquals(Arrays.asList(_d), _tracker.select(_all, "config"));
+  }
+  
+  public void testDependentsAreSelected() throws IOException {
+    _modify(_a, A_TEXT.replace("return 1", "return 2"));
+    // C only refers to B, but sees A's methods through it
+    assertEquals(Arrays.asList(_a, _b, _c), _tracker.select(_all, "config"));
+    assertEquals(Arrays.asList(_c), _tracker.select(Arrays.asList(_c, _d), "config"));
+  }
+  
+  public void testMissingClassFile() throws IOException {
+    assertTrue(new File(_tempDir, "C.class").delete());
+    assertEquals(Arrays.asList(_c), _tracker.select(_all, "config"));
+  }
+  
+  public void testFullCompilationRequired() throws IOException {
+    assertEquals("other configuration", _all, _tracker.select(_all, "other"));
+    assertEquals("nothing recorded", _all, _tracker.select(_all, "config"));
+    _compile(_all);
+    assertTrue(_tracker.record(_all, false, _outputDirs, Collections.<DJError>emptyList()));
+    
+    File e = _write("E.java", "public class E { }");
+    List<File> withE = Arrays.asList(_a, _b, _c, _d, e);
+    assertEquals("new source", withE, _tracker.select(withE, "config"));
+  }
+  
+  public void testCompatibleChange() throws IOException {
+    _modify(_a, A_TEXT.replace("return 1", "return 2"));
+    List<File> selected = _tracker.select(_all, "config");
+    _compile(selected);
+    assertTrue(_tracker.record(selected, true, _outputDirs, Collections.<DJError>emptyList()));
+    assertEquals(Collections.<File>emptyList(), _tracker.select(_all, "config"));
+  }
+  
+  public void testChangedConstant() throws IOException {
+    _modify(_a, A_TEXT.replace("K = 1", "K = 2"));
+    List<File> selected = _tracker.select(_all, "config");
+    _compile(selected);
+    assertFalse(_tracker.record(selected, true, _outputDirs, Collections.<DJError>emptyList()));
+  }
+  
+  public void testNewTopLevelClass() throws IOException {
+    _modify(_d, D_TEXT + " class Helper { }");
+    List<File> selected = _tracker.select(_all, "config");
+    _compile(selected);
+    assertFalse(_tracker.record(selected, true, _outputDirs, Collections.<DJError>emptyList()));
+  }
+  
+  public void testWarningsOfSkippedFiles() throws IOException {
+    DJError warning = new DJError(_d, 0, 0, "warning", true);
+    assertEquals(_all, _tracker.select(_all, "warnings"));
+    assertTrue(_tracker.record(_all, false, _outputDirs, Arrays.asList(warning)));
+    assertEquals(Arrays.asList(warning), _tracker.getWarnings(Arrays.asList(_a, _d)));
+    assertEquals(Collections.<DJError>emptyList(), _tracker.getWarnings(Arrays.asList(_a, _b)));
+  }
+  
+  public void testDescribeClassPath() throws IOException {
+    File lib = new File(_tempDir, "lib");
+    assertTrue(lib.mkdir());
+    File jar = new File(_tempDir, "lib.jar");
+    IOUtil.writeStringToFile(jar, "jar");
+    IOUtil.writeStringToFile(new File(lib, "L.class"), "class");
+    List<File> path = Arrays.asList(lib, jar, _tempDir);
+    Collection<File> out = _outputDirs.values();
+    String before = DependencyTracker.describeClassPath(path, out);
+    assertEquals(before, DependencyTracker.describeClassPath(path, out));
+    
+    // the output directory is skipped
+    _compile(Arrays.asList(_d));
+    assertEquals(before, DependencyTracker.describeClassPath(path, out));
+    
+    _modify(jar, "changed jar");
+    String jarChanged = DependencyTracker.describeClassPath(path, out);
+    assertFalse("changed jar", before.equals(jarChanged));
+    _modify(new File(lib, "L.class"), "changed class");
+    assertFalse("changed class file", jarChanged.equals(DependencyTracker.describeClassPath(path, out)));
+  }
+  
+  private File _write(String name, String text) throws IOException {
+    File f = new File(_tempDir, name);
+    IOUtil.writeStringToFile(f, text);
+    return f;
+  }
+  
+  /** Changes the text of f, making sure its time stamp changes. */
+  private void _modify(File f, String text) throws IOException {
+    long modified = f.lastModified();
+    IOUtil.writeStringToFile(f, text);
+    f.setLastModified(modified + 10000);
+  }
+  
+  private void _compile(List<File> files) {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    ArrayList<String> args = new ArrayList<String>(Arrays.asList("-g", "-source", "1.7", "-target", "1.7", 
+                                                                 "-Xlint:-options", "-d", _tempDir.getPath(),
+                                                                 "-classpath", _tempDir.getPath()));
+    for (File f : files) args.add(f.getPath());
+    assertEquals("compilation of " + files, 0, compiler.run(null, null, null, args.toArray(new String[0])));
+  }
+}
@@ -0,0 +1,65 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.compiler;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import edu.rice.cs.drjava.model.DJError;
+
+/** A compiler that can compile sources whose text is held in memory, such as the text of open documents, and that can
+  * keep the class files it produces in memory instead of writing them.
+  * @version $Id$
+  */
+public interface MemoryCompilerInterface extends CompilerInterface {
+  
+  /** Compile the given sources.  The arguments and the result are those of {@link CompilerInterface#compile}, except:
+    * @param sources  The sources to compile, mapped to their text, which is used instead of the file contents.
+    * @param classes  If not {@code null}, the class files produced are stored here, keyed by binary class name, rather
+    *                 than written to the destination.  The classes already in the map take precedence over the class
+    *                 path when the sources are compiled.
+    * @return Errors that occurred. If no errors, should be zero length (not null).
+    */
+  List<? extends DJError> compile(Map<File, String> sources, List<? extends File> classPath, 
+                                  List<? extends File> sourcePath, File destination, 
+                                  List<? extends File> bootClassPath, String sourceVersion, boolean showWarnings,
+                                  Map<String, byte[]> classes);
+  
+  /** Closes the files, such as the archives on the class path, that the compiler keeps open between compilations.
+    * Called when the class path changes; the next compilation opens the files it needs again. */
+  void closeFiles();
+}
@@ -0,0 +1,119 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.coverage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.internal.data.CRC64;
+
+/** Remembers the coverage analysis of each class from earlier test runs, so that a class whose class file and
+  * execution data (probes) have not changed since it was last analyzed is not analyzed again.
+  * @version $Id$
+  */
+public class CoverageAnalysisCache {
+  
+  /** The analysis of one version of a class, with the probes it was analyzed against. */
+  private static class Entry {
+    final long id;
+    final boolean[] probes;
+    final List<IClassCoverage> coverage;
+    final Map<IClassCoverage, LineCoverage> lines;
+    Entry(long i, boolean[] p, List<IClassCoverage> c) {
+      id = i;
+      probes = p;
+      coverage = c;
+      lines = new HashMap<IClassCoverage, LineCoverage>();
+    }
+  }
+  
+  private final Map<String, Entry> _entries = new HashMap<String, Entry>();
+  private int _hits = 0;
+  private int _misses = 0;
+  
+  /** Analyzes a class file against the given execution data, passing its coverage to visitor.  If neither the class
+    * file nor its probes have changed since the last call for this class, the previous result is used.
+    * @param classFile the (uninstrumented) class file
+    * @param name the name of the class, in binary ("a.b.C") or internal ("a/b/C") form
+    * @param data the execution data of the current test run
+    * @param visitor the visitor to receive the class's coverage
+    */
+  public synchronized void analyzeClass(byte[] classFile, String name, ExecutionDataStore data, 
+                                        ICoverageVisitor visitor) throws IOException {
+    long id = CRC64.checksum(classFile);
+    ExecutionData executionData = data.get(id);
+    boolean[] probes = (executionData == null) ? null : executionData.getProbes();
+    
+    String key = name.replace('.', '/');  // the form of IClassCoverage.getName()
+    Entry e = _entries.get(key);
+    if (e != null && e.id == id && Arrays.equals(e.probes, probes)) { _hits++; }
+    else {
+      _misses++;
+      final List<IClassCoverage> coverage = new ArrayList<IClassCoverage>(1);
+      new Analyzer(data, new ICoverageVisitor() {
+        public void visitCoverage(IClassCoverage cc) { coverage.add(cc); }
+      }).analyzeClass(classFile, name);
+      e = new Entry(id, (probes == null) ? null : probes.clone(), coverage);
+      _entries.put(key, e);
+    }
+    for (IClassCoverage cc : e.coverage) { visitor.visitCoverage(cc); }
+  }
+  
+  /** Returns the line coverage of cc, which need only be computed once for each analysis. */
+  public synchronized LineCoverage getLineCoverage(IClassCoverage cc) {
+    Entry e = _entries.get(cc.getName());
+    if (e == null || ! e.coverage.contains(cc)) { return new LineCoverage(cc); }
+    LineCoverage result = e.lines.get(cc);
+    if (result == null) { result = new LineCoverage(cc); e.lines.put(cc, result); }
+    return result;
+  }
+  
+  /** The number of classes whose previous analysis was reused. */
+  public synchronized int getHits() { return _hits; }
+  
+  /** The number of classes that were analyzed. */
+  public synchronized int getMisses() { return _misses; }
+}
@@ -0,0 +1,172 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.coverage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
+
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.runtime.RuntimeData;
+
+/** Tests the caching of instrumented classes and of coverage analyses.
+  * @version $Id$
+  */
+public final class CoverageCacheTest extends DrJavaTestCase {
+  
+  /** The class whose coverage is measured. */
+  public static class Target {
+    public static int abs(int x) {
+      if (x < 0) {
+        return -x;
+      }
+      return x;
+    }
+  }
+  
+  private static final String TARGET = Target.class.getName();
+  
+  private File _tempDir;
+  private File _binDir;
+  private byte[] _targetBytes;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    String user = System.getProperty("user.name");
+    _tempDir = IOUtil.createAndMarkTempDirectory("DrJava-test-" + user, "");
+    _binDir = new File(_tempDir, "bin");
+    String fileName = TARGET.replace('.', '/') + ".class";
+    _targetBytes = IOUtil.toByteArray(getClass().getClassLoader().getResourceAsStream(fileName));
+    File classFile = new File(_binDir, fileName);
+    IOUtil.attemptMkdirs(classFile.getParentFile());
+    FileOutputStream out = new FileOutputStream(classFile);
+    try { out.write(_targetBytes); }
+    finally { out.close(); }
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    super.tearDown();
+  }
+  
+  public void testInstrumentationIsCached() throws IOException {
+    File cacheDir = new File(_tempDir, "cache");
+    InstrumentedClassCache first = new InstrumentedClassCache(cacheDir, new CoverageRuntime());
+    byte[] instrumented = first.instrument(_targetBytes, TARGET);
+    assertEquals(0, first.getHits());
+    assertEquals(1, first.getMisses());
+    
+    // a new runtime and cache, as in a later test run
+    InstrumentedClassCache second = new InstrumentedClassCache(cacheDir, new CoverageRuntime());
+    assertTrue(Arrays.equals(instrumented, second.instrument(_targetBytes, TARGET)));
+    assertEquals(1, second.getHits());
+    
+    // instrumenting without the cache gives the same result
+    InstrumentedClassCache none = new InstrumentedClassCache(null, new CoverageRuntime());
+    assertTrue(Arrays.equals(instrumented, none.instrument(_targetBytes, TARGET)));
+  }
+  
+  public void testLoaderIndex() {
+    File missing = new File(_tempDir, "missing");
+    JacocoClassLoader loader = 
+      new JacocoClassLoader(IterUtil.make(missing, _binDir), new InstrumentedClassCache(null, new CoverageRuntime()), 
+                            getClass().getClassLoader());
+    assertEquals(new File(_binDir, TARGET.replace('.', '/') + ".class"), loader.findBinaryFile(TARGET));
+    assertNull(loader.findBinaryFile("edu.rice.cs.drjava.NoSuchClass"));
+  }
+  
+  /** Runs Target.abs on the given arguments with coverage, and analyzes the results with cache. */
+  private List<IClassCoverage> _run(CoverageAnalysisCache cache, int... args) throws Exception {
+    CoverageRuntime runtime = new CoverageRuntime();
+    RuntimeData data = new RuntimeData();
+    runtime.startup(data);
+    try {
+      JacocoClassLoader loader = 
+        new JacocoClassLoader(IterUtil.make(_binDir), new InstrumentedClassCache(null, runtime), 
+                              getClass().getClassLoader());
+      Method abs = loader.loadClass(TARGET).getMethod("abs", int.class);
+      for (int x : args) { abs.invoke(null, x); }
+      ExecutionDataStore executionData = new ExecutionDataStore();
+      data.collect(executionData, new SessionInfoStore(), false);
+      CoverageBuilder builder = new CoverageBuilder();
+      cache.analyzeClass(_targetBytes, TARGET, executionData, builder);
+      return new ArrayList<IClassCoverage>(builder.getClasses());
+    }
+    finally { runtime.shutdown(); }
+  }
+  
+  public void testAnalysisIsCached() throws Exception {
+    CoverageAnalysisCache cache = new CoverageAnalysisCache();
+    IClassCoverage positive = _run(cache, 1).get(0);
+    assertEquals(1, cache.getMisses());
+    LineCoverage lines = cache.getLineCoverage(positive);
+    int ifLine = -1;  // only the if statement's line, with one branch taken, is partly covered
+    for (int i = 0; i < lines.getLineCount(); i++) {
+      if (lines.getColor(i).equals(LineCoverage.PARTLY_COVERED)) { assertEquals(-1, ifLine); ifLine = i; }
+    }
+    assertTrue(ifLine > 0);
+    assertEquals(LineCoverage.NOT_COVERED, lines.getColor(ifLine + 1));
+    assertEquals(LineCoverage.NO_CODE, lines.getColor(ifLine + 2));
+    assertEquals(LineCoverage.FULLY_COVERED, lines.getColor(ifLine + 3));
+    assertEquals(LineCoverage.NO_CODE, lines.getColor(0));
+    
+    // the same execution: the analysis is reused
+    assertSame(positive, _run(cache, 5).get(0));
+    assertSame(lines, cache.getLineCoverage(positive));
+    assertEquals(1, cache.getHits());
+    
+    // a different execution: the class is analyzed again
+    IClassCoverage both = _run(cache, 1, -1).get(0);
+    assertNotSame(positive, both);
+    assertEquals(2, cache.getMisses());
+    LineCoverage bothLines = cache.getLineCoverage(both);
+    assertEquals(LineCoverage.FULLY_COVERED, bothLines.getColor(ifLine));
+    assertEquals(LineCoverage.FULLY_COVERED, bothLines.getColor(ifLine + 1));
+    assertFalse(lines.equals(bothLines));
+  }
+}
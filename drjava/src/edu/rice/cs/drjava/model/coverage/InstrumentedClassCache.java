@@ -0,0 +1,133 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.coverage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.util.FileOps;
+import edu.rice.cs.util.Log;
+
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.instr.Instrumenter;
+
+/** Instruments class files for code coverage, saving the results on disk so that a class that has not changed since
+  * an earlier test run (in this or another JVM) need not be instrumented again.  Each instrumented class is stored in
+  * a file named by a hash of the original class file's contents.  The instrumenter must produce the same bytecode for
+  * the same input in every run, so it must use a {@link CoverageRuntime}.
+  * @version $Id$
+  */
+public class InstrumentedClassCache {
+  
+  private static final Log _log = new Log("JUnitTestManager.txt", false);
+  
+  /** The default cache directory, shared by all DrJava instances of the current user and private to that user (since
+    * the cached classes are loaded and run), or null if there is no such directory. */
+  public static File defaultDirectory() { return FileOps.getCacheDirectory("coverage"); }
+  
+  /** Instrumented classes are stored here; a change to JaCoCo or to the runtime's key changes the directory. */
+  private final File _dir;
+  private final Instrumenter _instrumenter;
+  private int _hits = 0;
+  private int _misses = 0;
+  
+  /** @param cacheDirectory  The directory in which to save instrumented classes, or null to not save them.
+    * @param runtime  The runtime used to instrument classes. */
+  public InstrumentedClassCache(File cacheDirectory, CoverageRuntime runtime) {
+    _dir = (cacheDirectory == null) ? null :
+      new File(cacheDirectory, JaCoCo.VERSION + "-" + Integer.toHexString(CoverageRuntime.KEY));
+    _instrumenter = new Instrumenter(runtime);
+  }
+  
+  /** Returns the instrumented version of the given class file, from the cache if possible. */
+  public byte[] instrument(byte[] classFile, String className) throws IOException {
+    if (_dir == null) { _misses++; return _instrumenter.instrument(classFile, className); }
+    
+    String hash = _hash(classFile);
+    File cached = new File(new File(_dir, hash.substring(0, 2)), hash);
+    if (cached.isFile()) {
+      try {
+        byte[] result = IOUtil.toByteArray(cached);
+        _hits++;
+        return result;
+      }
+      catch (IOException e) { _log.log("Can't read cached class " + cached, e); }
+    }
+    
+    _misses++;
+    byte[] result = _instrumenter.instrument(classFile, className);
+    _write(cached, result);
+    return result;
+  }
+  
+  /** The number of classes found in the cache. */
+  public int getHits() { return _hits; }
+  
+  /** The number of classes that had to be instrumented. */
+  public int getMisses() { return _misses; }
+  
+  /** Returns a hex string of the SHA-1 hash of the given bytes. */
+  private static String _hash(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+      StringBuilder result = new StringBuilder(digest.length * 2);
+      for (byte b : digest) { result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16)); }
+      return result.toString();
+    }
+    catch (NoSuchAlgorithmException e) { throw new RuntimeException(e); }  // every JVM supports SHA-1
+  }
+  
+  /** Writes the file through a temporary file, so that a concurrent reader never sees a partial file.  Failures are
+    * logged and otherwise ignored, since the cache is only an optimization. */
+  private static void _write(File f, byte[] contents) {
+    try {
+      File parent = f.getParentFile();
+      IOUtil.attemptMkdirs(parent);
+      File temp = File.createTempFile(f.getName(), ".tmp", parent);
+      OutputStream out = new FileOutputStream(temp);
+      try { out.write(contents); }
+      finally { out.close(); }
+      if (! IOUtil.attemptMove(temp, f)) { IOUtil.attemptDelete(temp); }
+    }
+    catch (IOException e) { _log.log("Can't write cached class " + f, e); }
+  }
+}
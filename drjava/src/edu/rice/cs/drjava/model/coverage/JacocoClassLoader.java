@@ -55,6 +55,9 @@ import java.io.File;
 import java.io.IOException;
 
 import java.lang.ClassLoader;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
 
 import edu.rice.cs.plt.io.IOUtil;
 import edu.rice.cs.util.Log;
@@ -62,9 +65,9 @@ import edu.rice.cs.util.FileOps;
 import edu.rice.cs.util.IterableOps;
 import edu.rice.cs.util.UnexpectedException;
 
-import org.jacoco.core.instr.Instrumenter;
-
-/** A class loader that instruments classes for code coverage.
+/** A class loader that instruments classes for code coverage.  The class files in the binary directories are indexed
+  * on the first lookup, so that finding a class does not probe every directory; the loader is intended to be used
+  * for a single test run, during which the binary directories do not change.
   * @version $Id$
   */
 public class JacocoClassLoader extends ClassLoader {
@@ -72,9 +75,13 @@ public class JacocoClassLoader extends ClassLoader {
   private static final Log _log = new Log("JUnitTestManager.txt", false);
   
   private final File[] _binaryDirectories; 
-  private final Instrumenter _instrumenter; 
+  private final InstrumentedClassCache _instrumenter; 
+  
+  /** Maps class file names (such as "a/b/C.class") to the first class file of that name in the binary directories;
+    * null until first needed. */
+  private Map<String, File> _index = null;
   
-  public JacocoClassLoader(Iterable<File> binaryDirectories, Instrumenter instrumenter, ClassLoader parent) { 
+  public JacocoClassLoader(Iterable<File> binaryDirectories, InstrumentedClassCache instrumenter, ClassLoader parent) { 
     super(parent); 
     
     _binaryDirectories = IterableOps.toArray(binaryDirectories, File.class); 
@@ -90,7 +97,7 @@ public class JacocoClassLoader extends ClassLoader {
     
     if (javaClass != null) { 
       // class was already loaded (and instrumented if bytecode was found) 
-      _log.log("The class " + className + " was already loaded"); 
+      _log.log("The class ", className, " was already loaded"); 
       return javaClass; 
     } 
     
@@ -98,16 +105,16 @@ public class JacocoClassLoader extends ClassLoader {
       // first try to load from one of the binary directories and instrument the class
       File classFile = findBinaryFile(className);
       if (classFile != null) {
-        _log.log("Found the class file " + classFile + " for the class " + className);
-        _log.log("Instrumenting and defining class: " + className); 
+        _log.log("Found the class file ", classFile, " for the class ", className);
+        _log.log("Instrumenting and defining class: ", className); 
         final byte[] instrumentedBytes = _instrumenter.instrument(IOUtil.toByteArray(classFile), className); 
         final Class<?> definedClass = defineClass(className, instrumentedBytes, 0, instrumentedBytes.length);
-        _log.log("Returning instrumented class " + className);
+        _log.log("Returning instrumented class ", className);
         return definedClass;
       }  
       else { 
         // was not found, try to load with the parent, but it will not be instrumented 
-        _log.log("Calling super.loadClass() for class " + className + " (corresponding file was not found by jacoco)"); 
+        _log.log("Calling super.loadClass() for class ", className, " (corresponding file was not found by jacoco)"); 
         return super.loadClass(className, resolve); 
       } 
     } catch (IOException ex) { 
@@ -125,15 +132,29 @@ public class JacocoClassLoader extends ClassLoader {
     * @param className the name of the class 
     * @return the binary file or null if it was not found 
     */ 
-  public File findBinaryFile(String className) { 
-    
-    // iterate binary directories in order 
-    for (File dir : _binaryDirectories) { 
-      File file = new File(dir, FileOps.classNameToClassFilename(className)); 
-      if (file.exists()) return file; 
-    } 
-    
-    // not found 
-    return null; 
+  public synchronized File findBinaryFile(String className) { 
+    if (_index == null) {
+      _index = new HashMap<String, File>();
+      // iterate binary directories in order, so that earlier directories take precedence
+      for (File dir : _binaryDirectories) { 
+        if (dir.isDirectory()) { _addToIndex(dir, ""); }
+      }
+      if (_log.isEnabled()) { _log.log("Indexed ", _index.size(), " class files"); }
+    }
+    return _index.get(FileOps.classNameToClassFilename(className));
   } 
+  
+  /** Adds the class files in dir, whose name relative to its binary directory is prefix, to _index. */
+  private void _addToIndex(File dir, String prefix) {
+    File[] files = dir.listFiles();
+    if (files == null) { return; }
+    for (File f : files) {
+      String name = prefix + f.getName();
+      if (name.endsWith(".class")) {
+        if (! _index.containsKey(name) && f.isFile()) { _index.put(name, f); }
+      }
+      // don't follow links to directories, which might form a cycle
+      else if (f.isDirectory() && ! Files.isSymbolicLink(f.toPath())) { _addToIndex(f, name + "/"); }
+    }
+  }
 }
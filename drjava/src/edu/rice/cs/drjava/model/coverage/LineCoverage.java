@@ -0,0 +1,99 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.coverage;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+
+/** The coverage status of each line of a class, stored compactly as bit sets so that it can be passed cheaply from
+  * the slave JVM to the main JVM.
+  * @version $Id$
+  */
+public class LineCoverage implements Serializable {
+  
+  public static final String NO_CODE = "";
+  public static final String NOT_COVERED = "red";
+  public static final String PARTLY_COVERED = "yellow";
+  public static final String FULLY_COVERED = "green";
+  
+  /** Lines with some code that was executed. */
+  private final BitSet _executed;
+  /** Lines with some code that was not executed; a line in both sets is partly covered. */
+  private final BitSet _missed;
+  private final int _lineCount;
+  
+  /** Records the status of the lines of cc. */
+  public LineCoverage(IClassCoverage cc) {
+    _executed = new BitSet();
+    _missed = new BitSet();
+    int first = cc.getFirstLine();
+    int last = cc.getLastLine();
+    if (first >= 0) {  // otherwise, there is no line information
+      for (int i = first; i <= last; i++) {
+        switch (cc.getLine(i).getStatus()) {
+          case ICounter.NOT_COVERED: _missed.set(i); break;
+          case ICounter.PARTLY_COVERED: _missed.set(i); _executed.set(i); break;
+          case ICounter.FULLY_COVERED: _executed.set(i); break;
+          default: break;  /* this line contains no code */
+        }
+      }
+    }
+    _lineCount = (first >= 0) ? last + 1 : 0;
+  }
+  
+  /** The number of lines for which there is information: the last line with code, plus 1. */
+  public int getLineCount() { return _lineCount; }
+  
+  /** Returns the color for the given (0-based) line: one of NOT_COVERED, PARTLY_COVERED, FULLY_COVERED, or 
+    * NO_CODE. */
+  public String getColor(int line) {
+    boolean executed = _executed.get(line);
+    if (_missed.get(line)) { return executed ? PARTLY_COVERED : NOT_COVERED; }
+    else { return executed ? FULLY_COVERED : NO_CODE; }
+  }
+  
+  public boolean equals(Object o) {
+    if (! (o instanceof LineCoverage)) { return false; }
+    LineCoverage other = (LineCoverage) o;
+    return _lineCount == other._lineCount && _executed.equals(other._executed) && _missed.equals(other._missed);
+  }
+  
+  public int hashCode() { return _executed.hashCode() ^ (31 * _missed.hashCode()); }
+}
@@ -13,14 +13,11 @@ import java.io.File;
 import java.io.IOException;
 
 import java.util.Map;
-import java.util.List;
 import java.util.HashMap;
-import java.util.ArrayList;
 
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.analysis.IClassCoverage;
-import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
 
@@ -41,13 +38,28 @@ public class ReportGenerator {
   /* The output directory in which to place the report */
   private final String reportDirectoryPath;
   
+  /* The analyses of earlier test runs, or null */
+  private final CoverageAnalysisCache analysisCache;
+  
   /** Simple constructor for a ReportGenerator; initializes fields based on input parameters. 
     * @param reportDirectoryPath output directory in which to place the report
     * @param coverageBuilder object which builds the coverage report
     */
   public ReportGenerator(String reportDirectoryPath, CoverageBuilder coverageBuilder) { 
+    this(reportDirectoryPath, coverageBuilder, null);
+  }
+  
+  /** Creates a ReportGenerator that computes line coverage only for the classes that analysisCache analyzed in the
+    * current test run, reusing the results of earlier runs for the others.
+    * @param reportDirectoryPath output directory in which to place the report
+    * @param coverageBuilder object which builds the coverage report
+    * @param analysisCache the cache with which coverageBuilder was filled
+    */
+  public ReportGenerator(String reportDirectoryPath, CoverageBuilder coverageBuilder, 
+                         CoverageAnalysisCache analysisCache) { 
     this.reportDirectoryPath = reportDirectoryPath;
     this.coverageBuilder = coverageBuilder;
+    this.analysisCache = analysisCache;
   }
   
   /** Given the coverage/execution information for the project rooted in the  input sourceDirectory, generates the 
@@ -82,70 +94,36 @@ public class ReportGenerator {
     visitor.visitEnd();
   }
   
-  /** Converts the input coverage status into the output color.
-    * @param status the status of the line (how well it was covered)
-    * @return a color corresponding to the amount of coverage
-    */
-  private String getColor(final int status) {
-    
-    switch (status) {
-      case ICounter.NOT_COVERED: return "red";
-      case ICounter.PARTLY_COVERED: return "yellow";
-      case ICounter.FULLY_COVERED: return "green";
-      default: return ""; /* this line contains no code, so don't color it */
-    }
+  /** Returns the line coverage of cc, reusing the result of an earlier test run if cc has not changed since. */
+  private LineCoverage getLineCoverageForClassHelper(IClassCoverage cc) {
+    return (this.analysisCache == null) ? new LineCoverage(cc) : this.analysisCache.getLineCoverage(cc);
   }
   
-  /** Help function which takes coverage data for a particular class and returns a corresponding list of line colors.
-    * @param cc the IClassCoverage object from which to get line colors
-    * @return a list of colors, where the i-th element in the list corresponds to the i-th line of code
+  /** Given a class name, determines the coverage of each line in that class.
+    * @param className the class (/file) for which to get line coverage
+    * @return the coverage of each line of the class, or null if the class is not in the report
     */
-  private ArrayList<String> getLineColorsForClassHelper(IClassCoverage cc) {
-    
-    ArrayList<String> lineColors = new ArrayList<String>();
-    
-    /* Begin by assigning no color to all of the lines before the first actual line of code.  */
-    for (int i = 0; i < cc.getFirstLine(); i++) lineColors.add("");               
-    
-    /* Next, get the color of the lines after the first code line. */
-    for (int i = cc.getFirstLine(); i <= cc.getLastLine(); i++) lineColors.add(getColor(cc.getLine(i).getStatus()));
-    
-    return lineColors;
-  }
-  
-  /** Given a class name, determines the color of each line in that class according to coverage results.
-    * @param className the class (/file) for which to get line colors
-    * @return a list of colors, where the i-th element in the list corresponds to the i-th line of code
-    */
-  public ArrayList<String> getLineColorsForClass(String className) {
-    
-    /* Initialize it to empty, in case the className is invalid */ 
-    ArrayList<String> lineColors = new ArrayList<String>();
+  public LineCoverage getLineCoverageForClass(String className) {
     
     /* Search for the requested class */
     for (final IClassCoverage cc : this.coverageBuilder.getClasses()) {
-      
-      /* Found the class! Get the color of each line. */
-      if (cc.getName().equals(className)) {
-        lineColors = getLineColorsForClassHelper(cc);
-        break;
-      }
+      if (cc.getName().equals(className)) return getLineCoverageForClassHelper(cc);
     }
     
-    return lineColors;
+    return null;
   }
   
-  /** Given a list of classes, determines the color of each line in each class (based on coverage results).
-    * @return a mapping of class names to the line colors for that class
+  /** Determines the coverage of each line in each class of the report.
+    * @return a mapping of class names to the line coverage for that class
     */
-  public Map<String, List<String>> getAllLineColors() {
+  public Map<String, LineCoverage> getAllLineCoverage() {
     
-    Map<String, List<String>> allLineColors = new HashMap<String, List<String>>();
+    Map<String, LineCoverage> allLineCoverage = new HashMap<String, LineCoverage>();
     
     for (final IClassCoverage cc : this.coverageBuilder.getClasses()) {
-      allLineColors.put(cc.getName(), this.getLineColorsForClassHelper(cc));
+      allLineCoverage.put(cc.getName(), this.getLineCoverageForClassHelper(cc));
     }
     
-    return allLineColors;
+    return allLineCoverage;
   }
 }
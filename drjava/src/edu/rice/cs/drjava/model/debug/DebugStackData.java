@@ -57,4 +57,13 @@ public class DebugStackData {
   
   /** @return the line number of this frame of the stack. */
   public int getLine() { return _line; }
+  
+  /** @return true iff o is a frame with the same method and line number */
+  public boolean equals(Object o) {
+    if (! (o instanceof DebugStackData)) { return false; }
+    DebugStackData that = (DebugStackData) o;
+    return _method.equals(that._method) && _line == that._line;
+  }
+  
+  public int hashCode() { return _method.hashCode() * 31 + _line; }
 }
@@ -64,6 +64,15 @@ public abstract class DebugThreadData {
     return _uniqueID;
   }
   
+  /** @return true iff o describes the same thread with the same name and status */
+  public boolean equals(Object o) {
+    if (! (o instanceof DebugThreadData)) { return false; }
+    DebugThreadData that = (DebugThreadData) o;
+    return _uniqueID == that._uniqueID && _name.equals(that._name) && _status.equals(that._status);
+  }
+  
+  public int hashCode() { return (int) (_uniqueID ^ (_uniqueID >>> 32)); }
+  
   /** Tells whether or not the thread is suspended.
    * @return true iff the thread is suspended
    */
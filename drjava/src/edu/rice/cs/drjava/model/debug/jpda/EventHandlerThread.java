@@ -232,6 +232,7 @@ public class EventHandlerThread extends Thread {
     SwingUtilities.invokeLater(new Runnable() {
       public void run() {
         try {
+          _debugger.classPrepared(e);
           _debugger.getPendingRequestManager().classPrepared(e);
           // resume this thread which was suspended because its suspend policy was SUSPEND_EVENT_THREAD
           e.thread().resume();
@@ -40,6 +40,7 @@ import java.awt.EventQueue;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.TreeMap;
@@ -70,6 +71,7 @@ import edu.rice.cs.plt.tuple.Pair;
 import com.sun.jdi.*;
 import com.sun.jdi.connect.*;
 import com.sun.jdi.request.*;
+import com.sun.jdi.event.ClassPrepareEvent;
 
 import static edu.rice.cs.plt.debug.DebugUtil.error;
 import static edu.rice.cs.plt.debug.DebugUtil.debug;
@@ -141,6 +143,16 @@ public class JPDADebugger implements Debugger {
   /** If not null, this field holds an error caught by the EventHandlerThread. */
   private volatile Throwable _eventHandlerError;
   
+  /** The stack frames of the current suspended thread, or null if they have not been read since it was suspended. */
+  private volatile StackSnapshot _stackSnapshot = null;
+  
+  /** Classes found by _getClass, by name.  Cleared whenever a thread is suspended or resumed, so that entries only
+    * live while the VM is stopped at one place (classes may be unloaded while it runs), and whenever a
+    * ClassPrepareEvent arrives, since a newly prepared class may take priority over the recorded one.  Only accessed
+    * in the event thread.
+    */
+  private final HashMap<String, ReferenceType> _classCache = new HashMap<String, ReferenceType>();
+  
   /*Determines whether automatic trace has been enabled*/
   private volatile boolean _isAutomaticTraceEnabled = false;
       
@@ -282,6 +294,8 @@ public class JPDADebugger implements Debugger {
         _suspendedThreads = new RandomAccessStack();
         _eventManager = null;
         _runningThread = null;
+        _stackSnapshot = null;
+        _classCache.clear();
         _updateWatches();
       }
     }
@@ -747,7 +761,8 @@ public class JPDADebugger implements Debugger {
     return threads;
   }
   
-  /** Returns a Vector of DebugStackData for the current suspended thread.
+  /** Returns a Vector of DebugStackData for the current suspended thread.  The frames are read once per suspension
+   * and reused until the thread resumes or steps.
    * @throws DebugException if the current thread is running or there
    * are no suspended threads
    * TO DO: Config option for hiding DrJava subset of stack trace
@@ -762,17 +777,15 @@ public class JPDADebugger implements Debugger {
     
     try {
       ThreadReference thread = _suspendedThreads.peek();
-      ArrayList<DebugStackData> frames = new ArrayList<DebugStackData>();
       // get a list of language level files whose line numbers need to be translated 
       final List<File> files = new ArrayList<File>();
       for (OpenDefinitionsDocument odd: _model.getLLOpenDefinitionsDocuments()) { files.add(odd.getRawFile()); }
-      for (StackFrame f : thread.frames()) {
-        // map Java line numbers to LL line numbers
-        String method = JPDAStackData.methodName(f);
-        StackTraceElement ste = getLLStackTraceElement(f.location(), files);
-        frames.add(new JPDAStackData(method, ste.getLineNumber()));
+      StackSnapshot snapshot = _stackSnapshot;
+      if (snapshot == null || ! snapshot.isFor(thread, files)) {
+        snapshot = new StackSnapshot(this, thread, files);
+        _stackSnapshot = snapshot;
       }
-      return frames;
+      return snapshot.frames();
     }
     catch (IncompatibleThreadStateException itse) {
       error.log("Unable to obtain stack frame.", itse);
@@ -1246,10 +1259,12 @@ public class JPDADebugger implements Debugger {
     }
     
     int suspendCount = thread.suspendCount();
-    _log.log("Getting suspendCount = " + suspendCount);
+    if (_log.isEnabled()) { _log.log("Getting suspendCount = ", suspendCount); }
     
     
     _runningThread = thread;
+    _stackSnapshot = null;
+    _classCache.clear();
     if (!fromStep) {
       // Copy variables back into the thread
       _copyVariablesFromInterpreter();
@@ -1290,6 +1305,8 @@ public class JPDADebugger implements Debugger {
     // We do this before stepping since DrJava will hang if you try to copy back
     // variables after creating the step request.
     _runningThread = thread;
+    _stackSnapshot = null;
+    _classCache.clear();
     _copyVariablesFromInterpreter();
     
     _log.log(this + " is Deleting pending requests ...");
@@ -1438,41 +1455,20 @@ public class JPDADebugger implements Debugger {
     }
   }
   
-  /** Updates the stored value of each watched field and variable. Synchronization is necessary because this method is 
-    * called from unsynchronized listeners. */
+  /** Updates the stored value of each watched field and variable.  All of the watches are evaluated with a single
+    * call to the interactions model, rather than one per watch. */
   private /* synchronized */ void _updateWatches() {
     assert EventQueue.isDispatchThread();
-    if (! isReady()) return;
+    if (! isReady() || _watches.isEmpty()) return;
     
-    for (DebugWatchData w : _watches) {
-      String name = w.getName();
-      String val = "";
-      String type = "";
-//      ArrayList<Integer> arr_index = new ArrayList<Integer>();
-//      
-//      if(name.indexOf("[") != -1 && name.indexOf("]") != -1) {
-//        name = name.substring(0, name.indexOf("["));
-//        arr_index.add(Integer.parseInt(w.getName().substring(w.getName().indexOf("[")+1, w.getName().indexOf("]"))));      
-//        if(w.getName().indexOf("]")<(w.getName().length()-1)) {
-//          String iter = w.getName().substring(w.getName().indexOf("]")+1, w.getName().length());
-//          while(iter.indexOf("[") != -1 && iter.indexOf("]") != -1) {
-//            arr_index.add(Integer.parseInt(iter.substring(iter.indexOf("[")+1, iter.indexOf("]"))));      
-//            if(iter.indexOf("]")<(iter.length()-1))
-//              iter = iter.substring(iter.indexOf("]")+1, iter.length());
-//            else 
-//              iter = "";
-//          }
-//        }
-//      }
-//     
-//      int [] indices = new int[arr_index.size()];
-//      for (int i = 0; i < arr_index.size(); i++) {
-//        indices[i] = arr_index.get(i);
-//      }
-      Pair<String,String> pair = _model.getInteractionsModel().getVariableToString(name);
-      // System.out.println("pair == null? "+(pair == null));
-      val = pair.first();
-      type = pair.second();
+    List<String> names = new ArrayList<String>(_watches.size());
+    for (DebugWatchData w : _watches) { names.add(w.getName()); }
+    List<Pair<String,String>> values = _model.getInteractionsModel().getVariablesToString(names);
+    
+    for (int i = 0; i < _watches.size(); i++) {
+      DebugWatchData w = _watches.get(i);
+      String val = values.get(i).first();
+      String type = values.get(i).second();
       
       if (val == null) { w.setNoValue(); }
       else { w.setValue(val); }
@@ -1690,19 +1686,32 @@ public class JPDADebugger implements Debugger {
    * @throws DebugException  If no loaded class has the given name.
    */
   private ReferenceType _getClass(String name) throws DebugException {
+    ReferenceType cached = _classCache.get(name);
+    if (cached != null) { return cached; }
     List<ReferenceType> classes = _vm.classesByName(name);
     if (classes.isEmpty()) {
       throw new DebugException("Class '" + name + "' is not loaded");
     }
     else {
+      ReferenceType result = classes.get(0);
       for (ReferenceType t : classes) {
         // class loader is null iff it comes from the bootstrap loader
-        if (t.classLoader() == null) { return t; }
+        if (t.classLoader() == null) { result = t; break; }
       }
-      return classes.get(0);
+      _classCache.put(name, result);
+      return result;
     }
   }
   
+  /** Called by the EventHandlerThread whenever a class is prepared.  Forgets the classes found by _getClass, since
+    * the new class may be one of them.  Runs in the event thread.
+    * @param e the class prepare event
+    */
+  void classPrepared(ClassPrepareEvent e) {
+    assert EventQueue.isDispatchThread();
+    _classCache.clear();
+  }
+  
   
   /** Notifies all listeners that the current thread has been suspended. Synchronization is necessary because it is 
     * called from unsynchronized listeners and other classes (in same package). 
@@ -1755,6 +1764,8 @@ public class JPDADebugger implements Debugger {
   private void _switchToSuspendedThread(BreakpointRequest request, boolean updateWatches) throws DebugException {
     _log.log(this + " executing _switchToSuspendedThread()");
     _runningThread = null;
+    _stackSnapshot = null;
+    _classCache.clear();
     if (updateWatches) _updateWatches();
     final ThreadReference currThread = _suspendedThreads.peek();
     _notifier.currThreadSuspended();
@@ -0,0 +1,87 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.debug.jpda;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.jdi.IncompatibleThreadStateException;
+import com.sun.jdi.StackFrame;
+import com.sun.jdi.ThreadReference;
+
+import edu.rice.cs.drjava.model.debug.DebugStackData;
+
+/** The stack frames of a suspended thread, as shown in the debug panel.  All of the frames are read with a single
+  * JDI request when the snapshot is created, and the debugger keeps the snapshot until the thread resumes or steps,
+  * so refreshing the debug panel while the thread stays suspended does not go back to the debuggee VM.
+  * @version $Id$
+  */
+class StackSnapshot {
+  private final ThreadReference _thread;
+  private final List<File> _llFiles;
+  private final List<DebugStackData> _frames;
+  
+  /** Reads the frames of {@code thread}, mapping their line numbers to those of the given language level files.
+    * @param debugger the debugger, used to map line numbers
+    * @param thread a suspended thread
+    * @param llFiles the open language level files
+    * @throws IncompatibleThreadStateException if the thread is not suspended
+    */
+  StackSnapshot(JPDADebugger debugger, ThreadReference thread, List<File> llFiles)
+    throws IncompatibleThreadStateException {
+    _thread = thread;
+    _llFiles = llFiles;
+    _frames = new ArrayList<DebugStackData>();
+    for (StackFrame f : thread.frames()) {
+      String method = JPDAStackData.methodName(f);
+      StackTraceElement ste = debugger.getLLStackTraceElement(f.location(), llFiles);
+      _frames.add(new JPDAStackData(method, ste.getLineNumber()));
+    }
+  }
+  
+  /** @param thread the current thread
+    * @param llFiles the open language level files
+    * @return whether this snapshot was taken of {@code thread} with the same language level files
+    */
+  boolean isFor(ThreadReference thread, List<File> llFiles) {
+    return _thread.equals(thread) && _llFiles.equals(llFiles);
+  }
+  
+  /** @return a fresh copy of the frames, innermost first */
+  ArrayList<DebugStackData> frames() { return new ArrayList<DebugStackData>(_frames); }
+}
@@ -39,7 +39,6 @@ package edu.rice.cs.drjava.model.definitions;
 import javax.swing.text.*;
 import java.awt.*;
 import javax.swing.event.DocumentEvent;
-import java.util.ArrayList;
 
 import edu.rice.cs.drjava.DrJava;
 import edu.rice.cs.drjava.model.*;
@@ -153,15 +152,24 @@ public class ColoringView extends PlainView implements OptionConstants {
     
     final AbstractDJDocument _doc = (AbstractDJDocument) doc;
     
-    ArrayList<HighlightStatus> stats = _doc.getHighlightStatus(start, end);
-    if (stats.size() < 1) throw new UnexpectedException("GetHighlightStatus returned nothing!");
+    // The spans of the whole line are cached by the document, so repainting a line allocates nothing
+    Element line = _doc.getDefaultRootElement().getElement(_doc.getDefaultRootElement().getElementIndex(start));
+    int lineEnd = Math.min(line.getEndOffset(), _doc.getLength());
+    HighlightStatus[] stats = _doc.getLineHighlightStatus(line.getStartOffset(), lineEnd);
+    if (stats.length < 1) throw new UnexpectedException("GetLineHighlightStatus returned nothing!");
     
     for (HighlightStatus stat: stats) {
       int location = stat.getLocation();
       int length = stat.getLength();
       
-      // If this highlight status extends past p1, end at p1
-      if (location + length > end) length = end - stat.getLocation();
+      // Clip the span to [start, end)
+      if (location + length <= start) continue;
+      if (location >= end) break;
+      if (location < start) {
+        length -= start - location;
+        location = start;
+      }
+      if (location + length > end) length = end - location;
       
       if (! (_doc instanceof InteractionsDJDocument) || ! ((InteractionsDJDocument)_doc).setColoring((start + end)/2, g))      
         setFormattingForState(g, stat.getState());
@@ -50,23 +50,25 @@ public class ActionBracePlus extends IndentRuleAction {
   /** @param ct The additional whitespaces to be inserted. */
   public ActionBracePlus(int ct) { _suffixCt = ct; }
 
-  /** Properly indents the line that the caret is currently on.  Replaces all whitespace characters at the beginning of
-    * the line with the appropriate spacing or characters.<p>
+  /** Computes the indent of the line that the caret is currently on: the column of the enclosing brace plus the 
+    * additional blanks.<p>
     * Preconditions: must be inside a brace.
     * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that the indentation is taking place
+    * @return the new whitespace prefix, or null if no enclosing brace is found
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
-    super.indentLine(doc, reason);
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
     int here = doc.getCurrentLocation();
     int startLine = doc._getLineStartPos(here);
     doc.setCurrentLocation(startLine);  // Is this necessary?  _getLineEnclosingBrace only depends on current LINE
     BraceInfo info = doc._getLineEnclosingBrace();
+    doc.setCurrentLocation(here);
     int dist = info.distance();
 
     // Check preconditions
     if (info.braceType().equals("") || dist < 0) {  // Should use interned Strings here
       // Can't find brace, so do nothing.
-      return;
+      return null;
     }
 
     // Find length to brace
@@ -76,11 +78,6 @@ public class ActionBracePlus extends IndentRuleAction {
     int braceIndent = bracePos - braceNewline;
 
     // Create tab string
-    final int tab = _suffixCt + braceIndent;
-
-    if (here > doc.getLength()) here = doc.getLength() - 1;
-    doc.setCurrentLocation(here);
-
-    doc.setTab(tab, here);
+    return blanks(_suffixCt + braceIndent);
   }
 }
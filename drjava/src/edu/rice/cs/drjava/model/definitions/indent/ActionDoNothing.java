@@ -48,10 +48,10 @@ public class ActionDoNothing extends IndentRuleAction {
   /** Relying on default constructor. */
   // public ActionDoNothing() { super(); }
   
-  /** Properly indents the line that the caret is currently on. Replaces all whitespace characters at the 
-    * beginning of the line with the appropriate spacing or characters.
+  /** Leaves the line that the caret is currently on unchanged.
     * @param doc  The AbstractDJDocument containing the line to be indented.
     * @param reason  The reason that the indentation is taking place
+    * @return null, since the line is not changed
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) { super.indentLine(doc, reason); }
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) { return null; }
 }
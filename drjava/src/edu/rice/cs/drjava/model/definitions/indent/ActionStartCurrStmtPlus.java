@@ -53,13 +53,13 @@ public class ActionStartCurrStmtPlus extends IndentRuleAction {
     _suffix = suffix;
   }
 
-  /** Properly indents the line that the caret is currently on. Replaces all whitespace characters at the beginning
-    * of the line with the appropriate spacing or characters.
+  /** Computes the indent of the line that the caret is currently on: the indent of the current statement plus the
+    * suffix.
     * @param doc AbstractDJDocument containing the line to be indented.
     * @param reason The reason that the indentition is taking place
+    * @return the new whitespace prefix
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
-    super.indentLine(doc, reason);
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
 
     /** This method is simply a call to getIndentOfCurrStmt, which is fully tested in IndentHelperTest, so no additional
       * tests are provided for this class.
@@ -71,7 +71,6 @@ public class ActionStartCurrStmtPlus extends IndentRuleAction {
     indent = doc._getIndentOfCurrStmt(doc.getCurrentLocation(), new char[] {';','{','}'}, new char[] {' ', '\t','\n'});
 
 
-    indent = indent + _suffix;
-    doc.setTab(indent, doc.getCurrentLocation());
+    return blanks(indent + _suffix);
   }
 }
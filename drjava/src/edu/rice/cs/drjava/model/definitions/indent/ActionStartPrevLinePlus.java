@@ -51,13 +51,13 @@ class ActionStartPrevLinePlus extends IndentRuleAction {
     */
   public ActionStartPrevLinePlus(String suffix) { _suffix = suffix; }
 
-  /** Indents the line according to the previous line, with the suffix string added. On the first line, indent is set
-    * to 0.  Only runs in event thread.
+  /** Computes the indent of the line according to the previous line, with the suffix string added. On the first line,
+    * the indent is the suffix.  Only runs in event thread.
     * @param doc AbstractDJDocument containing the line to be indented.
     * @param reason The reason that the indentation is taking place
+    * @return the new whitespace prefix
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
-    super.indentLine(doc, reason);
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
     try {
       // Find start of line
       int here = doc.getCurrentLocation();
@@ -73,8 +73,7 @@ class ActionStartPrevLinePlus extends IndentRuleAction {
       }
       else prefix = _suffix;  // On first line
       
-      if (AbstractDJDocument.hasOnlySpaces(prefix)) doc.setTab(prefix.length(), here);
-      else doc.setTab(prefix, here);
+      return prefix;
     }
     catch (BadLocationException e) { throw new UnexpectedException(e); } // Shouldn't happen
   }
@@ -94,7 +94,7 @@ class ActionStartPrevLinePlusMultiline extends IndentRuleAction {
     * @param reason The reason that the indentation is taking place
     */
   public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
-    super.indentLine(doc, reason);
+    _addToIndentTrace(getRuleName(), TERMINUS_RULE, true);
     try {
       // Find start of line
       int here = doc.getCurrentLocation();
@@ -129,4 +129,19 @@ class ActionStartPrevLinePlusMultiline extends IndentRuleAction {
       throw new UnexpectedException(e);
     }
   }
+  
+  /** This rule inserts additional lines, so its effect cannot be described by a whitespace prefix.
+    * @return false
+    */
+  public boolean computesPrefixOnly() { return false; }
+  
+  /** Not supported, since {@link #computesPrefixOnly} is false.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that the indentation is taking place
+    * @return never returns normally
+    * @throws UnsupportedOperationException always
+    */
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    throw new UnsupportedOperationException(getRuleName() + " does not compute a whitespace prefix");
+  }
 }
@@ -106,4 +106,19 @@ class ActionStartPrevLinePlusMultilinePreserve extends IndentRuleAction {
     }
     catch (BadLocationException e) { throw new UnexpectedException(e); /* Shouldn't happen */ }
   }
+  
+  /** This rule inserts additional lines, so its effect cannot be described by a whitespace prefix.
+    * @return false
+    */
+  public boolean computesPrefixOnly() { return false; }
+  
+  /** Not supported, since {@link #computesPrefixOnly} is false.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that the indentation is taking place
+    * @return never returns normally
+    * @throws UnsupportedOperationException always
+    */
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    throw new UnsupportedOperationException(getRuleName() + " does not compute a whitespace prefix");
+  }
 }
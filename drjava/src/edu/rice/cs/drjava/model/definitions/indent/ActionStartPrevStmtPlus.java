@@ -60,14 +60,14 @@ public class ActionStartPrevStmtPlus extends IndentRuleAction {
     _useColon = colonIsDelim;
   }
 
-  /** Properly indents the line that the caret is currently on. Replaces all whitespace characters at the beginning of
-    * the line with the appropriate spacing or characters.  Assumes reduced lock is alread held [Archaic].  Only
+  /** Computes the indent of the line that the caret is currently on: the indent of the previous statement plus the
+    * suffix.  Assumes reduced lock is alread held [Archaic].  Only
     * runs in the event thread.
     * @param doc AbstractDJDocument containing the line to be indented.
     * @param reason The reason that the indentation is taking place
+    * @return the new whitespace prefix, or null if the preceding close brace is unmatched
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
-    super.indentLine(doc, reason);
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
     int here = doc.getCurrentLocation();
     
     // Find end of previous statement, immediately enclosing brace, or end of case statement
@@ -78,10 +78,7 @@ public class ActionStartPrevStmtPlus extends IndentRuleAction {
     catch (BadLocationException e) { throw new UnexpectedException(e); }
     
     // If no preceding delimiter found, align to left margin
-    if (prevDelimiterPos <= 0) {
-      doc.setTab(_suffix, here);
-      return;
-    }
+    if (prevDelimiterPos <= 0) return blanks(_suffix);
     
     try {
       char delim = doc.getText(prevDelimiterPos, 1).charAt(0);    // get delimiter char
@@ -111,7 +108,8 @@ public class ActionStartPrevStmtPlus extends IndentRuleAction {
           // No matching '{' or '(' preceding this delimiter here
           // but throwing an unexpected exception is not right, because the
           // user may be trying to indent code that is not balanced!
-          return;
+          doc.setCurrentLocation(here);
+          return null;
         }
         prevDelimiterPos -= (delta - 1);  // Position just to right of matching '{' or '('
         doc.setCurrentLocation(here);
@@ -132,8 +130,7 @@ public class ActionStartPrevStmtPlus extends IndentRuleAction {
     
     int indent = doc._getIndentOfCurrStmt(prevDelimiterPos, indentDelims);
     
-    indent = indent + _suffix;
-    doc.setTab(indent, here);
+    return blanks(indent + _suffix);
   }
 }
 
@@ -54,14 +54,14 @@ public class ActionStartStmtOfBracePlus extends IndentRuleAction {
     _suffix = suffix;
   }
 
-  /** Properly indents the line that the caret is currently on. Replaces all whitespace characters at the beginning of the
-    * line with the appropriate spacing or characters.   Assumes read lock is already held.
+  /** Computes the indent of the line that the caret is currently on: the indent of the statement containing the line
+    * enclosing brace plus the suffix.   Assumes read lock is already held.
     * @param doc AbstractDJDocument containing the line to be indented.
     * @param reason The reason that the indentation is taking place
+    * @return the new whitespace prefix
     */
-  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
 
-    super.indentLine(doc, reason); // This call does nothing other than record some indent tracing
     int pos = doc.getCurrentLocation();
 //    Utilities.show("indentLine in ActionStartStmtOfBracePlus called on doc:\n" + doc.getText() + "'\nat location " + pos);
     // Get distance to brace
@@ -72,10 +72,7 @@ public class ActionStartStmtOfBracePlus extends IndentRuleAction {
 //    System.err.println("dist to brace = " + distToLineEnclosingBrace);
 
     // If there is no brace, align to left margin; can't happen when called from rule 19
-    if (distToLineEnclosingBrace == -1) {
-      doc.setTab(_suffix, pos);
-      return;
-    }
+    if (distToLineEnclosingBrace == -1) return blanks(_suffix);
 
     // Get the absolute position of (the left edge of) the line enclosing brace
     final int bracePos = lineStart - distToLineEnclosingBrace;
@@ -83,7 +80,7 @@ public class ActionStartStmtOfBracePlus extends IndentRuleAction {
     final int indent = doc._getIndentOfCurrStmt(bracePos) + _suffix;
 //    System.err.println("indent = " + doc._getIndentOfCurrStmt(bracePos));
 
-    doc.setTab(indent, pos);
+    return blanks(indent);
   }
 
 }
@@ -48,4 +48,19 @@ public interface IndentRule {
     * @param reason The reason that indentation was initiated, specified in Indenter
     */
   public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason);
+  
+  /** Computes the proper indentation of the line that the given position is on without modifying the document.  The 
+    * reduced model location of doc is restored before returning.  Unlike indentLine, this method does not record an
+    * indent trace, so it may be run concurrently on distinct documents.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that indentation was initiated, specified in Indenter
+    * @return the whitespace prefix that indentLine would place before the first non-whitespace character of the line,
+    *         or null if indentLine would leave the line unchanged
+    * @throws UnsupportedOperationException if computesPrefixOnly is false
+    */
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason);
+  
+  /** @return true if indentLine only replaces the whitespace prefix of the line, whatever the context, so that its
+    *         effect can be determined by computeIndent; false if it may insert other text */
+  public boolean computesPrefixOnly();
 }
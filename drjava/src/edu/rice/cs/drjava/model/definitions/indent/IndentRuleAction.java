@@ -36,9 +36,44 @@
 
 package edu.rice.cs.drjava.model.definitions.indent;
 
+import edu.rice.cs.drjava.model.AbstractDJDocument;
+import edu.rice.cs.util.StringOps;
+
 /** * A leaf node in the decision tree for the indentation system.
  * Performs the update to the document, based on the context provided
  * by its position in the decision tree.
  * @version $Id$
  */
-public abstract class IndentRuleAction extends IndentRuleWithTrace { }
+public abstract class IndentRuleAction extends IndentRuleWithTrace {
+  
+  /** Properly indents the line that the caret is currently on by installing the prefix computed by computeIndent.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that the indentation is taking place
+    */
+  public void indentLine(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    super.indentLine(doc, reason);
+    final String indent = computeIndent(doc, reason);
+    if (indent != null) setIndent(doc, indent, doc.getCurrentLocation());
+  }
+  
+  /** Actions install the prefix computed by computeIndent unless they override indentLine.
+    * @return true
+    */
+  public boolean computesPrefixOnly() { return true; }
+  
+  /** Replaces the whitespace prefix of the line containing pos by indent.  A prefix of blanks is adjusted by only 
+    * adding or removing the difference in length.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param indent the new whitespace prefix
+    * @param pos a position on the line to be indented
+    */
+  public static void setIndent(AbstractDJDocument doc, String indent, int pos) {
+    if (AbstractDJDocument.hasOnlySpaces(indent)) doc.setTab(indent.length(), pos);
+    else doc.setTab(indent, pos);
+  }
+  
+  /** @param n the width of an indent
+    * @return a prefix of n blanks
+    */
+  static String blanks(int n) { return StringOps.getBlankString(n); }
+}
@@ -50,6 +50,9 @@ public abstract class IndentRuleQuestion extends IndentRuleWithTrace {
   /** Node in decision tree to use if the rule does not hold in this context. */
   private final IndentRule _noRule;
   
+  /** Whether both children only replace whitespace prefixes. */
+  private final boolean _computesPrefixOnly;
+  
   /** Constructs a new Question indent rule using the two given children.
     * @param yesRule Rule to use if this rule holds
     * @param noRule Rule to use if this rule does not hold
@@ -57,6 +60,9 @@ public abstract class IndentRuleQuestion extends IndentRuleWithTrace {
   public IndentRuleQuestion(final IndentRule yesRule, final IndentRule noRule) {
     _yesRule = yesRule;
     _noRule = noRule;
+    // tests of single questions pass no children
+    _computesPrefixOnly = yesRule != null && noRule != null && yesRule.computesPrefixOnly() && 
+      noRule.computesPrefixOnly();
   }
   
   /** Determines if the given rule holds in this context.
@@ -96,6 +102,27 @@ public abstract class IndentRuleQuestion extends IndentRuleWithTrace {
     }
   }
   
+  /** Determines if the given rule holds in this context and computes the indent using one of its child nodes.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that indentation was initiated, specified in Indenter
+    * @return the indent computed by the selected child
+    */
+  public String computeIndent(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    return selectRule(doc, reason).computeIndent(doc, reason);
+  }
+  
+  /** @return true if both children only replace whitespace prefixes */
+  public boolean computesPrefixOnly() { return _computesPrefixOnly; }
+  
+  /** Determines if the given rule holds in this context, without recording an indent trace.
+    * @param doc AbstractDJDocument containing the line to be indented.
+    * @param reason The reason that indentation was initiated, specified in Indenter
+    * @return the child node that indentLine would delegate to
+    */
+  IndentRule selectRule(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    return applyRule(doc, reason) ? _yesRule : _noRule;
+  }
+  
   /** Convenience method that wraps calls on applyRule in a read lock. Only used in testing. 
    * @param doc AbstractDJDocument containing the line to be indented.
    * @param reason The reason that indentation was initiated, specified in Indenter
@@ -161,4 +161,20 @@ public class Indenter {
 //    Utilities.showDebug("Indenter.indent called on doc "  + doc);
     _topRule.indentLine(doc, reason);
   }
+  
+  /** Follows the decision tree for the current line, as indent would, until it reaches a rule whose subtree only
+    * replaces whitespace prefixes, or an action that inserts other text.  The selected rule's computeIndent may be 
+    * called iff its computesPrefixOnly is true.  Does not record an indent trace, so it may be called concurrently on
+    * distinct documents.
+    * @param doc document containing line to be indented
+    * @param reason reason for indentation
+    * @return the rule that determines the indent of the current line
+    */
+  public IndentRule selectRule(AbstractDJDocument doc, Indenter.IndentReason reason) {
+    IndentRule rule = _topRule;
+    while (! rule.computesPrefixOnly() && rule instanceof IndentRuleQuestion) {
+      rule = ((IndentRuleQuestion) rule).selectRule(doc, reason);
+    }
+    return rule;
+  }
 }
@@ -53,8 +53,14 @@ public abstract class AbstractReducedModel implements ReducedModelStates {
   TokenList.Iterator _cursor;
   
   /** Constructor.  Creates a new reduced model with the cursor at the start of a blank "page." */
-  public AbstractReducedModel() {
-    _tokens = new TokenList();
+  public AbstractReducedModel() { this(false); }
+  
+  /** Constructor.  Creates a new reduced model with the cursor at the start of a blank "page."
+    * @param indexed  whether to back the model with an IndexedTokenList (logarithmic-time cursor jumps) instead of a
+    *                 plain TokenList
+    */
+  public AbstractReducedModel(boolean indexed) {
+    _tokens = indexed ? new IndexedTokenList() : new TokenList();
     _cursor = _tokens.getIterator();
     // we should be pointing to the head of the list
     _cursor.setBlockOffset(0);
@@ -76,35 +82,14 @@ public abstract class AbstractReducedModel implements ReducedModelStates {
    */
   public int absOffset() { return absOffset(_cursor); }
   
-  /** Absolute offset of the specified iterator.  Inefficient so only used for testing purposes. 
+  /** Absolute offset of the specified iterator.  Linear in the number of tokens unless the model is indexed, so only 
+   * used for testing purposes. 
    * @param cursor the cursor for which to get the offset
    * @return the absolute offset of the cursor
    */
-  public int absOffset(TokenList.Iterator cursor) {
-    int off = cursor.getBlockOffset();
-    TokenList.Iterator it = cursor.copy();
-    if (! it.atStart()) it.prev();
-    
-    while (! it.atStart()) {
-      off += it.current().getSize();
-      it.prev();
-    }
-    it.dispose();
-    return off;
-  }
+  public int absOffset(TokenList.Iterator cursor) { return _tokens.absOffset(cursor); }
   
-  public int getLength() {
-    TokenList.Iterator it = _tokens.getIterator();
-    it.next();
-    if (it.atEnd()) return 0;
-    int len = 0;
-    while (! it.atEnd()) {
-      len += it.current().getSize();
-      it.next();
-    }
-    it.dispose();
-    return len;
-  }
+  public int getLength() { return _tokens.getLength(); }
   
   /** @return the shadowing state of _cursor; only makes sense for ReducedModelComment. */
   public ReducedModelState getState() { return _cursor.getStateAtCurrent(); }
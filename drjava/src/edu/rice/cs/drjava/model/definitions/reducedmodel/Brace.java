@@ -147,7 +147,9 @@ class Brace extends ReducedToken implements ReducedModelStates {
     int index = findBrace(type);
     if (index == braces.length) throw new BraceException("Invalid brace type \"" + type + "\"");
     _type = index;
+    int oldSize = _size;
     _size = getType().length();
+    sizeChanged(_size - oldSize);
   }
 
   /** Determine the brace _type of the given String. The integer value returned is only used internally.
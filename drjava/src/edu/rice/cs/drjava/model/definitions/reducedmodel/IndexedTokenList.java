@@ -0,0 +1,321 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model.definitions.reducedmodel;
+
+import java.util.Random;
+
+/** A TokenList whose nodes are also threaded through a balanced binary tree (a treap ordered by list position).  Each
+  * tree node caches the number of tokens and the number of characters in its subtree.  The underlying linked list
+  * still provides constant-time next() and prev(), while the tree makes seeking to a character offset, computing the
+  * absolute offset of an iterator, and computing the length of the list logarithmic in the number of tokens.  Long
+  * cursor or walker jumps (e.g., from the top to the bottom of a 20,000 line file) therefore no longer visit every
+  * intervening token.
+  * 
+  * Token sizes are cached in the tree, so every token in an IndexedTokenList points back to its tree node and reports
+  * size changes (see ReducedToken.sizeChanged).  Like TokenList, this class is NOT thread safe; all access is
+  * protected by the reduced model lock.
+  * @version $Id$
+  */
+class IndexedTokenList extends TokenList {
+  
+  /** Moves spanning fewer characters than this walk the list; longer moves descend the tree.  Walking a few tokens is
+    * cheaper than two root-to-leaf traversals.
+    */
+  static final int SEEK_THRESHOLD = 64;
+  
+  /** Source of treap priorities.  Seeded so that tree shapes (and hence any bugs) are reproducible. */
+  private final Random _priorities = new Random(0x5EEDL);
+  
+  /** Root of the treap containing every item node of this list; null if the list is empty. */
+  private TreeNode _root = null;
+  
+  /** Scratch space for split(), which returns two trees. */
+  private final TreeNode[] _split = new TreeNode[2];
+  
+  /** A list node that is also a treap node. */
+  static final class TreeNode extends Node<ReducedToken> {
+    TreeNode _left;
+    TreeNode _right;
+    TreeNode _parent;
+    final int _priority;
+    /** Number of nodes in the subtree rooted here. */
+    int _count;
+    /** Number of characters represented by the subtree rooted here. */
+    int _chars;
+    /** Cached size of _item. */
+    int _size;
+    
+    TreeNode(ReducedToken item, int priority) {
+      super(item);
+      _priority = priority;
+      _size = item.getSize();
+      _count = 1;
+      _chars = _size;
+    }
+    
+    /** Recomputes the cached summaries of this node from its children. */
+    void update() {
+      _count = 1 + nodeCount(_left) + nodeCount(_right);
+      _chars = _size + charCount(_left) + charCount(_right);
+    }
+    
+    /** Adjusts the cached size of this node and the character counts of all of its ancestors.
+      * @param delta the change in the size of _item
+      */
+    void sizeChanged(int delta) {
+      _size += delta;
+      for (TreeNode n = this; n != null; n = n._parent) n._chars += delta;
+    }
+  }
+  
+  /** Gets an iterator that uses the tree for long moves. */
+  public Iterator getIterator() { return new IndexedIterator(); }
+  
+  /** @return the number of characters represented by this list, in constant time. */
+  public int getLength() { return charCount(_root); }
+  
+  /** Absolute offset of the specified iterator, in logarithmic time.
+    * @param cursor an iterator over this list
+    * @return the absolute offset of the cursor
+    */
+  public int absOffset(Iterator cursor) {
+    if (cursor.atStart()) return cursor.getBlockOffset();
+    if (cursor.atEnd()) return charCount(_root) + cursor.getBlockOffset();
+    return startOf((TreeNode) cursor.node()) + cursor.getBlockOffset();
+  }
+  
+  Node<ReducedToken> newNode(ReducedToken item) {
+    TreeNode node = new TreeNode(item, _priorities.nextInt());
+    item._treeNode = node;
+    return node;
+  }
+  
+  void nodeInserted(Node<ReducedToken> node) {
+    Node<ReducedToken> pred = node._prev;
+    int rank = (pred == head()) ? 0 : rankOf((TreeNode) pred) + 1;
+    split(_root, rank);
+    TreeNode right = _split[1];
+    _root = merge(merge(_split[0], (TreeNode) node), right);
+    _root._parent = null;
+  }
+  
+  void nodeRemoved(Node<ReducedToken> node) {
+    TreeNode t = (TreeNode) node;
+    TreeNode parent = t._parent;
+    TreeNode replacement = merge(t._left, t._right);
+    if (replacement != null) replacement._parent = parent;
+    if (parent == null) _root = replacement;
+    else {
+      if (parent._left == t) parent._left = replacement;
+      else parent._right = replacement;
+      for (TreeNode n = parent; n != null; n = n._parent) n.update();
+    }
+    t._left = t._right = t._parent = null;
+    if (t._item._treeNode == t) t._item._treeNode = null;
+  }
+  
+  /** Drops the subtree holding the collapsed nodes.  The dropped tokens keep pointers to their detached tree nodes,
+    * which is harmless: size changes to them only update the detached subtree.
+    */
+  void nodesCollapsed(Node<ReducedToken> left, Node<ReducedToken> right) {
+    int lo = (left == head()) ? 0 : rankOf((TreeNode) left) + 1;
+    int hi = (right == tail()) ? nodeCount(_root) : rankOf((TreeNode) right);
+    if (hi <= lo) return;
+    split(_root, lo);
+    TreeNode prefix = _split[0];
+    split(_split[1], hi - lo);
+    _root = merge(prefix, _split[1]);
+    if (_root != null) _root._parent = null;
+  }
+  
+  /** @return the number of nodes preceding t in list order. */
+  private static int rankOf(TreeNode t) {
+    int rank = nodeCount(t._left);
+    for (TreeNode n = t; n._parent != null; n = n._parent) {
+      if (n == n._parent._right) rank += nodeCount(n._parent._left) + 1;
+    }
+    return rank;
+  }
+  
+  /** @return the absolute offset of the first character of t. */
+  private static int startOf(TreeNode t) {
+    int start = charCount(t._left);
+    for (TreeNode n = t; n._parent != null; n = n._parent) {
+      TreeNode p = n._parent;
+      if (n == p._right) start += charCount(p._left) + p._size;
+    }
+    return start;
+  }
+  
+  static int nodeCount(TreeNode t) { return (t == null) ? 0 : t._count; }
+  
+  static int charCount(TreeNode t) { return (t == null) ? 0 : t._chars; }
+  
+  /** Splits t so that _split[0] holds its first k nodes and _split[1] holds the rest.  Both results have null parents.
+    * @param t the tree to split
+    * @param k the number of nodes to place in the left result
+    */
+  private void split(TreeNode t, int k) {
+    if (t == null) {
+      _split[0] = _split[1] = null;
+      return;
+    }
+    if (nodeCount(t._left) < k) {
+      split(t._right, k - nodeCount(t._left) - 1);
+      t._right = _split[0];
+      if (t._right != null) t._right._parent = t;
+      t.update();
+      t._parent = null;
+      _split[0] = t;
+    }
+    else {
+      split(t._left, k);
+      t._left = _split[1];
+      if (t._left != null) t._left._parent = t;
+      t.update();
+      t._parent = null;
+      _split[1] = t;
+    }
+  }
+  
+  /** Concatenates two treaps.  The caller must reset the parent of the result if it becomes a root.
+    * @param a the tree holding the leading nodes
+    * @param b the tree holding the trailing nodes
+    * @return the root of the concatenation
+    */
+  private static TreeNode merge(TreeNode a, TreeNode b) {
+    if (a == null) return b;
+    if (b == null) return a;
+    if (a._priority > b._priority) {
+      a._right = merge(a._right, b);
+      a._right._parent = a;
+      a.update();
+      return a;
+    }
+    else {
+      b._left = merge(a, b._left);
+      b._left._parent = b;
+      b.update();
+      return b;
+    }
+  }
+  
+  /** @return the first node whose extent ends after offset; assumes 0 {@literal <=} offset {@literal <} getLength(). */
+  private TreeNode _firstEndingAfter(int offset) {
+    TreeNode t = _root;
+    TreeNode found = null;
+    int base = 0;  // characters preceding the subtree rooted at t
+    while (t != null) {
+      int start = base + charCount(t._left);
+      if (start + t._size > offset) {
+        found = t;
+        t = t._left;
+      }
+      else {
+        base = start + t._size;
+        t = t._right;
+      }
+    }
+    return found;
+  }
+  
+  /** @return the last node starting at or before offset; assumes 0 {@literal <=} offset {@literal <=} getLength(). */
+  private TreeNode _lastStartingAtOrBefore(int offset) {
+    TreeNode t = _root;
+    TreeNode found = null;
+    int base = 0;
+    while (t != null) {
+      int start = base + charCount(t._left);
+      if (start <= offset) {
+        found = t;
+        base = start + t._size;
+        t = t._right;
+      }
+      else t = t._left;
+    }
+    return found;
+  }
+  
+  /** A TokenList.Iterator that performs long moves by descending the tree.  Short moves are delegated to the linear
+    * walk in TokenList.Iterator, and the two agree on where the iterator ends up.
+    */
+  class IndexedIterator extends Iterator {
+    
+    IndexedIterator() { super(); }
+    
+    private IndexedIterator(IndexedIterator that) { super(that); }
+    
+    public Iterator copy() { return new IndexedIterator(this); }
+    
+    int _moveRight(int count, int currentOffset) {
+      if (count < SEEK_THRESHOLD) return super._moveRight(count, currentOffset);
+      if (atStart()) {
+        currentOffset = 0;
+        next();
+      }
+      if (atEnd()) throw new IllegalArgumentException("At end");
+      
+      int target = startOf((TreeNode) node()) + currentOffset + count;
+      int length = charCount(_root);
+      if (target >= length) {
+        if (target > length) throw new IllegalArgumentException("At end");
+        jumpTo(tail(), length() + 1);
+        return 0;
+      }
+      TreeNode t = _firstEndingAfter(target);
+      jumpTo(t, rankOf(t) + 1);
+      return target - startOf(t);
+    }
+    
+    int _moveLeft(int count, int currentOffset) {
+      if (count < SEEK_THRESHOLD) return super._moveLeft(count, currentOffset);
+      if (atEnd()) {
+        assert currentOffset == 0;
+        prev();
+        if (atStart()) throw new IllegalArgumentException("At Start");
+        currentOffset = current().getSize();
+      }
+      else if (atStart()) throw new IllegalArgumentException("At Start");
+      
+      if (count <= currentOffset) return currentOffset - count;
+      int target = startOf((TreeNode) node()) + currentOffset - count;
+      if (target < 0) throw new IllegalArgumentException("At Start");
+      TreeNode t = _lastStartingAtOrBefore(target);
+      jumpTo(t, rankOf(t) + 1);
+      return target - startOf(t);
+    }
+  }
+}
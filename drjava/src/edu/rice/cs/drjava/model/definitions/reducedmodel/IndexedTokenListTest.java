@@ -0,0 +1,211 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+package edu.rice.cs.drjava.model.definitions.reducedmodel;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+
+import java.util.Random;
+
+/** Tests that reduced models backed by an IndexedTokenList behave exactly like those backed by a plain TokenList.
+  * Running main() benchmarks the two implementations on a large generated file.
+  * @version $Id$
+  */
+public final class IndexedTokenListTest extends DrJavaTestCase {
+  
+  /** Characters used by the random edits; weighted towards the ones the reduced models care about. */
+  private static final String ALPHABET = "ab  {}()[]/*\n\"'\\";
+  
+  private volatile ReducedModelControl _plain;
+  private volatile ReducedModelControl _indexed;
+  /** The cursor position shared by both models. */
+  private volatile int _pos;
+  
+  protected void setUp() throws Exception {
+    super.setUp();
+    _plain = new ReducedModelControl(false);
+    _indexed = new ReducedModelControl(true);
+    _pos = 0;
+  }
+  
+  private void _insert(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      _plain.insertChar(text.charAt(i));
+      _indexed.insertChar(text.charAt(i));
+    }
+    _pos += text.length();
+  }
+  
+  private void _move(int count) {
+    _plain.move(count);
+    _indexed.move(count);
+    _pos += count;
+  }
+  
+  private void _delete(int count) {
+    _plain.delete(count);
+    _indexed.delete(count);
+    if (count < 0) _pos += count;
+  }
+  
+  /** Compares every observable property of the two models at the current cursor. */
+  private void _assertAgree(String msg) {
+    assertEquals(msg + " structure", _plain.simpleString(), _indexed.simpleString());
+    assertEquals(msg + " length", _plain._rmc.getLength(), _indexed._rmc.getLength());
+    assertEquals(msg + " brace length", _plain._rmb.getLength(), _indexed._rmb.getLength());
+    assertEquals(msg + " offset", _pos, _indexed.absOffset());
+    assertEquals(msg + " plain offset", _pos, _plain.absOffset());
+    assertEquals(msg + " state", _plain.getStateAtCurrent(), _indexed.getStateAtCurrent());
+    assertEquals(msg + " balanceForward", _plain.balanceForward(), _indexed.balanceForward());
+    assertEquals(msg + " balanceBackward", _plain.balanceBackward(), _indexed.balanceBackward());
+    assertEquals(msg + " distToStart", _plain.getDistToStart(), _indexed.getDistToStart());
+    assertEquals(msg + " distToNextNewline", _plain.getDistToNextNewline(), _indexed.getDistToNextNewline());
+  }
+  
+  /** Random inserts, moves, and deletes keep the two implementations in lock step. */
+  public void testRandomEditsAgree() {
+    Random r = new Random(20);
+    for (int i = 0; i < 3000; i++) {
+      int length = _plain._rmc.getLength();
+      int op = r.nextInt(10);
+      if (op < 5) {
+        StringBuilder sb = new StringBuilder();
+        int n = 1 + r.nextInt(4);
+        for (int j = 0; j < n; j++) sb.append(ALPHABET.charAt(r.nextInt(ALPHABET.length())));
+        _insert(sb.toString());
+      }
+      else if (op < 8) _move(r.nextInt(length + 1) - _pos);
+      else if (length > 0) {
+        if (r.nextBoolean() && _pos < length) _delete(1 + r.nextInt(Math.min(length - _pos, 8)));
+        else if (_pos > 0) _delete(- 1 - r.nextInt(Math.min(_pos, 8)));
+      }
+      _assertAgree("step " + i);
+    }
+  }
+  
+  /** Long moves of the cursor and the walker land on the same tokens as the linear walk. */
+  public void testLongMovesAgree() {
+    _insert(_generateSource(200));
+    Random r = new Random(7);
+    int length = _plain._rmc.getLength();
+    for (int i = 0; i < 500; i++) {
+      _move(r.nextInt(length + 1) - _pos);
+      _assertAgree("move " + i);
+      _plain.resetLocation();
+      _indexed.resetLocation();
+      int rel = 0;
+      for (int j = 0; j < 5; j++) {
+        int target = r.nextInt(length + 1);
+        assertEquals("walker " + i + "." + j, 
+                     _plain.moveWalkerGetState(target - _pos - rel), _indexed.moveWalkerGetState(target - _pos - rel));
+        rel = target - _pos;
+      }
+    }
+  }
+  
+  /** Growing and shrinking gaps keeps the cached sizes in the tree up to date. */
+  public void testGapResizing() {
+    _insert("class A {\n  int x;\n}\n");
+    _move(-12);
+    _insert("/* a comment */");
+    _assertAgree("after comment");
+    _move(-5);
+    _delete(-10);
+    _assertAgree("after delete");
+    _move(-_pos);
+    _delete(_plain._rmc.getLength());
+    _assertAgree("empty");
+    assertEquals("empty length", 0, _indexed._rmc.getLength());
+  }
+  
+  /** Generates Java-like source text with comments, strings, and nested braces.
+    * @param classes the number of classes to generate (about 12 lines each)
+    * @return the generated text
+    */
+  private static String _generateSource(int classes) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < classes; i++) {
+      sb.append("/** Class number ").append(i).append(" */\n");
+      sb.append("class C").append(i).append(" {\n");
+      sb.append("  // a line comment with a brace {\n");
+      sb.append("  String s = \"a string with } and /* inside\";\n");
+      sb.append("  char c = '\\'';\n");
+      sb.append("  int f(int x) {\n");
+      sb.append("    if (x > 0) { return f(x - 1) * a[x]; }\n");
+      sb.append("    /* block\n     comment */\n");
+      sb.append("    return 0;\n");
+      sb.append("  }\n");
+      sb.append("}\n");
+    }
+    return sb.toString();
+  }
+  
+  /** Times random cursor jumps followed by walker queries (the access pattern of brace matching and indenting) on a
+    * large file with both token list implementations.
+    * @param model the model to exercise
+    * @param jumps the number of jumps to perform
+    * @return the elapsed time in milliseconds
+    */
+  private static long _timeJumps(ReducedModelControl model, int jumps) {
+    int length = model._rmc.getLength();
+    int pos = model.absOffset();
+    Random r = new Random(1);
+    long start = System.nanoTime();
+    for (int i = 0; i < jumps; i++) {
+      int target = r.nextInt(length + 1);
+      model.move(target - pos);
+      pos = target;
+      model.resetLocation();
+      model.moveWalkerGetState(r.nextInt(length + 1) - pos);
+    }
+    return (System.nanoTime() - start) / 1000000;
+  }
+  
+  /** Benchmarks the plain and indexed token lists.  Usage: IndexedTokenListTest [lines] [jumps] */
+  public static void main(String[] args) {
+    int lines = (args.length > 0) ? Integer.parseInt(args[0]) : 24000;
+    int jumps = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+    String text = _generateSource(lines / 12);
+    for (boolean indexed : new boolean[] { false, true, false, true }) {
+      ReducedModelControl model = new ReducedModelControl(indexed);
+      long start = System.nanoTime();
+      for (int i = 0; i < text.length(); i++) model.insertChar(text.charAt(i));
+      long build = (System.nanoTime() - start) / 1000000;
+      long time = _timeJumps(model, jumps);
+      System.out.println((indexed ? "indexed" : "plain  ") + ": " + text.length() + " chars, build " + build + " ms, " + 
+                         jumps + " jumps " + time + " ms");
+    }
+  }
+}
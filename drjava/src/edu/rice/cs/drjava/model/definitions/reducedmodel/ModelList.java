@@ -77,8 +77,9 @@ class ModelList<T> {
    */
   private Node<T> insert(Node<T> point, T item) {
     assert point != _head;
-    Node<T> newNode = point.insert(item);
+    Node<T> newNode = point.insert(newNode(item));
     _length++;
+    nodeInserted(newNode);
     return newNode;
   }
 
@@ -89,7 +90,38 @@ class ModelList<T> {
     assert point != _head && point != _tail;
     point.remove();
     _length--;
+    nodeRemoved(point);
   } 
+  
+  /** Creates the node that holds item.  Subclasses that attach bookkeeping to nodes (see IndexedTokenList) override 
+    * this factory method.
+    * @param item the item to wrap
+    * @return a fresh, unlinked node holding item
+    */
+  Node<T> newNode(T item) { return new Node<T>(item); }
+  
+  /** Hook called after node has been linked into the list.  Does nothing in ModelList.
+    * @param node the inserted node
+    */
+  void nodeInserted(Node<T> node) { }
+  
+  /** Hook called after node has been unlinked from the list.  Does nothing in ModelList.
+    * @param node the removed node
+    */
+  void nodeRemoved(Node<T> node) { }
+  
+  /** Hook called after all nodes strictly between left and right have been unlinked by collapse.  Does nothing in 
+    * ModelList.
+    * @param left the node preceding the collapsed range (possibly _head)
+    * @param right the node following the collapsed range (possibly _tail)
+    */
+  void nodesCollapsed(Node<T> left, Node<T> right) { }
+  
+  /** @return the header node of this list. */
+  Node<T> head() { return _head; }
+  
+  /** @return the trailer node of this list. */
+  Node<T> tail() { return _tail; }
 
   private void addListener(ModelIterator that) { _listeners.add(that); }
 
@@ -109,8 +141,10 @@ class ModelList<T> {
    */
   public ModelIterator getIterator() { return new ModelIterator(); }
 
-  /** The Node class for ModelLists.  The _prev and _next pointers are mutable.  The _item field is null in _head and _tail. */
-  private static class Node<T> {
+  /** The Node class for ModelLists.  The _prev and _next pointers are mutable.  The _item field is null in _head and _tail. 
+    * Package private so that IndexedTokenList can extend it.
+    */
+  static class Node<T> {
     Node<T> _prev;
     Node<T> _next;
     T _item;
@@ -118,24 +152,19 @@ class ModelList<T> {
     /** Constructor for _head and _tail nodes. */
     Node() { }
 
-    /** Constructor for nodes containing data. 
+    /** Constructor for nodes containing data.  The node is not linked into any list.
      * @param item data contained at this node
-     * @param pred predecessor node
-     * @param succ successor node
      */
-    Node(T item, Node<T> pred, Node<T> succ) {
-      _item = item;
-      _prev = pred;
-      _next = succ;
-    }
+    Node(T item) { _item = item; }
     
     /** Insert a new node before "this". Assumes that "this" is not the head node. 
-     * @param item item to insert
+     * @param newNode the unlinked node to insert
      * @return the newly-inserted node
      */
-    Node<T> insert(T item) {
+    Node<T> insert(Node<T> newNode) {
       assert _prev != null;
-      Node<T> newNode = new Node<T>(item, _prev, this);
+      newNode._prev = _prev;
+      newNode._next = this;
       _prev._next = newNode;
       _prev = newNode;
       return newNode;
@@ -228,6 +257,19 @@ class ModelList<T> {
     }
     
     public int pos() { return _pos; }
+    
+    /** @return the node this iterator points to. */
+    Node<T> node() { return _point; }
+    
+    /** Repositions this iterator without walking the list.  Used by IndexedTokenList, which computes the target node
+      * and its index from its offset tree.
+      * @param point the new current node
+      * @param pos the index of point in the list (_head has index 0)
+      */
+    void jumpTo(Node<T> point, int pos) {
+      _point = point;
+      _pos = pos;
+    }
 
     /** Inserts an item before the current item.  If current is head, we need 
      * to move to the next node to perform the insert properly.  Otherwise, 
@@ -300,6 +342,7 @@ class ModelList<T> {
       rightPoint._prev = leftPoint;
       leftPoint._next = rightPoint;
       _length -= rightPos - leftPos - 1;  //determine new length
+      nodesCollapsed(leftPoint, rightPoint);
       notifyOfCollapse(leftPos, rightPos, rightPoint);
     }
 
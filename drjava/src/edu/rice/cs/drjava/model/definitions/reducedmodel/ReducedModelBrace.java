@@ -48,8 +48,10 @@ public class ReducedModelBrace extends AbstractReducedModel {
   
   private volatile ReducedModelControl _parent;  // contains the walker which is moved by moveWalkerGetState
   
-  public ReducedModelBrace(ReducedModelControl parent) {
-    super();
+  public ReducedModelBrace(ReducedModelControl parent) { this(parent, false); }
+  
+  public ReducedModelBrace(ReducedModelControl parent, boolean indexed) {
+    super(indexed);
     _parent = parent;
   }
   
@@ -49,8 +49,13 @@ public class ReducedModelComment extends AbstractReducedModel {
   volatile TokenList.Iterator _walker;
   
   /** Constructor.  Creates a new reduced model with the cursor at the start of a blank "page." */
-  public ReducedModelComment() {
-    super();
+  public ReducedModelComment() { this(false); }
+  
+  /** Constructor.  Creates a new reduced model with the cursor at the start of a blank "page."
+    * @param indexed  whether to back the model with an IndexedTokenList
+    */
+  public ReducedModelComment(boolean indexed) {
+    super(indexed);
     _walker = _cursor.copy();
   }
   
@@ -407,8 +412,14 @@ public class ReducedModelComment extends AbstractReducedModel {
   public void delete(int count) {
     if (count == 0) return;
     
-    _cursor.delete(count);
+    // Shrinking a gap without removing it cannot combine or split braces, so no state changes.
+    if (_isInsideGap(count)) {
+      _cursor.delete(count);
+      return;
+    }
     
+    _cursor.delete(count);
+
     // Changes in ReducedModelComment can entail state changes in the
     // document.  For this reason, we have to call
     // _updateBasedOnCurrentState because there is no need to call it
@@ -428,6 +439,17 @@ public class ReducedModelComment extends AbstractReducedModel {
     return;
   }
   
+  /** @param count the size and direction of a deletion at the cursor
+    * @return true if the deleted text lies within the current gap, which retains at least one character.
+    */
+  private boolean _isInsideGap(int count) {
+    if (_cursor.atStart() || _cursor.atEnd() || ! _cursor.current().isGap()) return false;
+    final int offset = _cursor.getBlockOffset();
+    final int size = _cursor.current().getSize();
+    if (count > 0) return offset + count < size || (offset > 0 && offset + count == size);
+    return offset + count >= 0 && -count < size;
+  }
+  
   /** @return true if the current token is shadowed by a comment or quotation.  Note: returns false for the "brace" 
     * opening a line, block comment, or quotation. */
   public boolean isShadowed() {
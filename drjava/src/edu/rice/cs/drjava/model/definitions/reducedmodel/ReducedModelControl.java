@@ -64,9 +64,15 @@ public class ReducedModelControl implements BraceReduction {
   volatile int _offset;
   
   /** Standard constructor. */
-  public ReducedModelControl() {
-    _rmb = new ReducedModelBrace(this);
-    _rmc = new ReducedModelComment();
+  public ReducedModelControl() { this(false); }
+  
+  /** Constructor that selects the token list implementation.  Indexed models answer cursor jumps, walker moves, and
+    * offset queries in time logarithmic in the number of tokens at the cost of extra memory per token.
+    * @param indexed  whether to back both sub-models with an IndexedTokenList
+    */
+  public ReducedModelControl(boolean indexed) {
+    _rmb = new ReducedModelBrace(this, indexed);
+    _rmc = new ReducedModelComment(indexed);
   }
   
   /** @return the absolute offset of the cursor in the brace model, which is expensive.  Used for testing purposes only. 
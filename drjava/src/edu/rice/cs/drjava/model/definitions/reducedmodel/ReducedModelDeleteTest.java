@@ -393,4 +393,30 @@ public final class ReducedModelDeleteTest extends BraceReductionTestCase
     assertEquals("#3.1", "/", model1.currentToken().getType());
     assertEquals("#3.2", INSIDE_LINE_COMMENT, model1.currentToken().getState());
   }
+
+  /** Tests that shrinking a gap between two slashes keeps them apart, and that removing it joins them. */
+  public void testShrinkGapBetweenSlashes() {
+    model1.insertChar('/');
+    insertGap(model1, 3);
+    model1.insertChar('/');
+    insertGap(model1, 1);
+    model1.move(-3);
+    model1.delete(-1);
+    assertEquals("#0.0", 2, model1.absOffset());
+    assertTrue("#0.1", model1.currentToken().isGap());
+    assertEquals("#0.2", 2, model1.currentToken().getSize());
+    model1.delete(1);
+    assertEquals("#1.0", 2, model1.absOffset());
+    assertEquals("#1.1", "/", model1.currentToken().getType());
+    assertEquals("#1.2", FREE, model1.currentToken().getState());
+    assertEquals("#1.3", FREE, model1.getStateAtCurrent());
+    model1.move(-1);
+    assertTrue("#2.0", model1.currentToken().isGap());
+    assertEquals("#2.1", 1, model1.currentToken().getSize());
+    model1.delete(1);
+    model1.move(-1);
+    assertEquals("#3.0", "//", model1.currentToken().getType());
+    model1.move(2);
+    assertEquals("#3.1", INSIDE_LINE_COMMENT, model1.getStateAtCurrent());
+  }
 }
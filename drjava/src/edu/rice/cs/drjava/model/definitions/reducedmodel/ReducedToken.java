@@ -42,6 +42,11 @@ package edu.rice.cs.drjava.model.definitions.reducedmodel;
 public abstract class ReducedToken implements ReducedModelStates {
   private volatile ReducedModelState _state;
   
+  /** The IndexedTokenList node holding this token, or null if this token is not in an indexed list.  The node caches
+    * this token's size, so it must be told whenever the size changes.
+    */
+  volatile IndexedTokenList.TreeNode _treeNode;
+  
   public ReducedToken(ReducedModelState state) {
     _state = state;
   }
@@ -113,6 +118,14 @@ public abstract class ReducedToken implements ReducedModelStates {
     */
   public abstract void shrink(int delta);
   
+  /** Propagates a change in the size of this token to the indexed list node holding it, if any.
+    * @param delta the change in size
+    */
+  void sizeChanged(int delta) {
+    IndexedTokenList.TreeNode node = _treeNode;
+    if (node != null && delta != 0) node.sizeChanged(delta);
+  }
+  
   /** Indicates whether this brace is shadowed. Shadowing occurs when a brace has been swallowed by a
     * comment or an open quote.
     * @return true if the brace is shadowed.
@@ -36,7 +36,8 @@
 
 package edu.rice.cs.drjava.model.definitions.reducedmodel;
 
-/** A list of reduced model tokens.  Uses ModelList as its base.
+/** A list of reduced model tokens.  Uses ModelList as its base.  Cursor movement and offset computations walk the list
+  * token by token; IndexedTokenList overrides them with logarithmic-time versions.
   * @version $Id$
   */
 public class TokenList extends ModelList<ReducedToken> implements /*imports*/ ReducedModelStates {
@@ -44,6 +45,36 @@ public class TokenList extends ModelList<ReducedToken> implements /*imports*/ Re
   /** Gets a TokenList.Iterator for this list.  Overrides the weaker method in {@code ModelList<ReducedToken>.Iterator}. */
   public Iterator getIterator() { return new Iterator(); }
   
+  /** @return the number of characters represented by this list.  Walks the whole list. */
+  public int getLength() {
+    Iterator it = getIterator();
+    it.next();
+    int len = 0;
+    while (! it.atEnd()) {
+      len += it.current().getSize();
+      it.next();
+    }
+    it.dispose();
+    return len;
+  }
+  
+  /** Absolute offset of the specified iterator.  Walks back to the head of the list.
+    * @param cursor the cursor for which to get the offset
+    * @return the absolute offset of the cursor
+    */
+  public int absOffset(Iterator cursor) {
+    int off = cursor.getBlockOffset();
+    Iterator it = cursor.copy();
+    if (! it.atStart()) it.prev();
+    
+    while (! it.atStart()) {
+      off += it.current().getSize();
+      it.prev();
+    }
+    it.dispose();
+    return off;
+  }
+  
   public class Iterator extends ModelIterator {
     
     private int _offset;
@@ -53,7 +84,7 @@ public class TokenList extends ModelList<ReducedToken> implements /*imports*/ Re
       _offset = 0;
     }
     
-    private Iterator(Iterator that) {
+    Iterator(Iterator that) {
       super(that);
       _offset = that.getBlockOffset();
     }
@@ -205,7 +236,7 @@ public class TokenList extends ModelList<ReducedToken> implements /*imports*/ Re
      * @param currentOffset current offset
      * @return new offset
      */
-    private int _moveRight(int count, int currentOffset) {
+    int _moveRight(int count, int currentOffset) {
       // Standardize initial position
       if (atStart()) {
         currentOffset = 0;
@@ -246,7 +277,7 @@ public class TokenList extends ModelList<ReducedToken> implements /*imports*/ Re
      * @param currentOffset current offset
      * @return new offset
      */
-    private int _moveLeft(int count, int currentOffset) {
+    int _moveLeft(int count, int currentOffset) {
       
       // Standardize initial position, eliminating 0 offset
       if (atEnd()) {
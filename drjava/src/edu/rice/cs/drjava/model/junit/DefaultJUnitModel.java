@@ -469,7 +469,7 @@ public class DefaultJUnitModel implements JUnitModel, JUnitModelCallback {
               File sourceFile = new File(sourceFileName);
               classNames.add(className.value());
               files.add(sourceFile);
-              _log.log("Class " + className + "added to classNames.   File " + sourceFileName + " added to files.");
+              _log.log("Class ", className, "added to classNames.   File ", sourceFileName, " added to files.");
             }
             catch(IOException e) { /* ignore it; can't read class file */ }
           }
@@ -499,7 +499,7 @@ public class DefaultJUnitModel implements JUnitModel, JUnitModelCallback {
         synchronized(_compilerModel.getCompilerLock()) {
           // synchronized over _compilerModel to ensure that compilation and junit testing are mutually exclusive.
           /** Set up junit test suite on slave JVM; get TestCase classes forming that suite */
-          _log.log("Calling findTestClasses(" + classNames + ", " + files + " ... )");
+          _log.log("Calling findTestClasses(", classNames, ", ", files, " ... )");
           List<String> tests = _jvm.findTestClasses(classNames, files, coverageMetadata).unwrap(null);
 
           if (tests == null || tests.isEmpty()) {
@@ -511,7 +511,8 @@ public class DefaultJUnitModel implements JUnitModel, JUnitModelCallback {
         try {
           _notifyJUnitStarted(); 
           // The false return value could be changed to an exception.
-          boolean testsPresent = _jvm.runTestSuite();
+          int threads = edu.rice.cs.drjava.DrJava.getConfig().getSetting(OptionConstants.JUNIT_THREADS).intValue();
+          boolean testsPresent = _jvm.runTestSuite(threads);
           if (!testsPresent) {
               throw new RemoteException("No unit test classes were passed to the slave JVM");
           }
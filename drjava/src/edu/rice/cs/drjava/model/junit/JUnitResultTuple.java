@@ -37,16 +37,17 @@
 package edu.rice.cs.drjava.model.junit;
 
 import java.util.Map;
-import java.util.List;
 
 import java.io.Serializable;
 
+import edu.rice.cs.drjava.model.coverage.LineCoverage;
+
 public class JUnitResultTuple implements Serializable {
 
     private boolean retval;
-    private Map<String, List<String>> lineColors;
+    private Map<String, LineCoverage> lineColors;
 
-    public JUnitResultTuple(boolean retval, Map<String, List<String>> lineColors) {
+    public JUnitResultTuple(boolean retval, Map<String, LineCoverage> lineColors) {
         this.retval = retval;
         this.lineColors = lineColors;  
     }
@@ -55,7 +56,7 @@ public class JUnitResultTuple implements Serializable {
         return this.retval;
     }
 
-    public Map<String, List<String>> getLineColors() {
+    public Map<String, LineCoverage> getLineColors() {
         return this.lineColors;
     }
 }
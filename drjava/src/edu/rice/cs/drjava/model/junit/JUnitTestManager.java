@@ -53,7 +53,11 @@ import java.util.Map;
 import java.util.Enumeration;
 import java.util.Arrays;
 
+import edu.rice.cs.drjava.model.coverage.CoverageAnalysisCache;
 import edu.rice.cs.drjava.model.coverage.CoverageMetadata;
+import edu.rice.cs.drjava.model.coverage.CoverageRuntime;
+import edu.rice.cs.drjava.model.coverage.InstrumentedClassCache;
+import edu.rice.cs.drjava.model.coverage.LineCoverage;
 import edu.rice.cs.drjava.model.coverage.ReportGenerator;
 
 import edu.rice.cs.drjava.model.repl.newjvm.ClassPathManager;
@@ -72,6 +76,7 @@ import edu.rice.cs.plt.reflect.EmptyClassLoader;
 import static edu.rice.cs.plt.debug.DebugUtil.error;
 
 import junit.framework.JUnit4TestAdapter;
+import junit.framework.JUnit4TestAdapterCache;
 
 import junit.framework.AssertionFailedError;
 
@@ -81,15 +86,12 @@ import junit.framework.TestSuite;
 import junit.framework.TestFailure;
 import junit.framework.JUnit4TestCaseFacade;
 
-import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.IBundleCoverage;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
 
-import org.jacoco.core.instr.Instrumenter;
 import org.jacoco.core.runtime.IRuntime;
-import org.jacoco.core.runtime.LoggerRuntime;
 import org.jacoco.core.runtime.RuntimeData;
 
 /** Runs in the InterpreterJVM. Runs tests given a classname and formats the results into a (serializable) array of 
@@ -123,6 +125,8 @@ public class JUnitTestManager {
   private IRuntime _runtime = null;
   private RuntimeData _myData = null;
   private List<String> _nonTestClassNames = null;
+  /** The coverage analyses of earlier test runs; reused for classes whose code and execution data are unchanged. */
+  private final CoverageAnalysisCache _analysisCache = new CoverageAnalysisCache();
   private JUnitResultTuple _finalResult = new JUnitResultTuple(false, null);
   
   /** Standard constructor 
@@ -172,9 +176,12 @@ public class JUnitTestManager {
     else {
       // create a Jacoco runtime, output directory, report descriptors, and loader
       _coverageOutdir = coverageMetadata.getOutdirPath();
-      _runtime = new LoggerRuntime();
+      CoverageRuntime runtime = new CoverageRuntime();
+      _runtime = runtime;
       _myData = new RuntimeData();
-      loader = new JacocoClassLoader(_classPathManager.getClassPath(), new Instrumenter(_runtime), defaultLoader);
+      InstrumentedClassCache instrumenter =
+        new InstrumentedClassCache(InstrumentedClassCache.defaultDirectory(), runtime);
+      loader = new JacocoClassLoader(_classPathManager.getClassPath(), instrumenter, defaultLoader);
       _nonTestClassNames = new ArrayList(classNames.size());
       try { _runtime.startup(_myData); }
       catch (Exception e) {
@@ -199,16 +206,16 @@ public class JUnitTestManager {
       String cName = pair.first();
       try {
         Class<?> possibleTest = _testRunner.loadPossibleTest(cName); 
-        _log.log("Exploring possibleTest " + possibleTest);
+        _log.log("Exploring possibleTest ", possibleTest);
         if (_isJUnitTest(possibleTest)) {
           _testClassNames.add(cName);
           _testFiles.add(pair.second());
-          Test test = new JUnit4TestAdapter(possibleTest);
+          Test test = makeTest(possibleTest);
           _suite.addTest(test); 
-          _log.log("Adding test " + test + " to test suite"); 
+          _log.log("Adding test ", test, " to test suite"); 
         } else { // cName is a program class that is not a test class
           _nonTestClassNames.add(cName);
-          _log.log("adding " + cName + " to nonTestClassNames");
+          _log.log("adding ", cName, " to nonTestClassNames");
         }
       }
       catch (ClassNotFoundException e) { error.log(e); }
@@ -220,25 +227,27 @@ public class JUnitTestManager {
     }
     
 //    debug.logEnd("result", _testClassNames);
-    _log.log("accumulated non test class names: " + _nonTestClassNames);
-    _log.log("returning: " + _testClassNames);
+    _log.log("accumulated non test class names: ", _nonTestClassNames);
+    _log.log("returning: ", _testClassNames);
     
     return _testClassNames;
   }
   
   /** Runs the pending test suite set up by the preceding call to findTestClasses.  Runs in a single auxiliary thread,
     * so no need for explicit synchronization.
+    * @param threads the number of threads on which the test classes are run concurrently; at most 1 runs them one
+    *        after another
     * @return false if no test suite (even an empty one) has been set up
     */
-  public boolean runTestSuite() {
+  public boolean runTestSuite(int threads) {
     
-    _log.log("runTestSuite() called");
+    if (_log.isEnabled()) { _log.log("runTestSuite(", threads, ") called"); }
     
     if (_testClassNames == null || _testClassNames.isEmpty()) {
       _finalResult = new JUnitResultTuple(false, null);
       return false;
     }
-    Map<String, List<String>> lineColors = null;
+    Map<String, LineCoverage> lineColors = null;
     _finalResult = new JUnitResultTuple(true, null);
     
 //    _log.log("runTestSuite() in SlaveJVM called");
@@ -246,8 +255,9 @@ public class JUnitTestManager {
     /* Declare fault array for amalgamating errors and failures */
     JUnitError[] faults = new JUnitError[0];
     try {
-      _log.log("Calling _testRunner.runSuite(" + _suite + ")");
-      TestResult result = _testRunner.runSuite(_suite);
+      _log.log("Calling _testRunner.runSuite(", _suite, ")");
+      TestResult result = (threads > 1 && _suite.testCount() > 1) ? _testRunner.runSuite(_suite, threads) 
+                                                                  : _testRunner.runSuite(_suite);
       
       /* A fault is either an error or a failure. */
       int faultCount = result.errorCount() + result.failureCount();
@@ -279,7 +289,7 @@ public class JUnitTestManager {
       _log.log("Testing doCoverage");
       
       if (_runtime != null) { /* doCoverage was true */
-        _log.log("Analyzing coverage data for " + _nonTestClassNames);
+        _log.log("Analyzing coverage data for ", _nonTestClassNames);
 
         /* Collect session info (including which code was executed) */
         final ExecutionDataStore _executionDataStore = new ExecutionDataStore();
@@ -290,17 +300,18 @@ public class JUnitTestManager {
         
         /** Together with the original class definitions we can calculate coverage information. */
         final CoverageBuilder coverageBuilder = new CoverageBuilder();
-        final Analyzer analyzer = new Analyzer(_executionDataStore, coverageBuilder);
         URLClassLoader urlCL = newURLLoader();
         
         String cName = null;
         try {
           for (int j = 0; j < _nonTestClassNames.size(); j++) {
             cName = _nonTestClassNames.get(j);
-            InputStream is = urlCL.getResource(cName + ".class").openStream();
-            _log.log("Constructed InputStream " + is + " for class " + cName);
-            analyzer.analyzeClass(is, cName);
+            InputStream is = urlCL.getResource(cName.replace('.', '/') + ".class").openStream();
+            _log.log("Constructed InputStream ", is, " for class ", cName);
+            _analysisCache.analyzeClass(IOUtil.toByteArray(is), cName, _executionDataStore, coverageBuilder);
           } 
+          _log.log("Coverage analysis cache: " + _analysisCache.getHits() + " hits, " + 
+                   _analysisCache.getMisses() + " misses");
         } catch(Exception e) {
           throw new UnexpectedException(e, "Coverage analysis threw this exception while processing class " + cName);
         }
@@ -312,14 +323,14 @@ public class JUnitTestManager {
         
         _log.log("Generating test coverage");
         IBundleCoverage bundleCoverage = coverageBuilder.getBundle("Coverage Summary");
-        ReportGenerator rg = new ReportGenerator(_coverageOutdir, coverageBuilder);
+        ReportGenerator rg = new ReportGenerator(_coverageOutdir, coverageBuilder, _analysisCache);
         _log.log("Determining project root");
-        _log.log("getProjectCP() = " + _classPathManager.getProjectFilesCP());
+        _log.log("getProjectCP() = ", _classPathManager.getProjectFilesCP());
         File f = _classPathManager.getProjectFilesCP().iterator().next();
         if (! f.exists()) _log.log("****** Project root does not exist!");
-        _log.log("Creating coverage report for code base rooted at " + f);
+        _log.log("Creating coverage report for code base rooted at ", f);
         rg.createReport(bundleCoverage, _executionDataStore, sessionInfos, f);
-        lineColors = rg.getAllLineColors();
+        lineColors = rg.getAllLineCoverage();
         _finalResult = new JUnitResultTuple(true, lineColors);
         
       } else {
@@ -335,7 +346,7 @@ public class JUnitTestManager {
       faults = new JUnitError[] { 
         new JUnitError(null, -1, -1, e.getMessage(), false, "", "", e.toString(), e.getStackTrace())
       };
-      _log.log("Slave JVM: testSuite ended with faults:" + Arrays.toString(faults));
+      _log.log("Slave JVM: testSuite ended with faults:", Arrays.toString(faults));
       _reset();
       _jmc.testSuiteEnded(faults);
     }
@@ -358,7 +369,7 @@ public class JUnitTestManager {
     * @return true iff the given class is an instance of junit.framework.Test
     */
   private boolean _isJUnitTest(Class<?> c) {
-    _log.log("Testing class " + c + " to determine if it is a JUnit test class");
+    _log.log("Testing class ", c, " to determine if it is a JUnit test class");
 
     // test first for JUnit 4 annotated test methods
     for (Method method : c.getDeclaredMethods()) {
@@ -371,6 +382,15 @@ public class JUnitTestManager {
     return (Test.class.isAssignableFrom(c));
   }
   
+  /** Wraps the given test class in a JUnit4TestAdapter with a cache of its own.  The default cache is a single
+    * unsynchronized map, and the test classes of a run may be run concurrently.
+    * @param testClass the test class
+    * @return the test running the tests of the class
+    */
+  static Test makeTest(Class<?> testClass) {
+    return new JUnit4TestAdapter(testClass, new JUnit4TestAdapterCache());
+  }
+  
   /** Constructs a new JUnitError from a TestFailure
     * @param failure A given TestFailure
     * @param classNames The classes that were used for this test suite
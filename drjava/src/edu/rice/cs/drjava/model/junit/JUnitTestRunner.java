@@ -36,6 +36,11 @@
 
 package edu.rice.cs.drjava.model.junit;
 
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.*;
+
 import junit.runner.*;
 import junit.framework.*;
 
@@ -65,6 +70,8 @@ public class JUnitTestRunner extends BaseTestRunner {
   /** The current number of failures in the result. */
   private int _failureCount;
   
+  /** Serializes the callbacks of tests running concurrently. */
+  private final Object _callbackLock = new Object();
   
 
   /** Standard constructor. 
@@ -93,9 +100,93 @@ public class JUnitTestRunner extends BaseTestRunner {
     return _result;
   }
   
+  /** Runs the tests of the given suite, typically one per test class, concurrently on the given number of threads.
+    * Each test is reported to the callback as it starts and ends; the faults are added to the result in the order of
+    * the suite, as if the tests had run one after another.
+    * @param suite the suite whose tests are run
+    * @param threads the number of threads
+    * @return the merged result
+    */
+  public synchronized TestResult runSuite(TestSuite suite, int threads) {
+    _errorCount = 0;
+    _failureCount = 0;
+    MergedResult merged = new MergedResult();
+    _result = merged;
+    _jmc.testSuiteStarted(suite.countTestCases());
+    
+    final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+    int poolSize = Math.max(1, Math.min(threads, suite.testCount()));
+    ExecutorService workers = Executors.newFixedThreadPool(poolSize, new ThreadFactory() {
+      private int _count = 0;
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "JUnit worker " + (++_count));
+        t.setDaemon(true);
+        t.setContextClassLoader(contextLoader);
+        return t;
+      }
+    });
+    List<Future<TestResult>> results = new ArrayList<Future<TestResult>>();
+    for (int i = 0; i < suite.testCount(); i++) {
+      final Test test = suite.testAt(i);
+      results.add(workers.submit(new Callable<TestResult>() {
+        public TestResult call() {
+          TestResult result = new TestResult();
+          result.addListener(new WorkerListener());
+          test.run(result);
+          return result;
+        }
+      }));
+    }
+    workers.shutdown();
+    
+    try {
+      for (Future<TestResult> f : results) { merged.merge(f.get()); }
+    }
+    catch (InterruptedException e) {
+      workers.shutdownNow();
+      throw new UnexpectedException(e);
+    }
+    catch (ExecutionException e) { throw new UnexpectedException(e.getCause()); }
+    return _result;
+  }
+  
+  /** The result of a concurrent run, accumulating the results of the tests run by the worker threads. */
+  private static class MergedResult extends TestResult {
+    /** Adds the run count and the faults of the given result to this one.
+      * @param r the result of a test run by a worker thread
+      */
+    public synchronized void merge(TestResult r) {
+      fRunTests += r.runCount();
+      for (Enumeration<TestFailure> e = r.errors(); e.hasMoreElements(); ) {
+        TestFailure error = e.nextElement();
+        addError(error.failedTest(), error.thrownException());
+      }
+      for (Enumeration<TestFailure> e = r.failures(); e.hasMoreElements(); ) {
+        TestFailure failure = e.nextElement();
+        addFailure(failure.failedTest(), (AssertionFailedError) failure.thrownException());
+      }
+    }
+  }
+  
+  /** Reports the tests run by one worker thread to the callback. */
+  private class WorkerListener implements TestListener {
+    private boolean _error = false;
+    private boolean _failure = false;
+    public void startTest(Test test) {
+      _error = false;
+      _failure = false;
+      synchronized(_callbackLock) { _jmc.testStarted(test.toString()); }
+    }
+    public void addError(Test test, Throwable t) { _error = true; }
+    public void addFailure(Test test, AssertionFailedError t) { _failure = true; }
+    public void endTest(Test test) {
+      synchronized(_callbackLock) { _jmc.testEnded(test.toString(), ! (_error || _failure), _failure); }
+    }
+  }
+  
   public Class<?> loadPossibleTest(String className) throws ClassNotFoundException {
     Class<?> c =_loader.loadClass(className);
-    _log.log("Test class " + c + " loaded");
+    _log.log("Test class ", c, " loaded");
     return c;
   }
   
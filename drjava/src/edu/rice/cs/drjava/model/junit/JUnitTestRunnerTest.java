@@ -0,0 +1,179 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.junit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import junit.framework.*;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.util.classloader.ClassFileError;
+
+/** Tests running test classes concurrently with JUnitTestRunner.
+  * @version $Id$
+  */
+public final class JUnitTestRunnerTest extends DrJavaTestCase {
+  
+  public static class Passing extends TestCase {
+    public void testOne() { }
+    public void testTwo() { }
+  }
+  
+  public static class Failing extends TestCase {
+    public void testFails() throws InterruptedException { 
+      Thread.sleep(50);  // end after the other classes
+      fail("expected"); 
+    }
+  }
+  
+  public static class Erring extends TestCase {
+    public void testErrs() { throw new IllegalStateException("expected"); }
+    public void testFails() { fail("also expected"); }
+  }
+  
+  public static class FirstJUnit4 {
+    @org.junit.Test public void one() { }
+    @org.junit.Test public void two() { }
+    @org.junit.Test public void fails() { org.junit.Assert.fail("expected"); }
+  }
+  
+  public static class SecondJUnit4 {
+    @org.junit.Test public void one() throws InterruptedException { Thread.sleep(20); }
+    @org.junit.Test public void errs() { throw new IllegalStateException("expected"); }
+  }
+  
+  public static class ThirdJUnit4 {
+    @org.junit.Test public void one() { }
+    @org.junit.Test public void two() { }
+    @org.junit.Test public void three() { }
+    @org.junit.Ignore @org.junit.Test public void ignored() { fail("ignored"); }
+  }
+  
+  /** Records the callbacks. */
+  private static class Callback implements JUnitModelCallback {
+    final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+    final List<String> ended = Collections.synchronizedList(new ArrayList<String>());
+    volatile int suiteSize = -1;
+    public void nonTestCase(boolean isTestAll, boolean didCompileFail) { }
+    public void classFileError(ClassFileError e) { }
+    public void testSuiteStarted(int numTests) { suiteSize = numTests; }
+    public void testStarted(String testName) { started.add(testName); }
+    public void testEnded(String testName, boolean wasSuccessful, boolean causedError) { 
+      ended.add(testName + (wasSuccessful ? "" : " faulty"));
+    }
+    public void testSuiteEnded(JUnitError[] errors) { }
+    public File getFileForClassName(String className) { return null; }
+    public Iterable<File> getClassPath() { return Collections.<File>emptyList(); }
+    public void junitJVMReady() { }
+  }
+  
+  private static TestSuite _makeSuite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(new TestSuite(Failing.class));
+    suite.addTest(new TestSuite(Passing.class));
+    suite.addTest(new TestSuite(Erring.class));
+    return suite;
+  }
+  
+  /** @return a suite of JUnit 4 test classes, wrapped as they are when DrJava runs them */
+  private static TestSuite _makeJUnit4Suite() {
+    TestSuite suite = new TestSuite();
+    suite.addTest(JUnitTestManager.makeTest(FirstJUnit4.class));
+    suite.addTest(JUnitTestManager.makeTest(SecondJUnit4.class));
+    suite.addTest(JUnitTestManager.makeTest(ThirdJUnit4.class));
+    return suite;
+  }
+  
+  private static List<String> _describe(Enumeration<TestFailure> faults) {
+    List<String> result = new ArrayList<String>();
+    while (faults.hasMoreElements()) { result.add(faults.nextElement().toString()); }
+    return result;
+  }
+  
+  /** Tests that a concurrent run reports every test and merges the faults in the order of a sequential run. */
+  public void testConcurrentRunMatchesSequentialRun() {
+    Callback sequentialCallback = new Callback();
+    TestResult sequential = 
+      new JUnitTestRunner(sequentialCallback, getClass().getClassLoader()).runSuite(_makeSuite());
+    Callback concurrentCallback = new Callback();
+    TestResult concurrent = 
+      new JUnitTestRunner(concurrentCallback, getClass().getClassLoader()).runSuite(_makeSuite(), 3);
+    
+    assertEquals("errors", _describe(sequential.errors()), _describe(concurrent.errors()));
+    assertEquals("failures", _describe(sequential.failures()), _describe(concurrent.failures()));
+    assertEquals(1, concurrent.errorCount());
+    assertEquals(2, concurrent.failureCount());
+    assertEquals(5, sequential.runCount());
+    assertEquals(5, concurrent.runCount());
+    
+    assertEquals(5, concurrentCallback.suiteSize);
+    assertEquals(5, concurrentCallback.started.size());
+    List<String> sequentialEnded = new ArrayList<String>(sequentialCallback.ended);
+    List<String> concurrentEnded = new ArrayList<String>(concurrentCallback.ended);
+    Collections.sort(sequentialEnded);
+    Collections.sort(concurrentEnded);
+    assertEquals(sequentialEnded, concurrentEnded);
+  }
+  
+  /** Tests a concurrent run of JUnit 4 test classes, which are run through adapters. */
+  public void testConcurrentRunOfJUnit4Classes() {
+    Callback sequentialCallback = new Callback();
+    TestResult sequential = 
+      new JUnitTestRunner(sequentialCallback, getClass().getClassLoader()).runSuite(_makeJUnit4Suite());
+    Callback concurrentCallback = new Callback();
+    TestResult concurrent = 
+      new JUnitTestRunner(concurrentCallback, getClass().getClassLoader()).runSuite(_makeJUnit4Suite(), 3);
+    
+    assertEquals("errors", _describe(sequential.errors()), _describe(concurrent.errors()));
+    assertEquals("failures", _describe(sequential.failures()), _describe(concurrent.failures()));
+    assertEquals(2, concurrent.errorCount() + concurrent.failureCount());
+    assertEquals(sequential.runCount(), concurrent.runCount());
+    assertEquals(8, concurrent.runCount());
+    
+    assertEquals(9, concurrentCallback.suiteSize);
+    assertEquals(8, concurrentCallback.started.size());
+    List<String> sequentialEnded = new ArrayList<String>(sequentialCallback.ended);
+    List<String> concurrentEnded = new ArrayList<String>(concurrentCallback.ended);
+    Collections.sort(sequentialEnded);
+    Collections.sort(concurrentEnded);
+    assertEquals(sequentialEnded, concurrentEnded);
+  }
+}
@@ -81,9 +81,14 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
     // Set whether to allow "assert" statements to be run in the remote JVM.
     Boolean allow = DrJava.getConfig().getSetting(OptionConstants.RUN_WITH_ASSERT);
     _jvm.setAllowAssertions(allow.booleanValue());
+    _document.setMaxLength(DrJava.getConfig().getSetting(OptionConstants.INTERACTIONS_MAX_LENGTH).intValue());
     
     // Add option listeners  // WHEN ARE THESE EVER REMOVED?
     DrJava.getConfig().addOptionListener(OptionConstants.HISTORY_MAX_SIZE, _document.getHistoryOptionListener());
+    DrJava.getConfig().addOptionListener(OptionConstants.INTERACTIONS_MAX_LENGTH,
+                                         new OptionListener<Integer>() {
+      public void optionChanged(OptionEvent<Integer> oce) { _document.setMaxLength(oce.value.intValue()); }
+    });
     DrJava.getConfig().addOptionListener(OptionConstants.RUN_WITH_ASSERT,
                                          new OptionListener<Boolean>() {
       public void optionChanged(OptionEvent<Boolean> oce) {
@@ -106,14 +111,14 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
   public void replSystemErrPrint(String s) {
     super.replSystemErrPrint(s);
     _model.systemErrPrint(s);
-    _log.log("Printing string '" + s + "'");
+    _log.log("Printing string '", s, "'");
   }
   
   /** Returns a line of text entered by the user at the equivalent of System.in.  This method may be safely called
     * from outside the event thread. */
   public String getConsoleInput() { 
     String s = super.getConsoleInput();
-    _log.log("Returning '" + s + "' as console input");
+    _log.log("Returning '", s, "' as console input");
     _model.systemInEcho(s);
     return s; 
   }
@@ -141,7 +146,7 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
       public void run() {
         String output = "JVM failed to start.  Make sure a firewall is not blocking " +
           StringOps.NEWLINE + "inter-process communication.  See the console tab for details." + StringOps.NEWLINE;
-        _log.log("inserted '" + output + "' before prompt");
+        _log.log("inserted '", output, "' before prompt");
         _document.insertBeforeLastPrompt(output, InteractionsDocument.ERROR_STYLE);
          // Print the exception to the console
         _model.systemErrPrint(StringOps.getStackTrace(e));  // redundantly moves code to event thread
@@ -155,7 +160,7 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
   public void interpreterReady(File wd) {
     _model.resetInteractionsClassPath();  // Done here rather than in the superclass because _model is available here.
     super.interpreterReady(wd);
-    _log.log("****Event: interpreterReady(" + wd +") called");
+    _log.log("****Event: interpreterReady(", wd, ") called");
   }
   
   /** In the event thread, notifies listeners that an interaction has started. */
@@ -188,7 +193,7 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
   protected void _notifyInterpreterChanged(final boolean inProgress) {
     Utilities.invokeLater(new Runnable() { public void run() { 
       _notifier.interpreterChanged(inProgress); 
-      _log.log("****Event: the interpreter was changed; inProgess = " + inProgress);
+      _log.log("****Event: the interpreter was changed; inProgess = ", inProgress);
     } });
   }
   
@@ -206,7 +211,7 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
 //    System.out.println("Asynchronously notifying interpreterReady event listeners");  // DEBUG
     Utilities.invokeLater(new Runnable() { public void run() { 
       _notifier.interpreterReady(wd); 
-      _log.log("****Event: the interpreter is ready with wd " + wd);
+      _log.log("****Event: the interpreter is ready with wd ", wd);
     } });
   }
   
@@ -216,7 +221,7 @@ public class DefaultInteractionsModel extends RMIInteractionsModel {
   protected void _notifyInterpreterExited(final int status) {
     Utilities.invokeLater(new Runnable() { public void run() { 
       _notifier.interpreterExited(status); 
-      _log.log("****Event: the interpreter exited unexpectedly with status = " + status);
+      if (_log.isEnabled()) { _log.log("****Event: the interpreter exited unexpectedly with status = ", status); }
     } });
   }
   
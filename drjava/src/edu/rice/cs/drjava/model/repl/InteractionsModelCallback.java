@@ -51,6 +51,11 @@ public interface InteractionsModelCallback {
    */
   public int getDebugPort() throws IOException;
   
+  /** Sets the port number to use for debugging the interactions JVM.
+    * @param port Port to use to debug the interactions JVM
+    */
+  public void setDebugPort(int port);
+  
   /** Called when the repl prints to System.out.
     * @param s String to print
     */
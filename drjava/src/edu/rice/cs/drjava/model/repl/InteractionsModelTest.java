@@ -639,6 +639,26 @@ public final class InteractionsModelTest extends DrJavaTestCase {
     _log.log("testSetChangeInputListener ended");
   }
   
+  /** Tests that getVariablesToString returns the value of each variable in order. */
+  public void testGetVariablesToString() {
+    InteractionsModel model = new TestInteractionsModel(_adapter) {
+      public Pair<String,String> getVariableToString(String var) {
+        if (var.equals("undefined")) { return new Pair<String,String>(null, null); }
+        return new Pair<String,String>(var + "Value", "int");
+      }
+    };
+    List<String> vars = new ArrayList<String>();
+    vars.add("x");
+    vars.add("undefined");
+    vars.add("y");
+    List<Pair<String,String>> result = model.getVariablesToString(vars);
+    assertEquals(3, result.size());
+    assertEquals(new Pair<String,String>("xValue", "int"), result.get(0));
+    assertEquals(new Pair<String,String>(null, null), result.get(1));
+    assertEquals(new Pair<String,String>("yValue", "int"), result.get(2));
+    assertEquals(0, model.getVariablesToString(new ArrayList<String>()).size());
+  }
+  
   /** Tests that the interactions history is stored correctly. See bug # 992455
     * @throws Exception if something goes wrong
     */
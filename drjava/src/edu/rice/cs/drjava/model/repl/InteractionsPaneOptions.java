@@ -57,4 +57,8 @@ public class InteractionsPaneOptions extends Options {
   private volatile boolean _requireVariableType = false;
   public boolean requireVariableType() { return _requireVariableType; }
   public void setRequireVariableType(boolean require) { _requireVariableType = require; }
+  
+  private volatile boolean _compileLoops = false;
+  public boolean compileLoops() { return _compileLoops; }
+  public void setCompileLoops(boolean compile) { _compileLoops = compile; }
 }
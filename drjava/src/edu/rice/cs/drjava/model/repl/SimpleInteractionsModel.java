@@ -159,6 +159,9 @@ public class SimpleInteractionsModel extends InteractionsModel {
   /** @param require true if the interpreter requires variable declarations to include an explicit type. */
   public void setRequireVariableType(boolean require) { _interpreterOptions.setRequireVariableType(require); }
   
+  /** @param compile true if the interpreter compiles loops to bytecode rather than interpreting them. */
+  public void setCompileLoops(boolean compile) { _interpreterOptions.setCompileLoops(compile); }
+  
   /** Any extra action to perform (beyond notifying listeners) when the interpreter fails to reset.
     * @param t The Throwable thrown by System.exit
     */
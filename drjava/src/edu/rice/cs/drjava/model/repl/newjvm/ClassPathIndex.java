@@ -0,0 +1,66 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.repl.newjvm;
+
+import java.io.File;
+
+import edu.rice.cs.plt.iter.IterUtil;
+import edu.rice.cs.plt.reflect.PathIndex;
+
+/** An index of the classes on a class path, used to decide without a search that a class does not exist.  It is a
+  * view of a {@link PathIndex}, the index that PathClassLoader uses for its lookups, so a jar file on the path is
+  * only read again if it has been modified; jars named by a manifest's Class-Path are followed, as a URLClassLoader
+  * would.  Directories are not listed ahead of time, since their contents change as files are compiled: a lookup
+  * checks each directory for the class file directly, which costs one file system access per directory on the path.
+  * If some jar cannot be read, the index gives up and answers {@code true} for every name.
+  * @version $Id$
+  */
+public class ClassPathIndex {
+  
+  private final PathIndex _index;
+  
+  /** Index the given class path. */
+  public ClassPathIndex(Iterable<? extends File> path) { _index = new PathIndex(IterUtil.<File>snapshot(path)); }
+  
+  /** @return {@code false} if no class with the given binary name is on the path */
+  public boolean mayContain(String className) {
+    return ! _index.isComplete() || _index.contains(className.replace('.', '/') + ".class");
+  }
+  
+  /** @return the number of jar files that were indexed */
+  public int getJarCount() { return _index.jarCount(); }
+}
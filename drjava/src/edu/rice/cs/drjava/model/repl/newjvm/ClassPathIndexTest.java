@@ -0,0 +1,154 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.model.repl.newjvm;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.dynamicjava.symbol.IndexedClassLoader;
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
+import edu.rice.cs.plt.reflect.ReflectUtil;
+
+/** Tests for {@link ClassPathIndex} and the class loaders made by {@link ClassPathManager}.
+  * @version $Id$
+  */
+public final class ClassPathIndexTest extends DrJavaTestCase {
+  private File _tempDir;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    String user = System.getProperty("user.name");
+    _tempDir = IOUtil.createAndMarkTempDirectory("DrJava-test-" + user, "");
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    _tempDir = null;
+    super.tearDown();
+  }
+  
+  /** Write a jar containing (empty) entries with the given names, and a manifest with the given Class-Path. */
+  private File _makeJar(String name, String classPath, String... entries) throws IOException {
+    File f = new File(_tempDir, name);
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (classPath != null) { manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath); }
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(f), manifest);
+    try {
+      for (String e : entries) { out.putNextEntry(new JarEntry(e)); out.closeEntry(); }
+    }
+    finally { out.close(); }
+    return f;
+  }
+  
+  public void testJarsAndDirectories() throws IOException {
+    File jar = _makeJar("a.jar", "b.jar", "p/A.class", "p/A$Inner.class", "Top.class", "p/q/resource.txt",
+                        "META-INF/versions/9/p/Nine.class");
+    _makeJar("b.jar", null, "r/B.class");
+    File dir = new File(_tempDir, "classes");
+    new File(dir, "p").mkdirs();
+    ClassPathIndex index = new ClassPathIndex(IterUtil.make(jar, dir, new File(_tempDir, "missing.jar")));
+    assertEquals(2, index.getJarCount());
+    
+    assertTrue(index.mayContain("p.A"));
+    assertTrue(index.mayContain("p.A$Inner"));
+    assertTrue(index.mayContain("Top"));
+    assertTrue(index.mayContain("p.Nine"));
+    assertTrue("jar from Class-Path", index.mayContain("r.B"));
+    assertFalse(index.mayContain("p.B"));
+    assertFalse(index.mayContain("p.q.resource"));
+    assertFalse(index.mayContain("java.lang.String"));
+    
+    assertFalse(index.mayContain("p.C"));
+    IOUtil.writeStringToFile(new File(dir, "p/C.class"), "");
+    assertTrue("directories are not cached", index.mayContain("p.C"));
+  }
+  
+  public void testUnreadableEntry() throws IOException {
+    File notAJar = new File(_tempDir, "broken.jar");
+    IOUtil.writeStringToFile(notAJar, "not a zip file");
+    ClassPathIndex index = new ClassPathIndex(IterUtil.make(notAJar));
+    assertTrue(index.mayContain("anything.At.All"));
+  }
+  
+  public void testModifiedJar() throws IOException {
+    File jar = _makeJar("a.jar", null, "p/A.class");
+    ClassPathIndex first = new ClassPathIndex(IterUtil.make(jar));
+    assertTrue(first.mayContain("p.A"));
+    long modified = jar.lastModified();
+    _makeJar("a.jar", null, "r/B.class");
+    assertTrue(jar.setLastModified(modified + 2000));
+    ClassPathIndex second = new ClassPathIndex(IterUtil.make(jar));
+    assertFalse(second.mayContain("p.A"));
+    assertTrue(second.mayContain("r.B"));
+    assertTrue("earlier indexes are snapshots", first.mayContain("p.A"));
+  }
+  
+  public void testManagedClassLoader() throws IOException {
+    ClassPathManager cpm = new ClassPathManager(ReflectUtil.SYSTEM_CLASS_PATH);
+    ClassLoader loader = cpm.makeClassLoader(ClassLoader.getSystemClassLoader());
+    assertTrue(loader instanceof IndexedClassLoader);
+    IndexedClassLoader index = (IndexedClassLoader) loader;
+    assertTrue(index.mayLoadClass("java.lang.String"));
+    assertTrue(index.mayLoadClass("java.util.Map$Entry"));
+    assertTrue(index.mayLoadClass(ClassPathIndexTest.class.getName()));
+    assertFalse(index.mayLoadClass("java.lang.NoSuchClass"));
+    assertFalse(index.mayLoadClass("NoSuchClass"));
+    
+    long version = cpm.getVersion();
+    File jar = _makeJar("lib.jar", null, "lib/Lib.class");
+    assertFalse(index.mayLoadClass("lib.Lib"));
+    cpm.addExtraCP(jar);
+    assertTrue(cpm.getVersion() > version);
+    assertTrue(index.mayLoadClass("lib.Lib"));
+    
+    cpm.addClasses(Collections.singletonMap("InMemory", new byte[0]));
+    assertTrue(index.mayLoadClass("InMemory"));
+    
+    // with an unknown parent, nothing can be ruled out
+    IndexedClassLoader unindexed = (IndexedClassLoader) cpm.makeClassLoader(null);
+    assertTrue(unindexed.mayLoadClass("java.lang.NoSuchClass"));
+  }
+}
@@ -37,13 +37,19 @@
 package edu.rice.cs.drjava.model.repl.newjvm;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
 import java.lang.ClassLoader;
 
+import edu.rice.cs.dynamicjava.symbol.IndexedClassLoader;
 import edu.rice.cs.plt.io.IOUtil;
 import edu.rice.cs.plt.iter.IterUtil;
 import edu.rice.cs.plt.lambda.Lambda;
 import edu.rice.cs.plt.reflect.PathClassLoader;
+import edu.rice.cs.plt.reflect.ReflectUtil;
 
 /** Maintains a dynamic class path, allowing entries to be incrementally added in the appropriate
   * place in the list.  This class is used in the interpreter JVM, and may be accessed concurrently.
@@ -58,6 +64,8 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   private final LinkedList<File> _projectFilesCP;  /* The open project files. */
   private final LinkedList<File> _externalFilesCP; /* The open external files. */
   private final LinkedList<File> _extraCP;         /* The extra preferences class path. */
+  private final HashMap<String, byte[]> _classes;  /* Class files compiled in memory, by binary class name. */
+  private long _version;                           /* Incremented whenever the class path or _classes changes. */
   // these can be accessed concurrently:
   
   private final Iterable<File> _fullPath;
@@ -68,6 +76,8 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
     _projectFilesCP = new LinkedList<File>();
     _externalFilesCP = new LinkedList<File>();
     _extraCP = new LinkedList<File>();
+    _classes = new HashMap<String, byte[]>();
+    _version = 0;
     // conversions to SizedIterables are necessary to support 1.4 compatibility
     Iterable<Iterable<File>> allPaths =
       IterUtil.<Iterable<File>>make(IterUtil.asSizedIterable(_projectCP),
@@ -98,7 +108,7 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   /** Adds the entry to the front of the project classpath (this is the classpath specified in project properties)
     * @param f the file to be added to the classpath
     */
-  public synchronized void addProjectCP(File f) { _projectCP.addFirst(f); updateProperty(); }
+  public synchronized void addProjectCP(File f) { _projectCP.addFirst(f); _version++; updateProperty(); }
   
   public synchronized Iterable<File> getProjectCP() { return IterUtil.snapshot(_projectCP); }
   
@@ -108,6 +118,7 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   public synchronized void addBuildDirectoryCP(File f) {
     _buildCP.remove(f); // eliminate duplicates
     _buildCP.addFirst(f);
+    _version++;
     updateProperty();
   }
   
@@ -119,6 +130,7 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   public synchronized void addProjectFilesCP(File f) {
     _projectFilesCP.remove(f); // eliminate duplicates
     _projectFilesCP.addFirst(f);
+    _version++;
     updateProperty();
   }
   
@@ -130,6 +142,7 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   public synchronized void addExternalFilesCP(File f) {
     _externalFilesCP.remove(f); // eliminate duplicates
     _externalFilesCP.addFirst(f);
+    _version++;
     updateProperty();
   }
   
@@ -141,11 +154,23 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
   public synchronized void addExtraCP(File f) {
     _extraCP.remove(f); // eliminate duplicates
     _extraCP.addFirst(f);
+    _version++;
     updateProperty();
   }
   
   public Iterable<File> getExtraCP() { return IterUtil.snapshot(_extraCP); }
   
+  /** Adds class files that were compiled in memory.  They take precedence over the class path; a class file for a 
+    * class added before is replaced.  Classes that have already been loaded are not affected.
+    * @param classes the class files, by binary class name
+    */
+  public synchronized void addClasses(Map<String, byte[]> classes) { _classes.putAll(classes); _version++; }
+  
+  /** @return a number that is incremented whenever the class path or the set of in-memory classes changes */
+  public synchronized long getVersion() { return _version; }
+  
+  private synchronized byte[] _getClassBytes(String name) { return _classes.get(name); }
+  
   /** Create a new class loader based on the given path.  The loader's path is dynamically updated
     * as changes are made in the ClassPathManager.  Each loader returned by this method will
     * have its own set of loaded classes, and will only share those classes that are loaded
@@ -156,7 +181,73 @@ public class ClassPathManager implements Lambda<ClassLoader, ClassLoader> {
     */
   public synchronized ClassLoader makeClassLoader(ClassLoader parent) {
     updateProperty();
-    return new PathClassLoader(parent, _fullPath);
+    return new ManagedClassLoader(parent);
+  }
+  
+  /** The loader for the Java platform's own classes (the extension class loader before Java 9). */
+  private static final ClassLoader PLATFORM_LOADER = ClassLoader.getSystemClassLoader().getParent();
+  
+  /** Names that are known not to be platform classes; the platform does not change while the JVM runs. */
+  private static final Set<String> PLATFORM_MISSES = new HashSet<String>();
+  private static final int MAX_PLATFORM_MISSES = 10000;
+  
+  private static boolean _isPlatformClass(String name) {
+    synchronized(PLATFORM_MISSES) { if (PLATFORM_MISSES.contains(name)) { return false; } }
+    String resource = name.replace('.', '/') + ".class";
+    boolean found = (PLATFORM_LOADER == null) ? Object.class.getResource("/" + resource) != null
+                                              : PLATFORM_LOADER.getResource(resource) != null;
+    if (! found) {
+      synchronized(PLATFORM_MISSES) {
+        if (PLATFORM_MISSES.size() >= MAX_PLATFORM_MISSES) { PLATFORM_MISSES.clear(); }
+        PLATFORM_MISSES.add(name);
+      }
+    }
+    return found;
+  }
+  
+  /** A class loader over {@code _fullPath} that also defines the in-memory classes.  Its index of the path is rebuilt
+    * only when the manager's version changes, rather than after comparing the path before each lookup.  When its
+    * parent is the system class loader, every class it can load is either a platform class, an in-memory class, or
+    * on the full path or the system class path, so it can rule out most missing classes using a 
+    * {@link ClassPathIndex}, which is also rebuilt when the manager's version changes.  Both indexes are PathIndexes,
+    * so a jar on both paths is read once.
+    */
+  private class ManagedClassLoader extends PathClassLoader implements IndexedClassLoader {
+    private final boolean _indexed;
+    private ClassPathIndex _index;
+    private long _indexVersion;
+    
+    public ManagedClassLoader(ClassLoader parent) {
+      super(parent, _fullPath);
+      _indexed = (parent == ClassLoader.getSystemClassLoader());
+      _index = null;
+    }
+    
+    @Override 
+    protected long pathVersion() { return getVersion(); }
+    
+    @Override 
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = _getClassBytes(name);
+      if (bytes == null) { return super.findClass(name); }
+      Class<?> result = defineClass(name, bytes, 0, bytes.length);
+      definePackageForClass(name);
+      return result;
+    }
+    
+    public boolean mayLoadClass(String name) {
+      if (! _indexed || _getClassBytes(name) != null || findLoadedClass(name) != null) { return true; }
+      return _getIndex().mayContain(name) || _isPlatformClass(name);
+    }
+    
+    private synchronized ClassPathIndex _getIndex() {
+      long version = getVersion();
+      if (_index == null || version != _indexVersion) {
+        _index = new ClassPathIndex(IterUtil.compose(_fullPath, ReflectUtil.SYSTEM_CLASS_PATH));
+        _indexVersion = version;
+      }
+      return _index;
+    }
   }
   
   /** Lambda value method.  In DrJava usage, parent is often null. */
@@ -45,7 +45,7 @@ import java.rmi.*;
 //  (This class runs in a different JVM, and will not share the config object)
 
 
-import edu.rice.cs.util.OutputStreamRedirector;
+import edu.rice.cs.util.BufferedOutputStreamRedirector;
 import edu.rice.cs.util.InputStreamRedirector;
 import edu.rice.cs.util.UnexpectedException;
 import edu.rice.cs.util.classloader.ClassFileError;
@@ -113,6 +113,11 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
   /** Remote reference to the MainJVM class in DrJava's primary JVM.  Assigned ONLY once. */
   private volatile MainJVMRemoteI _mainJVM;
   
+  /** The streams installed as System.out and System.err, which coalesce output into chunks sent to the main JVM.
+    * Assigned ONLY once. */
+  private volatile BufferedOutputStreamRedirector _systemOut;
+  private volatile BufferedOutputStreamRedirector _systemErr;
+  
   /** Private constructor; use the singleton ONLY instance. */
   private InterpreterJVM() {
     super("Reset Interactions Thread", "Poll DrJava Thread");
@@ -143,6 +148,7 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     // redirect stdin
     System.setIn(new InputStreamRedirector() {
       protected String _getInput() {
+        _flushOutput();  // show any prompt the program has printed
         try { return _mainJVM.getConsoleInput(); }
         catch(RemoteException re) {
           error.log(re);
@@ -151,8 +157,8 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
       }
     });
     
-    // redirect stdout
-    System.setOut(new PrintStream(new OutputStreamRedirector() {
+    // redirect stdout; output is sent to the main JVM in chunks rather than one remote call per write
+    _systemOut = new BufferedOutputStreamRedirector() {
       public void print(String s) {
         try { _mainJVM.systemOutPrint(s); }
         catch (RemoteException re) {
@@ -160,10 +166,11 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
           throw new UnexpectedException("Main JVM can't be reached for output.\n" + re);
         }
       }
-    }));
+    };
+    System.setOut(new PrintStream(_systemOut));
     
     // redirect stderr
-    System.setErr(new PrintStream(new OutputStreamRedirector() {
+    _systemErr = new BufferedOutputStreamRedirector() {
       public void print(String s) {
         try { _mainJVM.systemErrPrint(s); }
         catch (RemoteException re) {
@@ -171,7 +178,13 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
           throw new UnexpectedException("Main JVM can't be reached for output.\n" + re);
         }
       }
-    }));
+    };
+    System.setErr(new PrintStream(_systemErr));
+    
+    // deliver the output still pending when the interactions call System.exit
+    Runtime.getRuntime().addShutdownHook(new Thread("Flush Output") {
+      public void run() { _flushOutput(); }
+    });
     
     /* On Windows, any frame or dialog opened from Interactions pane will appear *behind* DrJava's frame, unless a 
      * previous frame or dialog is shown here.  Not sure what the difference is, but this hack seems to work.  (I'd
@@ -186,6 +199,16 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     //_dialog("interpreter JVM started");
   }
   
+  /** Sends any output still pending in the redirected System.out and System.err to the main JVM, so that it appears
+    * before whatever the main JVM is told next.  Output that cannot be sent is dropped. */
+  private void _flushOutput() {
+    try {
+      if (_systemOut != null) _systemOut.flush();
+      if (_systemErr != null) _systemErr.flush();
+    }
+    catch (RuntimeException e) { error.log(e); }
+  }
+  
   /* Concurrent operations on _interpreters. */ 
   private Interpreter getInterpreter(String name) {
     synchronized(_interpreters) {return _interpreters.get(name); }
@@ -249,7 +272,10 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     try { result = interpreter.interpret(input); }
     catch (InterpreterException e) { debug.logEnd(); return InterpretResult.exception(e); }
     catch (Throwable e) { debug.logEnd(); return InterpretResult.unexpectedException(e); }
-    finally { removeBusyInterpreter(interpreter); }
+    finally {
+      removeBusyInterpreter(interpreter);
+      _flushOutput();
+    }
     
     return result.apply(new OptionVisitor<Object, InterpretResult>() {
       public InterpretResult forNone() { return InterpretResult.noValue(); }
@@ -348,6 +374,18 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     }
   }
 
+  /** Gets the string representations of the values of several variables in the current interpreter.
+    * @param vars the names of the variables
+    * @return the results of {@link #getVariableToString} for each variable, in order
+    */
+  public List<Pair<String,String>> getVariablesToString(List<String> vars) {
+    synchronized(_stateLock) {
+      List<Pair<String,String>> result = new ArrayList<Pair<String,String>>(vars.size());
+      for (String var : vars) { result.add(getVariableToString(var)); }
+      return result;
+    }
+  }
+
   /** @param c the class to get the name of
    * @return the name of the class, with the right number of array suffixes 
    *         "[]" and while being ambiguous about boxed and primitive types. 
@@ -523,6 +561,13 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     }
   }
   
+  /** Compile loops to bytecode rather than interpreting them. */
+  public void setCompileLoops(boolean compile) {
+    synchronized(_stateLock) {
+      _interpreterOptions.setCompileLoops(compile);
+    }
+  }
+  
   // ---------- JUnit methods ----------
   /** Sets up a JUnit test suite in the Interpreter JVM and finds which classes are really TestCases classes (by 
     * loading them).  Unsynchronized because it contains a remote call and does not involve mutable local state.
@@ -539,7 +584,7 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     * and does not involve mutable local state.
     * @return false if no test suite is cached; true otherwise
     */
-  public boolean runTestSuite() throws RemoteException { return _junitTestManager.runTestSuite(); }
+  public boolean runTestSuite(int threads) throws RemoteException { return _junitTestManager.runTestSuite(threads); }
   
   /** Notifies Main JVM that JUnit has been invoked on a non TestCase class.  Unsynchronized because it contains a 
     * remote call and does not involve mutable local state.
@@ -593,6 +638,7 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
     * @param errors The array of errors from all failed tests in the suite.
     */
   public void testSuiteEnded(JUnitError[] errors) {
+    _flushOutput();
     try { _mainJVM.testSuiteEnded(errors); }
     catch (RemoteException re) { error.log(re); }
   }
@@ -615,6 +661,7 @@ public class InterpreterJVM extends AbstractSlaveJVM implements InterpreterJVMRe
   public void addBuildDirectoryClassPath(File f) { _classPathManager.addBuildDirectoryCP(f); }
   public void addProjectFilesClassPath(File f) { _classPathManager.addProjectFilesCP(f); }
   public void addExternalFilesClassPath(File f) { _classPathManager.addExternalFilesCP(f); }
+  public void addClasses(Map<String, byte[]> classes) { _classPathManager.addClasses(classes); }
   public Iterable<File> getClassPath() {
     // need to make a serializable snapshot
     return IterUtil.snapshot(_classPathManager.getClassPath());
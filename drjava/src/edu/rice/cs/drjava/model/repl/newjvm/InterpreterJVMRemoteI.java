@@ -38,6 +38,7 @@ package edu.rice.cs.drjava.model.repl.newjvm;
 
 import java.rmi.RemoteException;
 import java.util.List;
+import java.util.Map;
 import java.io.File;
 
 import edu.rice.cs.plt.tuple.Pair;
@@ -53,7 +54,7 @@ public interface InterpreterJVMRemoteI extends SlaveRemote {
   public List<String> findTestClasses(List<String> classNames, 
     List<File> files, CoverageMetadata coverageMetadata) throws RemoteException;
   
-  public boolean runTestSuite() throws RemoteException;
+  public boolean runTestSuite(int threads) throws RemoteException;
 
   //public JUnitResultTuple getLastJUnitResult();
 
@@ -78,6 +79,11 @@ public interface InterpreterJVMRemoteI extends SlaveRemote {
    */
   public void setRequireVariableType(boolean require) throws RemoteException;
   
+  /** @param compile true if the interpreter compiles loops to bytecode rather than interpreting them. 
+   * @throws RemoteException if communication over RMI fails
+   */
+  public void setCompileLoops(boolean compile) throws RemoteException;
+  
   /** Adds a named Interpreter to the list.
    * @param name the unique name for the interpreter
    * @throws IllegalArgumentException if the name is not unique
@@ -121,6 +127,15 @@ public interface InterpreterJVMRemoteI extends SlaveRemote {
    */
   public Pair<String,String> getVariableToString(String var) throws RemoteException;
   
+  /** Gets the string representations of the values of several variables in the current interpreter in a single
+    * call.  The results are in the same order as {@code vars} and have the form of those of
+    * {@link #getVariableToString}.
+    * @param vars the names of the variables
+    * @return a list of the variables' values and types
+    * @throws RemoteException if communication over RMI fails
+    */
+  public List<Pair<String,String>> getVariablesToString(List<String> vars) throws RemoteException;
+  
   /** @return the current class path.
    * @throws RemoteException if communication over RMI fails
    */
@@ -161,4 +176,10 @@ public interface InterpreterJVMRemoteI extends SlaveRemote {
    */
   public void addExtraClassPath(File f) throws RemoteException;
   
+  /** Adds class files compiled in memory, which take precedence over the class path of all Java interpreters.
+    * @param classes the class files, by binary class name
+    * @throws RemoteException if communication over RMI fails
+    */
+  public void addClasses(Map<String, byte[]> classes) throws RemoteException;
+  
 }
@@ -38,11 +38,15 @@ package edu.rice.cs.drjava.model.repl.newjvm;
 
 import java.rmi.*;
 import java.io.*;
+import java.net.ServerSocket;
 import java.net.SocketException;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.TimeoutException;
 
 import edu.rice.cs.drjava.DrJava;
@@ -383,6 +387,19 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
     catch (RemoteException e) { _handleRemoteException(e); return Option.none(); }
   }
   
+  /** Gets the string representations of the values of several variables in the current interpreter with a single
+    * remote call, or "none" if the remote JVM is unavailable or an error occurs.  Blocks until the interpreter is
+    * connected.
+    * @param vars the names of the variables
+    * @return string representations of the variables, in order
+    */
+  public Option<List<Pair<String,String>>> getVariablesToString(List<String> vars) {
+    InterpreterJVMRemoteI remote = _state.value().interpreter(false);
+    if (remote == null) { return Option.none(); }
+    try { return Option.some(remote.getVariablesToString(vars)); }
+    catch (RemoteException e) { _handleRemoteException(e); return Option.none(); }
+  }
+  
   /** Blocks until the interpreter is connected. 
     * @param f file to be added to the class path
     * @return {@code true} if the change was successfully passed to the remote JVM.
@@ -438,6 +455,17 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
     catch (RemoteException e) { _handleRemoteException(e); return false; }
   }
   
+  /** Blocks until the interpreter is connected.
+    * @param classes class files compiled in memory, by binary class name
+    * @return {@code true} if the classes were successfully passed to the remote JVM.
+    */
+  public boolean addClasses(Map<String, byte[]> classes) {
+    InterpreterJVMRemoteI remote = _state.value().interpreter(false);
+    if (remote == null) { return false; }
+    try { remote.addClasses(new HashMap<String, byte[]>(classes)); return true; }
+    catch (RemoteException e) { _handleRemoteException(e); return false; }
+  }
+  
   /** Returns the current class path of the interpreter as a list of unique entries.  
    * The result is "none" if the remote JVM is unavailable or if an exception occurs. 
    * Blocks until the interpreter is connected.
@@ -478,13 +506,14 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
   
   /** Runs the JUnit test suite already cached in the Interpreter JVM.  
     * Blocks until the remote JVM is available.
+    * @param threads the number of threads on which the test classes are run concurrently
     * @return {@code false} if no test suite is cached, the remote JVM is 
     *         unavailable, or an error occurs; true otherwise.
     */
-  public boolean runTestSuite() { 
+  public boolean runTestSuite(int threads) { 
     InterpreterJVMRemoteI remote = _state.value().interpreter(true);
     if (remote == null) { return false; }
-    try { return remote.runTestSuite(); }
+    try { return remote.runTestSuite(threads); }
     catch (RemoteException e) { _handleRemoteException(e); return false; }
   }
   
@@ -595,6 +624,18 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
     catch (RemoteException e) { _handleRemoteException(e); return false; }
   }
   
+  /** Compile loops to bytecode rather than interpreting them. 
+   * Blocks until the interpreter is connected.
+   * @param compile value to be set
+   * @return {@code false} if the remote JVM is unavailable or if an exception occurs; true otherwise.
+   */
+  public boolean setCompileLoops(boolean compile) {
+    InterpreterJVMRemoteI remote = _state.value().interpreter(false);
+    if (remote == null) { return false; }
+    try { remote.setCompileLoops(compile); return true; }
+    catch (RemoteException e) { _handleRemoteException(e); return false; }
+  }
+  
   /*
    * === Helper methods ===
    */
@@ -689,13 +730,8 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
     // ------------------------------------------------------
     
     if (_allowAssertions) { jvmArgs.add("-ea"); }
-    int debugPort = _getDebugPort();
-    if (debugPort > -1) {
-      jvmArgs.add("-Xrunjdwp:transport=dt_socket,server=y,suspend=n,address=" + debugPort);
-      jvmArgs.add("-Xdebug");
-      jvmArgs.add("-Xnoagent");
-      jvmArgs.add("-Djava.compiler=NONE");
-    }
+    // the debugger arguments are inserted here once the port is known; they are not part of the configuration
+    int debugArgsIndex = jvmArgs.size();
     String slaveMemory = DrJava.getConfig().getSetting(OptionConstants.SLAVE_JVM_XMX);
     if (!"".equals(slaveMemory) && !OptionConstants.heapSizeChoices.get(0).equals(slaveMemory)) {
       jvmArgs.add("-Xmx" + slaveMemory + "M");
@@ -767,7 +803,56 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
     
     jvmb = jvmb.properties(props);
     
-    invokeSlave(jvmb);
+    // a spare JVM started with the same configuration is as good as a new one, except for its debug port
+    String configuration = jvmb.javaCommand() + IterUtil.toString(jvmb.jvmArguments()) + 
+      IterUtil.toString(jvmb.classPath()) + jvmb.directory() + new TreeMap<String, String>(props);
+    int debugPort = _getDebugPort();
+    JVMBuilder spare = claimSpareSlave(configuration);
+    if (spare != null) {
+      try {
+        String sparePort = spare.properties().get(DEBUG_PORT_PROPERTY);
+        if (sparePort != null && debugPort > -1) { _interactionsModel.setDebugPort(Integer.parseInt(sparePort)); }
+        invokeSlave(spare);
+      }
+      finally { releaseSpareSlave(spare); }  // only quits the spare if invokeSlave did not use it
+    }
+    else { invokeSlave(_withDebugPort(jvmb, debugArgsIndex, debugPort)); }
+    
+    int spares = DrJava.getConfig().getSetting(OptionConstants.INTERPRETER_JVM_SPARES).intValue();
+    for (int i = retainSpareSlaves(configuration); i < spares; i++) {
+      // each spare listens on its own debug port, which becomes the interactions model's port when it is claimed
+      int sparePort = (debugPort > -1) ? _newDebugPort() : -1;
+      startSpareSlave(_withDebugPort(jvmb, debugArgsIndex, sparePort), configuration);
+    }
+  }
+  
+  /** Name of the property that records the debug port of a slave JVM; also set in this JVM by the interactions model. */
+  private static final String DEBUG_PORT_PROPERTY = "drjava.debug.port";
+  
+  /** Adds the arguments that let the debugger attach to the slave JVM on the given port.
+    * @param jvmb the builder for the slave JVM
+    * @param index the position in the JVM arguments at which to insert the debugger arguments
+    * @param debugPort the port to listen on, or -1 if the slave cannot be debugged
+    * @return a builder that starts a slave JVM listening on debugPort
+    */
+  private static JVMBuilder _withDebugPort(JVMBuilder jvmb, int index, int debugPort) {
+    if (debugPort < 0) { return jvmb; }
+    List<String> jvmArgs = new ArrayList<String>();
+    for (String arg : jvmb.jvmArguments()) { jvmArgs.add(arg); }
+    jvmArgs.addAll(index, Arrays.asList("-Xrunjdwp:transport=dt_socket,server=y,suspend=n,address=" + debugPort,
+                                        "-Xdebug", "-Xnoagent", "-Djava.compiler=NONE"));
+    return jvmb.jvmArguments(jvmArgs).addProperty(DEBUG_PORT_PROPERTY, String.valueOf(debugPort));
+  }
+  
+  /** @return an available port for a spare JVM to listen on for the debugger, or -1 if none could be found. */
+  private static int _newDebugPort() {
+    try {
+      ServerSocket socket = new ServerSocket(0);
+      int port = socket.getLocalPort();
+      socket.close();
+      return port;
+    }
+    catch (IOException e) { return -1; }
   }
   
   /** @return the debug port to use, as specified by the model; returns -1 if no usable port could be found. */
@@ -897,6 +982,10 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
         try { i.setRequireVariableType(requireVariableType); }
         catch (RemoteException re) { _handleRemoteException(re); }
         
+        Boolean compileLoops = DrJava.getConfig().getSetting(OptionConstants.DYNAMICJAVA_COMPILE_LOOPS);
+        try { i.setCompileLoops(compileLoops); }
+        catch (RemoteException re) { _handleRemoteException(re); }
+        
         // Note that _workingDir isn't guaranteed to be the dir at the time startup began.  Is that a problem?
         // (Is the user ever going to see a working dir message that doesn't match the actual setting?)
         _interactionsModel.interpreterReady(_workingDir);
@@ -1097,6 +1186,7 @@ public class MainJVM extends AbstractMasterJVM implements MainJVMRemoteI {
   /** InteractionsModel which does not react to events. */
   public static class DummyInteractionsModel implements InteractionsModelCallback {
     public int getDebugPort() throws IOException { return -1; }
+    public void setDebugPort(int port) { }
     public void replSystemOutPrint(String s) { }
     public void replSystemErrPrint(String s) { }
     public String getConsoleInput() {
@@ -38,6 +38,7 @@ package edu.rice.cs.drjava.project;
 
 import java.io.File;
 import java.io.IOException;
+import edu.rice.cs.drjava.model.DocumentMetadata;
 import edu.rice.cs.util.AbsRelFile;
 import edu.rice.cs.plt.tuple.Pair;
 
@@ -48,6 +49,7 @@ public class DocFile extends AbsRelFile {
   private boolean _active;
   private String _package;
   private long _mod;
+  private DocumentMetadata _metadata;
   
   /** Creates a docfile that has the same path as the given file, with default 
    * values for everything else. 
@@ -95,12 +97,17 @@ public class DocFile extends AbsRelFile {
   
   public DocFile getAbsoluteFile() {
     if (isAbsolute()) return this;
-    else
-      return new DocFile(super.getAbsoluteFile(), _sel, _scroll, _active, _package);
+    else return _copyData(new DocFile(super.getAbsoluteFile(), _sel, _scroll, _active, _package));
   }
   
   public DocFile getCanonicalFile() throws IOException {
-    return new DocFile(super.getCanonicalFile(), _sel, _scroll, _active, _package);
+    return _copyData(new DocFile(super.getCanonicalFile(), _sel, _scroll, _active, _package));
+  }
+  
+  private DocFile _copyData(DocFile f) {
+    f._mod = _mod;
+    f._metadata = _metadata;
+    return f;
   }
   ///////////////////// Extra Data Methods /////////////////////
   
@@ -152,4 +159,10 @@ public class DocFile extends AbsRelFile {
   
   /** @return  The modification date of this file at the time the project file was generated. */
   public long getSavedModDate() { return _mod; }
+  
+  /** @return the names declared by the document stored in this file, or null if they weren't recorded */
+  public DocumentMetadata getMetadata() { return _metadata; }
+  
+  /** @param metadata  The names declared by the document text, or null. */
+  public void setMetadata(DocumentMetadata metadata) { _metadata = metadata; }
 }
@@ -38,6 +38,7 @@ package edu.rice.cs.drjava.project;
 
 import java.io.File;
 
+import edu.rice.cs.drjava.model.DocumentMetadata;
 import edu.rice.cs.plt.tuple.Pair;
 
 /** Classes that implement this interface are expected to give information specific to a single document that is
@@ -64,6 +65,9 @@ public interface DocumentInfoGetter {
    */
   public String getPackage();
   
+  /** @return the names declared by the saved text of the document, or null if the document is modified */
+  public DocumentMetadata getMetadata();
+  
   /** @return true iff the described document is the current active document. */
   public boolean isActive();
   
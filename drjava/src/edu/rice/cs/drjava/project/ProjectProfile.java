@@ -53,9 +53,11 @@ import edu.rice.cs.drjava.config.OptionParser;
 import edu.rice.cs.drjava.config.OptionConstants;
 import edu.rice.cs.util.AbsRelFile;
 import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
 import edu.rice.cs.drjava.Version;
 import edu.rice.cs.util.FileOps;
 import edu.rice.cs.util.UnexpectedException;
+import edu.rice.cs.drjava.model.DocumentMetadata;
 import edu.rice.cs.drjava.model.IRegion;
 import edu.rice.cs.drjava.model.debug.DebugBreakpointData;
 import edu.rice.cs.drjava.model.debug.DebugWatchData;
@@ -361,6 +363,7 @@ public class ProjectProfile implements ProjectFileIR {
         xc.set(".timestamp", s, f, true);
         String pkg = df.getPackage();
         xc.set(".package", (pkg != null)?pkg:"", f, true);
+        writeMetadata(xc, f, df);
         xc.set("select.from",   String.valueOf((pSel != null)?pSel.first():0),  f, true);
         xc.set("select.to",     String.valueOf((pSel != null)?pSel.second():0), f, true);
         xc.set("scroll.column", String.valueOf((pScr != null)?pScr.first():0),  f, true);
@@ -392,6 +395,7 @@ public class ProjectProfile implements ProjectFileIR {
         xc.set(".timestamp", s, f, true);
         String pkg = df.getPackage();
         xc.set(".package", (pkg != null)?pkg:"", f, true);
+        writeMetadata(xc, f, df);
         xc.set("select.from",   String.valueOf((pSel != null)?pSel.first():0),  f, true);
         xc.set("select.to",     String.valueOf((pSel != null)?pSel.second():0), f, true);
         xc.set("scroll.column", String.valueOf((pScr != null)?pScr.first():0),  f, true);
@@ -425,6 +429,7 @@ public class ProjectProfile implements ProjectFileIR {
         xc.set(".timestamp", s, f, true);
         String pkg = df.getPackage();
         xc.set(".package", (pkg != null)?pkg:"", f, true);
+        writeMetadata(xc, f, df);
         xc.set("select.from",   String.valueOf((pSel != null)?pSel.first():0),  f, true);
         xc.set("select.to",     String.valueOf((pSel != null)?pSel.second():0), f, true);
         xc.set("scroll.column", String.valueOf((pScr != null)?pScr.first():0),  f, true);
@@ -661,7 +666,27 @@ public class ProjectProfile implements ProjectFileIR {
    * @throws IOException if an IO operation fails
    */
   private DocFile docFileFromGetter(DocumentInfoGetter g) throws IOException {    
-      return new DocFile(g.getFile().getCanonicalPath(), g.getSelection(), g.getScroll(), g.isActive(), g.getPackage());
+      DocFile df = new DocFile(g.getFile().getCanonicalPath(), g.getSelection(), g.getScroll(), g.isActive(), 
+                               g.getPackage());
+      df.setMetadata(g.getMetadata());
+      return df;
+  }
+  
+  /** Writes the metadata of a document file as attributes of its node, if it is known and agrees with the package
+    * recorded for the file.
+    * @param xc the configuration being written
+    * @param f the node of the file
+    * @param df the file
+    */
+  private static void writeMetadata(XMLConfig xc, Node f, DocFile df) {
+    DocumentMetadata m = df.getMetadata();
+    if (m == null || ! m.getPackageName().equals(df.getPackage())) return;
+    String main;
+    try { main = m.getMainClassName(); }
+    catch (edu.rice.cs.drjava.model.definitions.ClassNameNotFoundException e) { main = ""; }
+    xc.set(".types", IterUtil.toString(m.getTopLevelTypes(), "", " ", ""), f, true);
+    xc.set(".main", main, f, true);
+    xc.set(".hash", Long.toHexString(m.getHash()), f, true);
   }
   
   
@@ -37,6 +37,7 @@
 package edu.rice.cs.drjava.project;
 
 import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.drjava.model.DocumentMetadata;
 import edu.rice.cs.plt.tuple.Pair;
 import edu.rice.cs.plt.io.IOUtil;
 import edu.rice.cs.plt.iter.IterUtil;
@@ -51,6 +52,7 @@ import edu.rice.cs.util.sexp.SExpParser;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Arrays;
 
 /** Test class for project files */
 public class ProjectTest extends DrJavaTestCase {
@@ -467,6 +469,30 @@ public class ProjectTest extends DrJavaTestCase {
 
   // ----- XMLProjectFileParser -----
   
+  /** Tests that document metadata is written to and read from XML project files. */
+  public void testMetadataXML() throws Exception {
+    File pf = new File(parent, "test4.xml");
+    IOUtil.writeStringToFile(pf, "");
+    ProjectProfile fb = new ProjectProfile(pf);
+    
+    DocumentMetadata m1 = DocumentMetadata.scan("package dir1; class A {} public class B { class C {} } enum D {}");
+    DocumentMetadata m2 = DocumentMetadata.scan("package other;");
+    fb.addSourceFile(makeGetter(0, 0, 0, 0, "dir1/B.java", "dir1", true, false, pf, m1));
+    fb.addSourceFile(makeGetter(0, 0, 0, 0, "dir1/E.java", "dir1", false, false, pf, m2));
+    fb.addSourceFile(makeGetter(0, 0, 0, 0, "dir1/F.java", "dir1", false, false, pf, null));
+    fb.write();
+    
+    ProjectFileIR pfir = XMLProjectFileParser.ONLY.parse(pf);
+    DocFile[] files = pfir.getSourceFiles();
+    assertEquals("number of source files", 3, files.length);
+    assertEquals("metadata read back", m1, files[0].getMetadata());
+    assertEquals("types", Arrays.asList("A", "B", "D"), files[0].getMetadata().getTopLevelTypes());
+    assertEquals("qualified main class", "dir1.B", files[0].getMetadata().getQualifiedClassName());
+    assertNull("metadata for the wrong package written", files[1].getMetadata());
+    assertNull("missing metadata invented", files[2].getMetadata());
+    pf.delete();
+  }
+  
   public void testWriteFileXML() throws IOException, MalformedProjectFileException {
     File pf = new File(parent, "test3.xml");
     IOUtil.writeStringToFile(pf, "");
@@ -528,6 +554,13 @@ public class ProjectTest extends DrJavaTestCase {
   private DocumentInfoGetter makeGetter(final int sel1, final int sel2, final int scrollv,
                                         final int scrollh, final String fname, final String pack,
                                         final boolean active, final boolean isUntitled, final File pf) {
+    return makeGetter(sel1, sel2, scrollv, scrollh, fname, pack, active, isUntitled, pf, null);
+  }
+  
+  private DocumentInfoGetter makeGetter(final int sel1, final int sel2, final int scrollv,
+                                        final int scrollh, final String fname, final String pack,
+                                        final boolean active, final boolean isUntitled, final File pf,
+                                        final DocumentMetadata metadata) {
     return new DocumentInfoGetter() {
       public Pair<Integer,Integer> getSelection() { 
         return new Pair<Integer,Integer>(Integer.valueOf(sel1),Integer.valueOf(sel2)); 
@@ -540,6 +573,7 @@ public class ProjectTest extends DrJavaTestCase {
         else return new File(pf.getParentFile(),fname);
       }
       public String getPackage() { return pack; }
+      public DocumentMetadata getMetadata() { return metadata; }
       public boolean isActive() { return active; }
       public boolean isUntitled() { return isUntitled; }
     };
@@ -37,21 +37,25 @@
 package edu.rice.cs.drjava.project;
 
 import java.io.*;
+import java.math.BigInteger;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Date;
 import java.text.SimpleDateFormat;
-import org.w3c.dom.Node;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import edu.rice.cs.util.AbsRelFile;
 import edu.rice.cs.plt.tuple.Pair;
+import edu.rice.cs.drjava.model.DocumentMetadata;
 import edu.rice.cs.drjava.model.DummyDocumentRegion;
 import edu.rice.cs.drjava.model.IRegion;
 import edu.rice.cs.drjava.model.debug.DebugWatchData;
 import edu.rice.cs.drjava.model.debug.DebugBreakpointData;
-import edu.rice.cs.util.XMLConfig;
 import edu.rice.cs.drjava.project.MalformedProjectFileException;
 import edu.rice.cs.util.StringOps;
 import edu.rice.cs.plt.text.TextUtil;
@@ -62,18 +66,22 @@ import edu.rice.cs.drjava.config.OptionParser;
 import edu.rice.cs.drjava.config.OptionParseException;
 import edu.rice.cs.drjava.DrJava;
 
-import static edu.rice.cs.util.XMLConfig.XMLConfigException;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 
-/** This parser loads XML configuration files using the XMLConfig class in the util package.
+/** This parser loads XML project files, in the format written by ProjectProfile.  The file is read in a single pass
+ *  with a streaming (StAX) reader, and each element is handled as soon as it is read; no DOM of the file is built, 
+ *  so the time and memory needed to parse a project grow only with the number of entries in it.  Elements that the
+ *  parser does not know are skipped.
  * 
  *  <p> If at some point new information is to be stored in the project file, the following places in the code that need to
  *  changed: <menu> <li> If the new information pertains to a document, the DocFile class should be augmented to
  *  store the new info.  <li> The interface for the DocumentInfoGetter should be expanded to allow for the new
- *  data to be retrieved.  <li> Add a new clause to the else-if ladder in the FilePropertyVisitor.  <li> 
+ *  data to be retrieved.  <li> Read the new attribute in readDocFile.  <li> 
  *  Add the new information to the DocFile form the DocumentInfoGetter in the ProjectFileBuilder's 
  *  addSourceDocument method.</menu>
  * 
- *  <p> If the change is at the top level, you must modify the evaluateExpression method in this parser and add the 
+ *  <p> If the change is at the top level, you must modify the readProject method in this parser and add the 
  *  corresponding methods to the ProjectFileIR, ProjectFileIRImpl, and ProjectFileBuilder</p>
  */
 public class XMLProjectFileParser extends ProjectFileParserFacade {
@@ -81,9 +89,10 @@ public class XMLProjectFileParser extends ProjectFileParserFacade {
   public static final XMLProjectFileParser ONLY = new XMLProjectFileParser();
   private XMLProjectFileParser() { _xmlProjectFile = true; }
   
+  private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+  
   protected String _parent;
   protected String _srcFileBase;
-  protected XMLConfig _xc;
   
   static edu.rice.cs.util.Log LOG = new edu.rice.cs.util.Log("xmlparser.log", false);
     
@@ -96,120 +105,14 @@ public class XMLProjectFileParser extends ProjectFileParserFacade {
     _srcFileBase = _parent;
     ProjectFileIR pfir = new ProjectProfile(projFile);
     
+    InputStream in = new BufferedInputStream(new FileInputStream(projFile));
     try {
-      XMLConfig xcParent = new XMLConfig(projFile);
-
-      // read version... this string isn't actually used
-      String version = xcParent.get("drjava.version", "unknown");
-      LOG.log("version = '" + version + "'");
-      
-      pfir.setDrJavaVersion(version);
-      
-      // create a sub-configuration so we don't have to prefix everything with "drjava/project/"
-      _xc = new XMLConfig(xcParent, xcParent.getNodes("drjava/project").get(0));
-      LOG.log(_xc.toString());
-      String s;
-      
-      // read project root; must be present
-      try {
-        s = _xc.get(".root");
-        LOG.log("root = '" + s + "'");
-        File root = new File(_parent, s);
-        LOG.log("_parent = " + _parent);
-        pfir.setProjectRoot(root);
-        _srcFileBase = root.getCanonicalPath();
-        LOG.log("_srcFileBase from reading the prject root = " + _srcFileBase);
-      }
-      catch(XMLConfigException e) { throw new MalformedProjectFileException("XML Parse Error: " + e.getMessage() + "\n" + StringOps.getStackTrace(e)); }
-      
-      // read create jar options
-      try {
-        s = _xc.get("createjar.file");
-        LOG.log("createjar.file = '" + s + "'");
-        File jarFile = new File(_parent, s);
-        pfir.setCreateJarFile(jarFile);
-      }
-      catch(XMLConfigException e) { /* not present is ok too */ }
-      try {
-        s = _xc.get("createjar.flags");
-        LOG.log("createjar.flags = '" + s + "'");
-        int flags = Integer.valueOf(s);
-        pfir.setCreateJarFlags(flags);
-      }
-      catch(XMLConfigException e) { /* not present is ok too */ }
-      
-      try{
-        s = _xc.get(".manifest");
-        LOG.log("manifest = '" + s + "'");
-        pfir.setCustomManifest(TextUtil.xmlUnescape(s));
-      }catch(XMLConfigException e) { /* not present is fine */ }
-      
-      // read build dir
-      try {
-        s = _xc.get(".build");
-        LOG.log("build = '" + s + "'");
-        File buildDir = (!new File(s).isAbsolute())?new File(_parent, s):new File(s);
-        pfir.setBuildDirectory(buildDir);
-      }
-      catch(XMLConfigException e) { /* not present is ok too */ }
-
-      // read working dir; must be present
-      try {
-        s = _xc.get(".work");
-        LOG.log("work = '" + s + "'");
-        File workDir = (!new File(s).isAbsolute())?new File(_parent, s):new File(s);
-        pfir.setWorkingDirectory(workDir);
-      }
-      catch(XMLConfigException e) { throw new MalformedProjectFileException("XML Parse Error: " + e.getMessage() + "\n" + StringOps.getStackTrace(e)); }
-
-      // read main class
-      try {
-        s = _xc.get(".main");
-        LOG.log("main = '" + s + "'");
-        /*File mainClass = new File(_parent, s);
-        pfir.setMainClass(mainClass);*/
-        pfir.setMainClass(s);
-      }
-      catch(XMLConfigException e) { /* not present is ok too */ }
-      
-      try {
-        s = _xc.get(".autorefresh");
-        boolean b = Boolean.valueOf(s);
-        pfir.setAutoRefreshStatus(b);
-      } 
-      catch(XMLConfigException e) { /* not important */}
-      
-      try { // must all be present
-        // read source files and included files
-        
-        pfir.setSourceFiles(readSourceFiles("source", _srcFileBase));
-        pfir.setAuxiliaryFiles(readSourceFiles("included", ""));      
-        
-        // read excluded files
-        pfir.setExcludedFiles(readSourceFiles("excluded", ""));
-        
-      
-        // read collapsed paths
-        pfir.setCollapsedPaths(readCollapsed());
-      
-        // read class paths
-        pfir.setClassPaths(readFiles("classpath", _srcFileBase));
-      
-        // read breakpoints
-        pfir.setBreakpoints(readBreakpoints());
-      
-        // read watches
-        pfir.setWatches(readWatches());
-
-        // read bookmarks
-        pfir.setBookmarks(readBookmarks());
-        
-        // read stored preferences
-        pfir.setPreferencesStoredInProject(readStoredPreferences());
-      }
-      catch(XMLConfigException e) { throw new MalformedProjectFileException("XML Parse Error: " + e.getMessage() + "\n" + StringOps.getStackTrace(e)); }
+      XMLStreamReader r;
+      synchronized(FACTORY) { r = FACTORY.createXMLStreamReader(in); }
+      try { readDocument(r, pfir); }
+      finally { r.close(); }
     }
-    catch(XMLConfigException e) {
+    catch(XMLStreamException e) {
       throw new MalformedProjectFileException("Malformed XML project file." + e.getMessage() + "\n" + StringOps.getStackTrace(e));
     }
     catch(NumberFormatException e) {
@@ -218,175 +121,288 @@ public class XMLProjectFileParser extends ProjectFileParserFacade {
     catch(IllegalArgumentException e) {
       throw new MalformedProjectFileException("Malformed XML project file; a value had the wrong type.\n" + StringOps.getStackTrace(e));
     }
-    catch(IndexOutOfBoundsException e) {
-      throw new MalformedProjectFileException("Malformed XML project file; a required value was missing.\n" + StringOps.getStackTrace(e));
-    }    
-    LOG.log(pfir.toString());
+    finally { in.close(); }
+    LOG.log("parsed ", pfir);
     return pfir;
   }
   
-  protected List<DocFile> readSourceFiles(String path, String rootPath) throws MalformedProjectFileException {
-    LOG.log("readSourceFiles(path='" + path + "', rootPath='" + rootPath + "')");
-    List<DocFile> docFList = new ArrayList<DocFile>();
-    List<Node> defs = _xc.getNodes(path + "/file");
-    LOG.log("\tdefs.size() = " + defs.size());
-    for(Node n: defs) { LOG.log("\t" + n.getNodeValue()); }
-
-    for(Node n: defs) {
-      LOG.log("\t" + n.toString());
-      
-      // now all path names are relative to node n...
-      String name = _xc.get(".name",n);
-      LOG.log("\t\tname = '" + name + "'");
-      
-      int selectFrom = _xc.getInt("select.from",n);
-      int selectTo = _xc.getInt("select.to",n);
-      LOG.log("\t\tselect = '" + selectFrom + " to " + selectTo + "'");
-      
-      int scrollCol = _xc.getInt("scroll.column",n);
-      int scrollRow = _xc.getInt("scroll.row",n);
-      LOG.log("\t\tscroll = '" + scrollCol + " , " + scrollRow + "'");
-      
-      String timestamp = _xc.get(".timestamp",n);
-      LOG.log("\t\ttimestamp = '" + timestamp + "'");
-      Date modDate;
-      try {
-        // attemp parsing in default locale
-        modDate = ProjectProfile.MOD_DATE_FORMAT.parse(timestamp); }
-      catch (java.text.ParseException e1) {
-        // parsing in default locale failed
-        try {
-          // attempt parsing in current locale
-          modDate = new SimpleDateFormat(ProjectProfile.MOD_DATE_FORMAT_STRING).parse(timestamp);
-        }
-        catch (java.text.ParseException e2) {
-          // both parsings failed
-          throw new MalformedProjectFileException("Source file node contains badly formatted timestamp.");
-        }
-      }
-      
-      String pkg = _xc.get(".package",n);
-      LOG.log("\t\tpackage = '" + pkg + "'");
-      
-      boolean active;
-      try {
-        active = _xc.getBool(".active",n);
-        LOG.log("\t\tactive = '" + active + "'");
+  /** Reads the document element, which must be a drjava element; only its first project element is read.
+    * @param r the reader, positioned at the start of the document
+    * @param pfir the IR to fill in
+    */
+  protected void readDocument(XMLStreamReader r, ProjectFileIR pfir) throws XMLStreamException, IOException,
+    MalformedProjectFileException {
+    if (nextTag(r) != START_ELEMENT || ! r.getLocalName().equals("drjava")) {
+      throw new MalformedProjectFileException("Malformed XML project file; a required value was missing.");
+    }
+    
+    // read version... this string isn't actually used
+    String version = r.getAttributeValue(null, "version");
+    if (version == null) version = "unknown";
+    LOG.log("version = '", version, "'");
+    pfir.setDrJavaVersion(version);
+    
+    boolean found = false;
+    while (nextTag(r) == START_ELEMENT) {
+      if (! found && r.getLocalName().equals("project")) {
+        readProject(r, pfir);
+        found = true;
       }
-      catch(XMLConfigException e) { active = false; /* it's ok if it doesn't exist */ }
-      
-      /* added to check if file path name refers to absolute. Intended to eliminate project errors over network paths */
-      Boolean absName = (new File(name)).isAbsolute();   
-      
-      DocFile docF = new DocFile(((rootPath.length() > 0 && !absName)?new File(rootPath,name):new File(name)).getAbsoluteFile(),
-                                 new Pair<Integer,Integer>(selectFrom,selectTo),
-                                 new Pair<Integer,Integer>(scrollCol,scrollCol),
-                                 active,
-                                 pkg);
-      docF.setSavedModDate(modDate.getTime());
-      docFList.add(docF);
+      else skipElement(r);
     }
-    return docFList;
-  }
-
-  protected List<AbsRelFile> readFiles(String path) {
-    return readFiles(path, "");
+    if (! found) throw new MalformedProjectFileException("Malformed XML project file; a required value was missing.");
   }
   
-  protected List<AbsRelFile> readFiles(String path, String rootPath) {
-    List<AbsRelFile> fList = new ArrayList<AbsRelFile>();
-    List<Node> defs = _xc.getNodes(path + "/file");
-    for(Node n: defs) {
-      // now all path names are relative to node n...
-      String name = _xc.get(".name",n);
-      boolean abs = _xc.getBool(".absolute",n,true); // default to true for backward compatibility
-
-      /* added to check if file path name refers to absolute. Intended to eliminate project errors over network paths */
-      abs |= (new File(name)).isAbsolute();   
-      
-      AbsRelFile f = new AbsRelFile(((rootPath.length() > 0 && !abs)?
-                                       new File(rootPath,name):
-                                       new File(name)).getAbsoluteFile(),abs);
-      fList.add(f);
+  /** Reads a project element and its contents.
+    * @param r the reader, positioned at the start of the project element; left at its end
+    * @param pfir the IR to fill in
+    */
+  protected void readProject(XMLStreamReader r, ProjectFileIR pfir) throws XMLStreamException, IOException,
+    MalformedProjectFileException {
+    // read project root; must be present
+    String s = required(r, "root");
+    LOG.log("root = '", s, "'");
+    File root = new File(_parent, s);
+    pfir.setProjectRoot(root);
+    _srcFileBase = root.getCanonicalPath();
+    LOG.log("_srcFileBase from reading the project root = ", _srcFileBase);
+    
+    s = r.getAttributeValue(null, "manifest");
+    if (s != null) pfir.setCustomManifest(TextUtil.xmlUnescape(s));
+    
+    // read build dir
+    s = r.getAttributeValue(null, "build");
+    if (s != null) pfir.setBuildDirectory((! new File(s).isAbsolute()) ? new File(_parent, s) : new File(s));
+    
+    // read working dir; must be present
+    s = required(r, "work");
+    pfir.setWorkingDirectory((! new File(s).isAbsolute()) ? new File(_parent, s) : new File(s));
+    
+    // read main class
+    s = r.getAttributeValue(null, "main");
+    if (s != null) pfir.setMainClass(s);
+    
+    s = r.getAttributeValue(null, "autorefresh");
+    if (s != null) pfir.setAutoRefreshStatus(Boolean.valueOf(s));
+    
+    List<DocFile> srcFiles = new ArrayList<DocFile>();
+    List<DocFile> auxFiles = new ArrayList<DocFile>();
+    List<DocFile> exclFiles = new ArrayList<DocFile>();
+    List<String> collapsed = new ArrayList<String>();
+    List<AbsRelFile> classPaths = new ArrayList<AbsRelFile>();
+    List<DebugBreakpointData> breakpoints = new ArrayList<DebugBreakpointData>();
+    List<DebugWatchData> watches = new ArrayList<DebugWatchData>();
+    List<IRegion> bookmarks = new ArrayList<IRegion>();
+    List<Pair<String, String>> preferences = new ArrayList<Pair<String, String>>();
+    
+    while (nextTag(r) == START_ELEMENT) {
+      String name = r.getLocalName();
+      if (name.equals("createjar")) {
+        // read create jar options; not present is ok too
+        s = r.getAttributeValue(null, "file");
+        if (s != null) pfir.setCreateJarFile(new File(_parent, s));
+        s = r.getAttributeValue(null, "flags");
+        if (s != null) pfir.setCreateJarFlags(Integer.valueOf(s));
+        skipElement(r);
+      }
+      else if (name.equals("source")) readDocFiles(r, _srcFileBase, srcFiles);
+      else if (name.equals("included")) readDocFiles(r, "", auxFiles);
+      else if (name.equals("excluded")) readDocFiles(r, "", exclFiles);
+      else if (name.equals("classpath")) {
+        while (nextTag(r) == START_ELEMENT) {
+          if (r.getLocalName().equals("file")) classPaths.add(readFile(r, _srcFileBase));
+          skipElement(r);
+        }
+      }
+      else {
+        while (nextTag(r) == START_ELEMENT) {
+          String item = r.getLocalName();
+          if (name.equals("collapsed") && item.equals("path")) collapsed.add(required(r, "name"));
+          else if (name.equals("breakpoints") && item.equals("breakpoint")) breakpoints.add(readBreakpoint(r));
+          else if (name.equals("watches") && item.equals("watch")) {
+            watches.add(new DebugWatchData(required(r, "name")));
+          }
+          else if (name.equals("bookmarks") && item.equals("bookmark")) bookmarks.add(readBookmark(r));
+          else if (name.equals("preferences") && item.equals("preference")) {
+            preferences.add(new Pair<String, String>(TextUtil.xmlUnescape(required(r, "name")), 
+                                                     TextUtil.xmlUnescape(required(r, "value"))));
+          }
+          skipElement(r);
+        }
+      }
+    }
+    
+    if (LOG.isEnabled()) {
+      LOG.log("source, included and excluded files read: ", srcFiles.size(), ", ", auxFiles.size(), ", ",
+              exclFiles.size());
     }
-    return fList;
+    pfir.setSourceFiles(srcFiles);
+    pfir.setAuxiliaryFiles(auxFiles);
+    pfir.setExcludedFiles(exclFiles);
+    pfir.setCollapsedPaths(collapsed);
+    pfir.setClassPaths(classPaths);
+    pfir.setBreakpoints(breakpoints);
+    pfir.setWatches(watches);
+    pfir.setBookmarks(bookmarks);
+    // stored preferences are only applied once the rest of the file has been read successfully
+    pfir.setPreferencesStoredInProject(readStoredPreferences(preferences));
   }
   
-  protected List<String> readCollapsed() {
-    List<String> pList = new ArrayList<String>();
-    List<Node> defs = _xc.getNodes("collapsed/path");
-    for(Node n: defs) {
-      // now all path names are relative to node n...
-      pList.add(_xc.get(".name", n));
+  /** Reads the file elements contained in the current element.
+    * @param r the reader, positioned at the start of the containing element; left at its end
+    * @param rootPath the path that relative names are relative to, or "" if they are relative to the working directory
+    * @param docFList the list to add the files to
+    */
+  protected void readDocFiles(XMLStreamReader r, String rootPath, List<DocFile> docFList) throws XMLStreamException,
+    MalformedProjectFileException {
+    while (nextTag(r) == START_ELEMENT) {
+      if (r.getLocalName().equals("file")) docFList.add(readDocFile(r, rootPath));
+      else skipElement(r);
     }
-    return pList;
   }
   
-  protected List<DebugBreakpointData> readBreakpoints() {
-    List<DebugBreakpointData> bpList = new ArrayList<DebugBreakpointData>();
-    List<Node> defs = _xc.getNodes("breakpoints/breakpoint");
-    for(Node n: defs) {
-      // now all path names are relative to node n...
-      String name = _xc.get(".file", n);
-      final int lnr = _xc.getInt(".line", n);
-      final boolean enabled = _xc.getBool(".enabled", n);
-      DebugBreakpointData dbd;
-      if ((_srcFileBase == null) || (new File(name).isAbsolute())) {
-        final File f = new File(name);
-        dbd = new DebugBreakpointData() {
-          public File getFile() { return f; }
-          public int getLineNumber() { return lnr; }
-          public boolean isEnabled() { return enabled; }
-        };
+  /** Reads a document file element.
+    * @param r the reader, positioned at the start of the file element; left at its end
+    * @param rootPath the path that a relative name is relative to, or "" if it is relative to the working directory
+    * @return the document file
+    */
+  protected DocFile readDocFile(XMLStreamReader r, String rootPath) throws XMLStreamException, 
+    MalformedProjectFileException {
+    String name = required(r, "name");
+    String timestamp = required(r, "timestamp");
+    String pkg = required(r, "package");
+    String activeString = r.getAttributeValue(null, "active");
+    boolean active = (activeString != null) && parseBoolean(activeString);  // it's ok if it doesn't exist
+    DocumentMetadata metadata = readMetadata(r, pkg);
+    
+    Integer selectFrom = null;
+    Integer selectTo = null;
+    Integer scrollCol = null;
+    Integer scrollRow = null;
+    while (nextTag(r) == START_ELEMENT) {
+      if (r.getLocalName().equals("select")) {
+        selectFrom = Integer.valueOf(required(r, "from"));
+        selectTo = Integer.valueOf(required(r, "to"));
       }
-      else {
-        final File f = new File(_srcFileBase, name);
-        dbd = new DebugBreakpointData() {
-          public File getFile() { return f; }
-          public int getLineNumber() { return lnr; }
-          public boolean isEnabled() { return enabled; }
-        };
+      else if (r.getLocalName().equals("scroll")) {
+        scrollCol = Integer.valueOf(required(r, "column"));
+        scrollRow = Integer.valueOf(required(r, "row"));
       }
-      bpList.add(dbd);
+      skipElement(r);
+    }
+    if (selectFrom == null || scrollCol == null) {
+      throw new MalformedProjectFileException("XML Parse Error: the entry for " + name + 
+                                              " is missing its selection or scroll position.");
     }
-    return bpList;
+    
+    Date modDate;
+    try {
+      // attemp parsing in default locale
+      modDate = ProjectProfile.MOD_DATE_FORMAT.parse(timestamp); }
+    catch (java.text.ParseException e1) {
+      // parsing in default locale failed
+      try {
+        // attempt parsing in current locale
+        modDate = new SimpleDateFormat(ProjectProfile.MOD_DATE_FORMAT_STRING).parse(timestamp);
+      }
+      catch (java.text.ParseException e2) {
+        // both parsings failed
+        throw new MalformedProjectFileException("Source file node contains badly formatted timestamp.");
+      }
+    }
+    
+    /* added to check if file path name refers to absolute. Intended to eliminate project errors over network paths */
+    Boolean absName = (new File(name)).isAbsolute();   
+    
+    DocFile docF = new DocFile(((rootPath.length() > 0 && !absName)?new File(rootPath,name):new File(name)).getAbsoluteFile(),
+                               new Pair<Integer,Integer>(selectFrom,selectTo),
+                               new Pair<Integer,Integer>(scrollCol,scrollCol),
+                               active,
+                               pkg);
+    docF.setSavedModDate(modDate.getTime());
+    docF.setMetadata(metadata);
+    return docF;
   }
 
-  protected List<DebugWatchData> readWatches() {
-    List<DebugWatchData> wList = new ArrayList<DebugWatchData>();
-    List<Node> defs = _xc.getNodes("watches/watch");
-    for(Node n: defs) {
-      // now all path names are relative to node n...
-      wList.add(new DebugWatchData(_xc.get(".name", n)));
+  /** Reads the metadata recorded for a document, which older project files do not have.
+    * @param r the reader, positioned at the start of the file element
+    * @param pkg the package recorded for the document
+    * @return the metadata, or null if none was recorded
+    */
+  protected DocumentMetadata readMetadata(XMLStreamReader r, String pkg) {
+    String hash = r.getAttributeValue(null, "hash");
+    String types = r.getAttributeValue(null, "types");
+    String main = r.getAttributeValue(null, "main");
+    if (hash == null || types == null || main == null) return null;  // not recorded
+    try {
+      long h = new BigInteger(hash, 16).longValue();  // written unsigned by Long.toHexString
+      types = types.trim();
+      List<String> typeList = (types.length() == 0) ? new ArrayList<String>() : Arrays.asList(types.split(" +"));
+      return new DocumentMetadata(pkg, typeList, (main.length() == 0) ? null : main, h);
     }
-    return wList;
+    catch(NumberFormatException e) { return null; }
   }
+  
+  /** Reads a class path entry.
+    * @param r the reader, positioned at the start of the file element
+    * @param rootPath the path that a relative name is relative to, or "" if it is relative to the working directory
+    * @return the class path entry
+    */
+  protected AbsRelFile readFile(XMLStreamReader r, String rootPath) throws MalformedProjectFileException {
+    String name = required(r, "name");
+    String absString = r.getAttributeValue(null, "absolute");
+    boolean abs = (absString == null) || parseBoolean(absString); // default to true for backward compatibility
     
-  protected List<IRegion> readBookmarks() {
-    List<IRegion> rList = new ArrayList<IRegion>();
-    List<Node> defs = _xc.getNodes("bookmarks/bookmark");
-    for(Node n: defs) {
-      // now all path names are relative to node n...
-      String name = _xc.get(".file", n);
-      final int from = _xc.getInt(".from", n);
-      final int to = _xc.getInt(".to", n);
-      File f;
-      if ((_srcFileBase == null) || (new File(name).isAbsolute())) { f = new File(name); }
-      else { f = new File(_srcFileBase, name); }
-      rList.add(new DummyDocumentRegion(f, from, to));
-    }
-    return rList;
+    /* added to check if file path name refers to absolute. Intended to eliminate project errors over network paths */
+    abs |= (new File(name)).isAbsolute();   
+    
+    return new AbsRelFile(((rootPath.length() > 0 && !abs)?
+                             new File(rootPath,name):
+                             new File(name)).getAbsoluteFile(),abs);
+  }
+  
+  /** Reads a breakpoint.
+    * @param r the reader, positioned at the start of the breakpoint element
+    * @return the breakpoint
+    */
+  protected DebugBreakpointData readBreakpoint(XMLStreamReader r) throws MalformedProjectFileException {
+    String name = required(r, "file");
+    final int lnr = Integer.valueOf(required(r, "line"));
+    final boolean enabled = parseBoolean(required(r, "enabled"));
+    final File f = ((_srcFileBase == null) || (new File(name).isAbsolute())) ? new File(name) : 
+      new File(_srcFileBase, name);
+    return new DebugBreakpointData() {
+      public File getFile() { return f; }
+      public int getLineNumber() { return lnr; }
+      public boolean isEnabled() { return enabled; }
+    };
+  }
+  
+  /** Reads a bookmark.
+    * @param r the reader, positioned at the start of the bookmark element
+    * @return the bookmark
+    */
+  protected IRegion readBookmark(XMLStreamReader r) throws MalformedProjectFileException {
+    String name = required(r, "file");
+    final int from = Integer.valueOf(required(r, "from"));
+    final int to = Integer.valueOf(required(r, "to"));
+    File f;
+    if ((_srcFileBase == null) || (new File(name).isAbsolute())) { f = new File(name); }
+    else { f = new File(_srcFileBase, name); }
+    return new DummyDocumentRegion(f, from, to);
   }
   
+  /** Applies the stored preferences to the configuration.
+    * @param prefs the names and values of the stored preferences
+    * @return the preferences that were applied
+    */
   @SuppressWarnings({ "unchecked", "rawtypes" })
-  protected Map<OptionParser<?>,String> readStoredPreferences() {
+  protected Map<OptionParser<?>,String> readStoredPreferences(List<Pair<String, String>> prefs) {
     HashMap<OptionParser<?>,String> storedPreferences = new HashMap<OptionParser<?>,String>();
-    List<Node> prefs = _xc.getNodes("preferences/preference");
        
-    for(Node n: prefs) {
-      // now all path names are relative to node n...
-      String name = TextUtil.xmlUnescape(_xc.get(".name", n));
-      String value = TextUtil.xmlUnescape(_xc.get(".value", n));
+    for(Pair<String, String> p: prefs) {
+      String name = p.first();
+      String value = p.second();
       
       OptionMap map = DrJava.getConfig().getOptionMap();
       for (OptionParser<?> option : map.keys()) {
@@ -406,4 +422,56 @@ public class XMLProjectFileParser extends ProjectFileParserFacade {
     
     return storedPreferences;
   }
+  
+  /** Returns the value of an attribute of the current element that must be present.
+    * @param r the reader, positioned at the start of an element
+    * @param name the name of the attribute
+    * @return the value of the attribute
+    * @throws MalformedProjectFileException if the element has no such attribute
+    */
+  private static String required(XMLStreamReader r, String name) throws MalformedProjectFileException {
+    String s = r.getAttributeValue(null, name);
+    if (s == null) {
+      throw new MalformedProjectFileException("XML Parse Error: " + r.getLocalName() + " element at line " + 
+                                              r.getLocation().getLineNumber() + " has no " + name + " attribute.");
+    }
+    return s;
+  }
+  
+  /** Parses a Boolean value the way XMLConfig does.
+    * @param value the value to parse
+    * @return the Boolean value
+    * @throws IllegalArgumentException if the value is not a Boolean value
+    */
+  private static boolean parseBoolean(String value) {
+    String s = value.toLowerCase().trim();
+    if (s.equals("true") || s.equals("yes") || s.equals("on")) return true;
+    if (s.equals("false") || s.equals("no") || s.equals("off")) return false;
+    throw new IllegalArgumentException("Not a Boolean value.");
+  }
+  
+  /** Advances to the next start or end tag, skipping text, comments and processing instructions.
+    * @param r the reader
+    * @return START_ELEMENT or END_ELEMENT
+    */
+  private static int nextTag(XMLStreamReader r) throws XMLStreamException {
+    int event = r.next();
+    while (event != START_ELEMENT && event != END_ELEMENT) {
+      if (! r.hasNext()) throw new XMLStreamException("Unexpected end of project file.");
+      event = r.next();
+    }
+    return event;
+  }
+  
+  /** Skips the rest of the current element, including its contents.
+    * @param r the reader, positioned at the start of an element; left at its end
+    */
+  private static void skipElement(XMLStreamReader r) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = nextTag(r);
+      if (event == START_ELEMENT) depth++;
+      else depth--;
+    }
+  }
 }
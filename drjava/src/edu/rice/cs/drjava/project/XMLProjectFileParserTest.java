@@ -39,6 +39,7 @@ package edu.rice.cs.drjava.project;
 import java.io.*;
 import edu.rice.cs.plt.io.IOUtil;
 import edu.rice.cs.plt.iter.IterUtil;
+import edu.rice.cs.plt.tuple.Pair;
 import edu.rice.cs.drjava.DrJavaTestCase;
 import edu.rice.cs.drjava.project.ProjectFileParserFacade;
 import edu.rice.cs.drjava.project.ProjectFileIR;
@@ -167,4 +168,90 @@ public class XMLProjectFileParserTest extends DrJavaTestCase {
     assertEquals("main-class name", "some.main.ClassName", 
                  pfir.getMainClass());
   }
+  
+  /** Parses the given project file contents. */
+  private ProjectFileIR parseString(String xml) throws IOException, MalformedProjectFileException {
+    File f = File.createTempFile("project", ".xml", new File(System.getProperty("user.dir")));
+    f.deleteOnExit();
+    IOUtil.writeStringToFile(f, xml);
+    try { return ProjectFileParserFacade.ONLY.parse(f); }
+    finally { f.delete(); }
+  }
+  
+  private static final String FILE_ENTRY =
+    "      <file name=\"A.java\" package=\"\" timestamp=\"27-Mar-2008 15:05:07\">\n" + 
+    "        <select from=\"1\" to=\"2\"/>\n" + 
+    "        <scroll column=\"3\" row=\"4\"/>\n" + 
+    "      </file>\n";
+  
+  /** Tests that unknown elements, comments and text are skipped. */
+  public void testUnknownElements() throws IOException, MalformedProjectFileException {
+    ProjectFileIR pfir = parseString(
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + 
+      "<drjava version=\"unknown\">\n" + 
+      "  <!-- a comment -->\n" +
+      "  <project root=\"src\" work=\"\" future=\"attribute\">\n" + 
+      "    <future><source><file name=\"Ignored.java\"/></source></future>\n" + 
+      "    <source>\n" + FILE_ENTRY + "      <folder name=\"x\"><file name=\"Ignored.java\"/></folder>\n    </source>\n" + 
+      "    some text\n" +
+      "    <watches><watch name=\"x\"/><other/></watches>\n" + 
+      "  </project>\n" + 
+      "  <project root=\"ignored\" work=\"\"/>\n" + 
+      "</drjava>\n");
+    assertEquals("number of source files", 1, pfir.getSourceFiles().length);
+    DocFile df = pfir.getSourceFiles()[0];
+    assertEquals("selection", new Pair<Integer,Integer>(1, 2), df.getSelection());
+    assertNull("no metadata", df.getMetadata());
+    assertEquals("number of watches", 1, pfir.getWatches().length);
+    assertEquals("no aux files", 0, pfir.getAuxiliaryFiles().length);
+    assertTrue("project root", pfir.getProjectRoot().getPath().endsWith("src"));
+  }
+  
+  /** Tests that malformed project files are rejected. */
+  public void testMalformed() throws IOException {
+    String[] bad = {
+      "<drjava><project work=\"\"/></drjava>",                                 // no root
+      "<drjava><project root=\"src\"/></drjava>",                              // no working directory
+      "<notdrjava><project root=\"src\" work=\"\"/></notdrjava>",                // wrong document element
+      "<drjava></drjava>",                                                   // no project
+      "<drjava><project root=\"src\" work=\"\"><source>" + FILE_ENTRY + "</project></drjava>",  // not well-formed
+      "<drjava><project root=\"src\" work=\"\"><source>" + FILE_ENTRY.replace("from=\"1\"", "from=\"one\"") + 
+        "</source></project></drjava>",                                      // not an integer
+      "<drjava><project root=\"src\" work=\"\"><source>" + FILE_ENTRY.replace("<select from=\"1\" to=\"2\"/>", "") + 
+        "</source></project></drjava>",                                      // no selection
+      "<drjava><project root=\"src\" work=\"\"><breakpoints>" + 
+        "<breakpoint file=\"A.java\" line=\"1\" enabled=\"maybe\"/></breakpoints></project></drjava>" // not a Boolean
+    };
+    for (String xml : bad) {
+      try {
+        parseString(xml);
+        fail("Parsed malformed project file " + xml);
+      }
+      catch(MalformedProjectFileException e) { /* expected */ }
+    }
+  }
+  
+  /** Times the parsing of a generated project file with the given number of source files (default 5000). */
+  public static void main(String... args) throws Exception {
+    int n = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+    StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<drjava version=\"unknown\">\n");
+    sb.append("  <project root=\"src\" work=\"\">\n    <source>\n");
+    for (int i = 0; i < n; i++) {
+      sb.append("      <file name=\"p").append(i / 50).append("/C").append(i).append(".java\" package=\"p");
+      sb.append(i / 50).append("\" timestamp=\"27-Mar-2008 15:05:07\" types=\"C").append(i).append("\" main=\"C");
+      sb.append(i).append("\" hash=\"").append(Long.toHexString(i * 31L)).append("\">\n");
+      sb.append("        <select from=\"0\" to=\"0\"/>\n        <scroll column=\"0\" row=\"0\"/>\n      </file>\n");
+    }
+    sb.append("    </source>\n  </project>\n</drjava>\n");
+    File f = File.createTempFile("project", ".xml");
+    f.deleteOnExit();
+    IOUtil.writeStringToFile(f, sb.toString());
+    for (int round = 0; round < 5; round++) {
+      long start = System.nanoTime();
+      ProjectFileIR pfir = ProjectFileParserFacade.ONLY.parse(f);
+      System.out.println("parsed " + pfir.getSourceFiles().length + " files in " + 
+                         (System.nanoTime() - start) / 1000000 + "ms");
+    }
+  }
 }
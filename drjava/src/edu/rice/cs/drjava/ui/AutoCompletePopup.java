@@ -418,6 +418,7 @@ public class AutoCompletePopup {
     else {
       _apiEntries.clear();
       _apiEntries.addAll(apiSet);
+      _apiEntries.addAll(_mainFrame.getProjectJarClassSet());
     }
   }
   
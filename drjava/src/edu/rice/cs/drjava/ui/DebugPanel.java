@@ -37,6 +37,7 @@
 package edu.rice.cs.drjava.ui;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.*;
 import javax.swing.table.*;
@@ -50,6 +51,7 @@ import edu.rice.cs.drjava.model.OpenDefinitionsDocument;
 import edu.rice.cs.drjava.config.*;
 import edu.rice.cs.util.swing.Utilities;
 import edu.rice.cs.util.swing.RightClickMouseAdapter;
+import edu.rice.cs.plt.tuple.Quad;
 
 /** * Panel for displaying the debugger input and output in MainFrame.  This
  * class is a swing view class and hence should only be accessed from the 
@@ -91,6 +93,13 @@ public class DebugPanel extends JPanel implements OptionConstants {
   private ArrayList<DebugThreadData> _threads;
   private ArrayList<DebugStackData> _stackFrames;
   
+  /** The contents of the watch table after the last update: name, value, type, and whether the value changed.  The
+    * watch list itself is updated in place by the debugger, so it can't be compared with its previous state.
+    */
+  private ArrayList<Quad<String, String, String, Boolean>> _shownWatches;
+  /** The id of the thread shown as current after the last update. */
+  private long _shownThreadID;
+  
   /* The following field is commented out because it was never written (and hence always null). */
 //  private DefaultTreeCellRenderer dtcr;
 
@@ -110,6 +119,8 @@ public class DebugPanel extends JPanel implements OptionConstants {
     _watches = new ArrayList<DebugWatchData>();
     _threads = new ArrayList<DebugThreadData>();
     _stackFrames = new ArrayList<DebugStackData>();
+    _shownWatches = new ArrayList<Quad<String, String, String, Boolean>>();
+    _shownThreadID = 0;
     _leftPane = new JTabbedPane();
     _rightPane = new JTabbedPane();
 
@@ -149,9 +160,13 @@ public class DebugPanel extends JPanel implements OptionConstants {
     new BackgroundColorListener(c);
   }
 
-  /** Causes all display tables to update their information from the debug manager. */
+  /** Causes all display tables to update their information from the debug manager.  Only the rows whose contents
+    * changed are repainted, so the selection in each table is kept while stepping.
+    */
   public void updateData() {
     assert EventQueue.isDispatchThread();
+    ArrayList<DebugThreadData> oldThreads = _threads;
+    ArrayList<DebugStackData> oldStackFrames = _stackFrames;
     if (_debugger.isReady()) {
       try {
         _watches = _debugger.getWatches();
@@ -172,10 +187,36 @@ public class DebugPanel extends JPanel implements OptionConstants {
       _threads = new ArrayList<DebugThreadData>();
       _stackFrames = new ArrayList<DebugStackData>();
     }
+    
+    ArrayList<Quad<String, String, String, Boolean>> oldWatches = _shownWatches;
+    _shownWatches = new ArrayList<Quad<String, String, String, Boolean>>(_watches.size());
+    for (DebugWatchData w : _watches) {
+      _shownWatches.add(Quad.make(w.getName(), w.getValue(), w.getType(), w.isChanged()));
+    }
 
-    ((AbstractTableModel)_watchTable.getModel()).fireTableDataChanged();
-    ((AbstractTableModel)_stackTable.getModel()).fireTableDataChanged();
-    ((AbstractTableModel)_threadTable.getModel()).fireTableDataChanged();
+    _fireChanges((AbstractTableModel)_watchTable.getModel(), oldWatches, _shownWatches);
+    _fireChanges((AbstractTableModel)_stackTable.getModel(), oldStackFrames, _stackFrames);
+    if (_shownThreadID != _currentThreadID) {
+      // the current thread is shown in bold
+      _shownThreadID = _currentThreadID;
+      ((AbstractTableModel)_threadTable.getModel()).fireTableDataChanged();
+    }
+    else { _fireChanges((AbstractTableModel)_threadTable.getModel(), oldThreads, _threads); }
+  }
+  
+  /** Notifies a table model of the rows that differ between the old and new contents of its table: all of them if the
+    * number of rows changed, otherwise only those whose contents are not equal.
+    * @param model the table model
+    * @param oldRows the contents of the table before the update
+    * @param newRows the contents of the table after the update
+    */
+  private static void _fireChanges(AbstractTableModel model, List<?> oldRows, List<?> newRows) {
+    if (oldRows.size() != newRows.size()) { model.fireTableDataChanged(); }
+    else {
+      for (int i = 0; i < newRows.size(); i++) {
+        if (! oldRows.get(i).equals(newRows.get(i))) { model.fireTableRowsUpdated(i, i); }
+      }
+    }
   }
 
 
@@ -313,11 +354,9 @@ public class DebugPanel extends JPanel implements OptionConstants {
           case 1: return watch.getValue();
           case 2: return watch.getType();
         }
-        fireTableRowsUpdated(row, _watches.size()-1);
         return null;
       }
       else {
-        fireTableRowsUpdated(row, _watches.size()-1);
         // Last row blank
         return "";
       }
@@ -339,8 +378,8 @@ public class DebugPanel extends JPanel implements OptionConstants {
           // Add value
           _debugger.addWatch(String.valueOf(value));
         }
-        //fireTableCellUpdated(row, col);
-        fireTableRowsUpdated(row, _watches.size()-1);
+        // adding or removing a watch changes the number of rows
+        fireTableDataChanged();
       }
       catch (DebugException de) { MainFrameStatics.showDebugError(_frame, de); }
     }
@@ -39,9 +39,10 @@ package edu.rice.cs.drjava.ui;
 import java.awt.*;
 import java.awt.datatransfer.*;
 import java.awt.event.*;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
-import java.lang.ref.WeakReference;
+import java.util.Set;
 
 import javax.swing.*;
 import javax.swing.event.*;
@@ -57,6 +58,7 @@ import edu.rice.cs.drjava.model.ClipboardHistoryModel;
 import edu.rice.cs.drjava.model.MovingDocumentRegion;
 import edu.rice.cs.drjava.model.RegionManager;
 import edu.rice.cs.plt.lambda.Runnable1;
+import edu.rice.cs.plt.lambda.Thunk;
 import edu.rice.cs.util.UnexpectedException;
 import edu.rice.cs.util.swing.BorderlessScrollPane;
 import edu.rice.cs.util.text.SwingDocument;
@@ -587,7 +589,8 @@ class FindReplacePanel extends TabbedPanel implements ClipboardOwner {
     EventQueue.invokeLater(new Runnable() { public void run() { panel.getRegTree().scrollRowToVisible(0); } });
   }
   
-  /** Performs "find all" with the specified options. 
+  /** Performs "find all" with the specified options.  Shows panel and returns before the search completes; the 
+    * occurrences are added to rm as they are found.  Only executes in the event thread.
     * @param searchStr string to search for
     * @param searchAll true if we should search all documents
     * @param searchSelectionOnly true if we should search only the current selection
@@ -609,6 +612,78 @@ class FindReplacePanel extends TabbedPanel implements ClipboardOwner {
     final int searchLen = searchStr.length();
     if (searchLen == 0) return;
     
+    /* The documents to search and, when searching all of them, a search of the trigram index that narrows them to
+     * those containing searchStr.  The index search reads the text of every open document, so it runs in another 
+     * thread; the matches in each remaining document are then found in the event thread, one document per event, and 
+     * added to the results panel (which is shown right away) as they are found. */
+    final List<OpenDefinitionsDocument> docs = new ArrayList<OpenDefinitionsDocument>();
+    final Thunk<Set<OpenDefinitionsDocument>> docsContainingStr = 
+      _inSearchState(startDoc, searchStr, searchAll, searchSelectionOnly, matchCase, wholeWord, noComments, noTestCases, 
+                     new Thunk<Thunk<Set<OpenDefinitionsDocument>>>() {
+      public Thunk<Set<OpenDefinitionsDocument>> value() {
+        docs.addAll(_machine.getDocumentsToSearch());
+        return searchAll ? _machine.getDocumentsContainingFindWord() : null;
+      }
+    });
+    
+    final Runnable1<FindResult> addResult = new Runnable1<FindResult>() { 
+      public void run(FindResult fr) {
+        final OpenDefinitionsDocument doc = fr.getDocument();
+        final int end = fr.getFoundOffset();
+        final int start = end - searchLen;
+        final int lineStart = doc._getLineStartPos(start);
+        final int lineEnd = doc._getLineEndPos(end);
+        rm.addRegion(new MovingDocumentRegion(doc, start, end, lineStart, lineEnd));
+      }
+    };
+    final int[] count = { 0 };
+    
+    _frame.setStatusMessage("Finding All");
+    _frame.showFindResultsPanel(panel);
+    
+    new Thread("Find All") {
+      public void run() {
+        try {
+          final Set<OpenDefinitionsDocument> candidates = 
+            (docsContainingStr == null) ? null : docsContainingStr.value();
+          for (final OpenDefinitionsDocument doc: docs) {
+            if (candidates != null && ! candidates.contains(doc)) continue;
+            EventQueue.invokeLater(new Runnable() { public void run() {
+              // the user may have closed the results panel or the document since the search started
+              if (! panel.isDisplayed() || ! _model.getOpenDefinitionsDocuments().contains(doc)) return;
+              count[0] += _inSearchState(doc, searchStr, false, searchSelectionOnly, matchCase, wholeWord, noComments,
+                                         noTestCases, new Thunk<Integer>() {
+                public Integer value() { return _machine.processAll(addResult, region); }
+              });
+            } });
+          }
+        }
+        finally {
+          EventQueue.invokeLater(new Runnable() { public void run() {
+            _finishFindAll(count[0], searchSelectionOnly, region, panel);
+          } });
+        }
+      }
+    }.start();
+  }
+  
+  /** Runs task with the machine set up to search doc with the given options, then restores the previous state of the
+    * machine, so that other commands can use the machine between the steps of a "find all".  Only executes in the
+    * event thread.
+    * @param doc the document in which to search
+    * @param searchStr string to search for
+    * @param searchAll true if we should search all documents
+    * @param searchSelectionOnly true if we should search only the current selection
+    * @param matchCase true if search should be case-sensitive
+    * @param wholeWord true if we want to match the whole word
+    * @param noComments true if we want to ignore comments
+    * @param noTestCases true if we want to ignore test cases
+    * @param task the task to run
+    * @return the result of task
+    */
+  private <R> R _inSearchState(OpenDefinitionsDocument doc, String searchStr, boolean searchAll, 
+                               boolean searchSelectionOnly, boolean matchCase, boolean wholeWord, boolean noComments, 
+                               boolean noTestCases, Thunk<R> task) {
     final OpenDefinitionsDocument oldDoc = _machine.getDocument();
     final OpenDefinitionsDocument oldFirstDoc = _machine.getFirstDoc();
     final String oldFindWord = _machine.getFindWord();
@@ -620,71 +695,54 @@ class FindReplacePanel extends TabbedPanel implements ClipboardOwner {
     final boolean oldNoTestCases = _machine.getIgnoreTestCases();
     final int oldPosition = _machine.getCurrentOffset();
     
-//    _updateMachine();
-    _machine.setDocument(startDoc);
-    if (_machine.getFirstDoc() == null) _machine.setFirstDoc(startDoc);
+    _machine.setDocument(doc);
+    if (_machine.getFirstDoc() == null) _machine.setFirstDoc(doc);
     _machine.setSearchAllDocuments(searchAll);
     _machine.setSearchSelectionOnly(searchSelectionOnly);
     _machine.setMatchCase(matchCase);
     if (wholeWord) { _machine.setMatchWholeWord(); }
     else { _machine.setFindAnyOccurrence(); }
     _machine.setIgnoreCommentsAndStrings(noComments);
-    _machine.setPosition(startDoc.getCurrentLocation());
+    _machine.setPosition(doc.getCurrentLocation());
     _machine.setIgnoreTestCases(noTestCases);
-
     _machine.setFindWord(searchStr);
-    final String replaceStr = _replaceField.getText();
-    _machine.setReplaceWord(replaceStr);
-    final List<FindResult> results = new ArrayList<FindResult>();
+    _machine.setReplaceWord(_replaceField.getText());
     
-    _frame.setStatusMessage("Finding All");
-    repaint();
-        
-    _frame.hourglassOn();
-    int count = 0;
-    try {
-      /* Accumulate all occurrences of searchStr in results. */
-      count = _machine.processAll(new Runnable1<FindResult>() { public void run(FindResult fr) { results.add(fr); }}, region);
+    try { return task.value(); }
+    finally {
+      /* Restore state of FindReplaceMachine */
+      _machine.setDocument(oldDoc);
+      _machine.setFirstDoc(oldFirstDoc);
+      _machine.setFindWord(oldFindWord);
+      _machine.setSearchAllDocuments(oldSearchAll);
+      _machine.setSearchSelectionOnly(oldSearchSelectionOnly);
+      _machine.setMatchCase(oldMatchCase);
+      if (oldWholeWord) { _machine.setMatchWholeWord(); }
+      else { _machine.setFindAnyOccurrence(); }
+      _machine.setIgnoreCommentsAndStrings(oldNoComments);
+      _machine.setIgnoreTestCases(oldNoTestCases);
+      _machine.setPosition(oldPosition);
     }
-    finally { 
-      _frame.hourglassOff(); 
-      
-      // extracted from run() above because findAll occasionally left active document in inconsistent state 
-//      _model.setActiveDocument(startDoc);
-      _model.refreshActiveDocument();
-    } 
-//    _frame.clearStatusMessage(); 
-    /* Restore state of FindReplaceMachine */
-//    System.out.println("Restoring FindReplaceMachine");
-    _machine.setDocument(oldDoc);
-    _machine.setFirstDoc(oldFirstDoc);
-    _machine.setFindWord(oldFindWord);
-    _machine.setSearchAllDocuments(oldSearchAll);
-    _machine.setSearchSelectionOnly(oldSearchSelectionOnly);
-    _machine.setMatchCase(oldMatchCase);
-    if (oldWholeWord) { _machine.setMatchWholeWord(); }
-    else { _machine.setFindAnyOccurrence(); }
-    _machine.setIgnoreCommentsAndStrings(oldNoComments);
-    _machine.setIgnoreTestCases(oldNoTestCases);
-    _machine.setPosition(oldPosition);
-    
-//    System.out.println("Adding found regions to corresponding documents");
-    for (FindResult fr: results) {
-      
-      final OpenDefinitionsDocument doc = fr.getDocument();
-      
-      final int end = fr.getFoundOffset();
-      final int start = end - searchLen;
-      final int lineStart = doc._getLineStartPos(start);
-      final int lineEnd = doc._getLineEndPos(end);
-      
-      rm.addRegion(new MovingDocumentRegion(doc, start, end, lineStart, lineEnd));                       
+  }
+  
+  /** Reports the result of a "find all" once all of its documents have been searched.  Only executes in the event 
+    * thread.
+    * @param count the number of occurrences found
+    * @param searchSelectionOnly true if only the current selection was searched
+    * @param region the selection region
+    * @param panel panel in which the search results are displayed
+    */
+  private void _finishFindAll(int count, boolean searchSelectionOnly, final MovingDocumentRegion region, 
+                              FindResultsPanel panel) {
+    // extracted from findAll because findAll occasionally left active document in inconsistent state 
+    _model.refreshActiveDocument();
+    // update display (perhaps adding "*") in navigatgorPane
+    _model.getDocumentNavigator().repaint();
+    
+    if (panel.isDisplayed()) {
+      if (count > 0) panel.updatePanel();
+      else panel._close();
     }
-      
-    if (count > 0) _frame.showFindResultsPanel(panel);
-    else panel.freeResources();
-    
-//    _model.refreshActiveDocument();  // force tabbed pane to show count for find command
     
     if (searchSelectionOnly) 
       EventQueue.invokeLater(new Runnable() { public void run() { 
@@ -694,9 +752,7 @@ class FindReplacePanel extends TabbedPanel implements ClipboardOwner {
         _defPane.setSelectionEnd(region.getEndOffset());
       }
     } }); 
-//    System.out.println("Completing findAll call");
     Toolkit.getDefaultToolkit().beep();
-//    System.out.println("Updating status message to report number of matching occurrences");
     _frame.setStatusMessage("Found " + count + " occurrence" + ((count == 1) ? "" : "s") + ".");
   }
   
@@ -0,0 +1,413 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.ui;
+
+import java.io.*;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.util.FileOps;
+import edu.rice.cs.util.Log;
+
+import edu.rice.cs.drjava.ui.MainFrameStatics.JavaAPIListEntry;
+
+/** A compact, read-only list of classes for the "Open Javadoc", "Auto Import" and auto-completion dialogs, stored in a
+  * binary file that can be memory-mapped and queried without parsing.  Each class is three indices into a table of
+  * distinct strings: the Javadoc URL prefix, the package path and the class name (with '.' separating nested
+  * classes), so that a package or URL prefix is stored, and decoded, only once.  The indices for the Java API are
+  * generated from the Javadoc "allclasses" listings at build time by {@link #main}; indices for the jars on a project's
+  * class path are generated when needed by {@link #forJar} and kept in a cache directory.
+  * <p>
+  * The format, with all numbers big-endian: the magic number and version; the length and modification time of the
+  * jar the index was made from (both 0 for Javadoc listings); the number of strings and of classes; the offset of each
+  * string; three string indices for each class (-1 for no URL prefix); and the strings, each an unsigned 16-bit length
+  * followed by that many bytes of UTF-8.</p>
+  * @version $Id$
+  */
+public class JavaAPIIndex {
+  
+  private static final Log _log = new Log("JavaAPIIndex.txt", false);
+  
+  public static final int MAGIC = 0x444a4149;  // "DJAI"
+  public static final int VERSION = 1;
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+  
+  /** The default directory for the indices of project jars, shared by all DrJava instances of the current user and
+    * private to that user, or null if there is no such directory. */
+  public static File defaultCacheDirectory() { return FileOps.getCacheDirectory("javaapi"); }
+  
+  private final ByteBuffer _buffer;
+  private final int _stringCount;
+  private final int _classCount;
+  private final int _classesStart;
+  private final int _stringsStart;
+  /** The strings decoded so far, so that each is decoded (and allocated) once. */
+  private final String[] _strings;
+  
+  /** @param buffer the contents of an index
+    * @throws IOException if the buffer does not hold an index of the current version */
+  private JavaAPIIndex(ByteBuffer buffer) throws IOException {
+    _buffer = buffer;
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a Java API index");
+    }
+    _stringCount = buffer.getInt(24);
+    _classCount = buffer.getInt(28);
+    _classesStart = HEADER_SIZE + 4 * _stringCount;
+    _stringsStart = _classesStart + 12 * _classCount;
+    if (_stringCount < 0 || _classCount < 0 || _stringsStart > buffer.limit()) {
+      throw new IOException("Truncated Java API index");
+    }
+    _strings = new String[_stringCount];
+  }
+  
+  /** Memory-map the given index file.
+    * @param f an index file
+    * @return the index
+    * @throws IOException if the file can't be read or is not an index */
+  public static JavaAPIIndex map(File f) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(f, "r");
+    try {
+      // the mapping stays valid after the channel is closed
+      MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+      return new JavaAPIIndex(buffer);
+    }
+    finally { raf.close(); }
+  }
+  
+  /** Read an index that can't be mapped, such as a resource in DrJava's jar file.
+    * @param url the location of the index
+    * @return the index
+    * @throws IOException if the index can't be read */
+  public static JavaAPIIndex read(URL url) throws IOException {
+    InputStream in = url.openStream();
+    try { return read(IOUtil.toByteArray(in)); }
+    finally { in.close(); }
+  }
+  
+  /** @param bytes the contents of an index
+    * @return the index
+    * @throws IOException if the bytes are not an index */
+  public static JavaAPIIndex read(byte[] bytes) throws IOException { return new JavaAPIIndex(ByteBuffer.wrap(bytes)); }
+  
+  /** @return the number of classes */
+  public int size() { return _classCount; }
+  
+  /** @return the length of the jar file this index was made from, or 0 */
+  public long getSourceLength() { return _buffer.getLong(8); }
+  
+  /** @return the modification time of the jar file this index was made from, or 0 */
+  public long getSourceModified() { return _buffer.getLong(16); }
+  
+  /** @param i a class number
+    * @return the class name, without its package, e.g. "Entry" for java.util.Map.Entry */
+  public String getSimpleName(int i) {
+    String name = _string(_field(i, 2));
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+  
+  /** @param i a class number
+    * @return the fully-qualified class name, e.g. "java.util.Map.Entry" */
+  public String getFullName(int i) {
+    String pkg = _string(_field(i, 1));
+    String name = _string(_field(i, 2));
+    return (pkg.length() == 0) ? name : (pkg.replace('/', '.') + "." + name);
+  }
+  
+  /** @param i a class number
+    * @return the URL of the class's Javadoc page, or null if it is not known */
+  public URL getURL(int i) {
+    int prefix = _field(i, 0);
+    if (prefix < 0) { return null; }
+    String pkg = _string(_field(i, 1));
+    String path = (pkg.length() == 0) ? _string(_field(i, 2)) : (pkg + "/" + _string(_field(i, 2)));
+    try { return new URL(_string(prefix) + path + ".html"); }
+    catch (MalformedURLException e) { return null; }
+  }
+  
+  /** @return an entry for each class.  The entries share this index's strings and compute their URLs on demand. */
+  public Set<JavaAPIListEntry> toEntries() {
+    Set<JavaAPIListEntry> result = new HashSet<JavaAPIListEntry>(2 * _classCount);
+    for (int i = 0; i < _classCount; ++i) { result.add(new Entry(i)); }
+    return result;
+  }
+  
+  /** An entry whose URL is looked up in the index when it is needed. */
+  private class Entry extends JavaAPIListEntry {
+    private final int _i;
+    public Entry(int i) {
+      super(getSimpleName(i), getFullName(i), null);
+      _i = i;
+    }
+    public URL getURL() { return JavaAPIIndex.this.getURL(_i); }
+  }
+  
+  private int _field(int i, int field) {
+    if (i < 0 || i >= _classCount) { throw new IndexOutOfBoundsException("class " + i); }
+    return _buffer.getInt(_classesStart + 12 * i + 4 * field);
+  }
+  
+  private synchronized String _string(int s) {
+    String result = _strings[s];
+    if (result == null) {
+      int offset = _stringsStart + _buffer.getInt(HEADER_SIZE + 4 * s);
+      int length = _buffer.getShort(offset) & 0xffff;
+      byte[] bytes = new byte[length];
+      ByteBuffer b = _buffer.duplicate();
+      b.position(offset + 2);
+      b.get(bytes);
+      try { result = new String(bytes, "UTF-8"); }
+      catch (UnsupportedEncodingException e) { throw new RuntimeException(e); }  // every JVM supports UTF-8
+      _strings[s] = result;
+    }
+    return result;
+  }
+  
+  
+  /** Collects classes and writes them as an index. */
+  public static class Builder {
+    private final HashMap<String, Integer> _stringIndices = new HashMap<String, Integer>();
+    private final List<String> _strings = new ArrayList<String>();
+    private final List<int[]> _classes = new ArrayList<int[]>();
+    private final HashSet<String> _seen = new HashSet<String>();
+    private long _sourceLength = 0;
+    private long _sourceModified = 0;
+    
+    /** Add a class, unless a class with the same package and name was already added.
+      * @param urlPrefix the Javadoc URL up to the package path, or null
+      * @param packagePath the package, with '/' separators
+      * @param name the class name within its package, with '.' separating nested classes */
+    public void add(String urlPrefix, String packagePath, String name) {
+      if (! _seen.add(packagePath + "/" + name)) { return; }
+      _classes.add(new int[] { (urlPrefix == null) ? -1 : _intern(urlPrefix), _intern(packagePath), _intern(name) });
+    }
+    
+    /** @return the number of classes added */
+    public int size() { return _classes.size(); }
+    
+    private int _intern(String s) {
+      Integer result = _stringIndices.get(s);
+      if (result == null) {
+        result = _strings.size();
+        _strings.add(s);
+        _stringIndices.put(s, result);
+      }
+      return result;
+    }
+    
+    /** Add the classes linked from a Javadoc "allclasses" listing.  Only absolute links into a "/docs/api/" directory
+      * are used, as in the listings shipped with DrJava.
+      * @param url the location of the listing
+      * @throws IOException if the listing can't be read */
+    public void addJavadocList(URL url) throws IOException {
+      final String aText = "<a href=\"";
+      final String apiDir = "/docs/api/";
+      final String hText = ".html\"";
+      BufferedReader br = new BufferedReader(new InputStreamReader(url.openStream()));
+      try {
+        for (String line = br.readLine(); line != null; line = br.readLine()) {
+          String lower = line.toLowerCase();
+          int aPos = lower.indexOf(aText);
+          if (aPos < 0) { continue; }
+          int linkStart = aPos + aText.length();
+          int pathStart = line.indexOf(apiDir, linkStart);
+          if (pathStart < 0) { continue; }
+          pathStart += apiDir.length();
+          int pathEnd = lower.indexOf(hText, pathStart);
+          if (pathEnd < 0) { continue; }
+          String prefix = line.substring(linkStart, pathStart);
+          String path = line.substring(pathStart, pathEnd);
+          try { new URL(prefix + path + ".html"); }
+          catch (MalformedURLException e) { continue; }  // ignore, we'll just not put this class in the list
+          int slash = path.lastIndexOf('/');
+          add(prefix, (slash < 0) ? "" : path.substring(0, slash), path.substring(slash + 1));
+        }
+      }
+      finally { br.close(); }
+    }
+    
+    /** Add the named classes in a jar file, without Javadoc URLs.  Anonymous and local classes are skipped.
+      * @param jar the jar file
+      * @throws IOException if the jar file can't be read */
+    public void addJar(File jar) throws IOException {
+      _sourceLength = jar.length();
+      _sourceModified = jar.lastModified();
+      JarFile jf = new JarFile(jar);
+      try {
+        Enumeration<JarEntry> entries = jf.entries();
+        while (entries.hasMoreElements()) {
+          String name = entries.nextElement().getName();
+          if (! name.endsWith(".class") || name.startsWith("META-INF/")) { continue; }
+          name = name.substring(0, name.length() - ".class".length());
+          int slash = name.lastIndexOf('/');
+          String simple = name.substring(slash + 1);
+          if (simple.equals("package-info") || simple.equals("module-info") || ! _isNamed(simple)) { continue; }
+          add(null, (slash < 0) ? "" : name.substring(0, slash), simple.replace('$', '.'));
+        }
+      }
+      finally { jf.close(); }
+    }
+    
+    /** @return true iff no part of a binary class name is empty or starts with a digit (as anonymous and local
+      *         classes do) */
+    private static boolean _isNamed(String binaryName) {
+      for (String part : binaryName.split("\\$", -1)) {
+        if (part.length() == 0 || Character.isDigit(part.charAt(0))) { return false; }
+      }
+      return true;
+    }
+    
+    /** Write the index.
+      * @param out the stream to write to; it is not closed
+      * @throws IOException if writing fails */
+    public void write(OutputStream out) throws IOException {
+      List<byte[]> encoded = new ArrayList<byte[]>(_strings.size());
+      for (String s : _strings) {
+        byte[] bytes = s.getBytes("UTF-8");
+        if (bytes.length > 0xffff) { throw new IOException("String too long for a Java API index: " + s); }
+        encoded.add(bytes);
+      }
+      DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeLong(_sourceLength);
+      data.writeLong(_sourceModified);
+      data.writeInt(_strings.size());
+      data.writeInt(_classes.size());
+      int offset = 0;
+      for (byte[] bytes : encoded) {
+        data.writeInt(offset);
+        offset += 2 + bytes.length;
+      }
+      for (int[] c : _classes) {
+        for (int field : c) { data.writeInt(field); }
+      }
+      for (byte[] bytes : encoded) {
+        data.writeShort(bytes.length);
+        data.write(bytes);
+      }
+      data.flush();
+    }
+    
+    /** Write the index to a file, through a temporary file so that a concurrent reader never sees a partial index.
+      * @param f the file to write
+      * @throws IOException if writing fails */
+    public void write(File f) throws IOException {
+      File parent = f.getAbsoluteFile().getParentFile();
+      IOUtil.attemptMkdirs(parent);
+      File temp = File.createTempFile(f.getName(), ".tmp", parent);
+      OutputStream out = new FileOutputStream(temp);
+      try { write(out); }
+      finally { out.close(); }
+      if (! IOUtil.attemptMove(temp, f)) {
+        IOUtil.attemptDelete(temp);
+        throw new IOException("Can't write " + f);
+      }
+    }
+  }
+  
+  
+  /** Get the index of the classes in a jar file, from the cache directory if it is up to date, or by reading the jar
+    * and saving its index in the cache directory.
+    * @param jar the jar file
+    * @param cacheDirectory the directory holding the indices of jar files, or null to always read the jar
+    * @return the index of the jar's classes
+    * @throws IOException if the jar can't be read */
+  public static JavaAPIIndex forJar(File jar, File cacheDirectory) throws IOException {
+    File canonical = IOUtil.attemptCanonicalFile(jar);
+    if (cacheDirectory == null) {
+      Builder b = new Builder();
+      b.addJar(canonical);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      b.write(out);
+      return read(out.toByteArray());
+    }
+    File cached = new File(cacheDirectory,
+                           canonical.getName() + "-" + Integer.toHexString(canonical.getPath().hashCode()) + ".idx");
+    if (cached.isFile()) {
+      try {
+        JavaAPIIndex index = map(cached);
+        if (index.getSourceLength() == canonical.length() && index.getSourceModified() == canonical.lastModified()) {
+          return index;
+        }
+      }
+      catch (IOException e) { _log.log("Can't read cached index ", cached, ": ", e); }
+    }
+    Builder b = new Builder();
+    b.addJar(canonical);
+    try {
+      b.write(cached);
+      return map(cached);
+    }
+    catch (IOException e) {
+      // the cache is only an optimization
+      _log.log("Can't write cached index ", cached, ": ", e);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      b.write(out);
+      return read(out.toByteArray());
+    }
+  }
+  
+  /** Generate the indices of Javadoc "allclasses" listings; called by the build script.
+    * @param args the output directory, followed by the listings; each index is named like its listing, with the
+    *        extension ".idx" instead of ".html"
+    * @throws IOException if a listing can't be read or an index can't be written */
+  public static void main(String... args) throws IOException {
+    File outDir = new File(args[0]);
+    for (int i = 1; i < args.length; ++i) {
+      File listing = new File(args[i]);
+      Builder b = new Builder();
+      b.addJavadocList(listing.toURI().toURL());
+      String name = listing.getName();
+      if (name.endsWith(".html")) { name = name.substring(0, name.length() - ".html".length()); }
+      b.write(new File(outDir, name + ".idx"));
+      System.out.println(listing + ": " + b.size() + " classes");
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.drjava.ui;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.plt.io.IOUtil;
+
+import edu.rice.cs.drjava.ui.MainFrameStatics.JavaAPIListEntry;
+
+/** Tests the binary Java API class lists.
+  * @version $Id$
+  */
+public final class JavaAPIIndexTest extends DrJavaTestCase {
+  
+  private File _tempDir;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    String user = System.getProperty("user.name");
+    _tempDir = IOUtil.createAndMarkTempDirectory("DrJava-test-" + user, "");
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    super.tearDown();
+  }
+  
+  private static Map<String, JavaAPIListEntry> _byFullName(Set<JavaAPIListEntry> entries) {
+    Map<String, JavaAPIListEntry> result = new HashMap<String, JavaAPIListEntry>();
+    for (JavaAPIListEntry e : entries) { result.put(e.getFullString(), e); }
+    return result;
+  }
+  
+  public void testJavadocList() throws IOException {
+    URL listing = getClass().getResource("/edu/rice/cs/drjava/docs/javaapi/allclasses-1.8.html");
+    assertNotNull("docs.jar should be on the class path", listing);
+    JavaAPIIndex.Builder b = new JavaAPIIndex.Builder();
+    b.addJavadocList(listing);
+    File f = new File(_tempDir, "allclasses-1.8.idx");
+    b.write(f);
+    
+    JavaAPIIndex index = JavaAPIIndex.map(f);
+    assertEquals(b.size(), index.size());
+    assertTrue("the Java 8 API has thousands of classes", index.size() > 4000);
+    assertTrue("the index should be much smaller than the HTML", f.length() < 200000);
+    
+    Map<String, JavaAPIListEntry> entries = _byFullName(index.toEntries());
+    assertEquals(index.size(), entries.size());
+    JavaAPIListEntry entry = entries.get("java.util.Map.Entry");
+    assertNotNull(entry);
+    assertEquals("Entry", entry.getClassName());
+    assertEquals("java.util.Map.", entry.getFullPackage());
+    assertEquals(new URL("http://docs.oracle.com/javase/8/docs/api/java/util/Map.Entry.html"), entry.getURL());
+    assertEquals(new URL("http://docs.oracle.com/javase/8/docs/api/java/lang/String.html"),
+                 entries.get("java.lang.String").getURL());
+  }
+  
+  public void testGeneratedListMatchesParsedList() throws IOException {
+    Set<JavaAPIListEntry> parsed = MainFrame._generateJavaAPISet("/allclasses-1.7.html");
+    JavaAPIIndex.Builder b = new JavaAPIIndex.Builder();
+    b.addJavadocList(getClass().getResource("/edu/rice/cs/drjava/docs/javaapi/allclasses-1.7.html"));
+    File f = new File(_tempDir, "allclasses-1.7.idx");
+    b.write(f);
+    Map<String, JavaAPIListEntry> mapped = _byFullName(JavaAPIIndex.map(f).toEntries());
+    assertEquals(parsed.size(), mapped.size());
+    for (JavaAPIListEntry e : parsed) {
+      JavaAPIListEntry m = mapped.get(e.getFullString());
+      assertNotNull(e.getFullString(), m);
+      assertEquals(e.getClassName(), m.getClassName());
+      assertEquals(e.getURL(), m.getURL());
+    }
+  }
+  
+  private static void _writeJar(File jar, String... entries) throws IOException {
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    try {
+      for (String e : entries) {
+        out.putNextEntry(new ZipEntry(e));
+        out.write(new byte[] { (byte) 0xca, (byte) 0xfe });
+        out.closeEntry();
+      }
+    }
+    finally { out.close(); }
+  }
+  
+  public void testJar() throws IOException {
+    File jar = new File(_tempDir, "lib.jar");
+    _writeJar(jar, "a/b/Outer.class", "a/b/Outer$Inner.class", "a/b/Outer$1.class", "a/b/Outer$1Local.class",
+              "a/b/package-info.class", "Top.class", "a/b/readme.txt", "META-INF/versions/9/a/b/Outer.class");
+    File cacheDir = new File(_tempDir, "cache");
+    JavaAPIIndex index = JavaAPIIndex.forJar(jar, cacheDir);
+    Map<String, JavaAPIListEntry> entries = _byFullName(index.toEntries());
+    assertEquals(3, entries.size());
+    assertTrue(entries.containsKey("a.b.Outer"));
+    assertTrue(entries.containsKey("Top"));
+    JavaAPIListEntry inner = entries.get("a.b.Outer.Inner");
+    assertEquals("Inner", inner.getClassName());
+    assertNull(inner.getURL());
+    
+    File[] cached = cacheDir.listFiles();
+    assertEquals(1, cached.length);
+    long written = cached[0].lastModified();
+    cached[0].setLastModified(written - 10000);
+    assertEquals("unchanged jar should use the cached index", 3, JavaAPIIndex.forJar(jar, cacheDir).size());
+    assertEquals(written - 10000, cached[0].lastModified());
+    
+    _writeJar(jar, "c/New.class");
+    jar.setLastModified(jar.lastModified() + 2000);
+    index = JavaAPIIndex.forJar(jar, cacheDir);
+    assertEquals(1, index.size());
+    assertEquals("c.New", index.getFullName(0));
+    assertEquals(1, cacheDir.listFiles().length);
+  }
+  
+  public void testNotAnIndex() throws IOException {
+    try {
+      JavaAPIIndex.read(new byte[] { 1, 2, 3 });
+      fail("should not accept a truncated index");
+    }
+    catch (IOException e) { /* expected */ }
+  }
+}
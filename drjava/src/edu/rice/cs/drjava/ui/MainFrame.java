@@ -66,6 +66,7 @@ import java.util.StringTokenizer;
 import java.util.Vector;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.net.URL;
@@ -1791,11 +1792,19 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
     });
   }
   
-  /** Generate Java API class list. 
+  /** Generate Java API class list.  Uses the index generated from the class list at build time, if there is one.
    * @param suffix the suffix to append to the API path
    * @return the Java API class list
    */
   public static Set<JavaAPIListEntry> _generateJavaAPISet(String suffix) {
+    if (suffix.endsWith(".html")) {
+      String indexSuffix = suffix.substring(0, suffix.length() - ".html".length()) + ".idx";
+      URL indexURL = MainFrame.class.getResource("/edu/rice/cs/drjava/docs/javaapi" + indexSuffix);
+      if (indexURL != null) {
+        try { return JavaAPIIndex.read(indexURL).toEntries(); }
+        catch(IOException ioe) { _log.log("Could not read Java API index ", indexURL, ": ", ioe); }
+      }
+    }
     URL url = MainFrame.class.getResource("/edu/rice/cs/drjava/docs/javaapi" + suffix);
     return _generateJavaAPISet(url);
   }
@@ -1806,56 +1815,16 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
    */
   public static Set<JavaAPIListEntry> _generateJavaAPISet(URL url) {
 //    _log.log("URL for Java API = '" + url + "'");
-    Set<JavaAPIListEntry> s = new HashSet<JavaAPIListEntry>();
-    if (url == null) return s;
+    if (url == null) return new HashSet<JavaAPIListEntry>();
+    JavaAPIIndex.Builder b = new JavaAPIIndex.Builder();
+    try { b.addJavadocList(url); }
+    catch(IOException ioe) { /* ignore, we'll just have an incomplete list */ }
     try {
-      InputStream urls = url.openStream();
-      InputStreamReader is = null;
-      BufferedReader br = null;
-      try {
-        is = new InputStreamReader(urls);
-        br = new BufferedReader(is);
-        String line = br.readLine();
-        final String aText = "<a href=\"";  
-        final int aTextLength = aText.length();
-        final String classNamePrefix = "/docs/api/";
-        final int prefixLength = classNamePrefix.length();
-        final String hText = ".html\" ";
-        final int hTextLength = hText.length();
-        while (line != null) {
-//          _log.log("Line read from Java API = '" + line + "'");
-          int aPos = line.toLowerCase().indexOf(aText); // returns -1 for lines that are not class links
-          final int classNameStartPos = (aPos < 0) ? 0 : line.indexOf(classNamePrefix) + prefixLength;
-          final int classNameEndPos = line.toLowerCase().indexOf(hText, classNameStartPos);
-          if ((classNameStartPos > 0) && (classNameEndPos > 0)) {  // class link found
-            String link = line.substring(aPos + aTextLength, classNameEndPos + hTextLength);
-            String classNamePath = line.substring(classNameStartPos, classNameEndPos);
-            String fullClassName = classNamePath.replace('/', '.');
-            String simpleClassName = fullClassName;
-            int lastDot = fullClassName.lastIndexOf('.');
-            if (lastDot >= 0) { simpleClassName = fullClassName.substring(lastDot + 1); }
-            try {
-              URL pageURL = new URL(link);
-//              _log.log("URL is: " + pageURL);
-//              _log.log("new JavaAPIListEntry(" + simpleClassName + ", " + fullClassName + ", " + pageURL + ")");
-              s.add(new JavaAPIListEntry(simpleClassName, fullClassName, pageURL));
-            }
-            catch(MalformedURLException mue) { 
-              System.err.println("MalformedURLException on " + link + ".html");
-            /* ignore, we'll just not put this class in the list */ 
-            }
-          }
-          line = br.readLine();
-        }
-      }
-      finally {
-        if (br != null) { br.close(); }
-        if (is != null) { is.close(); }
-        if (urls != null) { urls.close(); }
-      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      b.write(out);
+      return JavaAPIIndex.read(out.toByteArray()).toEntries();
     }
-    catch(IOException ioe) { /* ignore, we'll just have an incomplete list */ }
-    return s;
+    catch(IOException ioe) { return new HashSet<JavaAPIListEntry>(); }  // can't happen, the index is in memory
   }
 
   /** @return the set of all classes, scanned after the last compile. */
@@ -1865,7 +1834,12 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   public void clearCompleteClassSet() { _completeClassSet.clear(); }
   
   /** Clears the Java API class set. */
-  public void clearJavaAPISet() { _javaAPISet.clear(); }
+  public void clearJavaAPISet() {
+    synchronized(_javaAPISetLock) {
+      ++_javaAPISetGeneration;  // a list that is being generated is now out of date
+      _javaAPISet = new HashSet<JavaAPIListEntry>();
+    }
+  }
   
   /** @return the Java API class set. */
   public Set<JavaAPIListEntry> getJavaAPISet() {
@@ -1882,6 +1856,37 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       final ProcessingDialog pd =
         new ProcessingDialog(this, "Java API Classes", "Loading, please wait.", false);
       if (! EventQueue.isDispatchThread()) { pd.setVisible(true); }
+      _loadJavaAPISet();
+      
+      // finished
+      if (!EventQueue.isDispatchThread()) {
+        pd.setVisible(false);
+        pd.dispose();
+      }
+    }
+  }
+  
+  /** Load the Java API class list in a background thread, so that it is ready when first needed. */
+  private void _preloadJavaAPISet() {
+    Thread t = new Thread("Load Java API Classes") {
+      public void run() { _loadJavaAPISet(); }
+    };
+    t.setDaemon(true);
+    t.setPriority(Thread.MIN_PRIORITY);
+    t.start();
+  }
+  
+  /** Generate the Java API class list, unless another thread already did, and make it the current list unless the
+    * list was cleared in the meantime. */
+  private void _loadJavaAPISet() {
+    synchronized(_javaAPISetLoadLock) {
+      final long generation;
+      synchronized(_javaAPISetLock) {
+        if (_javaAPISet.size() > 0) { return; }
+        generation = _javaAPISetGeneration;
+      }
+      
+      Set<JavaAPIListEntry> apiSet = new HashSet<JavaAPIListEntry>();
       // generate list
       String linkVersion = DrJava.getConfig().getSetting(JAVADOC_API_REF_VERSION);
       
@@ -1921,30 +1926,26 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
 //        stripPrefix = ""; // nothing needs to be stripped, links in 1.8 Javadoc are relative
         suffix = "/allclasses-1.8.html";
       }
-      if (! suffix.equals("")) _javaAPISet.addAll(_generateJavaAPISet(suffix));
+      if (! suffix.equals("")) apiSet.addAll(_generateJavaAPISet(suffix));
       else {
         // no valid Javadoc URL
       }
       
       // add JUnit
       Set<JavaAPIListEntry> junitAPIList = _generateJavaAPISet("/allclasses-concjunit4.7.html");
-      _javaAPISet.addAll(junitAPIList);
+      apiSet.addAll(junitAPIList);
       
       // add additional Javadoc libraries
       for(String url: DrJava.getConfig().getSetting(JAVADOC_ADDITIONAL_LINKS)) {
         try {
           Set<JavaAPIListEntry> additionalList = _generateJavaAPISet(new URL(url+"/allclasses-frame.html"));
-          _javaAPISet.addAll(additionalList);
+          apiSet.addAll(additionalList);
         }
         catch(MalformedURLException mue) { /* ignore, we'll just not put this class in the list */ }
       }
       
-      if (_javaAPISet.size() == 0) { clearJavaAPISet(); }
-      
-      // finished
-      if (!EventQueue.isDispatchThread()) {
-        pd.setVisible(false);
-        pd.dispose();
+      synchronized(_javaAPISetLock) {
+        if (_javaAPISetGeneration == generation) { _javaAPISet = apiSet; }
       }
     }
   }
@@ -1952,9 +1953,57 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   /** The "Open Javadoc" dialog instance. */
   volatile PredictiveInputFrame<JavaAPIListEntry> _openJavadocDialog = null;
   
-  /** The list of Java API classes. */
+  /** The list of Java API classes.  Replaced, not modified, when the list is generated or cleared. */
   volatile Set<JavaAPIListEntry> _javaAPISet = new HashSet<JavaAPIListEntry>();
   
+  /** Guards _javaAPISet and _javaAPISetGeneration. */
+  private final Object _javaAPISetLock = new Object();
+  
+  /** Held while the Java API class list is generated, so that it is generated by one thread at a time. */
+  private final Object _javaAPISetLoadLock = new Object();
+  
+  /** Incremented when the Java API class list is cleared. */
+  private long _javaAPISetGeneration = 0;
+  
+  /** The classes in the jar files on the extra class path and the project's class path, without Javadoc URLs. */
+  volatile Set<JavaAPIListEntry> _projectJarClassSet = new HashSet<JavaAPIListEntry>();
+  
+  /** Incremented whenever the class path changes, so that an out-of-date scan of the jar files is discarded. */
+  private final AtomicLong _projectJarClassSetGeneration = new AtomicLong();
+  
+  /** @return the classes in the jar files on the extra class path and the project's class path; empty while they
+    *         are being indexed */
+  public Set<JavaAPIListEntry> getProjectJarClassSet() { return _projectJarClassSet; }
+  
+  /** Index the jar files on the extra class path and the project's class path in a background thread.  The index of
+    * each jar file is kept in {@link JavaAPIIndex#defaultCacheDirectory} and only regenerated if the jar changes. */
+  private void _indexProjectJars() {
+    final long generation = _projectJarClassSetGeneration.incrementAndGet();
+    final List<File> jars = new ArrayList<File>();
+    for (File f: _model.getExtraClassPath()) { if (_isJarFile(f)) jars.add(f); }
+    for (File f: DrJava.getConfig().getSetting(EXTRA_CLASSPATH)) { if (_isJarFile(f)) jars.add(f); }
+    Thread t = new Thread("Index Project Jar Files") {
+      public void run() {
+        Set<JavaAPIListEntry> classes = new HashSet<JavaAPIListEntry>();
+        File cacheDirectory = JavaAPIIndex.defaultCacheDirectory();
+        for (File jar: jars) {
+          if (_projectJarClassSetGeneration.get() != generation) { return; }
+          try { classes.addAll(JavaAPIIndex.forJar(jar, cacheDirectory).toEntries()); }
+          catch(IOException ioe) { _log.log("Could not index ", jar, ": ", ioe); }
+        }
+        if (_projectJarClassSetGeneration.get() == generation) { _projectJarClassSet = classes; }
+      }
+    };
+    t.setDaemon(true);
+    t.setPriority(Thread.MIN_PRIORITY);
+    t.start();
+  }
+  
+  private static boolean _isJarFile(File f) {
+    String name = f.getName().toLowerCase();
+    return (name.endsWith(".jar") || name.endsWith(".zip")) && f.isFile();
+  }
+  
   /** Action that asks the user for a file name and goes there.  Only executes in the event thread. */
   private volatile Action _openJavadocAction = new AbstractAction("Open Java API Javadoc...") {
     public void actionPerformed(ActionEvent ae) {
@@ -2509,7 +2558,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       if (bdr != null) scrollToDocumentAndOffset(bdr.getDocument(), bdr.getStartOffset(), false, false);
 //      Utilities.show("browseBack executed; bhm = '" + bhm + "'; bdr = '" + bdr + "'");
       _configureBrowsing();
-      _log.log("browseBack: " + bhm);
+      _log.log("browseBack: ", bhm);
     }
   };
   
@@ -2530,7 +2579,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       BrowserDocumentRegion bdr = bhm.nextCurrentRegion(_model.getNotifier());
       if (bdr != null) scrollToDocumentAndOffset(bdr.getDocument(), bdr.getStartOffset(), false, false);
       _configureBrowsing();
-      _log.log("browseForward: " + bhm);
+      _log.log("browseForward: ", bhm);
     }
   };
 
@@ -3776,6 +3825,9 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
         }
       };
       DrJava.getConfig().addOptionListener(DIALOG_COMPLETE_SCAN_CLASS_FILES, scanClassesOptionListener);
+      config.addOptionListener(EXTRA_CLASSPATH, new OptionListener<Vector<File>>() {
+        public void optionChanged(OptionEvent<Vector<File>> oce) { _indexProjectJars(); }
+      });
       
       // Initialize cached frames and dialogs 
       _configFrame = new ConfigFrame(MainFrame.this);
@@ -3878,6 +3930,10 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       
       setUpDrJavaProperties();  
       
+      // load the class lists for auto-completion now, so they are ready when first needed
+      _preloadJavaAPISet();
+      _indexProjectJars();
+      
       DrJavaErrorHandler.setButton(_errorsButton);
       
       // check file associations if desired by user
@@ -4925,6 +4981,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       _model.getDocumentNavigator().asContainer().addMouseListener(_resetFindReplaceListener);
       _resetNavigatorPane();
       _model.refreshActiveDocument();
+      _indexProjectJars();
     }
   }
   
@@ -4985,7 +5042,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   }
   
   private boolean _checkProjectClose() {
-    _log.log("is changed? "+_model.isProjectChanged()+" based on "+_model);
+    _log.log("is changed? ", _model.isProjectChanged(), " based on ", _model);
     
     if (_model.isProjectChanged()) {
       String fname = _model.getProjectFile().getName();
@@ -5521,6 +5578,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       }
       public File getFile() { return doc.getRawFile(); }
       public String getPackage() { return doc.getPackageName(); }
+      public DocumentMetadata getMetadata() { return doc.isModifiedSinceSave() ? null : doc.getMetadata(); }
       public boolean isActive() { return _model.getActiveDocument() == doc; }
       public boolean isUntitled() { return doc.isUntitled(); }
     };
@@ -5799,7 +5857,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   private void _scanClassFiles() {
     
     String trace = Arrays.toString(Thread.currentThread().getStackTrace());
-    _log.log("#### _scanClassFiles() called with trace:\n" + trace);
+    _log.log("#### _scanClassFiles() called with trace:\n", trace);
     Thread t = new Thread(new Runnable() {
       public void run() {
         File buildDir = _model.getBuildDirectory();
@@ -6007,7 +6065,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   
   /** Automatically traces through the entire program with a defined rate for stepping into each line of code*/
   void debuggerAutomaticTrace() {
-    _log.log("debuggerAutomaticTrace(): isDebuggerReady() = "+isDebuggerReady()); 
+    _log.log("debuggerAutomaticTrace(): isDebuggerReady() = ", isDebuggerReady()); 
     if (isDebuggerReady())  {
       if(!_model.getDebugger().isAutomaticTraceEnabled()) {
         enableAutomaticTrace();
@@ -6050,7 +6108,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
   /** Disable the automatic trace. Assumes that the debugger is ready. */
   private void disableAutomaticTrace() {
     if (!isDebuggerEnabled()) return; // debugger isn't used
-    _log.log("disableAutomaticTrace(): isDebuggerReady() = "+isDebuggerReady()); 
+    _log.log("disableAutomaticTrace(): isDebuggerReady() = ", isDebuggerReady()); 
     _model.getDebugger().setAutomaticTraceEnabled(false);
     _debugPanel.setAutomaticTraceButtonText();
     if (_automaticTraceTimer != null) _automaticTraceTimer.stop();
@@ -10056,6 +10114,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
       _compileButton = _updateToolBarButton(_compileButton, _compileAllAction);
       _junitButton = _updateToolBarButton(_junitButton, _junitAllAction);
       projectRunnableChanged();
+      _indexProjectJars();
     }
     
     public void allFilesClosed() {
@@ -10728,6 +10787,7 @@ public class MainFrame extends SwingFrame implements ClipboardOwner, DropTargetL
           public void run() {
             // but now run this in the event thread again
             List<JavaAPIListEntry> autoImportList = new ArrayList<JavaAPIListEntry>(apiSet);
+            autoImportList.addAll(getProjectJarClassSet());
             if (DrJava.getConfig().getSetting(DIALOG_COMPLETE_SCAN_CLASS_FILES).booleanValue() &&
                 _autoImportClassSet.size() > 0) {
 //              _log.log("Auto-import class set = " + _autoImportClassSet);
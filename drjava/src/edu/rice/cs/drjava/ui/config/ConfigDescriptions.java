@@ -481,6 +481,9 @@ public class ConfigDescriptions {
         "<html>Whether to automatically insert a closing comment tag (\"*/\")<br>" +
         "when the enter key is pressed after typing a new block comment<br>" +
         "tag (\"/*\" or \"/**\").</html>");
+    add(OptionConstants.PARALLEL_INDENT, "Indent Large Blocks in Parallel",
+        "<html>Whether DrJava should indent large selections by computing<br>" +
+        "the indentation of their lines on several processors at once.</html>");
     String runWithAssertMsg = 
       "<html>Whether to execute <code>assert</code> statements in classes running in the interactions pane.</html>";
     add(OptionConstants.RUN_WITH_ASSERT, "Enable Assert Statement Execution", 
@@ -518,6 +521,16 @@ public class ConfigDescriptions {
         "Maximum Lines in \"Follow File\" Window",
         "<html>The maximum number of lines to keep in a \"Follow File\"<br>"+
         "or \"External Process\" pane. Enter 0 for unlimited.</html>");
+    add(OptionConstants.DOCUMENT_CACHE_HEAP_PERCENT, 
+        "Document Cache Size (% of Heap)",
+        "<html>The percentage of the maximum heap that DrJava may use to keep<br>"+
+        "unmodified documents in memory. Documents that do not fit are<br>"+
+        "reloaded when they are needed again.</html>");
+    add(OptionConstants.DOCUMENT_CACHE_COMPRESS, 
+        "Compress Documents Removed from Cache",
+        "<html>Whether DrJava should keep a compressed copy of the text of<br>"+
+        "documents removed from the document cache, so that they can be<br>"+
+        "restored without reading them from disk.</html>");
     
 // Any lightweight parsing has been disabled until we have something that is beneficial and works better in the background.
 //    add(OptionConstants.LIGHTWEIGHT_PARSING_ENABLED, 
@@ -537,6 +550,10 @@ public class ConfigDescriptions {
         "The maximum heap the Interactions JVM can use. Select blank for default");
     add(OptionConstants.SLAVE_JVM_ARGS, "JVM Args for Interactions JVM",
         "The command-line arguments to pass to the Interactions JVM.");    
+    add(OptionConstants.INTERPRETER_JVM_SPARES, "Spare Interactions JVMs",
+        "<html>The number of Interactions JVMs to start in advance, so that resetting<br>"+
+        "the Interactions Pane does not wait for a new JVM. Enter 0 for none.<br>"+
+        "(Changes will not be applied until the Interactions Pane is reset.)</html>");
     
     /** Adds all of the components for the Compiler Options Panel of the preferences window
       */
@@ -569,6 +586,17 @@ public class ConfigDescriptions {
     add(OptionConstants.COMPILER_PREFERENCE_CONTROL.evaluate(), "Compiler Preference", 
         "Which compiler is prefered?");
     
+    add(OptionConstants.INCREMENTAL_COMPILE, "Only Compile Changed Files",
+        "<html>Whether DrJava should skip the files whose class files are up to date<br>"+
+        "with their sources and with the sources they depend on.</html>");
+    add(OptionConstants.COMPILE_FROM_DOCUMENTS, "Compile Without Saving",
+        "<html>Whether DrJava should compile open documents from their text,<br>"+
+        "so that they need not be saved first. Only some compilers support this.</html>");
+    add(OptionConstants.COMPILE_CLASSES_IN_MEMORY, "Keep Class Files in Memory",
+        "<html>Whether the class files compiled without saving are kept in memory<br>"+
+        "and loaded into the Interactions Pane from there, instead of being<br>"+
+        "written to disk.</html>");
+    
     
     /** Add all of the components for the Interactions panel of the preferences window. */
     add(OptionConstants.FIXED_INTERACTIONS_DIRECTORY,
@@ -591,6 +619,10 @@ public class ConfigDescriptions {
     
     add(OptionConstants.HISTORY_MAX_SIZE, "Size of Interactions History",
         "The number of interactions to remember in the history.");
+    add(OptionConstants.INTERACTIONS_MAX_LENGTH, "Maximum Characters in Interactions Pane",
+        "<html>The maximum number of characters of output to keep in the<br>"+
+        "Interactions Pane; the oldest lines are removed once the output<br>"+
+        "grows beyond it. Enter 0 for unlimited.</html>");
     add(OptionConstants.DIALOG_AUTOIMPORT_ENABLED, 
         "Enable the \"Auto Import\" Dialog",
         "<html>Whether DrJava should open the \"Auto Import\" dialog when<br>"+
@@ -612,6 +644,11 @@ public class ConfigDescriptions {
         "Require Variable Type",
         "<html>Whether DrJava should require a variable type for<br>"+
         "variable declarations in the Interactions Pane.</html>");
+    add(OptionConstants.DYNAMICJAVA_COMPILE_LOOPS, 
+        "Compile Loops",
+        "<html>Whether DrJava should compile loops in the Interactions<br>"+
+        "Pane to bytecode, rather than interpreting them. Loops that<br>"+
+        "cannot be compiled are always interpreted.</html>");
     
     /** Add all of the components for the JUnit panel of the preferences window. */
     add(OptionConstants.JUNIT_LOCATION_ENABLED, "Use external JUnit",
@@ -641,6 +678,11 @@ public class ConfigDescriptions {
     add(OptionConstants.FORCE_TEST_SUFFIX,
         "Require test classes in projects to end in \"Test\"",
         "Whether to force test classes in projects to end in \"Test\".");
+    add(OptionConstants.JUNIT_THREADS,
+        "Number of Threads Running Test Classes",
+        "<html>The number of test classes JUnit runs at the same time. Enter 1 to<br>"+
+        "run them one after another. Only use more threads for test classes<br>"+
+        "that do not share mutable state, such as static fields or System.out.</html>");
 
     add(OptionConstants.LANGUAGE_LEVEL,
         "Language Level",
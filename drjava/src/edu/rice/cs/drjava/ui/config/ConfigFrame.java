@@ -1058,6 +1058,7 @@ public class ConfigFrame extends SwingFrame {
     /* Check box options */
     addOptionComponent(panel, 
                        newBooleanOptionComponent(OptionConstants.AUTO_CLOSE_COMMENTS));
+    addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.PARALLEL_INDENT));
     addOptionComponent(panel, 
                        newBooleanOptionComponent(OptionConstants.RUN_WITH_ASSERT));
     
@@ -1073,6 +1074,8 @@ public class ConfigFrame extends SwingFrame {
     addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.REMOTE_CONTROL_PORT));
     addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.FOLLOW_FILE_DELAY));
     addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.FOLLOW_FILE_LINES));
+    addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.DOCUMENT_CACHE_HEAP_PERCENT));
+    addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.DOCUMENT_CACHE_COMPRESS));
     
 // Any lightweight parsing has been disabled until we have something that is beneficial and works better in the background.
 //    addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.LIGHTWEIGHT_PARSING_ENABLED));
@@ -1093,6 +1096,7 @@ public class ConfigFrame extends SwingFrame {
                        newForcedChoiceOptionComponent(OptionConstants.SLAVE_JVM_XMX));
     addOptionComponent(panel, 
                        newStringOptionComponent(OptionConstants.SLAVE_JVM_ARGS));    
+    addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.INTERPRETER_JVM_SPARES));
     panel.displayComponents();
   }
 
@@ -1264,6 +1268,24 @@ public class ConfigFrame extends SwingFrame {
                        CPC.setEntireColumn(false)
                       );
     
+    addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.INCREMENTAL_COMPILE));
+    final BooleanOptionComponent fromDocsComponent =
+      newBooleanOptionComponent(OptionConstants.COMPILE_FROM_DOCUMENTS);
+    addOptionComponent(panel, fromDocsComponent);
+    final BooleanOptionComponent inMemoryComponent =
+      newBooleanOptionComponent(OptionConstants.COMPILE_CLASSES_IN_MEMORY);
+    addOptionComponent(panel, inMemoryComponent);
+    
+    OptionComponent.ChangeListener fromDocsListener = new OptionComponent.ChangeListener() {
+      public Object value(Object oc) {
+        // class files are only kept in memory when compiling from documents
+        inMemoryComponent.getComponent().setEnabled(fromDocsComponent.getComponent().isSelected());
+        return null;
+      }
+    };
+    fromDocsComponent.addChangeListener(fromDocsListener);
+    fromDocsListener.value(fromDocsComponent);
+    
     addOptionComponent(panel, 
                        new LabelComponent("<html><br><br>Note: Compiler warnings not shown if compiling any Java language level files.</html>", 
                                           this, true));
@@ -1300,6 +1322,7 @@ public class ConfigFrame extends SwingFrame {
     addOptionComponent(panel, new LabelComponent("<html>&nbsp;</html>", this, true));
       
     addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.HISTORY_MAX_SIZE));
+    addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.INTERACTIONS_MAX_LENGTH));
     addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.DIALOG_AUTOIMPORT_ENABLED));
     VectorStringOptionComponent autoImportClasses =
       new VectorStringOptionComponent(OptionConstants.INTERACTIONS_AUTO_IMPORT_CLASSES,
@@ -1335,6 +1358,7 @@ public class ConfigFrame extends SwingFrame {
                        newForcedChoiceOptionComponent(OptionConstants.DYNAMICJAVA_ACCESS_CONTROL));
     addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.DYNAMICJAVA_REQUIRE_SEMICOLON));
     addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.DYNAMICJAVA_REQUIRE_VARIABLE_TYPE));
+    addOptionComponent(panel, newBooleanOptionComponent(OptionConstants.DYNAMICJAVA_COMPILE_LOOPS));
     
     panel.displayComponents();
   }
@@ -1583,6 +1607,7 @@ public class ConfigFrame extends SwingFrame {
       newBooleanOptionComponent(OptionConstants.FORCE_TEST_SUFFIX,false)
       .setEntireColumn(true);
     addOptionComponent(panel, forceTestSuffix);
+    addOptionComponent(panel, newIntegerOptionComponent(OptionConstants.JUNIT_THREADS));
     
     panel.displayComponents();
   }
@@ -80,6 +80,7 @@ import edu.rice.cs.util.swing.HighlightManager.HighlightInfo;
 import edu.rice.cs.util.swing.SwingFrame;
 import edu.rice.cs.util.swing.Utilities;
 
+import edu.rice.cs.drjava.model.coverage.LineCoverage;
 import edu.rice.cs.drjava.model.junit.JUnitResultTuple;
 
 import javax.swing.filechooser.FileFilter;
@@ -317,7 +318,7 @@ public class CoverageFrame extends SwingFrame {
      * @param selOnly true if we only want to highlight the currently-selected
      *                document; false to highlight everything
      */
-    private void highlight(Map<String, List<String>> lineColors, boolean selOnly) {
+    private void highlight(Map<String, LineCoverage> lineColors, boolean selOnly) {
     
         /* Get an iterator over the documents to be highlighted */
         Iterator<OpenDefinitionsDocument> iter;
@@ -336,20 +337,20 @@ public class CoverageFrame extends SwingFrame {
             final DefinitionsPane pane = _mainFrame.getDefPaneGivenODD(o);
 
             try {
-                List<String> colors = lineColors.get(o.getQualifiedClassName());
+                LineCoverage colors = lineColors.get(o.getQualifiedClassName());
 
                 /* Highlight each line */
-                for (int i = 0; i < colors.size(); i++) {
-                    String color = colors.get(i);
+                for (int i = 0; i < colors.getLineCount(); i++) {
+                    String color = colors.getColor(i);
               
                     Color c = Color.black;
-                    if (color.equals("")) {
+                    if (color.equals(LineCoverage.NO_CODE)) {
                         continue;
-                    } else if (color.equals("green")) {
+                    } else if (color.equals(LineCoverage.FULLY_COVERED)) {
                         c = Color.green;
-                    } else if (color.equals("red")) {
+                    } else if (color.equals(LineCoverage.NOT_COVERED)) {
                         c = Color.red;
-                    } else if (color.equals("yellow")) {
+                    } else if (color.equals(LineCoverage.PARTLY_COVERED)) {
                         c = Color.yellow;
                     }
       
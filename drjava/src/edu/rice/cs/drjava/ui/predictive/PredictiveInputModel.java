@@ -36,15 +36,25 @@
 
 package edu.rice.cs.drjava.ui.predictive;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.StringTokenizer;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.util.regex.PatternSyntaxException;
 
-/** Model class for predictive string input. */
+/** Model class for predictive string input.
+  * The prefix and fragment strategies (with or without line numbers) are answered from an index of the items' strings
+  * rather than by asking the strategy about every item: prefix matches come from a sorted array of the strings, and
+  * fragment matches from postings lists of their bigrams and trigrams.  When the mask of a fragment strategy only grows and there
+  * were few matches, the new matches are found among the previous ones.  Other strategies are asked about every item,
+  * as before.
+  */
 public class PredictiveInputModel<T extends Comparable<? super T>> {
   
   /** Strategy used for matching and mask extension. */
@@ -559,6 +569,33 @@ public class PredictiveInputModel<T extends Comparable<? super T>> {
   
   /** Matching strategy. */
   private volatile MatchingStrategy<T> _strategy;
+  
+  /** Kinds of matching the index can do. */
+  private static final int UNINDEXED = 0;
+  private static final int PREFIX = 1;
+  private static final int FRAGMENT = 2;
+  
+  /** The strings of the items, in the order of _items, in lower case if case is ignored. */
+  private volatile String[] _keys = new String[0];
+  
+  /** True if any item contains a ':'.  The line number strategies strip such items, so they are not indexed then. */
+  private volatile boolean _keysHaveColons = false;
+  
+  /** Positions of the items ordered by key, ties in item order; null until first needed. */
+  private volatile int[] _byKey = null;
+  
+  /** Position of the first item with each key; null until first needed. */
+  private volatile HashMap<String, Integer> _firstIndex = null;
+  
+  /** Positions of the items whose keys contain each bigram and trigram, in item order; null until first needed. */
+  private volatile HashMap<Long, Postings> _grams = null;
+  
+  /** Positions of the matching items, in item order, if they were found with the index; otherwise null. */
+  private volatile int[] _matches = null;
+  
+  /** The kind of matching and the search string that _matches was found with. */
+  private volatile int _matchesKind = UNINDEXED;
+  private volatile String _matchesSearch = "";
 
   /** Create a new predictive input model.
     * @param ignoreCase true if case should be ignored
@@ -613,6 +650,7 @@ public class PredictiveInputModel<T extends Comparable<? super T>> {
   public void setItems(Collection<T> items) {
     _items = new ArrayList<T>(items);
     Collections.sort(_items);
+    _buildKeys();
     updateMatchingStrings(_items);
   }
 
@@ -624,6 +662,7 @@ public class PredictiveInputModel<T extends Comparable<? super T>> {
     _items = new ArrayList<T>(items.length);
     for(T s: items) _items.add(s);
     Collections.sort(_items);
+    _buildKeys();
     updateMatchingStrings(_items);
   }
 
@@ -663,6 +702,12 @@ public class PredictiveInputModel<T extends Comparable<? super T>> {
     * @param items list of items to base the matching on
     */
   private void updateMatchingStrings(ArrayList<T> items) {
+    int kind = _indexKind();
+    if (kind != UNINDEXED) {
+      _updateIndexedMatches(kind);
+      return;
+    }
+    _matches = null;
     items = new ArrayList<T>(items); // create a new copy, otherwise we might be clearing the list in the next line
     _matchingItems.clear();
     for(T s: items) {
@@ -680,6 +725,258 @@ public class PredictiveInputModel<T extends Comparable<? super T>> {
     else _index = 0;
   }
 
+  /** Compute the keys of the items and discard the indices built from the previous items. */
+  private void _buildKeys() {
+    String[] keys = new String[_items.size()];
+    boolean colons = false;
+    for (int i = 0; i < keys.length; ++i) {
+      String str = _items.get(i).toString();
+      keys[i] = (_ignoreCase) ? (str.toLowerCase()) : (str);
+      colons |= (str.indexOf(':') >= 0);
+    }
+    _keys = keys;
+    _keysHaveColons = colons;
+    _byKey = null;
+    _firstIndex = null;
+    _grams = null;
+    _matches = null;
+  }
+  
+  /** @return the kind of matching the current strategy does, or UNINDEXED if the index can't be used for it */
+  private int _indexKind() {
+    Class<?> c = _strategy.getClass();
+    if (c == PrefixStrategy.class) return PREFIX;
+    if (c == FragmentStrategy.class) return FRAGMENT;
+    if (! _keysHaveColons) {
+      if (c == PrefixLineNumStrategy.class) return PREFIX;
+      if (c == FragmentLineNumStrategy.class) return FRAGMENT;
+    }
+    return UNINDEXED;
+  }
+  
+  /** @return the string the keys are matched against: the mask, up to its last ':' for the line number strategies,
+    *         in lower case if case is ignored */
+  private String _search() {
+    String mask = _mask;
+    Class<?> c = _strategy.getClass();
+    if (c == PrefixLineNumStrategy.class || c == FragmentLineNumStrategy.class) {
+      int pos = mask.lastIndexOf(':');
+      if (pos >= 0) { mask = mask.substring(0, pos); }
+    }
+    return (_ignoreCase) ? (mask.toLowerCase()) : (mask);
+  }
+  
+  /** Update the list of matching strings and current index using the index.  This has the same results as the
+    * strategy: whether an item matches depends only on its key, and two items are equivalent iff their keys are equal.
+    * @param kind the kind of matching to do
+    */
+  private void _updateIndexedMatches(int kind) {
+    String search = _search();
+    int[] matches;
+    if (kind == PREFIX) { matches = _prefixMatches(search); }
+    else if (_matches != null && _matchesKind == kind && search.startsWith(_matchesSearch) &&
+             _matches.length * 4 < _keys.length) {
+      // the mask only grew, so the matches are among the few previous ones
+      matches = _filter(_matches, search, kind);
+    }
+    else { matches = _fragmentMatches(search); }
+    _matches = matches;
+    _matchesKind = kind;
+    _matchesSearch = search;
+    
+    _matchingItems.clear();
+    _matchingItems.ensureCapacity(matches.length);
+    for (int i: matches) { _matchingItems.add(_items.get(i)); }
+    
+    if (_items.size() == 0) {
+      _index = 0;
+      return;
+    }
+    Integer perfect = _firstIndex().get(search);
+    if (perfect != null) { _index = perfect; }
+    
+    // same as setCurrentItem(_items.get(_index))
+    String key = _keys[_index];
+    int pos = Arrays.binarySearch(matches, _firstIndex().get(key));
+    if (pos < 0) { pos = -pos - 1; }
+    if (pos < matches.length) { _index = matches[pos]; }
+    else if (matches.length > 0) {
+      // pick the match that lexicographically precedes it most closely
+      int follows = matches[0];
+      for (int i: matches) {
+        if (key.compareTo(_keys[i]) < 0) { break; }
+        follows = i;
+      }
+      _index = _firstIndex().get(_keys[follows]);
+    }
+    else if (kind == PREFIX) {
+      // the longest match is the first item that has the current key as a prefix
+      int[] byKey = _byKey();
+      int first = Integer.MAX_VALUE;
+      for (int i = _lowerBound(key); i < byKey.length && _keys[byKey[i]].startsWith(key); ++i) {
+        first = Math.min(first, byKey[i]);
+      }
+      _index = first;
+    }
+    else { _index = 0; }
+  }
+  
+  /** @return the positions of the items whose keys start with search, in item order */
+  private int[] _prefixMatches(String search) {
+    if (search.length() == 0) { return _allPositions(); }
+    int[] byKey = _byKey();
+    int start = _lowerBound(search);
+    int end = start;
+    while (end < byKey.length && _keys[byKey[end]].startsWith(search)) { ++end; }
+    int[] result = Arrays.copyOfRange(byKey, start, end);
+    Arrays.sort(result);
+    return result;
+  }
+  
+  /** @return the positions of the items whose keys contain every whitespace-separated token of search, in item order */
+  private int[] _fragmentMatches(String search) {
+    int[] candidates = null;
+    StringTokenizer tok = new StringTokenizer(search);
+    while (tok.hasMoreTokens()) {
+      String token = tok.nextToken();
+      int n = Math.min(token.length(), 3);
+      for (int j = 0; n > 1 && j + n <= token.length(); ++j) {
+        Postings p = _grams().get(_gram(token, j, n));
+        if (p == null) { return new int[0]; }
+        candidates = (candidates == null) ? Arrays.copyOf(p.positions, p.size) : _intersect(candidates, p);
+      }
+    }
+    if (candidates == null) { candidates = _allPositions(); }
+    // the n-grams only narrow the candidates; check that each token really occurs
+    return _filter(candidates, search, FRAGMENT);
+  }
+  
+  /** @return the positions in candidates whose keys match search */
+  private int[] _filter(int[] candidates, String search, int kind) {
+    String[] tokens = null;
+    if (kind == FRAGMENT) {
+      StringTokenizer tok = new StringTokenizer(search);
+      tokens = new String[tok.countTokens()];
+      for (int j = 0; j < tokens.length; ++j) { tokens[j] = tok.nextToken(); }
+    }
+    int[] result = new int[candidates.length];
+    int size = 0;
+    for (int i: candidates) {
+      String key = _keys[i];
+      boolean match = true;
+      if (kind == PREFIX) { match = key.startsWith(search); }
+      else {
+        for (String t: tokens) {
+          if (key.indexOf(t) < 0) { match = false; break; }
+        }
+      }
+      if (match) { result[size++] = i; }
+    }
+    return Arrays.copyOf(result, size);
+  }
+  
+  /** @return the positions of all items */
+  private int[] _allPositions() {
+    int[] result = new int[_keys.length];
+    for (int i = 0; i < result.length; ++i) { result[i] = i; }
+    return result;
+  }
+  
+  /** @return the positions of the items ordered by key, ties in item order */
+  private int[] _byKey() {
+    if (_byKey == null) {
+      Integer[] sorted = new Integer[_keys.length];
+      for (int i = 0; i < sorted.length; ++i) { sorted[i] = i; }
+      final String[] keys = _keys;
+      Arrays.sort(sorted, new Comparator<Integer>() {
+        public int compare(Integer a, Integer b) {
+          int c = keys[a].compareTo(keys[b]);
+          return (c != 0) ? c : a.compareTo(b);
+        }
+      });
+      int[] byKey = new int[sorted.length];
+      for (int i = 0; i < byKey.length; ++i) { byKey[i] = sorted[i]; }
+      _byKey = byKey;
+    }
+    return _byKey;
+  }
+  
+  /** @param key the key to look for
+    * @return the first position in _byKey() whose key is not less than key */
+  private int _lowerBound(String key) {
+    int[] byKey = _byKey();
+    int lo = 0;
+    int hi = byKey.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (_keys[byKey[mid]].compareTo(key) < 0) { lo = mid + 1; }
+      else { hi = mid; }
+    }
+    return lo;
+  }
+  
+  /** @return a map from each key to the position of the first item with that key */
+  private HashMap<String, Integer> _firstIndex() {
+    if (_firstIndex == null) {
+      HashMap<String, Integer> firstIndex = new HashMap<String, Integer>();
+      for (int i = _keys.length - 1; i >= 0; --i) { firstIndex.put(_keys[i], i); }
+      _firstIndex = firstIndex;
+    }
+    return _firstIndex;
+  }
+  
+  /** @return a map from each bigram and trigram to the positions of the items whose keys contain it */
+  private HashMap<Long, Postings> _grams() {
+    if (_grams == null) {
+      HashMap<Long, Postings> grams = new HashMap<Long, Postings>();
+      for (int i = 0; i < _keys.length; ++i) {
+        String key = _keys[i];
+        for (int n = 2; n <= 3; ++n) {
+          for (int j = 0; j + n <= key.length(); ++j) {
+            Long g = _gram(key, j, n);
+            Postings p = grams.get(g);
+            if (p == null) {
+              p = new Postings();
+              grams.put(g, p);
+            }
+            p.add(i);
+          }
+        }
+      }
+      _grams = grams;
+    }
+    return _grams;
+  }
+  
+  /** @return the n (2 or 3) characters of s starting at j, packed into a long */
+  private static Long _gram(String s, int j, int n) {
+    long g = (((long) s.charAt(j)) << 16) | s.charAt(j + 1);
+    return (n == 3) ? ((g << 16) | s.charAt(j + 2)) : ((1L << 48) | g);
+  }
+  
+  /** @return the positions that are both in a and in p, in order */
+  private static int[] _intersect(int[] a, Postings p) {
+    int[] result = new int[Math.min(a.length, p.size)];
+    int size = 0;
+    int j = 0;
+    for (int i = 0; i < a.length && j < p.size; ++i) {
+      while (j < p.size && p.positions[j] < a[i]) { ++j; }
+      if (j < p.size && p.positions[j] == a[i]) { result[size++] = a[i]; }
+    }
+    return Arrays.copyOf(result, size);
+  }
+  
+  /** A growable, ascending list of item positions without duplicates. */
+  private static class Postings {
+    int[] positions = new int[4];
+    int size = 0;
+    void add(int i) {
+      if (size > 0 && positions[size - 1] == i) { return; }
+      if (size == positions.length) { positions = Arrays.copyOf(positions, size * 2); }
+      positions[size++] = i;
+    }
+  }
+
   /** Get currently selected item.
     * @return currently selected item
     */
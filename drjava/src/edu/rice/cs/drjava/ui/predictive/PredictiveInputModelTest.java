@@ -38,10 +38,16 @@ package edu.rice.cs.drjava.ui.predictive;
 
 import edu.rice.cs.drjava.DrJavaTestCase;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import edu.rice.cs.drjava.ui.MainFrame;
+import edu.rice.cs.drjava.ui.MainFrameStatics.JavaAPIListEntry;
+
 /** * Unit tests for PredictiveInputModel class.
+ * The {@link #main} method times typing into models over the Java API list, with and without the index.
  */
 public class PredictiveInputModelTest extends DrJavaTestCase {
   public void testInitial() {
@@ -1105,4 +1111,101 @@ public class PredictiveInputModelTest extends DrJavaTestCase {
     System.err.println("JavaAPIList = " + l);
     assertTrue(l.size() > 0);
   }
+  
+  /** Masks typed one character at a time, and some edits, used to compare indexed and unindexed matching. */
+  private static final String[] TYPED = { "", "s", "st", "str", "stri", "strin", "string", "stringb", "string", "s",
+    "", "j", "jl", "jli", "jlis", "jlist", "list", "li", "l", "x", "xm", "xml", "xml ", "xml e", "xml ex", "zzz",
+    "Hash", "hashm", "hash map", "a b", "Array", "arraylist:12", "arraylist:", "arr:1:2", " ", "in out" };
+  
+  /** @return strategies that behave like the indexed ones but are not recognized by the index */
+  @SuppressWarnings("unchecked")
+  private static <T extends Comparable<? super T>> List<PredictiveInputModel.MatchingStrategy<T>> unindexed() {
+    List<PredictiveInputModel.MatchingStrategy<T>> l = new ArrayList<PredictiveInputModel.MatchingStrategy<T>>();
+    l.add(new PredictiveInputModel.PrefixStrategy<T>() { });
+    l.add(new PredictiveInputModel.FragmentStrategy<T>() { });
+    l.add(new PredictiveInputModel.PrefixLineNumStrategy<T>() { });
+    l.add(new PredictiveInputModel.FragmentLineNumStrategy<T>() { });
+    return l;
+  }
+  
+  /** @return the strategies the index handles, in the same order as {@link #unindexed} */
+  private static <T extends Comparable<? super T>> List<PredictiveInputModel.MatchingStrategy<T>> indexed() {
+    List<PredictiveInputModel.MatchingStrategy<T>> l = new ArrayList<PredictiveInputModel.MatchingStrategy<T>>();
+    l.add(new PredictiveInputModel.PrefixStrategy<T>());
+    l.add(new PredictiveInputModel.FragmentStrategy<T>());
+    l.add(new PredictiveInputModel.PrefixLineNumStrategy<T>());
+    l.add(new PredictiveInputModel.FragmentLineNumStrategy<T>());
+    return l;
+  }
+  
+  /** Checks that the index gives the same matches and current item as asking the strategy about every item. */
+  public void testIndexedMatchesStrategy() {
+    List<JavaAPIListEntry> apiList = new ArrayList<JavaAPIListEntry>(MainFrame._generateJavaAPISet("/allclasses-1.8.html"));
+    assertTrue(apiList.size() > 0);
+    List<String> strings = new ArrayList<String>();
+    for (JavaAPIListEntry e: apiList) { strings.add(e.toString()); }
+    strings.add("String");  // a duplicate
+    strings.add("Foo:12");  // the line number strategies don't index items with colons
+    
+    for (boolean ignoreCase: new boolean[] { true, false }) {
+      List<PredictiveInputModel.MatchingStrategy<String>> slow = unindexed();
+      List<PredictiveInputModel.MatchingStrategy<String>> fast = indexed();
+      for (int s = 0; s < slow.size(); ++s) {
+        List<List<String>> itemLists = Arrays.asList(strings, strings.subList(0, strings.size() - 1));
+        for (List<String> items: itemLists) {
+          PredictiveInputModel<String> expected = new PredictiveInputModel<String>(ignoreCase, slow.get(s), items);
+          PredictiveInputModel<String> actual = new PredictiveInputModel<String>(ignoreCase, fast.get(s), items);
+          for (String mask: TYPED) {
+            expected.setMask(mask);
+            actual.setMask(mask);
+            String msg = fast.get(s) + " " + ignoreCase + " '" + mask + "'";
+            assertEquals(msg, expected.getMatchingItems(), actual.getMatchingItems());
+            assertEquals(msg, expected.getCurrentItem(), actual.getCurrentItem());
+          }
+          expected.setMask("stri");
+          actual.setMask("stri");
+          expected.extendSharedMask();
+          actual.extendSharedMask();
+          assertEquals(expected.getMask(), actual.getMask());
+          assertEquals(expected.getMatchingItems(), actual.getMatchingItems());
+          assertEquals(expected.getCurrentItem(), actual.getCurrentItem());
+        }
+      }
+    }
+  }
+  
+  /** Time typing into models over the Java API list and over a list of 100,000 items made from it.
+    * @param args unused
+    */
+  public static void main(String... args) {
+    List<String> api = new ArrayList<String>();
+    for (JavaAPIListEntry e: MainFrame._generateJavaAPISet("/allclasses-1.8.html")) { api.add(e.toString()); }
+    List<String> large = new ArrayList<String>();
+    for (int copy = 0; large.size() < 100000; ++copy) {
+      for (String s: api) { large.add(s + copy); }
+    }
+    String[] typed = { "a", "ab", "abs", "abst", "abstr", "abstra", "abstrac", "abstract", "abstractl", "abstractli" };
+    List<List<String>> itemLists = Arrays.asList(api, large);
+    for (List<String> items: itemLists) {
+      List<PredictiveInputModel.MatchingStrategy<String>> slow = unindexed();
+      List<PredictiveInputModel.MatchingStrategy<String>> fast = indexed();
+      for (int s = 0; s < 2; ++s) {
+        System.out.println(items.size() + " items, " + fast.get(s) + ": unindexed " + time(slow.get(s), items, typed) +
+                           "us/keystroke, indexed " + time(fast.get(s), items, typed) + "us/keystroke");
+      }
+    }
+  }
+  
+  private static long time(PredictiveInputModel.MatchingStrategy<String> strategy, List<String> items, String[] typed) {
+    PredictiveInputModel<String> pim = new PredictiveInputModel<String>(true, strategy, items);
+    for (String mask: typed) { pim.setMask(mask); }  // build the index and warm up
+    long total = 0;
+    for (int round = 0; round < 5; ++round) {
+      pim.setMask("");
+      long start = System.nanoTime();
+      for (String mask: typed) { pim.setMask(mask); }
+      total += System.nanoTime() - start;
+    }
+    return total / 1000 / (5 * typed.length);
+  }
 }
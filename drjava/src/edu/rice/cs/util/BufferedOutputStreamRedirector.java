@@ -0,0 +1,190 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/** An output stream, such as a redirected System.out or System.err, that coalesces the bytes written to it into chunks
+  * of text before passing them on to print.  A chunk is printed by a daemon thread once chunkSize bytes are pending or
+  * delay milliseconds after the first pending write, whichever comes first; flush prints the pending text immediately.
+  * Writers block while capacity bytes are pending, so a program that writes faster than print can deliver its output
+  * is slowed down rather than allowed to fill memory.  Multi-byte characters split across writes are decoded intact.
+  * @version $Id$
+  */
+public abstract class BufferedOutputStreamRedirector extends OutputStream {
+  
+  /** The default number of pending bytes that triggers printing a chunk. */
+  public static final int DEFAULT_CHUNK_SIZE = 8192;
+  
+  /** The default number of milliseconds that written bytes may wait before being printed. */
+  public static final int DEFAULT_DELAY = 20;
+  
+  /** The default number of pending bytes at which writers block. */
+  public static final int DEFAULT_CAPACITY = 65536;
+  
+  private static final Log _log = new Log("BufferedOutputStreamRedirector.txt", false);
+  
+  private final int _chunkSize;
+  private final int _delay;
+  private final int _capacity;
+  
+  /** Guards _buffer, _count and _flusher; writers and the flusher wait on it. */
+  private final Object _lock = new Object();
+  
+  /** Serializes the decoding and printing of chunks so that they are printed in the order they were written. */
+  private final Object _printLock = new Object();
+  
+  private byte[] _buffer;
+  private int _count = 0;
+  private volatile Thread _flusher = null;
+  
+  /** Decodes printed bytes; guarded by _printLock. */
+  private final CharsetDecoder _decoder;
+  
+  /** The trailing bytes of an incomplete character from the last chunk; guarded by _printLock. */
+  private byte[] _partial = new byte[0];
+  
+  /** Creates a redirector that uses the default chunk size, delay and capacity. */
+  public BufferedOutputStreamRedirector() { this(DEFAULT_CHUNK_SIZE, DEFAULT_DELAY, DEFAULT_CAPACITY); }
+  
+  /** Creates a redirector.
+    * @param chunkSize the number of pending bytes that triggers printing a chunk
+    * @param delay the number of milliseconds that written bytes may wait before being printed
+    * @param capacity the number of pending bytes at which writers block
+    */
+  public BufferedOutputStreamRedirector(int chunkSize, int delay, int capacity) {
+    _chunkSize = chunkSize;
+    _delay = delay;
+    _capacity = Math.max(capacity, chunkSize);
+    _buffer = new byte[chunkSize];
+    _decoder = Charset.defaultCharset().newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+  
+  public final void write(int b) { write(new byte[] { (byte) b }, 0, 1); }
+  
+  public final void write(byte[] b) { write(b, 0, b.length); }
+  
+  public final void write(byte[] b, int off, int len) {
+    if (len == 0) return;
+    synchronized(_lock) {
+      // The flusher must never wait for itself, e.g. if print writes to the redirected stream
+      boolean interrupted = false;
+      while (_count >= _capacity && Thread.currentThread() != _flusher) {
+        try { _lock.wait(); }
+        catch (InterruptedException e) { interrupted = true; break; }
+      }
+      if (interrupted) Thread.currentThread().interrupt();
+      
+      if (_count + len > _buffer.length) {
+        byte[] buffer = new byte[Math.max(_count + len, 2 * _buffer.length)];
+        System.arraycopy(_buffer, 0, buffer, 0, _count);
+        _buffer = buffer;
+      }
+      System.arraycopy(b, off, _buffer, _count, len);
+      _count += len;
+      
+      if (_flusher == null) {
+        _flusher = new Thread(new Runnable() { public void run() { _flushLoop(); } }, "Output Flusher");
+        _flusher.setDaemon(true);
+        _flusher.start();
+      }
+      _lock.notifyAll();
+    }
+  }
+  
+  /** Prints all pending text before returning. */
+  public void flush() { _printPending(); }
+  
+  public void close() { flush(); }
+  
+  /** Implement this method to print to the appropriate destination.
+    * @param s The string to be printed to the new destination.
+    */
+  public abstract void print(String s);
+  
+  /** Run by the flusher thread: waits for pending bytes, lets them accumulate for up to _delay milliseconds or until
+    * _chunkSize bytes are pending, and prints them. */
+  private void _flushLoop() {
+    try {
+      while (true) {
+        synchronized(_lock) {
+          while (_count == 0) _lock.wait();
+          long deadline = System.currentTimeMillis() + _delay;
+          long remaining = _delay;
+          while (_count < _chunkSize && remaining > 0) {
+            _lock.wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+          }
+        }
+        try { _printPending(); }
+        catch (RuntimeException e) { _log.log("Dropping output that could not be printed", e); }
+      }
+    }
+    catch (InterruptedException e) { /* fall through and exit */ }
+  }
+  
+  /** Takes all pending bytes, releasing blocked writers, and prints them as text. */
+  private void _printPending() {
+    synchronized(_printLock) {
+      byte[] bytes;
+      synchronized(_lock) {
+        if (_count == 0) return;
+        bytes = new byte[_partial.length + _count];
+        System.arraycopy(_partial, 0, bytes, 0, _partial.length);
+        System.arraycopy(_buffer, 0, bytes, _partial.length, _count);
+        _count = 0;
+        if (_buffer.length > _capacity) _buffer = new byte[_chunkSize];
+        _lock.notifyAll();
+      }
+      
+      ByteBuffer in = ByteBuffer.wrap(bytes);
+      CharBuffer out = CharBuffer.allocate((int) (bytes.length * _decoder.maxCharsPerByte()) + 1);
+      _decoder.decode(in, out, false);
+      _partial = new byte[in.remaining()];
+      in.get(_partial);
+      out.flip();
+      if (out.length() > 0) print(out.toString());
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.util;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tests BufferedOutputStreamRedirector; its main method compares its throughput with OutputStreamRedirector.
+  * @version $Id$
+  */
+public class BufferedOutputStreamRedirectorTest extends DrJavaTestCase {
+  
+  /** A redirector that records the chunks it prints, optionally taking some time for each. */
+  private static class Recorder extends BufferedOutputStreamRedirector {
+    final List<String> _chunks = new ArrayList<String>();
+    final int _printMillis;
+    Recorder(int chunkSize, int delay, int capacity, int printMillis) {
+      super(chunkSize, delay, capacity);
+      _printMillis = printMillis;
+    }
+    public void print(String s) {
+      if (_printMillis > 0) {
+        try { Thread.sleep(_printMillis); }
+        catch (InterruptedException e) { /* ignore */ }
+      }
+      synchronized(_chunks) { _chunks.add(s); }
+    }
+    String text() { 
+      StringBuilder sb = new StringBuilder();
+      synchronized(_chunks) { for (String s : _chunks) sb.append(s); }
+      return sb.toString();
+    }
+    int chunks() { synchronized(_chunks) { return _chunks.size(); } }
+  }
+  
+  /** Tests that many small writes are coalesced into few prints, in order, and that flush delivers everything. */
+  public void testCoalescing() {
+    Recorder r = new Recorder(1024, 1000, 4096, 0);
+    PrintStream out = new PrintStream(r);
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      out.print("line " + i + "\n");
+      expected.append("line " + i + "\n");
+    }
+    out.flush();
+    assertEquals("all output is printed in order", expected.toString(), r.text());
+    assertTrue("writes are coalesced: " + r.chunks() + " chunks", r.chunks() < 100);
+  }
+  
+  /** Tests that pending output is printed after the delay without an explicit flush. */
+  public void testDelay() throws InterruptedException {
+    Recorder r = new Recorder(1024, 20, 4096, 0);
+    r.write("hello".getBytes());
+    for (int i = 0; i < 100 && r.chunks() == 0; i++) Thread.sleep(20);
+    assertEquals("output is printed after the delay", "hello", r.text());
+  }
+  
+  /** Tests that writers are held back while a slow destination falls behind. */
+  public void testBackpressure() {
+    Recorder r = new Recorder(64, 1, 128, 20);
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < 32; i++) r.write(new byte[64], 0, 64);
+    r.flush();
+    long elapsed = System.currentTimeMillis() - start;
+    assertEquals("all output is printed", 32 * 64, r.text().length());
+    assertTrue("writer was blocked: " + elapsed + " ms", elapsed >= 5 * 20);
+  }
+  
+  /** Tests that a multi-byte character split across writes is decoded intact. */
+  public void testSplitCharacter() throws Exception {
+    Recorder r = new Recorder(1024, 1000, 4096, 0);
+    String charset = java.nio.charset.Charset.defaultCharset().name();
+    byte[] bytes = "caf\u00e9".getBytes(charset);
+    for (byte b : bytes) {
+      r.write(b);
+      r.flush();
+    }
+    assertEquals("character is not split", new String(bytes, charset), r.text());
+  }
+  
+  /** Compares the throughput of per-write printing with coalesced printing when each print has a fixed cost, as a 
+    * remote call to the main JVM does.
+    * @param args the number of lines to write and the cost of each print in microseconds; defaults to 20000 and 200
+    */
+  public static void main(String[] args) {
+    final int lines = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+    final long costNanos = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 200);
+    final int[] prints = new int[1];
+    
+    PrintStream direct = new PrintStream(new OutputStreamRedirector() {
+      public void print(String s) { prints[0]++; _spin(costNanos); }
+    });
+    long start = System.nanoTime();
+    for (int i = 0; i < lines; i++) direct.println("line " + i);
+    direct.flush();
+    long directNanos = System.nanoTime() - start;
+    System.out.println("per-write: " + prints[0] + " prints, " + directNanos / 1000000 + " ms, " + 
+                       lines * 1000000000L / directNanos + " lines/s");
+    
+    prints[0] = 0;
+    BufferedOutputStreamRedirector redirector = new BufferedOutputStreamRedirector() {
+      public void print(String s) { prints[0]++; _spin(costNanos); }
+    };
+    PrintStream buffered = new PrintStream(redirector);
+    start = System.nanoTime();
+    for (int i = 0; i < lines; i++) buffered.println("line " + i);
+    redirector.flush();
+    long bufferedNanos = System.nanoTime() - start;
+    System.out.println("coalesced: " + prints[0] + " prints, " + bufferedNanos / 1000000 + " ms, " + 
+                       lines * 1000000000L / bufferedNanos + " lines/s");
+  }
+  
+  /** Busy-waits for the given number of nanoseconds. */
+  private static void _spin(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) { }
+  }
+}
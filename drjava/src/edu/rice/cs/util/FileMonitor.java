@@ -0,0 +1,369 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/** Watches directory trees with a {@link WatchService} and keeps track of which files in them have changed, so that 
+  * the state derived from those files (modification flags, class file synchronization, directory listings) can be 
+  * cached and only recomputed when the files change, instead of polling the file system.
+  * <p>
+  * A client records the stamp of a file ({@link #stamp}) or of a tree ({@link #treeStamp}) before it computes 
+  * something from the file system, and may reuse the result for as long as the stamp stays the same.  A stamp of
+  * {@link #UNWATCHED} means that the file is not (or not yet) watched, and the client must poll as before.  This is
+  * always the case if the platform has no native file watching (the JDK falls back on a slow polling implementation
+  * on some platforms) or if a tree could not be registered, for example because the limit on inotify watches was 
+  * reached.</p>
+  * <p>
+  * Stamps only grow, and events are reported asynchronously, typically a few milliseconds after a change.  Code that 
+  * has just written files itself and needs to see the change should call {@link #invalidate}.</p>
+  * @version $Id$
+  */
+public class FileMonitor {
+  
+  /** The stamp of a file or tree that is not being watched. */
+  public static final long UNWATCHED = -1L;
+  
+  /** The number of file stamps that are kept before they are all discarded in favor of a new epoch. */
+  private static final int MAX_STAMPS = 10000;
+  
+  /** The extension key for changes to directories and to names without an extension. */
+  private static final String DIRECTORY = "";
+  
+  private static final Log _log = new Log("FileMonitor.txt", false);
+  
+  /** The watch service, or null if watching is unavailable or this monitor has been closed. */
+  private volatile WatchService _watcher;
+  
+  /** The trees whose directories have all been registered. */
+  private final Set<Path> _trees = new HashSet<Path>();
+  
+  /** The trees that should be watched, including those that are still being registered. */
+  private final Set<Path> _wanted = new HashSet<Path>();
+  
+  /** The watch keys of the registered directories. */
+  private final Map<Path, WatchKey> _dirs = new HashMap<Path, WatchKey>();
+  
+  /** The stamps of the files that have changed in the current epoch. */
+  private final Map<Path, Long> _stamps = new HashMap<Path, Long>();
+  
+  /** The stamps of the last structural change (creation or deletion) of a file, by extension. */
+  private final Map<String, Long> _structure = new HashMap<String, Long>();
+  
+  /** The number of changes seen so far; all stamps are values of this counter. */
+  private long _counter = 0;
+  
+  /** The stamp at which all earlier information was discarded. */
+  private long _epoch = 0;
+  
+  /** Creates a monitor, watching nothing until {@link #setTrees} is called.  Starts a daemon thread to process events
+    * if the platform supports native file watching.
+    */
+  public FileMonitor() {
+    WatchService w = null;
+    try {
+      w = FileSystems.getDefault().newWatchService();
+      // the JDK's portable implementation polls every few seconds, which is too late to be trusted
+      if (w.getClass().getName().endsWith("PollingWatchService")) {
+        w.close();
+        w = null;
+      }
+    }
+    catch (IOException e) { _log.log("Could not create a watch service: ", e); }
+    catch (UnsupportedOperationException e) { _log.log("Could not create a watch service: ", e); }
+    _watcher = w;
+    if (w != null) {
+      Thread t = new Thread("DrJava File Monitor") {
+        public void run() { _processEvents(); }
+      };
+      t.setDaemon(true);
+      t.start();
+    }
+  }
+  
+  /** @return true if this monitor can watch files */
+  public boolean isAvailable() { return _watcher != null; }
+  
+  /** Watches exactly the given directory trees, registering the new ones in a background thread.  Trees nested in 
+    * other trees are allowed.  Has no effect if watching is unavailable.
+    * @param trees  the root directories of the trees to watch
+    */
+  public void setTrees(Iterable<File> trees) {
+    if (_watcher == null) return;
+    final List<Path> added = new ArrayList<Path>();
+    synchronized(this) {
+      Set<Path> wanted = new HashSet<Path>();
+      for (File f : trees) {
+        if (f != null && f != FileOps.NULL_FILE && f.isDirectory()) wanted.add(_path(f));
+      }
+      for (Path p : wanted) { if (! _wanted.contains(p)) added.add(p); }
+      _wanted.retainAll(wanted);
+      _wanted.addAll(wanted);
+      _trees.retainAll(wanted);
+      _cancelUnwanted();
+    }
+    if (added.size() > 0) {
+      Thread t = new Thread("DrJava File Monitor Registration") {
+        public void run() { for (Path p : added) _registerTree(p); }
+      };
+      t.setDaemon(true);
+      t.start();
+    }
+  }
+  
+  /** @return true if the given directory is in a tree that is completely registered */
+  public synchronized boolean isWatching(File dir) {
+    if (_watcher == null || dir == null) return false;
+    Path p = _path(dir);
+    return _dirs.containsKey(p) && _isInRegisteredTree(p);
+  }
+  
+  /** Returns a stamp that changes whenever the given file is created, deleted, or modified.
+    * @param f  a file in a watched tree
+    * @return the stamp of the file, or {@link #UNWATCHED} if its directory is not watched
+    */
+  public synchronized long stamp(File f) {
+    if (_watcher == null || f == null) return UNWATCHED;
+    _drain();
+    Path p = _path(f);
+    Path dir = p.getParent();
+    if (dir == null || ! _dirs.containsKey(dir)) return UNWATCHED;
+    Long s = _stamps.get(p);
+    return (s == null) ? _epoch : Math.max(s, _epoch);
+  }
+  
+  /** Returns a stamp that changes whenever a file with the given extension or a directory is created or deleted in the
+    * given tree.  A listing of the tree restricted to the extension can be reused while the stamp stays the same.
+    * @param root  a directory in a tree passed to {@link #setTrees}
+    * @param ext  the extension, with or without the leading dot
+    * @return the stamp of the tree, or {@link #UNWATCHED} if it is not completely registered
+    */
+  public synchronized long treeStamp(File root, String ext) {
+    if (! isWatching(root)) return UNWATCHED;
+    _drain();
+    long result = _epoch;
+    Long s = _structure.get(ext.startsWith(".") ? ext.substring(1).toLowerCase() : ext.toLowerCase());
+    if (s != null) result = Math.max(result, s);
+    s = _structure.get(DIRECTORY);
+    if (s != null) result = Math.max(result, s);
+    return result;
+  }
+  
+  /** Changes all stamps, as if every watched file had changed. */
+  public synchronized void invalidate() { _newEpoch(); }
+  
+  /** Stops watching all files. */
+  public void close() {
+    WatchService w;
+    synchronized(this) {
+      w = _watcher;
+      _watcher = null;
+      _wanted.clear();
+      _trees.clear();
+      _dirs.clear();
+      _newEpoch();
+    }
+    if (w != null) {
+      try { w.close(); }
+      catch (IOException e) { _log.log("Could not close the watch service: ", e); }
+    }
+  }
+  
+  /** Registers all directories in a tree, and marks it as completely registered if it is still wanted.  If a directory
+    * cannot be registered, the keys of the whole tree are cancelled, so that its files are polled; only the keys of
+    * directories that also belong to another, completely registered tree are kept.
+    */
+  private void _registerTree(Path root) {
+    long start = System.currentTimeMillis();
+    List<Path> registered = new ArrayList<Path>();
+    boolean ok = _registerAll(root, registered);
+    synchronized(this) {
+      if (ok && _wanted.contains(root)) {
+        _trees.add(root);
+        if (_log.isEnabled()) {
+          _log.log("Watching ", root, ": ", registered.size(), " directories registered in ",
+                   (System.currentTimeMillis() - start) + " ms");
+        }
+      }
+      else {
+        _log.log("Not watching ", root);
+        for (Path p : registered) {
+          if (ok ? ! _isWanted(p) : ! _isInRegisteredTree(p)) _cancel(p);
+        }
+      }
+    }
+  }
+  
+  /** Registers the directories of a tree, adding them to registered.
+    * @return false if a directory could not be registered
+    */
+  private boolean _registerAll(Path root, final List<Path> registered) {
+    final WatchService w = _watcher;
+    if (w == null) return false;
+    try {
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+          WatchKey key = dir.register(w, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+          synchronized(FileMonitor.this) {
+            _dirs.put(dir, key);
+            // anything that happened before the registration is unknown, so all earlier stamps are void
+            _newEpoch();
+          }
+          registered.add(dir);
+          return FileVisitResult.CONTINUE;
+        }
+        public FileVisitResult visitFileFailed(Path file, IOException e) { return FileVisitResult.CONTINUE; }
+      });
+      return true;
+    }
+    catch (IOException e) { _log.log("Could not register ", root, ": ", e); }
+    catch (ClosedWatchServiceException e) { /* closed */ }
+    catch (RuntimeException e) { _log.log("Could not register ", root, ": ", e); }
+    return false;
+  }
+  
+  /** Takes watch keys and processes their events until the watch service is closed. */
+  private void _processEvents() {
+    try {
+      while (true) {
+        WatchService w = _watcher;
+        if (w == null) return;
+        WatchKey key = w.take();
+        synchronized(this) { _process(key); }
+      }
+    }
+    catch (InterruptedException e) { /* stop */ }
+    catch (ClosedWatchServiceException e) { /* stop */ }
+  }
+  
+  /** Processes all pending events without waiting, so that queries see the events reported so far. */
+  private void _drain() {
+    WatchService w = _watcher;
+    if (w == null) return;
+    try {
+      WatchKey key;
+      while ((key = w.poll()) != null) { _process(key); }
+    }
+    catch (ClosedWatchServiceException e) { /* closed */ }
+  }
+  
+  /** Records the events of a key, registers the directories created in its directory, and resets it. */
+  private void _process(WatchKey key) {
+    Path dir = (Path) key.watchable();
+    for (WatchEvent<?> e : key.pollEvents()) {
+      WatchEvent.Kind<?> kind = e.kind();
+      if (kind == OVERFLOW) {
+        _newEpoch();
+        continue;
+      }
+      Path p = dir.resolve((Path) e.context());
+      long s = ++_counter;
+      _stamps.put(p, s);
+      if (kind == ENTRY_CREATE || kind == ENTRY_DELETE) {
+        boolean isDir = (kind == ENTRY_CREATE) ? Files.isDirectory(p) : _dirs.containsKey(p);
+        _structure.put(isDir ? DIRECTORY : _extensionKey(p.getFileName().toString()), s);
+        if (isDir && kind == ENTRY_CREATE && _isWanted(p) && ! _dirs.containsKey(p)) {
+          // files may have been created in the new directory before it was registered; the new epoch covers them
+          List<Path> registered = new ArrayList<Path>();
+          if (! _registerAll(p, registered)) { for (Path r : registered) _cancel(r); }
+        }
+      }
+    }
+    if (! key.reset()) {
+      // the directory was deleted or moved
+      _dirs.remove(dir);
+      _structure.put(DIRECTORY, ++_counter);
+    }
+    if (_stamps.size() > MAX_STAMPS) _newEpoch();
+  }
+  
+  /** Discards all file stamps, so that every stamp changes. */
+  private void _newEpoch() {
+    _epoch = ++_counter;
+    _stamps.clear();
+  }
+  
+  /** @return true if p is in a tree that should be watched */
+  private boolean _isWanted(Path p) {
+    for (Path t : _wanted) { if (p.startsWith(t)) return true; }
+    return false;
+  }
+  
+  /** @return true if p is in a tree that is completely registered */
+  private boolean _isInRegisteredTree(Path p) {
+    for (Path t : _trees) { if (p.startsWith(t)) return true; }
+    return false;
+  }
+  
+  /** Cancels the keys of the directories that are no longer in a wanted tree. */
+  private void _cancelUnwanted() {
+    for (Path p : new ArrayList<Path>(_dirs.keySet())) { if (! _isWanted(p)) _cancel(p); }
+  }
+  
+  private void _cancel(Path dir) {
+    WatchKey key = _dirs.remove(dir);
+    if (key != null) key.cancel();
+    _newEpoch();
+  }
+  
+  /** @return the extension of a file name, in lower case, or {@link #DIRECTORY} if it has none */
+  private static String _extensionKey(String name) {
+    int dot = name.lastIndexOf('.');
+    return (dot < 0) ? DIRECTORY : name.substring(dot + 1).toLowerCase();
+  }
+  
+  private static Path _path(File f) { return f.getAbsoluteFile().toPath().normalize(); }
+}
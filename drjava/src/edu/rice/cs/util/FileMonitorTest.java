@@ -0,0 +1,169 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2016, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import edu.rice.cs.drjava.DrJavaTestCase;
+import edu.rice.cs.plt.io.IOUtil;
+
+/** Test cases for {@link FileMonitor}.  Events arrive asynchronously, so the tests wait for stamps to change.  They
+  * pass trivially on platforms without native file watching.
+  * @version $Id$
+  */
+public class FileMonitorTest extends DrJavaTestCase {
+  
+  /** How long to wait for an event, in milliseconds. */
+  private static final int TIMEOUT = 10000;
+  
+  private File _root;
+  private FileMonitor _monitor;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    String user = System.getProperty("user.name");
+    _root = IOUtil.createAndMarkTempDirectory("DrJava-test-" + user, "");
+    _monitor = new FileMonitor();
+  }
+  
+  public void tearDown() throws Exception {
+    _monitor.close();
+    IOUtil.deleteRecursively(_root);
+    super.tearDown();
+  }
+  
+  /** Watches _root and waits until it is registered.
+    * @return false if watching is unavailable
+    */
+  private boolean _watchRoot() throws InterruptedException {
+    if (! _monitor.isAvailable()) return false;
+    _monitor.setTrees(Arrays.asList(_root));
+    long end = System.currentTimeMillis() + TIMEOUT;
+    while (! _monitor.isWatching(_root)) {
+      assertTrue("Tree not registered", System.currentTimeMillis() < end);
+      Thread.sleep(10);
+    }
+    return true;
+  }
+  
+  /** Waits until the stamp of f is no longer old. */
+  private long _awaitStamp(File f, long old) throws InterruptedException {
+    long end = System.currentTimeMillis() + TIMEOUT;
+    long s;
+    while ((s = _monitor.stamp(f)) == old) {
+      assertTrue("No event for " + f, System.currentTimeMillis() < end);
+      Thread.sleep(10);
+    }
+    return s;
+  }
+  
+  /** Waits until the tree stamp of _root for ext is no longer old. */
+  private long _awaitTreeStamp(String ext, long old) throws InterruptedException {
+    long end = System.currentTimeMillis() + TIMEOUT;
+    long s;
+    while ((s = _monitor.treeStamp(_root, ext)) == old) {
+      assertTrue("No event in " + _root, System.currentTimeMillis() < end);
+      Thread.sleep(10);
+    }
+    return s;
+  }
+  
+  public void testFileStamps() throws IOException, InterruptedException {
+    File a = new File(_root, "A.java");
+    IOUtil.writeStringToFile(a, "class A {}");
+    if (! _watchRoot()) return;
+    
+    long s0 = _monitor.stamp(a);
+    assertTrue("A.java not watched", s0 != FileMonitor.UNWATCHED);
+    assertEquals("Stamp changed without an event", s0, _monitor.stamp(a));
+    assertEquals("File outside the tree watched", FileMonitor.UNWATCHED, 
+                 _monitor.stamp(new File(_root.getParentFile(), "B.java")));
+    
+    IOUtil.writeStringToFile(a, "class A { int x; }");
+    long s1 = _awaitStamp(a, s0);
+    assertTrue("Stamps decreased", s1 > s0);
+    
+    assertTrue(a.delete());
+    long s2 = _awaitStamp(a, s1);
+    assertTrue("Stamps decreased", s2 > s1);
+    
+    _monitor.invalidate();
+    assertTrue("invalidate didn't change the stamp", _monitor.stamp(a) > s2);
+    
+    _monitor.setTrees(Collections.<File>emptyList());
+    assertFalse(_monitor.isWatching(_root));
+    assertEquals("File still watched", FileMonitor.UNWATCHED, _monitor.stamp(a));
+  }
+  
+  public void testTreeStamps() throws IOException, InterruptedException {
+    File a = new File(_root, "A.java");
+    IOUtil.writeStringToFile(a, "class A {}");
+    if (! _watchRoot()) return;
+    
+    long s0 = _monitor.treeStamp(_root, ".java");
+    assertTrue("Tree not watched", s0 != FileMonitor.UNWATCHED);
+    
+    // neither modifications nor other kinds of files change the listing of the source files
+    long a0 = _monitor.stamp(a);
+    IOUtil.writeStringToFile(a, "class A { int x; }");
+    _awaitStamp(a, a0);
+    long c0 = _monitor.treeStamp(_root, "class");
+    IOUtil.writeStringToFile(new File(_root, "A.class"), "");
+    _awaitTreeStamp("class", c0);
+    assertEquals("Tree stamp changed", s0, _monitor.treeStamp(_root, ".java"));
+    
+    IOUtil.writeStringToFile(new File(_root, "B.java"), "class B {}");
+    long s1 = _awaitTreeStamp("java", s0);
+    
+    // files in new directories are watched as soon as the directory is registered
+    File dir = new File(_root, "pkg");
+    assertTrue(dir.mkdir());
+    long s2 = _awaitTreeStamp("java", s1);
+    File d = new File(dir, "D.java");
+    long end = System.currentTimeMillis() + TIMEOUT;
+    while (_monitor.stamp(d) == FileMonitor.UNWATCHED) {
+      assertTrue("New directory not registered", System.currentTimeMillis() < end);
+      Thread.sleep(10);
+    }
+    long s3 = _monitor.treeStamp(_root, ".java");
+    IOUtil.writeStringToFile(d, "package pkg; class D {}");
+    assertTrue(_awaitTreeStamp("java", s3) > s2);
+  }
+}
@@ -39,6 +39,8 @@ package edu.rice.cs.util;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
 import java.util.*;
 import java.util.jar.*;
 
@@ -163,7 +165,7 @@ public abstract class FileOps {
   public static boolean isAncestorOf(File ancestor, File f) {
     ancestor = ancestor.getAbsoluteFile();
     f = f.getAbsoluteFile();
-    _log.log("ancestor = " +ancestor + "     f = " + f);
+    _log.log("ancestor = ", ancestor, "     f = ", f);
     while ((!ancestor.equals(f)) && (f != null)) {
       f = f.getParentFile();
     }
@@ -575,6 +577,46 @@ public abstract class FileOps {
 //    return file;
   }
   
+  /** The directory, next to the ".drjava" properties file in the user's home directory, in which DrJava keeps data
+    * that it can recompute (signatures of library classes, indices of jars, instrumented classes). */
+  public static final File CACHE_DIRECTORY = new File(System.getProperty("user.home", ""), ".drjava-cache");
+  
+  /** Get a subdirectory of {@link #CACHE_DIRECTORY}, creating both if necessary.  The cache directory is created so
+    * that only its owner can access it; if it already exists but is a link, is not owned by the owner of the user's
+    * home directory, or can be accessed by others, nothing is cached in it, because other users could plant files.
+    * @param name  The name of the subdirectory
+    * @return The subdirectory, or null if it can't be created or isn't private to the current user.
+    */
+  public static File getCacheDirectory(String name) {
+    Path root = CACHE_DIRECTORY.toPath();
+    boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    try {
+      if (! Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+        try {
+          if (posix) { Files.createDirectory(root, PosixFilePermissions.asFileAttribute(OWNER_ONLY)); }
+          else { Files.createDirectory(root); }
+        }
+        catch (FileAlreadyExistsException e) { /* created concurrently; checked below */ }
+      }
+      if (posix) {
+        PosixFileAttributes attrs = Files.readAttributes(root, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal homeOwner = Files.getOwner(root.getParent());
+        if (! attrs.isDirectory() || ! attrs.owner().equals(homeOwner) ||
+            ! OWNER_ONLY.containsAll(attrs.permissions())) {
+          _log.log("Not using cache directory ", root, ": ", attrs.owner(), " ", attrs.permissions());
+          return null;
+        }
+      }
+      else if (! Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) { return null; }
+      File result = new File(CACHE_DIRECTORY, name);
+      return (result.isDirectory() || result.mkdir()) ? result : null;
+    }
+    catch (IOException e) { _log.log("Can't create cache directory " + root, e); return null; }
+    catch (UnsupportedOperationException e) { _log.log("Can't create cache directory " + root, e); return null; }
+  }
+  
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+  
   /** Delete the given directory including any files and directories it contains.
     * @param dir  File object representing directory to delete. If, for some reason, this file object is not a 
     *             directory, it will still be deleted.
@@ -611,7 +653,7 @@ public abstract class FileOps {
   @Deprecated public static void deleteDirectoryOnExit(final File dir) {
     
     // Delete this on exit, whether it's a directory or file
-    _log.log("Deleting file/directory " + dir + " on exit");
+    _log.log("Deleting file/directory ", dir, " on exit");
     dir.deleteOnExit(); 
     
     // If it's a directory, visit its children.  This recursive walk has to be done AFTER calling deleteOnExit
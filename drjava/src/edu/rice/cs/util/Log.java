@@ -39,17 +39,58 @@ package edu.rice.cs.util;
 import java.io.*;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.TimeZone;
 
+import edu.rice.cs.plt.debug.LogSink;
+import edu.rice.cs.plt.debug.ThreadSnapshot;
+import edu.rice.cs.plt.lambda.Thunk;
+
 /** Logging class to record errors or unexpected behavior to a file.  The file is created in the current directory,
   * and is only used if the log is enabled.  All logs can be enabled at once with the ENABLE_ALL field.
+  * <p>
+  * A disabled log costs a volatile read per call: it takes no lock and allocates nothing, as long as the caller
+  * does not build the message itself.  So messages should be passed in parts, as in 
+  * {@code _log.log("Compiling ", files, " to ", buildDir)}, which are only converted to strings and concatenated if
+  * the log is enabled, or as a {@link Thunk} for messages that are expensive to compute.</p>
+  * <p>
+  * Logs are grouped into subsystems, named by their file names without the extension ("MainFrame" for 
+  * "MainFrame.txt").  Subsystems can be enabled when DrJava starts, by listing them (or "*") in the system property
+  * {@link #ENABLED_PROPERTY}, or at any time with {@link #setEnabled(String, boolean)}.  While a trace sink is
+  * installed with {@link #setTraceSink}, the messages of enabled logs are sent to it, with the thread and stack
+  * they come from, instead of to the log files; a {@link edu.rice.cs.plt.debug.RingBufferLogSink} keeps the most
+  * recent messages in memory without locking.</p>
   * @version $Id$
   */
 public class Log {
   public static final boolean ENABLE_ALL = false;
   
+  /** The system property listing the subsystems whose logs are enabled, separated by commas; "*" enables all. */
+  public static final String ENABLED_PROPERTY = "drjava.log.enabled";
+  
+  /** Every log created so far, weakly held; also the lock for {@link #_enabledSubsystems}. */
+  private static final WeakHashMap<Log, Boolean> _logs = new WeakHashMap<Log, Boolean>();
+  
+  /** The subsystems enabled by {@link #ENABLED_PROPERTY} and {@link #setEnabled(String, boolean)}. */
+  private static final Set<String> _enabledSubsystems = new HashSet<String>();
+  static {
+    String enabled = System.getProperty(ENABLED_PROPERTY);
+    if (enabled != null) {
+      for (String subsystem : enabled.split(",")) {
+        if (subsystem.trim().length() > 0) { _enabledSubsystems.add(subsystem.trim()); }
+      }
+    }
+  }
+  
+  /** The sink that receives the messages of enabled logs instead of their files, or null. */
+  private static volatile LogSink _traceSink = null;
+  
+  private static final String[] TRACE_NAMES = { "subsystem" };
+  
   /** Whether this particular log is enabled in development mode. */
   protected volatile boolean _isEnabled;
   
@@ -62,6 +103,9 @@ public class Log {
   /** PrintWriter to print messages to a file. */
   protected volatile PrintWriter _writer;
   
+  /** The subsystem of this log: its file name without the extension. */
+  private final String _subsystem;
+  
   public final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("d MMM yyyy H:mm:ss z");
   
   /** Creates a new Log with the given name.  If enabled is true, a file is created in the current directory with the
@@ -74,16 +118,21 @@ public class Log {
   public Log(File f, boolean isEnabled) {
     _file = f;
     _name = f.getName();
-    _isEnabled = isEnabled;
+    int dot = _name.lastIndexOf('.');
+    _subsystem = (dot > 0) ? _name.substring(0, dot) : _name;
+    synchronized(_logs) {
+      _isEnabled = isEnabled || _enabledSubsystems.contains("*") || _enabledSubsystems.contains(_subsystem);
+      _logs.put(this, Boolean.TRUE);
+    }
     DATE_FORMAT.setTimeZone(TimeZone.getTimeZone("GMT"));
     DATE_FORMAT.setLenient(false);
     _init();
   }
   
   /** Creates the log file, if enabled. */
-  protected void _init() {
+  protected synchronized void _init() {
     if (_writer == null) {
-      if (_isEnabled || ENABLE_ALL) {
+      if ((_isEnabled || ENABLE_ALL) && _traceSink == null) {
         try {
           FileWriter w = new FileWriter(_file.getAbsolutePath(), true);
           _writer = new PrintWriter(w);
@@ -104,16 +153,113 @@ public class Log {
   /** @return  whether this log is currently enabled. */
   public boolean isEnabled() { return (_isEnabled || ENABLE_ALL); }
   
+  /** @return the subsystem of this log: its file name without the extension */
+  public String getSubsystem() { return _subsystem; }
+  
+  /** Enables or disables the logs of a subsystem, including those created later.
+    * @param subsystem  The subsystem, such as "MainFrame" for the log "MainFrame.txt", or "*" for all logs
+    * @param isEnabled  Whether the subsystem's logs should record messages
+    */
+  public static void setEnabled(String subsystem, boolean isEnabled) {
+    synchronized(_logs) {
+      boolean all = subsystem.equals("*");
+      if (isEnabled) { _enabledSubsystems.add(subsystem); }
+      else if (all) { _enabledSubsystems.clear(); }
+      else { _enabledSubsystems.remove(subsystem); }
+      for (Log l : _logs.keySet()) {
+        if (all || l._subsystem.equals(subsystem)) { l.setEnabled(isEnabled); }
+      }
+    }
+  }
+  
+  /** Installs a sink that receives the messages of all enabled logs instead of their files.
+    * @param sink  The sink, or null to write to the log files again
+    */
+  public static void setTraceSink(LogSink sink) { _traceSink = sink; }
+  
+  /** @return the sink installed by {@link #setTraceSink}, or null */
+  public static LogSink getTraceSink() { return _traceSink; }
+  
   /** Prints a message to the log, if enabled.
     * @param message Message to print.
     */
-  public synchronized void log(String message) {
-    if (isEnabled()) {
-      if (_writer == null) {
-        _init();
+  public void log(String message) {
+    if (isEnabled()) { _write(message); }
+  }
+  
+  /** Prints a message to the log, if enabled.  The message is only computed if the log is enabled.
+    * @param message Thunk computing the message to print.
+    */
+  public void log(Thunk<String> message) {
+    if (isEnabled()) { _write(message.value()); }
+  }
+  
+  /** Prints the concatenation of the given parts to the log, if enabled.  The parts are only converted to strings
+    * if the log is enabled, but primitive parts are boxed before the call; callers passing numbers should check
+    * {@link #isEnabled} first (booleans and small integers are boxed without allocating).
+    * @param m1 first part of the message
+    * @param m2 second part of the message
+    */
+  public void log(Object m1, Object m2) {
+    if (isEnabled()) { _write(String.valueOf(m1) + m2); }
+  }
+  
+  /** Prints the concatenation of the given parts to the log, if enabled.
+    * @param m1 first part of the message
+    * @param m2 second part of the message
+    * @param m3 third part of the message
+    */
+  public void log(Object m1, Object m2, Object m3) {
+    if (isEnabled()) { _write(String.valueOf(m1) + m2 + m3); }
+  }
+  
+  /** Prints the concatenation of the given parts to the log, if enabled.
+    * @param m1 first part of the message
+    * @param m2 second part of the message
+    * @param m3 third part of the message
+    * @param m4 fourth part of the message
+    */
+  public void log(Object m1, Object m2, Object m3, Object m4) {
+    if (isEnabled()) { _write(String.valueOf(m1) + m2 + m3 + m4); }
+  }
+  
+  /** Prints the concatenation of the given parts to the log, if enabled.
+    * @param m1 first part of the message
+    * @param m2 second part of the message
+    * @param m3 third part of the message
+    * @param m4 fourth part of the message
+    * @param m5 fifth part of the message
+    */
+  public void log(Object m1, Object m2, Object m3, Object m4, Object m5) {
+    if (isEnabled()) { _write(String.valueOf(m1) + m2 + m3 + m4 + m5); }
+  }
+  
+  /** Prints the concatenation of the given parts to the log, if enabled.
+    * @param m1 first part of the message
+    * @param m2 second part of the message
+    * @param m3 third part of the message
+    * @param m4 fourth part of the message
+    * @param m5 fifth part of the message
+    * @param m6 sixth part of the message
+    */
+  public void log(Object m1, Object m2, Object m3, Object m4, Object m5, Object m6) {
+    if (isEnabled()) { _write(String.valueOf(m1) + m2 + m3 + m4 + m5 + m6); }
+  }
+  
+  /** Records a message of an enabled log. */
+  private void _write(String message) {
+    LogSink trace = _traceSink;
+    if (trace != null) {
+      trace.log(new LogSink.StandardMessage(new ThreadSnapshot(), message, TRACE_NAMES, new Object[] { _subsystem }));
+    }
+    else {
+      synchronized(this) {
+        if (_writer == null) { _init(); }
+        if (_writer != null) {
+          _writer.println(DATE_FORMAT.format(new Date()) + ": " + message);
+          _writer.flush();
+        }
       }
-      _writer.println(DATE_FORMAT.format(new Date()) + ": " + message);
-      _writer.flush();
     }
   }
   
@@ -131,27 +277,29 @@ public class Log {
     * @param s  Message to print
     * @param trace  Stack track to log
     */
-  public synchronized void log(String s, StackTraceElement[] trace) {
-    if (isEnabled()) log(s + traceToString(trace));
+  public void log(String s, StackTraceElement[] trace) {
+    if (isEnabled()) _write(s + traceToString(trace));
   }
   
   /** Prints a message and exception stack trace to the log, if enabled.
     * @param s Message to print
     * @param t Throwable to log
     */
-  public synchronized void log(String s, Throwable t) {
+  public void log(String s, Throwable t) {
     if (isEnabled()) {
       StringWriter sw = new StringWriter();
       PrintWriter pw = new PrintWriter(sw);
       t.printStackTrace(pw);
-      log(s + "\n" + sw.toString());
+      _write(s + "\n" + sw.toString());
     }
   }
   
   /** Closes a log file. */
-  public void close() {
-    _writer.close();
-    _writer = null;
+  public synchronized void close() {
+    if (_writer != null) {
+      _writer.close();
+      _writer = null;
+    }
   }
   
   /** Parses a date printed by Date.toString(); returns null if there is a 
@@ -40,11 +40,18 @@ import java.io.FileReader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 
 import edu.rice.cs.drjava.model.MultiThreadedTestCase;
+import edu.rice.cs.plt.debug.LogSink;
+import edu.rice.cs.plt.debug.RingBufferLogSink;
 import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.lambda.Thunk;
 
 /** Test cases for {@link Log}.
  *  @version $Id$
@@ -267,5 +274,204 @@ public class LogTest extends MultiThreadedTestCase {
     fin.close();
 //    System.err.println("LogTest.testConucrrentWrites complete");
   }
+  
+  /** Tests that the parts of a message are only concatenated, and thunks only evaluated, when the log is enabled.
+    * @throws IOException if an IO operation fails
+    */
+  public void testDeferredMessages() throws IOException {
+    File file4 = IOUtil.createAndMarkTempFile("logtest004",".txt");
+    Log log4 = new Log(file4, false);
+    final int[] evaluated = { 0 };
+    Thunk<String> message = new Thunk<String>() {
+      public String value() { evaluated[0]++; return "Message 4"; }
+    };
+    log4.log(message);
+    log4.log("Message ", 1, " of ", 2);
+    assertEquals("Thunk evaluated by disabled log", 0, evaluated[0]);
+    assertEquals("Disabled log wrote to its file", 0, file4.length());
+    
+    log4.setEnabled(true);
+    log4.log("Message ", 1, " of ", 2);
+    log4.log(message);
+    log4.close();
+    assertEquals("Thunk not evaluated once", 1, evaluated[0]);
+    
+    BufferedReader fin = new BufferedReader(new FileReader(file4));
+    fin.readLine(); // open message
+    assertEquals("Message 1 of 2", getStringAfterDate(fin.readLine()));
+    assertEquals("Message 4", getStringAfterDate(fin.readLine()));
+    assertEquals("End of log expected", null, fin.readLine());
+    fin.close();
+  }
+  
+  /** Tests enabling and disabling the logs of a subsystem, including logs created after the change.
+    * @throws IOException if an IO operation fails
+    */
+  public void testSubsystems() throws IOException {
+    File dir = IOUtil.createAndMarkTempDirectory("logtest005", "");
+    Log log5 = new Log(new File(dir, "LogTestSubsystem.txt"), false);
+    Log other = new Log(new File(dir, "LogTestOther.txt"), false);
+    assertEquals("LogTestSubsystem", log5.getSubsystem());
+    try {
+      Log.setEnabled("LogTestSubsystem", true);
+      assertTrue("Subsystem log not enabled", log5.isEnabled());
+      assertFalse("Other log enabled", other.isEnabled());
+      Log later = new Log(new File(dir, "LogTestSubsystem.log"), false);
+      assertTrue("Log created later not enabled", later.isEnabled());
+      log5.log("Message ", 5);
+      log5.close();
+      later.close();
+      
+      Log.setEnabled("LogTestSubsystem", false);
+      assertFalse("Subsystem log not disabled", log5.isEnabled());
+      assertFalse("Subsystem log not disabled", later.isEnabled());
+      assertFalse("Log created after disabling enabled", new Log(new File(dir, "LogTestSubsystem.dat"), false).isEnabled());
+    }
+    finally { Log.setEnabled("LogTestSubsystem", false); }
+    
+    BufferedReader fin = new BufferedReader(new FileReader(new File(dir, "LogTestSubsystem.txt")));
+    fin.readLine(); // open message
+    assertEquals("Message 5", getStringAfterDate(fin.readLine()));
+    fin.close();
+    assertFalse("Disabled log created a file", new File(dir, "LogTestOther.txt").exists());
+  }
+  
+  /** Tests that the messages of enabled logs go to the trace sink while one is installed, and that the ring buffer
+    * keeps only the most recent ones.
+    * @throws IOException if an IO operation fails
+    */
+  public void testTraceSink() throws IOException {
+    File file6 = IOUtil.createAndMarkTempFile("logtest006",".txt");
+    RingBufferLogSink sink = new RingBufferLogSink(4);
+    Log.setTraceSink(sink);
+    try {
+      Log log6 = new Log(file6, true);
+      Log disabled = new Log(file6, false);
+      for (int i = 0; i < 10; i++) {
+        log6.log("Message ", i);
+        disabled.log("Disabled ", i);
+      }
+      assertEquals(10, sink.count());
+      List<LogSink.Message> messages = sink.messages();
+      assertEquals(4, messages.size());
+      for (int i = 0; i < 4; i++) {
+        LogSink.Message m = messages.get(i);
+        assertEquals("Message " + (i + 6), m.text().unwrap());
+        assertEquals(Thread.currentThread().getName(), m.thread().getName());
+      }
+      assertEquals("Log wrote to its file while tracing", 0, file6.length());
+    }
+    finally { Log.setTraceSink(null); }
+  }
+  
+  /** Tests that concurrent writers to a ring buffer neither lose nor duplicate the most recent messages.
+    * @throws InterruptedException if execution is interrupted unexpectedly
+    */
+  public void testConcurrentTrace() throws IOException, InterruptedException {
+    final File file7 = IOUtil.createAndMarkTempFile("logtest007",".txt");
+    final RingBufferLogSink sink = new RingBufferLogSink(NUM_THREADS * 100);
+    Log.setTraceSink(sink);
+    try {
+      final Log log7 = new Log(file7, true);
+      Thread[] threads = new Thread[NUM_THREADS];
+      for (int i = 0; i < NUM_THREADS; i++) {
+        final int t = i;
+        threads[i] = new Thread() {
+          public void run() { for (int j = 0; j < 100; j++) { log7.log("Thread ", t, " message ", j); } }
+        };
+      }
+      for (int i = 0; i < NUM_THREADS; i++) threads[i].start();
+      for (int i = 0; i < NUM_THREADS; i++) threads[i].join();
+      log7.setEnabled(false);
+    }
+    finally { Log.setTraceSink(null); }
+    List<LogSink.Message> messages = sink.messages();
+    assertEquals(NUM_THREADS * 100, messages.size());
+    assertEquals(NUM_THREADS * 100, new HashSet<String>(textOf(messages)).size());
+  }
+  
+  private static List<String> textOf(List<LogSink.Message> messages) {
+    List<String> result = new ArrayList<String>();
+    for (LogSink.Message m : messages) { result.add(m.text().unwrap()); }
+    return result;
+  }
+  
+  /** Tests that logging a message in parts to a disabled log allocates nothing.  Relies on the HotSpot
+    * ThreadMXBean extension, and passes trivially on VMs that don't have it.
+    */
+  public void testDisabledLogDoesNotAllocate() {
+    Log log8 = new Log(new File("logtest008.txt"), false);
+    Object part = new Object();
+    if (allocatedBytes() < 0) { return; }
+    for (int i = 0; i < 20000; i++) { logDisabled(log8, part, i); } // warm up
+    long before = allocatedBytes();
+    for (int i = 0; i < 100000; i++) { logDisabled(log8, part, i); }
+    long allocated = allocatedBytes() - before;
+    // small integers are cached by Integer.valueOf, so boxing i & 127 doesn't allocate either
+    assertTrue("Disabled log allocated " + allocated + " bytes", allocated < 1000);
+  }
+  
+  private static void logDisabled(Log log, Object part, int i) {
+    log.log("Message ", part);
+    log.log("Message ", part, " of ", i & 127);
+    log.log("Message");
+  }
+  
+  /** @return the number of bytes allocated by the current thread so far, or -1 if the VM can't tell */
+  private static long allocatedBytes() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+        if (b.isThreadAllocatedMemorySupported() && b.isThreadAllocatedMemoryEnabled()) {
+          return b.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+      }
+    }
+    catch (LinkageError e) { /* not a HotSpot VM */ }
+    return -1;
+  }
+  
+  /** Compares the cost of a disabled log message built by concatenation, passed in parts, and guarded by
+    * {@link Log#isEnabled}, and of an enabled log message sent to a ring buffer.
+    * @param args the number of messages to log (optional)
+    */
+  public static void main(String... args) {
+    int n = (args.length > 0) ? Integer.parseInt(args[0]) : 5000000;
+    Log log = new Log(new File("logtest009.txt"), false);
+    Object part = new Date();
+    for (int round = 0; round < 3; round++) {
+      long start = System.nanoTime();
+      long bytes = allocatedBytes();
+      for (int i = 0; i < n; i++) { log.log("Message " + part + " of " + i); }
+      report("concatenated", n, start, bytes);
+      
+      start = System.nanoTime();
+      bytes = allocatedBytes();
+      for (int i = 0; i < n; i++) { log.log("Message ", part, " of ", i & 127); }
+      report("in parts    ", n, start, bytes);
+      
+      start = System.nanoTime();
+      bytes = allocatedBytes();
+      for (int i = 0; i < n; i++) { if (log.isEnabled()) { log.log("Message " + part + " of " + i); } }
+      report("guarded     ", n, start, bytes);
+      
+      RingBufferLogSink sink = new RingBufferLogSink(1024);
+      Log.setTraceSink(sink);
+      log.setEnabled(true);
+      start = System.nanoTime();
+      bytes = allocatedBytes();
+      for (int i = 0; i < n / 100; i++) { log.log("Message ", part, " of ", i); }
+      report("ring buffer ", n / 100, start, bytes);
+      log.setEnabled(false);
+      Log.setTraceSink(null);
+    }
+  }
+  
+  private static void report(String name, int n, long start, long bytes) {
+    long time = System.nanoTime() - start;
+    long allocated = allocatedBytes() - bytes;
+    System.out.println(name + ": " + (time / n) + " ns/message, " + (allocated / n) + " bytes/message");
+  }
 }
 
@@ -230,31 +230,33 @@ public class JTreeSortNavigator<ItemT extends INavigatorItem> extends JTree
   }
   
   /** Inserts the child node (INavigatorItem) into the sorted position as a parent node's child.  Only executes in the 
-    * event thread.  Assumes that _model lock is already held.
+    * event thread.  Assumes that _model lock is already held.  The folders of a node precede its documents, and both
+    * are kept sorted, so the position is found by binary search.
     * @param child the node to add
     * @param parent the node to add under
     */
   private void insertNodeSortedInto(LeafNode<ItemT> child, InnerNode<?, ItemT> parent) {
-    int numChildren = parent.getChildCount();
-    String newName = child.toString();
-    String oldName = parent.getUserObject().toString();
-    DefaultMutableTreeNode parentsKid;
+    String newName = child.toString().toUpperCase();
     
     /** Make sure that if the parent is a top level group, it is added to the tree model group. */
     if (((DefaultMutableTreeNode)_model.getRoot()).getIndex(parent) == -1 && _roots.contains(parent)) {
       addTopLevelGroupToRoot(parent);
     }
-    int i;
-    for (i = 0; i < numChildren; i++ ) {
-      parentsKid = ((DefaultMutableTreeNode) parent.getChildAt(i));
-      if (parentsKid instanceof InnerNode<?,?>) {
-        // do nothing, it's a folder
-      } else if(parentsKid instanceof LeafNode<?>) {
-        oldName = ((LeafNode<?>)parentsKid).getData().getName();
-        if ((newName.toUpperCase().compareTo(oldName.toUpperCase()) < 0)) break;
-      } else throw new IllegalStateException("found a node in navigator that is not an InnerNode or LeafNode");
+    
+    // find the first document whose name follows newName
+    int lo = firstLeafIndex(parent);
+    int hi = parent.getChildCount();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      TreeNode parentsKid = parent.getChildAt(mid);
+      if (! (parentsKid instanceof LeafNode<?>)) {
+        throw new IllegalStateException("found a node in navigator that is not an InnerNode or LeafNode");
+      }
+      String oldName = ((LeafNode<?>)parentsKid).getData().getName();
+      if (newName.compareTo(oldName.toUpperCase()) < 0) hi = mid;
+      else lo = mid + 1;
     }
-    _model.insertNodeInto(child, parent, i);
+    _model.insertNodeInto(child, parent, lo);
   }
   
   /** Inserts a folder (String) into sorted position under the parent.  Only executes in event thread. Assumes that
@@ -263,27 +265,35 @@ public class JTreeSortNavigator<ItemT extends INavigatorItem> extends JTree
     * @param parent the folder to add under
     */
   private void insertFolderSortedInto(InnerNode<?, ItemT> child, InnerNode<?, ItemT> parent) {
-    int numChildren = parent.getChildCount();
-    String newName = child.toString();
-    String oldName = parent.getUserObject().toString();
-    DefaultMutableTreeNode parentsKid;
+    String newName = child.toString().toUpperCase();
     
     if (((DefaultMutableTreeNode)_model.getRoot()).getIndex(parent) == -1 && _roots.contains(parent)) {
       addTopLevelGroupToRoot(parent);
     }
     
-    int i;
-    for (i = 0; i < numChildren; i++) {
-      parentsKid = ((DefaultMutableTreeNode)parent.getChildAt(i));
-      if (parentsKid instanceof InnerNode<?,?>) {
-        oldName = parentsKid.toString();
-        if ((newName.toUpperCase().compareTo(oldName.toUpperCase()) < 0)) break;
-      } 
-      else if (parentsKid instanceof LeafNode<?>) break;
-      // we're out of folders, and starting into the files, so just break out.
-      else throw new IllegalStateException("found a node in navigator that is not an InnerNode or LeafNode");
+    // find the first folder whose name follows newName; folders are placed before the documents
+    int lo = 0;
+    int hi = firstLeafIndex(parent);
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (newName.compareTo(parent.getChildAt(mid).toString().toUpperCase()) < 0) hi = mid;
+      else lo = mid + 1;
+    }
+    _model.insertNodeInto(child, parent, lo);
+  }
+  
+  /** @param parent a folder node
+    * @return the index of the first document (LeafNode) among the children of parent, which follows all the folders
+    */
+  private static int firstLeafIndex(InnerNode<?, ?> parent) {
+    int lo = 0;
+    int hi = parent.getChildCount();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (parent.getChildAt(mid) instanceof InnerNode<?,?>) lo = mid + 1;
+      else hi = mid;
     }
-    _model.insertNodeInto(child, parent, i);
+    return lo;
   }
   
   /** Removes a given {@code INavigatorItem} from this navigator. Removes all {@code INavigatorItem}s
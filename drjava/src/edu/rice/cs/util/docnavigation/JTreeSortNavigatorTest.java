@@ -137,6 +137,24 @@ public class JTreeSortNavigatorTest extends DrJavaTestCase {
     assertSame("getPrevious test 3", i1, tree.getPrevious(i2));
   }
   
+  /** Tests that folders precede documents and that both are sorted, ignoring case, whatever the insertion order. */
+  public void testSortedInsertion() {
+    final String[] names = { "b", "A", "c", "a", "B" };
+    Utilities.invokeAndWait(new Runnable() {
+      public void run() {
+        for (String n: names) { tree.addDocument(new DummyINavigatorItem(n), "sorted"); }
+        for (String n: new String[] { "z", "Y", "x" }) { tree.addDocument(new DummyINavigatorItem("in" + n), "sorted/" + n); }
+      }
+    });
+    DefaultMutableTreeNode sorted = (DefaultMutableTreeNode) source.getChildAt(2);
+    assertEquals("folder", "sorted", sorted.toString());
+    String[] expected = { "x", "Y", "z", "A", "a", "b", "B", "c" };  // equal names keep their insertion order
+    assertEquals("number of children", expected.length, sorted.getChildCount());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("child " + i, expected[i], sorted.getChildAt(i).toString());
+    }
+  }
+  
   public void testGeneratePathString() {
     TreePath tp = new TreePath(root.getPath());
     assertEquals("Path String for Root", "./", tree.generatePathString(tp));
@@ -40,6 +40,8 @@ import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import edu.rice.cs.util.UnexpectedException;
@@ -90,11 +92,43 @@ public abstract class AbstractMasterJVM implements MasterRemote {
     }
   }
   
+  /** The life cycle of a spare slave: STARTING until it is started and connected to this master, IDLE until it is
+    * claimed, CLAIMED until invokeSlave makes it the ACTIVE slave or releaseSpareSlave discards it, and DEAD once it
+    * has quit or has been discarded.
+    */
+  private enum SpareState { STARTING, IDLE, CLAIMED, ACTIVE, DEAD };
+  
+  /** A slave JVM started ahead of time, so that a later {@link #invokeSlave} need not wait for process startup and
+    * slave initialization.  The state and _slave fields are guarded by _spares. */
+  private class Spare implements Runnable1<Process> {
+    private final JVMBuilder _jvmBuilder;
+    private final Object _configuration;
+    private SpareState _state = SpareState.STARTING;
+    private SlaveRemote _slave = null;
+    public Spare(JVMBuilder jvmBuilder, Object configuration) {
+      _jvmBuilder = jvmBuilder;
+      _configuration = configuration;
+    }
+    /** Called when the spare's process exits.  Only an active spare is reported to the subclass. */
+    public void run(Process p) {
+      boolean active;
+      synchronized(_spares) {
+        active = (_state == SpareState.ACTIVE);
+        _state = SpareState.DEAD;
+        _spares.remove(this);
+      }
+      if (active) { _slaveQuit(p); }
+      else { debug.log("Spare remote JVM quit"); }
+    }
+  }
+  
   private final StateMonitor<State> _monitor;
   private final SlaveFactory _slaveFactory;
   private final LazyThunk<MasterRemote> _masterStub;
   /** The slave JVM remote stub (non-null when the state is RUNNING). */
   private volatile SlaveRemote _slave;
+  /** Spare slaves that are starting, idle, or claimed but not yet connected by invokeSlave. */
+  private final List<Spare> _spares = new ArrayList<Spare>();
   
   /** Set up the master JVM object.  Does not start a slave JVM.
    * @param slaveClassName The fully-qualified class name of the class to start up in the second JVM.  Must be a
@@ -141,30 +175,24 @@ public abstract class AbstractMasterJVM implements MasterRemote {
     */
   protected final void invokeSlave(JVMBuilder jvmBuilder) {
     transition(State.FRESH, State.STARTING);
-
-    // update jvmBuilder with any special properties
-    Map<String, String> props = ConcurrentUtil.getPropertiesAsMap("plt.", "drjava.", "edu.rice.cs.");
-    if (!props.containsKey("plt.log.working.dir") && // Set plt.log.working.dir, in case the working dir changes
-        (props.containsKey("plt.debug.log") || props.containsKey("plt.error.log") || 
-            props.containsKey("plt.log.factory"))) {
-      props.put("plt.log.working.dir", System.getProperty("user.dir", ""));
+    
+    SlaveRemote spare = _activateSpare(jvmBuilder);
+    if (spare != null) {
+      debug.log("Using spare remote JVM process");
+      handleSlaveConnected(spare);
+      _slave = spare;
+      _monitor.set(State.RUNNING);
+      return;
     }
-    // include props, but shadow them with any definitions in jvmBuilder
-    final JVMBuilder tweakedJVMBuilder = jvmBuilder.properties(CollectUtil.union(props, jvmBuilder.properties()));
+
+    final JVMBuilder tweakedJVMBuilder = _tweak(jvmBuilder);
 
     SlaveRemote newSlave = null;
     try {
       debug.logStart("invoking remote JVM process");
       newSlave =
         (SlaveRemote) ConcurrentUtil.exportInProcess(_slaveFactory, tweakedJVMBuilder, new Runnable1<Process>() {
-          public void run(Process p) {
-            debug.log("Remote JVM quit");
-            _monitor.set(State.FRESH);
-            //debug.log("Entered state " + State.FRESH);
-            debug.logStart("handleSlaveQuit");
-            handleSlaveQuit(p.exitValue());
-            debug.logEnd("handleSlaveQuit");
-          }
+          public void run(Process p) { _slaveQuit(p); }
         });
       debug.logEnd("invoking remote JVM process");
     }
@@ -194,6 +222,155 @@ public abstract class AbstractMasterJVM implements MasterRemote {
     }
   }
   
+  /** Updates jvmBuilder with the special properties of this JVM.
+    * @param jvmBuilder the builder to update
+    * @return a builder that also defines the plt, drjava and edu.rice.cs properties not defined in jvmBuilder
+    */
+  private static JVMBuilder _tweak(JVMBuilder jvmBuilder) {
+    Map<String, String> props = ConcurrentUtil.getPropertiesAsMap("plt.", "drjava.", "edu.rice.cs.");
+    if (!props.containsKey("plt.log.working.dir") && // Set plt.log.working.dir, in case the working dir changes
+        (props.containsKey("plt.debug.log") || props.containsKey("plt.error.log") || 
+            props.containsKey("plt.log.factory"))) {
+      props.put("plt.log.working.dir", System.getProperty("user.dir", ""));
+    }
+    // include props, but shadow them with any definitions in jvmBuilder
+    return jvmBuilder.properties(CollectUtil.union(props, jvmBuilder.properties()));
+  }
+  
+  /** Reacts to the exit of the active slave's process.
+    * @param p the process that exited
+    */
+  private void _slaveQuit(Process p) {
+    debug.log("Remote JVM quit");
+    _monitor.set(State.FRESH);
+    //debug.log("Entered state " + State.FRESH);
+    debug.logStart("handleSlaveQuit");
+    handleSlaveQuit(p.exitValue());
+    debug.logEnd("handleSlaveQuit");
+  }
+  
+  /** Starts a spare slave JVM in the background.  The spare is started and connected to this master just like a slave
+    * started by {@link #invokeSlave}, but {@link #handleSlaveConnected} is not called until it is claimed with
+    * {@link #claimSpareSlave} and passed to invokeSlave.  A spare that fails to start is silently discarded.
+    * @param jvmBuilder  JVMBuilder to use in starting the remote process.
+    * @param configuration  an object describing the configuration of the spare, compared with equals by 
+    *                       claimSpareSlave; it need not reflect properties of jvmBuilder that may differ between
+    *                       interchangeable slaves, such as a debug port
+    */
+  protected final void startSpareSlave(JVMBuilder jvmBuilder, Object configuration) {
+    if (isDisposed()) { return; }
+    final Spare spare = new Spare(_tweak(jvmBuilder), configuration);
+    synchronized(_spares) { _spares.add(spare); }
+    Thread t = new Thread("Start Spare Slave") {
+      public void run() {
+        SlaveRemote newSlave = null;
+        try {
+          debug.logStart("invoking spare remote JVM process");
+          newSlave = (SlaveRemote) ConcurrentUtil.exportInProcess(_slaveFactory, spare._jvmBuilder, spare);
+          newSlave.start(_masterStub.value());
+          debug.logEnd("invoking spare remote JVM process");
+        }
+        catch (Exception e) {
+          debug.log(e);
+          debug.logEnd("invoking spare remote JVM process (failed)");
+          if (newSlave != null) { attemptQuit(newSlave); }
+          synchronized(_spares) { spare._state = SpareState.DEAD; _spares.remove(spare); }
+          return;
+        }
+        synchronized(_spares) {
+          if (spare._state == SpareState.STARTING) {
+            spare._slave = newSlave;
+            spare._state = SpareState.IDLE;
+            return;
+          }
+        }
+        attemptQuit(newSlave);  // discarded while it was starting
+      }
+    };
+    t.setDaemon(true);
+    t.start();
+  }
+  
+  /** Reserves an idle spare slave whose configuration equals the given one.
+    * @param configuration the configuration to match, as passed to {@link #startSpareSlave}
+    * @return the JVMBuilder with which the spare was started, to be passed to {@link #invokeSlave}, or {@code null}
+    *         if there is no such spare
+    */
+  protected final JVMBuilder claimSpareSlave(Object configuration) {
+    synchronized(_spares) {
+      for (Spare spare : _spares) {
+        if (spare._state == SpareState.IDLE && spare._configuration.equals(configuration)) {
+          spare._state = SpareState.CLAIMED;
+          return spare._jvmBuilder;
+        }
+      }
+    }
+    return null;
+  }
+  
+  /** Quits the spare slaves whose configuration differs from the given one.  Claimed spares are kept, unless all 
+    * spares are quit.
+    * @param configuration the configuration of the spares to keep, or {@code null} to quit all spares
+    * @return the number of spares kept, including those that are still starting
+    */
+  protected final int retainSpareSlaves(Object configuration) {
+    List<SlaveRemote> toQuit = new ArrayList<SlaveRemote>();
+    int kept = 0;
+    synchronized(_spares) {
+      for (Spare spare : new ArrayList<Spare>(_spares)) {
+        if (spare._state == SpareState.CLAIMED && configuration != null) { continue; }
+        if (configuration != null && spare._configuration.equals(configuration)) { kept++; }
+        else {
+          if (spare._slave != null) { toQuit.add(spare._slave); }
+          spare._state = SpareState.DEAD;
+          _spares.remove(spare);
+        }
+      }
+    }
+    for (SlaveRemote slave : toQuit) { attemptQuit(slave); }
+    return kept;
+  }
+  
+  /** Quits the spare claimed with the given builder if invokeSlave has not made it the active slave.  A caller of
+    * {@link #claimSpareSlave} calls this in a finally block after invokeSlave, so that the spare does not stay claimed 
+    * forever if invokeSlave is not reached or fails before using it.
+    * @param jvmBuilder a builder returned by claimSpareSlave
+    */
+  protected final void releaseSpareSlave(JVMBuilder jvmBuilder) {
+    SlaveRemote toQuit = null;
+    synchronized(_spares) {
+      for (Spare spare : _spares) {
+        if (spare._jvmBuilder == jvmBuilder && spare._state == SpareState.CLAIMED) {
+          toQuit = spare._slave;
+          spare._state = SpareState.DEAD;
+          _spares.remove(spare);
+          break;
+        }
+      }
+    }
+    if (toQuit != null) {
+      debug.log("Quitting unused claimed spare remote JVM");
+      attemptQuit(toQuit);
+    }
+  }
+  
+  /** Makes the spare claimed with the given builder the active slave.
+    * @param jvmBuilder a builder returned by claimSpareSlave, or any other builder
+    * @return the spare's remote stub, or {@code null} if jvmBuilder does not belong to a live claimed spare
+    */
+  private SlaveRemote _activateSpare(JVMBuilder jvmBuilder) {
+    synchronized(_spares) {
+      for (Spare spare : _spares) {
+        if (spare._jvmBuilder == jvmBuilder && spare._state == SpareState.CLAIMED) {
+          spare._state = SpareState.ACTIVE;
+          _spares.remove(spare);
+          return spare._slave;
+        }
+      }
+    }
+    return null;
+  }
+  
   /** Quits slave JVM.  If a slave is not currently started and running, blocks until that state is reached.
     * @throws IllegalStateException  If this object has been disposed.
     */
@@ -219,6 +396,7 @@ public abstract class AbstractMasterJVM implements MasterRemote {
    */
   protected void dispose() {
     transition(State.FRESH, State.DISPOSED);
+    retainSpareSlaves(null);
     if (_masterStub.isResolved()) { 
       try { UnicastRemoteObject.unexportObject(this, true); }
       catch (NoSuchObjectException e) { error.log(e); }
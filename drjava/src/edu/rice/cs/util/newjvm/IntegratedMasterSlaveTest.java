@@ -73,6 +73,16 @@ public class IntegratedMasterSlaveTest extends DrJavaTestCase {
     for (int i = 0; i < 5; i++)  _testMaster.runImmediateQuitTest();
   }
   
+  // this test uses thread pools and starts a THRAD_EXECUTOR-n thread that we cannot join
+  public void testSpare_NOJOIN() throws Exception {
+    for (int i = 0; i < 2; i++) _testMaster.runSpareTest();
+  }
+  
+  // this test uses thread pools and starts a THRAD_EXECUTOR-n thread that we cannot join
+  public void testReleasedSpare_NOJOIN() throws Exception {
+    _testMaster.runReleasedSpareTest();
+  }
+  
   private static class TestMasterJVM extends AbstractMasterJVM implements TestMasterRemote {
     
     private static final int WAIT_TIMEOUT = 10000; 
@@ -115,13 +125,48 @@ public class IntegratedMasterSlaveTest extends DrJavaTestCase {
       // (All of the post-quit invariants are checked in handleSlaveQuit.
     }
     
-    public void runTestSequence() throws Exception {
+    public void runTestSequence() throws Exception { runTestSequence(JVMBuilder.DEFAULT); }
+    
+    /** Starts a spare slave, waits for it to become available, and runs the test sequence on it. 
+      * @throws Exception if something goes wrong
+      */
+    public void runSpareTest() throws Exception {
+      startSpareSlave(JVMBuilder.DEFAULT, "spare");
+      JVMBuilder spare = null;
+      for (int i = 0; i < WAIT_TIMEOUT / 100 && spare == null; i++) {
+        assertNull("configuration must match", claimSpareSlave("other"));
+        Thread.sleep(100);
+        spare = claimSpareSlave("spare");
+      }
+      assertNotNull("spare started", spare);
+      assertNull("spare can only be claimed once", claimSpareSlave("spare"));
+      runTestSequence(spare);
+    }
+    
+    /** Claims a spare slave and releases it without invoking it; the released spare can't be claimed again, and the 
+      * next invocation starts a new slave.
+      * @throws Exception if something goes wrong
+      */
+    public void runReleasedSpareTest() throws Exception {
+      startSpareSlave(JVMBuilder.DEFAULT, "spare");
+      JVMBuilder spare = null;
+      for (int i = 0; i < WAIT_TIMEOUT / 100 && spare == null; i++) {
+        Thread.sleep(100);
+        spare = claimSpareSlave("spare");
+      }
+      assertNotNull("spare started", spare);
+      releaseSpareSlave(spare);
+      assertEquals("released spare is discarded", 0, retainSpareSlaves("spare"));
+      runTestSequence(spare);
+    }
+    
+    public void runTestSequence(JVMBuilder jvmBuilder) throws Exception {
       _currentTest = "runTestSequence";
       _justQuit.reset();
       _slave = null;
       _letter = 'a';
       
-      invokeSlave(JVMBuilder.DEFAULT);           
+      invokeSlave(jvmBuilder);           
       _slave.startLetterTest();
       // now, wait until five getletter calls passed; after fifth call letter is 'f' due to the ++
       synchronized(_letterLock) { while (_letter != 'f') { _letterLock.wait(); } }
@@ -90,6 +90,9 @@ public class ConsoleDocument implements ConsoleDocumentInterface {
   /** The book object used for printing that represents several pages */
   protected volatile DrJavaBook _book;
   
+  /** The maximum length of this document, or 0 if unlimited.  Only enforced when text is inserted before the prompt. */
+  private volatile int _maxLength = 0;
+  
   /** Creates a new ConsoleDocument with the given embedded ConsoleDocumentInterface (a SwingDocument in native DrJava).
     * @param doc the embedded ConsoleDocumentInterface object
     */
@@ -139,6 +142,15 @@ public class ConsoleDocument implements ConsoleDocumentInterface {
     _promptPos = newPos; 
   }
   
+  /** @return the maximum length of this document, or 0 if unlimited. */
+  public int getMaxLength() { return _maxLength; }
+  
+  /** Bounds the length of this document.  Once text inserted before the prompt makes the document longer than 
+    * maxLength, the oldest lines are discarded; the prompt and the current input are never discarded.
+    * @param maxLength the maximum number of characters to retain, or 0 for no limit
+    */
+  public void setMaxLength(int maxLength) { _maxLength = Math.max(0, maxLength); }
+  
   /** Sets a runnable action to use as a beep.
     * @param beep Runnable beep command
     */
@@ -216,10 +228,35 @@ public class ConsoleDocument implements ConsoleDocumentInterface {
 //      System.err.println("_promptPos before update = " + _promptPos);
       _promptPos = _promptPos + text.length();
       forceInsertText(pos, text, style);
+      _trimToMaxLength();
     }
     catch (EditDocumentException ble) { throw new UnexpectedException(ble); }
   }
   
+  /** Discards the oldest lines of the document if it is longer than _maxLength.  An extra eighth of _maxLength is 
+    * discarded so that a stream of output does not trim the document on every insertion.  Only text before the prompt
+    * is discarded.  Only runs in event thread except for legacy test code.
+    */
+  private void _trimToMaxLength() throws EditDocumentException {
+    int maxLength = _maxLength;
+    if (maxLength <= 0) return;
+    int len = _document.getLength();
+    if (len <= maxLength) return;
+    
+    int limit = _getPositionBeforePrompt();
+    int end = Math.min(len - maxLength + maxLength / 8, limit);
+    if (end <= 0) return;
+    
+    // Extend the discarded text to the end of its last line, looking no further than the end of the discarded eighth
+    int window = Math.min(maxLength / 8, limit - end);
+    int newline = _document.getDocText(end, window).indexOf('\n');
+    if (newline >= 0) end += newline + 1;
+    
+    forceRemoveText(0, end);
+    _promptPos = _promptPos - end;
+    if (_document instanceof SwingDocument) ((SwingDocument)_document).discardColoring(end);
+  }
+  
   /** Inserts a string into the document at the given offset and named style, if the edit condition allows it.
     * @param offs Offset into the document
     * @param str String to be inserted
@@ -125,4 +125,29 @@ public class ConsoleDocumentTest extends DrJavaTestCase {
     _doc.setPromptPos(_doc.getLength());
     assertEquals("promptPos is character position at end of document", _doc.getLength(), _doc.getPromptPos());
   }
+  
+  /** Tests that output inserted before the prompt discards the oldest lines once the document exceeds its maximum
+    * length, leaving the prompt and the current input alone. 
+    * @throws EditDocumentException if an error occurs during editing
+    */
+  public void testMaxLength() throws EditDocumentException {
+    _doc.setPrompt("> ");
+    _doc.setHasPrompt(true);
+    _doc.insertPrompt();
+    _doc.insertText(_doc.getLength(), "input", null);
+    _doc.setMaxLength(40);
+    
+    for (int i = 0; i < 10; i++) _doc.insertBeforeLastPrompt("line " + i + "\n", ConsoleDocument.SYSTEM_OUT_STYLE);
+    
+    String text = _doc.getText();
+    assertTrue("document is bounded: " + text.length(), text.length() <= 40);
+    assertTrue("oldest lines are discarded", text.startsWith("line "));
+    assertTrue("newest line is retained", text.endsWith("line 9\n> input"));
+    assertEquals("current input is retained", "input", _doc.getCurrentInput());
+    assertEquals("prompt position is adjusted", text.length() - "input".length(), _doc.getPromptPos());
+    
+    _doc.setMaxLength(0);
+    for (int i = 0; i < 10; i++) _doc.insertBeforeLastPrompt("line " + i + "\n", ConsoleDocument.SYSTEM_OUT_STYLE);
+    assertEquals("no limit", text.length() + 70, _doc.getLength());
+  }
 }
@@ -97,6 +97,12 @@ public class SwingDocument extends DefaultStyledDocument implements EditDocument
    */
   public void addColoring(int start, int end, String style) { }
   
+  /** Discards the coloring styles of the first len characters, which have been removed from the front of the 
+   * document, and shifts the remaining styles accordingly.  Not supported in SwingDocument.  Only runs in event thread.
+   * @param len the number of characters removed from the front of the document
+   */
+  public void discardColoring(int len) { }
+  
   /** Gets the object which can determine whether an insert or remove edit should be applied, based on the inputs.
     * @return an Object to determine legality of inputs
     */
@@ -37,4 +37,6 @@ public class Options {
   public boolean prohibitBoxing() { return false; }
   /** Disallow unchecked casting conversion. */
   public boolean prohibitUncheckedCasts() { return true; }
+  /** Run loops as compiled bytecode where possible, rather than walking their trees on each iteration. */
+  public boolean compileLoops() { return false; }
 }
@@ -0,0 +1,1310 @@
+package edu.rice.cs.dynamicjava.interpreter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import edu.rice.cs.plt.lambda.WrappedException;
+import edu.rice.cs.plt.reflect.AbstractClassLoader;
+
+import koala.dynamicjava.tree.*;
+import koala.dynamicjava.tree.visitor.*;
+
+import edu.rice.cs.dynamicjava.Options;
+import edu.rice.cs.dynamicjava.symbol.ArrayLengthField;
+import edu.rice.cs.dynamicjava.symbol.DJField;
+import edu.rice.cs.dynamicjava.symbol.JavaClass;
+import edu.rice.cs.dynamicjava.symbol.LocalVariable;
+import edu.rice.cs.dynamicjava.symbol.TypeSystem;
+
+import static koala.dynamicjava.interpreter.NodeProperties.*;
+import static org.objectweb.asm.Opcodes.*;
+import static edu.rice.cs.plt.debug.DebugUtil.debug;
+
+/**
+ * Compiles loops to JVM bytecode, so that a loop entered at the interpreter runs as compiled code
+ * rather than re-walking its tree on every iteration.  The loop is assumed to have been processed
+ * by the {@link StatementChecker} without any errors.  Only a conservative subset of the language
+ * is supported: local variables, operators, arrays, and public members of classes that were not
+ * defined by the interpreter.  Anything else (labels, {@code return}, {@code try}, references to
+ * {@code this}, etc.) makes the loop uncompilable, and the {@link StatementEvaluator} walks the
+ * tree as usual.
+ *
+ * <p>Variables declared outside of the loop are copied into JVM locals on entry and copied back to
+ * the {@link RuntimeBindings} when the loop completes, normally or abruptly.  Around calls that might
+ * run interpreted code (which sees only the bindings), the copies are synchronized.</p>
+ */
+public class StatementCompiler {
+
+  /** Superclass of the generated classes.  (Public so that it is accessible to them.) */
+  public static abstract class CompiledStatement {
+    public abstract void run(Frame frame);
+  }
+
+  /**
+   * The values of the variables declared outside of a compiled statement.  (Public so that it is
+   * accessible to generated code.)
+   */
+  public static final class Frame {
+    private final RuntimeBindings _bindings;
+    private final LocalVariable[] _vars;
+    private final boolean[] _assigned;
+    private final Object[] _vals;
+
+    private Frame(RuntimeBindings bindings, LocalVariable[] vars, boolean[] assigned) {
+      _bindings = bindings;
+      _vars = vars;
+      _assigned = assigned;
+      _vals = new Object[vars.length];
+      load();
+    }
+
+    public Object get(int i) { return _vals[i]; }
+    public void set(int i, Object val) { _vals[i] = val; }
+
+    /** Copy the values of the variables assigned by the statement to the bindings. */
+    public void store() {
+      for (int i = 0; i < _vars.length; i++) {
+        if (_assigned[i]) { _bindings.set(_vars[i], _vals[i]); }
+      }
+    }
+
+    /** Read the values of all variables from the bindings. */
+    public void load() {
+      for (int i = 0; i < _vars.length; i++) { _vals[i] = _bindings.get(_vars[i]); }
+    }
+  }
+
+  /** Node property caching the result of {@link #compile}. */
+  private static final String COMPILED = "edu.rice.cs.dynamicjava.interpreter.compiledStatement";
+  private static final String CLASS_NAME_PREFIX = "edu.rice.cs.dynamicjava.interpreter.CompiledStatement";
+  private static final AtomicInteger CLASS_COUNTER = new AtomicInteger(0);
+
+  private static final String BASE_CLASS = Type.getInternalName(CompiledStatement.class);
+  private static final String FRAME_CLASS = Type.getInternalName(Frame.class);
+  private static final String BUILDER_CLASS = Type.getInternalName(StringBuilder.class);
+
+  private static final List<Class<?>> PRIMITIVES =
+    Arrays.<Class<?>>asList(boolean.class, char.class, byte.class, short.class, int.class, long.class,
+                            float.class, double.class);
+  private static final List<Class<?>> BOXES =
+    Arrays.<Class<?>>asList(Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+                            Float.class, Double.class);
+
+  /**
+   * Library classes whose methods never call back into arbitrary code, provided that their arguments
+   * are primitives, boxes, or strings.  Calls to anything else might run interpreted code.
+   */
+  private static final Set<Class<?>> SELF_CONTAINED_CLASSES = new HashSet<Class<?>>(BOXES);
+  static {
+    SELF_CONTAINED_CLASSES.addAll(Arrays.<Class<?>>asList(String.class, StringBuilder.class, StringBuffer.class,
+                                                          Math.class, StrictMath.class, System.class,
+                                                          Arrays.class));
+  }
+
+
+  /**
+   * Execute {@code node} as compiled code, compiling it on first use.  Returns {@code false}, having done
+   * nothing, if the statement can't be compiled (or refers to an uninitialized primitive variable); the
+   * caller should then evaluate it by walking the tree.
+   * @throws WrappedException  Wrapping an {@link EvaluatorException}, if the statement completes abruptly.
+   */
+  public static boolean run(Node node, RuntimeBindings bindings, Options opt) {
+    Compiled c;
+    synchronized (node) {
+      if (node.hasProperty(COMPILED)) { c = (Compiled) node.getProperty(COMPILED); }
+      else {
+        c = new StatementCompiler(opt).compile(node);
+        node.setProperty(COMPILED, c);
+      }
+    }
+    return c != null && c.run(bindings);
+  }
+
+  /** A generated statement, along with the outer variables it refers to. */
+  private static class Compiled {
+    private final CompiledStatement _statement;
+    private final LocalVariable[] _vars;
+    private final boolean[] _primitive;
+    private final boolean[] _assigned;
+    private final String _runMethod;
+
+    public Compiled(CompiledStatement statement, LocalVariable[] vars, boolean[] primitive, boolean[] assigned,
+                    String runMethod) {
+      _statement = statement;
+      _vars = vars;
+      _primitive = primitive;
+      _assigned = assigned;
+      _runMethod = runMethod;
+    }
+
+    public boolean run(RuntimeBindings bindings) {
+      Frame frame = new Frame(bindings, _vars, _assigned);
+      for (int i = 0; i < _vars.length; i++) {
+        if (_primitive[i] && frame.get(i) == null) { return false; }
+      }
+      try { _statement.run(frame); }
+      catch (Throwable t) {
+        frame.store();
+        throw new WrappedException(new EvaluatorException(t, _runMethod));
+      }
+      frame.store();
+      return true;
+    }
+  }
+
+  /** Thrown during code generation when a construct is not supported. */
+  private static class UnsupportedException extends RuntimeException {
+    public UnsupportedException(Object what) { super("Can't compile " + what); }
+  }
+
+  /** Loads a generated class, resolving the classes it refers to exactly as the interpreter resolved them. */
+  private static class CompiledStatementLoader extends AbstractClassLoader {
+    private final Map<String, Class<?>> _classes;
+
+    public CompiledStatementLoader(Map<String, Class<?>> classes) {
+      super(StatementCompiler.class.getClassLoader());
+      _classes = classes;
+    }
+
+    @Override protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      Class<?> result = _classes.get(name);
+      return (result == null) ? super.loadClass(name, resolve) : result;
+    }
+
+    public Class<?> define(String name, byte[] bytes) {
+      definePackageForClass(name);
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+
+  private final TypeSystem _ts;
+  /** Variables declared outside of the statement, in order of their indices in the Frame. */
+  private final List<LocalVariable> _outer;
+  /** Outer variables that are assigned by the statement. */
+  private final Set<LocalVariable> _assigned;
+  private final Map<LocalVariable, Integer> _slots;
+  private final Map<LocalVariable, Class<?>> _slotTypes;
+  /** Classes referred to by the generated code, which must be resolved by name when it is loaded. */
+  private final Map<String, Class<?>> _classes;
+  private final LinkedList<Label> _breakTargets;
+  private final LinkedList<Label> _continueTargets;
+  private MethodVisitor _mv;
+  private int _nextSlot;
+  private boolean _finalPass;
+
+  private StatementCompiler(Options opt) {
+    _ts = opt.typeSystem();
+    _outer = new LinkedList<LocalVariable>();
+    _assigned = new HashSet<LocalVariable>();
+    _slots = new HashMap<LocalVariable, Integer>();
+    _slotTypes = new HashMap<LocalVariable, Class<?>>();
+    _classes = new HashMap<String, Class<?>>();
+    _breakTargets = new LinkedList<Label>();
+    _continueTargets = new LinkedList<Label>();
+  }
+
+  /**
+   * Generate and load a class for the given statement, or return {@code null} if that is not possible.
+   * The code is generated twice: the first pass (which discards its output) discovers the outer variables
+   * that need to be loaded in the prologue and synchronized around calls.
+   */
+  private Compiled compile(Node node) {
+    try {
+      _mv = new MethodVisitor(ASM5) {};
+      generate(node);
+      _finalPass = true;
+      String name = CLASS_NAME_PREFIX + CLASS_COUNTER.incrementAndGet();
+      byte[] bytes = bytecode(node, name.replace('.', '/'));
+      Class<?> c = new CompiledStatementLoader(_classes).define(name, bytes);
+      CompiledStatement statement = (CompiledStatement) c.getConstructor().newInstance();
+
+      LocalVariable[] vars = _outer.toArray(new LocalVariable[_outer.size()]);
+      boolean[] primitive = new boolean[vars.length];
+      boolean[] assigned = new boolean[vars.length];
+      for (int i = 0; i < vars.length; i++) {
+        primitive[i] = _slotTypes.get(vars[i]).isPrimitive();
+        assigned[i] = _assigned.contains(vars[i]);
+      }
+      return new Compiled(statement, vars, primitive, assigned, name + ".run");
+    }
+    catch (UnsupportedException e) { debug.log(e.getMessage()); return null; }
+    catch (RuntimeException e) { debug.log(e); return null; }
+    catch (LinkageError e) { debug.log(e); return null; }
+    catch (ReflectiveOperationException e) { debug.log(e); return null; }
+  }
+
+  private byte[] bytecode(Node node, String internalName) {
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, internalName, null, BASE_CLASS, null);
+
+    MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+    init.visitCode();
+    init.visitVarInsn(ALOAD, 0);
+    init.visitMethodInsn(INVOKESPECIAL, BASE_CLASS, "<init>", "()V", false);
+    init.visitInsn(RETURN);
+    init.visitMaxs(0, 0);
+    init.visitEnd();
+
+    _mv = cw.visitMethod(ACC_PUBLIC, "run", "(L" + FRAME_CLASS + ";)V", null, null);
+    _mv.visitCode();
+    generate(node);
+    _mv.visitMaxs(0, 0);
+    _mv.visitEnd();
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  /** Generate the body of the {@code run} method.  Slot 1 holds the Frame. */
+  private void generate(Node node) {
+    _slots.clear();
+    _slotTypes.clear();
+    _classes.clear();
+    _nextSlot = 2;
+    for (LocalVariable v : _outer) { declare(v, _ts.erasedClass(v.type()).value()); }
+
+    Label start = new Label();
+    Label end = new Label();
+    Label handler = new Label();
+    _mv.visitTryCatchBlock(start, end, handler, null);
+    loadOuter();
+    _mv.visitLabel(start);
+    _mv.visitInsn(NOP); // guarantees that the protected range is not empty
+    node.acceptVisitor(new StatementGenerator());
+    _mv.visitLabel(end);
+    storeAssigned();
+    _mv.visitInsn(RETURN);
+    _mv.visitLabel(handler);
+    storeAssigned();
+    _mv.visitInsn(ATHROW);
+    Label scopeEnd = new Label();
+    _mv.visitLabel(scopeEnd);
+    // name the slots, so the JVM's messages (such as helpful NullPointerExceptions) refer to the user's variables
+    for (Map.Entry<LocalVariable, Integer> e : _slots.entrySet()) {
+      String descriptor = Type.getDescriptor(_slotTypes.get(e.getKey()));
+      _mv.visitLocalVariable(e.getKey().declaredName(), descriptor, null, start, scopeEnd, e.getValue());
+    }
+  }
+
+
+  /* * * * * * * * * *
+   * LOCAL VARIABLES
+   * * * * * * * * * */
+
+  /** Allocate a slot for {@code v}, returning the class used to store it. */
+  private Class<?> declare(LocalVariable v, Class<?> c) {
+    Class<?> result = storageClass(c);
+    _slots.put(v, _nextSlot);
+    _slotTypes.put(v, result);
+    _nextSlot += Type.getType(result).getSize();
+    return result;
+  }
+
+  /** Allocate an anonymous slot. */
+  private int temporary(Class<?> c) {
+    int result = _nextSlot;
+    _nextSlot += Type.getType(c).getSize();
+    return result;
+  }
+
+  /** The class used to store {@code v}; if it has not been declared, it is an outer variable. */
+  private Class<?> localType(LocalVariable v) {
+    Class<?> result = _slotTypes.get(v);
+    if (result == null) {
+      if (_finalPass) { throw new UnsupportedException(v); } // should have been discovered by the first pass
+      _outer.add(v);
+      result = declare(v, _ts.erasedClass(v.type()).value());
+    }
+    return result;
+  }
+
+  private Class<?> load(LocalVariable v) {
+    Class<?> t = localType(v);
+    _mv.visitVarInsn(Type.getType(t).getOpcode(ILOAD), _slots.get(v));
+    return t;
+  }
+
+  private void store(LocalVariable v) {
+    Class<?> t = localType(v);
+    if (_outer.contains(v)) { _assigned.add(v); }
+    _mv.visitVarInsn(Type.getType(t).getOpcode(ISTORE), _slots.get(v));
+  }
+
+  /** Copy the outer variables from the Frame to their slots. */
+  private void loadOuter() {
+    int i = 0;
+    for (LocalVariable v : _outer) {
+      Class<?> t = _slotTypes.get(v);
+      _mv.visitVarInsn(ALOAD, 1);
+      pushInt(i++);
+      _mv.visitMethodInsn(INVOKEVIRTUAL, FRAME_CLASS, "get", "(I)Ljava/lang/Object;", false);
+      coerce(Object.class, t);
+      _mv.visitVarInsn(Type.getType(t).getOpcode(ISTORE), _slots.get(v));
+    }
+  }
+
+  /** Copy the outer variables that are assigned by the statement from their slots to the Frame. */
+  private void storeAssigned() {
+    int i = 0;
+    for (LocalVariable v : _outer) {
+      if (_assigned.contains(v)) {
+        _mv.visitVarInsn(ALOAD, 1);
+        pushInt(i);
+        coerce(load(v), Object.class);
+        _mv.visitMethodInsn(INVOKEVIRTUAL, FRAME_CLASS, "set", "(ILjava/lang/Object;)V", false);
+      }
+      i++;
+    }
+  }
+
+  /** Make the bindings current before a call that might run interpreted code. */
+  private void beforeCall() {
+    if (!_assigned.isEmpty()) {
+      storeAssigned();
+      _mv.visitVarInsn(ALOAD, 1);
+      _mv.visitMethodInsn(INVOKEVIRTUAL, FRAME_CLASS, "store", "()V", false);
+    }
+  }
+
+  /** Pick up any changes to the bindings after a call that might have run interpreted code. */
+  private void afterCall() {
+    if (!_outer.isEmpty()) {
+      _mv.visitVarInsn(ALOAD, 1);
+      _mv.visitMethodInsn(INVOKEVIRTUAL, FRAME_CLASS, "load", "()V", false);
+      loadOuter();
+    }
+  }
+
+
+  /* * * * * * * * * *
+   * CLASSES
+   * * * * * * * * * */
+
+  /**
+   * Whether generated code may refer to {@code c} by name: it must be public, and must not have
+   * been defined by the interpreter (those classes evaluate their bodies with access to the bindings).
+   */
+  private static boolean isAccessible(Class<?> c) {
+    while (c.isArray()) { c = c.getComponentType(); }
+    if (c.isPrimitive()) { return true; }
+    for (Class<?> outer = c; outer != null; outer = outer.getEnclosingClass()) {
+      if (!Modifier.isPublic(outer.getModifiers())) { return false; }
+    }
+    return !(c.getClassLoader() instanceof TreeClassLoader);
+  }
+
+  /** The most specific accessible class that can hold values of {@code c}. */
+  private static Class<?> storageClass(Class<?> c) {
+    if (isAccessible(c)) { return c; }
+    else if (c.isArray() || c.isInterface()) { return Object.class; }
+    else {
+      Class<?> result = c.getSuperclass();
+      while (!isAccessible(result)) { result = result.getSuperclass(); }
+      return result;
+    }
+  }
+
+  /** Note that the generated code refers to {@code c} (in a descriptor, for example). */
+  private void mention(Class<?> c) {
+    while (c.isArray()) { c = c.getComponentType(); }
+    if (!c.isPrimitive()) { _classes.put(c.getName(), c); }
+  }
+
+  /** Note that the generated code refers to {@code c}, which must be accessible. */
+  private void require(Class<?> c) {
+    if (!isAccessible(c)) { throw new UnsupportedException(c); }
+    mention(c);
+  }
+
+  /** Require that {@code c} and its member with the given modifiers are accessible. */
+  private void requireMember(Class<?> c, int modifiers) {
+    if (!Modifier.isPublic(modifiers)) { throw new UnsupportedException(c); }
+    require(c);
+  }
+
+  /** Whether a value of the given type can't cause a call to arbitrary code (such as toString). */
+  private static boolean isSelfContained(Class<?> c) {
+    while (c.isArray()) { c = c.getComponentType(); }
+    return c.isPrimitive() || c.equals(String.class) || BOXES.contains(c);
+  }
+
+  /** Whether a call to the given member might run interpreted code. */
+  private static boolean mayCallOut(Class<?> owner, Class<?>[] params) {
+    if (!SELF_CONTAINED_CLASSES.contains(owner)) { return true; }
+    for (Class<?> c : params) {
+      if (!isSelfContained(c)) { return true; }
+    }
+    return false;
+  }
+
+  private static Class<?> boxClass(Class<?> primitive) { return BOXES.get(PRIMITIVES.indexOf(primitive)); }
+
+  /** The primitive type corresponding to a box class, or {@code null}. */
+  private static Class<?> unboxedClass(Class<?> c) {
+    int i = BOXES.indexOf(c);
+    return (i < 0) ? null : PRIMITIVES.get(i);
+  }
+
+
+  /* * * * * * * * * *
+   * CONVERSIONS
+   * * * * * * * * * */
+
+  /** Convert the value on the stack from {@code from} to {@code to}.  Returns {@code to}. */
+  private Class<?> coerce(Class<?> from, Class<?> to) {
+    if (from.equals(to)) { return to; }
+    if (from.equals(void.class) || to.equals(void.class)) { throw new UnsupportedException("void"); }
+    if (from.isPrimitive()) {
+      if (to.isPrimitive()) { convert(from, to); }
+      else {
+        Class<?> unboxed = unboxedClass(to);
+        if (unboxed == null) {
+          box(from);
+          castReference(boxClass(from), to);
+        }
+        else {
+          convert(from, unboxed);
+          box(unboxed);
+        }
+      }
+    }
+    else if (to.isPrimitive()) {
+      Class<?> unboxed = unboxedClass(from);
+      if (unboxed == null) {
+        unboxed = to;
+        castReference(from, boxClass(to));
+      }
+      _mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(boxClass(unboxed)), unboxed.getName() + "Value",
+                         "()" + Type.getDescriptor(unboxed), false);
+      convert(unboxed, to);
+    }
+    else { castReference(from, to); }
+    return to;
+  }
+
+  private void castReference(Class<?> from, Class<?> to) {
+    if (!to.isAssignableFrom(from)) {
+      require(to);
+      _mv.visitTypeInsn(CHECKCAST, Type.getInternalName(to));
+    }
+  }
+
+  private void box(Class<?> primitive) {
+    String box = Type.getInternalName(boxClass(primitive));
+    _mv.visitMethodInsn(INVOKESTATIC, box, "valueOf", "(" + Type.getDescriptor(primitive) + ")L" + box + ";",
+                       false);
+  }
+
+  /** Primitive widening and narrowing conversions. */
+  private void convert(Class<?> from, Class<?> to) {
+    if (from.equals(to)) { return; }
+    if (from.equals(boolean.class) || to.equals(boolean.class)) { throw new UnsupportedException(from); }
+    int fromSort = Type.getType(from).getSort();
+    boolean fromInt = fromSort != Type.LONG && fromSort != Type.FLOAT && fromSort != Type.DOUBLE;
+    if (to.equals(long.class)) { _mv.visitInsn(fromInt ? I2L : (fromSort == Type.FLOAT) ? F2L : D2L); }
+    else if (to.equals(float.class)) { _mv.visitInsn(fromInt ? I2F : (fromSort == Type.LONG) ? L2F : D2F); }
+    else if (to.equals(double.class)) { _mv.visitInsn(fromInt ? I2D : (fromSort == Type.LONG) ? L2D : F2D); }
+    else {
+      if (!fromInt) { _mv.visitInsn((fromSort == Type.LONG) ? L2I : (fromSort == Type.FLOAT) ? F2I : D2I); }
+      if (to.equals(byte.class) && !from.equals(byte.class)) { _mv.visitInsn(I2B); }
+      else if (to.equals(short.class) && !from.equals(byte.class) && !from.equals(short.class)) { _mv.visitInsn(I2S); }
+      else if (to.equals(char.class)) { _mv.visitInsn(I2C); }
+    }
+  }
+
+  /** The type of the given expression according to the type checker. */
+  private Class<?> staticClass(Expression exp) { return _ts.erasedClass(getType(exp)).value(); }
+
+
+  /* * * * * * * * * *
+   * STACK MANIPULATION
+   * * * * * * * * * */
+
+  private void pushInt(int i) {
+    if (i >= -1 && i <= 5) { _mv.visitInsn(ICONST_0 + i); }
+    else if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) { _mv.visitIntInsn(BIPUSH, i); }
+    else if (i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) { _mv.visitIntInsn(SIPUSH, i); }
+    else { _mv.visitLdcInsn(i); }
+  }
+
+  /** Push a constant value, returning its (unboxed) class. */
+  private Class<?> constant(Object val) {
+    if (val == null) { _mv.visitInsn(ACONST_NULL); return Object.class; }
+    else if (val instanceof String) { _mv.visitLdcInsn(val); return String.class; }
+    else if (val instanceof Boolean) { pushInt(((Boolean) val) ? 1 : 0); return boolean.class; }
+    else if (val instanceof Character) { pushInt((Character) val); return char.class; }
+    else if (val instanceof Byte || val instanceof Short || val instanceof Integer) {
+      pushInt(((Number) val).intValue());
+      return unboxedClass(val.getClass());
+    }
+    else if (val instanceof Long || val instanceof Float || val instanceof Double) {
+      _mv.visitLdcInsn(val);
+      return unboxedClass(val.getClass());
+    }
+    else { throw new UnsupportedException(val.getClass()); }
+  }
+
+  private void pushDefault(Class<?> c) {
+    if (!c.isPrimitive()) { _mv.visitInsn(ACONST_NULL); }
+    else if (c.equals(long.class)) { _mv.visitInsn(LCONST_0); }
+    else if (c.equals(float.class)) { _mv.visitInsn(FCONST_0); }
+    else if (c.equals(double.class)) { _mv.visitInsn(DCONST_0); }
+    else { _mv.visitInsn(ICONST_0); }
+  }
+
+  private void pushOne(Class<?> c) {
+    if (c.equals(long.class)) { _mv.visitInsn(LCONST_1); }
+    else if (c.equals(float.class)) { _mv.visitInsn(FCONST_1); }
+    else if (c.equals(double.class)) { _mv.visitInsn(DCONST_1); }
+    else { _mv.visitInsn(ICONST_1); }
+  }
+
+  private void pop(Class<?> c) {
+    if (!c.equals(void.class)) { _mv.visitInsn((Type.getType(c).getSize() == 2) ? POP2 : POP); }
+  }
+
+  /** Duplicate the top value, inserting it {@code depth} words down (0, 1, or 2). */
+  private void dup(Class<?> c, int depth) {
+    boolean wide = Type.getType(c).getSize() == 2;
+    switch (depth) {
+      case 0: _mv.visitInsn(wide ? DUP2 : DUP); break;
+      case 1: _mv.visitInsn(wide ? DUP2_X1 : DUP_X1); break;
+      default: _mv.visitInsn(wide ? DUP2_X2 : DUP_X2); break;
+    }
+  }
+
+  private void newArray(Class<?> component) {
+    if (component.isPrimitive()) {
+      int type;
+      switch (Type.getType(component).getSort()) {
+        case Type.BOOLEAN: type = T_BOOLEAN; break;
+        case Type.CHAR: type = T_CHAR; break;
+        case Type.BYTE: type = T_BYTE; break;
+        case Type.SHORT: type = T_SHORT; break;
+        case Type.INT: type = T_INT; break;
+        case Type.LONG: type = T_LONG; break;
+        case Type.FLOAT: type = T_FLOAT; break;
+        default: type = T_DOUBLE; break;
+      }
+      _mv.visitIntInsn(NEWARRAY, type);
+    }
+    else {
+      require(component);
+      _mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(component));
+    }
+  }
+
+
+  /* * * * * * * * * *
+   * EXPRESSIONS
+   * * * * * * * * * */
+
+  /**
+   * Push the value of the given expression, returning its class.  Mirrors {@link ExpressionEvaluator#value}:
+   * constants, translations, and conversions recorded by the type checker take precedence.
+   */
+  private Class<?> value(Node n) {
+    Class<?> result;
+    if (hasValue(n)) { result = constant(getValue(n)); }
+    else if (hasTranslation(n)) { result = value(getTranslation(n)); }
+    else { result = n.acceptVisitor(new ExpressionGenerator()); }
+    if (hasConvertedType(n)) { result = coerce(result, getConvertedType(n).value()); }
+    if (hasCheckedType(n)) { result = coerce(result, getCheckedType(n).value()); }
+    return result;
+  }
+
+  /** Push the value of an array-typed expression, returning its class. */
+  private Class<?> arrayValue(Expression exp) {
+    Class<?> result = value(exp);
+    if (!result.isArray()) { result = coerce(result, staticClass(exp)); }
+    if (!result.isArray()) { throw new UnsupportedException(exp); }
+    return result;
+  }
+
+  /** Strip away any translations of an assignment target. */
+  private Expression resolve(Expression exp) {
+    while (hasTranslation(exp)) { exp = getTranslation(exp); }
+    return exp;
+  }
+
+  /** The local variable assigned by a compound assignment, increment, or decrement. */
+  private LocalVariable assignedVariable(Expression exp) {
+    exp = resolve(exp);
+    if (!(exp instanceof VariableAccess)) { throw new UnsupportedException(exp); }
+    return getVariable(exp);
+  }
+
+  /** Jump to {@code target} if {@code cond} evaluates to {@code jumpIf}. */
+  private void branch(Expression cond, boolean jumpIf, Label target) {
+    if (hasValue(cond)) {
+      if (getValue(cond).equals(jumpIf)) { _mv.visitJumpInsn(GOTO, target); }
+    }
+    else if (hasTranslation(cond) || hasConvertedType(cond) || hasCheckedType(cond) ||
+             !structuredBranch(cond, jumpIf, target)) {
+      coerce(value(cond), boolean.class);
+      _mv.visitJumpInsn(jumpIf ? IFNE : IFEQ, target);
+    }
+  }
+
+  /**
+   * Handle a boolean operator or comparison by branching directly, rather than pushing an intermediate
+   * value.  Returns {@code false}, having generated nothing, if {@code cond} is not such an expression.
+   */
+  private boolean structuredBranch(Expression cond, boolean jumpIf, Label target) {
+    if (cond instanceof NotExpression) {
+      branch(((NotExpression) cond).getExpression(), !jumpIf, target);
+    }
+    else if (cond instanceof AndExpression || cond instanceof OrExpression) {
+      BinaryExpression bin = (BinaryExpression) cond;
+      boolean shortCircuit = (cond instanceof OrExpression); // value of the left side that decides the result
+      if (jumpIf == shortCircuit) {
+        branch(bin.getLeftExpression(), jumpIf, target);
+        branch(bin.getRightExpression(), jumpIf, target);
+      }
+      else {
+        Label skip = new Label();
+        branch(bin.getLeftExpression(), shortCircuit, skip);
+        branch(bin.getRightExpression(), jumpIf, target);
+        _mv.visitLabel(skip);
+      }
+    }
+    else if (cond instanceof LessExpression) { compare((BinaryExpression) cond, IFLT, jumpIf, target); }
+    else if (cond instanceof LessOrEqualExpression) { compare((BinaryExpression) cond, IFLE, jumpIf, target); }
+    else if (cond instanceof GreaterExpression) { compare((BinaryExpression) cond, IFGT, jumpIf, target); }
+    else if (cond instanceof GreaterOrEqualExpression) { compare((BinaryExpression) cond, IFGE, jumpIf, target); }
+    else if (cond instanceof EqualExpression) { compare((BinaryExpression) cond, IFEQ, jumpIf, target); }
+    else if (cond instanceof NotEqualExpression) { compare((BinaryExpression) cond, IFNE, jumpIf, target); }
+    else { return false; }
+    return true;
+  }
+
+  /**
+   * Compare the operands of {@code node} and jump if the result of comparison {@code op} (one of IFEQ,
+   * IFNE, IFLT, IFGE, IFGT, IFLE) is {@code jumpIf}.
+   */
+  private void compare(BinaryExpression node, int op, boolean jumpIf, Label target) {
+    // IFEQ/IFNE, IFLT/IFGE, and IFGT/IFLE are adjacent pairs, so flipping the low bit negates the test
+    int jump = jumpIf ? op : (((op - IFEQ) ^ 1) + IFEQ);
+    Expression left = node.getLeftExpression();
+    Expression right = node.getRightExpression();
+    if (hasOperation(node) && (getOperation(node) == ExpressionEvaluator.OBJECT_EQUAL ||
+                               getOperation(node) == ExpressionEvaluator.OBJECT_NOT_EQUAL)) {
+      coerce(value(left), Object.class);
+      coerce(value(right), Object.class);
+      _mv.visitJumpInsn(jump - IFEQ + IF_ACMPEQ, target);
+      return;
+    }
+    Class<?> t = staticClass(left);
+    if (!t.isPrimitive()) { throw new UnsupportedException(node); }
+    coerce(value(left), t);
+    coerce(value(right), t);
+    // a NaN operand must make the comparison false: fcmpg/dcmpg produce 1, fcmpl/dcmpl produce -1
+    boolean nanIsGreater = (op == IFLT || op == IFLE);
+    if (t.equals(long.class)) { _mv.visitInsn(LCMP); _mv.visitJumpInsn(jump, target); }
+    else if (t.equals(float.class)) { _mv.visitInsn(nanIsGreater ? FCMPG : FCMPL); _mv.visitJumpInsn(jump, target); }
+    else if (t.equals(double.class)) { _mv.visitInsn(nanIsGreater ? DCMPG : DCMPL); _mv.visitJumpInsn(jump, target); }
+    else { _mv.visitJumpInsn(jump - IFEQ + IF_ICMPEQ, target); }
+  }
+
+  /** Evaluate a boolean operator or comparison to a value. */
+  private Class<?> condition(Expression node) {
+    Label isTrue = new Label();
+    Label end = new Label();
+    structuredBranch(node, true, isTrue);
+    _mv.visitInsn(ICONST_0);
+    _mv.visitJumpInsn(GOTO, end);
+    _mv.visitLabel(isTrue);
+    _mv.visitInsn(ICONST_1);
+    _mv.visitLabel(end);
+    return boolean.class;
+  }
+
+  /** Apply a primitive operation (given as its int opcode) to the operands of {@code node}. */
+  private Class<?> arithmetic(BinaryExpression node, int opcode) {
+    Class<?> t = staticClass(node);
+    if (!t.isPrimitive()) { throw new UnsupportedException(node); }
+    coerce(value(node.getLeftExpression()), t);
+    coerce(value(node.getRightExpression()), t);
+    _mv.visitInsn(Type.getType(t).getOpcode(opcode));
+    return t;
+  }
+
+  private Class<?> shift(BinaryExpression node, int opcode) {
+    Class<?> t = staticClass(node);
+    if (!t.isPrimitive()) { throw new UnsupportedException(node); }
+    coerce(value(node.getLeftExpression()), t);
+    coerce(value(node.getRightExpression()), int.class); // only the low bits of a long distance matter
+    _mv.visitInsn(Type.getType(t).getOpcode(opcode));
+    return t;
+  }
+
+  /** Concatenate the string values of {@code left} and {@code right}. */
+  private Class<?> concatenate(Expression left, Expression right) {
+    _mv.visitTypeInsn(NEW, BUILDER_CLASS);
+    _mv.visitInsn(DUP);
+    _mv.visitMethodInsn(INVOKESPECIAL, BUILDER_CLASS, "<init>", "()V", false);
+    append(left);
+    append(right);
+    _mv.visitMethodInsn(INVOKEVIRTUAL, BUILDER_CLASS, "toString", "()Ljava/lang/String;", false);
+    return String.class;
+  }
+
+  /** Append the string value of {@code exp} to the StringBuilder on the stack. */
+  private void append(Expression exp) {
+    if (exp instanceof AddExpression && hasOperation(exp) && getOperation(exp) == ExpressionEvaluator.CONCATENATE &&
+        !hasValue(exp) && !hasTranslation(exp) && !hasConvertedType(exp) && !hasCheckedType(exp)) {
+      // flatten nested concatenations into a single builder
+      append(((AddExpression) exp).getLeftExpression());
+      append(((AddExpression) exp).getRightExpression());
+    }
+    else {
+      Class<?> t = value(exp);
+      if (t.isPrimitive()) { coerce(t, Object.class); }
+      boolean callOut = !isSelfContained(t);
+      if (callOut) { beforeCall(); }
+      _mv.visitMethodInsn(INVOKESTATIC, "java/lang/String", "valueOf", "(Ljava/lang/Object;)Ljava/lang/String;",
+                         false);
+      if (callOut) { afterCall(); }
+      _mv.visitMethodInsn(INVOKEVIRTUAL, BUILDER_CLASS, "append", "(Ljava/lang/String;)L" + BUILDER_CLASS + ";",
+                         false);
+    }
+  }
+
+  /** Push the arguments and invoke the given method or constructor. */
+  private void invoke(int opcode, Class<?> owner, String name, String descriptor, Class<?>[] params,
+                      List<? extends Expression> args) {
+    int count = (args == null) ? 0 : args.size();
+    if (count != params.length) { throw new UnsupportedException(name); }
+    for (int i = 0; i < count; i++) {
+      coerce(value(args.get(i)), params[i]);
+      mention(params[i]);
+    }
+    boolean callOut = mayCallOut(owner, params);
+    if (callOut) { beforeCall(); }
+    _mv.visitMethodInsn(opcode, Type.getInternalName(owner), name, descriptor, owner.isInterface());
+    if (callOut) { afterCall(); }
+  }
+
+  private Class<?> invokeStatic(MethodCall node) {
+    Method m = JavaClass.reflectedMethod(getMethod(node));
+    if (m == null || !Modifier.isStatic(m.getModifiers()) || m.getDeclaringClass().isInterface()) {
+      throw new UnsupportedException(node);
+    }
+    requireMember(m.getDeclaringClass(), m.getModifiers());
+    mention(m.getReturnType());
+    invoke(INVOKESTATIC, m.getDeclaringClass(), m.getName(), Type.getMethodDescriptor(m), m.getParameterTypes(),
+           node.getArguments());
+    return m.getReturnType();
+  }
+
+  private Class<?> staticField(DJField f) {
+    Field rf = JavaClass.reflectedField(f);
+    if (rf == null || !Modifier.isStatic(rf.getModifiers())) { throw new UnsupportedException(f); }
+    requireMember(rf.getDeclaringClass(), rf.getModifiers());
+    mention(rf.getType());
+    _mv.visitFieldInsn(GETSTATIC, Type.getInternalName(rf.getDeclaringClass()), rf.getName(),
+                       Type.getDescriptor(rf.getType()));
+    return rf.getType();
+  }
+
+  /** Assign the value of {@code rhs} to the field or array element {@code lhs}, leaving the value on the stack. */
+  private Class<?> assignMember(Expression lhs, Expression rhs) {
+    if (lhs instanceof ArrayAccess) {
+      Class<?> component = arrayValue(((ArrayAccess) lhs).getExpression()).getComponentType();
+      coerce(value(((ArrayAccess) lhs).getCellNumber()), int.class);
+      coerce(value(rhs), component);
+      dup(component, 2);
+      _mv.visitInsn(Type.getType(component).getOpcode(IASTORE));
+      return component;
+    }
+    else if (lhs instanceof FieldAccess && !hasDJClass(lhs)) {
+      Field rf = JavaClass.reflectedField(getField(lhs));
+      if (rf == null || Modifier.isFinal(rf.getModifiers())) { throw new UnsupportedException(lhs); }
+      Class<?> owner = rf.getDeclaringClass();
+      requireMember(owner, rf.getModifiers());
+      mention(rf.getType());
+      String name = Type.getInternalName(owner);
+      String desc = Type.getDescriptor(rf.getType());
+      if (Modifier.isStatic(rf.getModifiers())) {
+        coerce(value(rhs), rf.getType());
+        dup(rf.getType(), 0);
+        _mv.visitFieldInsn(PUTSTATIC, name, rf.getName(), desc);
+      }
+      else if (lhs instanceof ObjectFieldAccess) {
+        coerce(value(((ObjectFieldAccess) lhs).getExpression()), owner);
+        coerce(value(rhs), rf.getType());
+        dup(rf.getType(), 1);
+        _mv.visitFieldInsn(PUTFIELD, name, rf.getName(), desc);
+      }
+      else { throw new UnsupportedException(lhs); }
+      return rf.getType();
+    }
+    else { throw new UnsupportedException(lhs); }
+  }
+
+  /** Apply the given operation to a local variable and assign the result (converted back to its type). */
+  private Class<?> assignOperation(AssignExpression node, int opcode, boolean isShift) {
+    LocalVariable v = assignedVariable(node.getLeftExpression());
+    Class<?> vt = localType(v);
+    Class<?> t;
+    if (hasOperation(node) && getOperation(node) == ExpressionEvaluator.CONCATENATE) {
+      t = concatenate(getLeftExpression(node), node.getRightExpression());
+    }
+    else {
+      Expression left = getLeftExpression(node); // the variable's value, promoted
+      t = staticClass(left);
+      if (!t.isPrimitive()) { throw new UnsupportedException(node); }
+      coerce(value(left), t);
+      coerce(value(node.getRightExpression()), isShift ? int.class : t);
+      _mv.visitInsn(Type.getType(t).getOpcode(opcode));
+    }
+    coerce(t, vt);
+    dup(vt, 0);
+    store(v);
+    return vt;
+  }
+
+  private Class<?> increment(UnaryExpression node, boolean increment, boolean prefix) {
+    LocalVariable v = assignedVariable(node.getExpression());
+    Class<?> vt = localType(v);
+    Expression exp = getLeftExpression(node); // the variable's value, unboxed
+    Class<?> t = staticClass(exp);
+    if (!t.isPrimitive()) { throw new UnsupportedException(node); }
+    Class<?> opType = (t.equals(long.class) || t.equals(float.class) || t.equals(double.class)) ? t : int.class;
+    coerce(value(exp), t);
+    if (!prefix) { dup(t, 0); }
+    coerce(t, opType);
+    pushOne(opType);
+    _mv.visitInsn(Type.getType(opType).getOpcode(increment ? IADD : ISUB));
+    coerce(opType, t);
+    coerce(t, vt);
+    if (prefix) { dup(vt, 0); }
+    store(v);
+    return prefix ? vt : t;
+  }
+
+  private class ExpressionGenerator extends AbstractVisitor<Class<?>> {
+
+    @Override public Class<?> defaultCase(Node node) { throw new UnsupportedException(node.getClass()); }
+
+    @Override public Class<?> visit(Literal node) { return constant(node.getValue()); }
+
+    @Override public Class<?> visit(VariableAccess node) { return load(getVariable(node)); }
+
+    @Override public Class<?> visit(ArrayAccess node) {
+      Class<?> component = arrayValue(node.getExpression()).getComponentType();
+      coerce(value(node.getCellNumber()), int.class);
+      _mv.visitInsn(Type.getType(component).getOpcode(IALOAD));
+      return component;
+    }
+
+    @Override public Class<?> visit(ObjectFieldAccess node) {
+      DJField f = getField(node);
+      if (f == ArrayLengthField.INSTANCE) {
+        arrayValue(node.getExpression());
+        _mv.visitInsn(ARRAYLENGTH);
+        return int.class;
+      }
+      Field rf = JavaClass.reflectedField(f);
+      if (rf == null || Modifier.isStatic(rf.getModifiers())) { throw new UnsupportedException(node); }
+      Class<?> owner = rf.getDeclaringClass();
+      requireMember(owner, rf.getModifiers());
+      mention(rf.getType());
+      coerce(value(node.getExpression()), owner);
+      _mv.visitFieldInsn(GETFIELD, Type.getInternalName(owner), rf.getName(), Type.getDescriptor(rf.getType()));
+      return rf.getType();
+    }
+
+    @Override public Class<?> visit(StaticFieldAccess node) { return staticField(getField(node)); }
+
+    @Override public Class<?> visit(SimpleFieldAccess node) {
+      if (hasDJClass(node)) { throw new UnsupportedException(node); }
+      return staticField(getField(node));
+    }
+
+    @Override public Class<?> visit(ObjectMethodCall node) {
+      Method m = JavaClass.reflectedMethod(getMethod(node));
+      if (m == null || Modifier.isStatic(m.getModifiers())) { throw new UnsupportedException(node); }
+      // refer to the method via the receiver's type, as javac does, in case the declaring class is inaccessible
+      Class<?> owner = staticClass(node.getExpression());
+      if (owner.isArray() || !m.getDeclaringClass().isAssignableFrom(owner) || !isAccessible(owner)) {
+        owner = m.getDeclaringClass();
+      }
+      requireMember(owner, m.getModifiers());
+      mention(m.getReturnType());
+      coerce(value(node.getExpression()), owner);
+      invoke(owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL, owner, m.getName(), Type.getMethodDescriptor(m),
+             m.getParameterTypes(), node.getArguments());
+      return m.getReturnType();
+    }
+
+    @Override public Class<?> visit(StaticMethodCall node) { return invokeStatic(node); }
+
+    @Override public Class<?> visit(SimpleMethodCall node) {
+      if (hasDJClass(node)) { throw new UnsupportedException(node); }
+      return invokeStatic(node);
+    }
+
+    @Override public Class<?> visit(SimpleAllocation node) {
+      Constructor<?> k = JavaClass.reflectedConstructor(getConstructor(node));
+      if (k == null || hasEnclosingThis(node)) { throw new UnsupportedException(node); }
+      Class<?> c = k.getDeclaringClass();
+      if (Modifier.isAbstract(c.getModifiers()) ||
+          (c.getEnclosingClass() != null && !Modifier.isStatic(c.getModifiers()))) {
+        throw new UnsupportedException(node);
+      }
+      requireMember(c, k.getModifiers());
+      String name = Type.getInternalName(c);
+      _mv.visitTypeInsn(NEW, name);
+      _mv.visitInsn(DUP);
+      invoke(INVOKESPECIAL, c, "<init>", Type.getConstructorDescriptor(k), k.getParameterTypes(), node.getArguments());
+      return c;
+    }
+
+    @Override public Class<?> visit(ArrayAllocation node) {
+      if (node.getInitialization() != null) { return value(node.getInitialization()); }
+      Class<?> t = getErasedType(node).value();
+      require(t);
+      List<Expression> sizes = node.getSizes();
+      for (Expression size : sizes) { coerce(value(size), int.class); }
+      if (sizes.size() == 1) { newArray(t.getComponentType()); }
+      else { _mv.visitMultiANewArrayInsn(Type.getDescriptor(t), sizes.size()); }
+      return t;
+    }
+
+    @Override public Class<?> visit(ArrayInitializer node) {
+      Class<?> t = getErasedType(node).value();
+      require(t);
+      Class<?> component = t.getComponentType();
+      pushInt(node.getCells().size());
+      newArray(component);
+      int i = 0;
+      for (Expression cell : node.getCells()) {
+        _mv.visitInsn(DUP);
+        pushInt(i++);
+        coerce(value(cell), component);
+        _mv.visitInsn(Type.getType(component).getOpcode(IASTORE));
+      }
+      return t;
+    }
+
+    @Override public Class<?> visit(TypeExpression node) {
+      Class<?> c = getErasedType(node.getType()).value();
+      if (c.isPrimitive()) {
+        _mv.visitFieldInsn(GETSTATIC, Type.getInternalName(boxClass(c)), "TYPE", "Ljava/lang/Class;");
+      }
+      else {
+        require(c);
+        _mv.visitLdcInsn(Type.getType(c));
+      }
+      return Class.class;
+    }
+
+    @Override public Class<?> visit(NotExpression node) { return condition(node); }
+    @Override public Class<?> visit(AndExpression node) { return condition(node); }
+    @Override public Class<?> visit(OrExpression node) { return condition(node); }
+    @Override public Class<?> visit(EqualExpression node) { return condition(node); }
+    @Override public Class<?> visit(NotEqualExpression node) { return condition(node); }
+    @Override public Class<?> visit(LessExpression node) { return condition(node); }
+    @Override public Class<?> visit(LessOrEqualExpression node) { return condition(node); }
+    @Override public Class<?> visit(GreaterExpression node) { return condition(node); }
+    @Override public Class<?> visit(GreaterOrEqualExpression node) { return condition(node); }
+
+    @Override public Class<?> visit(ComplementExpression node) {
+      Class<?> t = coerce(value(node.getExpression()), staticClass(node));
+      if (t.equals(long.class)) { _mv.visitLdcInsn(-1L); _mv.visitInsn(LXOR); }
+      else { _mv.visitInsn(ICONST_M1); _mv.visitInsn(IXOR); }
+      return t;
+    }
+
+    @Override public Class<?> visit(PlusExpression node) {
+      return coerce(value(node.getExpression()), staticClass(node));
+    }
+
+    @Override public Class<?> visit(MinusExpression node) {
+      Class<?> t = coerce(value(node.getExpression()), staticClass(node));
+      _mv.visitInsn(Type.getType(t).getOpcode(INEG));
+      return t;
+    }
+
+    @Override public Class<?> visit(AddExpression node) {
+      if (getOperation(node) == ExpressionEvaluator.CONCATENATE) {
+        return concatenate(node.getLeftExpression(), node.getRightExpression());
+      }
+      else { return arithmetic(node, IADD); }
+    }
+
+    @Override public Class<?> visit(SubtractExpression node) { return arithmetic(node, ISUB); }
+    @Override public Class<?> visit(MultiplyExpression node) { return arithmetic(node, IMUL); }
+    @Override public Class<?> visit(DivideExpression node) { return arithmetic(node, IDIV); }
+    @Override public Class<?> visit(RemainderExpression node) { return arithmetic(node, IREM); }
+    @Override public Class<?> visit(BitAndExpression node) { return arithmetic(node, IAND); }
+    @Override public Class<?> visit(BitOrExpression node) { return arithmetic(node, IOR); }
+    @Override public Class<?> visit(ExclusiveOrExpression node) { return arithmetic(node, IXOR); }
+    @Override public Class<?> visit(ShiftLeftExpression node) { return shift(node, ISHL); }
+    @Override public Class<?> visit(ShiftRightExpression node) { return shift(node, ISHR); }
+    @Override public Class<?> visit(UnsignedShiftRightExpression node) { return shift(node, IUSHR); }
+
+    @Override public Class<?> visit(InstanceOfExpression node) {
+      Class<?> c = getErasedType(node.getReferenceType()).value();
+      require(c);
+      coerce(value(node.getExpression()), Object.class);
+      _mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(c));
+      return boolean.class;
+    }
+
+    @Override public Class<?> visit(CastExpression node) {
+      // cast checks/conversions are handled by value()
+      return value(node.getExpression());
+    }
+
+    @Override public Class<?> visit(ConditionalExpression node) {
+      Class<?> t = storageClass(staticClass(node));
+      Label ifFalse = new Label();
+      Label end = new Label();
+      branch(node.getConditionExpression(), false, ifFalse);
+      coerce(value(node.getIfTrueExpression()), t);
+      _mv.visitJumpInsn(GOTO, end);
+      _mv.visitLabel(ifFalse);
+      coerce(value(node.getIfFalseExpression()), t);
+      _mv.visitLabel(end);
+      return t;
+    }
+
+    @Override public Class<?> visit(SimpleAssignExpression node) {
+      Expression lhs = resolve(node.getLeftExpression());
+      if (lhs instanceof VariableAccess) {
+        LocalVariable v = getVariable(lhs);
+        Class<?> t = coerce(value(node.getRightExpression()), localType(v));
+        dup(t, 0);
+        store(v);
+        return t;
+      }
+      else { return assignMember(lhs, node.getRightExpression()); }
+    }
+
+    @Override public Class<?> visit(AddAssignExpression node) { return assignOperation(node, IADD, false); }
+    @Override public Class<?> visit(SubtractAssignExpression node) { return assignOperation(node, ISUB, false); }
+    @Override public Class<?> visit(MultiplyAssignExpression node) { return assignOperation(node, IMUL, false); }
+    @Override public Class<?> visit(DivideAssignExpression node) { return assignOperation(node, IDIV, false); }
+    @Override public Class<?> visit(RemainderAssignExpression node) { return assignOperation(node, IREM, false); }
+    @Override public Class<?> visit(BitAndAssignExpression node) { return assignOperation(node, IAND, false); }
+    @Override public Class<?> visit(BitOrAssignExpression node) { return assignOperation(node, IOR, false); }
+    @Override public Class<?> visit(ExclusiveOrAssignExpression node) { return assignOperation(node, IXOR, false); }
+    @Override public Class<?> visit(ShiftLeftAssignExpression node) { return assignOperation(node, ISHL, true); }
+    @Override public Class<?> visit(ShiftRightAssignExpression node) { return assignOperation(node, ISHR, true); }
+    @Override public Class<?> visit(UnsignedShiftRightAssignExpression node) {
+      return assignOperation(node, IUSHR, true);
+    }
+
+    @Override public Class<?> visit(PreIncrement node) { return increment(node, true, true); }
+    @Override public Class<?> visit(PostIncrement node) { return increment(node, true, false); }
+    @Override public Class<?> visit(PreDecrement node) { return increment(node, false, true); }
+    @Override public Class<?> visit(PostDecrement node) { return increment(node, false, false); }
+
+  }
+
+
+  /* * * * * * * * * *
+   * STATEMENTS
+   * * * * * * * * * */
+
+  private class StatementGenerator extends AbstractVisitor<Void> {
+
+    @Override public Void defaultCase(Node node) { throw new UnsupportedException(node.getClass()); }
+
+    @Override public Void visit(EmptyStatement node) { return null; }
+
+    @Override public Void visit(BlockStatement node) {
+      for (Node n : node.getStatements()) { n.acceptVisitor(this); }
+      return null;
+    }
+
+    @Override public Void visit(ExpressionStatement node) {
+      if (hasStatementTranslation(node)) { getStatementTranslation(node).acceptVisitor(this); }
+      else { pop(value(node.getExpression())); }
+      return null;
+    }
+
+    @Override public Void visit(VariableDeclaration node) {
+      LocalVariable v = getVariable(node);
+      Class<?> t = declare(v, getErasedType(node).value());
+      if (node.getInitializer() == null) { pushDefault(t); }
+      else { coerce(value(node.getInitializer()), t); }
+      store(v);
+      return null;
+    }
+
+    @Override public Void visit(IfThenStatement node) {
+      Label end = new Label();
+      branch(node.getCondition(), false, end);
+      node.getThenStatement().acceptVisitor(this);
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    @Override public Void visit(IfThenElseStatement node) {
+      Label ifFalse = new Label();
+      Label end = new Label();
+      branch(node.getCondition(), false, ifFalse);
+      node.getThenStatement().acceptVisitor(this);
+      _mv.visitJumpInsn(GOTO, end);
+      _mv.visitLabel(ifFalse);
+      node.getElseStatement().acceptVisitor(this);
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    @Override public Void visit(WhileStatement node) {
+      Label body = new Label();
+      Label test = new Label();
+      Label end = new Label();
+      _mv.visitJumpInsn(GOTO, test);
+      _mv.visitLabel(body);
+      loopBody(node.getBody(), end, test);
+      _mv.visitLabel(test);
+      branch(node.getCondition(), true, body);
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    @Override public Void visit(DoStatement node) {
+      Label body = new Label();
+      Label test = new Label();
+      Label end = new Label();
+      _mv.visitLabel(body);
+      loopBody(node.getBody(), end, test);
+      _mv.visitLabel(test);
+      branch(node.getCondition(), true, body);
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    @Override public Void visit(ForStatement node) {
+      if (node.getInitialization() != null) {
+        for (Node n : node.getInitialization()) { n.acceptVisitor(this); }
+      }
+      Label body = new Label();
+      Label update = new Label();
+      Label test = new Label();
+      Label end = new Label();
+      _mv.visitJumpInsn(GOTO, test);
+      _mv.visitLabel(body);
+      loopBody(node.getBody(), end, update);
+      _mv.visitLabel(update);
+      if (node.getUpdate() != null) {
+        for (Node n : node.getUpdate()) { n.acceptVisitor(this); }
+      }
+      _mv.visitLabel(test);
+      if (node.getCondition() == null) { _mv.visitJumpInsn(GOTO, body); }
+      else { branch(node.getCondition(), true, body); }
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    @Override public Void visit(ForEachStatement node) {
+      LocalVariable param = getVariable(node.getParameter());
+      Class<?> paramT = declare(param, _ts.erasedClass(param.type()).value());
+      Expression coll = node.getCollection();
+      Label body = new Label();
+      Label next = new Label();
+      Label test = new Label();
+      Label end = new Label();
+      if (staticClass(coll).isArray()) {
+        Class<?> arrayT = arrayValue(coll);
+        int array = temporary(arrayT);
+        int index = temporary(int.class);
+        _mv.visitVarInsn(ASTORE, array);
+        _mv.visitInsn(ICONST_0);
+        _mv.visitVarInsn(ISTORE, index);
+        _mv.visitJumpInsn(GOTO, test);
+        _mv.visitLabel(body);
+        _mv.visitVarInsn(ALOAD, array);
+        _mv.visitVarInsn(ILOAD, index);
+        _mv.visitInsn(Type.getType(arrayT.getComponentType()).getOpcode(IALOAD));
+        coerce(arrayT.getComponentType(), paramT);
+        store(param);
+        loopBody(node.getBody(), end, next);
+        _mv.visitLabel(next);
+        _mv.visitIincInsn(index, 1);
+        _mv.visitLabel(test);
+        _mv.visitVarInsn(ILOAD, index);
+        _mv.visitVarInsn(ALOAD, array);
+        _mv.visitInsn(ARRAYLENGTH);
+        _mv.visitJumpInsn(IF_ICMPLT, body);
+      }
+      else {
+        // the element type is not known precisely, so unboxing conversions can't be compiled
+        if (paramT.isPrimitive()) { throw new UnsupportedException(node); }
+        Class<?>[] noParams = new Class<?>[0];
+        coerce(value(coll), Iterable.class);
+        int iter = temporary(Object.class);
+        boolean callOut = mayCallOut(Iterable.class, noParams);
+        if (callOut) { beforeCall(); }
+        _mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+        if (callOut) { afterCall(); }
+        _mv.visitVarInsn(ASTORE, iter);
+        _mv.visitJumpInsn(GOTO, test);
+        _mv.visitLabel(body);
+        _mv.visitVarInsn(ALOAD, iter);
+        if (callOut) { beforeCall(); }
+        _mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+        if (callOut) { afterCall(); }
+        coerce(Object.class, paramT);
+        store(param);
+        loopBody(node.getBody(), end, test);
+        _mv.visitLabel(test);
+        _mv.visitVarInsn(ALOAD, iter);
+        if (callOut) { beforeCall(); }
+        _mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+        if (callOut) { afterCall(); }
+        _mv.visitJumpInsn(IFNE, body);
+      }
+      _mv.visitLabel(end);
+      return null;
+    }
+
+    private void loopBody(Node body, Label breakTarget, Label continueTarget) {
+      _breakTargets.push(breakTarget);
+      _continueTargets.push(continueTarget);
+      body.acceptVisitor(this);
+      _breakTargets.pop();
+      _continueTargets.pop();
+    }
+
+    @Override public Void visit(BreakStatement node) {
+      if (node.getLabel() != null || _breakTargets.isEmpty()) { throw new UnsupportedException(node); }
+      _mv.visitJumpInsn(GOTO, _breakTargets.peek());
+      return null;
+    }
+
+    @Override public Void visit(ContinueStatement node) {
+      if (node.getLabel() != null || _continueTargets.isEmpty()) { throw new UnsupportedException(node); }
+      _mv.visitJumpInsn(GOTO, _continueTargets.peek());
+      return null;
+    }
+
+    @Override public Void visit(ThrowStatement node) {
+      coerce(value(node.getExpression()), Throwable.class);
+      _mv.visitInsn(ATHROW);
+      return null;
+    }
+
+  }
+
+}
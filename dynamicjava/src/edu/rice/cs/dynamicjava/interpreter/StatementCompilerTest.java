@@ -0,0 +1,120 @@
+package edu.rice.cs.dynamicjava.interpreter;
+
+import junit.framework.TestCase;
+import edu.rice.cs.plt.tuple.Option;
+
+import edu.rice.cs.dynamicjava.Options;
+
+/**
+ * Checks that loops run by the {@link StatementCompiler} behave as they do when evaluated by walking the tree.
+ * The {@link #main} method times a few typical interactions-pane loops in both modes.
+ */
+public class StatementCompilerTest extends TestCase {
+
+  private static final Options TREE_WALKING = Options.DEFAULT;
+  private static final Options COMPILED = new Options() {
+    @Override public boolean compileLoops() { return true; }
+  };
+
+  /** Interpret the given lines with a fresh interpreter, returning the result of the last one. */
+  private static Object interpret(Options opt, String... lines) throws InterpreterException {
+    Interpreter i = new Interpreter(opt);
+    Option<Object> result = Option.none();
+    for (String line : lines) { result = i.interpret(line); }
+    return result.unwrap(null);
+  }
+
+  /** Assert that the compiled and interpreted results are both {@code expected}. */
+  private static void assertResult(Object expected, String... lines) throws InterpreterException {
+    assertEquals(expected, interpret(TREE_WALKING, lines));
+    assertEquals(expected, interpret(COMPILED, lines));
+  }
+
+  public void testArithmetic() throws InterpreterException {
+    assertResult(499500, "int sum = 0;", "for (int i = 0; i < 1000; i++) { sum += i; }", "sum");
+    assertResult(5050L, "long s = 0; int i = 1;", "while (i <= 100) s += i++;", "s");
+    assertResult(44, "byte b = 0;", "for (int i = 0; i < 300; i++) b++;", "(int) b");
+    assertResult(1.5, "double d = 0;", "do { d += 0.5; } while (d < 1.5);", "d");
+    assertResult(-8, "int x = 1;", "for (int i = 0; i < 3; i++) x <<= 1L;", "-x");
+    assertResult(true, "Double nan = Double.NaN; boolean b = true;",
+                 "for (int i = 0; i < 1; i++) { b = !(nan < 1.0) && !(nan > 1.0); }", "b");
+  }
+
+  public void testControlFlow() throws InterpreterException {
+    assertResult(25, "int c = 0;",
+                 "for (int i = 0; i < 10; i++) { if (i % 2 == 0) continue; for (int j = 0; j < 10; j++) { " +
+                 "if (j == 5) break; c++; } }", "c");
+    assertResult(3, "int n = 0;", "while (true) { if (++n == 3) break; }", "n");
+  }
+
+  public void testStringsAndArrays() throws InterpreterException {
+    assertResult("0a1.0null1b2.0null", "String s = \"\"; String t = null;",
+                 "for (int i = 0; i < 2; i++) { s += i + (i == 0 ? \"a\" : \"b\") + (i + 1.0) + t; }", "s");
+    assertResult(30, "int[] a = new int[5]; int sum = 0;",
+                 "for (int i = 0; i < a.length; i++) a[i] = i * 3;", "for (int x : a) sum += x;", "sum");
+    assertResult("x-y-", "StringBuilder sb = new StringBuilder();",
+                 "for (String s : new String[]{ \"x\", \"y\" }) { sb.append(s).append('-'); }", "sb.toString()");
+    assertResult(6, "java.util.List<Integer> l = new java.util.ArrayList<Integer>(); int sum = 0;",
+                 "for (int i = 1; i <= 3; i++) l.add(i);", "for (Integer x : l) sum += x;", "sum");
+  }
+
+  public void testExceptions() throws InterpreterException {
+    String[] lines = { "int i = 0; int[] a = new int[3];", "for (; i < 10; i++) { a[i] = i; }" };
+    for (Options opt : new Options[]{ TREE_WALKING, COMPILED }) {
+      Interpreter interp = new Interpreter(opt);
+      interp.interpret(lines[0]);
+      try { interp.interpret(lines[1]); fail("Expected an exception"); }
+      catch (EvaluatorException e) { assertTrue(e.getCause() instanceof ArrayIndexOutOfBoundsException); }
+      assertEquals(Option.some((Object) 3), interp.interpret("i"));
+    }
+  }
+
+  public void testExceptionMessagesNameVariables() throws InterpreterException {
+    Interpreter interp = new Interpreter(COMPILED);
+    interp.interpret("int[] nums = null; int s = 0;");
+    try { interp.interpret("for (int i = 0; i < 3; i++) { s += nums[i]; }"); fail("Expected an exception"); }
+    catch (EvaluatorException e) {
+      assertTrue(e.getCause() instanceof NullPointerException);
+      String message = e.getCause().getMessage();
+      // messages are only present on JVMs that describe the failing expression
+      if (message != null) { assertTrue(message, message.contains("nums")); }
+    }
+  }
+
+  public void testCallsIntoInterpretedCode() throws InterpreterException {
+    assertResult("x=3",
+                 "int x = 0; class A { public String toString() { return \"x=\" + x; } }; A a = new A(); String s = null;",
+                 "for (int i = 0; i < 3; i++) { x++; s = a.toString(); }", "s");
+    assertResult(10, "int y = 0; class B { void incr() { y += 2; } }; B b = new B();",
+                 "for (int i = 0; i < 5; i++) { b.incr(); }", "y");
+  }
+
+
+  /** Time some typical loops, with and without compilation. */
+  public static void main(String... args) throws InterpreterException {
+    String[][] loops = {
+      { "int sum", "int sum = 0;", "for (int i = 0; i < 1000000; i++) { sum += i % 7; }" },
+      { "StringBuilder", "StringBuilder sb = new StringBuilder();",
+        "for (int i = 0; i < 100000; i++) { sb.append(i).append(','); }" },
+      { "array fill", "double[] a = new double[100000];",
+        "for (int r = 0; r < 10; r++) for (int i = 0; i < a.length; i++) a[i] = i * 0.5 + r;" },
+      { "Math.sqrt", "double d = 0; int i = 0;", "while (i < 200000) { d += Math.sqrt(i++); }" },
+      { "collections", "java.util.List<Integer> l = new java.util.ArrayList<Integer>(); long s = 0;",
+        "for (int i = 0; i < 100000; i++) { l.add(i); } for (Integer x : l) { s += x; }" }
+    };
+    for (String[] loop : loops) {
+      long walking = time(TREE_WALKING, loop[1], loop[2]);
+      long compiled = time(COMPILED, loop[1], loop[2]);
+      System.out.println(loop[0] + ": tree walking " + walking + "ms, compiled " + compiled + "ms");
+    }
+  }
+
+  private static long time(Options opt, String setup, String loop) throws InterpreterException {
+    Interpreter i = new Interpreter(opt);
+    i.interpret(setup);
+    long start = System.currentTimeMillis();
+    i.interpret(loop);
+    return System.currentTimeMillis() - start;
+  }
+
+}
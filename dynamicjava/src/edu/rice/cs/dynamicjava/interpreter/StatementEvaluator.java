@@ -112,6 +112,7 @@ public class StatementEvaluator extends AbstractVisitor<StatementEvaluator.Resul
   }
 
   @Override public Result visit(WhileStatement node) {
+    if (runCompiled(node)) { return new Result(_bindings); }
     ExpressionEvaluator eval = new ExpressionEvaluator(_bindings, _opt);
     try {
       while ((Boolean) eval.value(node.getCondition())) {
@@ -128,6 +129,7 @@ public class StatementEvaluator extends AbstractVisitor<StatementEvaluator.Resul
   }
 
   @Override public Result visit(final ForEachStatement node) {
+    if (runCompiled(node)) { return new Result(_bindings); }
     // We *could* create an equivalent expression and then evaluate that
     // expression (that was done in a previous implementation), but it is 
     // easier to just evaluate this directly
@@ -185,6 +187,7 @@ public class StatementEvaluator extends AbstractVisitor<StatementEvaluator.Resul
   }
   
   @Override public Result visit(ForStatement node) {
+    if (runCompiled(node)) { return new Result(_bindings); }
     RuntimeBindings newB = _bindings;
     if (node.getInitialization() != null) {
       newB = evaluateSequence(node.getInitialization()).bindings();
@@ -209,6 +212,7 @@ public class StatementEvaluator extends AbstractVisitor<StatementEvaluator.Resul
   }
 
   @Override public Result visit(DoStatement node) {
+    if (runCompiled(node)) { return new Result(_bindings); }
     ExpressionEvaluator eval = new ExpressionEvaluator(_bindings, _opt);
     try {
       do {
@@ -223,6 +227,11 @@ public class StatementEvaluator extends AbstractVisitor<StatementEvaluator.Resul
     return new Result(_bindings);
   }
 
+  /** Try to execute the given loop with the {@link StatementCompiler}. */
+  private boolean runCompiled(Statement node) {
+    return _opt.compileLoops() && StatementCompiler.run(node, _bindings, _opt);
+  }
+
   @Override public Result visit(SwitchStatement node) {
     ExpressionEvaluator eval = new ExpressionEvaluator(_bindings, _opt);
     Object sel = eval.value(node.getSelector());
@@ -27,17 +27,33 @@ import static edu.rice.cs.plt.debug.DebugUtil.debug;
 
 public class ExtendedTypeSystem extends StandardTypeSystem {
   
+  /** Default number of results of each kind kept in the {@link TypeCache}. */
+  public static final int DEFAULT_CACHE_SIZE = 4096;
+  
   /** Whether the inference algorithm should attempt to pack capture variables that appear as inference results. */
   private final boolean _packCaptureVars;
   
+  /** Memoized subtyping, normalization, join, and meet results. */
+  private final TypeCache _cache;
+  
   public ExtendedTypeSystem(Options opt) { this(opt, true, true, true, true); }
   
   public ExtendedTypeSystem(Options opt, boolean packCaptureVars, boolean boxingInMostSpecific,
                              boolean useExplicitTypeArgs, boolean strictClassEquality) {
+    this(opt, packCaptureVars, boxingInMostSpecific, useExplicitTypeArgs, strictClassEquality, DEFAULT_CACHE_SIZE);
+  }
+  
+  /** @param cacheSize  The capacity of the {@link TypeCache}; 0 disables caching. */
+  public ExtendedTypeSystem(Options opt, boolean packCaptureVars, boolean boxingInMostSpecific,
+                             boolean useExplicitTypeArgs, boolean strictClassEquality, int cacheSize) {
     super(opt, boxingInMostSpecific, useExplicitTypeArgs, strictClassEquality);
     _packCaptureVars = packCaptureVars;
+    _cache = new TypeCache(cacheSize);
   }
   
+  /** The cache of subtyping and normalization results, for statistics. */
+  public TypeCache cache() { return _cache; }
+  
   /** Determine if the type is well-formed. */
   public boolean isWellFormed(Type t) {
     return new WellFormedChecker().contains(t);
@@ -131,7 +147,23 @@ public class ExtendedTypeSystem extends StandardTypeSystem {
     
     public Predicate<Type> subtypes(Type sup) { return bindSecond((Order<Type>) this, sup); }
     
-    public boolean contains(final Type subT, final Type superT) {
+    /**
+     * With an empty stack, the result does not depend on any assumptions made about enclosing checks, and
+     * may be shared through the cache.
+     */
+    public boolean contains(Type subT, Type superT) {
+      if (!_cache.isEnabled() || !_stack.isEmpty()) { return containsUncached(subT, superT); }
+      Type sub = _cache.canonical(subT);
+      Type sup = _cache.canonical(superT);
+      Boolean result = _cache.subtype(sub, sup);
+      if (result == null) {
+        result = containsUncached(sub, sup);
+        _cache.putSubtype(sub, sup, result);
+      }
+      return result;
+    }
+    
+    private boolean containsUncached(final Type subT, final Type superT) {
       //debug.logStart(new String[]{"subT", "superT"}, wrap(subT), wrap(superT)); try {
               
       if (subT.equals(superT)) { return true; } // what follows assumes the types are not syntactically equal
@@ -394,6 +426,18 @@ public class ExtendedTypeSystem extends StandardTypeSystem {
     private final NormSubtyper _subtyper;
     public Normalizer(NormSubtyper subtyper) { _subtyper = subtyper; }
     
+    /** Normalize {@code t}, using the cache if the subtyper is not in the middle of a recursive check. */
+    @Override public Type value(Type t) {
+      if (!_cache.isEnabled() || !_subtyper._stack.isEmpty()) { return t.apply(this); }
+      Type canonical = _cache.canonical(t);
+      Type result = _cache.normalized(canonical);
+      if (result == null) {
+        result = canonical.apply(this);
+        _cache.putNormalized(canonical, result);
+      }
+      return result;
+    }
+    
     @Override public Type forIntersectionTypeOnly(IntersectionType t, Iterable<? extends Type> normTypes) {
       //debug.logStart(new String[]{"t","normTypes"}, wrap(t), wrap(normTypes)); try {
       Type result = new NormMeeter(_subtyper).value(normTypes);
@@ -429,6 +473,16 @@ public class ExtendedTypeSystem extends StandardTypeSystem {
     private final NormSubtyper _subtyper;
     public NormJoiner(NormSubtyper subtyper) { _subtyper = subtyper; }
     public Type value(Iterable<? extends Type> elements) {
+      if (!_cache.isEnabled() || !_subtyper._stack.isEmpty()) { return joinUncached(elements); }
+      List<Type> canonical = CollectUtil.makeArrayList(map(elements, CANONICAL));
+      Type result = _cache.join(canonical);
+      if (result == null) {
+        result = joinUncached(canonical);
+        _cache.putJoin(canonical, result);
+      }
+      return result;
+    }
+    private Type joinUncached(Iterable<? extends Type> elements) {
       List<Type> disjuncts = maxList(collapse(map(elements, DISJUNCTS)), _subtyper);
       switch (disjuncts.size()) {
         case 0: return BOTTOM;
@@ -454,6 +508,17 @@ public class ExtendedTypeSystem extends StandardTypeSystem {
     public NormMeeter(NormSubtyper subtyper) { _subtyper = subtyper; }
     
     public Type value(Iterable<? extends Type> elements) {
+      if (!_cache.isEnabled() || !_subtyper._stack.isEmpty()) { return meetUncached(elements); }
+      List<Type> canonical = CollectUtil.makeArrayList(map(elements, CANONICAL));
+      Type result = _cache.meet(canonical);
+      if (result == null) {
+        result = meetUncached(canonical);
+        _cache.putMeet(canonical, result);
+      }
+      return result;
+    }
+    
+    private Type meetUncached(Iterable<? extends Type> elements) {
       if (IterUtil.or(elements, bindSecond(LambdaUtil.INSTANCE_OF, UnionType.class))) {
         final NormJoiner joiner = new NormJoiner(_subtyper);
         // elements contain at least one union
@@ -489,6 +554,10 @@ public class ExtendedTypeSystem extends StandardTypeSystem {
     };
   }
   
+  private final Lambda<Type, Type> CANONICAL = new Lambda<Type, Type>() {
+    public Type value(Type t) { return _cache.canonical(t); }
+  };
+  
   private final TypeVisitorLambda<Iterable<? extends Type>> DISJUNCTS =
       new TypeAbstractVisitor<Iterable<? extends Type>>() {
     @Override public Iterable<? extends Type> forValidType(ValidType t) { return singleton(t); }
@@ -0,0 +1,17 @@
+package edu.rice.cs.dynamicjava.symbol;
+
+/**
+ * A class loader that can tell, without searching its class path, that a class does not exist.  Name
+ * resolution probes many names that turn out not to be classes (every on-demand import is tried for each
+ * simple name, for example), so {@link JavaLibrary} and {@link Java5Library} ask {@link #mayLoadClass}
+ * before calling {@link ClassLoader#loadClass} and throwing away a ClassNotFoundException.
+ */
+public interface IndexedClassLoader {
+  
+  /**
+   * Whether a class with the given binary name might be loaded.  {@code false} must mean that
+   * {@code loadClass(name)} would fail; {@code true} is always a safe answer.
+   */
+  public boolean mayLoadClass(String name);
+  
+}
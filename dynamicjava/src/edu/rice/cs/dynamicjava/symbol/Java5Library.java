@@ -7,12 +7,16 @@ import static edu.rice.cs.plt.debug.DebugUtil.debug;
 public class Java5Library implements Library {
   
   private final ClassLoader _loader;
+  /** The loader, if it can reject missing classes without searching for them; otherwise null. */
+  private final IndexedClassLoader _index;
   
   public Java5Library(ClassLoader loader) {
     _loader = loader;
+    _index = (loader instanceof IndexedClassLoader) ? (IndexedClassLoader) loader : null;
   }
 
   public Iterable<DJClass> declaredClasses(String fullName) {
+    if (_index != null && !_index.mayLoadClass(fullName)) { return IterUtil.empty(); }
     try { Class<?> c = _loader.loadClass(fullName); return IterUtil.<DJClass>singleton(new Java5Class(c)); }
     catch (ClassNotFoundException e) { return IterUtil.empty(); }
     catch (LinkageError e) { return IterUtil.empty(); }
@@ -120,7 +120,22 @@ public class JavaClass implements DJClass {
   }
   
   public int hashCode() { return (getClass().hashCode() << 1) ^ _c.hashCode(); }
-  
+
+  /** The reflection object underlying {@code f}, or {@code null} if it is not declared by a JavaClass. */
+  public static Field reflectedField(DJField f) {
+    return (f instanceof JavaField) ? ((JavaField) f)._f : null;
+  }
+
+  /** The reflection object underlying {@code k}, or {@code null} if it is not declared by a JavaClass. */
+  public static Constructor<?> reflectedConstructor(DJConstructor k) {
+    return (k instanceof JavaConstructor) ? ((JavaConstructor) k)._k : null;
+  }
+
+  /** The reflection object underlying {@code m}, or {@code null} if it is not declared by a JavaClass. */
+  public static Method reflectedMethod(DJMethod m) {
+    return (m instanceof JavaMethod) ? ((JavaMethod) m)._m : null;
+  }
+
   /** Convert a class object to a type */
   private static Type classAsType(Class<?> c) {
     if (c.isPrimitive()) { return SymbolUtil.typeOfPrimitiveClass(c); }
@@ -0,0 +1,142 @@
+package edu.rice.cs.dynamicjava.symbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.rice.cs.plt.tuple.IdentityPair;
+import edu.rice.cs.plt.tuple.IdentityWrapper;
+
+import edu.rice.cs.dynamicjava.symbol.type.Type;
+
+/**
+ * Memoized results of the subtyping, normalization, join, and meet operations of an {@link ExtendedTypeSystem}.
+ * Types are hash-consed: {@link #canonical} maps each type to a single instance equal to it, so that the result
+ * tables can be keyed on object identity rather than on (deep) structural equality.  Every table is bounded, and
+ * discards its least-recently-used entries first.  The type system only records results that are independent of
+ * any recursion in progress, so a hit is always the answer a fresh computation would give.
+ */
+public class TypeCache {
+
+  private final int _capacity;
+  private final Map<Type, Type> _canonical;
+  private final Map<IdentityPair<Type, Type>, Boolean> _subtypes;
+  private final Map<IdentityWrapper<Type>, Type> _normalized;
+  private final Map<List<IdentityWrapper<Type>>, Type> _joins;
+  private final Map<List<IdentityWrapper<Type>>, Type> _meets;
+  private long _hits;
+  private long _misses;
+  private long _evictions;
+
+  /** Create a cache holding at most {@code capacity} results of each kind; a capacity of 0 disables caching. */
+  public TypeCache(int capacity) {
+    _capacity = capacity;
+    _canonical = new HashMap<Type, Type>();
+    _subtypes = makeTable();
+    _normalized = makeTable();
+    _joins = makeTable();
+    _meets = makeTable();
+    _hits = 0;
+    _misses = 0;
+    _evictions = 0;
+  }
+
+  private <K, V> Map<K, V> makeTable() {
+    return new LinkedHashMap<K, V>(16, 0.75f, true) {
+      @Override protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (size() > _capacity) { _evictions++; return true; }
+        else { return false; }
+      }
+    };
+  }
+
+  /** Whether results are recorded at all. */
+  public boolean isEnabled() { return _capacity > 0; }
+
+  /**
+   * Get the canonical instance of {@code t}: the first type equal to {@code t} that was passed to this method
+   * since the cache was last cleared.  The canonical table is cleared when it grows to 4 times the capacity.
+   */
+  public synchronized Type canonical(Type t) {
+    Type result = _canonical.get(t);
+    if (result == null) {
+      if (_canonical.size() >= 4 * _capacity) { _canonical.clear(); }
+      _canonical.put(t, t);
+      result = t;
+    }
+    return result;
+  }
+
+  /** Get the recorded result of {@code sub <: sup}, or {@code null}.  The arguments must be canonical. */
+  public synchronized Boolean subtype(Type sub, Type sup) {
+    return record(_subtypes.get(new IdentityPair<Type, Type>(sub, sup)));
+  }
+
+  public synchronized void putSubtype(Type sub, Type sup, boolean result) {
+    _subtypes.put(new IdentityPair<Type, Type>(sub, sup), result);
+  }
+
+  /** Get the recorded normalized form of {@code t}, or {@code null}.  The argument must be canonical. */
+  public synchronized Type normalized(Type t) {
+    return record(_normalized.get(new IdentityWrapper<Type>(t)));
+  }
+
+  public synchronized void putNormalized(Type t, Type result) {
+    _normalized.put(new IdentityWrapper<Type>(t), result);
+  }
+
+  /** Get the recorded join of the given canonical types, or {@code null}. */
+  public synchronized Type join(Iterable<? extends Type> ts) { return record(_joins.get(key(ts))); }
+
+  public synchronized void putJoin(Iterable<? extends Type> ts, Type result) { _joins.put(key(ts), result); }
+
+  /** Get the recorded meet of the given canonical types, or {@code null}. */
+  public synchronized Type meet(Iterable<? extends Type> ts) { return record(_meets.get(key(ts))); }
+
+  public synchronized void putMeet(Iterable<? extends Type> ts, Type result) { _meets.put(key(ts), result); }
+
+  private static List<IdentityWrapper<Type>> key(Iterable<? extends Type> ts) {
+    List<IdentityWrapper<Type>> result = new ArrayList<IdentityWrapper<Type>>();
+    for (Type t : ts) { result.add(new IdentityWrapper<Type>(t)); }
+    return result;
+  }
+
+  private <T> T record(T result) {
+    if (result == null) { _misses++; } else { _hits++; }
+    return result;
+  }
+
+  /** Discard all recorded results and canonical instances.  Statistics are not reset. */
+  public synchronized void clear() {
+    _canonical.clear();
+    _subtypes.clear();
+    _normalized.clear();
+    _joins.clear();
+    _meets.clear();
+  }
+
+  public synchronized long hits() { return _hits; }
+
+  public synchronized long misses() { return _misses; }
+
+  public synchronized long evictions() { return _evictions; }
+
+  /** The fraction of lookups that found a result, or 0 if there have been none. */
+  public synchronized double hitRate() {
+    long total = _hits + _misses;
+    return (total == 0) ? 0.0 : ((double) _hits) / total;
+  }
+
+  /** The number of results currently recorded. */
+  public synchronized int size() {
+    return _subtypes.size() + _normalized.size() + _joins.size() + _meets.size();
+  }
+
+  public synchronized String toString() {
+    return "TypeCache: " + _hits + " hits, " + _misses + " misses (" + Math.round(hitRate() * 100) + "%), " +
+      size() + " results, " + _evictions + " evictions";
+  }
+
+}
@@ -0,0 +1,122 @@
+package edu.rice.cs.dynamicjava.symbol;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+import edu.rice.cs.plt.lambda.LambdaUtil;
+import edu.rice.cs.plt.lambda.Thunk;
+
+import koala.dynamicjava.tree.Node;
+import koala.dynamicjava.parser.wrapper.JavaCCParser;
+import edu.rice.cs.dynamicjava.Options;
+import edu.rice.cs.dynamicjava.interpreter.CheckerException;
+import edu.rice.cs.dynamicjava.interpreter.ImportContext;
+import edu.rice.cs.dynamicjava.interpreter.Interpreter;
+import edu.rice.cs.dynamicjava.interpreter.InterpreterException;
+import edu.rice.cs.dynamicjava.interpreter.StatementChecker;
+import edu.rice.cs.dynamicjava.interpreter.TypeContext;
+
+/**
+ * Checks that an {@link ExtendedTypeSystem} gives the same results with and without its {@link TypeCache}.
+ * The {@link #main} method times the type checking of some generic-heavy expressions in both configurations.
+ */
+public class TypeCacheTest extends TestCase {
+
+  private static class TestOptions extends Options {
+    private final int _cacheSize;
+    public TestOptions(int cacheSize) { super(); _cacheSize = cacheSize; }
+    @Override protected Thunk<? extends TypeSystem> typeSystemFactory() {
+      // called by the super constructor, so _cacheSize can't be used yet
+      return new Thunk<TypeSystem>() {
+        private TypeSystem _ts = null;
+        public TypeSystem value() {
+          if (_ts == null) { _ts = new ExtendedTypeSystem(TestOptions.this, true, true, true, true, _cacheSize); }
+          return _ts;
+        }
+      };
+    }
+    public TypeCache cache() { return ((ExtendedTypeSystem) typeSystem()).cache(); }
+  }
+
+  private static final String[] EXPRESSIONS = {
+    "java.util.Collections.max(java.util.Arrays.asList(3, 1, 2))",
+    "java.util.Arrays.asList(1, 2.0, 3L).get(1)",
+    "true ? new java.util.ArrayList<String>() : new java.util.LinkedList<String>()",
+    "new java.util.HashMap<String, java.util.List<Integer>>().entrySet().size()",
+    "java.util.Collections.unmodifiableMap(java.util.Collections.singletonMap(\"a\", java.util.Arrays.asList(1)))",
+    "java.util.Collections.nCopies(3, java.util.Arrays.asList(1, 2)).get(0).get(1) + 1",
+    "java.util.Arrays.asList(\"b\", \"a\").subList(0, 1).iterator().next().length()",
+    "java.util.Collections.<Comparable<?>>emptyList().isEmpty()",
+    "new java.util.TreeMap<Integer, java.util.Set<? extends Number>>(" +
+      "java.util.Collections.singletonMap(1, java.util.Collections.singleton(2.5))).firstEntry().getValue()",
+    "java.util.Collections.min(java.util.Arrays.asList(java.util.Arrays.asList(1).size(), 4, 0))"
+  };
+
+  private static Object interpret(Options opt, String expr) throws InterpreterException {
+    return new Interpreter(opt).interpret(expr).unwrap(null);
+  }
+
+  public void testSameResults() throws InterpreterException {
+    TestOptions uncached = new TestOptions(0);
+    TestOptions cached = new TestOptions(ExtendedTypeSystem.DEFAULT_CACHE_SIZE);
+    for (int i = 0; i < 2; i++) {
+      for (String expr : EXPRESSIONS) {
+        assertEquals(expr, String.valueOf(interpret(uncached, expr)), String.valueOf(interpret(cached, expr)));
+      }
+    }
+    assertEquals(0, uncached.cache().size());
+    assertTrue(cached.cache().size() > 0);
+    assertTrue(cached.cache().hits() > 0);
+  }
+
+  public void testSameErrors() throws InterpreterException {
+    String[] bad = { "java.util.Arrays.asList(1, 2).get(0).length()",
+                     "java.util.List<String> l = new java.util.ArrayList<Integer>();",
+                     "true ? new java.util.ArrayList<String>() : new java.util.HashSet<String>().get(0)" };
+    for (TestOptions opt : new TestOptions[]{ new TestOptions(0), new TestOptions(16) }) {
+      for (int i = 0; i < 2; i++) {
+        for (String code : bad) {
+          try { interpret(opt, code); fail("Expected a static error: " + code); }
+          catch (CheckerException e) { /* expected */ }
+        }
+      }
+    }
+  }
+
+  public void testEviction() throws InterpreterException {
+    TestOptions tiny = new TestOptions(4);
+    for (String expr : EXPRESSIONS) { interpret(tiny, expr); }
+    assertTrue(tiny.cache().evictions() > 0);
+    assertTrue(tiny.cache().size() <= 4 * 4);
+  }
+
+
+  /** Time the type checking of {@link #EXPRESSIONS}, with and without the cache. */
+  public static void main(String... args) throws Exception {
+    int reps = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+    TestOptions uncached = new TestOptions(0);
+    TestOptions cached = new TestOptions(ExtendedTypeSystem.DEFAULT_CACHE_SIZE);
+    for (int round = 0; round < 3; round++) {
+      long withoutCache = time(uncached, reps);
+      long withCache = time(cached, reps);
+      System.out.println("round " + round + ": uncached " + withoutCache + "ms, cached " + withCache + "ms");
+    }
+    System.out.println(cached.cache());
+  }
+
+  private static long time(Options opt, int reps) throws Exception {
+    TypeContext ctx = new ImportContext(TypeCacheTest.class.getClassLoader(), opt);
+    long total = 0;
+    for (String expr : EXPRESSIONS) {
+      for (int i = 0; i < reps; i++) {
+        // the checker annotates the tree, so each check needs a fresh parse
+        Iterable<Node> tree = new JavaCCParser(new StringReader(expr), opt).parseStream();
+        long start = System.nanoTime();
+        new StatementChecker(ctx, opt).checkList(tree);
+        total += System.nanoTime() - start;
+      }
+    }
+    return total / 1000000;
+  }
+
+}
@@ -87,8 +87,8 @@ public class AdvancedLevelTest extends TestCase {
   /** This ensures that setUp() is not failing. */
   public void testNothing() {
     LanguageLevelVisitor llv = 
-      new LanguageLevelVisitor(new File(""), 
-                               "",
+      new LanguageLevelVisitor(new LanguageLevelConverter(),
+                               new File(""), "",
                                null,
                                new LinkedList<String>(), 
                                new LinkedList<String>(),
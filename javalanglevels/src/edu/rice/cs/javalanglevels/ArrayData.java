@@ -88,7 +88,8 @@ public class ArrayData extends SymbolData {
                              new VariableData[0],
                              new String[0], //Doesn't throw any exceptions!
                              this,
-                             null));                        
+                             null),
+              llv.errors);
     setIsContinuation(false);
   }
 
@@ -193,6 +194,9 @@ public class ArrayData extends SymbolData {
     * Test the methods in the enclosing class.  There is a test method corresponding to almost every method defined above.
     */
   public static class ArrayDataTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ArrayData _ad;
     
@@ -219,7 +223,7 @@ public class ArrayData extends SymbolData {
     public ArrayDataTest(String name) { super(name); }
     
     public void setUp() {
-      llv = new LanguageLevelVisitor(new File(""), 
+      llv = new LanguageLevelVisitor(_llc, new File(""), 
                                      "",
                                      null,
                                      new LinkedList<String>(), 
@@ -228,13 +232,13 @@ public class ArrayData extends SymbolData {
                                      new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                      new LinkedList<Command>());
       
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
       si = SourceInfo.NONE;
       SymbolData e = new SymbolData("elementType");
       e.setIsContinuation(false);
       _ad = new ArrayData(e, llv, si);
-      LanguageLevelVisitor.errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
     }
     
     public void testGetDimensions() {
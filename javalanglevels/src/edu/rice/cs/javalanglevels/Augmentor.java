@@ -55,43 +55,43 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   private static final int indentWidth = 2; // TODO: get this from DrJava?
 
   
-  /** IDIOCY Pointer:  Why are all these private fields static?  They are set in the constructor.  Was this design 
-    * choice made to ensure only one Augmentor exists at a time by clobbering fields.  Stupid, stupid, stupid. */
-  
   /** The original source file to be augmented. */
-  static private BufferedReader _fileIn;
+  private BufferedReader _fileIn;
   
   /** The current line number in _fileIn. */
-  static private int _fileInLine;
+  private int _fileInLine;
   
   /** The current column number in _fileIn.  This is the 1 greater than the last column read. */
-  static private int _fileInColumn;
+  private int _fileInColumn;
   
   /** The destination file. */
-  static private BufferedWriter _fileOut;
+  private BufferedWriter _fileOut;
   
   /** The current line number in _fileOut. */
-  static private int _fileOutLine;
+  private int _fileOutLine;
   
   /** The dj* line number to which the current line number in _fileOut corresponds. */
-  static private int _fileOutCorrespondingLine;
+  private int _fileOutCorrespondingLine;
 
   /** A map from original dj* line number to generated java line number. */
-  static private TreeMap<Integer,Integer> _lineNumberMap;
+  private TreeMap<Integer,Integer> _lineNumberMap;
   
   /** The symbol information from this source tree. */
-  static private LanguageLevelVisitor _llv;
+  private LanguageLevelVisitor _llv;
   
   /** If true, generated toString, hashCode, & equals methods should correctly handle arrays & infinitely recursive
     * structures */
-  static private boolean _safeSupportCode;
+  private boolean _safeSupportCode;
   
   /** A String of variable definitions to be written at the end of the top-level class definitions */
-  static private List<String> _endOfClassVarDefs;
+  private List<String> _endOfClassVarDefs;
   
   /** The SymbolData enclosing whatever we are currently augmenting.*/
   private SymbolData _enclosingData;
   
+  /** True iff we are currently augmenting the body of a method (rather than a class or interface body). */
+  private boolean _inMethodBody;
+  
   /** Main constructor for Augmentor: Used by the LanguageLevelConverter when converting language level files.
     * @param safeSupportCode  true if the user wants safe support code to be generated (this comes with a high overhead)
     * @param fileIn  A BufferedReader corresponding to the LanguageLevel file we should read from
@@ -111,13 +111,25 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     _endOfClassVarDefs = new LinkedList<String>();
     
     _enclosingData = null;
+    _inMethodBody = false;
   }
   
-  /** Create another Augmentor sharing the same static fields as the current Augmentor, but with a new _enclosingData d.
-    * This constructor should only be called from within another Augmentor.
-    * @param d  The EnclosingData from which this Augmentor works.
+  /** Augment the given body with _enclosingData set to d, restoring _enclosingData afterwards.
+    * @param body  The class, interface, or method body to augment
+    * @param d  The EnclosingData of the body
+    * @param inMethodBody  True iff body is a method body
     */
-  protected Augmentor(SymbolData d) { _enclosingData = d; }
+  private void _augmentBody(JExpressionIF body, SymbolData d, boolean inMethodBody) {
+    SymbolData oldEnclosingData = _enclosingData;
+    boolean oldInMethodBody = _inMethodBody;
+    _enclosingData = d;
+    _inMethodBody = inMethodBody;
+    try { body.visit(this); }
+    finally {
+      _enclosingData = oldEnclosingData;
+      _inMethodBody = oldInMethodBody;
+    }
+  }
   
   /** This method is called by default from cases that do not override forCASEOnly. */
   protected Void defaultCase(JExpressionIF that) { return null; } 
@@ -127,10 +139,15 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   
   /** Writes out implicit variableDeclarationModfiers that must be added to augmented file.  If no visibility modifier
     * is present, this method makes static fields "public final" and instance fields "private final".  If a visibility
-    * modifier is present, it overrides this default.  But all fields are forced to be "final".
+    * modifier is present, it overrides this default.  But all fields are forced to be "final".  Local variables in a
+    * method body are only made "final".
     * @param that is the field declaration being augmented
     */
   protected void augmentVariableDeclarationModifiers(VariableDeclaration that) {
+    if (_inMethodBody) {
+      _writeToFileOut("final ");
+      return;
+    }
     
     // make static fields public final, make instance fields private final
     StringBuilder modifierString = new StringBuilder();
@@ -207,8 +224,8 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     */
   public Void forAbstractMethodDef(AbstractMethodDef md) { forMethodDef(md); return null; }
   
-  /** Delegate the augmentation of this method def's declaration to forMethodDef.  Then, visit the body with a 
-    * MethodBodyAugmentor so that each piece of the body can be correctly augmented.
+  /** Delegate the augmentation of this method def's declaration to forMethodDef.  Then, augment the body as a 
+    * method body so that each piece of the body can be correctly augmented.
     * @param that  The ConcreteMethodDef being augmented.
     */
   public Void forConcreteMethodDef(ConcreteMethodDef that) {
@@ -224,12 +241,12 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
       throw new RuntimeException("Internal Program Error: Can't find method data for " + that.getName() + 
                                  " Please report this bug."); 
     }
-    that.getBody().visit(new MethodBodyAugmentor(enclosing));
+    _augmentBody(that.getBody(), enclosing, true);
     return null;
   }
   
   /** Class Defs can only appear at the top level of a source file.  If the class type is public but "public" does
-    * not appear as a visibility modifier, add it.  Visit the body of the class definition with a new Augmentor.  
+    * not appear as a visibility modifier, add it.  Visit the body of the class definition. 
     * Then, (so that this appears after the rest of the class body) add any necessary augmented methods.
     * @param cd  The ClassDef we're augmenting.
     */
@@ -260,7 +277,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     
     BracedBody bb = cd.getBody();
     sd.setAnonymousInnerClassNum(0);
-    bb.visit(new Augmentor(sd));
+    _augmentBody(bb, sd, false);
     
     int baseIndent = cd.getSourceInfo().getStartColumn() - 1;
     className = LanguageLevelVisitor.getUnqualifiedClassName(sd.getName());
@@ -309,7 +326,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     /** WARNING: the code suffix copied from ClassDef; it it works it should be refactored. */
     BracedBody bb = cd.getBody();
     sd.setAnonymousInnerClassNum(0);
-    bb.visit(new Augmentor(sd));
+    _augmentBody(bb, sd, false);
     
     int baseIndent = cd.getSourceInfo().getStartColumn() - 1;
     className = LanguageLevelVisitor.getUnqualifiedClassName(sd.getName());
@@ -342,7 +359,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   
 //    BracedBody bb = cd.getBody();
 //    sd.setAnonymousInnerClassNum(0);
-//    bb.visit(new Augmentor(sd));
+//    _augmentBody(bb, sd, false);
 //
 //    _readAndWriteThroughIndex(cd.getSourceInfo().getEndLine(), cd.getSourceInfo().getEndColumn() - 1);;
 //
@@ -369,7 +386,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 
     BracedBody bb = cd.getBody();
     sd.setAnonymousInnerClassNum(0);
-    bb.visit(new Augmentor(sd));
+    _augmentBody(bb, sd, false);
     
     int baseIndent = cd.getSourceInfo().getStartColumn() - 1;
     _readAndWriteThroughIndex(cd.getSourceInfo().getEndLine(), cd.getSourceInfo().getEndColumn() - 1);
@@ -385,7 +402,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     return null;
   }
 
-  /** Look up this inner interface in the enclosing data, and then visit its body with a new Augmentor.
+  /** Look up this inner interface in the enclosing data, and then visit its body.
     * No code augmentation is done since InnerInterfaces can only appear at the Advanced Level, and
     * we are not doing code augmentation at the Advanced Level.  If we were to start doing code augmentation 
     * at the Advanced level, this might need to change.
@@ -404,7 +421,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 
     BracedBody bb = cd.getBody();
     sd.setAnonymousInnerClassNum(0);
-    bb.visit(new Augmentor(sd));
+    _augmentBody(bb, sd, false);
     
     // We don't bother visiting any of the signature nodes -- parameters, type, name, etc.
     return null;
@@ -424,7 +441,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     }
     BracedBody bb = e.getBody();
     sd.setAnonymousInnerClassNum(0);
-    bb.visit(new Augmentor(sd));
+    _augmentBody(bb, sd, false);
     
     int baseIndent = e.getSourceInfo().getStartColumn() - 1;
     _readAndWriteThroughIndex(e.getSourceInfo().getEndLine(), e.getSourceInfo().getEndColumn() - 1);
@@ -484,7 +501,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   /** Convert the provided FormalParameter array into an array of TypeData corresponding
     * to the types of the FormalParameters.
     */
-  protected static TypeData[] formalParameters2TypeDatas(FormalParameter[] fps, SymbolData enclosing) { 
+  protected TypeData[] formalParameters2TypeDatas(FormalParameter[] fps, SymbolData enclosing) { 
     TypeData[] tds = new TypeData[fps.length];
     int j = 0;
     for (FormalParameter fp: fps) {
@@ -510,7 +527,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param sd  The method's enclosing class.
    * @param baseIndent  The base indent level (number of spaces).
    */
-  protected static void writeConstructor(String className, SymbolData sd, int baseIndent) {
+  protected void writeConstructor(String className, SymbolData sd, int baseIndent) {
     // Find the constructor.  There should be at most one that we generated, so select that one.
     MethodData constructor = null;
     for (MethodData currMd : sd.getMethods()) {
@@ -585,7 +602,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param sd  The method's enclosing class.
    * @param baseIndent  The base indent level (number of spaces).
    */
-  protected static void writeAccessors(SymbolData sd, int baseIndent) {
+  protected void writeAccessors(SymbolData sd, int baseIndent) {
     // Find the accessor methods and generate them if we had to create them ourselves.
     LinkedList<MethodData> methods = sd.getMethods();
     MethodData accessor = null;
@@ -620,7 +637,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param baseIndent  The base indent level (number of spaces).
    * @param valueToStringName  The name of the generated valueToString method
    */
-  protected static void writeToString(SymbolData sd, int baseIndent, String valueToStringName) {
+  protected void writeToString(SymbolData sd, int baseIndent, String valueToStringName) {
     LinkedList<MethodData> methods = sd.getMethods();
     MethodData toString = null;
     Iterator<MethodData> iter = methods.iterator();
@@ -642,7 +659,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
     
   /** Helper to writeToString; writes a toString that handles infinitely-recursive data structures. */
-  protected static void writeSafeToString(SymbolData sd, int baseIndent, String valueToStringName, 
+  protected void writeSafeToString(SymbolData sd, int baseIndent, String valueToStringName, 
                                           MethodData[] accessors) {
     
     String flagName = sd.createUniqueName("__toStringFlag");
@@ -695,7 +712,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
   
   /** Helper to writeToString; writes a short toString that does not handle infinitely-recursive data structures. */
-  protected static void writeSimpleToString(SymbolData sd, int baseIndent, String valueToStringName,
+  protected void writeSimpleToString(SymbolData sd, int baseIndent, String valueToStringName,
                                             MethodData[] accessors) {
     
     _writeToFileOut(newLine + indentString(baseIndent, 1) + 
@@ -724,7 +741,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param baseIndent  The base indent level (number of spaces).
    * @param valueEqualsName  The name of the generated valueEquals method
    */
-  protected static void writeEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName) {
+  protected void writeEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName) {
     LinkedList<MethodData> methods = sd.getMethods();
     MethodData equals = null;
     Iterator<MethodData> iter = methods.iterator();
@@ -747,7 +764,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
     
   /** Helper to writeEquals; writes an equals that handles infinitely-recursive data structures. */
-  protected static void writeSafeEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName, 
+  protected void writeSafeEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName, 
                                         MethodData[] accessors) {
     
     String listName = sd.createUniqueName("__equalsList");
@@ -815,7 +832,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
   
   /** Helper to writeEquals; writes a simple equals that does not handle infinitely-recursive data structures. */
-  protected static void writeSimpleEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName, 
+  protected void writeSimpleEquals(String className, SymbolData sd, int baseIndent, String valueEqualsName, 
                                           MethodData[] accessors) {
     
     _writeToFileOut(newLine + indentString(baseIndent, 1) + 
@@ -861,7 +878,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   /** 
    * AnonymousClasses are only equal if they are identical. 
    */
-  protected static void writeAnonEquals(int baseIndent) {
+  protected void writeAnonEquals(int baseIndent) {
     
     _writeToFileOut(newLine + indentString(baseIndent, 1) + 
                     "/** This method is automatically generated by the Language Level Converter. */" + newLine);
@@ -882,7 +899,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    *                       by adding them to _endOfClassVarDefs.
    * @param valueHashCodeName  The name of the generated valueHashCode method
    */
-  protected static void writeHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
+  protected void writeHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
                                       String valueHashCodeName) {
     LinkedList<MethodData> methods = sd.getMethods();
     MethodData hashCode = null;
@@ -915,7 +932,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param valueHashCodeName  The name of the generated valueHashCode method
    * @param accessors  An Array of the MethodDatas corresponding to the accessors for this class.
    */
-  protected static void writeSafeHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
+  protected void writeSafeHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
                                           String valueHashCodeName, MethodData[] accessors) {
     
     String listName = "__hashCodeList";
@@ -986,7 +1003,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param valueHashCodeName  The name of the generated valueHashCode method
    * @param accessors  An Array of the MethodDatas corresponding to the accessors for this class.
    */
-  protected static void writeSimpleHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
+  protected void writeSimpleHashCode(String className, SymbolData sd, int baseIndent, boolean waitForVarDef, 
                                             String valueHashCodeName, MethodData[] accessors) {
     
     _writeToFileOut(newLine + indentString(baseIndent, 1) + 
@@ -1023,7 +1040,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * 
    * @return  The name of the generated valueToString method (__valueToString by default).
    */
-  private static String writeValueToString(SymbolData sd, int baseIndent) {
+  private String writeValueToString(SymbolData sd, int baseIndent) {
     String methodName = sd.createUniqueMethodName("__valueToString");
     if (_safeSupportCode) { writeSafeValueToString(sd, baseIndent, methodName); }
     return methodName;
@@ -1035,7 +1052,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param methodName  The name of the generated valueToString method (__valueToString by default).
    */
 
-  private static void writeSafeValueToString(SymbolData sd, int baseIndent, String methodName) {
+  private void writeSafeValueToString(SymbolData sd, int baseIndent, String methodName) {
     String[] primitiveTypes = new String[]{"byte[]", "short[]", "char[]", "int[]", "long[]", "float[]", "double[]",
       "boolean[]"};
     boolean useGenerics = true;
@@ -1140,7 +1157,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * @param sd  The method's enclosing class.
    * @param baseIndent  The base indent level (number of spaces).
    */
-  private static void writeSimpleValueToString(SymbolData sd, int baseIndent, String methodName) {
+  private void writeSimpleValueToString(SymbolData sd, int baseIndent, String methodName) {
     _writeToFileOut(newLine);
     _writeToFileOut(indentString(baseIndent, 1) + "/**" + newLine);
     _writeToFileOut(indentString(baseIndent, 1) + 
@@ -1164,7 +1181,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
    * 
    * @return  The name of the generated valueEquals method (__valueEquals by default).
    */
-  private static String writeValueEquals(SymbolData sd, int baseIndent) {
+  private String writeValueEquals(SymbolData sd, int baseIndent) {
     String methodName = sd.createUniqueMethodName("__valueEquals");
     if (_safeSupportCode) { writeSafeValueEquals(sd, baseIndent, methodName); }
 //    else { writeSimpleValueEquals(sd, baseIndent, methodName); }
@@ -1172,7 +1189,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
   
   /** Helper to writeValueEquals; writes a valueEquals that correctly handles arbitrary arrays. */
-  private static void writeSafeValueEquals(SymbolData sd, int baseIndent, String methodName) {
+  private void writeSafeValueEquals(SymbolData sd, int baseIndent, String methodName) {
     String[] primitiveTypes = new String[]{"byte[]", "short[]", "char[]", "int[]", "long[]", "float[]", "double[]", 
       "boolean[]"};
     boolean useGenerics = true;
@@ -1295,7 +1312,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   /** Helper to writeValueEquals; writes a simple valueEquals that does not handle arrays. 
    *  NOTE: This is currently unused.  For the simple case, no valueEquals method is generated.
    */
-  private static void writeSimpleValueEquals(SymbolData sd, int baseIndent, String methodName) {
+  private void writeSimpleValueEquals(SymbolData sd, int baseIndent, String methodName) {
     _writeToFileOut(newLine);
     _writeToFileOut(indentString(baseIndent, 1) + "/**" + newLine);
     _writeToFileOut(indentString(baseIndent, 1) + 
@@ -1319,7 +1336,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     * 
     * @return  The name of the generated valueHashCode method (__valueHashCode by default).
     */
-  private static String writeValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName) {
+  private String writeValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName) {
     String methodName = sd.createUniqueMethodName("__valueHashCode");
     if (_safeSupportCode) { writeSafeValueHashCode(sd, baseIndent, valueEqualsName, methodName); }
 //    else { writeSimpleValueHashCode(sd, baseIndent, valueEqualsName, methodName); }
@@ -1327,7 +1344,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   }
   
   /** Helper to writeValueHashCode; writes a valueHashCode that correctly handles arbitrary arrays. */
-  private static void writeSafeValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName, String methodName) {
+  private void writeSafeValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName, String methodName) {
     String[] primitiveTypes =
       new String[]{"byte[]", "short[]", "char[]", "int[]", "long[]", "float[]", "double[]", "boolean[]"};
     boolean useGenerics = true;
@@ -1435,7 +1452,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   /** Helper to writeValueHashCode; writes a valueHashCode that does not handle arrays. 
    *  NOTE: This is currently unused.  For the simple case, no valueHashCode method is generated.
    */
-  private static void writeSimpleValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName, 
+  private void writeSimpleValueHashCode(SymbolData sd, int baseIndent, String valueEqualsName, 
                                                String methodName) {
     _writeToFileOut(newLine);
     _writeToFileOut(indentString(baseIndent, 1) + "/**" + newLine);
@@ -1465,7 +1482,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 //  private static boolean _isIntermediateFile() { return LanguageLevelConverter.isIntermediateFile(_llv._file); }
 //  private static boolean _isAdvancedFile()     { return LanguageLevelConverter.isAdvancedFile(_llv._file); }
   
-  private static LinkedList<MethodData> _getVariableAccessorListHelper(SymbolData currClass) {
+  private LinkedList<MethodData> _getVariableAccessorListHelper(SymbolData currClass) {
     List<Pair<VariableData, MethodData>> accessorMappings = new Vector<Pair<VariableData, MethodData>>();
     LinkedList<SymbolData> classes = new LinkedList<SymbolData>();
     classes.add(currClass);
@@ -1497,8 +1514,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
       VariableData vd = accessorMappings.get(i).getFirst();
       MethodData md = accessorMappings.get(i).getSecond();
       boolean canSeeMethod =
-        TypeChecker.checkAccess(new NullLiteral(SourceInfo.NONE), md.getMav(), md.getName(), 
-                                       md.getSymbolData(), currClass, "method", false);
+        TypeChecker.checkAccess(md.getMav(), md.getSymbolData(), currClass);
       //TODO: it is okay to throw Runtime exceptions or Errors) {
       if (canSeeMethod && (! md.hasModifier("static")) && md.getThrown().length == 0 &&
           vd.getType().getSymbolData().isAssignableTo(md.getReturnType(), true)) {
@@ -1517,7 +1533,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     * @param line The line number to read through.
     * @param column The column to read to (or 0 to read to through the end of the previous line).
     */
-  private static String _readThroughIndex(int line, int column) {
+  private String _readThroughIndex(int line, int column) {
     if (_fileInLine > line || (_fileInLine == line && _fileInColumn - 1 > column)) {
       throw new RuntimeException("Internal Program Error: Attempt to read in " + _llv._file.getName() + 
                                  " at a point that is already past: line " + line + ", column " + column + 
@@ -1563,18 +1579,18 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     * @param line The line number to read through.
     * @param column The column to read to (or 0 to read to through the end of the previous line).
     */
-  private static void _readAndWriteThroughIndex(int line, int column) {
+  private void _readAndWriteThroughIndex(int line, int column) {
     String text = _readThroughIndex(line, column);
     _writeToFileOut(text, true); // yes, writing straight from input
   }
   
-  private static void _writeToFileOut(String s) { _writeToFileOut(s, false); }
+  private void _writeToFileOut(String s) { _writeToFileOut(s, false); }
   
   /** Write the string to _fileOut. If fromInput is true, the string is coming straight from the input file,
     * which means the corresponding line number should be incremented as well.
     * @param s The string to write.
     * @param fromInput true if the corresponding line number should be incremented as well */
-  private static void _writeToFileOut(String s, boolean fromInput) {
+  private void _writeToFileOut(String s, boolean fromInput) {
     try {
       String[] lines = s.split(newLine, -1);
       for(int i=0; i<lines.length-1; ++i) {
@@ -1597,7 +1613,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     * @param line The line number to read through.
     * @param column The column to read to (or 0 to read to through the end of the previous line).
     */
-  private static String _peek(int line, int column) {
+  private String _peek(int line, int column) {
     
     try {
       _fileIn.mark(LanguageLevelConverter.INPUT_BUFFER_SIZE);
@@ -1617,25 +1633,19 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
   /** Returns a copy of the line number map that maps original dj* line numbers
     * to generated java line numbers.
     * @return copy of line number map */
-  public static SortedMap<Integer,Integer> getLineNumberMap() {
+  public SortedMap<Integer,Integer> getLineNumberMap() {
     return new TreeMap<Integer,Integer>(_lineNumberMap);
   }
   
-  public static class MethodBodyAugmentor extends Augmentor {
-    
-    /** Mandatory forwarding constructor. */
-    protected MethodBodyAugmentor(SymbolData enclosing) { super(enclosing); }
-    
-    /** Writes out implicit variableDeclarationModfiers that must be added to augmented file. */
-    protected void augmentVariableDeclarationModifiers(VariableDeclaration that) { _writeToFileOut("final "); }
-  }
-  
   public static class Exception extends RuntimeException {
     public Exception(java.lang.Exception nested) { super(nested); }
   }
   
   /** Test class for the Augmentor class. */
   public static class AugmentorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
 
     public AugmentorTest() {
       this("");
@@ -1645,25 +1655,24 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
     }
     
     private Augmentor _a;
-    private Symboltable _s = LanguageLevelConverter.symbolTable; // Define a short synonym
+    private Symboltable _s = symbolTable; // Define a short synonym
     private File _f = new File("");
     
     public void setUp() {
       LanguageLevelVisitor llv =
-        new IntermediateVisitor(_f, 
-                                new LinkedList<Pair<String, JExpressionIF>>(), 
+        new IntermediateVisitor(_llc, _f, 
                                 new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                 new LinkedList<Command>(),
                                 new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
       _a = new Augmentor(true, null, null, llv);
-      LanguageLevelConverter.symbolTable.clear();
-      Symboltable _s = LanguageLevelConverter.symbolTable;   
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      symbolTable.clear();
+      Symboltable _s = symbolTable;   
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
     }
 
     public void testFormalParameters2TypeDatas() {
       FormalParameter[] fp = new FormalParameter[0];
-      TypeData[] result = formalParameters2TypeDatas(fp, _a._enclosingData);
+      TypeData[] result = _a.formalParameters2TypeDatas(fp, _a._enclosingData);
       assertEquals("The result is empty", 0, result.length);
       
       PrimitiveType intt = new PrimitiveType(SourceInfo.NONE, "int");
@@ -1683,7 +1692,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
       _s.put("java.lang.String", stringData);
 
       fp = new FormalParameter[]{ param, param2 };
-      result = formalParameters2TypeDatas(fp, _a._enclosingData);
+      result = _a.formalParameters2TypeDatas(fp, _a._enclosingData);
       assertTrue("Arrays should be equal", 
                  LanguageLevelVisitor.arrayEquals(result, new TypeData[]{ intData, stringData }));
       
@@ -1699,7 +1708,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
       inner.setIsContinuation(false);
       _a._enclosingData = new SymbolData("me");
       _a._enclosingData.addInnerClass(inner);
-      result = formalParameters2TypeDatas(fp, _a._enclosingData);
+      result = _a.formalParameters2TypeDatas(fp, _a._enclosingData);
       assertTrue("Arrays should be equal", LanguageLevelVisitor.arrayEquals(result, new TypeData[] {inner}));
     }
 
@@ -1715,7 +1724,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 //                                   new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(), 
 //                                   new Hashtable<SymbolData, LanguageLevelVisitor>());
 //      assertTrue("This is an elementary file", _isElementaryFile());
-//      _llv = new IntermediateVisitor(new File("intermediate.dj1"), 
+//      _llv = new IntermediateVisitor(_llc, new File("intermediate.dj1"), 
 //                                     new LinkedList<Pair<String, JExpressionIF>>(), _s, 
 //                                     new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
 //                                     new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(),
@@ -1742,7 +1751,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 //                                   new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(),
 //                                   new Hashtable<SymbolData, LanguageLevelVisitor>());
 //      assertFalse("This is an elementary file", _isIntermediateFile());
-//      _llv = new IntermediateVisitor(new File("intermediate.dj1"),
+//      _llv = new IntermediateVisitor(_llc, new File("intermediate.dj1"),
 //                                     new LinkedList<Pair<String, JExpressionIF>>(), _s,
 //                                     new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
 //                                     new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(),
@@ -1769,7 +1778,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
 //                                   new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(),
 //                                   new Hashtable<SymbolData, LanguageLevelVisitor>());
 //      assertFalse("This is an elementary file", _isAdvancedFile());
-//      _llv = new IntermediateVisitor(new File("intermediate.dj1"), 
+//      _llv = new IntermediateVisitor(_llc, new File("intermediate.dj1"), 
 //                                     new LinkedList<Pair<String, JExpressionIF>>(), _s, 
 //                                     new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(), 
 //                                     new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>(), 
@@ -1804,7 +1813,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
                                             new VariableData[0], 
                                             new String[0], texas, 
                                             new NullLiteral(SourceInfo.NONE));
-      texas.addMethod(lone_star); 
+      texas.addMethod(lone_star, errors); 
 
       //no gettor for cool, therefore, it should not be returned.
       //NOTE: gettor might be best spelled "getter", but whoever is typing believes it should be spelled this way.
@@ -1818,7 +1827,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
                                             new VariableData[0], 
                                             new String[0], texas, 
                                             new NullLiteral(SourceInfo.NONE));
-      texas.addMethod(armadillo);
+      texas.addMethod(armadillo, errors);
       
       // Now add a field badRoad to Houston.  Its gettor returns a supertype of its type, so it is okay to call.  
       // Will be returned.
@@ -1829,12 +1838,12 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
                                           new VariableData[0], 
                                           new String[0], houston, 
                                           new NullLiteral(SourceInfo.NONE));
-      houston.addMethod(badRoad);
+      houston.addMethod(badRoad, errors);
       
       LinkedList<MethodData> expected = new LinkedList<MethodData>();
       expected.add(badRoad);
       expected.add(lone_star);
-      LinkedList<MethodData> actual = _getVariableAccessorListHelper(houston);
+      LinkedList<MethodData> actual = _a._getVariableAccessorListHelper(houston);
 //      for(MethodData m : actual)
 //        System.out.println(m.getName());
       assertEquals("Should return the right list of gettors", expected, actual);
@@ -1842,7 +1851,7 @@ public class Augmentor extends JExpressionIFDepthFirstVisitor<Void> {
       
       //if there aren't any fields or methods, that's still okay!
       SymbolData soLonely = new SymbolData("I have no fields!");
-      assertEquals("Should return an empty list", 0, _getVariableAccessorListHelper(soLonely).size());
+      assertEquals("Should return an empty list", 0, _a._getVariableAccessorListHelper(soLonely).size());
     }
     
   }
@@ -56,6 +56,7 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
   private BodyData _bodyData;
   
   /** Preferred constructor for BodyBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param bodyData  The BodyData that encloses the context we are visiting.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -68,8 +69,8 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
     * @param innerClassesInThisBody  A list of the names of the inner classes in the enclosing class
     * @param genericTypes  A table mapping the generic type names that are in scope to their bounds
     */
-  public BodyBodyFullJavaVisitor(BodyData bodyData,
-                                 File file, 
+  public BodyBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                 BodyData bodyData, File file,
                                  String packageName,
                                  String enclosingClassName,
                                  LinkedList<String> importedFiles, 
@@ -79,8 +80,8 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
                                  LinkedList<Command> fixUps,
                                  HashSet<String> innerClassesInThisBody,
                                  HashMap<String, SymbolData> genericTypes) { 
-    super(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, 
-          fixUps, genericTypes);
+    super(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile,
+          continuations, fixUps, genericTypes);
     
     _bodyData = bodyData;
     
@@ -92,6 +93,7 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
    
   
   /** Legacy Constructor for BodyBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param bodyData  The BodyData that encloses the context we are visiting.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -102,8 +104,8 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
     *                       be resolved
     * @param fixUps  A list of commands to be performed after this pass to fixup the symbolTable
     */
-  public BodyBodyFullJavaVisitor(BodyData bodyData,
-                                 File file, 
+  public BodyBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                 BodyData bodyData, File file,
                                  String packageName,
                                  String enclosingClassName,
                                  LinkedList<String> importedFiles, 
@@ -112,7 +114,8 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
                                  Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                  LinkedList<Command> fixUps,
                                  HashSet<String> innerClassesInThisBody) {
-    super(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
+    super(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile,
+          continuations, fixUps);
     _bodyData = bodyData;
     
     SymbolData objectSD = symbolTable.get("java.lang.Object");   
@@ -137,7 +140,8 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
     if (prune(that)) return null;
     BlockData bd = new BlockData(_bodyData);
     _bodyData.addBlock(bd);
-    that.getStatements().visit(new BodyBodyFullJavaVisitor(bd, _file, _package, _enclosingClassName, _importedFiles, 
+    that.getStatements().visit(new BodyBodyFullJavaVisitor(_llc, bd, _file, _package, _enclosingClassName,
+                                                           _importedFiles, 
                                                            _importedPackages, _classesInThisFile, continuations, fixUps,
                                                            new HashSet<String>(), _genericTypes));
     return forBlockOnly(that);
@@ -160,7 +164,7 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
     bd.addVar(exceptionVar);
     
     BodyBodyFullJavaVisitor bbfjv = 
-      new BodyBodyFullJavaVisitor(bd, _file, _package, _enclosingClassName, _importedFiles,
+      new BodyBodyFullJavaVisitor(_llc, bd, _file, _package, _enclosingClassName, _importedFiles,
                                   _importedPackages, _classesInThisFile, continuations, fixUps,
                                   new HashSet<String>(), _genericTypes);
     b.getStatements().visit(bbfjv);
@@ -235,6 +239,9 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
 
   /** Test most of the methods declared above right here. */
   public static class BodyBodyFullJavaVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private BodyBodyFullJavaVisitor _bfv;
     
@@ -264,14 +271,13 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
                                    _sd1,
                                    null);
 
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
       // Use _sd1 for _enclosingClassName
-      LanguageLevelConverter.symbolTable.put("i.like.monkey", _sd1);
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      symbolTable.put("i.like.monkey", _sd1);
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
-      _bfv = new BodyBodyFullJavaVisitor(_md1, 
+      _bfv = new BodyBodyFullJavaVisitor(_llc, _md1, 
                                          new File(""), 
                                          "",
                                          "i.like.monkey",
@@ -286,7 +292,7 @@ public class BodyBodyFullJavaVisitor extends FullJavaVisitor {
       _bfv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
 //      _bfv._resetNonStaticFields();  // clobbers _package and _enclosingClassName
       _bfv._importedPackages.addFirst("java.lang");
-      _errorAdded = false;
+      _llc._errorAdded = false;
       _sd1.setIsContinuation(false);
       _sd1.setInterface(false);
       _sd1.setPackage("");
@@ -55,6 +55,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
   private BodyData _bodyData;
   
   /** Constructor for BodyBodyElementaryVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param bodyData  The BodyData that encloses the context we are visiting.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -65,8 +66,8 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
     *                       to be resolved
     * @param fixUps  A list of commands to be performed after this pass to fixup the symbolTable
     */
-  public BodyBodyIntermediateVisitor(BodyData bodyData,
-                                     File file, 
+  public BodyBodyIntermediateVisitor(LanguageLevelConverter llc,
+                                     BodyData bodyData, File file,
                                      String packageName, 
                                      String enclosingClassName,
                                      LinkedList<String> importedFiles, 
@@ -75,7 +76,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
                                      Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                      LinkedList<Command> fixUps,
                                      HashSet<String> innerClassesInThisBody) {
-    super(file, 
+    super(llc, file, 
           packageName,
           enclosingClassName,
           importedFiles, 
@@ -111,7 +112,8 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
     // The following code is incomprehensible.  Why mutate _bodyData?  Why create bd?
     BlockData bd = new BlockData(_bodyData);
     _bodyData.addBlock(bd);
-    that.getStatements().visit(new BodyBodyIntermediateVisitor(bd, _file, _package, _enclosingClassName, _importedFiles,
+    that.getStatements().visit(new BodyBodyIntermediateVisitor(_llc, bd, _file, _package, _enclosingClassName,
+                                                               _importedFiles,
                                                                _importedPackages, _classesInThisFile, continuations, 
                                                                fixUps, new HashSet<String>()));
     return forBlockOnly(that);
@@ -140,7 +142,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
     
 //    System.err.println("Visiting augmented catch block with new visitor!");
     BodyBodyIntermediateVisitor bbijv = 
-      new BodyBodyIntermediateVisitor(bd, _file, _package, _enclosingClassName, _importedFiles,
+      new BodyBodyIntermediateVisitor(_llc, bd, _file, _package, _enclosingClassName, _importedFiles,
                                       _importedPackages, _classesInThisFile, continuations, fixUps,
                                       new HashSet<String>());
     b.getStatements().visit(bbijv);
@@ -244,6 +246,9 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
   
   /** Test most of the methods declared above right here: */
   public static class BodyBodyIntermediateVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private BodyBodyIntermediateVisitor _bbv;
     
@@ -277,15 +282,14 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
                             _sd1,
                             null);
 
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.symbolTable.put("ILikeMonkey", _sd1);
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      symbolTable.put("ILikeMonkey", _sd1);
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
       
       _bbv = 
-        new BodyBodyIntermediateVisitor(_md1, 
+        new BodyBodyIntermediateVisitor(_llc, _md1, 
                                         new File(""), 
                                         "", 
                                         "ILikeMonkey", 
@@ -302,7 +306,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
       _bbv._importedPackages.addFirst("java.lang");
       _sd1.setSuperClass(_bbv.getQualifiedSymbolData("java.lang.Object"));
 
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void testForMethodDefDoFirst() {
@@ -363,7 +367,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
 //    public void testForOtherExpressionOnly() {
 //      // Test that if the OtherExpressino contains a Word, that the Word is resolved.
 //      assertFalse("java.lang.System should not be in the symbolTable.", 
-//                  LanguageLevelConverter.symbolTable.containsKey("java.lang.System"));
+//                  symbolTable.containsKey("java.lang.System"));
 //      Expression ex = 
 //        new Expression( SourceInfo.NONE,
 //                       new ExpressionPiece[] { new OtherExpression(SourceInfo.NONE, 
@@ -374,7 +378,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
 ////        System.out.println(errors.get(i).getFirst());
 //      assertEquals("There should not be any errors.", 0, errors.size());
 //      assertTrue("java.lang.System should be in the symbolTable.", 
-//                 LanguageLevelConverter.symbolTable.containsKey("java.lang.System"));
+//                 symbolTable.containsKey("java.lang.System"));
 //    }
     
     /** Generate a block containing a bitwise or operation and the specified SourceInfo si.   Note: we need
@@ -481,7 +485,7 @@ public class BodyBodyIntermediateVisitor extends IntermediateVisitor {
      
       // Test a local inner class definition and reference
       SymbolData obj = new SymbolData("ILikeMonkey");
-      LanguageLevelConverter.symbolTable.put("ILikeMonkey", obj);
+      symbolTable.put("ILikeMonkey", obj);
       InnerClassDef cd0 = 
         new InnerClassDef(SourceInfo.NONE, 
                           _packageMav, 
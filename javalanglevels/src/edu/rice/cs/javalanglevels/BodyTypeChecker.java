@@ -54,6 +54,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
   
   /** Constructor for BodyTypeChecker.  Calls the super constructor for everything except bodyData, which we store here
     * in order to have the proper type at compile time.  (SpecialTypeChecker stores it as a Data).
+    * @param llc  The conversion being type checked
     * @param bodyData  The enclosing BodyData for the context we are type checking.
     * @param file      The File corresponding to the source file.
     * @param packageName  The package name from the source file.
@@ -65,10 +66,11 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     *              variable before it has been defined).
     * @param thrown  The list of exceptions thrown in this body
     */
-  public BodyTypeChecker(BodyData bodyData, File file, String packageName, LinkedList<String> importedFiles, 
+  public BodyTypeChecker(LanguageLevelConverter llc, BodyData bodyData, File file, String packageName,
+                         LinkedList<String> importedFiles, 
                          LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
                          LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
+    super(llc, bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
     _bodyData = bodyData;
   }
   
@@ -93,7 +95,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                                    LinkedList<String> importedPackages, 
                                                    LinkedList<VariableData> vars, 
                                                    LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    return new BodyTypeChecker(bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
+    return new BodyTypeChecker(_llc, bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
   }
   
   /* There is currently no way to differentiate between a block statement and
@@ -169,7 +171,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     */
   public TypeData forValueReturnStatement(ValueReturnStatement that) {
     ExpressionTypeChecker etc = 
-      new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
     TypeData valueRes = that.getValue().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
     return forValueReturnStatementOnly(that, valueRes);
@@ -233,7 +235,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     final TypeData init_result = that.getInit().visit(btc);
     
     ExpressionTypeChecker etc = 
-      new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, btc._vars, _thrown);
+      new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles, _importedPackages, btc._vars, _thrown);
     final TypeData condition_result = that.getCondition().visit(etc);
     btc.thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
     final TypeData update_result = that.getUpdate().visit(btc);
@@ -281,8 +283,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
 
     // Update what has been assigned here with results from test expression, because any variables it sees or assigns 
     // will be visible in the rest of the body.
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, 
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData testExpression_result = that.getTestExpression().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
 
@@ -332,8 +334,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     
     // Update list of what has been assigned with one from test expression, because any variables it sees or assigns 
     // will be visible in the rest of the body.
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, 
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData testExpression_result = that.getTestExpression().visit(etc);
     thingsThatHaveBeenAssigned = etc.thingsThatHaveBeenAssigned;
     
@@ -412,8 +414,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     // Visit the condition expression with an expression type checker and
     // then update list of what was assigned, because it will always be visited so it is in the same scope as the 
     // enclosing body.
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, 
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData condition_result = that.getCondition().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
 
@@ -467,7 +469,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     // Visit the condition statement with a new ExpressionTypeChecker, then update the thingsThatHaveBeenAssigned list, 
     // since it is in the same scope as the body.
     ExpressionTypeChecker etc = 
-      new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
     final TypeData condition_result = that.getCondition().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
 
@@ -500,8 +502,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     exp.visit(new NoAssignmentAllowedInExpression("the switch expression of a switch statement"));
 
     //Visit the test with this visitor, because it is in the scope of the method
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, 
-                                                          _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData testRes = that.getTest().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
     
@@ -603,7 +605,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
      * char.  Then delegate to the super class to handle the braced body of the switch case. */
    public TypeData forLabeledCase(LabeledCase that) {
      ExpressionTypeChecker etc = 
-       new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+       new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
     final TypeData label_result = that.getLabel().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
     Expression exp = that.getLabel();
@@ -840,7 +842,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
   public TypeData forTryCatchFinallyStatement(TryCatchFinallyStatement that) {
     
     BodyTypeChecker btc = 
-      new TryCatchBodyTypeChecker(_bodyData, _file, _package, _importedFiles, _importedPackages, 
+      new TryCatchBodyTypeChecker(_llc, _bodyData, _file, _package, _importedFiles, _importedPackages, 
                                   cloneVariableDataList(_vars), new LinkedList<Pair<SymbolData, JExpression>>());
     final TypeData tryBlockRes = that.getTryBlock().visit(btc);
 
@@ -938,7 +940,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
   /*no finally block*/
   public TypeData forNormalTryCatchStatement(NormalTryCatchStatement that) {
     BodyTypeChecker btc = 
-      new TryCatchBodyTypeChecker(_bodyData, _file, _package, _importedFiles, _importedPackages, 
+      new TryCatchBodyTypeChecker(_llc, _bodyData, _file, _package, _importedFiles, _importedPackages, 
                                   cloneVariableDataList(_vars), new LinkedList<Pair<SymbolData, JExpression>>());
     final TypeData tryBlockRes = that.getTryBlock().visit(btc);
     unassignVariableDatas(btc.thingsThatHaveBeenAssigned);
@@ -1004,6 +1006,9 @@ public class BodyTypeChecker extends SpecialTypeChecker {
   
    /** Test the methods in the above class. */
   public static class BodyTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private BodyTypeChecker _bbtc;
     
@@ -1060,18 +1065,18 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                             null); // no SourceInfo);
        ((MethodData)_bd2).getParams()[0].setEnclosingData(_bd2);
                             
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
       symbolTable.clear();
-      _newSDs.clear();  // Refers to LanguageLevelConverter.  Why are we doing this?
+      _llc._newSDs.clear();  // Why are we doing this?
       
-      loadSymbolTable();
+      _llc.loadSymbolTable();
 //      System.err.println("Boolean Type is " + symbolTable.get("java.lang.Boolean"));
       _bd1.addEnclosingData(_sd1);
       _bd1.addVars(((MethodData)_bd1).getParams());
       _bd2.addVars(((MethodData)_bd2).getParams());
-      _bbtc = new BodyTypeChecker(_bd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
+      _bbtc = new BodyTypeChecker(_llc, _bd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
                                   new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData,JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _bbtc._importedPackages.addFirst("java.lang");
     }
     
@@ -1403,8 +1408,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       LinkedList<VariableData> vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       
@@ -1430,8 +1435,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
 
@@ -1478,8 +1483,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       
@@ -1489,7 +1494,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       assertTrue("vd1 should be assigned", vd1.hasValue());
       assertFalse("vd2 should not be assigned", vd2.hasValue());
       assertEquals("There should be no errors", 0, errors.size());
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
       
       // Test that an assignment in the if-expression throws an error
       te = new LessThanExpression(SourceInfo.NONE, new SimpleNameReference(SourceInfo.NONE, new Word(SourceInfo.NONE, "j")),
@@ -1522,8 +1527,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       
@@ -1593,8 +1598,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       LinkedList<VariableData> vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;      
       
@@ -1636,8 +1641,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1663,8 +1668,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1711,8 +1716,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1721,7 +1726,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       assertTrue("vd1 should be assigned", vd1.hasValue());
       assertFalse("vd2 should not be assigned", vd2.hasValue());
       assertEquals("There should be no errors", 0, errors.size());
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
 
       //test that if a variable is assigned in the then case that it cannot be used in the else case.
       te = new LessThanExpression(SourceInfo.NONE, new SimpleNameReference(SourceInfo.NONE, new Word(SourceInfo.NONE, "j")),
@@ -1765,8 +1770,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1812,8 +1817,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1859,8 +1864,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1901,8 +1906,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -1963,8 +1968,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       LinkedList<VariableData> vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;      
 
@@ -2006,8 +2011,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, 
-                                  new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       
@@ -2049,7 +2054,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;      
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2086,7 +2092,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;      
       
@@ -2121,7 +2128,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       
@@ -2163,7 +2171,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       LinkedList<VariableData> vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2190,7 +2199,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2222,7 +2232,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2313,7 +2324,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       LinkedList<VariableData> vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2340,7 +2352,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2370,7 +2383,8 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       vars = new LinkedList<VariableData>();
       vars.addLast(vd1);
       vars.addLast(vd2);
-      _bbtc = new BodyTypeChecker(md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles, _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
+      _bbtc = new BodyTypeChecker(_llc, md1, _bbtc._file, _bbtc._package, _bbtc._importedFiles,
+                                  _bbtc._importedPackages, vars, new LinkedList<Pair<SymbolData, JExpression>>());
       _bbtc._bodyData = md1;
       _bbtc._data = md1;
       _bbtc._bodyData.addBlock(new BlockData(_bbtc._bodyData));
@@ -2691,7 +2705,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       FormalParameter fp3 = new FormalParameter(SourceInfo.NONE, uvd3, false);
       
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "", 
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -2700,9 +2714,9 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded=false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = new Symboltable();
+      errors.clear();
+      _llc._errorAdded=false;
+//      symbolTable = llv.symbolTable = new Symboltable();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -2758,7 +2772,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     }
     
     public void testtryCatchLeastCommonType() {
-      SymbolData objectSymbol = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData objectSymbol = symbolTable.get("java.lang.Object");
 
       InstanceData[] sdArray = new InstanceData[] { 
         SymbolData.BYTE_TYPE.getInstanceData(), 
@@ -2788,7 +2802,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                                       sdArray, 
                                                       SymbolData.SHORT_TYPE.getInstanceData()));
       
-      SymbolData sd2 = LanguageLevelConverter.symbolTable.get("java.lang.String");
+      SymbolData sd2 = symbolTable.get("java.lang.String");
 //      sd.setIsContinuation(false);
 //      sd2.setIsContinuation(false);
 //      symbolTable.put("java.lang.Object", sd);
@@ -2820,7 +2834,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       _bbtc._importedFiles.addLast("java.io.IOException");
       // TODO: create LL constructor specifically for testing that only takes file name.
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), "", 
+        new LanguageLevelVisitor(_llc, new File(""), "", 
                                  null /* enclosingClassName */, 
                                  new LinkedList<String>(), 
                                  new LinkedList<String>(), 
@@ -2828,9 +2842,9 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded = false;
-//      LanguageLevelConverter.symbolTable.clear();  // done in setUp()
+      errors.clear();
+      _llc._errorAdded = false;
+//      symbolTable.clear();  // done in setUp()
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -2861,7 +2875,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     
     public void testForThrowStatement() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "", 
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -2870,9 +2884,9 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded = false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = new Symboltable();
+      errors.clear();
+      _llc._errorAdded = false;
+//      symbolTable = llv.symbolTable = new Symboltable();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -3083,7 +3097,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     
     public void testForBracedBody() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "",
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -3091,9 +3105,9 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded=false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = new Symboltable();
+      errors.clear();
+      _llc._errorAdded=false;
+//      symbolTable = llv.symbolTable = new Symboltable();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -3163,7 +3177,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                             new String[] {"java.util.prefs.BackingStoreException"},
                                             _sd1,
                                             null);
-      _bbtc._bodyData.getSymbolData().addMethod(badMethod);                                      
+      _bbtc._bodyData.getSymbolData().addMethod(badMethod, errors);                                      
       _bbtc._thrown = new LinkedList<Pair<SymbolData, JExpression>>();
       BracedBody bbMethod = 
         new BracedBody(SourceInfo.NONE, 
@@ -3191,7 +3205,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
       _sd3.setIsContinuation(false);
       _bbtc.symbolTable.put(_sd3.getName(), _sd3);
       MethodData constructor = new MethodData("zebra", _publicMav, new TypeParameter[0], _sd3, new VariableData[0], new String[] {"java.util.prefs.BackingStoreException"}, _sd3, null);
-      _sd3.addMethod(constructor);
+      _sd3.addMethod(constructor, errors);
       BracedBody bbConstr = new BracedBody(SourceInfo.NONE, new BodyItemI[]{new ExpressionStatement(SourceInfo.NONE, new SimpleNamedClassInstantiation(SourceInfo.NONE, new ClassOrInterfaceType(SourceInfo.NONE, _sd3.getName(), new Type[0]), new ParenthesizedExpressionList(SourceInfo.NONE, new Expression[0])))});
       _bbtc._thrown = new LinkedList<Pair<SymbolData, JExpression>>();
       bbConstr.visit(_bbtc);
@@ -3209,7 +3223,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
     
     public void testForTryCatchFinallyStatement() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "", 
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -3217,10 +3231,10 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded = false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = symbolTable;
-//      LanguageLevelConverter._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+      errors.clear();
+      _llc._errorAdded = false;
+//      symbolTable = llv.symbolTable = symbolTable;
+//      _llc._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -3418,7 +3432,7 @@ public class BodyTypeChecker extends SpecialTypeChecker {
 
     public void testForNormalTryCatchStatement() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "", 
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -3426,10 +3440,10 @@ public class BodyTypeChecker extends SpecialTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded=false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = symbolTable;
-//      LanguageLevelConverter._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+      errors.clear();
+      _llc._errorAdded=false;
+//      symbolTable = llv.symbolTable = symbolTable;
+//      _llc._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -54,6 +54,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
   private SymbolData _enclosing;
   
   /** Deprecated onstructor for ClassBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd  The SymbolData that encloses the context we are visiting.  Must be non-null.
     * @param className The name of the enclosing class.  Must be non-null and non-empty.
     * @param file  The source file this came from.
@@ -65,8 +66,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
     *                       be resolved
     * TODO: coalesce className and enclosingClassName
     */
-  public ClassBodyFullJavaVisitor(SymbolData sd, 
-                                  String className,
+  public ClassBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                  SymbolData sd, String className,
                                   File file, 
                                   String packageName,
                                   LinkedList<String> importedFiles, 
@@ -74,12 +75,13 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
                                   HashSet<String> classesInThisFile, 
                                   Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                   LinkedList<Command> fixUps) {
-    super(file, packageName, className, importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
+    super(llc, file, packageName, className, importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
     _enclosing = sd;
     assert sd != null && className != null &&  ! className.equals("");
   }
   
   /** Preferred constructor for ClassBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd  The SymbolData that encloses the context we are visiting.  Must be non-null.ty.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -90,8 +92,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
     *                       be resolved
     * TODO: coalesce className and enclosingClassName
     */
-  public ClassBodyFullJavaVisitor(SymbolData sd, 
-                                  File file, 
+  public ClassBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                  SymbolData sd, File file,
                                   String packageName,
                                   LinkedList<String> importedFiles, 
                                   LinkedList<String> importedPackages,
@@ -99,8 +101,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
                                   Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                   LinkedList<Command> fixUps,
                                   HashMap<String, SymbolData> genericTypes) {
-    super(file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations, fixUps, 
-          genericTypes);
+    super(llc, file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations,
+          fixUps, genericTypes);
     _enclosing = sd;
     assert sd != null;
   }
@@ -198,8 +200,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
                            + "do not have an explicit return type",
                          that);
     }
-    else _enclosing.addMethod(md);
-    that.getBody().visit(new BodyBodyFullJavaVisitor(md, _file, _package, _enclosingClassName, _importedFiles, 
+    else _enclosing.addMethod(md, errors);
+    that.getBody().visit(new BodyBodyFullJavaVisitor(_llc, md, _file, _package, _enclosingClassName, _importedFiles, 
                                                      _importedPackages, 
                                                      _classesInThisFile, continuations, fixUps, 
                                                      new HashSet<String>(), _genericTypes));
@@ -255,7 +257,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
                            + "not have an explicit return type",
                          that);
     }
-    else _enclosing.addMethod(md);
+    else _enclosing.addMethod(md, errors);
     _genericTypes = oldGenericTypes;
     return null;
   }
@@ -305,8 +307,9 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
       }
     }
     
-    _enclosing.addMethod(md);
-    that.getStatements().visit(new BodyBodyFullJavaVisitor(md, _file, _package, _enclosingClassName, _importedFiles, 
+    _enclosing.addMethod(md, errors);
+    that.getStatements().visit(new BodyBodyFullJavaVisitor(_llc, md, _file, _package, _enclosingClassName,
+                                                           _importedFiles, 
                                                            _importedPackages, _classesInThisFile, continuations, fixUps,
                                                            new HashSet<String>()));
     
@@ -338,6 +341,9 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
   
   /** Test the methods that are declared above. */
   public static class ClassBodyFullJavaVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ClassBodyFullJavaVisitor _cbfjv;
     
@@ -364,13 +370,12 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
     public void setUp() {
       _sd1 = new SymbolData("i.like.monkey");  // creates a continuation
       
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter.symbolTable.put("i.like.monkey", _sd1);
-      LanguageLevelConverter._newSDs.clear();
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      symbolTable.put("i.like.monkey", _sd1);
+      _llc._newSDs.clear();
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
-      _cbfjv = new ClassBodyFullJavaVisitor(_sd1, 
+      _cbfjv = new ClassBodyFullJavaVisitor(_llc, _sd1, 
                                             "i.like.monkey", 
                                             new File(""), 
                                             "", 
@@ -384,7 +389,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
 //      _cbfjv._resetNonStaticFields();
       _cbfjv._importedPackages.addFirst("java.lang");
       
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void testForConcreteMethodDefDoFirst() {
@@ -485,7 +490,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
       
       ArrayInitializer ai = new ArrayInitializer(SourceInfo.NONE, new VariableInitializerI[0]);
       TypeVariable tv = new TypeVariable(SourceInfo.NONE, "String");
-      SymbolData _string = LanguageLevelConverter.symbolTable.get("java.lang.String");
+      SymbolData _string = symbolTable.get("java.lang.String");
       assertNotNull("java.lang.String already in table", _string);
       ArrayType at = new ArrayType(SourceInfo.NONE, "String[]", tv);
       
@@ -502,7 +507,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
       assertEquals("There should be no errors", 0, errors.size());
 //      System.err.println("That error is: " + errors.getLast().getFirst());
       
-      SymbolData bob = LanguageLevelConverter.symbolTable.get("java.lang.String[]");
+      SymbolData bob = symbolTable.get("java.lang.String[]");
 //      System.err.println("Getting READY to fail");
 //      try { Thread.sleep(1000); } catch (Exception e) { };
       assertNotNull("bob should not be null", bob);
@@ -710,7 +715,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
     }
     
     public void xtestForInnerClassDef() {
-      SymbolData obj = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData obj = symbolTable.get("java.lang.Object");
       InnerClassDef cd1 = new InnerClassDef(SourceInfo.NONE, _packageMav, new Word(SourceInfo.NONE, "Bart"),
                                             new TypeParameter[0], new ClassOrInterfaceType(SourceInfo.NONE, "java.lang.Object", new Type[0]), new ReferenceType[0], 
                                             new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
@@ -733,8 +738,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
       
       
       
-      LanguageLevelConverter.symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa", sd0);
-//      LanguageLevelConverter.symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa$Bart", sd1);
+      symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa", sd0);
+//      symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa$Bart", sd1);
       
       cd0.visit(_cbfjv);
       
@@ -755,7 +760,7 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
     
     public void xtestForInnerInterfaceDef() {
 //      SymbolData obj = new SymbolData("java.lang.Object");
-//      LanguageLevelConverter.symbolTable.put("java.lang.Object", obj);
+//      symbolTable.put("java.lang.Object", obj);
       InnerInterfaceDef cd1 = new InnerInterfaceDef(SourceInfo.NONE, _packageMav, new Word(SourceInfo.NONE, "Bart"),
                                                     new TypeParameter[0], new ReferenceType[0], 
                                                     new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
@@ -779,8 +784,8 @@ public class ClassBodyFullJavaVisitor extends FullJavaVisitor {
       sd1.setOuterData(sd0);
       
 //    
-//      LanguageLevelConverter.symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa", sd0);
-//      LanguageLevelConverter.symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa$Bart", sd1);
+//      symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa", sd0);
+//      symbolTable.put(_cbfjv._enclosing.getName() + "$Lisa$Bart", sd1);
       
       cd0.visit(_cbfjv);
       
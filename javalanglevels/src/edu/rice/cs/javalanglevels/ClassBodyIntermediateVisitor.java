@@ -57,6 +57,7 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
   private SymbolData _enclosing;
   
   /** Constructor for ClassBodyAdvancedVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd  The SymbolData that encloses the context we are visiting.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -67,8 +68,8 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
     *                       be resolved
     * @param fixUps  A list of commands to be performed after this pass to fixup the symbolTable
     */
-  public ClassBodyIntermediateVisitor(SymbolData sd,
-                                      String className,
+  public ClassBodyIntermediateVisitor(LanguageLevelConverter llc,
+                                      SymbolData sd, String className,
                                       File file, 
                                       String packageName, 
                                       LinkedList<String> importedFiles, 
@@ -76,7 +77,8 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
                                       HashSet<String> classesInThisFile, 
                                       Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                       LinkedList<Command> fixUps) {
-    super(file,  packageName, className, importedFiles, importedPackages, classesInThisFile, continuations, fixUps);    
+    super(llc, file,  packageName, className, importedFiles, importedPackages, classesInThisFile, continuations,
+          fixUps);    
     _enclosing = sd;
   }
   
@@ -167,9 +169,10 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
                            + "not have an explicit return type",
                          that);
     }
-    else _enclosing.addMethod(md);
+    else _enclosing.addMethod(md, errors);
 
-    that.getBody().visit(new BodyBodyIntermediateVisitor(md, _file, _package, _enclosingClassName, _importedFiles, 
+    that.getBody().visit(new BodyBodyIntermediateVisitor(_llc, md, _file, _package, _enclosingClassName,
+                                                         _importedFiles, 
                                                          _importedPackages, _classesInThisFile, continuations, 
                                                          fixUps, new HashSet<String>()));
     return forConcreteMethodDefOnly(that);
@@ -195,7 +198,7 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
                            + "not have an explicit return type",
                          that);
     }
-    else _enclosing.addMethod(md);
+    else _enclosing.addMethod(md, errors);
 
     return forAbstractMethodDefOnly(that);
   }
@@ -234,8 +237,9 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
       }
     }
     
-    _enclosing.addMethod(md);
-    that.getStatements().visit(new BodyBodyIntermediateVisitor(md, _file, _package, _enclosingClassName, _importedFiles,
+    _enclosing.addMethod(md, errors);
+    that.getStatements().visit(new BodyBodyIntermediateVisitor(_llc, md, _file, _package, _enclosingClassName,
+                                                               _importedFiles,
                                                                _importedPackages, _classesInThisFile, continuations, 
                                                                fixUps, new HashSet<String>()));
     //note that we have seen a constructor.
@@ -264,6 +268,9 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
   
   /** Test the methods in the above (enclosing) class. */
   public static class ClassBodyIntermediateVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ClassBodyIntermediateVisitor _cbiv;
     
@@ -300,13 +307,12 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
     public void setUp() {
       _sd1 = new SymbolData("i.like.monkey");
 
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.symbolTable.put("i.like.monkey", _sd1);
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      symbolTable.put("i.like.monkey", _sd1);
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
-      _cbiv = new ClassBodyIntermediateVisitor(_sd1,
+      _cbiv = new ClassBodyIntermediateVisitor(_llc, _sd1,
                                                _sd1.getName(),
                                                new File(""), 
                                                "", 
@@ -319,7 +325,7 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
       _cbiv._classesInThisFile = new HashSet<String>();
 //      _cbiv._resetNonStaticFields();
       _cbiv._importedPackages.addFirst("java.lang");
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void testForConcreteMethodDefDoFirst() {
@@ -719,8 +725,8 @@ public class ClassBodyIntermediateVisitor extends IntermediateVisitor {
       sd0.setIsContinuation(true);
       sd1.setIsContinuation(true);
       
-      LanguageLevelConverter.symbolTable.put(_cbiv._enclosing.getName() + "$Lisa", sd0);
-      LanguageLevelConverter.symbolTable.put(_cbiv._enclosing.getName() + "$Lisa$Bart", sd1);
+      symbolTable.put(_cbiv._enclosing.getName() + "$Lisa", sd0);
+      symbolTable.put(_cbiv._enclosing.getName() + "$Lisa$Bart", sd1);
 
       cd0.visit(_cbiv);
 
@@ -56,6 +56,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
   
   /** Constructor for ClassBodyTypeChecker. Adds all the variables in the symbol data to the list of what can be seen
     * from this context, since class fields can always be seen.
+    * @param llc  The conversion being type checked
     * @param sd  The SymbolData of the class we are type checking.
     * @param file  The File corresponding to the source file we are checking.
     * @param packageName  The package of the source file.
@@ -64,10 +65,11 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
     * @param vars  A list of the variable datas that can be seen and have been given a value before this context
     * @param thrown  The exceptions that are thrown
     */
-  public ClassBodyTypeChecker(SymbolData sd, File file, String packageName, LinkedList<String> importedFiles, 
+  public ClassBodyTypeChecker(LanguageLevelConverter llc, SymbolData sd, File file, String packageName,
+                              LinkedList<String> importedFiles, 
                               LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
                               LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(sd, file, packageName, importedFiles, importedPackages, vars, thrown);
+    super(llc, sd, file, packageName, importedFiles, importedPackages, vars, thrown);
     if (sd == null) throw new RuntimeException("SymbolData is null in new ClassBodyTypeChecker operation");
     _symbolData = sd;
     hasConstructor = false;
@@ -182,7 +184,9 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
     }
     ll.addAll(cloneVariableDataList(_vars));
 
-    ConstructorBodyTypeChecker btc = new ConstructorBodyTypeChecker(md, _file, _package, _importedFiles, _importedPackages, ll, new LinkedList<Pair<SymbolData, JExpression>>());
+    ConstructorBodyTypeChecker btc = new ConstructorBodyTypeChecker(_llc, md, _file, _package, _importedFiles,
+                                                                    _importedPackages, ll,
+                                                                      new LinkedList<Pair<SymbolData, JExpression>>());
     final TypeData bodyRes = that.getStatements().visit(btc);
     
     //make sure the constructor assigns a value to any uninitialized fields (i.e. final fields)
@@ -281,7 +285,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       }
     }
     
-    BodyTypeChecker btc = new BodyTypeChecker(md, _file, _package, _importedFiles, _importedPackages, ll, 
+    BodyTypeChecker btc = new BodyTypeChecker(_llc, md, _file, _package, _importedFiles, _importedPackages, ll, 
                                               new LinkedList<Pair<SymbolData, JExpression>>());
     
     TypeData bodyRes = that.getBody().visit(btc); // We assume that this will return an InstanceData -- the return type of the body
@@ -291,7 +295,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
     _checkReturnType(md.getReturnType(), (SymbolData) bodyRes, that);
     if (md.getReturnType() != null) {
       // Ensure that this method doesn't override another method with a different return type.
-      SymbolData.checkDifferentReturnTypes(md, _symbolData, true);
+      SymbolData.checkDifferentReturnTypes(md, _symbolData, errors, true);
     }
     
     // This is not used because this call eventually invokes the forUninitializedVariableDeclarator method above.
@@ -331,7 +335,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
     if (md == null) {
       throw new RuntimeException("Internal Program Error: Could not find the method " + that.getName().getText() + " in class " + _symbolData.getName() +".  Please report this bug.");
     }
-    SymbolData.checkDifferentReturnTypes(md, _symbolData, true);
+    SymbolData.checkDifferentReturnTypes(md, _symbolData, errors, true);
 
     return resRes;
   }
@@ -353,6 +357,9 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
     * Test the methods that are defined above.
     */
   public static class ClassBodyTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ClassBodyTypeChecker _cbbtc;
     
@@ -385,13 +392,13 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       _sd5 = new SymbolData("");
       _sd6 = new SymbolData("cebu");
       
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
       _cbbtc = 
-        new ClassBodyTypeChecker(_sd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
+        new ClassBodyTypeChecker(_llc, _sd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
                                  new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _cbbtc._importedPackages.addFirst("java.lang");
     }
     
@@ -475,7 +482,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
                                      new String[0],
                                      _sd1,
                                      null); // no SourceInfo
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       cmd.visit(_cbbtc);
       assertEquals("There should be no errors.", 0, errors.size());
       
@@ -510,11 +517,13 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       VariableData vd = new VariableData("i", _packageMav, SymbolData.INT_TYPE, false, null);
       MethodData md0 = new MethodData("invalidMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE,
                                      new VariableData[0], new String[0], _sd1, cmd0);
-      _sd1.addMethod(md0);
+      _sd1.addMethod(md0, errors);
       vd.setEnclosingData(md0);
       md0.addVar(vd);
       
-      _cbbtc = new ClassBodyTypeChecker(_sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles, _cbbtc._importedPackages, new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
+      _cbbtc = new ClassBodyTypeChecker(_llc, _sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles,
+                                        _cbbtc._importedPackages, new LinkedList<VariableData>(),
+                                          new LinkedList<Pair<SymbolData, JExpression>>());
       cmd0.visit(_cbbtc);
       assertEquals("There should be 1 error", 1, errors.size());
       assertEquals("The error message should be correct", "You cannot use i because it may not have been given a value", errors.get(0).getFirst());
@@ -541,13 +550,15 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       VariableData vd2 = new VariableData("i", _packageMav, SymbolData.INT_TYPE, false, null);
       MethodData md1 = new MethodData("myMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE,
                                      new VariableData[] {vd1}, new String[0], _sd1, cmd1);
-      _sd1.addMethod(md1);
+      _sd1.addMethod(md1, errors);
       vd1.setEnclosingData(md1);
       vd2.setEnclosingData(md1);
       md1.addVar(vd1);
       md1.addVar(vd2);
       
-      _cbbtc = new ClassBodyTypeChecker(_sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles, _cbbtc._importedPackages, new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
+      _cbbtc = new ClassBodyTypeChecker(_llc, _sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles,
+                                        _cbbtc._importedPackages, new LinkedList<VariableData>(),
+                                          new LinkedList<Pair<SymbolData, JExpression>>());
       cmd1.visit(_cbbtc);
       
       assertEquals("There should still be 1 error", 1, errors.size());  // Generated error is duplicate
@@ -584,12 +595,14 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       VariableData vdi = new VariableData("i", _finalMav, SymbolData.INT_TYPE, false, null);
       MethodData md2 = new MethodData("doubleAssignmentMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE,
                                       new VariableData[0], new String[0], _sd1, cmd2);
-      _sd1.addMethod(md2);
+      _sd1.addMethod(md2, errors);
       vdi.setEnclosingData(md2);
 
       md2.addVar(vdi);
 
-      _cbbtc = new ClassBodyTypeChecker(_sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles, _cbbtc._importedPackages, new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
+      _cbbtc = new ClassBodyTypeChecker(_llc, _sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles,
+                                        _cbbtc._importedPackages, new LinkedList<VariableData>(),
+                                          new LinkedList<Pair<SymbolData, JExpression>>());
       cmd2.visit(_cbbtc);
       assertEquals("There should now be 2 error2", 2, errors.size());
       assertEquals("The error message should be correct", 
@@ -625,8 +638,10 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       vd2.setEnclosingData(md1);
 
       
-      _sd1.addMethod(md1);
-      _cbbtc = new ClassBodyTypeChecker(_sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles, _cbbtc._importedPackages, new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
+      _sd1.addMethod(md1, errors);
+      _cbbtc = new ClassBodyTypeChecker(_llc, _sd1, _cbbtc._file, _cbbtc._package, _cbbtc._importedFiles,
+                                        _cbbtc._importedPackages, new LinkedList<VariableData>(),
+                                          new LinkedList<Pair<SymbolData, JExpression>>());
       
 
       md1.addBlock(new BlockData(md1));
@@ -645,7 +660,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
                                       new String[0],
                                       null,
                                       null);
-      superSd.addMethod(md3);
+      superSd.addMethod(md3, errors);
       MethodData md4 = new MethodData("methodName",
                                      _publicMav,
                                      new TypeParameter[0],
@@ -657,7 +672,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       MethodDef mDef = new ConcreteMethodDef(SourceInfo.NONE, _publicMav, new TypeParameter[0], new PrimitiveType(SourceInfo.NONE, "int"), 
                                              new Word(SourceInfo.NONE, "methodName"), new FormalParameter[0], new ReferenceType[0], 
                                              new BracedBody(SourceInfo.NONE, new BodyItemI[] {new ValueReturnStatement(SourceInfo.NONE, new IntegerLiteral(SourceInfo.NONE, 76))}));
-      _sd1.addMethod(md4);
+      _sd1.addMethod(md4, errors);
       _cbbtc._symbolData = _sd1;
       mDef.visit(_cbbtc);
       assertEquals("There should be one error.", 1, errors.size());
@@ -758,7 +773,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
 //      SymbolData obj = _cbbtc.getSymbolData("java.lang.Object", new NullLiteral(SourceInfo.NONE), false, true);
       SymbolData tokenizer = _cbbtc.getSymbolData("java.io.StreamTokenizer", new NullLiteral(SourceInfo.NONE), false, true);
       jimes.setSuperClass(tokenizer);
-      SymbolData jutc = defineTestCaseClass();
+      SymbolData jutc = _cbbtc.defineTestCaseClass();
       
       assert symbolTable.contains(tokenizer);
       assert symbolTable.contains(jutc);
@@ -768,7 +783,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
       MethodData objMd = 
         new MethodData("java.lang.Object", _publicMav, new TypeParameter[0], tokenizer, new VariableData[0], 
                        new String[0], tokenizer, cd);
-      jimes.addMethod(md);
+      jimes.addMethod(md, errors);
       
       // assumes an explicit super call with no arguments
       classDef.visit(_cbbtc);
@@ -779,7 +794,7 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
                    errors.getLast().getFirst());
 
       // test that a constructor can set the value of a final field
-      tokenizer.addMethod(objMd); //give super class constructor
+      tokenizer.addMethod(objMd, errors); //give super class constructor
       vData.lostValue();
 
       classDef.visit(_cbbtc);
@@ -823,7 +838,8 @@ public class ClassBodyTypeChecker extends SpecialTypeChecker {
 
       LinkedList<VariableData> vs = new LinkedList<VariableData>();
       vs.addLast(vData);
-      _cbbtc = new ClassBodyTypeChecker(jimes, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), vs, new LinkedList<Pair<SymbolData, JExpression>>());
+      _cbbtc = new ClassBodyTypeChecker(_llc, jimes, new File(""), "", new LinkedList<String>(),
+                                        new LinkedList<String>(), vs, new LinkedList<Pair<SymbolData, JExpression>>());
       ExpressionStatement assign = new ExpressionStatement(SourceInfo.NONE, new SimpleAssignmentExpression(SourceInfo.NONE, new SimpleNameReference(SourceInfo.NONE, new Word(SourceInfo.NONE, "j")), new IntegerLiteral(SourceInfo.NONE, 45)));
       b = new BracedBody(SourceInfo.NONE, new BodyItemI[] {new ExpressionStatement(SourceInfo.NONE, new SimpleThisConstructorInvocation(SourceInfo.NONE, new ParenthesizedExpressionList(SourceInfo.NONE, new Expression[0]))), assign});
       cd = new ConstructorDef(SourceInfo.NONE, new Word(SourceInfo.NONE, "name"), _publicMav, new FormalParameter[0], new ReferenceType[0], b);
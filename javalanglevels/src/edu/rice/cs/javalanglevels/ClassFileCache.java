@@ -0,0 +1,287 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2010, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.javalanglevels;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import edu.rice.cs.javalanglevels.util.Log;
+import edu.rice.cs.plt.io.IOUtil;
+
+/** Supplies the class files that the converter reads to build the SymbolDatas of library classes.  The class files are
+  * stripped of code and debugging information, leaving only the signatures that the converter uses.  For each jar file
+  * on the search path, the stripped class files are kept in memory for the life of the JVM (so repeated conversions 
+  * do not re-read the jar) and, if a cache directory is given, are also saved on disk.  A jar's disk cache holds an
+  * index of the classes in the jar and one file per stripped class, written the first time that class is requested.
+  * A cache is keyed by the jar's absolute path, and is discarded when the jar's timestamp or length changes.
+  * Directories on the search path are read directly, since their contents are typically still being compiled.
+  * 
+  * SymbolDatas themselves are not serialized: they refer to each other and to the symbol table of the current
+  * conversion, while a stripped class file is a compact, self-contained record of the same information.
+  */
+public class ClassFileCache {
+  
+  public static final Log _log = new Log("ClassFileCache.txt", false);
+  
+  /** First line of a disk cache index; change it whenever the disk format changes. */
+  private static final String INDEX_HEADER = "javalanglevels class file cache 1";
+  private static final String INDEX_FILE = "index";
+  private static final String STRIPPED_SUFFIX = ".sig";
+  
+  /** Jar files read by any cache, shared so that conversions by different converters need not read them again. */
+  private static final Map<File, Archive> ARCHIVES = new HashMap<File, Archive>();
+  
+  private final List<File> _searchPath;
+  private final File _cacheDir;
+  /** The search path resolved to directories and archives, or null if it has not been resolved since the last call to
+    * close().  Resolving it checks whether each entry exists and whether each jar has changed, so this is done once 
+    * per conversion rather than once per class file lookup. */
+  private List<SearchRoot> _roots;
+  
+  /** @param searchPath  The jar files and directories to search, in order.
+    * @param cacheDir  The directory in which to save the stripped class files of jars, or null for no disk cache. */
+  public ClassFileCache(Iterable<? extends File> searchPath, File cacheDir) {
+    _searchPath = new ArrayList<File>();
+    for (File f : searchPath) { _searchPath.add(f); }
+    _cacheDir = cacheDir;
+    _roots = null;
+  }
+  
+  /** Returns the stripped class file for the given class, or null if it is not on the search path.  The first entry
+    * of the search path that contains the class is used.
+    * @param fileName  The class file's path in the search path, such as "java/lang/Object.class". */
+  public synchronized byte[] getClassFile(String fileName) throws IOException {
+    if (_roots == null) { _roots = _resolve(); }
+    for (SearchRoot r : _roots) {
+      byte[] result = r.find(fileName);
+      if (result != null) { return result; }
+    }
+    return null;
+  }
+  
+  /** Closes any jar files opened since the last call.  The cache may still be used afterwards; the search path is
+    * resolved again on the next lookup. */
+  public synchronized void close() {
+    if (_roots != null) {
+      for (SearchRoot r : _roots) { r.close(); }
+      _roots = null;
+    }
+  }
+  
+  /** Maps each existing entry of the search path to a directory or to the (current) archive of a jar file. */
+  private List<SearchRoot> _resolve() {
+    List<SearchRoot> result = new ArrayList<SearchRoot>(_searchPath.size());
+    for (File f : _searchPath) {
+      if (f.isDirectory()) { result.add(new Directory(f)); }
+      else if (f.isFile()) { result.add(_archive(f)); }
+    }
+    return result;
+  }
+  
+  /** Returns the shared archive for jar file f, replacing it if f has changed since it was read. */
+  private Archive _archive(File f) {
+    File key = IOUtil.attemptAbsoluteFile(f);
+    synchronized (ARCHIVES) {
+      Archive result = ARCHIVES.get(key);
+      if (result == null || ! result.isCurrent()) {
+        if (result != null) { result.close(); }
+        result = new Archive(key, _cacheDir);
+        ARCHIVES.put(key, result);
+      }
+      return result;
+    }
+  }
+  
+  /** Removes code and debugging information from a class file. */
+  public static byte[] strip(byte[] classFile) {
+    ClassWriter w = new ClassWriter(0);
+    new ClassReader(classFile).accept(w, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    return w.toByteArray();
+  }
+  
+  /** An entry of the search path. */
+  private interface SearchRoot {
+    /** Returns the (stripped) class file with the given name, or null if there is none. */
+    byte[] find(String fileName) throws IOException;
+    /** Releases any open files. */
+    void close();
+  }
+  
+  /** A directory on the search path; its class files are read directly, and are not stripped. */
+  private static class Directory implements SearchRoot {
+    private final File _dir;
+    public Directory(File dir) { _dir = dir; }
+    public byte[] find(String fileName) throws IOException {
+      File classFile = new File(_dir, fileName);
+      return classFile.isFile() ? IOUtil.toByteArray(classFile) : null;
+    }
+    public void close() { }
+  }
+  
+  /** The cached contents of a single jar file. */
+  private static class Archive implements SearchRoot {
+    private final File _jar;
+    private final long _lastModified;
+    private final long _length;
+    /** The disk cache directory for this jar, or null if there is none. */
+    private final File _dir;
+    /** Names of the class files in the jar; read from the disk index or from the jar on first use. */
+    private Set<String> _classes;
+    private final Map<String, byte[]> _stripped;
+    private ZipFile _zip;
+    
+    public Archive(File jar, File cacheDir) {
+      _jar = jar;
+      _lastModified = jar.lastModified();
+      _length = jar.length();
+      _dir = (cacheDir == null) ? null :
+        new File(cacheDir, jar.getName() + "-" + Integer.toHexString(jar.getPath().hashCode()));
+      _classes = null;
+      _stripped = new HashMap<String, byte[]>();
+      _zip = null;
+    }
+    
+    public boolean isCurrent() { return _jar.lastModified() == _lastModified && _jar.length() == _length; }
+    
+    public byte[] find(String fileName) { return contains(fileName) ? get(fileName) : null; }
+    
+    public synchronized boolean contains(String fileName) {
+      if (_classes == null) { _classes = _readIndex(); }
+      return _classes.contains(fileName);
+    }
+    
+    public synchronized byte[] get(String fileName) {
+      byte[] result = _stripped.get(fileName);
+      if (result == null) {
+        File saved = (_dir == null) ? null : new File(_dir, fileName + STRIPPED_SUFFIX);
+        if (saved != null && saved.isFile()) {
+          try { result = IOUtil.toByteArray(saved); }
+          catch (IOException e) { _log.log("Can't read " + saved + ": " + e); }
+        }
+        if (result == null) {
+          try {
+            ZipEntry entry = _zip().getEntry(fileName);
+            if (entry == null) { return null; }
+            result = strip(IOUtil.toByteArray(_zip.getInputStream(entry)));
+          }
+          catch (IOException e) { _log.log("Can't read " + fileName + " in " + _jar + ": " + e); return null; }
+          if (saved != null) { _write(saved, result); }
+        }
+        _stripped.put(fileName, result);
+      }
+      return result;
+    }
+    
+    public synchronized void close() {
+      if (_zip != null) {
+        try { _zip.close(); }
+        catch (IOException e) { /* ignore */ }
+        _zip = null;
+      }
+    }
+    
+    private ZipFile _zip() throws IOException {
+      if (_zip == null) { _zip = new ZipFile(_jar); }
+      return _zip;
+    }
+    
+    /** Reads the disk index if it is current; otherwise lists the jar, discards any stale disk cache, and writes a new
+      * index. */
+    private Set<String> _readIndex() {
+      Set<String> result = new HashSet<String>();
+      if (_dir != null) {
+        File index = new File(_dir, INDEX_FILE);
+        if (index.isFile()) {
+          try {
+            BufferedReader r = new BufferedReader(new FileReader(index));
+            try {
+              if (INDEX_HEADER.equals(r.readLine()) && _jar.getPath().equals(r.readLine()) &&
+                  String.valueOf(_lastModified).equals(r.readLine()) && String.valueOf(_length).equals(r.readLine())) {
+                String line = r.readLine();
+                while (line != null) { result.add(line); line = r.readLine(); }
+                return result;
+              }
+            }
+            finally { r.close(); }
+          }
+          catch (IOException e) { _log.log("Can't read " + index + ": " + e); }
+          result.clear();
+        }
+      }
+      
+      try {
+        Enumeration<? extends ZipEntry> entries = _zip().entries();
+        while (entries.hasMoreElements()) {
+          String name = entries.nextElement().getName();
+          if (name.endsWith(".class")) { result.add(name); }
+        }
+      }
+      catch (IOException e) { _log.log("Can't read " + _jar + ": " + e); return result; }
+      
+      if (_dir != null) {
+        IOUtil.deleteRecursively(_dir);
+        StringBuilder sb = new StringBuilder();
+        sb.append(INDEX_HEADER).append('\n').append(_jar.getPath()).append('\n');
+        sb.append(_lastModified).append('\n').append(_length).append('\n');
+        for (String name : result) { sb.append(name).append('\n'); }
+        try { _write(new File(_dir, INDEX_FILE), sb.toString().getBytes("UTF-8")); }
+        catch (UnsupportedEncodingException e) { throw new RuntimeException(e); }
+      }
+      return result;
+    }
+    
+    /** Writes the file through a temporary file, so that other processes sharing the cache never see a partial file.
+      * Failures are logged and otherwise ignored; the cache is only an optimization. */
+    private void _write(File f, byte[] contents) {
+      try {
+        File parent = f.getParentFile();
+        IOUtil.attemptMkdirs(parent);
+        File temp = File.createTempFile(f.getName(), ".tmp", parent);
+        OutputStream out = new FileOutputStream(temp);
+        try { out.write(contents); }
+        finally { out.close(); }
+        if (! IOUtil.attemptMove(temp, f)) { IOUtil.attemptDelete(temp); }
+      }
+      catch (IOException e) { _log.log("Can't write " + f + ": " + e); }
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2010, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.javalanglevels;
+
+import java.io.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import junit.framework.TestCase;
+import org.objectweb.asm.ClassReader;
+
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
+import edu.rice.cs.plt.reflect.JavaVersion;
+
+/** Tests the ClassFileCache, and its use by the LanguageLevelConverter to read library classes. */
+public class ClassFileCacheTest extends TestCase {
+  
+  private static final String OPTIONS_CLASS = "edu/rice/cs/javalanglevels/Options.class";
+  private static final String PAIR_CLASS = "edu/rice/cs/javalanglevels/Pair.class";
+  private static final String COMMAND_CLASS = "edu/rice/cs/javalanglevels/Command.class";
+  
+  private File _tempDir;
+  private File _cacheDir;
+  
+  public void setUp() throws IOException {
+    _tempDir = IOUtil.createAndMarkTempDirectory("javalanglevels-test", "");
+    _cacheDir = new File(_tempDir, "cache");
+  }
+  
+  public void tearDown() { IOUtil.deleteRecursively(_tempDir); }
+  
+  /** Returns the bytes of a class file of this package. */
+  private static byte[] _classFile(String fileName) throws IOException {
+    return IOUtil.toByteArray(ClassFileCacheTest.class.getClassLoader().getResourceAsStream(fileName));
+  }
+  
+  /** Writes a jar holding the named class files of this package. */
+  private static void _makeJar(File jar, String... fileNames) throws IOException {
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    try {
+      for (String name : fileNames) {
+        out.putNextEntry(new JarEntry(name));
+        out.write(_classFile(name));
+        out.closeEntry();
+      }
+    }
+    finally { out.close(); }
+  }
+  
+  private static String _className(byte[] classFile) { return new ClassReader(classFile).getClassName() + ".class"; }
+  
+  public void testReadsJar() throws IOException {
+    File jar = new File(_tempDir, "lib.jar");
+    _makeJar(jar, OPTIONS_CLASS);
+    ClassFileCache cache = new ClassFileCache(IterUtil.make(jar), _cacheDir);
+    try {
+      byte[] stripped = cache.getClassFile(OPTIONS_CLASS);
+      assertNotNull(stripped);
+      assertEquals(OPTIONS_CLASS, _className(stripped));
+      assertTrue("code is stripped", stripped.length < _classFile(OPTIONS_CLASS).length);
+      assertSame(stripped, cache.getClassFile(OPTIONS_CLASS));
+      assertNull(cache.getClassFile(PAIR_CLASS));
+    }
+    finally { cache.close(); }
+    
+    File[] dirs = _cacheDir.listFiles();
+    assertEquals(1, dirs.length);
+    assertTrue(new File(dirs[0], "index").isFile());
+    assertTrue(new File(dirs[0], OPTIONS_CLASS + ".sig").isFile());
+  }
+  
+  public void testChangedJar() throws IOException {
+    File jar = new File(_tempDir, "lib.jar");
+    _makeJar(jar, OPTIONS_CLASS);
+    ClassFileCache cache = new ClassFileCache(IterUtil.make(jar), _cacheDir);
+    assertNotNull(cache.getClassFile(OPTIONS_CLASS));
+    assertNull(cache.getClassFile(PAIR_CLASS));
+    cache.close();
+    
+    _makeJar(jar, PAIR_CLASS);
+    jar.setLastModified(jar.lastModified() + 10000);
+    cache = new ClassFileCache(IterUtil.make(jar), _cacheDir);
+    try {
+      assertNull(cache.getClassFile(OPTIONS_CLASS));
+      assertEquals(PAIR_CLASS, _className(cache.getClassFile(PAIR_CLASS)));
+    }
+    finally { cache.close(); }
+    assertFalse(new File(_cacheDir.listFiles()[0], OPTIONS_CLASS + ".sig").exists());
+  }
+  
+  public void testSearchOrder() throws IOException {
+    File dir = new File(_tempDir, "classes");
+    File classFile = new File(dir, PAIR_CLASS);
+    IOUtil.attemptMkdirs(classFile.getParentFile());
+    IOUtil.writeStringToFile(classFile, "");
+    File jar = new File(_tempDir, "lib.jar");
+    _makeJar(jar, OPTIONS_CLASS, PAIR_CLASS);
+    
+    ClassFileCache cache = new ClassFileCache(IterUtil.make(dir, jar), null);
+    try {
+      assertEquals(0, cache.getClassFile(PAIR_CLASS).length);
+      assertEquals(OPTIONS_CLASS, _className(cache.getClassFile(OPTIONS_CLASS)));
+      assertFalse(_cacheDir.exists());
+    }
+    finally { cache.close(); }
+  }
+  
+  public void testConverterReadsCachedClass() throws IOException {
+    File jar = new File(_tempDir, "lib.jar");
+    _makeJar(jar, COMMAND_CLASS);
+    LanguageLevelConverter llc = new LanguageLevelConverter();
+    Options defaults = llc._options;
+    llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(jar), 
+                               IterUtil.compose(defaults.bootClassPath(), defaults.classPath()), _cacheDir);
+    for (int i = 0; i < 2; i++) {
+      llc.symbolTable.remove("edu.rice.cs.javalanglevels.Command");
+      SymbolData sd = llc._classFile2SymbolData("edu.rice.cs.javalanglevels.Command");
+      assertNotNull(sd);
+      assertEquals("edu.rice.cs.javalanglevels", sd.getPackage());
+      assertTrue(sd.isInterface());
+      assertTrue(sd.hasMethod("execute"));
+    }
+  }
+}
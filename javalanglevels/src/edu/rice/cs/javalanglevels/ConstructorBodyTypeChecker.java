@@ -47,6 +47,7 @@ import junit.framework.TestCase;
 public class ConstructorBodyTypeChecker extends BodyTypeChecker {
 
   /** Constructor for ConstructorBodyTypeChecker.
+    * @param llc  The conversion being type checked
     * @param bodyData  The bodyData corresponding to the constructor we are visiting
     * @param file  The File corresponding to the source file we are checking.
     * @param packageName  The package of the source file.
@@ -55,10 +56,11 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
     * @param vars  A list of the variable datas that can be seen and have been given a value before this context
     * @param thrown  The exceptions that are thrown
     */
-  public ConstructorBodyTypeChecker(BodyData bodyData, File file, String packageName, LinkedList<String> importedFiles,
+  public ConstructorBodyTypeChecker(LanguageLevelConverter llc, BodyData bodyData, File file, String packageName,
+                                    LinkedList<String> importedFiles,
                                     LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
                                     LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
+    super(llc, bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
   }
  
   
@@ -67,7 +69,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
     createANewInstanceOfMe(BodyData bodyData, File file, String pakage, LinkedList<String> importedFiles, 
                            LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
                            LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    return new ConstructorBodyTypeChecker(bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
+    return new ConstructorBodyTypeChecker(_llc, bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
   }
   
   
@@ -152,8 +154,8 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
     */
   public TypeData complexSuperConstructorInvocationAllowed(ComplexSuperConstructorInvocation that) {
     //resolve the first part of the super invocation using an ETC and super class and try to match the invocation.
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, 
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     TypeData enclosingResult = that.getEnclosing().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
 
@@ -342,6 +344,9 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
   
   /** Tests the methods in the above class. */
   public static class ConstructorBodyTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ConstructorBodyTypeChecker _cbtc;
     
@@ -389,12 +394,12 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       _bd1.getParams()[0].setEnclosingData(_bd1);                      
       _bd1.getParams()[1].setEnclosingData(_bd1);                      
 
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
       _bd1.addEnclosingData(_sd1);
       _bd1.addVars(_bd1.getParams());
-      _cbtc = new ConstructorBodyTypeChecker(_bd1, 
+      _cbtc = new ConstructorBodyTypeChecker(_llc, _bd1, 
                                              new File(""), 
                                              "", 
                                              new LinkedList<String>(), 
@@ -443,7 +448,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
     
     public void testForBracedBody() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "", 
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -451,9 +456,9 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded=false;
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = new Symboltable();
+      errors.clear();
+      _llc._errorAdded=false;
+//      symbolTable = llv.symbolTable = new Symboltable();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -463,7 +468,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       SymbolData throwable = llv.getSymbolData("java.lang.Exception", SourceInfo.NONE, true);  
       SymbolData eb = llv.getSymbolData("java.util.prefs.BackingStoreException", SourceInfo.NONE, true);
       SymbolData re = llv.getSymbolData("java.lang.RuntimeException", SourceInfo.NONE, true);
-//      LanguageLevelConverter.symbolTable = symbolTable = llv.symbolTable;
+//      symbolTable = symbolTable = llv.symbolTable;
       
       assert symbolTable.contains(eb);
       assert symbolTable.contains(re);
@@ -487,7 +492,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
                                               new String[] {"java.util.prefs.BackingStoreException"}, 
                                               _sd3, 
                                               null);
-      _sd3.addMethod(constructor);
+      _sd3.addMethod(constructor, errors);
       
       SimpleSuperConstructorInvocation ssci = 
         new SimpleSuperConstructorInvocation(SourceInfo.NONE, 
@@ -528,7 +533,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
 
       MethodData thisConstructor = new MethodData("cebu", _publicMav, new TypeParameter[0], _sd6, new VariableData[0], new String[] {"java.util.prefs.BackingStoreException"}, _sd6, null);
       MethodData thisConstructorNoThrown = new MethodData("cebu", _publicMav, new TypeParameter[0], _sd6, new VariableData[0], new String[0], _sd6, null);
-      _sd6.addMethod(thisConstructor);
+      _sd6.addMethod(thisConstructor, errors);
       BodyData oldData = _cbtc._bodyData;
       _cbtc._data = thisConstructorNoThrown;
       _cbtc._bodyData = thisConstructorNoThrown;
@@ -579,7 +584,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       MethodData constructor = 
         new MethodData("zebra", _publicMav, new TypeParameter[0], _sd3, 
                        new VariableData[] {new VariableData(SymbolData.INT_TYPE)}, new String[0], _sd3, null);
-      _sd3.addMethod(constructor);
+      _sd3.addMethod(constructor, errors);
       _cbtc._bodyData = constructor;
       _cbtc._data = constructor;
       
@@ -653,7 +658,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       
       //if everything is right, should work with no errors
       MethodData constructor = new MethodData("zebra", _publicMav, new TypeParameter[0], _sd3, new VariableData[] {new VariableData(SymbolData.INT_TYPE)}, new String[0], _sd3, null);
-      _sd3.addMethod(constructor);
+      _sd3.addMethod(constructor, errors);
       _cbtc.simpleSuperConstructorInvocationAllowed(constr);
       assertEquals("Should still be 2 errors", 2, errors.size());
       
@@ -726,7 +731,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       
       //if it is an instance type and can match constructor, no problems--should add anything thrown to throws list
       MethodData constructor = new MethodData("elephant", _publicMav, new TypeParameter[0], _sd5, new VariableData[0], new String[] {"java.util.prefs.BackingStoreException"}, _sd5, null);
-      _sd5.addMethod(constructor);
+      _sd5.addMethod(constructor, errors);
       _cbtc.complexSuperConstructorInvocationAllowed(constr4);
       assertEquals("Should still be 6 errors", 6, errors.size());
       assertEquals("_thrown should now have 1 element", 1, _cbtc._thrown.size());
@@ -750,7 +755,7 @@ public class ConstructorBodyTypeChecker extends BodyTypeChecker {
       
       //if everything is right, should work with no errors
       MethodData constructor = new MethodData("zebra", _publicMav, new TypeParameter[0], _sd3, new VariableData[0], new String[0], _sd3, null);
-      _sd3.addMethod(constructor);
+      _sd3.addMethod(constructor, errors);
       _cbtc.implicitSuperConstructor(constr);
       assertEquals("Should still be 1 error", 1, errors.size());
       
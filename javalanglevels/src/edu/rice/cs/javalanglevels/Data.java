@@ -445,15 +445,12 @@ public abstract class Data {
     * @return  The new variable name which does not shadow anything in vars.
     */
   public String createUniqueName(String varName) {
-    VariableData vd = 
-      TypeChecker.getFieldOrVariable(varName, this, getSymbolData(), new NullLiteral(SourceInfo.NONE), getVars(), 
-                                     true, false);
+    VariableData vd = TypeChecker.getFieldOrVariable(varName, this, getVars(), true);
     String newName = varName;
     int counter = 0;  // Note: counter overflow is effectively impossible; 2G anonymous classes would blow memory
     while (vd != null && counter != -1) {
       newName = varName + counter; counter++;
-      vd = TypeChecker.getFieldOrVariable(newName, this, getSymbolData(), new NullLiteral(SourceInfo.NONE), 
-                                          getVars(), true, false);
+      vd = TypeChecker.getFieldOrVariable(newName, this, getVars(), true);
     }
     if (counter == -1) { throw new RuntimeException("Internal Program Error: Unable to rename variable " + varName
                                                       + ".  All possible names were taken.  Please report this bug");}
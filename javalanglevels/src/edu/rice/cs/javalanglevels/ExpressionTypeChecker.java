@@ -49,10 +49,10 @@ import junit.framework.TestCase;
 /** This is a TypeChecker for all Expressions used in the students files.  It is used with every LanguageLevel. */
 public class ExpressionTypeChecker extends SpecialTypeChecker {
   
-  public static final JavaVersion JAVA_VERSION = LanguageLevelConverter.OPT.javaVersion();
   public static final NullLiteral NULL_LITERAL = new NullLiteral(SourceInfo.NONE);
   
   /** Simply pass the necessary information on to superclass constructor.
+    * @param llc  The conversion being type checked
     * @param data  The data that represents the context.  TODO: What classes can it be?
     * @param file  The file that corresponds to the source file
     * @param packageName  The string representing the package name
@@ -61,10 +61,11 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     * @param vars  The list of fields that have been assigned up to the point where SpecialTypeChecker is called.
     * @param thrown  The list of exceptions that the context is declared to throw
     */
-  public ExpressionTypeChecker(Data data, File file, String packageName, LinkedList<String> importedFiles, 
+  public ExpressionTypeChecker(LanguageLevelConverter llc, Data data, File file, String packageName,
+                               LinkedList<String> importedFiles, 
                                LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
                                LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(data, file, packageName, importedFiles, importedPackages, vars, thrown);
+    super(llc, data, file, packageName, importedFiles, importedPackages, vars, thrown);
     if (vars == null) throw new RuntimeException("vars == null in new ExpressionTypeChecker operation");
   }
   
@@ -804,7 +805,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       }
       else { sd.setSuperClass(superC);}
     }
-    LanguageLevelVisitor.createAccessors(sd, _file);
+    _dummyVisitor().createAccessors(sd, _file);
     
     return sd;
   }
@@ -867,7 +868,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     //clone the variables and visit the body.
     LinkedList<VariableData> vars = cloneVariableDataList(_vars);
     vars.addAll(myData.getVars());
-    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(myData, _file, _package, _importedFiles, 
+    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(_llc, myData, _file, _package,
+                                                                           _importedFiles, 
                                                                                _importedPackages, vars, _thrown));
     
     
@@ -955,7 +957,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     LinkedList<VariableData> vars = cloneVariableDataList(_vars);
     vars.addAll(myData.getVars());
     
-    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(myData, _file, _package, _importedFiles, 
+    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(_llc, myData, _file, _package,
+                                                                           _importedFiles, 
                                                                                _importedPackages, vars, _thrown));
     
     //make sure all abstract super class methods are overwritten
@@ -1612,7 +1615,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     for (int i = 0; i < that.getInterfaces().length; i++) {
       interfacesRes[i] = that.getInterfaces()[i].visit(this);
     }
-    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(sd, _file, _package, _importedFiles, 
+    final TypeData bodyRes = that.getBody().visit(new ClassBodyTypeChecker(_llc, sd, _file, _package, _importedFiles, 
                                                                                _importedPackages, _vars, _thrown));
 //    return forInnerClassDefOnly(that, mavRes, nameRes, typeParamRes, superClass, 
 //                                typeParamRes, bodyRes);
@@ -1716,6 +1719,9 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
   
   /** Test class for the methods defined in the above (enclosing) class. */
   public static class ExpressionTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private ExpressionTypeChecker _etc;
     
@@ -1743,14 +1749,14 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     public ExpressionTypeCheckerTest(String name) { super(name); }
     
     public void setUp() {
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.loadSymbolTable();
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc.loadSymbolTable();
       _etc = 
-        new ExpressionTypeChecker(null, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
+        new ExpressionTypeChecker(_llc, null, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
                                   new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _etc._importedPackages.addFirst("java.lang");
       _sd1 = new SymbolData("i.like.monkey");
       _sd2 = new SymbolData("i.like.giraffe");
@@ -1876,7 +1882,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     
     public void testForSimpleUninitializedArrayInstantiation() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(_etc._file, 
+        new LanguageLevelVisitor(_llc, _etc._file, 
                                  _etc._package,
                                  null, // enclosingClassName for top level traversal
                                  _etc._importedFiles, 
@@ -1884,8 +1890,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = _etc.symbolTable;
-//      LanguageLevelConverter._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+//      symbolTable = llv.symbolTable = _etc.symbolTable;
+//      _llc._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
       
       SourceInfo si = SourceInfo.NONE;
       
@@ -2002,7 +2008,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
     
     public void testForUninitializedArrayInstantiationOnly() {
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(_etc._file, 
+        new LanguageLevelVisitor(_llc, _etc._file, 
                                  _etc._package,
                                  null, // enclosingClassName for top level traversal
                                  _etc._importedFiles, 
@@ -2011,8 +2017,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = _etc.symbolTable;
-//      LanguageLevelConverter._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+//      symbolTable = llv.symbolTable = _etc.symbolTable;
+//      _llc._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
       
       SourceInfo si = SourceInfo.NONE;
       
@@ -2109,7 +2115,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       ArrayType intArrayType = new ArrayType(SourceInfo.NONE, "int[]", new PrimitiveType(SourceInfo.NONE, "int"));
       
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(_etc._file, 
+        new LanguageLevelVisitor(_llc, _etc._file, 
                                  _etc._package, 
                                  null, // enclosingClassName for top level traversal
                                  _etc._importedFiles, 
@@ -3069,7 +3075,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                      new String[0], 
                                      testClass,
                                      null);
-      testClass.addMethod(md);
+      testClass.addMethod(md, errors);
       assertEquals("Should return instance of testClass", testClass.getInstanceData(), 
                    _etc.classInstantiationHelper(simpleCI, testClass));
       assertEquals("Should still be just three errors", 3, errors.size());
@@ -3100,7 +3106,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                         new String[0], 
                                         simpleClass,
                                         null);
-      simpleClass.addMethod(cons1);
+      simpleClass.addMethod(cons1, errors);
       symbolTable.put("simpleClass", simpleClass);
       
       assertEquals("Should return simpleClass even though it could not really access it", 
@@ -3128,7 +3134,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                         new String[0], 
                                         simpleClass,
                                         null);
-      simpleClass.addMethod(cons2);                                   
+      simpleClass.addMethod(cons2, errors);                                   
       assertEquals("Should return simpleClass", simpleClass.getInstanceData(), ci1.visit(_etc));
       assertEquals("Should still be 3 errors", 3, errors.size());
       
@@ -3155,7 +3161,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       a.addInnerClass(b);
       MethodData consb = 
         new MethodData("B", _publicMav, new TypeParameter[0], b, new VariableData[0], new String[0], b, null);
-      b.addMethod(consb);
+      b.addMethod(consb, errors);
       symbolTable.put("A", a);
       a.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
       b.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
@@ -3203,7 +3209,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData cons1 = 
         new MethodData("innerClass", _publicMav, new TypeParameter[0], innerClass, new VariableData[0], new String[0], 
                        innerClass, null);
-      innerClass.addMethod(cons1);
+      innerClass.addMethod(cons1, errors);
       symbolTable.put("outer", outerClass);
       _etc._vars.addLast(new VariableData("o", _publicMav, outerClass, true, _etc._data));
       outerClass.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
@@ -3222,7 +3228,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                         new String[0], 
                                         innerClass,
                                         null);
-      innerClass.addMethod(cons2);                                   
+      innerClass.addMethod(cons2, errors);                                   
       assertEquals("Should return innerClass", innerClass.getInstanceData(), ci1.visit(_etc));
       assertEquals("Should still be 2 errors", 2, errors.size());
       
@@ -3831,9 +3837,9 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       ArrayAccess aa = 
         new ArrayAccess(SourceInfo.NONE, NULL_LITERAL, NULL_LITERAL);
       
-      Hashtable<SymbolData, LanguageLevelVisitor> testNewSDs = LanguageLevelConverter._newSDs;
+      Hashtable<SymbolData, LanguageLevelVisitor> testNewSDs = _llc._newSDs;
       LanguageLevelVisitor testLLVisitor = 
-        new LanguageLevelVisitor(_etc._file, 
+        new LanguageLevelVisitor(_llc, _etc._file, 
                                  _etc._package,
                                  null, // enclosingClassName for top level traversal
                                  _etc._importedFiles, 
@@ -3991,7 +3997,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData noArgsM = 
         new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, new VariableData[0], 
                        new String[0], _sd2, NULL_LITERAL);
-      _sd2.addMethod(noArgsM);
+      _sd2.addMethod(noArgsM, errors);
       assertEquals("Should return boolean instance", 
                    SymbolData.BOOLEAN_TYPE.getInstanceData(), 
                    _etc.methodInvocationHelper(noArgs, _sd2.getInstanceData()));
@@ -4008,7 +4014,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData intArg = 
         new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.LONG_TYPE, 
                        new VariableData[] {new VariableData(SymbolData.INT_TYPE)}, new String[0], _sd2, NULL_LITERAL);
-      _sd2.addMethod(intArg);
+      _sd2.addMethod(intArg, errors);
       assertEquals("Should return long instance", SymbolData.LONG_TYPE.getInstanceData(), 
                    _etc.methodInvocationHelper(typeArg, _sd2.getInstanceData()));
       assertEquals("Should be 2 errors", 2, errors.size());
@@ -4032,7 +4038,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData doubleArg = 
         new MethodData("myName", _publicStaticMav, new TypeParameter[0], SymbolData.CHAR_TYPE, 
                        new VariableData[] {new VariableData(SymbolData.DOUBLE_TYPE)}, new String[0], _sd2, NULL_LITERAL);
-      _sd2.addMethod(doubleArg);
+      _sd2.addMethod(doubleArg, errors);
       assertEquals("Should return char instance", SymbolData.CHAR_TYPE.getInstanceData(), 
                    _etc.methodInvocationHelper(oneDoubleArg, _sd2));
       assertEquals("Should still be 3 errors", 3, errors.size());
@@ -4060,7 +4066,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData noArgsM = 
         new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, 
                        new VariableData[0], new String[0], _sd1, NULL_LITERAL);
-      _sd1.addMethod(noArgsM);
+      _sd1.addMethod(noArgsM, errors);
       assertEquals("Should return boolean instance", SymbolData.BOOLEAN_TYPE.getInstanceData(), noArgs.visit(_etc));
       assertEquals("Should still just be 1 error", 1, errors.size());
       
@@ -4068,7 +4074,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData doubleArg = 
         new MethodData("myName", _publicStaticMav, new TypeParameter[0], SymbolData.CHAR_TYPE, 
                        new VariableData[] {new VariableData(SymbolData.DOUBLE_TYPE)}, new String[0], _sd1, NULL_LITERAL);
-      _sd1.addMethod(doubleArg);
+      _sd1.addMethod(doubleArg, errors);
       
       assertEquals("Should return char instance", SymbolData.CHAR_TYPE.getInstanceData(), oneDoubleArg.visit(_etc));
       assertEquals("Should still be just 1 error", 1, errors.size());
@@ -4082,7 +4088,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       MethodData intArg = 
         new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.LONG_TYPE, 
                        new VariableData[] {new VariableData(SymbolData.INT_TYPE)}, new String[0], _sd1, NULL_LITERAL);
-      _sd1.addMethod(intArg);
+      _sd1.addMethod(intArg, errors);
       assertEquals("Should return long instance", SymbolData.LONG_TYPE.getInstanceData().getName(), 
                    oneIntArg.visit(_etc).getName());
       assertEquals("Should be 2 errors", 2, errors.size());
@@ -4138,7 +4144,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       // if method is in class, should work fine!
       MethodData noArgsM = new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, 
                                           new VariableData[0], new String[0], g, NULL_LITERAL);
-      g.addMethod(noArgsM);
+      g.addMethod(noArgsM, errors);
       assertEquals("Should return boolean instance", SymbolData.BOOLEAN_TYPE.getInstanceData(), noArgs.visit(_etc));
       assertEquals("Should still just be 1 error", 1, errors.size());
       
@@ -4147,7 +4153,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
         new MethodData("myName", _publicStaticMav, new TypeParameter[0], SymbolData.CHAR_TYPE, 
                        new VariableData[] { new VariableData(SymbolData.DOUBLE_TYPE) }, 
                        new String[0], g, NULL_LITERAL);
-      g.addMethod(doubleArg);
+      g.addMethod(doubleArg, errors);
       
       assertEquals("Should return char instance", SymbolData.CHAR_TYPE.getInstanceData(), oneDoubleArg.visit(_etc));
       assertEquals("Should still be just 1 error", 1, errors.size());
@@ -4177,7 +4183,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
         new MethodData("myName", _publicMav, new TypeParameter[0], SymbolData.LONG_TYPE, 
                        new VariableData[] { new VariableData(SymbolData.INT_TYPE)}, 
                        new String[0], g, NULL_LITERAL);
-      g.addMethod(intArg);
+      g.addMethod(intArg, errors);
       assertEquals("Should return long instance", SymbolData.LONG_TYPE.getInstanceData().getName(), 
                    oneIntArg.visit(_etc).getName());
       assertEquals("Should be 2 errors", 2, errors.size());
@@ -4273,7 +4279,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       
       //test that we can assign to an array element
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(_etc._file, 
+        new LanguageLevelVisitor(_llc, _etc._file, 
                                  _etc._package, 
                                  null, // enclosingClassName for top level traversal
                                  _etc._importedFiles, 
@@ -4281,8 +4287,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = _etc.symbolTable;
-//      LanguageLevelConverter._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+//      symbolTable = llv.symbolTable = _etc.symbolTable;
+//      _llc._newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
       ArrayData boolArray = new ArrayData(SymbolData.BOOLEAN_TYPE, llv, SourceInfo.NONE);
       boolArray.setIsContinuation(false);
       symbolTable.remove("boolean[]");
@@ -4590,7 +4596,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                               new ParenthesizedExpressionList(SourceInfo.NONE, new Expression[0]),
                                               new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
       
-      SymbolData object = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData object = symbolTable.get("java.lang.Object");
       
       _sd1.setAnonymousInnerClassNum(0);
       
@@ -4665,8 +4671,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       md.getParams()[0].setEnclosingData(md);
       MethodData cd = 
         new MethodData("name", _publicMav, new TypeParameter[0], sd, new VariableData[0], new String[0], sd, cmd1);
-      anon2.addMethod(md);
-      sd.addMethod(cd);
+      anon2.addMethod(md, errors);
+      sd.addMethod(cd, errors);
       // check that this complex expression returns correct type, overwriting fields and method in super class
       assertEquals("Should return anon2.  ", anon2.getInstanceData(), complicated.visit(_etc));
       assertEquals("There should be no errors", 0, errors.size());
@@ -4707,7 +4713,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       _sd1.setAnonymousInnerClassNum(1);
       sd.setMav(_publicAbstractMav);
       sd.addMethod(new MethodData("yeah", _abstractMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, 
-                                  new VariableData[0], new String[0], sd, cmd1));
+                                  new VariableData[0], new String[0], sd, cmd1), errors);
       
       assertEquals("Should return anon2 instance", anon2.getInstanceData(), complicated.visit(_etc));
       assertEquals("There should be one error", 1, errors.size());
@@ -4733,7 +4739,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
                                         new String[0], 
                                         b,
                                         null);
-      b.addMethod(consb);
+      b.addMethod(consb, errors);
       symbolTable.put("A", a);
       a.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
       b.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
@@ -4776,7 +4782,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       VariableData bob = new VariableData("bob", _publicMav, _sd2, true, _sd1);
       _etc._vars.add(bob);  // _data for _etc is _sd1
       
-      SymbolData object = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData object = symbolTable.get("java.lang.Object");
       _sd1.setAnonymousInnerClassNum(0);
       SymbolData anon1 = new SymbolData("i.like.monkey$1");
       anon1.setIsContinuation(false);
@@ -4851,8 +4857,8 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       md.getParams()[0].setEnclosingData(md);
       MethodData cd = 
         new MethodData("name", _publicMav, new TypeParameter[0], sd, new VariableData[0], new String[0], sd, cmd1);
-      anon2.addMethod(md);
-      sd.addMethod(cd);
+      anon2.addMethod(md, errors);
+      sd.addMethod(cd, errors);
       // check that this complex expression returns correct type, overwriting fields in super class and method in 
       // super class
       assertEquals("Should return anon2.  ", anon2.getInstanceData(), complicated.visit(_etc));
@@ -4895,7 +4901,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       _sd1.setAnonymousInnerClassNum(1);
       sd.setMav(_publicAbstractMav);
       sd.addMethod(new MethodData("yeah", _abstractMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, 
-                                  new VariableData[0], new String[0], sd, cmd1));
+                                  new VariableData[0], new String[0], sd, cmd1), errors);
       
       assertEquals("Should return anon2 instance", anon2.getInstanceData(), complicated.visit(_etc));
       assertEquals("There should be one error", 1, errors.size());
@@ -4920,7 +4926,7 @@ public class ExpressionTypeChecker extends SpecialTypeChecker {
       a.addInnerClass(b);
       MethodData consb = 
         new MethodData("B", _publicMav, new TypeParameter[0], b, new VariableData[0], new String[0], b, null);
-      b.addMethod(consb);
+      b.addMethod(consb, errors);
       symbolTable.put("A", a);
       a.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
       b.setMav(new ModifiersAndVisibility(SourceInfo.NONE, new String[] {"public"}));
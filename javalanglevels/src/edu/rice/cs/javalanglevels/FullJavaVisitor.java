@@ -63,8 +63,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
    */
 
   /** Main constructor, which is called from sites where the genericTypes table is not empty. */
-  public FullJavaVisitor(File file, 
-                         String packageName, 
+  public FullJavaVisitor(LanguageLevelConverter llc,
+                         File file, String packageName,
                          String enclosingClassName,
                          LinkedList<String> importedFiles, 
                          LinkedList<String> importedPackages,
@@ -72,29 +72,29 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
                          Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                          LinkedList<Command> fixUps,
                          HashMap<String, SymbolData> genericTypes) {
-    super(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, 
+    super(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile,
+          continuations, 
           fixUps, genericTypes);
   }
   
   
   /** This constructor is called from sites where no generic type variables are in scope. */
-  public FullJavaVisitor(File file, 
-                         String packageName, 
+  public FullJavaVisitor(LanguageLevelConverter llc,
+                         File file, String packageName,
                          String enclosingClassName,
                          LinkedList<String> importedFiles, 
                          LinkedList<String> importedPackages,
                          HashSet<String> classesInThisFile, 
                          Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                          LinkedList<Command> fixUps) {
-    this(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, 
+    this(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, 
          fixUps, new HashMap<String, SymbolData>());
   }
   
-  /** This constructor is called only in testing.  It initializes all of the static fields of LanguageLevelVisitor. */
-  public FullJavaVisitor(File file) {
-    this(file, 
-         new LinkedList<Pair<String, JExpressionIF>>(),
-         new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
+  /** This constructor is called only in testing.  It initializes all of the fields of LanguageLevelVisitor. */
+  public FullJavaVisitor(LanguageLevelConverter llc, File file) {
+    this(llc,
+         file, new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
          new LinkedList<Command>(),
          new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
   }
@@ -102,35 +102,33 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
   /** This constructor is called from LanguageLevelConverter when it is instantiating a new
     * FullJavaVisitor to visit a new file.  Package is set to "" by default.  The generic
     * types table (_genericTypes) is set to an emtpy HashMap by default.
+    * @param llc  The conversion this visitor is part of
     * @param file  The File corresponding to the source file we are visiting
-    * @param errors  The list of errors that have been encountered so far.
     * @param continuations  The table of classes we have encountered but still need to resolve
     * @param visitedFiles  The list of files we have visited
     */
-  public FullJavaVisitor(File file, 
-                         LinkedList<Pair<String, JExpressionIF>> errors, 
+  public FullJavaVisitor(LanguageLevelConverter llc,
+                         File file, 
                          Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                          LinkedList<Command> fixUps,
                          LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles) {
-    this(file, new LinkedList<String>(), errors, continuations, fixUps, visitedFiles);
+    this(llc, file, new LinkedList<String>(), continuations, fixUps, visitedFiles);
   }
 
   /** This constructor is called from LanguageLevelConverter when it is instantiating a new
     * FullJavaVisitor to visit a new file.  Package is set to "" by default.
+    * @param llc  The conversion this visitor is part of
     * @param file  The File corresponding to the source file we are visiting
     * @param importedPackages The list of strings describing the imported packages for this file
-    * @param errors  The list of errors that have been encountered so far.
     * @param continuations  The table of classes we have encountered but still need to resolve
     * @param visitedFiles  The list of files we have visited
     */
-  public FullJavaVisitor(File file,
-                         LinkedList<String> importedPackages,
-                         LinkedList<Pair<String, JExpressionIF>> errors, 
+  public FullJavaVisitor(LanguageLevelConverter llc,
+                         File file, LinkedList<String> importedPackages,
                          Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                          LinkedList<Command> fixUps,
                          LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles) {
-    this(file, "", null, new LinkedList<String>(), importedPackages, new HashSet<String>(), continuations, fixUps);
-    this.errors = errors;
+    this(llc, file, "", null, new LinkedList<String>(), importedPackages, new HashSet<String>(), continuations, fixUps);
     this.visitedFiles= visitedFiles; //new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>();
 //    _hierarchy = new Hashtable<String, TypeDefBase>();//hierarchy;
   }
@@ -150,8 +148,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
     // if sd already has a constructor, just return.
     boolean hasOtherConstructor = sd.hasMethod(name);
     if (hasOtherConstructor) {
-          LanguageLevelConverter._newSDs.remove(sd); // this won't do anything if sd is not in _newSDs.
-//          System.err.println(sd + " removed from _newSDs.  _newSDs = " + LanguageLevelConverter._newSDs);
+          _llc._newSDs.remove(sd); // this won't do anything if sd is not in _newSDs.
+//          System.err.println(sd + " removed from _newSDs.  _newSDs = " + _llc._newSDs);
           return;
     }
     
@@ -166,7 +164,7 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
                                     null);
 
     addGeneratedMethod(sd, md);
-    LanguageLevelConverter._newSDs.remove(sd); // does nothing if sd is not in _newSDs.
+    _llc._newSDs.remove(sd); // does nothing if sd is not in _newSDs.
   }
   
   /** Process the inner class def and then resolve it and store it in
@@ -226,7 +224,7 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
     if (sd != null) { // We have a symbol data to work with, so visit the body using the new generic types table
       identifyInnerClasses(that);
       ClassBodyFullJavaVisitor cbfjv =
-        new ClassBodyFullJavaVisitor(sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
+        new ClassBodyFullJavaVisitor(_llc, sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
                                      continuations, fixUps, genericTypes);
       that.getBody().visit(cbfjv);
     }
@@ -281,8 +279,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       sd.setInterface(true);
       identifyInnerClasses(that);
       InterfaceBodyFullJavaVisitor ibfjv = 
-        new InterfaceBodyFullJavaVisitor(sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
-                                         continuations, fixUps, genericTypes);
+        new InterfaceBodyFullJavaVisitor(_llc, sd, _file, _package, _importedFiles, _importedPackages,
+                                         _classesInThisFile, continuations, fixUps, genericTypes);
       that.getBody().visit(ibfjv);
     }
 
@@ -408,7 +406,7 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
 //      System.err.println("********** Calling identifyInnerClasses for SymbolData " + sd.getName());
       identifyInnerClasses(that);
       ClassBodyFullJavaVisitor cbfjv = 
-        new ClassBodyFullJavaVisitor(sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
+        new ClassBodyFullJavaVisitor(_llc, sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
                                      continuations, fixUps, genericTypes);
       that.getBody().visit(cbfjv);
     }
@@ -471,8 +469,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       sd.setInterface(true);
       identifyInnerClasses(that);
       InterfaceBodyFullJavaVisitor ibfjv =
-        new InterfaceBodyFullJavaVisitor(sd, _file, _package, _importedFiles, _importedPackages, _classesInThisFile, 
-                                         continuations, fixUps, genericTypes);
+        new InterfaceBodyFullJavaVisitor(_llc, sd, _file, _package, _importedFiles, _importedPackages,
+                                         _classesInThisFile, continuations, fixUps, genericTypes);
       that.getBody().visit(ibfjv);
     }
     
@@ -519,6 +517,9 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
     * the tests that relate to subclasses to the appropriate subclasses!
     */
   public static class FullJavaVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     /*Some initial initializations:*/
     private FullJavaVisitor _fv;
@@ -548,21 +549,19 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
     public FullJavaVisitorTest(String name) { super(name); }
     
     public void setUp() {
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
-      _fv = new FullJavaVisitor(new File(""), 
-                                errors,
-                                continuations,
+      _fv = new FullJavaVisitor(_llc, new File(""), 
+                                new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                 new LinkedList<Command>(),
                                 new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
       _fv._classesInThisFile = new HashSet<String>();
       _fv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       _fv._importedPackages.addFirst("java.lang");
-      _errorAdded = false;
+      _llc._errorAdded = false;
       
       _sd1 = new SymbolData("i.like.monkey");
       _sd2 = new SymbolData("i.like.giraffe");
@@ -577,14 +576,14 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       _sd1.setTypeParameters(new TypeParameter[0]);
       _sd1.setInterfaces(new ArrayList<SymbolData>()); 
       
-      _objectSD = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      _objectSD = symbolTable.get("java.lang.Object");
       _sd1.setSuperClass(_objectSD);
       
       _fv._enclosingClassName = "i.like.monkey";
       _fv.symbolTable.put("i.like.monkey", _sd1);
 
       _sd1.setSuperClass(_objectSD);
-      _errorAdded = false;  // static field of this.  TODO: fix this!
+      _llc._errorAdded = false;
     }
     
     public void initTopLevel() {
@@ -796,8 +795,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       sd.setPackage("");
       sd.setTypeParameters(new TypeParameter[0]);
       sd.setInterfaces(new ArrayList<SymbolData>()); 
-      sd.setSuperClass(LanguageLevelConverter.symbolTable.get("java.lang.Object"));
-      LanguageLevelConverter.symbolTable.put("Name", sd);
+      sd.setSuperClass(symbolTable.get("java.lang.Object"));
+      symbolTable.put("Name", sd);
                        
       ArrayInitializer ai = new ArrayInitializer(SourceInfo.NONE, new VariableInitializerI[0]);
       TypeVariable tv = new TypeVariable(SourceInfo.NONE, "Name");
@@ -805,7 +804,7 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       
       at.visit(_fv);
       assertEquals("There should be no errors", 0, errors.size());
-      SymbolData asd = LanguageLevelConverter.symbolTable.get("Name[]");
+      SymbolData asd = symbolTable.get("Name[]");
       assertNotNull("asd should not be null", asd);
       ArrayData ad = (ArrayData) asd;
       assertEquals("ad should have an elt sd of name 'Name'", "Name", ad.getElementType().getName());
@@ -817,11 +816,11 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
 
       at2.visit(_fv);
       assertEquals("There should be no errors", 0, errors.size());
-      assertNotNull("Object should be in the symbolTable", LanguageLevelConverter.symbolTable.get("java.lang.Object"));
+      assertNotNull("Object should be in the symbolTable", symbolTable.get("java.lang.Object"));
       assertNotNull("Object[] should be in the symbolTable", 
-                    LanguageLevelConverter.symbolTable.get("java.lang.Object[]"));
+                    symbolTable.get("java.lang.Object[]"));
       assertNotNull("Object[][] should be in the symbolTable", 
-                    LanguageLevelConverter.symbolTable.get("java.lang.Object[][]"));
+                    symbolTable.get("java.lang.Object[][]"));
     }
     
     // TODO: resurrect a test of this method
@@ -919,11 +918,11 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       cd0.visit(_fv);
       assertEquals("There should be no errors", 0, errors.size());
       assertTrue("Should have resolved java.lang.Object", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.Object"));
+                 symbolTable.containsKey("java.lang.Object"));
       assertFalse("Should not be a continuation", 
-                  LanguageLevelConverter.symbolTable.get("java.lang.Object").isContinuation());
-      SymbolData sd = LanguageLevelConverter.symbolTable.get("Lisa");
-      assertTrue("Lisa should be in _newSDs", LanguageLevelConverter._newSDs.containsKey(sd));
+                  symbolTable.get("java.lang.Object").isContinuation());
+      SymbolData sd = symbolTable.get("Lisa");
+      assertTrue("Lisa should be in _newSDs", _llc._newSDs.containsKey(sd));
       assertEquals("sd should have no methods", 0, sd.getMethods().size());
       assertEquals("sd's package should be correct", "", sd.getPackage());
       
@@ -938,10 +937,10 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       cd1.visit(_fv);
       assertEquals("There should be no errors", 0, errors.size());
       assertTrue("Should have resolved java.lang.System", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.System"));
+                 symbolTable.containsKey("java.lang.System"));
       assertFalse("Should not be a continuation", 
-                  LanguageLevelConverter.symbolTable.get("java.lang.System").isContinuation());
-      sd = LanguageLevelConverter.symbolTable.get("Bart");
+                  symbolTable.get("java.lang.System").isContinuation());
+      sd = symbolTable.get("Bart");
       
       assertEquals("There should be 0 methods", 0, sd.getMethods().size()); //(no code augmentation is done)
       
@@ -966,11 +965,11 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
 
       _fv._file = new File("TestSuper2.dj2");
       _fv._importedFiles.addLast("junit.framework.TestCase");
-      LanguageLevelConverter.symbolTable.put("junit.framework.TestCase", new SymbolData("junit.framework.TestCase"));
+      symbolTable.put("junit.framework.TestCase", new SymbolData("junit.framework.TestCase"));
       cd3.visit(_fv);
       assertEquals("There should still just be no errors", 0, errors.size());
       assertNotNull("Should have looked up TestSuper2", 
-                    LanguageLevelConverter.symbolTable.get("TestSuper2"));
+                    symbolTable.get("TestSuper2"));
       
       //Check a method with void return, but name not starting with test, so it's not okay.
       //This is now checked in the type checker!
@@ -1045,23 +1044,23 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
         new MethodData("myMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE, new VariableData[0], 
                        new String[0], sd2, amd2);
       
-      LanguageLevelConverter.symbolTable.put("i.like.monkey.id", sd);
-      LanguageLevelConverter.symbolTable.put("i.like.monkey.id2", sd2);
+      symbolTable.put("i.like.monkey.id", sd);
+      symbolTable.put("i.like.monkey.id2", sd2);
 
       id.visit(_fv);
       id2.visit(_fv);
       assertEquals("Should be no errors", 0, errors.size());
       assertEquals("Should return the same symbol datas: id", sd, 
-                   LanguageLevelConverter.symbolTable.get("i.like.monkey.id"));
+                   symbolTable.get("i.like.monkey.id"));
       assertEquals("Should return the same symbol datas:id2 ", sd2, 
-                   LanguageLevelConverter.symbolTable.get("i.like.monkey.id2"));
+                   symbolTable.get("i.like.monkey.id2"));
     }
     
     public void testHandleInnerClassDef() { 
 //      System.err.println("**** Starting testHandleInnerClassDef");
       // setUp has created a FullJavaVisitor which initializes the symbolTable
       
-//      LanguageLevelConverter.symbolTable.put("java.lang.Object", _objectSD);
+//      symbolTable.put("java.lang.Object", _objectSD);
       InnerClassDef cd1 = 
         new InnerClassDef(SourceInfo.NONE, 
                           _packageMav, 
@@ -1099,7 +1098,7 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
 //      sd0.setIsContinuation(true);
 //      sd1.setIsContinuation(true);      
             
-//      LanguageLevelConverter.symbolTable.put(outerData.getName() + "$Lisa", sd0);
+//      symbolTable.put(outerData.getName() + "$Lisa", sd0);
 
       _fv.handleInnerClassDef(cd0, _sd1, "Lisa", _sd1.getName() + ".Lisa");                        
                               
@@ -1300,9 +1299,9 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
      _fv._enclosingClassName = "i.like.monkey";
      _fv.complexAnonymousClassInstantiationHelper(basic, _sd1);  // TODO: the wrong enclosing context?
      assertEquals("There should be no errors", 0, errors.size());
-     SymbolData obj = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+     SymbolData obj = symbolTable.get("java.lang.Object");
      assertNotNull("Object should be in the symbol table", obj);
-     SymbolData objInner = LanguageLevelConverter.symbolTable.get("java.lang.Object.Inner");
+     SymbolData objInner = symbolTable.get("java.lang.Object.Inner");
      assertEquals("sd1 should have one inner class", 1, _sd1.getInnerClasses().size());
      SymbolData inner = _sd1.getInnerClasses().get(0);
      assertEquals("The inner class should have the proper name", "i.like.monkey$1", inner.getName());
@@ -1329,8 +1328,8 @@ public class FullJavaVisitor extends LanguageLevelVisitor {
       VariableDeclaration vd1 = new VariableDeclaration(SourceInfo.NONE,_publicMav, d1); 
       
       ClassBodyFullJavaVisitor cbav = 
-        new ClassBodyFullJavaVisitor(_sd1, _sd1.getName(), _fv._file, _fv._package, _fv._importedFiles, _fv._importedPackages, 
-                                     _fv._classesInThisFile, _fv.continuations, _fv.fixUps);
+        new ClassBodyFullJavaVisitor(_llc, _sd1, _sd1.getName(), _fv._file, _fv._package, _fv._importedFiles,
+                                     _fv._importedPackages, _fv._classesInThisFile, _fv.continuations, _fv.fixUps);
       vd1.visit(cbav);
       assertEquals("Should be 1 inner class of _sd1", 1, _sd1.getInnerClasses().size());
 //      System.err.println("**** Completed testForVariableDeclaration");
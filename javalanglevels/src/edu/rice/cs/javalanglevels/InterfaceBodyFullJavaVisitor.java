@@ -51,6 +51,7 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
   private SymbolData _enclosing;
   
   /** Old constructor for InterfaceBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd             The SymbolData that encloses the context we are visiting.
     * @param file           The source file this came from.
     * @param packageName    The package the source file is in
@@ -60,21 +61,23 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
     * @param continuations  A hashtable corresponding to the continuations (unresolved Symbol Datas) that will need to 
     *                       be resolved
     */
-  public InterfaceBodyFullJavaVisitor(SymbolData sd, 
-                                      File file, 
+  public InterfaceBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                      SymbolData sd, File file,
                                       String packageName,
                                       LinkedList<String> importedFiles, 
                                       LinkedList<String> importedPackages, 
                                       HashSet<String> classesInThisFile,
                                       Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                       LinkedList<Command> fixUps) {
-    super(file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
+    super(llc, file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations,
+          fixUps);
     _enclosing = sd;
 //    if (_enclosingClassName != sd.getName()) Utilities.show("enclosingClassName does not equal sd.getName(). Trace follows.\n" +
 //                                                            Utilities.getStackTrace());
   }
   
   /** Preferred constructor for InterfaceBodyFullJavaVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd             The SymbolData that encloses the context we are visiting.
     * @param file           The source file this came from.
     * @param packageName    The package the source file is in
@@ -85,8 +88,8 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
     *                       be resolved
     * @param genericTypes   A HashMap mapping in scope generic type names to their bounds (SymbolDatas).
     */
-  public InterfaceBodyFullJavaVisitor(SymbolData sd, 
-                                      File file, 
+  public InterfaceBodyFullJavaVisitor(LanguageLevelConverter llc,
+                                      SymbolData sd, File file,
                                       String packageName,
                                       LinkedList<String> importedFiles, 
                                       LinkedList<String> importedPackages, 
@@ -94,8 +97,8 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
                                       Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                       LinkedList<Command> fixUps,
                                       HashMap<String, SymbolData> genericTypes) {
-    super(file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations, fixUps,
-          genericTypes);
+    super(llc, file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations,
+          fixUps, genericTypes);
     _enclosing = sd;
 //    if (_enclosingClassName != sd.getName()) Utilities.show("enclosingClassName does not equal sd.getName(). Trace follows.\n" +
 //                                                            Utilities.getStackTrace());
@@ -188,7 +191,7 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
       _addAndIgnoreError("Only constructors can have the same name as the class they appear in, " + 
                          "and constructors cannot appear in interfaces.", that);
     }
-    else _enclosing.addMethod(md);
+    else _enclosing.addMethod(md, errors);
 
     _genericTypes = oldGenericTypes;
     return null;
@@ -242,6 +245,9 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
 
   /** Test the methods in the above class. */
   public static class InterfaceBodyFullJavaVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private InterfaceBodyFullJavaVisitor _ibfv;
     
@@ -259,11 +265,10 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
     public InterfaceBodyFullJavaVisitorTest(String name) { super(name);  }
     
     public void setUp() {
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();   
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
       
             
       _sd1 = new SymbolData("MyInterface");
@@ -274,7 +279,7 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
       _sd1.setInterfaces(new ArrayList<SymbolData>());
       
       // NOTE: the following ensures that the symbolTable includes essential types
-      _ibfv = new InterfaceBodyFullJavaVisitor(_sd1, 
+      _ibfv = new InterfaceBodyFullJavaVisitor(_llc, _sd1, 
                                                new File(""), 
                                                "", 
                                                new LinkedList<String>(), 
@@ -287,12 +292,12 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
       _ibfv._importedPackages.addFirst("java.lang");
       _ibfv._enclosingClassName = "MyInterface";
 
-      _objectSD = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      _objectSD = symbolTable.get("java.lang.Object");
       _sd1.setSuperClass(_objectSD);
       
-      LanguageLevelConverter.symbolTable.put("MyInterface", _sd1);
+      symbolTable.put("MyInterface", _sd1);
 
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void testForConcreteMethodDefDoFirst() {
@@ -487,8 +492,8 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
       _ibfv._enclosing.setInterface(true);
       
 //      SymbolData obj = new SymbolData("java.lang.Object");
-      LanguageLevelConverter._newSDs.clear();
-//      LanguageLevelConverter.symbolTable.put("java.lang.Object", obj);
+      _llc._newSDs.clear();
+//      symbolTable.put("java.lang.Object", obj);
       
       InnerClassDef cd1 = 
         new InnerClassDef(SourceInfo.NONE, 
@@ -521,8 +526,8 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
 //
 //      sd0.setIsContinuation(true);
 //      sd1.setIsContinuation(true);
-//      LanguageLevelConverter._newSDs.clear();
-//      LanguageLevelConverter.symbolTable.put(_ibfv._enclosing.getName() + "$Lisa", sd0);
+//      _llc._newSDs.clear();
+//      symbolTable.put(_ibfv._enclosing.getName() + "$Lisa", sd0);
 
       cd0.visit(_ibfv);
 
@@ -570,10 +575,10 @@ public class InterfaceBodyFullJavaVisitor extends FullJavaVisitor {
 //      
 //      sd0.setIsContinuation(true);
 //      sd1.setIsContinuation(true);
-//      LanguageLevelConverter._newSDs.clear();
-//      LanguageLevelConverter.symbolTable.put(_ibfv._enclosing.getName() + "$Lisa", sd0);
-//      LanguageLevelConverter._newSDs.clear();
-//      LanguageLevelConverter.symbolTable.put(_ibfv._enclosing.getName() + "$Lisa$Bart", sd1);
+//      _llc._newSDs.clear();
+//      symbolTable.put(_ibfv._enclosing.getName() + "$Lisa", sd0);
+//      _llc._newSDs.clear();
+//      symbolTable.put(_ibfv._enclosing.getName() + "$Lisa$Bart", sd1);
 
       cd0.visit(_ibfv);
 
@@ -55,6 +55,7 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
   private SymbolData _enclosing;
   
   /** Constructor for InterfaceBodyIntermediateVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param sd  The SymbolData that encloses the context we are visiting.
     * @param file  The source file this came from.
     * @param packageName  The package the source file is in
@@ -63,15 +64,16 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
     * @param classesInThisFile  A list of the classes that are yet to be defined in this source file
     * @param continuations  A hashtable corresponding to the continuations (unresolved Symbol Datas) that will need to be resolved
     */
-  public InterfaceBodyIntermediateVisitor(SymbolData sd, 
-                                          File file, 
+  public InterfaceBodyIntermediateVisitor(LanguageLevelConverter llc,
+                                          SymbolData sd, File file,
                                           String packageName, 
                                           LinkedList<String> importedFiles, 
                                           LinkedList<String> importedPackages, 
                                           HashSet<String> classesInThisFile, 
                                           Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                                           LinkedList<Command> fixUps) {
-    super(file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
+    super(llc, file, packageName, sd.getName(), importedFiles, importedPackages, classesInThisFile, continuations,
+          fixUps);
     _enclosing = sd;
   }
   
@@ -137,7 +139,7 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
       _addAndIgnoreError("Only constructors can have the same name as the class they appear in, " + 
                          "and constructors cannot appear in interfaces.", that);
     }
-    else _enclosing.addMethod(md);
+    else _enclosing.addMethod(md, errors);
     return null;
   }
   
@@ -174,6 +176,9 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
   
   /** Test the methods declared in the above class. */
   public static class InterfaceBodyIntermediateVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private InterfaceBodyIntermediateVisitor _ibiv;
     
@@ -201,14 +206,13 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
       _sd1.setTypeParameters(new TypeParameter[0]);
       _sd1.setInterfaces(new ArrayList<SymbolData>());
 
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
       _ibiv = 
-        new InterfaceBodyIntermediateVisitor(_sd1, 
+        new InterfaceBodyIntermediateVisitor(_llc, _sd1, 
                                              new File(""), 
                                              "", 
                                              new LinkedList<String>(), 
@@ -221,7 +225,7 @@ public class InterfaceBodyIntermediateVisitor extends IntermediateVisitor {
       _ibiv._importedPackages.addFirst("java.lang");
       _ibiv._enclosingClassName = "i.like.monkey";
       _ibiv.symbolTable.put("i.like.monkey", _sd1);
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void testForConcreteMethodDefDoFirst() {
@@ -61,8 +61,10 @@ public class InterfaceBodyTypeChecker extends SpecialTypeChecker {
    * @param vars  A list of the variable datas that can be seen and have been given a value before this context
    * @param thrown  The exceptions that are thrown
    */
-  public InterfaceBodyTypeChecker(SymbolData sd, File file, String packageName, LinkedList<String> importedFiles, LinkedList<String> importedPackages, LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(sd, file, packageName, importedFiles, importedPackages, vars, thrown);
+  public InterfaceBodyTypeChecker(LanguageLevelConverter llc, SymbolData sd, File file, String packageName,
+                                  LinkedList<String> importedFiles, LinkedList<String> importedPackages,
+                                    LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
+    super(llc, sd, file, packageName, importedFiles, importedPackages, vars, thrown);
     _vars.addAll(sd.getVars());
     _symbolData = sd;
   }
@@ -105,7 +107,7 @@ public class InterfaceBodyTypeChecker extends SpecialTypeChecker {
     if (md == null) {
       throw new RuntimeException("Internal Program Error: Could not find the method " + that.getName().getText() + " in interface " + _symbolData.getName() + ".  Please report this bug.");
     }
-    SymbolData.checkDifferentReturnTypes(md, _symbolData, true);
+    SymbolData.checkDifferentReturnTypes(md, _symbolData, errors, true);
     return resRes;
   }
   
@@ -136,6 +138,9 @@ public class InterfaceBodyTypeChecker extends SpecialTypeChecker {
     * Test the methods declared in the above class.
     */
   public static class InterfaceBodyTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private InterfaceBodyTypeChecker _ibbtc;
     
@@ -170,13 +175,13 @@ public class InterfaceBodyTypeChecker extends SpecialTypeChecker {
       _sd4 = new SymbolData("u.like.emu");
       _sd5 = new SymbolData("");
       _sd6 = new SymbolData("cebu");
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
       _ibbtc = 
-        new InterfaceBodyTypeChecker(_sd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(),
+        new InterfaceBodyTypeChecker(_llc, _sd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(),
                                      new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _ibbtc._importedPackages.addFirst("java.lang");
     }
     
@@ -256,7 +261,7 @@ public class InterfaceBodyTypeChecker extends SpecialTypeChecker {
       md.getParams()[0].setEnclosingData(md);                               
       md.getParams()[1].setEnclosingData(md);                               
 
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
 //      _ibbtc._vars.addLast(new VariableData("field1", _packageMav, SymbolData.DOUBLE_TYPE));
       cmd.visit(_ibbtc);
       assertEquals("There should be one error.", 1, errors.size());
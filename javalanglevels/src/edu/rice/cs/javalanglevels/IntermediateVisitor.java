@@ -71,66 +71,66 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
   /** This constructor is called when creating a new instance of IntermediateVisitor.  The default value for className
     * is the empty string.  The default value of _genericTypes (a field of LanguageLevelVisitor) is an empty HashMap.
     */
-  public IntermediateVisitor(File file, 
-                             String packageName,
+  public IntermediateVisitor(LanguageLevelConverter llc,
+                             File file, String packageName,
                              String enclosingClassName,
                              LinkedList<String> importedFiles, 
                              LinkedList<String> importedPackages,
                              HashSet<String> classesInThisFile, 
                              Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                              LinkedList<Command> fixUps) {
-    super(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, fixUps);
+    super(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile,
+          continuations, 
+          fixUps);
   }
 
-  /** This constructor is called when testing.  It initializes all of the static fields of LanguageLevelVisitor. */
-  public IntermediateVisitor(File file) {
-    this(file, 
-         new LinkedList<Pair<String, JExpressionIF>>(),
-         new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(), 
+  /** This constructor is called when testing.  It initializes all of the fields of LanguageLevelVisitor. */
+  public IntermediateVisitor(LanguageLevelConverter llc, File file) {
+    this(llc,
+         file, new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
          new LinkedList<Command>(),
          new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
   }
   
   /** This constructor is called from LanguageLevelVisitor and LanguageLevelConverter when they are instantiating a new
     * IntermediateVisitor to visit a new file with.  _package is set to "" by default. _enclosingClassName is set to null
+    * @param llc  The conversion this visitor is part of
     * @param file  The File corresponding to the source file we are visiting
-    * @param errors  The list of errors that have been encountered so far.
     * @param continuations  The table of classes we have encountered but still need to resolve
     * @param fixUps   This list of symbolTable fixups to perform after visitation
     * @param visitedFiles  The list of files we have visited
     */
-  public IntermediateVisitor(File file,
-                             LinkedList<Pair<String, JExpressionIF>> errors,
+  public IntermediateVisitor(LanguageLevelConverter llc,
+                             File file,
                              Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                              LinkedList<Command> fixUps,
                              LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles) {
-    this(file, new LinkedList<String>(), errors, continuations, fixUps, visitedFiles);
+    this(llc, file, new LinkedList<String>(), continuations, fixUps, visitedFiles);
   }
   
   /** This constructor is called from LanguageLevelVisitor and LanguageLevelConverter when they are instantiating a new
     * IntermediateVisitor to visit a new file with.  _package is set to "" by default. _enclosingClassName is set to null
+    * @param llc              The conversion this visitor is part of
     * @param file             The File corresponding to the source file we are visiting
     * @param importedPackages The list of strings describing the imported packages for this file
-    * @param errors           The list of errors that have been encountered so far.
     * @param continuations    The table of classes we have encountered but still need to resolve
     * @param fixUps           This list of symbolTable fixups to perform after visitation
     * @param visitedFiles     The list of files we have visited
     */
-  public IntermediateVisitor(File file,
-                             LinkedList<String> importedPackages,
-                             LinkedList<Pair<String, JExpressionIF>> errors,
+  public IntermediateVisitor(LanguageLevelConverter llc,
+                             File file, LinkedList<String> importedPackages,
                              Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                              LinkedList<Command> fixUps,
                              LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles) {
-    super(file, "", null, new LinkedList<String>(), importedPackages, new HashSet<String>(), continuations, fixUps);
-    this.errors = errors;
+    super(llc, file, "", null, new LinkedList<String>(), importedPackages, new HashSet<String>(), continuations,
+          fixUps);
     this.visitedFiles= visitedFiles;
 //    _hierarchy = new Hashtable<String, TypeDefBase>(); //hierarchy;
   }
   
   /** Factory method inherited from LLV class. */
   public LanguageLevelVisitor newClassBodyVisitor(SymbolData anonSD, String anonName) {
-    return new ClassBodyFullJavaVisitor(anonSD, anonName, _file, _package, _importedFiles, _importedPackages, 
+    return new ClassBodyFullJavaVisitor(_llc, anonSD, anonName, _file, _package, _importedFiles, _importedPackages, 
                                         _classesInThisFile, continuations, fixUps);
   }
   
@@ -167,7 +167,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
     
     SymbolData sd = defineInnerSymbolData(that, relName, name, enclosing);
     if (sd != null) { // We have a SymbolData to work with, so visit the body and augment
-      that.getBody().visit(new ClassBodyIntermediateVisitor(sd,
+      that.getBody().visit(new ClassBodyIntermediateVisitor(_llc, sd,
                                                             sd.getName(),
                                                             _file, 
                                                             _package,
@@ -217,7 +217,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
     
     SymbolData sd = defineInnerSymbolData(that, relName, name, enclosing);
     if (sd != null) { 
-      that.getBody().visit(new InterfaceBodyIntermediateVisitor(sd, 
+      that.getBody().visit(new InterfaceBodyIntermediateVisitor(_llc, sd, 
                                                                 _file, 
                                                                 _package,
                                                                 _importedFiles, 
@@ -441,7 +441,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
         assert getQualifiedSymbolData("junit.framework.TestCase", that.getSourceInfo()) != null;
       }
       
-      that.getBody().visit(new ClassBodyIntermediateVisitor(sd, className, _file, _package, _importedFiles, 
+      that.getBody().visit(new ClassBodyIntermediateVisitor(_llc, sd, className, _file, _package, _importedFiles, 
                                                             _importedPackages, _classesInThisFile, continuations,
                                                             fixUps));
       createAccessors(sd, _file);
@@ -475,7 +475,8 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
     if (sd != null) {
       sd.setInterface(true);
       identifyInnerClasses(that);  // inner interfaces??
-      that.getBody().visit(new InterfaceBodyIntermediateVisitor(sd, _file, _package, _importedFiles, _importedPackages, 
+      that.getBody().visit(new InterfaceBodyIntermediateVisitor(_llc, sd, _file, _package, _importedFiles,
+                                                                _importedPackages, 
                                                                 _classesInThisFile, continuations, fixUps));
     }
     
@@ -590,7 +591,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
 //    //accessors will be filled in in typeChecker pass
 //    
 //    //visit the body to get it all nice and resolved.  NOTE: what about the fact that all of the methods MUST BE PUBLIC
-//    that.getBody().visit(new ClassBodyIntermediateVisitor(sd, anonName, _file, _package, _importedFiles,
+//    that.getBody().visit(new ClassBodyIntermediateVisitor(_llc, sd, anonName, _file, _package, _importedFiles,
 //                                                          _importedPackages, _classesInThisFile, continuations,
 //                                                          fixUps));
 //  }
@@ -633,6 +634,9 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
   
   /** Test the methods declared in the above class. */
   public static class IntermediateVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private IntermediateVisitor _iv;
     
@@ -666,24 +670,22 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
     
     public void setUp() {
       
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>();      
+      errors.clear();
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
       
-      _iv = new IntermediateVisitor(new File(""),
-                                    errors,
-                                    continuations,
+      _iv = new IntermediateVisitor(_llc, new File(""),
+                                    new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                     new LinkedList<Command>(),
                                     new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
+      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
       _iv._classesInThisFile = new HashSet<String>();
       _iv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
 //      _iv._resetNonStaticFields();
       _iv._importedPackages.addFirst("java.lang");
-      _errorAdded = false;
+      _llc._errorAdded = false;
       _sd1 = new SymbolData("i.like.monkey");
       _sd2 = new SymbolData("i.like.giraffe");
       _sd3 = new SymbolData("zebra");
@@ -701,7 +703,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       _iv.symbolTable.put("i.like.monkey", _sd1);
       SymbolData objectSD = _iv.getQualifiedSymbolData("java.lang.Object", SourceInfo.NONE);
       _sd1.setSuperClass(objectSD);
-      _errorAdded = false;  // static field of this.  TODO: fix this!
+      _llc._errorAdded = false;
     }
     
     public void initTopLevel() {
@@ -1135,11 +1137,11 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       cd0.visit(_iv);
       assertEquals("There should be no errors", 0, errors.size());
       assertTrue("Should have resolved java.lang.Object", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.Object"));
+                 symbolTable.containsKey("java.lang.Object"));
       assertFalse("Should not be a continuation", 
-                  LanguageLevelConverter.symbolTable.get("java.lang.Object").isContinuation());
-      SymbolData sd = LanguageLevelConverter.symbolTable.get("Lisa");
-      assertTrue("Lisa should be in _newSDs", LanguageLevelConverter._newSDs.containsKey(sd));
+                  symbolTable.get("java.lang.Object").isContinuation());
+      SymbolData sd = symbolTable.get("Lisa");
+      assertTrue("Lisa should be in _newSDs", _llc._newSDs.containsKey(sd));
       MethodData md2 = 
         new MethodData("equals",
                        PUBLIC_MAV, 
@@ -1168,10 +1170,10 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       cd1.visit(_iv);
       assertEquals("There should be no errors", 0, errors.size());
       assertTrue("Should have resolved java.lang.System", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.System"));
+                 symbolTable.containsKey("java.lang.System"));
       assertFalse("Should not be a continuation", 
-                  LanguageLevelConverter.symbolTable.get("java.lang.System").isContinuation());
-      sd = LanguageLevelConverter.symbolTable.get("Bart");
+                  symbolTable.get("java.lang.System").isContinuation());
+      sd = symbolTable.get("Bart");
       
       assertEquals("There should be 3 methods", 3, sd.getMethods().size());
       
@@ -1196,10 +1198,10 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       
       _iv._file=new File("TestSuper2.dj0");
       _iv._importedFiles.addLast("junit.framework.TestCase");
-      LanguageLevelConverter.symbolTable.put("junit.framework.TestCase", new SymbolData("junit.framework.TestCase"));
+      symbolTable.put("junit.framework.TestCase", new SymbolData("junit.framework.TestCase"));
       cd3.visit(_iv);
       assertEquals("There should still just be no errors", 0, errors.size());
-      assertNotNull("Should have looked up TestSuper2", LanguageLevelConverter.symbolTable.get("TestSuper2"));
+      assertNotNull("Should have looked up TestSuper2", symbolTable.get("TestSuper2"));
       
       // Check a method with void return, but name not starting with test, but it's still okay.
       //This is now checked in the type checker!
@@ -1272,15 +1274,15 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       MethodData md2 = 
         new MethodData("myMethod", PUBLIC_MAV, new TypeParameter[0], SymbolData.INT_TYPE, new VariableData[0], 
                        new String[0], sd2, amd2);
-      LanguageLevelConverter.symbolTable.put("id", sd);
-      LanguageLevelConverter.symbolTable.put("id2", sd2);
+      symbolTable.put("id", sd);
+      symbolTable.put("id2", sd2);
       
       id.visit(_iv);
       id2.visit(_iv);
       
       assertEquals("Should be no errors", 0, errors.size());
-      assertEquals("Should return the same symbol datas: id", sd, LanguageLevelConverter.symbolTable.get("id"));
-      assertEquals("Should return the same symbol datas:id2 ", sd2, LanguageLevelConverter.symbolTable.get("id2"));
+      assertEquals("Should return the same symbol datas: id", sd, symbolTable.get("id"));
+      assertEquals("Should return the same symbol datas:id2 ", sd2, symbolTable.get("id2"));
     }
     
     
@@ -1384,7 +1386,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
 //      System.err.println("SymbolData for i.like.monkey = " + _iv.getQualifiedSymbolData("i.like.monkey", SourceInfo.NONE));
       _iv.simpleAnonymousClassInstantiationHelper(basic, _sd1);
       assertEquals("There should be no errors", 0, errors.size());
-      SymbolData obj = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData obj = symbolTable.get("java.lang.Object");
       assertNotNull("Object should be in the symbol table", obj);
       assertEquals("sd1 should have one inner class", 1, _sd1.getInnerClasses().size());
       SymbolData inner = _sd1.getInnerClasses().get(0);
@@ -1408,9 +1410,9 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       _iv._enclosingClassName = "i.like.monkey";
       _iv.complexAnonymousClassInstantiationHelper(basic, _sd1); // TODO: the wrong enclosing context?
       assertEquals("There should be no errors", 0, errors.size());
-      SymbolData obj = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData obj = symbolTable.get("java.lang.Object");
       assertNotNull("Object should be in the symbol table", obj);
-      SymbolData objInner = LanguageLevelConverter.symbolTable.get("java.lang.Object.Inner");
+      SymbolData objInner = symbolTable.get("java.lang.Object.Inner");
       assertEquals("sd1 should have one inner class", 1, _sd1.getInnerClasses().size());
       SymbolData inner = _sd1.getInnerClasses().get(0);
       assertEquals("The inner class should have the proper name", "i.like.monkey$1", inner.getName());
@@ -1439,7 +1441,7 @@ public class IntermediateVisitor extends LanguageLevelVisitor {
       VariableDeclaration vd1 = new VariableDeclaration(SourceInfo.NONE,PUBLIC_MAV, d1); 
       
       ClassBodyIntermediateVisitor cbiv = 
-        new ClassBodyIntermediateVisitor(_sd1,
+        new ClassBodyIntermediateVisitor(_llc, _sd1,
                                          _sd1.getName(),
                                          _iv._file, 
                                          _iv._package,
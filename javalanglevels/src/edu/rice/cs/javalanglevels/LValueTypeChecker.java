@@ -62,7 +62,8 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
    * @param bob  The visitor that invoked this visitor.
    */
   public LValueTypeChecker(SpecialTypeChecker bob) {
-    _testAssignableInstance = new TestAssignable(bob._data, bob._file, bob._package, bob._importedFiles, bob._importedPackages, bob._vars, bob._thrown);
+    _testAssignableInstance = new TestAssignable(bob._llc, bob._data, bob._file, bob._package, bob._importedFiles,
+                                                 bob._importedPackages, bob._vars, bob._thrown);
     _bob = bob;
   }
   
@@ -96,8 +97,10 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
   /**Checks to see if what is on the lhs is assignable*/
   private class TestAssignable extends ExpressionTypeChecker {
     
-    public TestAssignable(Data data, File file, String packageName, LinkedList<String> importedFiles, LinkedList<String> importedPackages, LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
-      super(data, file, packageName, importedFiles, importedPackages, vars, thrown);
+    public TestAssignable(LanguageLevelConverter llc, Data data, File file, String packageName,
+                          LinkedList<String> importedFiles, LinkedList<String> importedPackages,
+                            LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
+      super(llc, data, file, packageName, importedFiles, importedPackages, vars, thrown);
     }
 
      /** A SimpleName reference is one of three things:
@@ -146,7 +149,8 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
       * instance |     no       ERROR                        yes, if field is assignable
       */
     public TypeData forComplexNameReference(ComplexNameReference that) {
-      ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                            _importedPackages, _vars, _thrown);
       TypeData lhs = that.getEnclosing().visit(etc);
       _bob.thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned); //update internal SpecialTypeChecker's list of what got assigned
       Word myWord = that.getName();
@@ -205,11 +209,13 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
      * Type-check the lhs and the index.
      */
     public TypeData forArrayAccess(ArrayAccess that) {
-      ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                            _importedPackages, _vars, _thrown);
       TypeData lhs = that.getArray().visit(etc);
       _bob.thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned); //update internal SpecialTypeChecker's list of what got assigned
       
-      ExpressionTypeChecker indexTC = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker indexTC = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                                _importedPackages, _vars, _thrown);
       TypeData index = that.getIndex().visit(indexTC);
       _bob.thingsThatHaveBeenAssigned.addAll(indexTC.thingsThatHaveBeenAssigned); //update internal SpecialTypeChecker's list of what got assigned
       
@@ -228,6 +234,9 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
    * Test the methods defined in the above class
    */
   public static class LValueTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private LValueTypeChecker _lvtc;
     LValueTypeChecker.TestAssignable _ta;
@@ -265,12 +274,13 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
       _sd5 = new SymbolData("");
       _sd6 = new SymbolData("cebu");
       _lvtc = 
-        new LValueTypeChecker(new SpecialTypeChecker(_sd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(),
+        new LValueTypeChecker(new SpecialTypeChecker(_llc, _sd1, new File(""), "", new LinkedList<String>(),
+                                                     new LinkedList<String>(),
                    new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>()));
       _ta = _lvtc._testAssignableInstance;
-      _lvtc._bob.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-//      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.<File>empty());
+      errors.clear();
+      symbolTable.clear();
+//      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.<File>empty());
       _lvtc._bob._importedPackages.addFirst("java.lang");
     }
     
@@ -570,7 +580,7 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
     public void testForArrayAccess() {
       ArrayData intArray = 
         new ArrayData(SymbolData.INT_TYPE, 
-                      new LanguageLevelVisitor(_lvtc._bob._file,
+                      new LanguageLevelVisitor(_llc, _lvtc._bob._file,
                                                _lvtc._bob._package,
                                                null, // enclosingClassName for top level traversal
                                                _lvtc._bob._importedFiles, 
@@ -586,7 +596,7 @@ public class LValueTypeChecker extends JExpressionIFAbstractVisitor<TypeData> {
       _ta._vars.add(intVar);
 
       MethodData makeArray = new MethodData("makeArray", _privateMav, new TypeParameter[0], intArray, new VariableData[0], new String[0], _ta._data.getSymbolData(), new NullLiteral(SourceInfo.NONE));
-      _ta._data.getSymbolData().addMethod(makeArray);
+      _ta._data.getSymbolData().addMethod(makeArray, errors);
 
       //first, a simple index into an int[]
       
@@ -62,7 +62,8 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
    * @param bob  The visitor that invoked this visitor.
    */
   public LValueWithValueTypeChecker(SpecialTypeChecker bob) {
-    _testAssignableInstance = new TestAssignable(bob._data, bob._file, bob._package, bob._importedFiles, bob._importedPackages, bob._vars, bob._thrown);
+    _testAssignableInstance = new TestAssignable(bob._llc, bob._data, bob._file, bob._package, bob._importedFiles,
+                                                 bob._importedPackages, bob._vars, bob._thrown);
     _bob = bob;
   }
   
@@ -96,8 +97,10 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
   /** Checks to see if what is on the lhs is assignable to and already has a value*/
   private class TestAssignable extends ExpressionTypeChecker {
   
-    public TestAssignable(Data data, File file, String packageName, LinkedList<String> importedFiles, LinkedList<String> importedPackages, LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
-      super(data, file, packageName, importedFiles, importedPackages, vars, thrown);
+    public TestAssignable(LanguageLevelConverter llc, Data data, File file, String packageName,
+                          LinkedList<String> importedFiles, LinkedList<String> importedPackages,
+                            LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
+      super(llc, data, file, packageName, importedFiles, importedPackages, vars, thrown);
     }
 
     /** The variable referenced here should already have a value and should not be final. */
@@ -143,7 +146,8 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
      * instance |     no       ERROR                        yes, if field is assignable
      */
     public TypeData forComplexNameReference(ComplexNameReference that) {
-      ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                            _importedPackages, _vars, _thrown);
       TypeData lhs = that.getEnclosing().visit(etc);
       _bob.thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
       Word myWord = that.getName();
@@ -204,11 +208,13 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
     
     /** Type-check the lhs and the index. */
     public TypeData forArrayAccess(ArrayAccess that) {
-      ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                            _importedPackages, _vars, _thrown);
       TypeData lhs = that.getArray().visit(etc);
       _bob.thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned); //update internal SpecialTypeChecker's list of what got assigned
       
-      ExpressionTypeChecker indexTC = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages, _vars, _thrown);
+      ExpressionTypeChecker indexTC = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                                _importedPackages, _vars, _thrown);
       TypeData index = that.getIndex().visit(indexTC);
       _bob.thingsThatHaveBeenAssigned.addAll(indexTC.thingsThatHaveBeenAssigned); //update internal SpecialTypeChecker's list of what got assigned
       
@@ -220,6 +226,9 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
 
   /**Test the methods defined in the above class*/
   public static class LValueWithValueTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private LValueWithValueTypeChecker _lvtc;
     LValueWithValueTypeChecker.TestAssignable _ta;
@@ -257,13 +266,13 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
       _sd5 = new SymbolData("");
       _sd6 = new SymbolData("cebu");
       _lvtc = 
-        new LValueWithValueTypeChecker(new SpecialTypeChecker(_sd1, new File(""), "", new LinkedList<String>(), 
+        new LValueWithValueTypeChecker(new SpecialTypeChecker(_llc, _sd1, new File(""), "", new LinkedList<String>(), 
                                                               new LinkedList<String>(), new LinkedList<VariableData>(), 
                                                               new LinkedList<Pair<SymbolData, JExpression>>()));
       _ta = _lvtc._testAssignableInstance;
-      _lvtc._bob.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-//      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, IterUtil.<File>empty());
+      errors.clear();
+      symbolTable.clear();
+//      _llc._options = new Options(JavaVersion.JAVA_8, IterUtil.<File>empty());
       _lvtc._bob._importedPackages.addFirst("java.lang");
     }
     
@@ -571,7 +580,7 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
     public void testForArrayAccess() {
       ArrayData intArray = 
         new ArrayData(SymbolData.INT_TYPE, 
-                      new LanguageLevelVisitor(_lvtc._bob._file,
+                      new LanguageLevelVisitor(_llc, _lvtc._bob._file,
                                                _lvtc._bob._package,
                                                null, // enclosingClassName for top level traversal
                                                _lvtc._bob._importedFiles, 
@@ -587,7 +596,7 @@ public class LValueWithValueTypeChecker extends JExpressionIFAbstractVisitor<Typ
       _ta._vars.add(intVar);
 
       MethodData makeArray = new MethodData("makeArray", _privateMav, new TypeParameter[0], intArray, new VariableData[0], new String[0], _ta._data.getSymbolData(), new NullLiteral(SourceInfo.NONE));
-      _ta._data.getSymbolData().addMethod(makeArray);
+      _ta._data.getSymbolData().addMethod(makeArray, errors);
 
       //first, a simple index into an int[]
       
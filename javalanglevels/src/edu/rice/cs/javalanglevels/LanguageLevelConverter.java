@@ -39,6 +39,7 @@ package edu.rice.cs.javalanglevels;
 import java.lang.reflect.Modifier;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.objectweb.asm.*;
 
@@ -51,8 +52,6 @@ import edu.rice.cs.javalanglevels.util.Utilities;
 
 import edu.rice.cs.plt.iter.*;
 import edu.rice.cs.plt.io.IOUtil;
-import edu.rice.cs.plt.lambda.Thunk;
-import edu.rice.cs.plt.reflect.EmptyClassLoader;
 import edu.rice.cs.plt.reflect.JavaVersion;
 import edu.rice.cs.plt.reflect.PathClassLoader;
 
@@ -64,15 +63,12 @@ public class LanguageLevelConverter {
   
   public static final Log _log = new Log("LLConverter.txt", false);
   
-  /* TODO: get rid of all the static dreck (except constants) used in this class and its affiliated
-   * classes.  Ugly, ugly, ugly ...  Corky 11-11-14 */
+  /** The symbol table of the current conversion.  Each converter has its own, so conversions by different converters
+    * may run at the same time; convert clears it.  Library classes are read from the ClassFileCache. */
+  public final Symboltable symbolTable = new Symboltable();
   
-  /** Hashtable for a shared symbolTable.  Since this field is static, only one instance of
-    * LanguageLevelConverter should exist at a time.  If we create a
-    * LanguageLevelConverter instance for each translation, we must drop the static attribute. */
-  public static final Symboltable symbolTable = new Symboltable();
-  
-  public static Options OPT = Options.DEFAULT;
+  /** The options of the current conversion. */
+  Options _options = Options.DEFAULT;
   
   /* For Corky's version: set this to false */
   private static final boolean SAFE_SUPPORT_CODE = false;
@@ -81,12 +77,16 @@ public class LanguageLevelConverter {
   /**Number of line number mappings (from dj* to java) per line. */
   public static final int LINE_NUM_MAPPINGS_PER_LINE = 8;
   
-  public static final SymbolData OBJECT;  // initialized in static initialization block
+  /** Stores all the SymbolDatas (and corresponding visitors) created as in course of conversion. */
+  public final Hashtable<SymbolData, LanguageLevelVisitor> _newSDs = new Hashtable<SymbolData, LanguageLevelVisitor>();
+  
+  /** Errors found by the visitors and type checkers of the current conversion: string is the text of the error, 
+    * JExpressionIF is the part of the AST where the error occurs.  Shared by all of the conversion's visitors. */
+  final LinkedList<Pair<String, JExpressionIF>> errors = new LinkedList<Pair<String, JExpressionIF>>();
   
-  /** Stores all the SymbolDatas (and corresponding visitors) created as in course of conversion.  If we create a
-    * LanguageLevelConverter instance for each translation, we must drop the static attribute. */
-  public static final Hashtable<SymbolData, LanguageLevelVisitor> _newSDs = 
-    new Hashtable<SymbolData, LanguageLevelVisitor>();
+  /** True once a visitor of the current conversion has encountered an error we cannot recover from; see
+    * LanguageLevelVisitor._checkError. */
+  boolean _errorAdded = false;
   
   /**Holds any parse exceptions that are encountered*/
   private LinkedList<JExprParseException> _parseExceptions = new LinkedList<JExprParseException>();
@@ -94,11 +94,149 @@ public class LanguageLevelConverter {
   /**Holds any visitor exceptions that are encountered*/
   private LinkedList<Pair<String, JExpressionIF>> _visitorErrors = new LinkedList<Pair<String, JExpressionIF>>();
   
-  /* Relying on default constructor. */
+  /** Names of the phases of a conversion, in the order they are performed. */
+  public static final String PARSE_PHASE = "parse";
+  public static final String VISIT_PHASE = "visit";
+  public static final String RESOLVE_PHASE = "resolve";
+  public static final String TYPE_CHECK_PHASE = "type check";
+  public static final String AUGMENT_PHASE = "augment";
+  
+  /** The number of threads used to parse files and to write converted files. */
+  private final int _threads;
+  
+  /** Time in milliseconds spent in each phase of the last conversion, in order. */
+  private LinkedHashMap<String, Long> _phaseTimes = new LinkedHashMap<String, Long>();
+  
+  /** Creates a converter that uses as many threads as there are processors. */
+  public LanguageLevelConverter() { this(Runtime.getRuntime().availableProcessors()); }
+  
+  /** Creates a converter that parses files, and writes the converted files, on the given number of threads.  The
+    * other work of a conversion uses the converter's symbol table, and is always performed on the converting thread. */
+  public LanguageLevelConverter(int threads) { _threads = Math.max(1, threads); }
+  
+  /** Returns the time in milliseconds spent in each phase of the last conversion, in the order performed.  Phases that
+    * were not reached (because of errors in an earlier phase) are omitted. */
+  public Map<String, Long> getPhaseTimes() { return Collections.unmodifiableMap(_phaseTimes); }
+  
+  /** Records the time of the given phase, which started at phaseStart, and returns the current time. */
+  private long _endPhase(String phase, long phaseStart) {
+    long now = System.nanoTime();
+    _phaseTimes.put(phase, (now - phaseStart) / 1000000);
+    _log.log("Phase '" + phase + "' took " + _phaseTimes.get(phase) + " ms");
+    return now;
+  }
+  
+  /** The result of reading and parsing a file; at most one of the exception fields is non-null. */
+  private static class ParsedFile {
+    public final File file;
+    public boolean isEmpty = false;
+    public SourceFile sourceFile = null;
+    public Set<String> topLevelClasses = null;
+    public ParseException parseException = null;
+    public IOException ioException = null;
+    public ParsedFile(File f) { file = f; }
+  }
+  
+  /** Reads and (if it is a Java or language level file) parses f.  Does not use the symbol table, so several files
+    * may be parsed at once. */
+  private static ParsedFile _parse(File f) {
+    ParsedFile result = new ParsedFile(f);
+    try {
+      // Check for a null file
+      BufferedReader tempBr = new BufferedReader(new FileReader(f));
+      String firstLine = tempBr.readLine();
+      tempBr.close();
+      if (firstLine == null) { result.isEmpty = true; return result; }
+      
+      if (isJavaFile(f)) {
+        JExprParser jep = new JExprParser(f);
+        _log.log("Parsing " + f);
+        final SourceFile sf = jep.SourceFile();
+        // Parse the classes in sf
+        final Set<String> topLevelClasses = new HashSet<String>();
+        for (TypeDefBase t: sf.getTypes()) {
+          t.visit(new JExpressionIFAbstractVisitor<Void>() {
+            public Void forClassDef(ClassDef that) {
+              String className = that.getName().getText();
+              _log.log("Class '" + className + "' found in file " + sf);
+              topLevelClasses.add(className); 
+              return null; 
+            }
+            public Void defaultCase(JExpressionIF that) { return null; }
+          });
+        }
+        result.sourceFile = sf;
+        result.topLevelClasses = topLevelClasses;
+        _log.log("Completed parsing " + f);
+      }
+    }
+    catch (ParseException pe) { result.parseException = pe; }
+    catch (IOException ioe) { result.ioException = ioe; }
+    return result;
+  }
+  
+  /** Runs the given tasks, using up to _threads threads.  The results are in the order of tasks. */
+  private <T> List<T> _inParallel(List<Callable<T>> tasks) {
+    List<T> result = new ArrayList<T>(tasks.size());
+    int threads = Math.min(_threads, tasks.size());
+    if (threads <= 1) {
+      try { for (Callable<T> task : tasks) { result.add(task.call()); } }
+      catch (Exception e) { throw new UnexpectedException(e); }
+      return result;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (Future<T> future : executor.invokeAll(tasks)) { result.add(future.get()); }
+      return result;
+    }
+    catch (InterruptedException e) { throw new UnexpectedException(e); }
+    catch (ExecutionException e) { throw new UnexpectedException(e.getCause()); }
+    finally { executor.shutdownNow(); }
+  }
+  
+  /** Parses the given files, using up to _threads threads.  The results are in the order of files. */
+  private List<ParsedFile> _parseAll(File[] files) {
+    List<Callable<ParsedFile>> tasks = new ArrayList<Callable<ParsedFile>>(files.length);
+    for (final File f : files) {
+      tasks.add(new Callable<ParsedFile>() { public ParsedFile call() { return _parse(f); } });
+    }
+    return _inParallel(tasks);  // any other Exception in parsing is wrapped in an UnexpectedException
+  }
+  
+  /** Writes an augmented file: first its line number map, and then its text.  Does not use the symbol table, so 
+    * several files may be written at once.
+    * @return null, or the IOException that occurred */
+  private static IOException _writeAugmented(File augmentedFile, SortedMap<Integer,Integer> lineNumberMap, 
+                                             String augmented) {
+    try {
+      PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(augmentedFile)));
+      try {
+        pw.println("// Language Level Converter line number map: dj*->java. Entries: " +lineNumberMap.size());
+        // We print out LINE_NUM_MAPPINGS_PER_LINE mappings per line, so we need numLines
+        // at the top of the file, and one more for a descriptive comment.
+        // That means we need to increase the line numbers in the generated java file by numLines+1
+        int numLines = (int)Math.ceil(((double)lineNumberMap.size()) / LINE_NUM_MAPPINGS_PER_LINE);
+        int mapCount = 0;
+        for(Map.Entry<Integer,Integer> e: lineNumberMap.entrySet()) {
+          // e.getKey(): dj* line number; e.getValue(): java line number (must be increased by numLines)
+          if (mapCount % LINE_NUM_MAPPINGS_PER_LINE == 0) pw.print("//");
+          pw.printf(" %5d->%-5d", e.getKey(), (e.getValue()+numLines+1));
+          if (mapCount % LINE_NUM_MAPPINGS_PER_LINE ==  LINE_NUM_MAPPINGS_PER_LINE - 1) pw.println();
+          ++mapCount;
+        }
+        if (mapCount % LINE_NUM_MAPPINGS_PER_LINE != 0) pw.println(); // print a newline unless we just printed one
+        
+        pw.write(augmented, 0, augmented.length());
+      }
+      finally { pw.close(); }
+      return null;
+    }
+    catch (IOException ioe) { return ioe; }
+  }
   
   /** Ensures that the symbol table contains essential symbols.  Executed as part of LanguageLevelVisitor init
     * and typechecker inits (TryCatchBodyTypeChecker, TypeChecker, ExpressionTypeChecker). */
-  public static void loadSymbolTable() {
+  public void loadSymbolTable() {
 
     if (symbolTable.get("java.lang.Object") == null)    _classFile2SymbolData("java.lang.Object");
     if (symbolTable.get("java.lang.Integer") == null)   _classFile2SymbolData("java.lang.Integer");
@@ -119,20 +257,20 @@ public class LanguageLevelConverter {
     assert SymbolData.INT_TYPE.isAssignableTo(objectSD, true);
   }
   
-    /** We'll use this class loader to look up resources (*not* to load classes) */
-  private static final Thunk<ClassLoader> RESOURCES = new Thunk<ClassLoader>() {
-    private Options _cachedOptions = null;
-    private ClassLoader _cachedResult = null;
-    public ClassLoader value() {
-      if (LanguageLevelConverter.OPT != _cachedOptions) {
-        _cachedOptions = LanguageLevelConverter.OPT;
-        Iterable<File> searchPath = IterUtil.<File>compose(LanguageLevelConverter.OPT.bootClassPath(),
-                                                     LanguageLevelConverter.OPT.classPath());
-        _cachedResult = new PathClassLoader(EmptyClassLoader.INSTANCE, searchPath);
-      }
-      return _cachedResult;
+  /** We'll use this cache to look up library class files; it is created from _options when it is first needed. */
+  private ClassFileCache _classFiles = null;
+  private Options _classFilesOptions = null;
+  
+  /** Returns the class file cache for the current options. */
+  private ClassFileCache _classFiles() {
+    if (_classFiles == null || _classFilesOptions != _options) {
+      if (_classFiles != null) { _classFiles.close(); }
+      _classFilesOptions = _options;
+      Iterable<File> searchPath = IterUtil.<File>compose(_options.bootClassPath(), _options.classPath());
+      _classFiles = new ClassFileCache(searchPath, _options.cacheDirectory());
     }
-  };
+    return _classFiles;
+  }
   
   /** Creates a ModifiersAndVisibility from the provided modifier flags. */
   private static ModifiersAndVisibility _createMav(int flags) {
@@ -152,36 +290,39 @@ public class LanguageLevelConverter {
   }
   
   /** Defines library or already compiled classes assuming they are available to the PathClassLoader. */
-  public static SymbolData _classFile2SymbolData(String qualifiedClassName) { 
-    return _classFile2SymbolData(qualifiedClassName, null);
+  public SymbolData _classFile2SymbolData(String qualifiedClassName) { 
+    return _classFile2SymbolData(qualifiedClassName, null, null);
   }
   
   /** Uses the ASM class reader to read the class file corresponding to the class in the specified directory, and uses
     * the information from ASM to build a SymbolData corresponding to the class.  Ensures that the returned SymbolData
     * (if any) is inserted in the symbolTable.  Silently fails returning null instead of throwing an exception.
-    * Relies on fact that a static variable, namely LanguageLevelConverter.symbolTable holds the symbol table. UGHH!!
-    * There should be a symbol table object and this method should be an instance method of that object!!
     * @param qualifiedClassName  The fully qualified class name of the class we are looking up
     * @param programRoot  The directory where the class is located.
+    * @param continuations  The continuations of the visitor looking up the class, or null; the class is removed from
+    *        them.
     * @return The SymbolData for the class file if the class file was found; null otherwise.
     */
-  public static SymbolData _classFile2SymbolData(final String qualifiedClassName, final String programRoot) {
+  public SymbolData _classFile2SymbolData(final String qualifiedClassName, final String programRoot,
+                                          final Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> 
+                                            continuations) {
     _log.log("***** _classFile2SymbolData(" + qualifiedClassName + ", " + programRoot + ") called");
     
     ClassReader reader = null;
     try {
       String fileName = qualifiedClassName.replace('.', '/') + ".class";
       _log.log("***** reading class file: " + fileName);
-      InputStream stream = RESOURCES.value().getResourceAsStream(fileName);
-      if (stream == null && programRoot != null) {
-        stream = PathClassLoader.getResourceInPathAsStream(fileName, new File(programRoot));
+      byte[] bytes = _classFiles().getClassFile(fileName);
+      if (bytes == null && programRoot != null) {
+        InputStream stream = PathClassLoader.getResourceInPathAsStream(fileName, new File(programRoot));
+        // Let IOUtil handle the stream here, because it closes it when it's done, unlike ASM.
+        if (stream != null) { bytes = IOUtil.toByteArray(stream); }
       }
-      if (stream == null) { 
+      if (bytes == null) { 
         _log.log("***** class file was empty! *****");
         return null; 
       }
-      // Let IOUtil handle the stream here, because it closes it when it's done, unlike ASM.
-      reader = new ClassReader(IOUtil.toByteArray(stream));
+      reader = new ClassReader(bytes);
     }
     catch (IOException e) { return null; }
     
@@ -190,15 +331,15 @@ public class LanguageLevelConverter {
 //    if (qualifiedClassName.equals("java.lang.Object")) { 
 //      System.err.println("***SHOUT*** java.lang.Object is being added to symbolTable from class file");
 //    }
-    SymbolData sdLookup = LanguageLevelConverter.symbolTable.get(qualifiedClassName); 
+    SymbolData sdLookup = symbolTable.get(qualifiedClassName); 
     
     if (sdLookup == null)  { // create a continuation for sd
       sd = new SymbolData(qualifiedClassName); 
-      LanguageLevelConverter.symbolTable.put(qualifiedClassName, sd);
+      symbolTable.put(qualifiedClassName, sd);
     }
     else { sd = sdLookup; }
     
-    assert LanguageLevelConverter.symbolTable.contains(sd);
+    assert symbolTable.contains(sd);
     
 //    if (! sd.isContinuation()) { System.err.println("***NOTE*** Non-continuation " + sd + " resolved from class file"); }
     // make it be a non-continuation, since we are filling it in
@@ -223,10 +364,10 @@ public class LanguageLevelConverter {
         else { 
           String superClassName = sup.replace('/', '.');
 //          if (name.equals("Integer")) System.err.println("The superclass of Integer is " + superClassName);
-          SymbolData superSD = LanguageLevelConverter.symbolTable.get(superClassName);
+          SymbolData superSD = symbolTable.get(superClassName);
           if (superSD == null || superSD.isContinuation()) {
-            superSD = getSymbolDataForClassFile(superClassName, programRoot);
-            if (superSD != null) LanguageLevelConverter.symbolTable.put(superClassName, superSD);
+            superSD = getSymbolDataForClassFile(superClassName, programRoot, continuations);
+            if (superSD != null) symbolTable.put(superClassName, superSD);
           }
           sd.setSuperClass(superSD); 
         }
@@ -236,10 +377,10 @@ public class LanguageLevelConverter {
 //            System.err.println("interfaces for java.lang.RuntimeException: " + Arrays.toString(interfaces));
           for (String iName : interfaces) {
             String interfaceName = iName.replace('/', '.');
-            SymbolData superInterface = LanguageLevelConverter.symbolTable.get(interfaceName);
+            SymbolData superInterface = symbolTable.get(interfaceName);
             if (superInterface == null || superInterface.isContinuation()) {
-              superInterface = getSymbolDataForClassFile(interfaceName, programRoot);
-              if (superInterface != null) LanguageLevelConverter.symbolTable.put(interfaceName, superInterface);
+              superInterface = getSymbolDataForClassFile(interfaceName, programRoot, continuations);
+              if (superInterface != null) symbolTable.put(interfaceName, superInterface);
             }
             if (superInterface != null) sd.addInterface(superInterface);
           }
@@ -253,7 +394,7 @@ public class LanguageLevelConverter {
          * equals, and hashCode. */
         _log.log("visitField(" + access + ", " + name + ", " + desc + ", " + sig + ", " + value + ") called");
         String typeString = org.objectweb.asm.Type.getType(desc).getClassName();
-        SymbolData type = getSymbolDataForClassFile(typeString, programRoot);
+        SymbolData type = getSymbolDataForClassFile(typeString, programRoot, continuations);
         if (type != null) { sd.addVar(new VariableData(name, _createMav(access), type, true, sd)); }
         return null;
       }
@@ -270,13 +411,13 @@ public class LanguageLevelConverter {
         else {
           methodName = name;
           String returnString = org.objectweb.asm.Type.getReturnType(desc).getClassName();
-          returnType = getSymbolDataForClassFile(returnString, programRoot);
+          returnType = getSymbolDataForClassFile(returnString, programRoot, continuations);
           valid = valid && (returnType != null);
         }
         org.objectweb.asm.Type[] argTypes = org.objectweb.asm.Type.getArgumentTypes(desc);
         VariableData[] args = new VariableData[argTypes.length]; 
         for (int i = 0; i < argTypes.length; i++) {
-          SymbolData argType = getSymbolDataForClassFile(argTypes[i].getClassName(), programRoot);
+          SymbolData argType = getSymbolDataForClassFile(argTypes[i].getClassName(), programRoot, continuations);
           if (argType == null) { valid = false; }
           else { args[i] = new VariableData(argType); }
         }
@@ -305,8 +446,6 @@ public class LanguageLevelConverter {
 //    System.err.println("####### Finished loading " + qualifiedClassName);
     
     // Remove the class from the list of continuations to resolve.
-    Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations = 
-      LanguageLevelVisitor.continuations;
     if (continuations != null) continuations.remove(qualifiedClassName);  // UGH!  Why is this necessary?
 //    if (qualifiedClassName.equals("java.lang.Throwable")) 
 //      System.err.println("***Package name for constructed symbol 'java.lang.Thowable' is: " + sd.getPackage());
@@ -319,9 +458,12 @@ public class LanguageLevelConverter {
     * (ii)  already present in the symbol table; or
     * (iii) a reference to another class defined by a class file.
     * If the result is null, gives an error.  Removes the symbol data from the continuations list, and return it.
+    * @param continuations  The continuations of the visitor looking up the class, or null
     * @return the result of trying to resolve className.
     */
-  public static SymbolData getSymbolDataForClassFile(String className, String programRoot) {
+  public SymbolData getSymbolDataForClassFile(String className, String programRoot, 
+                                              Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> 
+                                                continuations) {
  
     _log.log("getSymbolDataForClassFile(" + className + ", " + programRoot + ") called");
     // Check for primitive types. 
@@ -329,10 +471,10 @@ public class LanguageLevelConverter {
     if (sd != null) { return sd; }
     
     // Check for already defined types
-    SymbolData existingSD = LanguageLevelConverter.symbolTable.get(className);
+    SymbolData existingSD = symbolTable.get(className);
     if (existingSD != null && ! existingSD.isContinuation()) return existingSD;
      
-    return _classFile2SymbolData(className, programRoot);  // resolve it by reading a class file
+    return _classFile2SymbolData(className, programRoot, continuations);  // resolve it by reading a class file
   }
   
   /** Checks to see if the provided class name is the name of a primative type, and if so,
@@ -353,12 +495,6 @@ public class LanguageLevelConverter {
     return null;
   }
   
-  /**** Static initialization block ***/
-  static {
-    loadSymbolTable();
-    OBJECT = symbolTable.get("java.lang.Object");
-  }
-  
   /***Add the parse exception to the list of parse exceptions*/
   private void _addParseException(ParseException pe) {
     JExprParseException jpe;
@@ -379,24 +515,39 @@ public class LanguageLevelConverter {
   }
   
   /** Parse, visit, type check, and convert any language level files (and unconverted LL files they reference) in files/
+    * The errors returned are those of this conversion only, in the order of files.  A converter performs one conversion
+    * at a time, but different converters may convert at the same time.  A conversion has five phases: the files are
+    * parsed in parallel, then visited (conformance checked) in order, then the references among them are resolved,
+    * then they are type checked in order, and then they are augmented in order and the augmented files written in
+    * parallel; see getPhaseTimes.  Visiting, type checking, and augmenting stay on the converting thread because they
+    * share the conversion's SymbolDatas: the visitor and type checker of one file create and complete the SymbolDatas
+    * of classes used by other files, and the Augmentor looks up types through the file's visitor, which may read more
+    * class files into the symbol table.  To convert unrelated sets of files at the same time, use one converter for
+    * each set.
     * @param files  The array of files to process.
     * @param sourceToTopLevelClassMap  A map from source files to names of top-level classes created from that source file;
     *        it is initially empty and subsequently filled out by this method */
-  // "Visit" is an extremely vague notion; I presume it means construct a symbol table for the file.
-  public Pair<LinkedList<JExprParseException>, LinkedList<Pair<String, JExpressionIF>>>
+  public synchronized Pair<LinkedList<JExprParseException>, LinkedList<Pair<String, JExpressionIF>>>
     convert(File[] files, Options options, Map<File,Set<String>> sourceToTopLevelClassMap) {
+    _parseExceptions = new LinkedList<JExprParseException>();
+    _visitorErrors = new LinkedList<Pair<String, JExpressionIF>>();
+    _phaseTimes = new LinkedHashMap<String, Long>();
+    try { return _convert(files, options, sourceToTopLevelClassMap); }
+    finally { if (_classFiles != null) { _classFiles.close(); } }  // release jar files between conversions
+  }
+  
+  // "Visit" is an extremely vague notion; I presume it means construct a symbol table for the file.
+  private Pair<LinkedList<JExprParseException>, LinkedList<Pair<String, JExpressionIF>>>
+    _convert(File[] files, Options options, Map<File,Set<String>> sourceToTopLevelClassMap) {
     
 //    System.err.println("LanguageLevelConverter.convert called on files:  " + Arrays.toString(files));
     _log.log("LanguageLevelConverter.convert called on files:  " + Arrays.toString(files));
-    OPT = options;
+    _options = options;
 //    System.err.println("Options = " + options);
-    assert symbolTable != null;
     symbolTable.clear();
     _newSDs.clear();
-    
-    /**initialize so we don't get null pointer exception*/
-    // We need a LinkedList for errors to be shared by the visitors to each file.
-    LinkedList<Pair<String, JExpressionIF>> languageLevelVisitorErrors = new LinkedList<Pair<String, JExpressionIF>>();
+    errors.clear();
+    _errorAdded = false;
     
     // Keep track of the continuations to resolve.  A continuation is a fully qualified type name with no attributes.
     Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations = 
@@ -445,97 +596,70 @@ public class LanguageLevelConverter {
     /* Maintains the list of Full Java files, which are parsed for symbols and checked for gross errors. */
     LinkedList<File> javaFiles = new LinkedList<File>();
     
-    /** First pass: classfication and conformance checking */
-    for (File f : files) {    
-      try {
-//        if (filesNotToCheck.contains(f)) continue;  // Detects equal File objects
-        
-        // Check for a null file
-        BufferedReader tempBr = new BufferedReader(new FileReader(f));
-        String firstLine = tempBr.readLine();
-        tempBr.close();
-        if (firstLine == null) continue;
+    /* Parse all the files, in parallel. */
+    long phaseStart = System.nanoTime();
+    List<ParsedFile> parsed = _parseAll(files);
+    phaseStart = _endPhase(PARSE_PHASE, phaseStart);
+    
+    /** First pass: classfication and conformance checking, in the order of files */
+    for (ParsedFile p : parsed) {
+      File f = p.file;
+      if (p.ioException != null) {
+        // The NullLiteral is a hack to get a JExpression with the correct SourceInfo inside.
+        _addVisitorError(new Pair<String, JExpressionIF>(p.ioException.getMessage(), new NullLiteral(SourceInfo.NONE)));
+        continue;
+      }
+      if (p.isEmpty) continue;  // a null file
+      
+      if (isAdvancedFile(f))  advanced.addLast(f);
+      else if (isFullJavaFile(f)) javaFiles.addLast(f);
+      
+      if (isJavaFile(f)) {  /* a .dj0, .dj1, .dj2,, .dj, or .java file; all but .dj and .java are legacy */
+        if (p.parseException != null) {
+          // If there is a ParseException, go to next file.
+          _addParseException(p.parseException);
+          _log.log("GENERATED (non-Parse) exception in parsing file " + f);
+          continue;
+        }
+        SourceFile sf = p.sourceFile;
+        sourceToTopLevelClassMap.put(f, p.topLevelClasses);
         
-        if (isAdvancedFile(f))  advanced.addLast(f);
-        else if (isFullJavaFile(f)) javaFiles.addLast(f);
+        LinkedList<String> importedPackageBase = new LinkedList<String>();
+        importedPackageBase.add("java.lang");
         
-        if (isJavaFile(f)) {  /* a .dj0, .dj1, .dj2,, .dj, or .java file; all but .dj and .java are legacy */
-          System.out.flush();
-          SourceFile sf = null;
-          JExprParser jep = new JExprParser(f);
-          try { 
-            _log.log("Parsing " + f);
-            sf = jep.SourceFile();  // Does the SourceFile method parse the file f embedded in jep?  NO!
-            // Parse the classes in sf
-            final Set<String> topLevelClasses = new HashSet<String>();
-            final SourceFile fsf = sf;
-            for (TypeDefBase t: sf.getTypes()) {
-              t.visit(new JExpressionIFAbstractVisitor<Void>() {
-                public Void forClassDef(ClassDef that) {
-                  String className = that.getName().getText();
-                  _log.log("Class '" + className + "' found in file " + fsf);
-                  topLevelClasses.add(className); 
-                  return null; 
-                }
-                public Void defaultCase(JExpressionIF that) { return null; }
-              });
-            }
-            sourceToTopLevelClassMap.put(f, topLevelClasses);
-            _log.log("Completed parsing " + f);
-          } 
-          catch (ParseException pe) {
-            // If there is a ParseException, go to next file.
-            _addParseException(pe);
-            _log.log("GENERATED (non-Parse) exception in parsing file " + sf);
-            continue;
-          }
-          catch (Exception pe) { throw new UnexpectedException(pe); }  // catch any other Exceptions thrown in parsing
-          
-          LinkedList<String> importedPackageBase = new LinkedList<String>();
-          importedPackageBase.add("java.lang");
-            
-          // Now create a LanguageLevelVisitor to do the first pass over the file.
-          LanguageLevelVisitor llv;
-          if (isLanguageLevelFile(f)) { // Intermediate is the only language level other than full Java.
-            llv = new IntermediateVisitor(f,
-                                          importedPackageBase,
-                                          new LinkedList<Pair<String, JExpressionIF>>(),
-                                          new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
-                                          new LinkedList<Command>(),
-                                          languageLevelVisitedFiles);
-          }
-          else {
-            assert isAdvancedFile(f) || isFullJavaFile(f);  // Advanced files are treated exactly like full Java.
-            llv = new FullJavaVisitor(f,
-                                      importedPackageBase,
-                                      new LinkedList<Pair<String, JExpressionIF>>(),
-                                      new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(), 
-                                      new LinkedList<Command>(),
-                                      languageLevelVisitedFiles);
-          }
-          
-          // Conformance checking pass
-          sf.visit(llv);
-//          _log.log("\nDUMPING SYMBOLTABLE AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + symbolTable + "\n");
-          visited.add(new Triple<LanguageLevelVisitor, SourceFile, File>(llv, sf, f));
-          _log.log("\nCONTINUATIONS AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + llv.continuations + "\n");
-          _log.log("\nERRORS AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + llv.errors + "\n");
-//          if (! llv.errors.isEmpty()) Utilities.show("errors after " + f + "\n" + llv.errors);
-          //add the continuations to the hash table.
-          continuations.putAll(llv.continuations);
-          fixUps.addAll(llv.fixUps);
-          languageLevelVisitorErrors.addAll(llv.errors);
+        // Now create a LanguageLevelVisitor to do the first pass over the file.
+        LanguageLevelVisitor llv;
+        if (isLanguageLevelFile(f)) { // Intermediate is the only language level other than full Java.
+          llv = new IntermediateVisitor(this,
+                                        f, importedPackageBase,
+                                        new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
+                                        new LinkedList<Command>(),
+                                        languageLevelVisitedFiles);
         }
-      }
-      catch (IOException ioe) {
-        // The NullLiteral is a hack to get a JExpression with the correct SourceInfo inside.
-        _addVisitorError(new Pair<String, JExpressionIF>(ioe.getMessage(), new NullLiteral(SourceInfo.NONE)));
+        else {
+          assert isAdvancedFile(f) || isFullJavaFile(f);  // Advanced files are treated exactly like full Java.
+          llv = new FullJavaVisitor(this,
+                                    f, importedPackageBase,
+                                    new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(), 
+                                    new LinkedList<Command>(),
+                                    languageLevelVisitedFiles);
+        }
+        
+        // Conformance checking pass
+        sf.visit(llv);
+//        _log.log("\nDUMPING SYMBOLTABLE AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + symbolTable + "\n");
+        visited.add(new Triple<LanguageLevelVisitor, SourceFile, File>(llv, sf, f));
+        _log.log("\nCONTINUATIONS AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + llv.continuations + "\n");
+        _log.log("\nERRORS AFTER PHASE 1 PROCESSING OF " + f + "\n\n" + errors + "\n");
+        //add the continuations to the hash table.
+        continuations.putAll(llv.continuations);
+        fixUps.addAll(llv.fixUps);
       }
     }
+    phaseStart = _endPhase(VISIT_PHASE, phaseStart);
 
     /* Resolve continuations created in conformance pass and log any generated errors.  TODO: refactor use of 
      * getSymbolData with a flag; create a new method for resolving continuations.  Use a common helper.  */
-    LanguageLevelVisitor.errors = new LinkedList<Pair<String, JExpressionIF>>(); //clear out error list
     
 //    _log.log("\nDUMPING SYMBOLTABLE BEFORE CONTINUATION RESOLUTION\n\n" + symbolTable + "\n");  // redundant
 //    System.err.println("Resolving continuations " + continuations);
@@ -558,7 +682,8 @@ public class LanguageLevelConverter {
 //          if (name.equals("listFW.IList")) {
 //            System.err.println("Cannot resolve listFW.List\nsymbolTable is:\n" + symbolTable);
 //          }
-          LanguageLevelVisitor.errors.add(new Pair<String, JExpressionIF>("Converter could not resolve " + name,                                                                    new NullLiteral(triple.getFirst())));
+          errors.add(new Pair<String, JExpressionIF>("Converter could not resolve " + name, 
+                                                     new NullLiteral(triple.getFirst())));
         }
       }
     }
@@ -582,14 +707,12 @@ public class LanguageLevelConverter {
     } 
     
 //    assert _newSDs.isEmpty();
-    /* Add any errors that accumulated during the continuation resolving/constructor generation. */
-    
-    languageLevelVisitorErrors.addAll(LanguageLevelVisitor.errors); 
+    phaseStart = _endPhase(RESOLVE_PHASE, phaseStart);
     
     // At this point, there should be no continuations and visitedFiles should be completely populated.
     
     /* If there are no errors, perform type-checking on LL files. */
-    if (languageLevelVisitorErrors.size() > 0)  _visitorErrors.addAll(languageLevelVisitorErrors);
+    if (errors.size() > 0)  _visitorErrors.addAll(errors);
     else  {
       /* Perform type-checking on visited LL files and build list of files toAugment. */
       for (Triple<LanguageLevelVisitor, SourceFile, File> triple: visited) {
@@ -619,14 +742,13 @@ public class LanguageLevelConverter {
           
 //          System.err.println("**** Type checking " + f);
           // Type check.
-          TypeChecker btc = 
-            new TypeChecker(llv._file, llv._package, llv.errors, symbolTable, llv._importedFiles, llv._importedPackages);
+          TypeChecker btc = new TypeChecker(this, llv._file, llv._package, llv._importedFiles, llv._importedPackages);
 //        System.err.println("Visiting source file " + sf.getSourceInfo ());
           sf.visit(btc);
           toAugment.addLast(triple);
-          if (btc.errors.size() > 0) _visitorErrors.addAll(btc.errors);
         }
       }
+      _visitorErrors.addAll(errors);
       
 //      /* Set up code augmentation.  We will NOT try to augment files unless they appear in the visited List and are not
 //       * already Full Java (.java) files.  Unlisted LL files cannot be found reliably during type checking because there
@@ -658,6 +780,8 @@ public class LanguageLevelConverter {
 //      }
 //  }
     
+    phaseStart = _endPhase(TYPE_CHECK_PHASE, phaseStart);
+    
     // If there were any errors in the llv pass or the type checking pass, just return them.
     if (_parseExceptions.size() > 0 || _visitorErrors.size() > 0) {
       return new Pair<LinkedList<JExprParseException>, 
@@ -666,7 +790,9 @@ public class LanguageLevelConverter {
 //    Utilities.show("Processed LL files: " + Arrays.toString(files));
 //    Utilities.show("mediator is: " + mediator);
     
-    /* Perform code augmentation. */   
+    /* Perform code augmentation, in order.  Augmentation updates the symbol table, but writing out the augmented files
+     * does not, so that is done afterwards, in parallel. */
+    List<Callable<IOException>> writes = new ArrayList<Callable<IOException>>();
     for (Triple<LanguageLevelVisitor, SourceFile, File> triple: toAugment)  {
       try {
         LanguageLevelVisitor llv = triple.getFirst();
@@ -699,27 +825,13 @@ public class LanguageLevelConverter {
               br.close();
               bw.close();
               
-              // write out the line number map and the augmented java file
-              PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(augmentedFile)));
-              SortedMap<Integer,Integer> lineNumberMap = a.getLineNumberMap();
-              pw.println("// Language Level Converter line number map: dj*->java. Entries: " +lineNumberMap.size());
-              // We print out LINE_NUM_MAPPINGS_PER_LINE mappings per line, so we need numLines
-              // at the top of the file, and one more for a descriptive comment.
-              // That means we need to increase the line numbers in the generated java file by numLines+1
-              int numLines = (int)Math.ceil(((double)lineNumberMap.size()) / LINE_NUM_MAPPINGS_PER_LINE);
-              int mapCount = 0;
-              for(Map.Entry<Integer,Integer> e: lineNumberMap.entrySet()) {
-                // e.getKey(): dj* line number; e.getValue(): java line number (must be increased by numLines)
-                if (mapCount % LINE_NUM_MAPPINGS_PER_LINE == 0) pw.print("//");
-                pw.printf(" %5d->%-5d", e.getKey(), (e.getValue()+numLines+1));
-                if (mapCount % LINE_NUM_MAPPINGS_PER_LINE ==  LINE_NUM_MAPPINGS_PER_LINE - 1) pw.println();
-                ++mapCount;
-              }
-              if (mapCount % LINE_NUM_MAPPINGS_PER_LINE != 0) pw.println(); // print a newline unless we just printed one
-              
-              String augmented = sw.toString();
-              pw.write(augmented, 0, augmented.length());
-              pw.close();
+              // write out the line number map and the augmented java file (later)
+              final File out = augmentedFile;
+              final SortedMap<Integer,Integer> lineNumberMap = a.getLineNumberMap();
+              final String augmented = sw.toString();
+              writes.add(new Callable<IOException>() {
+                public IOException call() { return _writeAugmented(out, lineNumberMap, augmented); }
+              });
             }
           }
         }
@@ -733,6 +845,12 @@ public class LanguageLevelConverter {
         _addVisitorError(new Pair<String, JExpressionIF>(ioe.getMessage(), new NullLiteral(SourceInfo.NONE)));
       }
     }
+    for (IOException ioe : _inParallel(writes)) {
+      if (ioe != null) {
+        _addVisitorError(new Pair<String, JExpressionIF>(ioe.getMessage(), new NullLiteral(SourceInfo.NONE)));
+      }
+    }
+    _endPhase(AUGMENT_PHASE, phaseStart);
     return new Pair<LinkedList<JExprParseException>, 
       LinkedList<Pair<String, JExpressionIF>>>(_parseExceptions, _visitorErrors);
   }
@@ -0,0 +1,142 @@
+/*BEGIN_COPYRIGHT_BLOCK
+ *
+ * Copyright (c) 2001-2010, JavaPLT group at Rice University (drjava@rice.edu)
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *    * Redistributions of source code must retain the above copyright
+ *      notice, this list of conditions and the following disclaimer.
+ *    * Redistributions in binary form must reproduce the above copyright
+ *      notice, this list of conditions and the following disclaimer in the
+ *      documentation and/or other materials provided with the distribution.
+ *    * Neither the names of DrJava, the JavaPLT group, Rice University, nor the
+ *      names of its contributors may be used to endorse or promote products
+ *      derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * This software is Open Source Initiative approved Open Source Software.
+ * Open Source Initative Approved is a trademark of the Open Source Initiative.
+ * 
+ * This file is part of DrJava.  Download the current version of this project
+ * from http://www.drjava.org/ or http://sourceforge.net/projects/drjava/
+ * 
+ * END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.javalanglevels;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.TestCase;
+import edu.rice.cs.javalanglevels.tree.JExpressionIF;
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
+import edu.rice.cs.plt.reflect.JavaVersion;
+
+/** Checks that converting several files with parallel parsing and writing gives the same results as converting them on
+  * a single thread, and that different converters can convert at the same time.  The main method times the phases of
+  * converting the files in the given directories. */
+public class LanguageLevelConverterTest extends TestCase {
+  
+  private static final Options OPTIONS = new Options(JavaVersion.JAVA_8, IterUtil.make(new File("lib/buildlib/junit.jar")));
+  
+  private static File[] _languageLevelFiles(File dir) {
+    File[] result = dir.listFiles(new FileFilter() {
+      public boolean accept(File f) { return f.getName().matches(".*\\.dj[012]?"); }
+    });
+    Arrays.sort(result);
+    return result;
+  }
+  
+  /** Returns a description of each error found converting files, in order. */
+  private static List<String> _errors(LanguageLevelConverter llc, File[] files) {
+    Pair<LinkedList<JExprParseException>, LinkedList<Pair<String, JExpressionIF>>> result = llc.convert(files, OPTIONS);
+    List<String> errors = new ArrayList<String>();
+    for (JExprParseException e : result.getFirst()) { errors.add(e.getFile() + ": " + e.getMessage()); }
+    for (Pair<String, JExpressionIF> e : result.getSecond()) {
+      errors.add(e.getFirst() + " " + e.getSecond().getSourceInfo());
+    }
+    return errors;
+  }
+  
+  public void testParallelParsingIsDeterministic() {
+    File[] files = _languageLevelFiles(new File("testFiles/forElementaryLevelTest/shouldBreak"));
+    assertTrue(files.length > 1);
+    List<String> expected = _errors(new LanguageLevelConverter(1), files);
+    assertFalse(expected.isEmpty());
+    for (int i = 0; i < 3; i++) { assertEquals(expected, _errors(new LanguageLevelConverter(4), files)); }
+  }
+  
+  public void testParallelWritingIsDeterministic() throws IOException {
+    File dir = IOUtil.createAndMarkTempDirectory("javalanglevels-test", "");
+    File[] files = new File[12];
+    for (int i = 0; i < files.length; i++) {
+      files[i] = new File(dir, "Rect" + i + ".dj1");
+      IOUtil.writeStringToFile(files[i], "class Rect" + i + " {\n  int width;\n  int height;\n\n" +
+                               "  int area() { return width * height; }\n}\n");
+    }
+    assertEquals(Collections.<String>emptyList(), _errors(new LanguageLevelConverter(1), files));
+    List<String> expected = new ArrayList<String>();
+    for (File f : files) { expected.add(IOUtil.toString(new File(dir, f.getName().replace(".dj1", ".java")))); }
+    assertTrue(expected.get(3).contains("Rect3"));
+    
+    assertEquals(Collections.<String>emptyList(), _errors(new LanguageLevelConverter(4), files));
+    for (int i = 0; i < files.length; i++) {
+      assertEquals(expected.get(i), IOUtil.toString(new File(dir, "Rect" + i + ".java")));
+    }
+  }
+  
+  public void testConcurrentConvertersAreIndependent() throws InterruptedException {
+    final File[] files = _languageLevelFiles(new File("testFiles/forElementaryLevelTest/shouldBreak"));
+    final List<String> expected = _errors(new LanguageLevelConverter(1), files);
+    final List<List<String>> results = Collections.synchronizedList(new ArrayList<List<String>>());
+    Thread[] threads = new Thread[3];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          LanguageLevelConverter llc = new LanguageLevelConverter(1);
+          for (int j = 0; j < 3; j++) { results.add(_errors(llc, files)); }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread t : threads) { t.join(); }
+    assertEquals(3 * threads.length, results.size());
+    for (List<String> r : results) { assertEquals(expected, r); }
+  }
+  
+  public void testPhaseTimes() {
+    LanguageLevelConverter llc = new LanguageLevelConverter(2);
+    assertTrue(llc.getPhaseTimes().isEmpty());
+    llc.convert(_languageLevelFiles(new File("testFiles/forElementaryLevelTest/shouldBreak")), OPTIONS);
+    Iterator<String> phases = llc.getPhaseTimes().keySet().iterator();
+    assertEquals(LanguageLevelConverter.PARSE_PHASE, phases.next());
+    assertEquals(LanguageLevelConverter.VISIT_PHASE, phases.next());
+  }
+  
+  
+  /** Converts the language level files in each of the given directories, printing the time spent in each phase. */
+  public static void main(String... args) {
+    for (String dir : args) {
+      File[] files = _languageLevelFiles(new File(dir));
+      for (int threads : new int[]{ 1, Runtime.getRuntime().availableProcessors() }) {
+        LanguageLevelConverter llc = new LanguageLevelConverter(threads);
+        int errors = _errors(llc, files).size();
+        System.out.println(dir + " (" + files.length + " files, " + threads + " threads, " + errors + " errors): " +
+                           llc.getPhaseTimes());
+      }
+    }
+  }
+}
@@ -73,23 +73,25 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
   public static final ModifiersAndVisibility FINAL_MAV = 
     new ModifiersAndVisibility(SourceInfo.NONE, new String[]{"final"});
     
+  /** The conversion this visitor is part of. */
+  final LanguageLevelConverter _llc;
+  
   /** Errors we have encountered during this pass: string is the text of the error, JExpressionIF is the part of
-    * the AST where the error occurs. */
-  protected static LinkedList<Pair<String, JExpressionIF>> errors;
+    * the AST where the error occurs.  Bound to the conversion's error list, which all of its visitors share. */
+  protected final LinkedList<Pair<String, JExpressionIF>> errors;
   
-  /** Stores the classes we have referenced, and all their information, once they are resolved.  Bound to static field
-    * LanguageLevelConverter.symboltable. UGHH!! WHY?? */
+  /** Stores the classes we have referenced, and all their information, once they are resolved.  Bound to the
+    * conversion's symbol table. */
   public final Symboltable symbolTable;
   
   /** A table of the names of symbols for which dummy symbol entries (continuations) have been created and resolution 
     * has been deferred.  In some cases (symbols subsequently defined in a file being converted), resolution occurs 
-    * during execution.  TODO: make this field dynamic. */
-  static Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations;
+    * during execution. */
+  Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations;
   
   /** A table of the commands to be executed after this visitation is complete; these commands fill in missing objects
-    * in the symbolTable (which were not available at the time the containing object was constructed.
-    * TODO: make this field dynamic. */
-  static LinkedList<Command> fixUps;
+    * in the symbolTable (which were not available at the time the containing object was constructed. */
+  LinkedList<Command> fixUps;
 
   // TODO: !!! This field appears vestigal; it does not appear to affect execution.  Eliminate it
   /* A list of other files that are being visited.  If the SourceFile is not null, then the source file was
@@ -97,10 +99,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
    * We keep the LLV rather than the file, because the LLV has a file, and we need some other information
    * stored in the LLV to properly look up the file.
    */
-  static LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles;
-  
-  /**True once we have encountered an error we cannot recover from.  TODO: ??? recover in what sense. */
-  static boolean _errorAdded;
+  LinkedList<Pair<LanguageLevelVisitor, SourceFile>> visitedFiles = 
+    new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>();
   
   /** The source file that is being compiled */
   File _file;
@@ -133,6 +133,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
   protected static final Log _log = new Log("LLConverter.txt", false);
   
   /** This constructor is called from the subclasses of LanguageLevelVisitor.
+    * @param llc  The conversion this visitor is part of
     * @param file  The File corresponding to the source file we are visiting
     * @param packageName  The name of the package corresponding to the file
     * @param importedFiles  The list of files (classes) imported by this source file
@@ -140,8 +141,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     * @param classesInThisFile  The list of names of classes defined in this file
     * @param continuations  The table of classes we have encountered but still need to resolve
     */
-  public LanguageLevelVisitor(File file, 
-                              String packageName,
+  public LanguageLevelVisitor(LanguageLevelConverter llc,
+                              File file, String packageName,
                               String enclosingClassName,
                               LinkedList<String> importedFiles, 
                               LinkedList<String> importedPackages, 
@@ -149,6 +150,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                               Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                               LinkedList<Command> fixUps,
                               HashMap<String, SymbolData> genericTypes) {
+    _llc = llc;
     _file = file;
     _package = packageName;
     _enclosingClassName = enclosingClassName;
@@ -161,7 +163,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     this.fixUps = fixUps;
     _genericTypes = genericTypes;
     
-    symbolTable = LanguageLevelConverter.symbolTable;
+    errors = llc.errors;
+    symbolTable = llc.symbolTable;
     
     assert fixUps != null;
     assert _genericTypes != null;
@@ -169,10 +172,11 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     // Ensure that the imported packages include "java.lang" 
     if (! _importedPackages.contains("java.lang")) _importedPackages.addFirst("java.lang");
     // Ensure that the symbol table contains the essential types;  TODO: this is kludge; fix it !!!
-    LanguageLevelConverter.loadSymbolTable();
+    llc.loadSymbolTable();
   }
   
   /** This constructor is used only in testing.
+    * @param llc  The conversion this visitor is part of
     * @param file  The File corresponding to the source file we are visiting
     * @param packageName  The name of the package corresponding to the file
     * @param importedFiles  The list of files (classes) imported by this source file
@@ -180,16 +184,16 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     * @param classesInThisFile  The list of names of classes defined in this file
     * @param continuations  The table of classes we have encountered but still need to resolve
     */
-  public LanguageLevelVisitor(File file, 
-                              String packageName,
+  public LanguageLevelVisitor(LanguageLevelConverter llc,
+                              File file, String packageName,
                               String enclosingClassName,
                               LinkedList<String> importedFiles, 
                               LinkedList<String> importedPackages, 
                               HashSet<String> classesInThisFile, 
                               Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations,
                               LinkedList<Command> fixUps) {
-    this(file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations, fixUps, 
-         new HashMap<String, SymbolData>());
+    this(llc, file, packageName, enclosingClassName, importedFiles, importedPackages, classesInThisFile, continuations,
+         fixUps, new HashMap<String, SymbolData>());
   }
   
   /* Reset the nonStatic fields of this visitor.  Used during testing. */
@@ -223,7 +227,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     * ClassBodyIntermediateVisitor or ClassBodyFullJavaVisitor). This class and method should be abstract, but the LLV 
     * class is used concretely in testing and  elswhere.  The default choice is ClassBodyFullJavaVisitor. */
   public LanguageLevelVisitor newClassBodyVisitor(SymbolData anonSD, String anonName) {
-    return new ClassBodyFullJavaVisitor(anonSD, anonName, _file, _package, _importedFiles, _importedPackages, 
+    return new ClassBodyFullJavaVisitor(_llc, anonSD, anonName, _file, _package, _importedFiles, _importedPackages, 
                                         _classesInThisFile, continuations, fixUps);
   }
     
@@ -479,7 +483,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     if (classFile.exists()) {
       // read this classfile, create the SymbolData and return it
      LanguageLevelConverter._log.log("Reading classFile " + qualifiedClassName);
-      sd = LanguageLevelConverter._classFile2SymbolData(qualifiedClassName, programRoot);
+      sd = _llc._classFile2SymbolData(qualifiedClassName, programRoot, continuations);
       if (sd == null) {
         if (addError) {
           _addAndIgnoreError("File " + classFile + " is not a valid class file.",  new NullLiteral(si));
@@ -591,7 +595,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     // Try loading the class from an already compiled class file in current package.
     File _fileParent = _file.getParentFile();
     String programRoot = (_fileParent == null) ? "" : _fileParent.getAbsolutePath();  
-    SymbolData compiledSD = LanguageLevelConverter.getSymbolDataForClassFile(qualClassName, programRoot);
+    SymbolData compiledSD = _llc.getSymbolDataForClassFile(qualClassName, programRoot, continuations);
     if (compiledSD != null) return compiledSD;
     
     // Check for relative inner class reference
@@ -797,7 +801,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     // If qualClassName is a library file, resolve it immediately by reading its class file.
     if (isJavaLibraryClass(qualClassName)) {
 //      _log.log("Calling  _classFile2SymbolData");
-      SymbolData cfSD = LanguageLevelConverter._classFile2SymbolData(qualClassName, null);
+      SymbolData cfSD = _llc._classFile2SymbolData(qualClassName, null, continuations);
       if (! qualClassName.startsWith("java.") && ! qualClassName.startsWith("sun."))
 //        _log.log("Defining class file symbol " + qualClassName);
       assert cfSD == null || symbolTable.contains(cfSD);
@@ -1020,7 +1024,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     continuations.remove(qualifiedTypeName);
     
     // Add sd to the list of classes defined in program text; used to generate constructors. TODO: What about Full Java?
-    if (! sd.isInterface()) { LanguageLevelConverter._newSDs.put(sd, this); }
+    if (! sd.isInterface()) { _llc._newSDs.put(sd, this); }
     
     _classesInThisFile.remove(qualifiedTypeName);  // a no-op if qualifiedClassName is an inner class
     return sd;
@@ -1386,13 +1390,13 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     return sd;  // Note: sd is null if name is not identified.
   }
                                
-  /** This method is called when an error should be added to the static LinkedList of errors.
+  /** This method is called when an error should be added to the conversion's LinkedList of errors.
     * This version is called from the DoFirst methods in the LanguageLevelVisitors to halt
     * parsing of the construct.
     */
-  protected static void _addError(String message, JExpressionIF that) {
+  protected void _addError(String message, JExpressionIF that) {
 //    Utilities.show("_addError(" + message + ", " + that + ") called");
-    _errorAdded = true;
+    _llc._errorAdded = true;
     Pair<String, JExpressionIF> p = new Pair<String, JExpressionIF>(message, that);
     if (! errors.contains(p)) errors.addLast(p);
   }
@@ -1401,13 +1405,13 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     * on this construct.  Generally, if the error is not added in the DoFirst, the _errorAdded
     * flag is not checked anyway, so this version should be called.
     */
-  protected static void _addAndIgnoreError(String message, JExpressionIF that) {
+  protected void _addAndIgnoreError(String message, JExpressionIF that) {
 //    Utilities.show("_addAndIgnoreError(" + message + ", " + that + ") called");
-    if (_errorAdded) {
+    if (_llc._errorAdded) {
       throw new RuntimeException("Internal Program Error: _addAndIgnoreError called while _errorAdded was true." + 
                                  "  Please report this bug.");
     }
-    _errorAdded = false;
+    _llc._errorAdded = false;
     Pair<String, JExpressionIF> newMsg = new Pair<String, JExpressionIF>(message, that);
     if (! errors.contains(newMsg)) errors.addLast(newMsg);
 //    else _log.log("Suppressing error as duplicate: " + newMsg);
@@ -1420,9 +1424,9 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     * to otherwise continue unimpeded.
     * Otherwise, return false, which will allow this first pass to continue normally.
     */
-  protected static boolean _checkError() {
-    if (_errorAdded) {
-      _errorAdded = false;
+  protected boolean _checkError() {
+    if (_llc._errorAdded) {
+      _llc._errorAdded = false;
       return true;
     }
     else return false;
@@ -1880,10 +1884,10 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
   /** If the method being generated already exists in the SymbolData,
     * throw an error, because generated methods cannot be overwritten.
     */
-  protected static void addGeneratedMethod(SymbolData sd, MethodData md) {
+  protected void addGeneratedMethod(SymbolData sd, MethodData md) {
     MethodData rmd = SymbolData.repeatedSignature(sd.getMethods(), md);
     if (rmd == null) {
-      sd.addMethod(md, true);
+      sd.addMethod(md, true, errors);
       md.setGenerated(true);
     }
     
@@ -1926,7 +1930,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       LinkedList<MethodData> superMethods = superSd.getMethods();
       String superUnqualifiedName = getUnqualifiedClassName(superSd.getName());
       
-      LanguageLevelVisitor sslv = LanguageLevelConverter._newSDs.remove(superSd);
+      LanguageLevelVisitor sslv = _llc._newSDs.remove(superSd);
       
       // if sslv == null, the superclass constructor has already been generated or we are caught in a cyclic
       // inheritance hierarchy
@@ -2003,15 +2007,14 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
 //        _log.log("****** constructor visibility = " + md.getMav());
       addGeneratedMethod(sd, md);
     }
-    LanguageLevelConverter._newSDs.remove(sd); // this won't do anything if sd is not in _newSDs.
+    _llc._newSDs.remove(sd); // this won't do anything if sd is not in _newSDs.
   }
   
   /** Create a method that is an accessor for each field in the class.
-    * File file is passed in so this can remain a static method
     * TODO: should this be called AFTER all fixups have been performed?  No method needs to be in 
     *       symbol table.
     */
-  protected static void createAccessors(SymbolData sd, File file) {
+  protected void createAccessors(SymbolData sd, File file) {
     if (LanguageLevelConverter.isAdvancedFile(file)) return;
     LinkedList<VariableData> fields = sd.getVars();
     for (final VariableData vd: fields) {     
@@ -2186,6 +2189,9 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
   
   /** Test the methods defined in the above class.*/
   public static class LanguageLevelVisitorTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private LanguageLevelVisitor testLLVisitor;
     private Hashtable<SymbolData, LanguageLevelVisitor> testNewSDs;
@@ -2204,9 +2210,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>> continuations =
         new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       LinkedList<Command> fixUps = new LinkedList<Command>();
-      // The following ensures that essential symbols have been loaded into the symbolTable, a static field of 
-      // LanguageLevelConverter.
-      testLLVisitor = new LanguageLevelVisitor(new File(""), 
+      // The following ensures that essential symbols have been loaded into the symbolTable of _llc.
+      testLLVisitor = new LanguageLevelVisitor(_llc, new File(""), 
                                                "",
                                                "i.like.monkey",
                                                new LinkedList<String>(), 
@@ -2214,10 +2219,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                                                new HashSet<String>(), 
                                                continuations,
                                                fixUps);
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      _errorAdded = false;
-      
-      visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>();      
+      errors.clear();
+      _llc._errorAdded = false;
 //      _hierarchy = new Hashtable<String, TypeDefBase>();
       testLLVisitor._classesInThisFile = new HashSet<String>();
       if (! testLLVisitor._importedPackages.contains("java.lang")) testLLVisitor._importedPackages.add("java.lang");
@@ -2244,8 +2247,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     public void testClassFile2SymbolData() {
       
       //test a java.lang symbol data
-      SymbolData objectSD = LanguageLevelConverter._classFile2SymbolData("java.lang.Object", "");
-      SymbolData stringSD = LanguageLevelConverter._classFile2SymbolData("java.lang.String", "");
+      SymbolData objectSD = _llc._classFile2SymbolData("java.lang.Object", "", null);
+      SymbolData stringSD = _llc._classFile2SymbolData("java.lang.String", "", null);
       MethodData md = new MethodData("substring", PUBLIC_MAV, new TypeParameter[0], stringSD, 
                                      new VariableData[] {new VariableData(SymbolData.INT_TYPE)},
                                      new String[0], stringSD, null);
@@ -2276,14 +2279,14 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                    testLLVisitor.getSymbolData("java.lang.String", SourceInfo.NONE).getPackage());
       
       //now, test that a second call to the same method won't replace the symbol data that is already there.
-      SymbolData newStringSD = LanguageLevelConverter._classFile2SymbolData("java.lang.String", "");
+      SymbolData newStringSD = _llc._classFile2SymbolData("java.lang.String", "", null);
       assertTrue("Second call to classFileToSymbolData should not change sd in hash table.", 
-                 stringSD == LanguageLevelConverter.symbolTable.get("java.lang.String"));
+                 stringSD == symbolTable.get("java.lang.String"));
       assertTrue("Second call to classFileToSymbolData should return same SD.", 
-                 newStringSD == LanguageLevelConverter.symbolTable.get("java.lang.String"));      
+                 newStringSD == symbolTable.get("java.lang.String"));      
       //now, test one of our own small class files.
       
-      SymbolData bartSD = LanguageLevelConverter._classFile2SymbolData("Bart", "testFiles");
+      SymbolData bartSD = _llc._classFile2SymbolData("Bart", "testFiles", null);
       assertFalse("bartSD should not be null", bartSD == null);
       assertFalse("bartSD should not be a continuation", bartSD.isContinuation());
       MethodData md1 = 
@@ -2327,7 +2330,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
 //                     new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
 //      
 //      // Use a ElementaryVisitor so lookupFromClassesToBeParsed will actually visit the ClassDef.
-//      IntermediateVisitor bv = new IntermediateVisitor(new File(""), 
+//      IntermediateVisitor bv = new IntermediateVisitor(_llc, new File(""), 
 //                                                       errors, 
 //                                                       continuations, 
 //                                                       new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
@@ -2357,11 +2360,11 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     public void testGetSymbolDataForClassFile() {
       // Test that passing a legal class return a non-continuation.
       assertFalse("Should return a non-continuation", 
-                  LanguageLevelConverter.getSymbolDataForClassFile("java.lang.String", null).isContinuation());
+                  _llc.getSymbolDataForClassFile("java.lang.String", null, null).isContinuation());
       
       // Test that passing a userclass that can't be found returns null and adds an error.
       assertNull("Should return null with a user class that can't be found",
-                 LanguageLevelConverter.getSymbolDataForClassFile("Marge", null));
+                 _llc.getSymbolDataForClassFile("Marge", null, null));
 //      assertEquals("There should be one error", 1, errors.size());
 //      assertEquals("The error message should be correct", "Class Marge not found.", errors.get(0).getFirst());
     }
@@ -2387,10 +2390,10 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
 //      testLLVisitor._file = new File("testFiles/Fake.dj0");
 //      SymbolData sd = new SymbolData("testPackage.File");
 //      testLLVisitor._package = "testPackage";
-//      LanguageLevelConverter.symbolTable.put("testPackage.File", sd);
+//      symbolTable.put("testPackage.File", sd);
 //      
 //      SymbolData sd1 = new SymbolData("java.lang.String");
-//      LanguageLevelConverter.symbolTable.put("java.lang.String", sd1);
+//      symbolTable.put("java.lang.String", sd1);
 //      
 //      //Test that classes not in the symbol table are handled correctly.
 //      assertEquals("should the continuation symbol", sd, 
@@ -2446,11 +2449,11 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       
       /**Now, put a real SymbolData base in the table.*/
       SymbolData sd = new SymbolData("Iexist");
-      LanguageLevelConverter.symbolTable.put("Iexist", sd);
+      symbolTable.put("Iexist", sd);
       testLLVisitor.getArraySymbolData("Iexist", SourceInfo.NONE, false, false).getName();
       assertTrue("Should have created an array data and add it to symbol table.", 
-                 LanguageLevelConverter.symbolTable.containsKey("Iexist[]"));
-      SymbolData ad = LanguageLevelConverter.symbolTable.get("Iexist[]");
+                 symbolTable.containsKey("Iexist[]"));
+      SymbolData ad = symbolTable.get("Iexist[]");
       
       //make sure that ad has the appropriate fields and super classes and interfaces and methods
       assertEquals("Should only have field 'length'", 1, ad.getVars().size());
@@ -2460,8 +2463,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       assertTrue("Should contain method clone", ad.hasMethod("clone"));
       
       assertEquals("Should have Object as super class", 
-                   LanguageLevelConverter.symbolTable.get("java.lang.Object"), 
-                   ad.getSuperClass());
+                   symbolTable.get("java.lang.Object"), ad.getSuperClass());
       assertEquals("Should have 2 interfaces", 2, ad.getInterfaces().size());
       assertEquals("Interface 1 should be java.lang.Cloneable", "java.lang.Cloneable", 
                    ad.getInterfaces().get(0).getName());
@@ -2476,22 +2478,22 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       /**Now, try it with a multiple dimension array.*/
       testLLVisitor.getArraySymbolData("Iexist[]", SourceInfo.NONE, false, false);
       assertTrue("Should have added a multidimensional array to the table.", 
-                 LanguageLevelConverter.symbolTable.containsKey("Iexist[][]"));
+                 symbolTable.containsKey("Iexist[][]"));
       
       SymbolData sd2 = new SymbolData("java.lang.String");
-      LanguageLevelConverter.symbolTable.put("java.lang.String", sd2);
+      symbolTable.put("java.lang.String", sd2);
       testLLVisitor.getArraySymbolData("String[]", SourceInfo.NONE, false, true);
       assertTrue("Should have added java.lang.String[] to table", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.String[]"));
+                 symbolTable.containsKey("java.lang.String[]"));
       assertTrue("Should have added java.lang.String[][] to table", 
-                 LanguageLevelConverter.symbolTable.containsKey("java.lang.String[][]"));
+                 symbolTable.containsKey("java.lang.String[][]"));
     }
     /** Tests _getSymbolDataFromFileSystem and one case of getQualifiedSymbolData. */
     public void testGetSymbolDataFromFileSystem() {
       _sd4.setIsContinuation(false);
       _sd6.setIsContinuation(true);
-      LanguageLevelConverter.symbolTable.put("u.like.emu", _sd4);
-      LanguageLevelConverter.symbolTable.put("cebu", _sd6);
+      symbolTable.put("u.like.emu", _sd4);
+      symbolTable.put("cebu", _sd6);
       
       // Test if it's already in the symbol table and doesn't need to be resolved not stopping when it should.  
       // get error b/c not in classes to be parsed 
@@ -2518,7 +2520,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                      new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
       
       // Use a ElementaryVisitor so lookupFromClassesToBeParsed will actually visit the ClassDef.
-      IntermediateVisitor bv = new IntermediateVisitor(new File(""));
+      IntermediateVisitor bv = new IntermediateVisitor(_llc, new File(""));
       
       testLLVisitor._classesInThisFile.add("Lisa" /*, new Pair<TypeDefBase, LanguageLevelVisitor>(cd, bv)*/);
       assert testLLVisitor._classesInThisFile.contains("Lisa");
@@ -2694,7 +2696,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       
       // Qualified types
       SymbolData sd = new SymbolData("java.lang.System");
-      LanguageLevelConverter.symbolTable.put("java.lang.System", sd);
+      symbolTable.put("java.lang.System", sd);
       assertEquals("should return the same sd", sd, 
                    testLLVisitor.getQualifiedSymbolData("java.lang.System", SourceInfo.NONE, false, true, true));
       assertTrue("should be a continuation", sd.isContinuation());
@@ -2704,13 +2706,11 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       
       // In this file
       sd = new SymbolData("fully.qualified.Qwerty");
-      LanguageLevelConverter.symbolTable.put("fully.qualified.Qwerty", sd);
+      symbolTable.put("fully.qualified.Qwerty", sd);
       testLLVisitor._classesInThisFile.add("fully.qualified.Qwerty");
       // Use a ElementaryVisitor so lookupFromClassesToBeParsed will actually visit the ClassDef.
-      IntermediateVisitor bv = new IntermediateVisitor(new File(""), 
-                                                       errors, 
-                                                       continuations,
-                                                       fixUps,
+      IntermediateVisitor bv = new IntermediateVisitor(_llc, new File(""), 
+                                                       testLLVisitor.continuations, testLLVisitor.fixUps,
                                                        new LinkedList<Pair<LanguageLevelVisitor, SourceFile>>());
       bv._package = "fully.qualified";
       bv._file = new File("testFiles/fully/qualified/Fake.dj0");
@@ -2733,10 +2733,10 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       testLLVisitor._importedFiles.addLast("a.b.c");
       sd = new SymbolData("a.b.c");
 //      _log.log("SymbolData for 'a.b.c' is " + sd);
-      LanguageLevelConverter.symbolTable.put("a.b.c", sd);
-//      _log.log("SymbolTable entry for 'a.b.c' is " + LanguageLevelConverter.symbolTable.get("a.b.c"));
-//      LanguageLevelConverter.symbolTable.put("foobar", new SymbolData("This is strange"));
-//      _log.log("SymbolTable entry for 'foobar' is " + LanguageLevelConverter.symbolTable.get("foobar"));
+      symbolTable.put("a.b.c", sd);
+//      _log.log("SymbolTable entry for 'a.b.c' is " + symbolTable.get("a.b.c"));
+//      symbolTable.put("foobar", new SymbolData("This is strange"));
+//      _log.log("SymbolTable entry for 'foobar' is " + symbolTable.get("foobar"));
       assertEquals("should find the continuation in the symbol table", sd, 
                    testLLVisitor.getQualifiedSymbolData("a.b.c", SourceInfo.NONE, false, true, true));
       // TODO: create an import table to look at when no match is found in symbolTable.
@@ -2747,7 +2747,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       testLLVisitor._importedFiles.addLast("fully.qualified.Woah");
       SymbolData sd2 = new SymbolData("fully.qualified.Woah");
       sd2.setIsContinuation(false);
-      LanguageLevelConverter.symbolTable.put("fully.qualified.Woah", sd2);
+      symbolTable.put("fully.qualified.Woah", sd2);
       result = testLLVisitor.getQualifiedSymbolData("fully.qualified.Woah", SourceInfo.NONE, true, false, true);
 //      _log.log("result for 'fully.qualifed.Woah' is " + result);
       assertEquals("should find the resolved symbol data in the symbol table", sd2, result);
@@ -2756,9 +2756,9 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       // File System
       testLLVisitor._importedFiles.clear();
       testLLVisitor.visitedFiles.clear();
-      LanguageLevelConverter.symbolTable.remove("fully.qualified.Woah");
+      symbolTable.remove("fully.qualified.Woah");
       sd2 = new SymbolData("fully.qualified.Woah");
-      LanguageLevelConverter.symbolTable.put("fully.qualified.Woah", sd2);
+      symbolTable.put("fully.qualified.Woah", sd2);
       
 //      _log.log("_llv.getSymbolData for fully.qualified.Woah = " +
 //                         _llv.getQualifiedSymbolData("fully.qualified.Woah", 
@@ -2780,13 +2780,13 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       assertFalse("sd2 should now be resolved", sd2.isContinuation());
       
       // Imported Packages
-      LanguageLevelConverter.symbolTable.remove("fully.qualified.Woah");
+      symbolTable.remove("fully.qualified.Woah");
       testLLVisitor.visitedFiles.clear();
       testLLVisitor._file = new File("testFiles/Fake.dj0");
       testLLVisitor._package = "";
       testLLVisitor._importedPackages.addLast("fully.qualified");
       sd2 = new SymbolData("fully.qualified.Woah");
-      LanguageLevelConverter.symbolTable.put("fully.qualified.Woah", sd2);
+      symbolTable.put("fully.qualified.Woah", sd2);
       assertEquals("should find the unresolved symbol data in the symbol table", sd2, 
                    testLLVisitor.getQualifiedSymbolData("fully.qualified.Woah", SourceInfo.NONE, false, false, true));
       assertTrue("should not be a continuation", sd2.isContinuation());
@@ -2803,8 +2803,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       assertFalse("should not be a continuation", newsd1.isContinuation());
       
       // Test ambiguous class name (i.e. it is unqualified, and matches unqualified names in 2 or more packages.
-      LanguageLevelConverter.symbolTable.put("random.package.String", new SymbolData("random.package.String"));
-//      LanguageLevelConverter.symbolTable.put("java.lang.Object", new SymbolData("java.lang.Object"));
+      symbolTable.put("random.package.String", new SymbolData("random.package.String"));
+//      symbolTable.put("java.lang.Object", new SymbolData("java.lang.Object"));
       testLLVisitor._importedPackages.addLast("random.package");
       result = testLLVisitor.getSymbolData("String", SourceInfo.NONE);
       assertEquals("Result should be null", null, result);
@@ -2813,7 +2813,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                    "  It could be java.lang.String or random.package.String", 
                    errors.get(0).getFirst());
       
-      LanguageLevelConverter.symbolTable.remove("random.package.String");
+      symbolTable.remove("random.package.String");
       
     }
     
@@ -2887,9 +2887,9 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
     
     public void testAddSymbolData() {
       /**Put super class in symbol table.*/
-      SymbolData obj = LanguageLevelConverter.symbolTable.get("java.lang.Object");
+      SymbolData obj = symbolTable.get("java.lang.Object");
 //      obj.setIsContinuation(false);
-//      LanguageLevelConverter.symbolTable.put("java.lang.Object", obj);
+//      symbolTable.put("java.lang.Object", obj);
       
       ClassDef cd = 
         new ClassDef(SourceInfo.NONE, PUBLIC_MAV, new Word(SourceInfo.NONE, "Awesome"),
@@ -2899,8 +2899,8 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                      new BracedBody(SourceInfo.NONE, new BodyItemI[0]));
       
       SymbolData sd = new SymbolData("Awesome"); /**Create a continuation and store it in table.*/
-      sd.setSuperClass(LanguageLevelConverter.symbolTable.get("java.lang.Object"));
-      LanguageLevelConverter.symbolTable.put("Awesome", sd);
+      sd.setSuperClass(symbolTable.get("java.lang.Object"));
+      symbolTable.put("Awesome", sd);
       SymbolData result = testLLVisitor.defineSymbolData(cd, "Awesome");
       assertFalse("result should not be a continuation.", result.isContinuation());
       assertFalse("sd should also no longer be a continuation.", sd.isContinuation());
@@ -2967,15 +2967,15 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       NullLiteral nl2 = new NullLiteral(SourceInfo.NONE);
       
       e.addLast(new Pair<String,JExpressionIF>("Boy, is this an error!", nl));
-      _addError("Boy, is this an error!", nl);
+      testLLVisitor._addError("Boy, is this an error!", nl);
       
-      assertTrue("An error should have been added.", _errorAdded);
+      assertTrue("An error should have been added.", _llc._errorAdded);
       assertEquals("The errors list should be correct.", e, errors);
       
       e.addLast(new Pair<String,JExpressionIF>("Error again!", nl2));
-      _addError("Error again!", nl2);
+      testLLVisitor._addError("Error again!", nl2);
       
-      assertTrue("Another error should have been aded.", _errorAdded);
+      assertTrue("Another error should have been aded.", _llc._errorAdded);
       assertEquals("The new errors list should be correct.", e, errors);
     }
     
@@ -2985,23 +2985,23 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       NullLiteral nl = new NullLiteral(SourceInfo.NONE);
       NullLiteral nl2 = new NullLiteral(SourceInfo.NONE);
       
-      _errorAdded = false;
+      _llc._errorAdded = false;
       
       e.addLast(new Pair<String,JExpressionIF>("Nobody pays attention to me!", nl));
-      _addAndIgnoreError("Nobody pays attention to me!", nl);
+      testLLVisitor._addAndIgnoreError("Nobody pays attention to me!", nl);
       
-      assertFalse("_errorAdded should be false.", _errorAdded);
+      assertFalse("_errorAdded should be false.", _llc._errorAdded);
       assertEquals("The errors list should be correct.", e, errors);
       
       e.addLast(new Pair<String,JExpressionIF>("Cellophane, I'm Mr. Cellophane", nl2));
-      _addAndIgnoreError("Cellophane, I'm Mr. Cellophane", nl2);
+      testLLVisitor._addAndIgnoreError("Cellophane, I'm Mr. Cellophane", nl2);
       
-      assertFalse("errorAdded should still be false.", _errorAdded);
+      assertFalse("errorAdded should still be false.", _llc._errorAdded);
       assertEquals("The new errors list should be correct.", e, errors);
       
-      _errorAdded = true;
+      _llc._errorAdded = true;
       try {
-        _addAndIgnoreError("This should throw an exception, because _errorAdded is true.", nl);
+        testLLVisitor._addAndIgnoreError("This should throw an exception, because _errorAdded is true.", nl);
         assertTrue("An error should have been thrown!", false);
       }
       catch (RuntimeException exc) {
@@ -3010,16 +3010,16 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                      "  Please report this bug.",
                      exc.getMessage());
       }
-      _errorAdded = false;
+      _llc._errorAdded = false;
     }
     
     public void test_checkError() {
-      _errorAdded = false;
-      assertFalse("_checkError should return false", _checkError());
+      _llc._errorAdded = false;
+      assertFalse("_checkError should return false", testLLVisitor._checkError());
       
-      _errorAdded = true;
-      assertTrue("_checkError should return true", _checkError());
-      assertFalse("_checkError should have set _errorAdded to false.", _errorAdded);
+      _llc._errorAdded = true;
+      assertTrue("_checkError should return true", testLLVisitor._checkError());
+      assertFalse("_checkError should have set _errorAdded to false.", _llc._errorAdded);
     }    
     
     public void testForClassDefDoFirst() {      
@@ -3121,7 +3121,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
       testLLVisitor.forClassImportStatementOnly(cis);
       assertTrue("imported files should contain alpha.beta", testLLVisitor._importedFiles.contains("alpha.beta"));
       // continuations should not appear in symbolTable
-//      assertEquals("There should be a continuation.", sd, LanguageLevelConverter.symbolTable.get("alpha.beta"));
+//      assertEquals("There should be a continuation.", sd, symbolTable.get("alpha.beta"));
       assertTrue("It should be in continuations.", testLLVisitor.continuations.containsKey("alpha.beta"));
       
       // Test one that should throw an error: Class has already been imported. alpha.beta should now be in the 
@@ -3276,7 +3276,7 @@ public class LanguageLevelVisitor extends JExpressionIFPrunableDepthFirstVisitor
                                                                                               expList))});
       bb.visit(testLLVisitor);
       assertNotNull("The SymbolTable should have java.util.prefs.BackingStoreException", 
-                  LanguageLevelConverter.symbolTable.get("java.util.prefs.BackingStoreException"));
+                  symbolTable.get("java.util.prefs.BackingStoreException"));
       
     }
     
@@ -46,6 +46,7 @@ public class Options {
   private final JavaVersion _javaVersion;
   private final Iterable<? extends File> _bootClassPath;
   private final Iterable<? extends File> _classPath;
+  private final File _cacheDirectory;
   
   public static final Options DEFAULT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
   
@@ -55,12 +56,28 @@ public class Options {
   
   public Options(JavaVersion javaVersion, Iterable<? extends File> classPath,
                  Iterable<? extends File> bootClassPath) {
+    this(javaVersion, classPath, bootClassPath, defaultCacheDirectory());
+  }
+  
+  /** @param cacheDirectory  Where to save the signatures of library classes between runs, or null to not save them. */
+  public Options(JavaVersion javaVersion, Iterable<? extends File> classPath,
+                 Iterable<? extends File> bootClassPath, File cacheDirectory) {
     _javaVersion = javaVersion;
     _classPath = classPath;
     _bootClassPath = bootClassPath;
+    _cacheDirectory = cacheDirectory;
+  }
+  
+  /** The directory named by the "javalanglevels.cache.dir" property, or null (no cache directory) if it is not set or
+    * is empty.  Tools that want a cache should pass a directory that only their user can write to. */
+  public static File defaultCacheDirectory() {
+    String dir = System.getProperty("javalanglevels.cache.dir");
+    if (dir == null || dir.equals("")) { return null; }
+    else { return new File(dir); }
   }
   
   public JavaVersion javaVersion() { return _javaVersion; }
   public Iterable<? extends File> bootClassPath() { return _bootClassPath; }
   public Iterable<? extends File> classPath() { return _classPath; }
+  public File cacheDirectory() { return _cacheDirectory; }
 }
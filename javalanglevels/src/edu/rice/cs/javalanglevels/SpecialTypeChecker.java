@@ -62,6 +62,7 @@ public class SpecialTypeChecker extends TypeChecker {
   protected LinkedList<Pair<SymbolData, JExpression>> _thrown;
 
   /** Constructor for SpecialTypeChecker.
+    * @param llc  The conversion being type checked
     * @param data  The data that represents the context.
     * @param file  The file that corresponds to the source file
     * @param packageName  The string representing the package name
@@ -70,10 +71,11 @@ public class SpecialTypeChecker extends TypeChecker {
     * @param vars  The list of fields that have been assigned up to the point where SpecialTypeChecker is called.
     * @param thrown  The list of exceptions that the context is declared to throw
     */
-  public SpecialTypeChecker(Data data, File file, String packageName, LinkedList<String> importedFiles, 
+  public SpecialTypeChecker(LanguageLevelConverter llc, Data data, File file, String packageName,
+                            LinkedList<String> importedFiles, 
              LinkedList<String> importedPackages, LinkedList<VariableData> vars, 
              LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(file, packageName, importedFiles, importedPackages);
+    super(llc, file, packageName, importedFiles, importedPackages);
     if (vars == null) throw new RuntimeException("SpecialTypeChecker called with _vars = null!");
     _data = data;
     _vars = vars;
@@ -148,8 +150,8 @@ public class SpecialTypeChecker extends TypeChecker {
     Expression[] exprs = pel.getExpressions();
     InstanceData[] newArgs = new InstanceData[exprs.length];
     TypeData[] args = new TypeData[exprs.length];
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages,
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     for (int i = 0; i < exprs.length; i++) {
       args[i] = exprs[i].visit(etc);
       if (args[i] == null || ! assertFound(args[i], exprs[i])) return null;
@@ -226,8 +228,8 @@ public class SpecialTypeChecker extends TypeChecker {
     * @return  The result of visiting the expression with the ExpressionTypeChecker.
      */
   public TypeData forExpressionStatement(ExpressionStatement that) {
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages,
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData exprRes = that.getExpression().visit(etc);
 
     //do this so that we can keep track of anything that got assigned
@@ -241,8 +243,8 @@ public class SpecialTypeChecker extends TypeChecker {
    * Add the corresponding SymbolData to _thrown.
    */
   public TypeData forThrowStatement(ThrowStatement that) {
-    ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages,
-                                                          _vars, _thrown);
+    ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                          _importedPackages, _vars, _thrown);
     final TypeData thrown_result = that.getThrown().visit(etc);
     thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned);
 
@@ -331,8 +333,8 @@ public class SpecialTypeChecker extends TypeChecker {
       initializer_result = forArrayInitializerHelper((ArrayInitializer) that.getInitializer(), typeRes);
     }
     else {
-      ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages,
-                                                            _vars, _thrown);
+      ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                            _importedPackages, _vars, _thrown);
       initializer_result = that.getInitializer().visit(etc);
       thingsThatHaveBeenAssigned.addAll(etc.thingsThatHaveBeenAssigned); //incorporate this list here
     }
@@ -364,8 +366,8 @@ public class SpecialTypeChecker extends TypeChecker {
           result[i] = forArrayInitializerHelper((ArrayInitializer) elements[i], elementType);
       }
       else {
-        ExpressionTypeChecker etc = new ExpressionTypeChecker(_data, _file, _package, _importedFiles, _importedPackages,
-                                                              _vars, _thrown);
+        ExpressionTypeChecker etc = new ExpressionTypeChecker(_llc, _data, _file, _package, _importedFiles,
+                                                              _importedPackages, _vars, _thrown);
         result[i] = elements[i].visit(etc);
         
         // Incorporate the things that were assigned in the expression here
@@ -415,8 +417,8 @@ public class SpecialTypeChecker extends TypeChecker {
       interfacesRes[i] = that.getInterfaces()[i].visit(this);
     }
     final TypeData bodyRes = 
-      that.getBody().visit(new ClassBodyTypeChecker(sd, _file, _package, _importedFiles, _importedPackages, _vars, 
-                                                    _thrown));
+      that.getBody().visit(new ClassBodyTypeChecker(_llc, sd, _file, _package, _importedFiles, _importedPackages,
+                                                    _vars, _thrown));
     return null;
   }
   
@@ -446,8 +448,8 @@ public class SpecialTypeChecker extends TypeChecker {
     }
 
     final TypeData bodyRes = 
-      that.getBody().visit(new InterfaceBodyTypeChecker(sd, _file, _package, _importedFiles, _importedPackages, _vars, 
-                                                        _thrown));
+      that.getBody().visit(new InterfaceBodyTypeChecker(_llc, sd, _file, _package, _importedFiles, _importedPackages,
+                                                        _vars, _thrown));
     return null;
   }
     
@@ -563,6 +565,9 @@ public class SpecialTypeChecker extends TypeChecker {
   
   /** Test the methods defined in the enclosing class. */      
   public static class BobTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private SpecialTypeChecker _stc;
     
@@ -577,11 +582,11 @@ public class SpecialTypeChecker extends TypeChecker {
     public BobTest(String name) { super(name); }
     
     public void setUp() {
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      _stc = new SpecialTypeChecker(null, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
+      errors.clear();
+      symbolTable.clear();
+      _stc = new SpecialTypeChecker(_llc, null, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), 
                    new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
         _stc._importedPackages.addFirst("java.lang");
       _sd1 = new SymbolData("i.like.monkey");
       _sd2 = new SymbolData("i.like.giraffe");
@@ -594,7 +599,7 @@ public class SpecialTypeChecker extends TypeChecker {
     
     public void testForInitializedVariableDeclarator() {
       LanguageLevelVisitor llv =
-        new LanguageLevelVisitor(_stc._file, 
+        new LanguageLevelVisitor(_llc, _stc._file, 
                                  _stc._package,
                                  null, // enclosingClassName for top level traversal.
                                  _stc._importedFiles, 
@@ -603,7 +608,7 @@ public class SpecialTypeChecker extends TypeChecker {
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-//      LanguageLevelConverter.symbolTable.clear();
+//      symbolTable.clear();
       
       SourceInfo si = SourceInfo.NONE;
       Expression e1 = new IntegerLiteral(si, 1);
@@ -691,14 +696,14 @@ public class SpecialTypeChecker extends TypeChecker {
   
     public void testForArrayInitializerHelper() {
       LanguageLevelVisitor llv =
-        new LanguageLevelVisitor(_stc._file, _stc._package, 
+        new LanguageLevelVisitor(_llc, _stc._file, _stc._package, 
                                  null /* enclosingClassName */, 
                                  _stc._importedFiles,  
                                  _stc._importedPackages, 
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = _stc.symbolTable;
+//      symbolTable = llv.symbolTable = _stc.symbolTable;
       
       SourceInfo si = SourceInfo.NONE;
       
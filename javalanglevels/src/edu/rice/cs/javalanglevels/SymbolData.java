@@ -63,8 +63,8 @@ public class SymbolData extends TypeData {
     public boolean isAssignableTo(SymbolData toCheck, boolean allowAutoboxing) {
       if (toCheck == null) return false;
       if (allowAutoboxing && !toCheck.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Boolean");
-        return autoBoxMe.isAssignableTo(toCheck, allowAutoboxing);
+        SymbolData autoBoxMe = box(toCheck._symbolTable);
+        return autoBoxMe != null && autoBoxMe.isAssignableTo(toCheck, allowAutoboxing);
       }
       return toCheck == BOOLEAN_TYPE;
     }
@@ -82,8 +82,8 @@ public class SymbolData extends TypeData {
     public boolean isAssignableTo(SymbolData assignTo, boolean allowAutoboxing) {
       if (assignTo == null) return false;
       if (allowAutoboxing && ! assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Character");
-        return autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
+        return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
       
       return 
@@ -110,8 +110,8 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false;
 
       if (allowAutoboxing && !assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Byte");
-        return autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
+        return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
 
       return 
@@ -137,7 +137,7 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false;
 
       if (allowAutoboxing && !assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Short");
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
         return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
       
@@ -161,8 +161,8 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false;
 
       if (allowAutoboxing && ! assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Integer");
-        return autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
+        return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
 
       return assignTo == SymbolData.INT_TYPE ||  assignTo == SymbolData.LONG_TYPE || 
@@ -185,8 +185,8 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false;
 
       if (allowAutoboxing && !assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Long");
-        return autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
+        return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
 
       return assignTo == SymbolData.LONG_TYPE || 
@@ -210,7 +210,7 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false;
 
       if (allowAutoboxing && !assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Float");
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
         return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
 
@@ -234,7 +234,7 @@ public class SymbolData extends TypeData {
       if (assignTo == null) return false; 
 
       if (allowAutoboxing && ! assignTo.isPrimitiveType()) {
-        SymbolData autoBoxMe = LanguageLevelConverter.symbolTable.get("java.lang.Double");
+        SymbolData autoBoxMe = box(assignTo._symbolTable);
         return autoBoxMe != null && autoBoxMe.isAssignableTo(assignTo, allowAutoboxing);
       }
       return assignTo == SymbolData.DOUBLE_TYPE; 
@@ -379,6 +379,9 @@ public class SymbolData extends TypeData {
   /* The number of anonymous inner classes, used in naming them. */
   private int _anonymousInnerClassNum;
   
+  /** The symbol table this has been entered in, or null.  Primitives look up their box classes in it. */
+  private Symboltable _symbolTable;
+  
   /** Constructors */
   
   /** Constructor for SymbolData
@@ -523,16 +526,19 @@ public class SymbolData extends TypeData {
      return null;
    }
    
-   /** The inverse of unbox(). */
-   public SymbolData box() {
-     if (this == INT_TYPE)     return LanguageLevelConverter.symbolTable.get("java.lang.Integer");
-     if (this == CHAR_TYPE)    return LanguageLevelConverter.symbolTable.get("java.lang.Character");
-     if (this == SHORT_TYPE)   return LanguageLevelConverter.symbolTable.get("java.lang.Short");
-     if (this == BYTE_TYPE)    return LanguageLevelConverter.symbolTable.get("java.lang.Byte");
-     if (this == FLOAT_TYPE)   return LanguageLevelConverter.symbolTable.get("java.lang.Float");
-     if (this == DOUBLE_TYPE)  return LanguageLevelConverter.symbolTable.get("java.lang.Double");
-     if (this == LONG_TYPE)    return LanguageLevelConverter.symbolTable.get("java.lang.Long");
-     if (this == BOOLEAN_TYPE) return LanguageLevelConverter.symbolTable.get("java.lang.Boolean");
+   /** The inverse of unbox().  The box classes of primitives are looked up in table, which may be null.
+     * @return the box class of this primitive in table (null if there is none), or this if it is not primitive */
+   public SymbolData box(Symboltable table) {
+     if (! isPrimitiveType()) return this;
+     if (table == null)        return null;
+     if (this == INT_TYPE)     return table.get("java.lang.Integer");
+     if (this == CHAR_TYPE)    return table.get("java.lang.Character");
+     if (this == SHORT_TYPE)   return table.get("java.lang.Short");
+     if (this == BYTE_TYPE)    return table.get("java.lang.Byte");
+     if (this == FLOAT_TYPE)   return table.get("java.lang.Float");
+     if (this == DOUBLE_TYPE)  return table.get("java.lang.Double");
+     if (this == LONG_TYPE)    return table.get("java.lang.Long");
+     if (this == BOOLEAN_TYPE) return table.get("java.lang.Boolean");
      return this;
    }
    
@@ -584,7 +590,7 @@ public class SymbolData extends TypeData {
          // return false if this and castTo contain methods with the same signature but different return types.
          
          for (MethodData md: this.getMethods()) {
-           if (checkDifferentReturnTypes(md, castTo, false, true)) {
+           if (checkDifferentReturnTypes(md, castTo, null, true)) {
              /* TypeChecker._addError("Types " + this.getName() + " and " + castTo.getName() + " are incompatible.  
               Both implement " + md.getName() + " but have different return types", md.getSourceInfo()); */
              return false;
@@ -782,6 +788,9 @@ public class SymbolData extends TypeData {
   /**@return the anonymous inner class num*/
   public int getAnonymousInnerClassNum() { return _anonymousInnerClassNum; }
   
+  /**Set the symbol table this has been entered in; called by Symboltable.put */
+  void setSymbolTable(Symboltable table) { _symbolTable = table; }
+  
   /**Return the local class num, and then decrement it*/
   public int postdecrementLocalClassNum() { return _localClassNum--; }
   
@@ -1012,20 +1021,16 @@ public class SymbolData extends TypeData {
     return true;
   }
   
-  /**Call checkDifferentReturnTypes with addError set to true by default*/
-  protected static boolean checkDifferentReturnTypes(MethodData md, SymbolData sd, boolean allowAutoBoxing) {
-      return checkDifferentReturnTypes(md, sd, true, allowAutoBoxing);
-    }
-  
   /** Called to make sure that no method has the same name and parameters as a method it inherits while having
     * different return types.
     * @param md  The MethodData we're currently trying to add
     * @param sd  The SymbolData of the class whose enclosingDatas we're examining for 
     *            different return types.
-    * @param addError  true if errors should be added to the type checker
+    * @param errors  The type checker's error list, to which a conflict is added; null if no error should be added
     * @return  Whether there exists a conflict
     */
-  protected static boolean checkDifferentReturnTypes(MethodData md, SymbolData sd, boolean addError, 
+  protected static boolean checkDifferentReturnTypes(MethodData md, SymbolData sd, 
+                                                     LinkedList<Pair<String, JExpressionIF>> errors,
                                                      boolean allowAutoBoxing) {
     // We only want to check the super class and interfaces, not outer classes.
     ArrayList<SymbolData> interfaces = sd.getInterfaces();    
@@ -1053,10 +1058,10 @@ public class SymbolData extends TypeData {
           methodSignature.append(")");
           String methodSigString = methodSignature.toString();
           // This entire method may be called from the type checker, so add an error to its error list if indicated
-          if (addError) { 
+          if (errors != null) { 
             String msg = methodSigString + " in " + sd.getName() + " cannot override " + methodSigString + " in " +
               currSd.getName() + "; attempting to use different return types";
-            TypeChecker.errors.addLast(new Pair<String, JExpressionIF>(msg, md.getJExpression())); }
+            errors.addLast(new Pair<String, JExpressionIF>(msg, md.getJExpression())); }
           return true;
         }
         
@@ -1065,8 +1070,8 @@ public class SymbolData extends TypeData {
           if (matchingMd.hasModifier("private")) access = "private";
           if (matchingMd.hasModifier("public")) access = "public";
           if (matchingMd.hasModifier("protected")) access = "protected";
-          if (addError) {
-            TypeChecker.errors.
+          if (errors != null) {
+            errors.
               addLast(new Pair<String, JExpressionIF>(md.getName() + " in " + md.getSymbolData().getName() 
                                                         + " cannot override " + matchingMd.getName() + " in " 
                                                         + matchingMd.getSymbolData().getName() + 
@@ -1077,7 +1082,7 @@ public class SymbolData extends TypeData {
           return true;
         }
       }
-      else if (checkDifferentReturnTypes(md, currSd, true)) return true;
+      else if (checkDifferentReturnTypes(md, currSd, errors, true)) return true;
     }
     return false;
   }
@@ -1144,12 +1149,12 @@ public class SymbolData extends TypeData {
     * does not match that of any other method in the same class.  We also must check that
     * a method does not have the same signature but a different return type from a method 
     * in its superclass or one of its interfaces.
-`    */
-  public void addMethod(MethodData method) {
+    * @param errors  The visitor's error list, to which a repeated signature is added
+    */
+  public void addMethod(MethodData method, LinkedList<Pair<String, JExpressionIF>> errors) {
     // Detect repeated methods
     if (repeatedSignature(_methods, method) != null) {
-      LanguageLevelVisitor.errors.addLast(new Pair<String, JExpressionIF>(_createErrorMessage(method), 
-                                                                          method.getJExpression()));
+      errors.addLast(new Pair<String, JExpressionIF>(_createErrorMessage(method), method.getJExpression()));
     }
     else {
       _methods.addLast(method);
@@ -1161,12 +1166,13 @@ public class SymbolData extends TypeData {
     * (toString, equals, hashCode, etc.) and is necessary because we need to check if the user defined
     * a method with the same signature and, if so, highlight the user method instead of trying to highlight
     * the auto-generated method (which doesn't appear in the raw version of the source anyway).
+    * @param errors  The visitor's error list, to which a conflicting user method is added
     */
-  public void addMethod(MethodData method, boolean isAugmentedCode) {
+  public void addMethod(MethodData method, boolean isAugmentedCode, LinkedList<Pair<String, JExpressionIF>> errors) {
     // Detect if a method was user-defined that matches the signature of an auto-generated method.
     MethodData md = repeatedSignature(_methods, method);
     if (md != null) {
-      LanguageLevelVisitor.errors.
+      errors.
         addLast(new Pair<String, JExpressionIF>("This method's signature conflicts with an automatically generated "
                                                   + "method's signature", 
                                                 md.getJExpression()));
@@ -1185,7 +1191,7 @@ public class SymbolData extends TypeData {
 //    // Detect if a method was user-defined that matches the signature of an auto-generated method.
 //    MethodData md = repeatedSignature(_methods, method, fromClassFile);
 //    if (md != null) {
-//      LanguageLevelVisitor.errors.
+//      errors.
 //        addLast(new Pair<String, JExpressionIF>(_createErrorMessage(method), md.getJExpression()));
 //    }
 //    else {
@@ -1372,6 +1378,9 @@ public class SymbolData extends TypeData {
   
    /** Test the methods defined in the above class */
   public static class SymbolDataTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private SymbolData _sd;
     
@@ -1394,9 +1403,9 @@ public class SymbolData extends TypeData {
     
     public void setUp() {
       _sd = new SymbolData("i.like.monkey");
-      LanguageLevelVisitor.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      /* ensure that symbolTable is loaded */
-      _objectSymbol = LanguageLevelConverter.OBJECT;
+      errors.clear();
+      _llc.loadSymbolTable();
+      _objectSymbol = symbolTable.get("java.lang.Object");
       
     }
     
@@ -1469,7 +1478,7 @@ public class SymbolData extends TypeData {
     
     public void testCheckDifferentReturnTypes() {
       
-      TypeChecker.errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
       
       // Create a super class and give it a method.
       SymbolData superSd = new SymbolData("superClass");
@@ -1481,7 +1490,7 @@ public class SymbolData extends TypeData {
                                      new String[0],
                                      superSd,
                                      null);
-      superSd.addMethod(md);
+      superSd.addMethod(md, errors);
       _sd.setSuperClass(superSd);
       
       // Test with an exact copy of the method.
@@ -1493,8 +1502,8 @@ public class SymbolData extends TypeData {
                                       new String[0],
                                       _sd,
                                       null);
-      assertFalse("There should not be a conflict.", checkDifferentReturnTypes(md2, _sd, true));
-      assertEquals("There should not be an error.", 0, TypeChecker.errors.size());
+      assertFalse("There should not be a conflict.", checkDifferentReturnTypes(md2, _sd, errors, true));
+      assertEquals("There should not be an error.", 0, errors.size());
       
       // Test with an exact copy of the method except for differing return types.
       MethodData md3 = new MethodData("methodName",
@@ -1505,12 +1514,12 @@ public class SymbolData extends TypeData {
                                       new String[0],
                                       _sd,
                                       null);
-      assertTrue("There should be a conflict.", checkDifferentReturnTypes(md3, _sd, true));
-      assertEquals("There should be one error.", 1, TypeChecker.errors.size());
+      assertTrue("There should be a conflict.", checkDifferentReturnTypes(md3, _sd, errors, true));
+      assertEquals("There should be one error.", 1, errors.size());
       assertEquals("The error message should be correct.", 
                    "methodName() in i.like.monkey cannot override methodName() in superClass;" + 
                    " attempting to use different return types",
-                   TypeChecker.errors.get(0).getFirst());
+                   errors.get(0).getFirst());
       
       // Create a super super class and give it a method.
       SymbolData superSuperSd = new SymbolData("superSuperClass");
@@ -1523,7 +1532,7 @@ public class SymbolData extends TypeData {
                                       superSuperSd,
                                       null);
       md4.getParams()[0].setEnclosingData(md4);
-      superSuperSd.addMethod(md4);
+      superSuperSd.addMethod(md4, errors);
       superSd.setSuperClass(superSuperSd);
       
       // Test with an exact copy except for differing parameters.
@@ -1535,8 +1544,8 @@ public class SymbolData extends TypeData {
                                       new String[0],
                                       null,
                                       null);
-      assertFalse("There should not be a conflict.", checkDifferentReturnTypes(md5, _sd, true));
-      assertEquals("There should still be one error.", 1, TypeChecker.errors.size());
+      assertFalse("There should not be a conflict.", checkDifferentReturnTypes(md5, _sd, errors, true));
+      assertEquals("There should still be one error.", 1, errors.size());
       
       // Test with an exact copy except for differing return types.
       MethodData md6 = new MethodData("superSuperMethodName",
@@ -1548,8 +1557,8 @@ public class SymbolData extends TypeData {
                                       null,
                                       null);
       md6.getParams()[0].setEnclosingData(md6);
-      assertTrue("There should be a conflict.", checkDifferentReturnTypes(md6, _sd, true));
-      assertEquals("There should be two errors.", 2, TypeChecker.errors.size());
+      assertTrue("There should be a conflict.", checkDifferentReturnTypes(md6, _sd, errors, true));
+      assertEquals("There should be two errors.", 2, errors.size());
       
       //Test a method that restricts the mav of the super class's method
       MethodData md7 = new MethodData("superSuperMethodName",
@@ -1561,12 +1570,12 @@ public class SymbolData extends TypeData {
                                       new SymbolData("myData"),
                                       null);
       md7.getParams()[0].setEnclosingData(md7);
-      assertTrue("There should be a conflict", checkDifferentReturnTypes(md7, _sd, true));
-      assertEquals("There should be three errors", 3, TypeChecker.errors.size());
+      assertTrue("There should be a conflict", checkDifferentReturnTypes(md7, _sd, errors, true));
+      assertEquals("There should be three errors", 3, errors.size());
       assertEquals("The error message should be correct", 
                    "superSuperMethodName in myData cannot override superSuperMethodName in " + superSuperSd.getName() + 
                    ".  You are attempting to assign weaker access priviledges. In " + superSuperSd.getName() + 
-                   ", superSuperMethodName was public", TypeChecker.errors.get(2).getFirst());                                   
+                   ", superSuperMethodName was public", errors.get(2).getFirst());                                   
       
       //Test a method that narrows the return type of the super class's method
       SymbolData stringSd = new SymbolData("java.lang.String");
@@ -1582,14 +1591,14 @@ public class SymbolData extends TypeData {
                                       new SymbolData("myData"),
                                       null);;
         
-//      System.err.println("**** The three errors are: \n" + TypeChecker.errors);
+//      System.err.println("**** The three errors are: \n" + errors);
                                       
-      assertFalse("There should be no conflict", checkDifferentReturnTypes(md8, _sd, true));
-      assertEquals("There should still be 3 errors", 3, TypeChecker.errors.size());
+      assertFalse("There should be no conflict", checkDifferentReturnTypes(md8, _sd, errors, true));
+      assertEquals("There should still be 3 errors", 3, errors.size());
       /* Java 1.4 is not supported. */
 //      assertTrue("There should be a conflict in 1.4", checkDifferentReturnTypes(md8, _sd, false));
-//      assertEquals("There should now be 4 errors", 4, TypeChecker.errors.size());
-//      assertEquals("The error message should be correct", TypeChecker.errors.getLast().getFirst(), 
+//      assertEquals("There should now be 4 errors", 4, errors.size());
+//      assertEquals("The error message should be correct", errors.getLast().getFirst(), 
 //                   "superSuperMethodName(char) in superClass cannot override superSuperMethodName(char) in " + 
 //                   superSuperSd.getName() + "; attempting to use different return types");
     }
@@ -1652,8 +1661,8 @@ public class SymbolData extends TypeData {
       md.getParams()[0].setEnclosingData(md);
       md.getParams()[1].setEnclosingData(md);
                                      
-      _sd.addMethod(md);
-      assertEquals("There should be no errors.", 0, LanguageLevelVisitor.errors.size());
+      _sd.addMethod(md, errors);
+      assertEquals("There should be no errors.", 0, errors.size());
       // Test same name, return type, and params from a source file.
       MethodData md2 = new MethodData("methodName", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE, 
                                       new VariableData[] { new VariableData(SymbolData.CHAR_TYPE),
@@ -1664,12 +1673,12 @@ public class SymbolData extends TypeData {
       md2.getParams()[0].setEnclosingData(md2);
       md2.getParams()[1].setEnclosingData(md2);
                                       
-      _sd.addMethod(md2);
-      assertEquals("There should be one error.", 1, LanguageLevelVisitor.errors.size());
+      _sd.addMethod(md2, errors);
+      assertEquals("There should be one error.", 1, errors.size());
       assertEquals("The error message should be correct.", "In the class \"" + _sd.getName() + 
                    "\", you cannot have two methods with the same name: \"" + md.getName() 
                      + "\" and parameter types: char, boolean",
-                   LanguageLevelVisitor.errors.get(0).getFirst());
+                   errors.get(0).getFirst());
       MethodData md4 = new MethodData("methodName",
                                      _publicMav,
                                      new TypeParameter[0],
@@ -1678,8 +1687,8 @@ public class SymbolData extends TypeData {
                                      new String[0],
                                      _sd,
                                      null);
-      _sd.addMethod(md4);
-      assertEquals("There should still be one error.", 1, LanguageLevelVisitor.errors.size());
+      _sd.addMethod(md4, errors);
+      assertEquals("There should still be one error.", 1, errors.size());
       MethodData md5 = new MethodData("methodNamePlusStuff",
                                      _publicMav,
                                      new TypeParameter[0],
@@ -1688,19 +1697,19 @@ public class SymbolData extends TypeData {
                                      new String[0],
                                      _sd,
                                      null);
-      _sd.addMethod(md5);
-      assertEquals("There should still be one error.", 1, LanguageLevelVisitor.errors.size());
+      _sd.addMethod(md5, errors);
+      assertEquals("There should still be one error.", 1, errors.size());
       // Check that _sd only has two methods, the original md and md5.
       assertEquals("There are three methods in _sd.", 3, _sd.getMethods().size());
       assertEquals("The original method was added.", md, _sd.getMethods().get(0));
       assertEquals("md5 was added.", md5, _sd.getMethods().get(2));
       
       // Check that adding a method from augmented code produces the correct error message.
-      _sd.addMethod(md2, true);
-      assertEquals("There should be two errors.", 2, LanguageLevelVisitor.errors.size());
+      _sd.addMethod(md2, true, errors);
+      assertEquals("There should be two errors.", 2, errors.size());
       assertEquals("The error message should be correct.",
                    "This method's signature conflicts with an automatically generated method's signature",
-                   LanguageLevelVisitor.errors.get(1).getFirst());
+                   errors.get(1).getFirst());
     }
     
     public void testIsNumberType() {
@@ -1723,16 +1732,17 @@ public class SymbolData extends TypeData {
     }
     
      public void testBoxedTypes() {
-      assertEquals("INT_TYPE boxing", symbolTable.get("java.lang.Integer"), SymbolData.INT_TYPE.box());
-      assertEquals("DOUBLE_TYPE boxing", symbolTable.get("java.lang.Double"), SymbolData.DOUBLE_TYPE.box());
-      assertEquals("LONG_TYPE boxing", symbolTable.get("java.lang.Long"), SymbolData.LONG_TYPE.box());
-      assertEquals("LONG_TYPE boxing", symbolTable.get("java.lang.Long"), SymbolData.LONG_TYPE.box());
-      assertEquals("CHAR_TYPE boxing", symbolTable.get("java.lang.Character"), SymbolData.CHAR_TYPE.box());
-      assertEquals("FLOAT_TYPE boxing", symbolTable.get("java.lang.Float"), SymbolData.FLOAT_TYPE.box());
-      assertEquals("CHAR_TYPE boxing", symbolTable.get("java.lang.Character"), SymbolData.CHAR_TYPE.box());
-      assertEquals("SHORT_TYPE boxing", symbolTable.get("java.lang.Short"), SymbolData.SHORT_TYPE.box());
-      assertEquals("BYTE_TYPE boxing", symbolTable.get("java.lang.Byte"), SymbolData.BYTE_TYPE.box());
-      assertEquals("BOOLEAN_TYPE boxing", symbolTable.get("java.lang.Boolean"), SymbolData.BOOLEAN_TYPE.box());     
+      assertEquals("INT_TYPE boxing", symbolTable.get("java.lang.Integer"), SymbolData.INT_TYPE.box(symbolTable));
+      assertEquals("DOUBLE_TYPE boxing", symbolTable.get("java.lang.Double"), SymbolData.DOUBLE_TYPE.box(symbolTable));
+      assertEquals("LONG_TYPE boxing", symbolTable.get("java.lang.Long"), SymbolData.LONG_TYPE.box(symbolTable));
+      assertEquals("LONG_TYPE boxing", symbolTable.get("java.lang.Long"), SymbolData.LONG_TYPE.box(symbolTable));
+      assertEquals("CHAR_TYPE boxing", symbolTable.get("java.lang.Character"), SymbolData.CHAR_TYPE.box(symbolTable));
+      assertEquals("FLOAT_TYPE boxing", symbolTable.get("java.lang.Float"), SymbolData.FLOAT_TYPE.box(symbolTable));
+      assertEquals("CHAR_TYPE boxing", symbolTable.get("java.lang.Character"), SymbolData.CHAR_TYPE.box(symbolTable));
+      assertEquals("SHORT_TYPE boxing", symbolTable.get("java.lang.Short"), SymbolData.SHORT_TYPE.box(symbolTable));
+      assertEquals("BYTE_TYPE boxing", symbolTable.get("java.lang.Byte"), SymbolData.BYTE_TYPE.box(symbolTable));
+      assertEquals("BOOLEAN_TYPE boxing", symbolTable.get("java.lang.Boolean"),
+                   SymbolData.BOOLEAN_TYPE.box(symbolTable));     
     }
 
     public void testIsNumberTypeWithoutAutoboxing() {
@@ -2172,26 +2182,26 @@ public class SymbolData extends TypeData {
     public void testCreateUniqueMethodName() {
       SymbolData george = new SymbolData("George");
       VariableData[] noVars = new VariableData[0];
-      george.addMethod(new MethodData("getFriends", noVars));
-      george.addMethod(new MethodData("sayHello", noVars));
+      george.addMethod(new MethodData("getFriends", noVars), errors);
+      george.addMethod(new MethodData("sayHello", noVars), errors);
       
       SymbolData iAteGeorge = new SymbolData("IAteGeorge");
-      iAteGeorge.addMethod(new MethodData("sayHello", noVars));
-      iAteGeorge.addMethod(new MethodData("sayHello0", noVars));
+      iAteGeorge.addMethod(new MethodData("sayHello", noVars), errors);
+      iAteGeorge.addMethod(new MethodData("sayHello0", noVars), errors);
       iAteGeorge.addInnerClass(george);
       george.setOuterData(iAteGeorge);
       
       SymbolData mrsGeorge = new SymbolData("MrsGeorge");
-      mrsGeorge.addMethod(new MethodData("sayHello1", noVars));
+      mrsGeorge.addMethod(new MethodData("sayHello1", noVars), errors);
       george.setSuperClass(mrsGeorge);
       
       SymbolData grandmaGeorge = new SymbolData("GrandmaGeorge");
-      grandmaGeorge.addMethod(new MethodData("sayHello2", noVars));
-      grandmaGeorge.addMethod(new MethodData("sayHello5", noVars));
+      grandmaGeorge.addMethod(new MethodData("sayHello2", noVars), errors);
+      grandmaGeorge.addMethod(new MethodData("sayHello5", noVars), errors);
       george.addInterface(grandmaGeorge);
       
       SymbolData papaOfIAteGeorge = new SymbolData("PapaOfIAteGeorge");
-      papaOfIAteGeorge.addMethod(new MethodData("sayHello3", noVars));
+      papaOfIAteGeorge.addMethod(new MethodData("sayHello3", noVars), errors);
       iAteGeorge.setSuperClass(papaOfIAteGeorge);
       
       assertEquals("The generated name is correct when SymbolData has that method name",
@@ -37,15 +37,20 @@
 package edu.rice.cs.javalanglevels;
 import java.util.*;
 
-/** This class is obselescent.  It now has no function.
-  * This class extends Hashtable so that we can have extra functionality in the put function.
-  * A Symboltable is specifically a Hashtable of Strings to SymbolData.  The put function
-  * checks to see if the specified SymbolData is already in the table.  If so, it simply updates its
-  * fields.
+/** A Symboltable is specifically a Hashtable of Strings to SymbolData.  Each LanguageLevelConverter has its own.
+  * This class extends Hashtable so that we can have extra functionality in the put function:  it records the table
+  * in each (non-primitive) SymbolData entered, so that a primitive can find its box class in the table of the type
+  * it is assigned to.
   */
 
 public class Symboltable extends Hashtable<String, SymbolData> {
   
+  /** Enters sd under name, and records this table in sd unless it is a (shared) primitive. */
+  public synchronized SymbolData put(String name, SymbolData sd) {
+    if (! sd.isPrimitiveType()) sd.setSymbolTable(this);
+    return super.put(name, sd);
+  }
+  
 //  /** Augments put function of hash table.  If the specified SymbolData is already in
 //    * the table, simply update its fields.  Otherwise, do a normal put operation.
 //    * ALARM: this does not work 
@@ -58,14 +58,16 @@ public class TryCatchBodyTypeChecker extends BodyTypeChecker {
    * @param vars  The list of VariableData that have already been defined (used so we can make sure we don't use a variable before it has been defined).
    * @param thrown  The list of exceptions thrown in this body
    */
-  public TryCatchBodyTypeChecker(BodyData bodyData, File file, String packageName, LinkedList<String> importedFiles, LinkedList<String> importedPackages, LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    super(bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
+  public TryCatchBodyTypeChecker(LanguageLevelConverter llc, BodyData bodyData, File file, String packageName,
+                                 LinkedList<String> importedFiles, LinkedList<String> importedPackages,
+                                   LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
+    super(llc, bodyData, file, packageName, importedFiles, importedPackages, vars, thrown);
   }
  
   
   /** Create a new instance of this class for visiting inner bodies. */
   protected BodyTypeChecker createANewInstanceOfMe(BodyData bodyData, File file, String pakage, LinkedList<String> importedFiles, LinkedList<String> importedPackages, LinkedList<VariableData> vars, LinkedList<Pair<SymbolData, JExpression>> thrown) {
-    return new TryCatchBodyTypeChecker(bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
+    return new TryCatchBodyTypeChecker(_llc, bodyData, file, pakage, importedFiles, importedPackages, vars, thrown);
   }
   
   /** Overwritten here, becuase it is okay for there to be thrown exceptions in the middle of a try catch. */
@@ -107,6 +109,9 @@ public class TryCatchBodyTypeChecker extends BodyTypeChecker {
     * Test the methods declared in the above class.
     */
   public static class TryCatchBodyTypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private TryCatchBodyTypeChecker _tcbtc;
     
@@ -152,12 +157,14 @@ public class TryCatchBodyTypeChecker extends BodyTypeChecker {
       ((MethodData) _bd1).getParams()[0].setEnclosingData(_bd1);
       ((MethodData) _bd1).getParams()[1].setEnclosingData(_bd1);
                             
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
+      errors.clear();
+      symbolTable.clear();
       _bd1.addEnclosingData(_sd1);
       _bd1.addFinalVars(((MethodData)_bd1).getParams());
-      _tcbtc = new TryCatchBodyTypeChecker(_bd1, new File(""), "", new LinkedList<String>(), new LinkedList<String>(), new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _tcbtc = new TryCatchBodyTypeChecker(_llc, _bd1, new File(""), "", new LinkedList<String>(),
+                                           new LinkedList<String>(), new LinkedList<VariableData>(),
+                                             new LinkedList<Pair<SymbolData, JExpression>>());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _tcbtc._importedPackages.addFirst("java.lang");
     }
     
@@ -180,7 +187,7 @@ public class TryCatchBodyTypeChecker extends BodyTypeChecker {
                                                              new ParenthesizedExpressionList(SourceInfo.NONE, new Expression[] {new StringLiteral(SourceInfo.NONE, "arg")})))});
       
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(new File(""), 
+        new LanguageLevelVisitor(_llc, new File(""), 
                                  "",
                                  null, // enclosingClassName for top level traversal
                                  new LinkedList<String>(), 
@@ -188,11 +195,11 @@ public class TryCatchBodyTypeChecker extends BodyTypeChecker {
                                  new HashSet<String>(), 
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
-      llv.errors = new LinkedList<Pair<String, JExpressionIF>>();
-      llv._errorAdded=false;
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter._newSDs.clear();
-      LanguageLevelConverter.loadSymbolTable();
+      errors.clear();
+      _llc._errorAdded=false;
+      symbolTable.clear();
+      _llc._newSDs.clear();
+      _llc.loadSymbolTable();
       llv.continuations = new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>();
       llv.visitedFiles = new LinkedList<Pair<LanguageLevelVisitor, edu.rice.cs.javalanglevels.tree.SourceFile>>();      
 //      llv._hierarchy = new Hashtable<String, TypeDefBase>();
@@ -49,12 +49,8 @@ import edu.rice.cs.plt.iter.*;
 import junit.framework.TestCase;
 
 /** Does Type Checking that is not dependent on the enclosing body.  Also does top level type checking.  Common
-  * to all langauge levels. 
-  * Where is the symbol table??  It is buried in a static field of LanguageLevelConverter.  In an older version of
-  * this code, it was apparently passed to the constructor of this class as an argument (a much better design), but this
-  * design was abandoned when refactoring should have been performed instead.  There is no symbol table class and methods
-  * naturally belonging to this class were implemented as static methods (!!); these methods could not easily reach
-  * the symbol table unless it too was made static.  Horrible design. */
+  * to all langauge levels.  The symbol table and the error list are those of the LanguageLevelConverter passed to
+  * the constructor. */
 public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implements JExpressionIFVisitor<TypeData> {
   
   public static final SourceInfo NONE = SourceInfo.NONE;
@@ -77,14 +73,17 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
   
   protected static final Log _log = new Log("LLConverter.txt", false);
 
-  /** Holds any errors that are encountered during TypeChecking */
-  static LinkedList<Pair<String, JExpressionIF>> errors;
+  /** The conversion being type checked. */
+  final LanguageLevelConverter _llc;
+  
+  /** Holds any errors that are encountered during TypeChecking; bound to the conversion's error list */
+  final LinkedList<Pair<String, JExpressionIF>> errors;
   
   /** Holds the information about any classes/interfaces that have been resolved */
-  static final Symboltable symbolTable = LanguageLevelConverter.symbolTable;
+  final Symboltable symbolTable;
   
   /**True if we have an error we can't recover from*/
-  static boolean _errorAdded;
+  boolean _errorAdded;
   
   /** The source file we are type checking */
   File _file;
@@ -98,32 +97,19 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
   /**Holds the names of packages that are imported in the source file*/
   LinkedList<String> _importedPackages;
   
-  /** The normal constructor.  Called to begin type checking
+  /** The normal constructor.  Called to begin type checking, and by the subclasses.  Errors are added to the
+    * conversion's error list.
+    * @param llc  The conversion being type checked
     * @param file  The source file being type checked
     * @param packageName  The name of the package of the source file
-    * @param errors  The list of errors that are encountered during type checking
-    * @param importedFiles  The specific classes imported in the source file
-    * @param importedPackages  The list of package names that are imported
-    */
-  public TypeChecker(File file, String packageName, LinkedList<Pair<String, JExpressionIF>> errors,
-                     Symboltable symbolTable, LinkedList<String> importedFiles,
-                     LinkedList<String> importedPackages) {
-    _file = file;
-    _package = packageName;
-    this.errors = errors;
-//    this.symbolTable = symbolTable;
-    this._importedFiles = importedFiles;
-    this._importedPackages = importedPackages;
-  }
-  
-  /** Called by the subclasses.
-    * @param file  The Source File being checked
-    * @param packageName  The package the source file is in
     * @param importedFiles  The specific classes imported in the source file
     * @param importedPackages  The list of package names that are imported
     */
-  public TypeChecker(File file, String packageName, LinkedList<String> importedFiles, 
+  public TypeChecker(LanguageLevelConverter llc, File file, String packageName, LinkedList<String> importedFiles, 
                      LinkedList<String> importedPackages) {
+    _llc = llc;
+    errors = llc.errors;
+    symbolTable = llc.symbolTable;
     _file = file;
     _package = packageName;
     _importedFiles = importedFiles;
@@ -137,12 +123,12 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
   }
   
   /** Adds an appropriate definition of junit.framework.TestCase to symbolTable. */
-  protected static SymbolData defineTestCaseClass() {
+  protected SymbolData defineTestCaseClass() {
     SymbolData testCase = new SymbolData("junit.framework.TestCase");
     testCase.setIsContinuation(false);
     testCase.setMav(_publicMav);
     testCase.setPackage("junit.framework");
-    LanguageLevelConverter.symbolTable.put("junit.framework.TestCase", testCase);
+    symbolTable.put("junit.framework.TestCase", testCase);
     return testCase;
   }
   
@@ -199,29 +185,31 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
 
   }
 
+  /** Create a dummy LLV for this file, for the visitor methods that the type checker reuses; this seems awkward.
+    * TODO:  refactor
+    */
+  protected LanguageLevelVisitor _dummyVisitor() {
+    return new LanguageLevelVisitor(_llc,
+                                    _file, _package, null,  // enclosing class for top level traversal
+                                    _importedFiles, 
+                                    _importedPackages, 
+                                    new HashSet<String>(), 
+                                    new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
+                                    new LinkedList<Command>(),
+                                    new HashMap<String, SymbolData>());
+  }
+
   /** Returns the SymbolData corresponding to the name className, assuming that className
     * does not refer to an unqualified or partially-qualified inner class.  What are the extra parameters for?  Should
-    * this be re-implemented as LanguageLevelConverter.symbolTable.get ??  It is UGLY but simple.
+    * this be re-implemented as symbolTable.get ??  It is UGLY but simple.
     * */
   public SymbolData getSymbolData(String className, JExpression jexpr, boolean giveException, boolean runnableNotOkay) {
     // Check qualified class name (which is no different at elementary level)
     SourceInfo si = jexpr.getSourceInfo();
     
-    // Create a dummy LLV; this seems awkward.  TODO:  refactor
-    // This code is not awkward; it is OBSCENE. symbolTable is static in LanguageLevelConverter. A code stench.
-    LanguageLevelVisitor llv = 
-      new LanguageLevelVisitor(_file, 
-                               _package,
-                               null,  // enclosing class for top level traversal
-                               _importedFiles, 
-                               _importedPackages, 
-                               new HashSet<String>(), 
-                               new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
-                               new LinkedList<Command>(),
-                               new HashMap<String, SymbolData>());
-
-    LanguageLevelConverter._newSDs.clear();
-    assert LanguageLevelConverter.symbolTable.containsKey("java.lang.Object");
+    LanguageLevelVisitor llv = _dummyVisitor();
+    _llc._newSDs.clear();
+    assert symbolTable.containsKey("java.lang.Object");
     SymbolData sd = llv.getSymbolData(className, si, false, true); // TODO: Is this right?
 //    if (sd == null) {
 //      System.err.println("***ALARM*** The following symbol was not found in symbolTable: " + className);
@@ -474,8 +462,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     * @param allowAutoboxing  Whether autoboxing is allowed in the matching process
     * @return  The most specific method among the methods in the given list
     */
-  private static MethodData selectMostSpecificMethod(List<MethodData> list, InstanceData[] arguments, 
-                                                     JExpression jexpr, boolean allowAutoboxing) {
+  private MethodData selectMostSpecificMethod(List<MethodData> list, InstanceData[] arguments, 
+                                              JExpression jexpr, boolean allowAutoboxing) {
     if (list.isEmpty()) return null;
     if (list.size() == 1) return list.get(0);
     Iterator<MethodData> it = list.iterator();
@@ -570,8 +558,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
    * @param thisSD  The SymbolData that is being type checked (from which we're referencing name)
    * @param dataType  The String that tells us whether name is a field, method, or class.
    */
-  public static boolean checkAccess(JExpression piece, ModifiersAndVisibility mav, String name, 
-                                    SymbolData enclosingSD, SymbolData thisSD, String dataType) {
+  public boolean checkAccess(JExpression piece, ModifiersAndVisibility mav, String name, 
+                             SymbolData enclosingSD, SymbolData thisSD, String dataType) {
     return checkAccess(piece, mav, name, enclosingSD, thisSD, dataType, true);
   }
 
@@ -580,26 +568,37 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     * values for anything that will not be used.
     */
   public static boolean checkAccess(ModifiersAndVisibility mav, SymbolData enclosingSD, SymbolData thisSD) { 
-    return checkAccess(NULL_LITERAL, mav, "", enclosingSD, thisSD, "", false);
+    return _accessError(mav, "", enclosingSD, thisSD, "") == null;
   }
 
   /** Determines if thisSD can reference specified name defined in enclosingSD.  Empty symbol is OK. See preceding 
     * method body. 
     * @param mav ??
     */
-  public static boolean checkAccess(JExpression piece, ModifiersAndVisibility mav, String name, 
-                                    SymbolData enclosingSD, SymbolData thisSD, String dataType, boolean addError) {
+  public boolean checkAccess(JExpression piece, ModifiersAndVisibility mav, String name, 
+                             SymbolData enclosingSD, SymbolData thisSD, String dataType, boolean addError) {
 //    if (piece instanceof VariableReference) System.err.println("**** Checking access of " + piece + "\nin " + enclosingSD);
+    String error = _accessError(mav, name, enclosingSD, thisSD, dataType);
+    if (error == null) return true;
+    if (addError) _addError(error, piece);
+    return false;
+  }
+  
+  /** Does the work of checkAccess without adding an error, so that it can be shared by the static version.
+    * @return null if thisSD can reference name in enclosingSD; otherwise the message of the error to report
+    */
+  private static String _accessError(ModifiersAndVisibility mav, String name, SymbolData enclosingSD, 
+                                     SymbolData thisSD, String dataType) {
     if (thisSD.isOuterData(enclosingSD) || enclosingSD.isOuterData(thisSD) || thisSD.equals(enclosingSD)) {
-      return true;
+      return null;
     }
 
     // Check for the public modifier.
     if (Utilities.isPublic(mav)) {
       Data enclosingOuter = enclosingSD.getOuterData();
-      if (enclosingOuter == null) return true;
+      if (enclosingOuter == null) return null;
       if (enclosingOuter instanceof SymbolData) {
-        return checkAccess(piece, mav, name, enclosingSD.getOuterData().getSymbolData(), thisSD, dataType, addError); 
+        return _accessError(mav, name, enclosingSD.getOuterData().getSymbolData(), thisSD, dataType); 
       }
       throw new RuntimeException("Internal Program Error: Trying to reference " + name + 
                                  "which is a member of something other than a class from outside of that thing.  " +
@@ -609,8 +608,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     // Check for the private modifier.
     if (Utilities.isPrivate(mav)) {
       /* As long as one of the symbol datas is the outer data of the other one (at some point down the data chain), 
-       * private classes/methods/fields can be seen. Since we would have already returned, just throw the error and 
-       * return false. */
+       * private classes/methods/fields can be seen. Since we would have already returned, just return the error. */
 //      Utilities.show(thisSD + " cannot access symbol '"  + name + "' within " + enclosingSD + " from '" + thisSD 
 //                       + "' in file " + piece.getSourceInfo().getFile());
 //      if (name.equals("evalVisitor")) throw new UnexpectedException("evalVisitor BUG");
@@ -618,65 +616,55 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       String enclosingWithDots = Data.dollarSignsToDots(enclosingSD.getName());
       
       // The following is a kludge to eliminate SOME spurious results.
-      if (nameWithDots.equals(enclosingWithDots) && enclosingSD.isPrimitiveType()) return true;
+      if (nameWithDots.equals(enclosingWithDots) && enclosingSD.isPrimitiveType()) return null;
           
       String siteName = Data.dollarSignsToDots(thisSD.getName());
-      if (addError) { 
-        _addError("The " + dataType + " " + nameWithDots + " in " + enclosingWithDots +
-                  " is private and cannot be accessed from " + siteName, 
-                  piece);
-//        throw new UnexpectedException("Generate Debugging Trace for access failure to " + nameWithDots + " in " 
-//                                        + enclosingWithDots + " from " + siteName);  // DEBUG
-      }
 //      Utilities.show("enclosingSD = " + enclosingSD + " thisSD = " + thisSD);
-      return false;
+      return "The " + dataType + " " + nameWithDots + " in " + enclosingWithDots +
+        " is private and cannot be accessed from " + siteName;
     }
     
     // Check for the protected modifier.
     if (Utilities.isProtected(mav)) {
       // Compare the package names. Remember that inner classes have '$' in their names.  NO! TODO: Fix this !!!
       if (_areInSamePackage(enclosingSD, thisSD)) {
-        return true;
+        return null;
       }
       // Check if thisSD is a subclass of enclosingSD.
       // If they are in the same file, they are in the same package, so this does not need to check outer classes, 
       // only super classes and interfaces.
       if (thisSD.isSubClassOf(enclosingSD)) {
-        return true;
+        return null;
       }
       else {
-        if (addError) _addError("The " + dataType + " " + Data.dollarSignsToDots(name) + 
-                                " is protected and cannot be accessed from " + Data.dollarSignsToDots(thisSD.getName()), 
-                                piece);
-        return false;
+        return "The " + dataType + " " + Data.dollarSignsToDots(name) + 
+          " is protected and cannot be accessed from " + Data.dollarSignsToDots(thisSD.getName());
       }
     }
 
     // Check the default "package modifier"
-    if (_areInSamePackage(enclosingSD, thisSD)) return true;
+    if (_areInSamePackage(enclosingSD, thisSD)) return null;
     else {
-      if (addError) _addError("The " + dataType + " " + Data.dollarSignsToDots(name) + 
-                              " is package protected because there is no access specifier and cannot be accessed from " 
-                                + Data.dollarSignsToDots(thisSD.getName()), 
-                              piece); 
-      return false;
+      return "The " + dataType + " " + Data.dollarSignsToDots(name) + 
+        " is package protected because there is no access specifier and cannot be accessed from " 
+        + Data.dollarSignsToDots(thisSD.getName());
     }
   }
   
   /** Return the field or variable with the name text inside of data.  (Referenced from thisSD) */
-  public static VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece) {
+  public VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece) {
     if (data == null) return null;
     return getFieldOrVariable(text, data, thisSD, piece, data.getVars(), true, true);
   }
   
-  public static VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
-                                                LinkedList<VariableData> vars) {
+  public VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
+                                         LinkedList<VariableData> vars) {
     return getFieldOrVariable(text, data, thisSD, piece, vars, false, true);
   }  
   
   
-  public static VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
-                                                LinkedList<VariableData> vars, boolean shouldRecur) {
+  public VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
+                                         LinkedList<VariableData> vars, boolean shouldRecur) {
     return getFieldOrVariable(text, data, thisSD, piece, vars, shouldRecur, true);
   }
   
@@ -685,35 +673,37 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     * (outer class, superclass, interfaces) recursively.  This could mean a lot of recursion...
     * Returns null if the field or variable is not found.
     */
-  public static VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
-                                                LinkedList<VariableData> vars, boolean shouldRecur, boolean addError) {
-    VariableData vd = null;
-    if (data == null) return null;
-    
-    Iterator<VariableData> iter = vars.iterator();
-    while (iter.hasNext()) {
-      vd = iter.next();
-      if (vd != null) {
-        if (vd.getName().equals(text)) {
-          if (vd.getEnclosingData() instanceof MethodData && addError) {  // was BodyData
-            /* If vd is defined in a method and thisSD is a local class or anonymous inner class defined in data, then 
-             * vd must be final to be used.  Note: the enclosingData of formal parameters is the enclosing class not
-             * the corresponding method.
-             */
-            if (thisSD.isOuterData(vd.getEnclosingData())) {
-              if (! vd.isFinal() && addError) {
-                _addError("Local variable " + vd.getName() 
-                            + " is accessed from within an inner class; must be declared final", piece);
-              }
-            }
+  public VariableData getFieldOrVariable(String text, Data data, SymbolData thisSD, JExpression piece, 
+                                         LinkedList<VariableData> vars, boolean shouldRecur, boolean addError) {
+    VariableData vd = getFieldOrVariable(text, data, vars, shouldRecur);
+    if (vd != null && addError) {
+      if (vd.getEnclosingData() instanceof MethodData) {  // was BodyData
+        /* If vd is defined in a method and thisSD is a local class or anonymous inner class defined in data, then 
+         * vd must be final to be used.  Note: the enclosingData of formal parameters is the enclosing class not
+         * the corresponding method.
+         */
+        if (thisSD.isOuterData(vd.getEnclosingData())) {
+          if (! vd.isFinal()) {
+            _addError("Local variable " + vd.getName() 
+                        + " is accessed from within an inner class; must be declared final", piece);
           }
-          if (addError) {
-            checkAccess(piece, vd.getMav(), vd.getName(), vd.getEnclosingData().getSymbolData(), thisSD, 
-                        "field or variable");
-          }
-          return vd;
         }
       }
+      checkAccess(piece, vd.getMav(), vd.getName(), vd.getEnclosingData().getSymbolData(), thisSD, 
+                  "field or variable");
+    }
+    return vd;
+  }
+  
+  /** Finds the field or variable called text in vars or, if shouldRecur, in the enclosing data of data, without 
+    * checking that it is accessible.  Returns null if the field or variable is not found.
+    */
+  public static VariableData getFieldOrVariable(String text, Data data, LinkedList<VariableData> vars, 
+                                                boolean shouldRecur) {
+    if (data == null) return null;
+    
+    for (VariableData vd: vars) {
+      if (vd != null && vd.getName().equals(text)) return vd;
     }
     
     if (shouldRecur) {
@@ -724,7 +714,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       while (enclosingData.hasNext()) {
         Data outerData = enclosingData.next();
         if (outerData == null) return null;
-        vd = getFieldOrVariable(text, outerData, thisSD, piece, outerData.getVars(), true, addError);
+        VariableData vd = getFieldOrVariable(text, outerData, outerData.getVars(), true);
         if (vd != null) return vd;
       }
     }
@@ -753,7 +743,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     * @param message  Error message
     * @param that  The JExpression corresponding to where the error is.
     */
-  protected static void _addError(String message, JExpressionIF that) {
+  protected void _addError(String message, JExpressionIF that) {
     _errorAdded = true;
     Pair<String, JExpressionIF> p = new Pair<String, JExpressionIF>(message, that);
     if (! errors.contains(p)) errors.addLast(p);
@@ -855,7 +845,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
 
     /** Check if the two given SymbolDatas corresponding to types have a common super type.  If so, return it, 
       * else return null. NOTE: null means ill-typed! */
-  protected static SymbolData getCommonSuperType(SymbolData s1, SymbolData s2) {
+  protected SymbolData getCommonSuperType(SymbolData s1, SymbolData s2) {
     if (s1 == null || s2 == null) return null;
     if (s1 == SymbolData.NOT_FOUND || s2 == SymbolData.NOT_FOUND) return SymbolData.NOT_FOUND;
 
@@ -874,8 +864,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
 //    System.err.println("[gcst] Working on Superclass relationships. s1.getSuperClass() = " + s1.getSuperClass());
 //    System.err.println("Types before boxing are " + s1 + ", " + s2);
 //    System.err.println("Corresponding boxed types are " + s1.box() + ", " + s2.box());
-    if (s1.isPrimitiveType()) s1 = s1.box();
-    if (s2.isPrimitiveType()) s2 = s2.box();
+    if (s1.isPrimitiveType()) s1 = s1.box(symbolTable);
+    if (s2.isPrimitiveType()) s2 = s2.box(symbolTable);
 //    System.err.println("Boxed Types are: " + s1 + ", " + s2);
 //    System.err.println("Boxed Types from symbolTable are: " + symbolTable.get("java.lang.Byte") + ", " + 
 //                       symbolTable.get("java.lang.Boolean"));
@@ -895,8 +885,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       }
     }
     // s1 and s2 are instance types but have no supertype other than Object
-//    System.err.println("CommonSuperType is " + LanguageLevelConverter.OBJECT);
-    return LanguageLevelConverter.OBJECT;
+//    System.err.println("CommonSuperType is " + symbolTable.get("java.lang.Object"));
+    return symbolTable.get("java.lang.Object");
   }
   
   /** Return whether the value on the right can be assigned to the value on the left. */
@@ -1167,8 +1157,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     }
     
     ClassBodyTypeChecker cbtc = 
-      new ClassBodyTypeChecker(sd, _file, _package, _importedFiles, _importedPackages, new LinkedList<VariableData>(), 
-                               new LinkedList<Pair<SymbolData, JExpression>>());
+      new ClassBodyTypeChecker(_llc, sd, _file, _package, _importedFiles, _importedPackages,
+                               new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
     
 
     final TypeData bodyRes = that.getBody().visit(cbtc);
@@ -1247,7 +1237,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
 
     }
     InterfaceBodyTypeChecker ibtc = 
-      new InterfaceBodyTypeChecker(sd, _file, _package, _importedFiles, _importedPackages, 
+      new InterfaceBodyTypeChecker(_llc, sd, _file, _package, _importedFiles, _importedPackages, 
                                    new LinkedList<VariableData>(), new LinkedList<Pair<SymbolData, JExpression>>());
     final TypeData bodyRes = that.getBody().visit(ibtc);
     return forInterfaceDefOnly(that, mavRes, nameRes, typeParamRes, interfacesRes, bodyRes);
@@ -1354,6 +1344,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
   
    /** Test the methods defined in the above class. */
   public static class TypeCheckerTest extends TestCase {
+    private final LanguageLevelConverter _llc = new LanguageLevelConverter();
+    private final LinkedList<Pair<String, JExpressionIF>> errors = _llc.errors;
+    private final Symboltable symbolTable = _llc.symbolTable;
     
     private TypeChecker _btc;
     
@@ -1370,14 +1363,14 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
     public TypeCheckerTest(String name) { super(name); }
     
     public void setUp() {
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
-      LanguageLevelConverter.symbolTable.clear();
-      LanguageLevelConverter.loadSymbolTable();
+      errors.clear();
+      symbolTable.clear();
+      _llc.loadSymbolTable();
 
-      _btc = new TypeChecker(new File(""), "", new LinkedList<String>(), new LinkedList<String>());
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _btc = new TypeChecker(_llc, new File(""), "", new LinkedList<String>(), new LinkedList<String>());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       _btc._importedPackages.addFirst("java.lang");
-      _errorAdded = false;
+      _btc._errorAdded = false;
       
       // define assorted class symbol entries (but they are not inserted in symbolTable)
       _sd1 = new SymbolData("i.like.monkey");
@@ -1421,7 +1414,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       assertEquals("Should be one error", 1, errors.size());
       assertEquals("ERror message should be correct ", "Class or variable koala not found.", errors.get(0).getFirst());
       
-      errors = new LinkedList<Pair<String, JExpressionIF>>();
+      errors.clear();
       
       sd.setPackage("notRightPackage");
       _btc.getSymbolData("java.lang.Object", NULL_LITERAL, true, true);
@@ -1555,16 +1548,16 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
         new MethodData("Bart", _publicMav, new TypeParameter[0], _sd1, vds, new String[0], _sd1, null);
       vds[0].setEnclosingData(md);
       vds[1].setEnclosingData(md);
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       MethodData md2 = 
         new MethodData("Homer", _publicMav, new TypeParameter[0], _sd2, vds2, new String[0], _sd2, null);
       vds2[0].setEnclosingData(md2);
-      _sd2.addMethod(md2);
+      _sd2.addMethod(md2, errors);
       _sd1.setSuperClass(_sd2);                               
       MethodData constructor = 
         new MethodData("monkey", _publicMav, new TypeParameter[0], _sd1, vds3, new String[0], _sd1, null);
       vds3[0].setEnclosingData(constructor);
-      _sd1.addMethod(constructor);
+      _sd1.addMethod(constructor, errors);
       assertEquals("Should return md.", md, _btc._lookupMethodHelper("Bart", _sd1, sds, null, false, _sd3));
       assertEquals("Should return md2.", md2, _btc._lookupMethodHelper("Homer", _sd1, sds2, null, false, _sd3));
       assertEquals("Should return constructor.", constructor, _btc._lookupMethodHelper("monkey", _sd1, sds3, null, true,
@@ -1582,7 +1575,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       MethodData md = new MethodData("Bart", _publicMav, new TypeParameter[0], _sd1, vds, new String[0], _sd1, null);
       vds[0].setEnclosingData(md);
       vds[1].setEnclosingData(md);
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       
       assertEquals("Should return md.", md, _btc._lookupMethod("Bart", _sd1, sds, null, "Error message:", true, _sd3));
       assertEquals("Should be no errors.", 0, errors.size());
@@ -1683,7 +1676,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       _sd6.addVar(vd0);
       _sd3.addVar(vd1);
       _sd2.addVar(vd2);
-      _sd3.addMethod(md);
+      _sd3.addMethod(md, errors);
       assertEquals("Should find field0", vd0, _btc.getFieldOrVariable("field0", _sd6, _sd6, NULL_LITERAL));
       assertEquals("Should find field1", vd1, _btc.getFieldOrVariable("field1", _sd6, _sd6, NULL_LITERAL));
       assertEquals("Should find field2", vd2, _btc.getFieldOrVariable("field2", _sd6, _sd6, NULL_LITERAL));
@@ -1703,15 +1696,15 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       NullLiteral nl2 = NULL_LITERAL;
       
       e.addLast(new Pair<String,JExpressionIF>("Boy, is this an error!", nl));
-      _addError("Boy, is this an error!", nl);
+      _btc._addError("Boy, is this an error!", nl);
      
-      assertTrue("An error should have been added.", _errorAdded);
+      assertTrue("An error should have been added.", _btc._errorAdded);
       assertEquals("The errors list should be correct.", e, errors);
       
       e.addLast(new Pair<String,JExpressionIF>("Error again!", nl2));
-      _addError("Error again!", nl2);
+      _btc._addError("Error again!", nl2);
      
-      assertTrue("Another error should have been aded.", _errorAdded);
+      assertTrue("Another error should have been aded.", _btc._errorAdded);
       assertEquals("The new errors list should be correct.", e, errors);
     }
     
@@ -1735,7 +1728,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
                                       null);
       vds[0].setEnclosingData(md1);
       vds[1].setEnclosingData(md1);
-      _sd1.addMethod(md1);
+      _sd1.addMethod(md1, errors);
       _sd1.setMav(_abstractMav);
       _sd1.setSuperClass(_sd6);
       _sd2.setSuperClass(_sd1);
@@ -1754,9 +1747,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
                                         new String[0],
                                         _sd3,
                                         null);
-      _sd3.addMethod(md2);
-      _sd3.addMethod(md3);
-      _sd3.addMethod(md123);
+      _sd3.addMethod(md2, errors);
+      _sd3.addMethod(md3, errors);
+      _sd3.addMethod(md123, errors);
       _sd3.setMav(_abstractMav);
       _sd3.setSuperClass(_sd2);
       MethodData md4 = new MethodData("Bart", _abstractMav, new TypeParameter[0], _sd1, 
@@ -1773,9 +1766,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
                                          vds, new String[0],
                                          _sd4,
                                          null);
-      _sd4.addMethod(md4);
-      _sd4.addMethod(md5);
-      _sd4.addMethod(md1234);
+      _sd4.addMethod(md4, errors);
+      _sd4.addMethod(md5, errors);
+      _sd4.addMethod(md1234, errors);
       _sd4.setMav(_abstractMav);
       _sd4.setSuperClass(_sd3);
       MethodData md6 = new MethodData("Bart", _abstractMav, new TypeParameter[0], _sd1, 
@@ -1793,9 +1786,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
                                       new String[0], 
                                       _sd5,
                                       null);
-      _sd5.addMethod(md6);
-      _sd5.addMethod(md7);
-      _sd5.addMethod(md8);
+      _sd5.addMethod(md6, errors);
+      _sd5.addMethod(md7, errors);
+      _sd5.addMethod(md8, errors);
       _sd5.setSuperClass(_sd4);
       LinkedList<MethodData> mds = _sd5.getMethods();
       // TODO: Check all enclosingDatas (interfaces too)
@@ -1814,7 +1807,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       //check that an interface's abstract methods are recognized.
       _sd3.setInterface(true);
       _sd3.setMethods(new LinkedList<MethodData>());
-      _sd3.addMethod(md7);
+      _sd3.addMethod(md7, errors);
       _sd2.addEnclosingData(_sd3);
       SymbolData sd = symbolTable.get("java.lang.Object");
 //      sd.setIsContinuation(false);
@@ -1872,7 +1865,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       assertTrue("Should be assignable.", _btc._isAssignableFrom(symbolTable.get("java.lang.Object"), SymbolData.INT_TYPE));
       
       LanguageLevelVisitor llv = 
-        new LanguageLevelVisitor(_btc._file, 
+        new LanguageLevelVisitor(_llc, _btc._file, 
                                  _btc._package,
                                  null, // enclosingClassName for top level traversal
                                  _btc._importedFiles, 
@@ -1881,8 +1874,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
                                  new Hashtable<String, Triple<SourceInfo, LanguageLevelVisitor, SymbolData>>(),
                                  new LinkedList<Command>());
       
-//      LanguageLevelConverter.symbolTable = llv.symbolTable = _btc.symbolTable;
-      LanguageLevelConverter._newSDs.clear();
+//      symbolTable = llv.symbolTable = _btc.symbolTable;
+      _llc._newSDs.clear();
       
       SourceInfo si = NONE;
       
@@ -1903,7 +1896,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       assertTrue("Should be able to assign an array to an interface of java.io.Serializable", 
                  _btc._isAssignableFrom(symbolTable.get("java.io.Serializable"), integerArray));
 
-      LanguageLevelConverter.OPT = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
+      _llc._options = new Options(JavaVersion.JAVA_8, EmptyIterable.<File>make());
       assertFalse("Should not be assignable.", 
                   _btc._isAssignableFrom(symbolTable.get("java.lang.Double"), SymbolData.INT_TYPE));
       assertFalse("Should not be assignable.", 
@@ -2129,13 +2122,13 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       MethodData objMd = 
         new MethodData("java.lang.Object", _publicMav, new TypeParameter[0], sd2, new VariableData[0], new String[0], 
                        sd2, cd);
-      sd2.addMethod(objMd);
+      sd2.addMethod(objMd, errors);
       
       sd.setSuperClass(sd2);
       symbolTable.put("Jimes", sd);
       MethodData md = new MethodData("Jimes", _publicMav, new TypeParameter[0], sd, new VariableData[0], new String[0], 
                                      sd, cd);
-      sd.addMethod(md);
+      sd.addMethod(md, errors);
       
       cd5.visit(_btc);
       assertEquals("There should still be four errors", 4, errors.size());
@@ -2240,7 +2233,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       symbolTable.remove("Hspia");
       symbolTable.put("Hspia", sd);
       
-      SymbolData testCase = defineTestCaseClass();
+      SymbolData testCase = _btc.defineTestCaseClass();
       sd.setSuperClass(testCase);
       
       cd7.visit(_btc);
@@ -2468,9 +2461,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
         new MethodData("myMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE, new VariableData[] {vd2},
                        new String[0], null, NULL_LITERAL);
       vd2.setEnclosingData(md);
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       
-      b.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
 
       assertEquals("There should be no errors", 0, errors.size());
@@ -2489,9 +2482,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       md = new MethodData("myMethod", _publicMav, new TypeParameter[0], SymbolData.INT_TYPE, new VariableData[] {vd1}, 
                           new String[0], null, NULL_LITERAL);
       vd1.setEnclosingData(md);
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       
-      b.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
 
 
@@ -2503,14 +2496,14 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       _sd1.addVar(new VariableData("t", _publicMav, SymbolData.BOOLEAN_TYPE, false, _sd1));
       _sd1.addMethod(new MethodData("myMethod", _publicMav, new TypeParameter[0], 
                                     SymbolData.BOOLEAN_TYPE, new VariableData[] {vd2}, new String[0], null, 
-                                    NULL_LITERAL));
+                                    NULL_LITERAL), errors);
       
       Expression e2 = new SimpleAssignmentExpression(NONE, new SimpleNameReference(NONE, new Word(NONE, "t")), e);
                   
       BodyItemI[] bii2 = new BodyItemI[] {new ExpressionStatement(NONE, e2)};
       BracedBody b2 = new BracedBody(NONE, bii2);
 
-      b2.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b2.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                         _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
       
       assertEquals("There should be no errors", 0, errors.size());
@@ -2537,9 +2530,9 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       md = new MethodData("monkey", _publicMav, new TypeParameter[0], _sd1, new VariableData[]{vd2}, new String[0], 
                           _sd1, NULL_LITERAL);
       vd2.setEnclosingData(md);
-      _sd1.addMethod(md);
+      _sd1.addMethod(md, errors);
       
-      b.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
       
       assertEquals("There should be no errors", 0, errors.size());
@@ -2553,7 +2546,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       
       
       _sd1.addVar(vd2);
-      se.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      se.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                         _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
 //      System.err.println("*******The errant error message is: \n" + errors.get(0).getFirst());
       assertEquals("There should be no errors", 0, errors.size());
@@ -2575,8 +2568,8 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       vd2Prim.setEnclosingData(md1);
       
       _sd1.setMethods(new LinkedList<MethodData>());
-      _sd1.addMethod(md1);
-      _sd1.addMethod(md2);
+      _sd1.addMethod(md1, errors);
+      _sd1.addMethod(md2, errors);
       _sd1.setVars(new LinkedList<VariableData>());
       _sd1.addVar(vd1Prim);
       _sd1.addVar(vd2Obj);
@@ -2589,7 +2582,7 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       bii = new BodyItemI[] {new ExpressionStatement(NONE, e)};
       b = new BracedBody(NONE, bii);
       
-      b.visit(new ClassBodyTypeChecker(_sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b.visit(new ClassBodyTypeChecker(_llc, _sd1, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
       
       assertEquals("There should be one error", 1, errors.size());
@@ -2604,19 +2597,19 @@ public class TypeChecker extends JExpressionIFDepthFirstVisitor<TypeData> implem
       subSd.setIsContinuation(false);
       
       _sd1.setMethods(new LinkedList<MethodData>());
-      _sd1.addMethod(md1);      
+      _sd1.addMethod(md1, errors);      
       MethodData md3 = new MethodData("myMethod2", _publicMav, new TypeParameter[0], SymbolData.BOOLEAN_TYPE, 
                                       new VariableData[] {vd1Prim, vd2Prim}, new String[0], _sd1, 
                                       NULL_LITERAL);
-      b.visit(new ClassBodyTypeChecker(subSd, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      b.visit(new ClassBodyTypeChecker(_llc, subSd, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
       assertEquals("There should still be one error", 1, errors.size());  // Generated a duplicate error
       
       // test that if a sd1 has something that's ambiguous, so the superclass is ambiguous, the error is only thrown 
       // once when calling the method in the subclass.
       subSd.setMethods(new LinkedList<MethodData>());
-      _sd1.addMethod(md2);
-      b.visit(new ClassBodyTypeChecker(subSd, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
+      _sd1.addMethod(md2, errors);
+      b.visit(new ClassBodyTypeChecker(_llc, subSd, _btc._file, "", new LinkedList<String>(), new LinkedList<String>(), 
                                        _sd1.getVars(), new LinkedList<Pair<SymbolData, JExpression>>()));
       assertEquals("There should still be one error", 1, errors.size());
       assertEquals("The error message should be correct", 
@@ -38,16 +38,26 @@ import java.io.*;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
+import java.net.URI;
+
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Iterator;
+import java.util.Set;
 
 // Uses JDK 1.7.0 tools classes
 import javax.tools.JavaFileObject;
 import javax.tools.JavaCompiler;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
+import javax.tools.DiagnosticListener;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
@@ -65,7 +75,20 @@ import static edu.rice.cs.plt.debug.DebugUtil.error;
  * **TODO** Rename this class as Javac170PlusCompiler.java
  *  @version $Id$
  */
-public class Javac170Compiler extends JavacCompiler { // Javac170FilteringCompiler {
+public class Javac170Compiler extends JavacCompiler implements MemoryCompilerInterface { // Javac170FilteringCompiler {
+  
+  /** The compiler, created on first use. */
+  private JavaCompiler _compiler = null;
+  
+  /** The file manager of the previous compilation, kept open so that the archives on the class path, once opened and
+    * indexed, are reused by the next compilation; null if there is none. */
+  private StandardJavaFileManager _fileManager = null;
+  
+  /** The entries of the paths of the previous compilation, with the sizes and modification times of archives. */
+  private String _archives = null;
+  
+  /** Receives the diagnostics of the current compilation; the file manager reports to it as well. */
+  private DiagnosticCollector<JavaFileObject> _diagnostics = null;
   
   public Javac170Compiler(JavaVersion.FullVersion version, String location, List<? extends File> defaultBootClassPath) {
     super(version, location, defaultBootClassPath);
@@ -107,9 +130,27 @@ public class Javac170Compiler extends JavacCompiler { // Javac170FilteringCompil
     *  @param showWarnings  Whether compiler warnings should be shown or ignored.
     *  @return Errors that occurred. If no errors, should be zero length (not null).
     */
-  public List<? extends DJError> compile(List<? extends File> files, List<? extends File> classPath, 
+  public synchronized List<? extends DJError> compile(List<? extends File> files, List<? extends File> classPath, 
                                                List<? extends File> sourcePath, File destination, 
                                                List<? extends File> bootClassPath, String sourceVersion, boolean showWarnings) {
+    return _compile(files, null, classPath, sourcePath, destination, bootClassPath, sourceVersion, showWarnings, null);
+  }
+  
+  /** Compile the given sources, reading their text from memory.  See {@link MemoryCompilerInterface}. */
+  public synchronized List<? extends DJError> compile(Map<File, String> sources, List<? extends File> classPath, 
+                                                      List<? extends File> sourcePath, File destination, 
+                                                      List<? extends File> bootClassPath, String sourceVersion, 
+                                                      boolean showWarnings, Map<String, byte[]> classes) {
+    return _compile(new ArrayList<File>(sources.keySet()), sources, classPath, sourcePath, destination, bootClassPath,
+                    sourceVersion, showWarnings, classes);
+  }
+  
+  /** Compile the given files, with their text taken from texts if it is not null, writing the class files produced
+    * to classes if it is not null. */
+  private List<? extends DJError> _compile(List<? extends File> files, Map<File, String> texts, 
+                                           List<? extends File> classPath, List<? extends File> sourcePath, 
+                                           File destination, List<? extends File> bootClassPath, 
+                                           String sourceVersion, boolean showWarnings, Map<String, byte[]> classes) {
     debug.logStart("compile()");
     debug.logValues(new String[]{ "this", "files", "classPath", "sourcePath", "destination", "bootClassPath", 
       "sourceVersion", "showWarnings" },
@@ -122,9 +163,8 @@ public class Javac170Compiler extends JavacCompiler { // Javac170FilteringCompil
     // We create an instance of that class directly, bypassing ToolProvider, because ToolProvider returns null
     // if DrJava is started with just the JRE, instead of with the JDK, even if tools.jar is later made available
     // to the class loader.
-    JavaCompiler compiler = null;
     try {
-      compiler = (JavaCompiler)(Class.forName("com.sun.tools.javac.api.JavacTool").newInstance());
+      if (_compiler == null) _compiler = (JavaCompiler)(Class.forName("com.sun.tools.javac.api.JavacTool").newInstance());
     }
     catch(ClassNotFoundException e) {
       errors.addFirst(new DJError("Compile exception: " + e, false));
@@ -142,14 +182,22 @@ public class Javac170Compiler extends JavacCompiler { // Javac170FilteringCompil
       return errors;
     }
     
-    /** Default FileManager provided by Context class */
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
-    StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);    
-    Iterable<? extends JavaFileObject> fileObjects = fileManager.getJavaFileObjectsFromFiles(files);
+    _diagnostics = diagnostics;
     
     try {
+      StandardJavaFileManager fileManager = _getFileManager(classPath, bootClassPath);
+      Iterable<? extends JavaFileObject> fileObjects;
+      JavaFileManager taskManager = fileManager;
+      if (texts == null) { fileObjects = fileManager.getJavaFileObjectsFromFiles(files); }
+      else {
+        ArrayList<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+        for (File f : files) { sources.add(new SourceText(f, texts.get(f))); }
+        fileObjects = sources;
+        taskManager = new MemoryFileManager(fileManager, classes);
+      }
 //      System.err.println("Calling '" + compiler + "' with options " + options);
-      compiler.getTask(null, fileManager, diagnostics, options, null, fileObjects).call();
+      _compiler.getTask(null, taskManager, diagnostics, options, null, fileObjects).call();
       for (Diagnostic<? extends JavaFileObject> d: diagnostics.getDiagnostics()) {
         Diagnostic.Kind dt = d.getKind();
         boolean isWarning = false;  // init required by javac
@@ -177,17 +225,149 @@ public class Javac170Compiler extends JavacCompiler { // Javac170FilteringCompil
           errors.add(new DJError(d.getMessage(null), isWarning));
         }
       }
-      fileManager.close();
+      fileManager.flush();
     }
     catch(Throwable t) {  // compiler threw an exception/error (typically out of memory error)
       errors.addFirst(new DJError("Compile exception: " + t, false));
       error.log(t);
+      _closeFileManager();
     }
     
     debug.logEnd("compile()");
     return errors;
   }
   
+  /** Returns the file manager of the previous compilation if the given paths and the archives on them are unchanged,
+    * otherwise a new one.  The contents of directories need no such check, since the file manager does not cache them.
+    * @param classPath the class path of the compilation
+    * @param bootClassPath the boot class path of the compilation; the default one if null
+    * @return a file manager for the compilation
+    */
+  private StandardJavaFileManager _getFileManager(List<? extends File> classPath, List<? extends File> bootClassPath) {
+    if (bootClassPath == null) { bootClassPath = _defaultBootClassPath; }
+    StringBuilder archives = new StringBuilder();
+    for (List<? extends File> path : java.util.Arrays.asList(classPath, bootClassPath)) {
+      if (path == null) continue;
+      for (File f : path) {
+        archives.append(f.getPath());
+        if (f.isFile()) archives.append(':').append(f.length()).append(':').append(f.lastModified());
+        archives.append('\n');
+      }
+    }
+    
+    if (_fileManager == null || ! archives.toString().equals(_archives)) {
+      _closeFileManager();
+      DiagnosticListener<JavaFileObject> listener = new DiagnosticListener<JavaFileObject>() {
+        public void report(Diagnostic<? extends JavaFileObject> d) { _diagnostics.report(d); }
+      };
+      _fileManager = _compiler.getStandardFileManager(listener, null, null);
+      _archives = archives.toString();
+    }
+    return _fileManager;
+  }
+  
+  public synchronized void closeFiles() { _closeFileManager(); }
+  
+  private void _closeFileManager() {
+    if (_fileManager != null) {
+      try { _fileManager.close(); }
+      catch (IOException e) { error.log(e); }
+      _fileManager = null;
+      _archives = null;
+    }
+  }
+  
+  /** A source whose text is given rather than read from its file. */
+  private static class SourceText extends SimpleJavaFileObject {
+    private final File _file;
+    private final String _text;
+    public SourceText(File file, String text) {
+      super(file.toURI(), Kind.SOURCE);
+      _file = file;
+      _text = text;
+    }
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) { return _text; }
+    public long getLastModified() { return _file.lastModified(); }
+  }
+  
+  /** A class file kept in memory. */
+  private static class ClassBytes extends SimpleJavaFileObject {
+    private final String _className;
+    private final Map<String, byte[]> _classes;
+    private final long _lastModified;
+    public ClassBytes(String className, Map<String, byte[]> classes) {
+      super(URI.create("memory:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+      _className = className;
+      _classes = classes;
+      _lastModified = System.currentTimeMillis();
+    }
+    public InputStream openInputStream() throws IOException {
+      byte[] bytes = _classes.get(_className);
+      if (bytes == null) { throw new FileNotFoundException(_className); }
+      return new ByteArrayInputStream(bytes);
+    }
+    public OutputStream openOutputStream() {
+      return new ByteArrayOutputStream() {
+        public void close() throws IOException {
+          super.close();
+          _classes.put(_className, toByteArray());
+        }
+      };
+    }
+    public long getLastModified() { return _lastModified; }
+  }
+  
+  /** Writes the class files produced for SourceText sources next to their files, or to a map if it is not null.  The
+    * classes in the map precede the ones on the class path. */
+  private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    private final Map<String, byte[]> _classes;
+    public MemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+      super(fileManager);
+      _classes = classes;
+    }
+    
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, 
+                                               FileObject sibling) throws IOException {
+      if (_classes != null && location == StandardLocation.CLASS_OUTPUT && kind == JavaFileObject.Kind.CLASS) {
+        return new ClassBytes(className, _classes);
+      }
+      if (sibling instanceof SourceText) {
+        // the standard file manager only knows where its own file objects are
+        sibling = fileManager.getJavaFileObjects(((SourceText) sibling)._file).iterator().next();
+      }
+      return super.getJavaFileForOutput(location, className, kind, sibling);
+    }
+    
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, 
+                                         boolean recurse) throws IOException {
+      Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
+      if (_classes == null || location != StandardLocation.CLASS_PATH || ! kinds.contains(JavaFileObject.Kind.CLASS)) {
+        return listed;
+      }
+      // The compiler uses the first of several class files for the same class
+      ArrayList<JavaFileObject> result = new ArrayList<JavaFileObject>();
+      for (String name : _classes.keySet()) {
+        int dot = name.lastIndexOf('.');
+        String pack = (dot < 0) ? "" : name.substring(0, dot);
+        if (pack.equals(packageName) || (recurse && pack.startsWith(packageName + "."))) {
+          result.add(new ClassBytes(name, _classes));
+        }
+      }
+      for (JavaFileObject f : listed) { result.add(f); }
+      return result;
+    }
+    
+    public boolean isSameFile(FileObject a, FileObject b) {
+      if (a instanceof SimpleJavaFileObject || b instanceof SimpleJavaFileObject) { return a.toUri().equals(b.toUri()); }
+      return super.isSameFile(a, b);
+    }
+    
+    public String inferBinaryName(Location location, JavaFileObject file) {
+      if (file instanceof ClassBytes) { return ((ClassBytes) file)._className; }
+      return super.inferBinaryName(location, file);
+    }
+  }
+  
   private Iterable<String> _createOptions(List<? extends File> classPath, List<? extends File> sourcePath, File destination, 
                                           List<? extends File> bootClassPath, String sourceVersion, boolean showWarnings) {    
     if (bootClassPath == null) { bootClassPath = _defaultBootClassPath; }
@@ -0,0 +1,108 @@
+/*BEGIN_COPYRIGHT_BLOCK*
+
+PLT Utilities BSD License
+
+Copyright (c) 2007-2010 JavaPLT group at Rice University
+All rights reserved.
+
+Developed by:   Java Programming Languages Team
+                Rice University
+                http://www.cs.rice.edu/~javaplt/
+
+Redistribution and use in source and binary forms, with or without modification, are permitted 
+provided that the following conditions are met:
+
+    - Redistributions of source code must retain the above copyright notice, this list of conditions 
+      and the following disclaimer.
+    - Redistributions in binary form must reproduce the above copyright notice, this list of 
+      conditions and the following disclaimer in the documentation and/or other materials provided 
+      with the distribution.
+    - Neither the name of the JavaPLT group, Rice University, nor the names of the library's 
+      contributors may be used to endorse or promote products derived from this software without 
+      specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR 
+IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND 
+FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS AND 
+CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, 
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER 
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT 
+OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.plt.debug;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A LogSink that keeps the most recent messages in memory, overwriting the oldest ones when it is full.  Recording
+ * a message takes no lock: each message claims the next slot with an atomic increment, so that concurrent threads
+ * are never blocked by each other or by a slow destination.  This makes the sink suitable for tracing code whose
+ * timing should not be disturbed; the messages can be examined with {@link #messages} or passed on to another sink
+ * (such as an {@link AsynchronousLogSink} writing to a file) with {@link #dumpTo} after something interesting 
+ * happens.</p>
+ * 
+ * <p>A snapshot taken while messages are being recorded may omit the messages whose slots have been claimed but
+ * not yet written.</p>
+ */
+public class RingBufferLogSink implements LogSink {
+  
+  /** A message with its sequence number, so that a snapshot can tell current slots from stale ones. */
+  private static class Entry {
+    public final long index;
+    public final Message message;
+    public Entry(long i, Message m) { index = i; message = m; }
+  }
+  
+  private final AtomicReferenceArray<Entry> _buffer;
+  private final AtomicLong _count;
+  
+  /** Create a sink that keeps the most recent {@code capacity} messages. */
+  public RingBufferLogSink(int capacity) {
+    if (capacity <= 0) { throw new IllegalArgumentException("Capacity must be positive"); }
+    _buffer = new AtomicReferenceArray<Entry>(capacity);
+    _count = new AtomicLong(0);
+  }
+  
+  /** The maximum number of messages kept. */
+  public int capacity() { return _buffer.length(); }
+  
+  /** The number of messages recorded since the sink was created, including those that have been overwritten. */
+  public long count() { return _count.get(); }
+  
+  public void log(StandardMessage m) { record(m); }
+  public void logStart(StartMessage m) { record(m); }
+  public void logEnd(EndMessage m) { record(m); }
+  public void logError(ErrorMessage m) { record(m); }
+  public void logStack(StackMessage m) { record(m); }
+  
+  private void record(Message m) {
+    long i = _count.getAndIncrement();
+    _buffer.set((int) (i % _buffer.length()), new Entry(i, m));
+  }
+  
+  /** The most recent messages, oldest first. */
+  public List<Message> messages() {
+    long end = _count.get();
+    long start = Math.max(0, end - _buffer.length());
+    List<Message> result = new ArrayList<Message>((int) (end - start));
+    for (long i = start; i < end; i++) {
+      Entry e = _buffer.get((int) (i % _buffer.length()));
+      if (e != null && e.index == i) { result.add(e.message); }
+    }
+    return result;
+  }
+  
+  /** Send the most recent messages, oldest first, to the given sink.  The messages stay in this sink. */
+  public void dumpTo(LogSink sink) {
+    for (Message m : messages()) { m.send(sink); }
+  }
+  
+  public void close() {}
+  
+}
@@ -35,22 +35,17 @@ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package edu.rice.cs.plt.reflect;
 
 import java.net.URL;
-import java.net.URLClassLoader;
-import java.net.MalformedURLException;
 import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.LinkedList;
 
 import edu.rice.cs.plt.io.IOUtil;
 import edu.rice.cs.plt.iter.IterUtil;
 import edu.rice.cs.util.Log;
 
-import static edu.rice.cs.plt.debug.DebugUtil.error;
-import static edu.rice.cs.plt.debug.DebugUtil.debug;
-
 /** A class loader that mimics the standard application system loader by loading classes from
   * a file path of directories and jar files.  This class also supports a <em>dynamic</em>
   * class path: an {@code Iterable} provided as input to the constructor is held, not copied,
@@ -61,10 +56,20 @@ import static edu.rice.cs.plt.debug.DebugUtil.debug;
   * later transitively resolves the referenced classes, they may no longer exist, or may be
   * shadowed.  This is not a unique problem, however -- the standard system class loader is
   * based on an underlying file system that may also change in arbitrary ways at any time.
+  * <p>
+  * Lookups go through a {@link PathIndex} of a snapshot of the path, which maps each resource in a jar file to the
+  * positions of the jars containing it; the jars' directories are read once, when they are first indexed.  The
+  * contents of directories change as files are compiled, so a lookup checks each directory in front of the first jar
+  * containing the resource directly.  The index is rebuilt when the path changes: by default, every lookup
+  * compares the path to the snapshot, but a subclass whose path has a version number can override 
+  * {@link #pathVersion} so that only the version numbers are compared.</p>
   */
 public class PathClassLoader extends AbstractClassLoader {
   
-  private static final Log _log = new Log("PathClassLoader.txt", true);
+  private static final Log _log = new Log("PathClassLoader.txt", false);
+  
+  /** Returned by {@link #pathVersion} if the path has no version number. */
+  protected static final long UNVERSIONED = -1;
   
   /** Locate a resource in the given path.  Returns {@code null} if the resource is not found.
     * If multiple queries will be performed on the same path, a PathClassLoader instance
@@ -99,8 +104,10 @@ public class PathClassLoader extends AbstractClassLoader {
   }
 
   private final Iterable<? extends File> _path;
-  private URLClassLoader _urlLoader;
-  private Iterable<File> _urlLoaderPath;
+  /** The index of the path, or {@code null} before the first lookup. */
+  private PathIndex _index;
+  /** The path version when {@code _index} was built. */
+  private long _indexVersion;
 
   /** Create a path class loader with the default parent ({@link ClassLoader#getSystemClassLoader})
     * and the specified path.
@@ -114,7 +121,7 @@ public class PathClassLoader extends AbstractClassLoader {
   public PathClassLoader(Iterable<? extends File> path) {
     super();
     _path = path;
-    updateURLLoader();
+    _index = null;
   }
   
   /** Create a path class loader with the given parent and path */
@@ -124,20 +131,30 @@ public class PathClassLoader extends AbstractClassLoader {
   public PathClassLoader(ClassLoader parent, Iterable<? extends File> path) {
     super(parent);
     _path = path;
-    updateURLLoader();
-    _log.log("Constructing PathClassLoader with parent " + parent + " and path '" + path + "'");
+    _index = null;
   }
-
-  private void updateURLLoader() {
-    _urlLoaderPath = IterUtil.snapshot(_path);
-    List<URL> urls = new LinkedList<URL>();
-    for (File f : _urlLoaderPath) {
-      try { urls.add(f.toURI().toURL()); }
-      catch (IllegalArgumentException e) { error.log(e); }
-      catch (MalformedURLException e) { error.log(e); }
-      // just skip the path element if there's an error
+  
+  /** Get a number that changes whenever the path changes.  The default implementation returns {@link #UNVERSIONED},
+    * which means that the path must be compared element by element before each lookup.
+    * @return the version of the path, or {@link #UNVERSIONED}
+    */
+  protected long pathVersion() { return UNVERSIONED; }
+  
+  /** Get the index of the current path, rebuilding it if the path has changed.  Jars that were indexed before and
+    * have not been modified since are not read again.
+    * @return the index of the current path
+    */
+  protected synchronized PathIndex pathIndex() {
+    long version = pathVersion();
+    if (_index != null) {
+      boolean current = (version == UNVERSIONED) ? IterUtil.isEqual(_path, _index.path()) : version == _indexVersion;
+      if (current) { return _index; }
     }
-    _urlLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), EmptyClassLoader.INSTANCE);
+    // read the version before taking the snapshot, so that a concurrent change forces another rebuild
+    _index = new PathIndex(IterUtil.snapshot(_path));
+    _indexVersion = version;
+    _log.log("Indexed path '", _index.path(), "', version ", version);
+    return _index;
   }
   
 //  /** This override is defined solely to trace calls to this method; it immediately invokes the
@@ -151,7 +168,6 @@ public class PathClassLoader extends AbstractClassLoader {
   
   @Override 
   protected Class<?> findClass(String name) throws ClassNotFoundException {
-    _log.log("PathClassLoader.findClass(" + name + ") called");
     URL resource = findResource(name.replace('.', '/') + ".class");
     if (resource == null) { throw new ClassNotFoundException(); }
     else {
@@ -171,15 +187,12 @@ public class PathClassLoader extends AbstractClassLoader {
   
   @Override 
   protected URL findResource(String name) {
-    _log.log("findResource(" + name + ") called; _path is " + _path);
-    if (!IterUtil.isEqual(_path, _urlLoaderPath)) { updateURLLoader(); }
-    return _urlLoader.findResource(name);
+    List<URL> result = pathIndex().find(name, false);
+    return result.isEmpty() ? null : result.get(0);
   }
   
   @Override 
   protected Enumeration<URL> findResources(String name) throws IOException {
-    _log.log("findResources(" + name + ") called _path is " + _path);
-    if (!IterUtil.isEqual(_path, _urlLoaderPath)) { updateURLLoader(); }
-    return _urlLoader.findResources(name);
+    return Collections.enumeration(pathIndex().find(name, true));
   }
 }
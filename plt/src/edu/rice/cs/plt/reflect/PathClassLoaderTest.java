@@ -35,6 +35,18 @@ OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package edu.rice.cs.plt.reflect;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import edu.rice.cs.plt.io.IOUtil;
 
 public class PathClassLoaderTest extends ClassLoaderTestCase {
   
@@ -46,6 +58,36 @@ public class PathClassLoaderTest extends ClassLoaderTestCase {
   private static final File C_DIR = new File(ROOT, "c");
   private static final File D_DIR = new File(ROOT, "d");
   
+  private File _tempDir;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    _tempDir = IOUtil.createAndMarkTempDirectory("plt-test", "");
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    super.tearDown();
+  }
+  
+  /** Write a jar holding the given files, named relative to {@code dir}, with the given manifest Class-Path. */
+  private File makeJar(String name, String classPath, File dir, String... files) throws IOException {
+    File result = new File(_tempDir, name);
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (classPath != null) { manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath); }
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(result), manifest);
+    try {
+      for (String f : files) {
+        out.putNextEntry(new JarEntry(f));
+        out.write(IOUtil.toByteArray(new File(dir, f)));
+        out.closeEntry();
+      }
+    }
+    finally { out.close(); }
+    return result;
+  }
+  
   public void testLoadsPath() throws Exception {
     PathClassLoader l = new PathClassLoader(BASE_LOADER, INTBOX_DIR, A_DIR, B_DIR, C_DIR, D_DIR);
     assertLoadsClassAsLoader(l, "pkg.IntBox");
@@ -121,6 +163,68 @@ public class PathClassLoaderTest extends ClassLoaderTestCase {
     assertCannotGet(lC, "D");
   }
   
+  public void testLoadsJars() throws Exception {
+    File intbox = makeJar("intbox.jar", null, INTBOX_DIR, "pkg/IntBox.class");
+    File a = makeJar("a.jar", "intbox.jar", A_DIR, "pkg/A.class");
+    PathClassLoader l = new PathClassLoader(BASE_LOADER, a, B_DIR, C_DIR, D_DIR);
+    assertLoadsClassAsLoader(l, "pkg.IntBox");
+    assertLoadsClassAsLoader(l, "pkg.A");
+    assertLoadsClassAsLoader(l, "bpkg.B");
+    assertCanGet(l, "pkg.A", 1);
+    assertCanGet(l, "D", 4);
+    assertEquals("jar", l.getResource("pkg/A.class").getProtocol());
+    assertTrue("jar from Class-Path", l.getResource("pkg/IntBox.class").toString().contains(intbox.getName()));
+    assertNull(l.getResource("pkg/Missing.class"));
+  }
+  
+  public void testResourceOrder() throws Exception {
+    File first = new File(_tempDir, "first");
+    File second = new File(_tempDir, "second");
+    IOUtil.attemptMkdirs(new File(first, "r"));
+    IOUtil.attemptMkdirs(new File(second, "r"));
+    IOUtil.writeStringToFile(new File(first, "r/res.txt"), "first");
+    IOUtil.writeStringToFile(new File(second, "r/res.txt"), "second");
+    File jar = makeJar("res.jar", null, second, "r/res.txt");
+    
+    PathClassLoader l = new PathClassLoader(EmptyClassLoader.INSTANCE, jar, first, second);
+    assertEquals("jar", l.getResource("r/res.txt").getProtocol());
+    List<URL> all = Collections.list(l.getResources("r/res.txt"));
+    assertEquals(3, all.size());
+    assertEquals("jar", all.get(0).getProtocol());
+    assertEquals(new File(first, "r/res.txt").toURI().toURL(), all.get(1));
+    assertEquals(new File(second, "r/res.txt").toURI().toURL(), all.get(2));
+    
+    l = new PathClassLoader(EmptyClassLoader.INSTANCE, first, jar);
+    assertEquals(new File(first, "r/res.txt").toURI().toURL(), l.getResource("r/res.txt"));
+    assertNull("outside of the path", l.getResource("../second/r/res.txt"));
+    
+    IOUtil.writeStringToFile(new File(first, "r/new.txt"), "new");
+    assertNotNull("directories are not cached", l.getResource("r/new.txt"));
+  }
+  
+  public void testDynamicPath() throws Exception {
+    List<File> path = new ArrayList<File>();
+    path.add(INTBOX_DIR);
+    PathClassLoader l = new PathClassLoader(BASE_LOADER, path);
+    assertNull(l.getResource("pkg/A.class"));
+    path.add(A_DIR);
+    assertCanGet(l, "pkg.A", 1);
+  }
+  
+  public void testVersionedPath() throws Exception {
+    final List<File> path = new ArrayList<File>();
+    path.add(INTBOX_DIR);
+    final long[] version = { 0 };
+    PathClassLoader l = new PathClassLoader(BASE_LOADER, path) {
+      @Override protected long pathVersion() { return version[0]; }
+    };
+    assertNull(l.getResource("pkg/A.class"));
+    path.add(A_DIR);
+    assertNull("path is only compared when the version changes", l.getResource("pkg/A.class"));
+    version[0]++;
+    assertCanGet(l, "pkg.A", 1);
+  }
+  
   private void assertCanGet(ClassLoader l, String className, int value) throws Exception {
     Class<?> c = l.loadClass(className);
     Object instance = c.newInstance();
@@ -0,0 +1,283 @@
+/*BEGIN_COPYRIGHT_BLOCK*
+
+PLT Utilities BSD License
+
+Copyright (c) 2007-2010 JavaPLT group at Rice University
+All rights reserved.
+
+Developed by:   Java Programming Languages Team
+                Rice University
+                http://www.cs.rice.edu/~javaplt/
+
+Redistribution and use in source and binary forms, with or without modification, are permitted 
+provided that the following conditions are met:
+
+    - Redistributions of source code must retain the above copyright notice, this list of conditions 
+      and the following disclaimer.
+    - Redistributions in binary form must reproduce the above copyright notice, this list of 
+      conditions and the following disclaimer in the documentation and/or other materials provided 
+      with the distribution.
+    - Neither the name of the JavaPLT group, Rice University, nor the names of the library's 
+      contributors may be used to endorse or promote products derived from this software without 
+      specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR 
+IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND 
+FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS AND 
+CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, 
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER 
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT 
+OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.plt.reflect;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.MalformedURLException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import static edu.rice.cs.plt.debug.DebugUtil.error;
+
+/** An index of the resources in a snapshot of a path of directories and jar files, which maps each resource in a jar
+  * file to the positions of the jars containing it.  Jar files named by a manifest's Class-Path attribute are
+  * searched right after the jar naming them, as in a URLClassLoader, and the entries of multi-release jars are indexed
+  * by their unversioned names.  The contents of directories change as files are compiled, so they are not listed:
+  * a lookup checks each directory for the resource directly.  A jar file is read once for each modification, however
+  * many indexes include it; a jar that cannot be read is skipped.
+  */
+public class PathIndex {
+  
+  /** The listings of the jar files read so far, by absolute file.  Cleared when it grows beyond 
+    * {@link #MAX_LISTINGS}, so that jars that are no longer on any path are eventually forgotten. */
+  private static final Map<File, JarListing> LISTINGS = new HashMap<File, JarListing>();
+  private static final int MAX_LISTINGS = 1000;
+  
+  private static final int[] NO_POSITIONS = new int[0];
+  
+  private final Iterable<File> _path;
+  /** The path, with manifest Class-Path entries expanded, without duplicates. */
+  private final List<File> _entries;
+  /** The listing of each jar file in {@code _entries}, or {@code null} for a directory (or a missing file). */
+  private final List<JarListing> _listings;
+  /** Resource name -> positions in {@code _entries} of the jar files containing it, in increasing order. */
+  private final Map<String, int[]> _jarPositions;
+  /** Positions in {@code _entries} of the entries that are not jar files, in increasing order. */
+  private final int[] _dirPositions;
+  private final int _jarCount;
+  private final boolean _complete;
+  
+  /** Index the given path.  The path should not change while the index is in use: it is returned by {@link #path}.
+    * @param path  the path to index
+    */
+  public PathIndex(Iterable<File> path) {
+    _path = path;
+    _entries = new ArrayList<File>();
+    _listings = new ArrayList<JarListing>();
+    _jarPositions = new HashMap<String, int[]>();
+    LinkedList<File> toVisit = new LinkedList<File>();
+    for (File f : path) { toVisit.add(f); }
+    Set<File> seen = new HashSet<File>();
+    List<Integer> dirs = new ArrayList<Integer>();
+    int jarCount = 0;
+    boolean complete = true;
+    while (! toVisit.isEmpty()) {
+      File f = toVisit.removeFirst().getAbsoluteFile();
+      if (! seen.add(f)) { continue; }
+      JarListing listing = null;
+      if (f.isFile()) {
+        listing = _getListing(f);
+        if (listing == null) { complete = false; continue; }  // just skip the path element if there's an error
+        toVisit.addAll(0, listing.manifestPath);
+        jarCount++;
+      }
+      int position = _entries.size();
+      _entries.add(f);
+      _listings.add(listing);
+      if (listing == null) { dirs.add(position); }
+      else {
+        for (String name : listing.names) {
+          int[] positions = _jarPositions.get(name);
+          if (positions == null) { positions = new int[] { position }; }
+          else {
+            int[] more = new int[positions.length + 1];
+            System.arraycopy(positions, 0, more, 0, positions.length);
+            more[positions.length] = position;
+            positions = more;
+          }
+          _jarPositions.put(name, positions);
+        }
+      }
+    }
+    _dirPositions = new int[dirs.size()];
+    for (int i = 0; i < _dirPositions.length; i++) { _dirPositions[i] = dirs.get(i); }
+    _jarCount = jarCount;
+    _complete = complete;
+  }
+  
+  /** @return the path that was indexed */
+  public Iterable<File> path() { return _path; }
+  
+  /** @return the number of jar files that were indexed, including those named by manifests */
+  public int jarCount() { return _jarCount; }
+  
+  /** @return {@code true} iff every jar file on the path could be read */
+  public boolean isComplete() { return _complete; }
+  
+  /** @param name  the name of a resource, such as {@code "java/lang/Object.class"}
+    * @return {@code true} iff some jar or directory on the path contains the given resource
+    */
+  public boolean contains(String name) {
+    if (_isOutside(name)) { return false; }
+    if (_jarPositions.containsKey(name)) { return true; }
+    for (int d : _dirPositions) {
+      if (new File(_entries.get(d), name).exists()) { return true; }
+    }
+    return false;
+  }
+  
+  /** Find the URLs of the given resource, in path order.
+    * @param name  the name of a resource, such as {@code "java/lang/Object.class"}
+    * @param all  Whether all URLs should be found, or just the first
+    * @return the URLs of the resource; empty if it is not on the path
+    */
+  public List<URL> find(String name, boolean all) {
+    List<URL> result = new LinkedList<URL>();
+    if (_isOutside(name)) { return result; }
+    int[] jars = _jarPositions.get(name);
+    if (jars == null) { jars = NO_POSITIONS; }
+    int j = 0;
+    // merge the directories and the jars containing the resource, in path order
+    for (int d : _dirPositions) {
+      for (; j < jars.length && jars[j] < d; j++) {
+        if (_add(result, _jarURL(jars[j], name)) && ! all) { return result; }
+      }
+      File f = new File(_entries.get(d), name);
+      if (f.exists() && _add(result, _fileURL(f)) && ! all) { return result; }
+    }
+    for (; j < jars.length; j++) {
+      if (_add(result, _jarURL(jars[j], name)) && ! all) { return result; }
+    }
+    return result;
+  }
+  
+  /** @return {@code true} iff the given resource name refers to a location outside of every path entry */
+  private static boolean _isOutside(String name) {
+    return name.startsWith("/") || name.equals("..") || name.startsWith("../") || name.contains("/../") ||
+      name.endsWith("/..");
+  }
+  
+  private static boolean _add(List<URL> result, URL url) {
+    if (url == null) { return false; }
+    result.add(url);
+    return true;
+  }
+  
+  private static URL _fileURL(File f) {
+    try { return f.toURI().toURL(); }
+    catch (MalformedURLException e) { error.log(e); return null; }
+  }
+  
+  /** Make the URL of a resource in the jar at the given position. */
+  private URL _jarURL(int position, String name) {
+    try {
+      String prefix = _listings.get(position).urlPrefix;
+      for (int i = 0; i < name.length(); i++) {
+        char c = name.charAt(i);
+        boolean plain = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || 
+          c == '/' || c == '.' || c == '_' || c == '$' || c == '-';
+        if (! plain) { return new URL(prefix + new URI(null, null, "/" + name, null).getRawPath().substring(1)); }
+      }
+      return new URL(prefix + name);
+    }
+    catch (URISyntaxException e) { error.log(e); return null; }
+    catch (MalformedURLException e) { error.log(e); return null; }
+  }
+  
+  /** Get the listing of the given jar file, reading it unless it has been read since it was last modified.
+    * @return the listing, or {@code null} if the file cannot be read
+    */
+  private static JarListing _getListing(File f) {
+    long modified = f.lastModified();
+    synchronized(LISTINGS) {
+      JarListing listing = LISTINGS.get(f);
+      if (listing != null && listing.modified == modified) { return listing; }
+    }
+    JarListing listing = JarListing.read(f, modified);
+    if (listing != null) {
+      synchronized(LISTINGS) {
+        if (LISTINGS.size() >= MAX_LISTINGS) { LISTINGS.clear(); }
+        LISTINGS.put(f, listing);
+      }
+    }
+    return listing;
+  }
+  
+  /** The entry names in one jar file, as of its modification time. */
+  private static class JarListing {
+    public final long modified;
+    /** The URL of the jar's root directory, "jar:file:...!/". */
+    public final String urlPrefix;
+    public final Set<String> names;
+    public final List<File> manifestPath;
+    
+    private JarListing(long m, String prefix) {
+      modified = m;
+      urlPrefix = prefix;
+      names = new HashSet<String>();
+      manifestPath = new LinkedList<File>();
+    }
+    
+    /** Read the given jar file, or return {@code null} if it cannot be read. */
+    public static JarListing read(File f, long modified) {
+      try {
+        JarListing result = new JarListing(modified, "jar:" + f.toURI().toURL() + "!/");
+        JarFile jar = new JarFile(f);
+        try {
+          Enumeration<JarEntry> entries = jar.entries();
+          while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith("META-INF/versions/")) {
+              // multi-release jar: a jar URL for the unversioned name resolves to the right version
+              int slash = name.indexOf('/', "META-INF/versions/".length());
+              if (slash < 0) { continue; }
+              name = name.substring(slash + 1);
+            }
+            result.names.add(name);
+          }
+          Manifest manifest = jar.getManifest();
+          String classPath = (manifest == null) ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+          if (classPath != null) {
+            URL base = f.toURI().toURL();
+            for (String entry : classPath.trim().split("\\s+")) {
+              if (entry.length() == 0) { continue; }
+              URL url = new URL(base, entry);
+              if (url.getProtocol().equals("file")) { result.manifestPath.add(new File(url.toURI())); }
+            }
+          }
+        }
+        finally { jar.close(); }
+        return result;
+      }
+      catch (IOException e) { error.log(e); return null; }
+      catch (URISyntaxException e) { error.log(e); return null; }
+      catch (IllegalArgumentException e) { error.log(e); return null; }
+    }
+  }
+}
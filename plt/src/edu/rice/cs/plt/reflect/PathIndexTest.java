@@ -0,0 +1,121 @@
+/*BEGIN_COPYRIGHT_BLOCK*
+
+PLT Utilities BSD License
+
+Copyright (c) 2007-2010 JavaPLT group at Rice University
+All rights reserved.
+
+Developed by:   Java Programming Languages Team
+                Rice University
+                http://www.cs.rice.edu/~javaplt/
+
+Redistribution and use in source and binary forms, with or without modification, are permitted 
+provided that the following conditions are met:
+
+    - Redistributions of source code must retain the above copyright notice, this list of conditions 
+      and the following disclaimer.
+    - Redistributions in binary form must reproduce the above copyright notice, this list of 
+      conditions and the following disclaimer in the documentation and/or other materials provided 
+      with the distribution.
+    - Neither the name of the JavaPLT group, Rice University, nor the names of the library's 
+      contributors may be used to endorse or promote products derived from this software without 
+      specific prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR 
+IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND 
+FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS AND 
+CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, 
+DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER 
+IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT 
+OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+*END_COPYRIGHT_BLOCK*/
+
+package edu.rice.cs.plt.reflect;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import junit.framework.TestCase;
+
+import edu.rice.cs.plt.io.IOUtil;
+import edu.rice.cs.plt.iter.IterUtil;
+
+public class PathIndexTest extends TestCase {
+  
+  private File _tempDir;
+  
+  public void setUp() throws Exception {
+    super.setUp();
+    _tempDir = IOUtil.createAndMarkTempDirectory("plt-test", "");
+  }
+  
+  public void tearDown() throws Exception {
+    IOUtil.deleteRecursively(_tempDir);
+    super.tearDown();
+  }
+  
+  /** Write a jar containing empty entries with the given names, and a manifest with the given Class-Path. */
+  private File makeJar(String name, String classPath, String... entries) throws IOException {
+    File result = new File(_tempDir, name);
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    if (classPath != null) { manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath); }
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(result), manifest);
+    try {
+      for (String e : entries) { out.putNextEntry(new JarEntry(e)); out.closeEntry(); }
+    }
+    finally { out.close(); }
+    return result;
+  }
+  
+  public void testContains() throws IOException {
+    File jar = makeJar("a.jar", "b.jar", "p/A.class", "META-INF/versions/9/p/Nine.class");
+    makeJar("b.jar", null, "r/B.class");
+    File dir = new File(_tempDir, "classes");
+    IOUtil.attemptMkdirs(dir);
+    PathIndex index = new PathIndex(IterUtil.make(jar, dir, new File(_tempDir, "missing.jar")));
+    assertEquals(2, index.jarCount());
+    assertTrue(index.isComplete());
+    
+    assertTrue(index.contains("p/A.class"));
+    assertTrue(index.contains("p/Nine.class"));
+    assertTrue("jar from Class-Path", index.contains("r/B.class"));
+    assertFalse(index.contains("p/B.class"));
+    assertFalse("outside of the path", index.contains("../a.jar"));
+    
+    assertFalse(index.contains("C.class"));
+    IOUtil.writeStringToFile(new File(dir, "C.class"), "");
+    assertTrue("directories are not cached", index.contains("C.class"));
+    assertEquals(new File(dir, "C.class").toURI().toURL(), index.find("C.class", false).get(0));
+  }
+  
+  public void testUnreadableJar() throws IOException {
+    File notAJar = new File(_tempDir, "broken.jar");
+    IOUtil.writeStringToFile(notAJar, "not a zip file");
+    File jar = makeJar("a.jar", null, "p/A.class");
+    PathIndex index = new PathIndex(IterUtil.make(notAJar, jar));
+    assertFalse(index.isComplete());
+    assertEquals(1, index.jarCount());
+    assertTrue(index.contains("p/A.class"));
+  }
+  
+  public void testModifiedJar() throws IOException {
+    File jar = makeJar("a.jar", null, "p/A.class");
+    PathIndex first = new PathIndex(IterUtil.make(jar));
+    long modified = jar.lastModified();
+    makeJar("a.jar", null, "r/B.class");
+    assertTrue(jar.setLastModified(modified + 2000));
+    PathIndex second = new PathIndex(IterUtil.make(jar));
+    assertFalse(second.contains("p/A.class"));
+    assertTrue(second.contains("r/B.class"));
+    assertTrue("earlier indexes are snapshots", first.contains("p/A.class"));
+  }
+  
+}